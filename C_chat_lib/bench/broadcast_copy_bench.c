@@ -0,0 +1,278 @@
+//
+// 브로드캐스트 한 번당 메모리 복사 횟수/바이트 벤치마크
+//
+// 1) 모델 비교: 이전 방식(커맨드로 payload 복사 + 수신자마다 스택 버퍼에 frame_message)과
+//    공유 방식(프레임을 한 번 만들고 수신자는 참조만 잡았다 놓음)을 소켓 없이 같은 횟수만큼 실행해
+//    복사 횟수, 복사 바이트, 브로드캐스트당 시간을 비교합니다.
+// 2) 실측: 실제 서버에 클라이언트를 붙여 브로드캐스트를 보내고 server_get_copy_stats()로
+//    서버가 송신 경로에서 수행한 복사를 브로드캐스트당 값으로 보여줍니다.
+//    (JNA가 Java byte[]를 넘길 때의 복사는 서버 바깥에서 일어나므로 포함되지 않습니다.)
+//
+// 사용법: broadcast_copy_bench [수신자 수(기본 256)] [payload 크기(기본 512, 최대 4091)] [브로드캐스트 수(기본 2000)]
+//
+
+#include "chat_server.h"
+#include "frame_buffer.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <netinet/in.h>
+#include <pthread.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/socket.h>
+#include <time.h>
+#include <unistd.h>
+
+#define LEGACY_BUFFER_SIZE 4096
+
+typedef struct
+{
+    int fd;
+    size_t expected_bytes;
+    size_t received_bytes;
+} reader_job_t;
+
+static volatile size_t g_sink;
+
+static double now_sec(void)
+{
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (double)ts.tv_sec + (double)ts.tv_nsec / 1e9;
+}
+
+/* 이전 방식: create_broadcast_command의 payload 복사 + 수신자마다 frame_message */
+static void run_legacy_model(const int recipients, const uint8_t* payload, const size_t payload_len, const int rounds)
+{
+    unsigned long copies = 0;
+    unsigned long bytes = 0;
+    const double start = now_sec();
+
+    for (int r = 0; r < rounds; ++r)
+    {
+        uint8_t* command_payload = (uint8_t*)malloc(payload_len);
+        memcpy(command_payload, payload, payload_len);
+        copies++;
+        bytes += payload_len;
+
+        for (int i = 0; i < recipients; ++i)
+        {
+            uint8_t frame[LEGACY_BUFFER_SIZE];
+            const int frame_len = frame_message(MSG_TYPE_CHAT_TEXT, command_payload, payload_len, frame, sizeof(frame));
+            g_sink += frame[frame_len - 1];
+            copies++;
+            bytes += (unsigned long)frame_len;
+        }
+        free(command_payload);
+    }
+
+    const double elapsed = now_sec() - start;
+    printf("model  legacy : %8.1f copies/bcast %12.0f bytes/bcast %10.2f us/bcast\n",
+           (double)copies / rounds, (double)bytes / rounds, elapsed * 1e6 / rounds);
+}
+
+/* 공유 방식: 프레임 한 번 생성 + 수신자마다 참조를 잡았다 놓음 (송신 대기열에 들어간 경우와 같음) */
+static void run_shared_model(const int recipients, const uint8_t* payload, const size_t payload_len, const int rounds)
+{
+    unsigned long copies = 0;
+    unsigned long bytes = 0;
+    const double start = now_sec();
+
+    for (int r = 0; r < rounds; ++r)
+    {
+        frame_buffer_t* frame = frame_buffer_create(MSG_TYPE_CHAT_TEXT, payload, payload_len);
+        copies++;
+        bytes += frame->len;
+
+        for (int i = 0; i < recipients; ++i)
+        {
+            frame_buffer_t* ref = frame_buffer_retain(frame);
+            g_sink += ref->data[ref->len - 1];
+            frame_buffer_release(ref);
+        }
+        frame_buffer_release(frame);
+    }
+
+    const double elapsed = now_sec() - start;
+    printf("model  shared : %8.1f copies/bcast %12.0f bytes/bcast %10.2f us/bcast\n",
+           (double)copies / rounds, (double)bytes / rounds, elapsed * 1e6 / rounds);
+}
+
+static void on_quiet(void* user_data, const client_info_t* client)
+{
+    (void)user_data;
+    (void)client;
+}
+
+static void on_quiet_message(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len)
+{
+    (void)user_data;
+    (void)client;
+    (void)msg_type;
+    (void)payload;
+    (void)len;
+}
+
+static void on_quiet_error(void* user_data, const int error_code, const char* message)
+{
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static int connect_local(const int port)
+{
+    const int fd = create_tcp_socket();
+
+    if (fd < 0)
+    {
+        return -1;
+    }
+
+    struct sockaddr_in addr =
+    {
+        .sin_family = AF_INET,
+        .sin_port = htons(port),
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+
+    if (connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0)
+    {
+        close_socket(fd);
+        return -1;
+    }
+    return fd;
+}
+
+static void* reader_main(void* arg)
+{
+    reader_job_t* job = (reader_job_t*)arg;
+    uint8_t buffer[16384];
+
+    while (job->received_bytes < job->expected_bytes)
+    {
+        const ssize_t n = recv(job->fd, buffer, sizeof(buffer), 0);
+
+        if (n <= 0)
+        {
+            break;
+        }
+        job->received_bytes += (size_t)n;
+    }
+    return NULL;
+}
+
+static void run_server(const int recipients, const uint8_t* payload, const size_t payload_len, const int rounds)
+{
+    server_options_t options;
+    server_options_init(&options, 0, recipients + 16);
+
+    server_context_t* server = server_create_with_options(&options);
+
+    if (server == NULL)
+    {
+        fprintf(stderr, "server_create_with_options() failed\n");
+        return;
+    }
+
+    server_register_connect_callback(server, on_quiet, NULL);
+    server_register_complete_message_callback(server, on_quiet_message, NULL);
+    server_register_disconnect_callback(server, on_quiet, NULL);
+    server_register_error_callback(server, on_quiet_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+
+    if (server_start(server) != 0)
+    {
+        server_destroy(server);
+        return;
+    }
+
+    pthread_t* threads = (pthread_t*)calloc(recipients, sizeof(pthread_t));
+    reader_job_t* jobs = (reader_job_t*)calloc(recipients, sizeof(reader_job_t));
+    int connected = 0;
+
+    for (int i = 0; i < recipients; ++i)
+    {
+        jobs[i].fd = connect_local(ntohs(bound.sin_port));
+
+        if (jobs[i].fd < 0)
+        {
+            break;
+        }
+        jobs[i].expected_bytes = (size_t)rounds * (HEADER_SIZE + payload_len);
+        connected++;
+    }
+
+    /* 모든 연결이 루프에 등록될 때까지 기다립니다. */
+    for (int i = 0; i < 500 && atomic_load(&server->client_count) < connected; ++i)
+    {
+        usleep(10000);
+    }
+
+    for (int i = 0; i < connected; ++i)
+    {
+        pthread_create(&threads[i], NULL, reader_main, &jobs[i]);
+    }
+
+    server_copy_stats_t before;
+    server_get_copy_stats(server, &before);
+    const double start = now_sec();
+
+    for (int r = 0; r < rounds; ++r)
+    {
+        server_broadcast_message(server, MSG_TYPE_CHAT_TEXT, payload, payload_len, -1);
+    }
+
+    size_t delivered = 0;
+
+    for (int i = 0; i < connected; ++i)
+    {
+        pthread_join(threads[i], NULL);
+        delivered += jobs[i].received_bytes;
+    }
+
+    const double elapsed = now_sec() - start;
+    server_copy_stats_t after;
+    server_get_copy_stats(server, &after);
+
+    printf("server        : %8.1f copies/bcast %12.0f bytes/bcast %10.2f us/bcast  (recipients=%d, delivered=%.1f MB)\n",
+           (double)(after.copies - before.copies) / rounds, (double)(after.bytes - before.bytes) / rounds,
+           elapsed * 1e6 / rounds, connected, (double)delivered / (1024.0 * 1024.0));
+
+    for (int i = 0; i < connected; ++i)
+    {
+        close_socket(jobs[i].fd);
+    }
+    free(jobs);
+    free(threads);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+int main(const int argc, char** argv)
+{
+    const int recipients = argc > 1 ? atoi(argv[1]) : 256;
+    size_t payload_len = argc > 2 ? (size_t)atol(argv[2]) : 512;
+    const int rounds = argc > 3 ? atoi(argv[3]) : 2000;
+
+    if (payload_len == 0 || payload_len > LEGACY_BUFFER_SIZE - HEADER_SIZE)
+    {
+        payload_len = 512;
+    }
+
+    uint8_t* payload = (uint8_t*)malloc(payload_len);
+    memset(payload, 'x', payload_len);
+
+    printf("recipients=%d payload=%zu bytes broadcasts=%d\n", recipients, payload_len, rounds);
+    run_legacy_model(recipients, payload, payload_len, rounds);
+    run_shared_model(recipients, payload, payload_len, rounds);
+    run_server(recipients, payload, payload_len, rounds);
+
+    free(payload);
+    return 0;
+}
@@ -0,0 +1,240 @@
+//
+// 커맨드 큐 경합 벤치마크
+//
+// 생산자 쓰레드 수를 1부터 N까지 바꿔가며, 여러 생산자가 동시에 push하고 소비자 하나가 pop할 때
+// 초당 처리량을 측정합니다. 비교를 위해 예전 구현(뮤텍스 + push마다 calloc하는 연결 리스트)을
+// 이 파일 안에 그대로 두고 같은 조건으로 함께 돌립니다.
+// 소비자는 예전 이벤트 루프처럼 queue_is_empty()로 확인한 뒤 queue_pop()을 부릅니다.
+//
+// 사용법: command_queue_contention_bench [최대 생산자 수(기본 16)] [생산자당 push 수(기본 200000)]
+//
+
+#include "command_queue.h"
+#include <pthread.h>
+#include <stdatomic.h>
+#include <stdint.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <time.h>
+
+/* ---- 예전 구현 (뮤텍스 연결 리스트) ---- */
+
+typedef struct locked_node_t
+{
+    void* data;
+    struct locked_node_t* next;
+} locked_node_t;
+
+typedef struct
+{
+    locked_node_t* fake_head;
+    locked_node_t* tail;
+    pthread_mutex_t mutex;
+    size_t size;
+} locked_queue_t;
+
+static void* locked_create(void)
+{
+    locked_queue_t* q = (locked_queue_t*)calloc(1, sizeof(locked_queue_t));
+    q->fake_head = (locked_node_t*)calloc(1, sizeof(locked_node_t));
+    q->tail = q->fake_head;
+    q->size = 1;
+    pthread_mutex_init(&q->mutex, NULL);
+    return q;
+}
+
+static void locked_destroy(void* queue)
+{
+    locked_queue_t* q = (locked_queue_t*)queue;
+    locked_node_t* current = q->fake_head;
+
+    while (current != NULL)
+    {
+        locked_node_t* next = current->next;
+        free(current);
+        current = next;
+    }
+    pthread_mutex_destroy(&q->mutex);
+    free(q);
+}
+
+static void locked_push(void* queue, void* data)
+{
+    locked_queue_t* q = (locked_queue_t*)queue;
+    locked_node_t* node = (locked_node_t*)calloc(1, sizeof(locked_node_t));
+    node->data = data;
+
+    pthread_mutex_lock(&q->mutex);
+    q->tail->next = node;
+    q->tail = node;
+    ++q->size;
+    pthread_mutex_unlock(&q->mutex);
+}
+
+static void* locked_pop(void* queue)
+{
+    locked_queue_t* q = (locked_queue_t*)queue;
+
+    pthread_mutex_lock(&q->mutex);
+    locked_node_t* first = q->fake_head->next;
+
+    if (first == NULL)
+    {
+        pthread_mutex_unlock(&q->mutex);
+        return NULL;
+    }
+
+    void* data = first->data;
+    q->fake_head->next = first->next;
+    --q->size;
+
+    if (q->tail == first)
+    {
+        q->tail = q->fake_head;
+    }
+    pthread_mutex_unlock(&q->mutex);
+    free(first);
+    return data;
+}
+
+static int locked_is_empty(void* queue)
+{
+    locked_queue_t* q = (locked_queue_t*)queue;
+
+    pthread_mutex_lock(&q->mutex);
+    const int empty = q->size == 1;
+    pthread_mutex_unlock(&q->mutex);
+    return empty;
+}
+
+/* ---- 현재 구현 (command_queue.h) ---- */
+
+static void* lockfree_create(void)
+{
+    return queue_create();
+}
+
+static void lockfree_destroy(void* queue)
+{
+    queue_destroy((command_queue_t*)queue, NULL);
+}
+
+static void lockfree_push(void* queue, void* data)
+{
+    queue_push((command_queue_t*)queue, data);
+}
+
+static void* lockfree_pop(void* queue)
+{
+    return queue_pop((command_queue_t*)queue);
+}
+
+static int lockfree_is_empty(void* queue)
+{
+    return queue_is_empty((command_queue_t*)queue);
+}
+
+typedef struct
+{
+    const char* name;
+    void* (*create)(void);
+    void (*destroy)(void* queue);
+    void (*push)(void* queue, void* data);
+    void* (*pop)(void* queue);
+    int (*is_empty)(void* queue);
+} queue_impl_t;
+
+static const queue_impl_t g_impls[] =
+{
+    { "mutex", locked_create, locked_destroy, locked_push, locked_pop, locked_is_empty },
+    { "lock-free", lockfree_create, lockfree_destroy, lockfree_push, lockfree_pop, lockfree_is_empty },
+};
+
+typedef struct
+{
+    const queue_impl_t* impl;
+    void* queue;
+    long pushes;
+    atomic_int* start_flag;
+} producer_job_t;
+
+static double now_sec(void)
+{
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (double)ts.tv_sec + (double)ts.tv_nsec / 1e9;
+}
+
+static void* producer_main(void* arg)
+{
+    producer_job_t* job = (producer_job_t*)arg;
+
+    while (atomic_load(job->start_flag) == 0)
+    {
+    }
+    for (long i = 0; i < job->pushes; ++i)
+    {
+        job->impl->push(job->queue, (void*)(uintptr_t)(i + 1));
+    }
+    return NULL;
+}
+
+static double run_case(const queue_impl_t* impl, const int producers, const long pushes)
+{
+    void* queue = impl->create();
+    pthread_t* threads = (pthread_t*)calloc(producers, sizeof(pthread_t));
+    producer_job_t* jobs = (producer_job_t*)calloc(producers, sizeof(producer_job_t));
+    atomic_int start_flag = 0;
+
+    for (int i = 0; i < producers; ++i)
+    {
+        jobs[i].impl = impl;
+        jobs[i].queue = queue;
+        jobs[i].pushes = pushes;
+        jobs[i].start_flag = &start_flag;
+        pthread_create(&threads[i], NULL, producer_main, &jobs[i]);
+    }
+
+    const long total = (long)producers * pushes;
+    long received = 0;
+    const double start = now_sec();
+    atomic_store(&start_flag, 1);
+
+    while (received < total)
+    {
+        while (!impl->is_empty(queue))
+        {
+            if (impl->pop(queue) != NULL)
+            {
+                ++received;
+            }
+        }
+    }
+
+    const double elapsed = now_sec() - start;
+
+    for (int i = 0; i < producers; ++i)
+    {
+        pthread_join(threads[i], NULL);
+    }
+    free(jobs);
+    free(threads);
+    impl->destroy(queue);
+    return (double)total / elapsed;
+}
+
+int main(const int argc, char** argv)
+{
+    const int max_producers = argc > 1 ? atoi(argv[1]) : 16;
+    const long pushes = argc > 2 ? atol(argv[2]) : 200000;
+
+    for (int producers = 1; producers <= max_producers; producers *= 2)
+    {
+        const double locked = run_case(&g_impls[0], producers, pushes);
+        const double lockfree = run_case(&g_impls[1], producers, pushes);
+
+        printf("producers=%-3d %s=%12.0f ops/s  %s=%12.0f ops/s  x%.2f\n",
+               producers, g_impls[0].name, locked, g_impls[1].name, lockfree, lockfree / locked);
+    }
+    return 0;
+}
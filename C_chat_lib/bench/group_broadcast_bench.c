@@ -0,0 +1,249 @@
+//
+// 방(그룹) 단위 브로드캐스트 벤치마크
+//
+// 접속자를 room_size명씩 방으로 나누고, 라운드마다 모든 방에 메시지를 하나씩 보냅니다.
+// 1) per-member : 상위 계층이 방 멤버마다 server_send_payload_to_client()를 부르는 방식
+//                (방 메시지 하나에 API 호출·커맨드·프레임 복사가 멤버 수만큼)
+// 2) group      : server_group_broadcast() 한 번 (프레임 하나를 루프마다 커맨드 하나로 공유,
+//                각 루프는 자신이 가진 그 방의 멤버만 순회)
+// 접속자 수를 바꿔 가며 실행하면, group 방식의 방 메시지당 비용이 서버 크기가 아니라 방 크기를 따르는지 볼 수 있습니다.
+// 시간은 모든 클라이언트가 자신에게 온 바이트를 다 받을 때까지입니다.
+//
+// 사용법: group_broadcast_bench [접속자 수 목록(기본 256,2048)] [방 크기(기본 8)] [라운드 수(기본 200)] [io_threads(기본 2)]
+//
+
+#include "chat_server.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <netinet/in.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/socket.h>
+#include <time.h>
+#include <unistd.h>
+
+#define PAYLOAD_SIZE 64
+
+static double now_sec(void)
+{
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (double)ts.tv_sec + (double)ts.tv_nsec / 1e9;
+}
+
+static int g_server_fds[MAX_FD_LIMIT];
+static atomic_int g_accepted;
+
+static void on_connect(void* user_data, const client_info_t* client)
+{
+    (void)user_data;
+    g_server_fds[atomic_fetch_add(&g_accepted, 1)] = client->socket_fd;
+}
+
+static void on_quiet(void* user_data, const client_info_t* client)
+{
+    (void)user_data;
+    (void)client;
+}
+
+static void on_quiet_message(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len)
+{
+    (void)user_data;
+    (void)client;
+    (void)msg_type;
+    (void)payload;
+    (void)len;
+}
+
+static void on_quiet_error(void* user_data, const int error_code, const char* message)
+{
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static int connect_local(const int port)
+{
+    const int fd = create_tcp_socket();
+
+    if (fd < 0)
+    {
+        return -1;
+    }
+
+    struct sockaddr_in addr =
+    {
+        .sin_family = AF_INET,
+        .sin_port = htons(port),
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+
+    if (connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0)
+    {
+        close_socket(fd);
+        return -1;
+    }
+    return fd;
+}
+
+/* 각 클라이언트가 expected 바이트를 다 받을 때까지 읽습니다. 받은 총 바이트를 반환합니다. */
+static size_t drain_all(const int* fds, const int count, const size_t expected)
+{
+    uint8_t buffer[16384];
+    size_t total = 0;
+
+    for (int i = 0; i < count; ++i)
+    {
+        size_t received = 0;
+
+        while (received < expected)
+        {
+            const size_t want = expected - received < sizeof(buffer) ? expected - received : sizeof(buffer);
+            const ssize_t n = recv(fds[i], buffer, want, 0);
+
+            if (n <= 0)
+            {
+                break;
+            }
+            received += (size_t)n;
+        }
+        total += received;
+    }
+    return total;
+}
+
+static void run_round_trip(server_context_t* server, const int* client_fds, const int clients, const int room_size, const int rounds,
+                           const int grouped, const uint8_t* payload)
+{
+    const int rooms = clients / room_size;
+    server_copy_stats_t before;
+    server_get_copy_stats(server, &before);
+    unsigned long calls = 0;
+    const double start = now_sec();
+
+    for (int r = 0; r < rounds; ++r)
+    {
+        for (int room = 0; room < rooms; ++room)
+        {
+            if (grouped)
+            {
+                server_group_broadcast(server, room, MSG_TYPE_CHAT_TEXT, payload, PAYLOAD_SIZE, -1);
+                calls++;
+                continue;
+            }
+            for (int m = 0; m < room_size; ++m)
+            {
+                server_send_payload_to_client(server, g_server_fds[room * room_size + m], MSG_TYPE_CHAT_TEXT, payload, PAYLOAD_SIZE);
+                calls++;
+            }
+        }
+    }
+
+    const double submitted = now_sec() - start;
+    const size_t delivered = drain_all(client_fds, rooms * room_size, (size_t)rounds * (HEADER_SIZE + PAYLOAD_SIZE));
+    const double elapsed = now_sec() - start;
+    server_copy_stats_t after;
+    server_get_copy_stats(server, &after);
+    const double messages = (double)rounds * rooms;
+
+    printf("  %-10s: %6.2f calls/msg %6.2f copies/msg %8.3f us/msg (submit %8.3f us/msg)  delivered=%.1f MB\n",
+           grouped ? "group" : "per-member", (double)calls / messages, (double)(after.copies - before.copies) / messages,
+           elapsed * 1e6 / messages, submitted * 1e6 / messages, (double)delivered / (1024.0 * 1024.0));
+}
+
+static void run_clients(const int clients, const int room_size, const int rounds, const int io_threads, const uint8_t* payload)
+{
+    server_options_t options;
+    server_options_init(&options, 0, clients + 16);
+    options.io_threads = io_threads;
+
+    server_context_t* server = server_create_with_options(&options);
+
+    if (server == NULL)
+    {
+        fprintf(stderr, "server_create_with_options() failed\n");
+        return;
+    }
+
+    server_register_connect_callback(server, on_connect, NULL);
+    server_register_complete_message_callback(server, on_quiet_message, NULL);
+    server_register_disconnect_callback(server, on_quiet, NULL);
+    server_register_error_callback(server, on_quiet_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+
+    if (server_start(server) != 0)
+    {
+        server_destroy(server);
+        return;
+    }
+
+    int* client_fds = (int*)calloc(clients, sizeof(int));
+    int connected = 0;
+    atomic_store(&g_accepted, 0);
+
+    /* 하나씩 연결해 g_server_fds[i]가 client_fds[i]의 서버 쪽 fd가 되게 합니다. */
+    for (int i = 0; i < clients; ++i)
+    {
+        client_fds[i] = connect_local(ntohs(bound.sin_port));
+
+        if (client_fds[i] < 0)
+        {
+            break;
+        }
+        connected++;
+
+        for (int w = 0; w < 500 && atomic_load(&g_accepted) < connected; ++w)
+        {
+            usleep(100);
+        }
+    }
+
+    const int usable = connected / room_size * room_size;
+
+    for (int i = 0; i < usable; ++i)
+    {
+        server_group_join(server, i / room_size, g_server_fds[i]);
+    }
+
+    printf("clients=%d rooms=%d room_size=%d rounds=%d io_threads=%d\n", usable, usable / room_size, room_size, rounds, io_threads);
+    run_round_trip(server, client_fds, usable, room_size, rounds, 0, payload);
+    run_round_trip(server, client_fds, usable, room_size, rounds, 1, payload);
+
+    for (int i = 0; i < connected; ++i)
+    {
+        close_socket(client_fds[i]);
+    }
+    free(client_fds);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+int main(const int argc, char** argv)
+{
+    const char* client_list = argc > 1 ? argv[1] : "256,2048";
+    const int room_size = argc > 2 && atoi(argv[2]) > 0 ? atoi(argv[2]) : 8;
+    const int rounds = argc > 3 && atoi(argv[3]) > 0 ? atoi(argv[3]) : 200;
+    const int io_threads = argc > 4 && atoi(argv[4]) > 0 ? atoi(argv[4]) : 2;
+
+    uint8_t payload[PAYLOAD_SIZE];
+    memset(payload, 'x', sizeof(payload));
+
+    char* list = strdup(client_list);
+
+    for (char* token = strtok(list, ","); token != NULL; token = strtok(NULL, ","))
+    {
+        const int clients = atoi(token);
+
+        if (clients >= room_size && clients < MAX_FD_LIMIT / 2)
+        {
+            run_clients(clients, room_size, rounds, io_threads, payload);
+        }
+    }
+    free(list);
+    return 0;
+}
@@ -0,0 +1,234 @@
+//
+// 유휴 연결 수에 따른 이벤트 루프 비용 벤치마크 (poll vs epoll)
+//
+// N개의 유휴 연결을 붙여둔 상태에서 활성 클라이언트 하나가 에코 왕복을 반복합니다.
+// 왕복 한 번마다 서버는 소켓 수신과 커맨드 파이프로 두 번 깨어나므로,
+// poll 백엔드는 N에 비례하고 epoll 백엔드는 N과 무관한 비용이 나와야 합니다.
+//
+// 사용법: idle_connections_bench [연결 수 목록(기본 1000,10000)] [왕복 횟수(기본 20000)]
+//
+
+#include "chat_server.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <errno.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/resource.h>
+#include <sys/socket.h>
+#include <time.h>
+#include <unistd.h>
+
+static void on_echo(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len)
+{
+    server_send_payload_to_client((server_context_t*)user_data, client->socket_fd, msg_type, payload, len);
+}
+
+static void on_quiet(void* user_data, const client_info_t* client)
+{
+    (void)user_data;
+    (void)client;
+}
+
+static void on_quiet_error(void* user_data, const int error_code, const char* message)
+{
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static double now_sec(void)
+{
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (double)ts.tv_sec + (double)ts.tv_nsec / 1e9;
+}
+
+static double cpu_sec(void)
+{
+    struct rusage usage;
+    getrusage(RUSAGE_SELF, &usage);
+    return (double)(usage.ru_utime.tv_sec + usage.ru_stime.tv_sec)
+         + (double)(usage.ru_utime.tv_usec + usage.ru_stime.tv_usec) / 1e6;
+}
+
+static int connect_local(const int port)
+{
+    const int fd = create_tcp_socket();
+
+    if (fd < 0)
+    {
+        return -1;
+    }
+
+    struct sockaddr_in addr =
+    {
+        .sin_family = AF_INET,
+        .sin_port = htons(port),
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+
+    if (connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0)
+    {
+        close_socket(fd);
+        return -1;
+    }
+    return fd;
+}
+
+static int read_fully(const int fd, uint8_t* buffer, const size_t len)
+{
+    size_t received = 0;
+
+    while (received < len)
+    {
+        const ssize_t n = recv(fd, buffer + received, len - received, 0);
+
+        if (n <= 0)
+        {
+            return -1;
+        }
+        received += (size_t)n;
+    }
+    return 0;
+}
+
+static int run_case(const poller_backend_t backend, int idle_count, const int round_trips)
+{
+    server_options_t options;
+    server_options_init(&options, 0, idle_count + 16);
+    options.io_backend = backend;
+
+    server_context_t* server = server_create_with_options(&options);
+
+    if (server == NULL)
+    {
+        fprintf(stderr, "server_create_with_options() failed\n");
+        return -1;
+    }
+
+    server_register_complete_message_callback(server, on_echo, server);
+    server_register_connect_callback(server, on_quiet, NULL);
+    server_register_disconnect_callback(server, on_quiet, NULL);
+    server_register_error_callback(server, on_quiet_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+    const int port = ntohs(bound.sin_port);
+
+    if (server_start(server) != 0)
+    {
+        server_destroy(server);
+        return -1;
+    }
+
+    int* idle_fds = (int*)malloc(sizeof(int) * (size_t)idle_count);
+    int opened = 0;
+
+    for (; opened < idle_count; ++opened)
+    {
+        idle_fds[opened] = connect_local(port);
+
+        if (idle_fds[opened] < 0)
+        {
+            fprintf(stderr, "connect() failed after %d idle connections: %s\n", opened, strerror(errno));
+            break;
+        }
+    }
+
+    /* 서버가 모든 유휴 연결을 accept할 때까지 대기 */
+    for (int wait = 0; wait < 500 && server->client_count < opened; ++wait)
+    {
+        usleep(10000);
+    }
+
+    const int active_fd = connect_local(port);
+    const char* text = "ping";
+    uint8_t frame[64];
+    const int frame_len = frame_message(MSG_TYPE_CHAT_TEXT, (const uint8_t*)text, strlen(text), frame, sizeof(frame));
+    uint8_t reply[64];
+
+    /* 워밍업 */
+    for (int i = 0; i < 100; ++i)
+    {
+        send(active_fd, frame, frame_len, 0);
+        read_fully(active_fd, reply, frame_len);
+    }
+
+    const double wall_start = now_sec();
+    const double cpu_start = cpu_sec();
+
+    for (int i = 0; i < round_trips; ++i)
+    {
+        if (send(active_fd, frame, frame_len, 0) != frame_len || read_fully(active_fd, reply, frame_len) < 0)
+        {
+            fprintf(stderr, "round trip %d failed\n", i);
+            break;
+        }
+    }
+
+    const double wall = now_sec() - wall_start;
+    const double cpu = cpu_sec() - cpu_start;
+
+    printf("%-6s idle=%-6d round_trips=%-7d %8.2f us/round_trip (wall)  %8.2f us/round_trip (cpu)\n",
+           backend == POLLER_BACKEND_EPOLL ? "epoll" : "poll",
+           opened, round_trips, wall * 1e6 / round_trips, cpu * 1e6 / round_trips);
+
+    close_socket(active_fd);
+
+    for (int i = 0; i < opened; ++i)
+    {
+        close_socket(idle_fds[i]);
+    }
+    free(idle_fds);
+
+    server_shutdown(server);
+    server_destroy(server);
+    return 0;
+}
+
+int main(const int argc, char** argv)
+{
+    const char* counts_arg = argc > 1 ? argv[1] : "1000,10000";
+    const int round_trips = argc > 2 ? atoi(argv[2]) : 20000;
+
+    /* 유휴 연결 하나당 클라이언트/서버 양쪽 fd 두 개가 필요 */
+    struct rlimit limit;
+    getrlimit(RLIMIT_NOFILE, &limit);
+    limit.rlim_cur = limit.rlim_max;
+    setrlimit(RLIMIT_NOFILE, &limit);
+    getrlimit(RLIMIT_NOFILE, &limit);
+
+    int max_idle = (int)((limit.rlim_cur - 64) / 2);
+
+    if (max_idle > MAX_FD_LIMIT / 2 - 64)
+    {
+        max_idle = MAX_FD_LIMIT / 2 - 64;
+    }
+
+    char* counts = strdup(counts_arg);
+
+    for (char* token = strtok(counts, ","); token != NULL; token = strtok(NULL, ","))
+    {
+        int idle_count = atoi(token);
+
+        if (idle_count > max_idle)
+        {
+            fprintf(stderr, "note: RLIMIT_NOFILE=%llu allows at most %d idle connections; clamping %d -> %d\n",
+                    (unsigned long long)limit.rlim_cur, max_idle, idle_count, max_idle);
+            idle_count = max_idle;
+        }
+
+        run_case(POLLER_BACKEND_POLL, idle_count, round_trips);
+
+        if (poller_backend_available(POLLER_BACKEND_EPOLL))
+        {
+            run_case(POLLER_BACKEND_EPOLL, idle_count, round_trips);
+        }
+    }
+    free(counts);
+    return 0;
+}
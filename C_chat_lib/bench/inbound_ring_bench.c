@@ -0,0 +1,314 @@
+//
+// 수신 경로 벤치마크: 메시지마다 콜백(업콜) vs 공유 메모리 수신 링
+//
+// 클라이언트들이 작은 채팅 메시지를 최대 속도로 보내고, 서버가 모든 메시지를 상위 계층에 넘길 때까지의
+// 시간을 잽니다. 상위 계층의 메시지당 처리 비용(JNA 업콜 + 핸들러)을 인자로 주는 시간만큼 바쁜 대기로 흉내냅니다.
+// - 콜백 모드: 그 비용을 이벤트 루프 쓰레드가 메시지마다 직접 치르므로, 그동안 루프는 소켓을 읽지 못합니다.
+// - 링 모드: 루프는 링에 레코드를 쓰기만 하고, 소비자 쓰레드가 여러 레코드를 한 번에 읽으며 비용을 치릅니다.
+//   소비자가 잠들었다 깨어난 횟수(메시지당)로 깨우기가 얼마나 묶였는지도 보여줍니다.
+// 부하가 걸린 동안 별도의 탐침 클라이언트로 브로드캐스트 왕복 시간을 재서, 루프가 얼마나 오래 묶이는지도 비교합니다.
+//
+// 사용법: inbound_ring_bench [클라이언트 수(기본 8)] [클라이언트당 메시지 수(기본 20000)]
+//                            [메시지당 처리 비용 ns(기본 2000)] [링 크기 바이트(기본 1048576)]
+//
+
+#include "chat_server.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <netinet/in.h>
+#include <pthread.h>
+#include <stdatomic.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/socket.h>
+#include <time.h>
+#include <unistd.h>
+
+#define BENCH_PAYLOAD_SIZE 64
+
+typedef struct
+{
+    server_context_t* server;
+    int index;
+    pthread_t thread;
+    unsigned long wakeups;
+} consumer_job_t;
+
+typedef struct
+{
+    int port;
+    int messages;
+    pthread_t thread;
+} sender_job_t;
+
+static atomic_long g_delivered;
+static long g_work_ns;
+
+static double now_sec(void)
+{
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (double)ts.tv_sec + (double)ts.tv_nsec / 1e9;
+}
+
+/* 상위 계층의 메시지당 처리 비용을 바쁜 대기로 흉내냅니다. */
+static void spend_work(void)
+{
+    struct timespec start;
+    struct timespec now;
+    clock_gettime(CLOCK_MONOTONIC, &start);
+
+    do
+    {
+        clock_gettime(CLOCK_MONOTONIC, &now);
+    } while ((now.tv_sec - start.tv_sec) * 1000000000L + (now.tv_nsec - start.tv_nsec) < g_work_ns);
+}
+
+static void on_message(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len)
+{
+    (void)user_data;
+    (void)client;
+    (void)msg_type;
+    (void)payload;
+    (void)len;
+    spend_work();
+    atomic_fetch_add(&g_delivered, 1);
+}
+
+static void on_record(void* user_data, const inbound_record_kind_t kind, const int fd, const int msg_type, const uint8_t* payload, const size_t len)
+{
+    (void)user_data;
+    (void)fd;
+    (void)msg_type;
+    (void)payload;
+    (void)len;
+
+    if (kind == INBOUND_RECORD_MESSAGE)
+    {
+        spend_work();
+        atomic_fetch_add(&g_delivered, 1);
+    }
+}
+
+static void on_client(void* user_data, const client_info_t* client)
+{
+    (void)user_data;
+    (void)client;
+}
+
+static void on_error(void* user_data, const int error_code, const char* message)
+{
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static void* consumer_main(void* arg)
+{
+    consumer_job_t* job = (consumer_job_t*)arg;
+
+    for (;;)
+    {
+        if (server_consume_inbound(job->server, job->index, on_record, NULL, 256) > 0)
+        {
+            continue;
+        }
+
+        const int rc = server_wait_inbound(job->server, job->index, 100);
+
+        if (rc < 0)
+        {
+            return NULL;
+        }
+        job->wakeups++;
+    }
+}
+
+static int connect_local(const int port)
+{
+    const int fd = create_tcp_socket();
+    struct sockaddr_in addr =
+    {
+        .sin_family = AF_INET,
+        .sin_port = htons(port),
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+
+    if (fd < 0 || connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0)
+    {
+        perror("connect");
+        exit(1);
+    }
+    return fd;
+}
+
+static void* sender_main(void* arg)
+{
+    const sender_job_t* job = (const sender_job_t*)arg;
+    const int fd = connect_local(job->port);
+
+    uint8_t payload[BENCH_PAYLOAD_SIZE];
+    uint8_t frame[HEADER_SIZE + BENCH_PAYLOAD_SIZE];
+    memset(payload, 'x', sizeof(payload));
+    const int frame_len = frame_message(MSG_TYPE_CHAT_TEXT, payload, sizeof(payload), frame, sizeof(frame));
+
+    /* 프레임 여러 개를 묶어 보내 클라이언트 쪽 시스템 콜 비용이 결과를 가리지 않게 합니다. */
+    uint8_t batch[64 * (HEADER_SIZE + BENCH_PAYLOAD_SIZE)];
+    for (int i = 0; i < 64; ++i)
+    {
+        memcpy(batch + i * frame_len, frame, (size_t)frame_len);
+    }
+
+    int remaining = job->messages;
+    while (remaining > 0)
+    {
+        const int count = remaining < 64 ? remaining : 64;
+        size_t sent = 0;
+        const size_t total = (size_t)count * (size_t)frame_len;
+
+        while (sent < total)
+        {
+            const ssize_t n = send(fd, batch + sent, total - sent, MSG_NOSIGNAL);
+            if (n <= 0)
+            {
+                perror("send");
+                close_socket(fd);
+                return NULL;
+            }
+            sent += (size_t)n;
+        }
+        remaining -= count;
+    }
+
+    /* 서버가 다 읽을 때까지 연결을 유지합니다. (run_mode가 g_delivered를 -1로 바꾸면 끝) */
+    while (atomic_load(&g_delivered) >= 0)
+    {
+        usleep(1000);
+    }
+    close_socket(fd);
+    return NULL;
+}
+
+static void run_mode(const char* name, const size_t ring_bytes, const int clients, const int messages)
+{
+    server_options_t options;
+    server_options_init(&options, 0, clients + 8);
+    options.inbound_ring_bytes = ring_bytes;
+
+    server_context_t* server = server_create_with_options(&options);
+    if (server == NULL)
+    {
+        fprintf(stderr, "server_create_with_options failed\n");
+        exit(1);
+    }
+    server_register_connect_callback(server, on_client, NULL);
+    server_register_complete_message_callback(server, on_message, NULL);
+    server_register_disconnect_callback(server, on_client, NULL);
+    server_register_error_callback(server, on_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+
+    atomic_store(&g_delivered, 0);
+    if (server_start(server) != 0)
+    {
+        fprintf(stderr, "server_start failed\n");
+        exit(1);
+    }
+
+    const int rings = server_get_inbound_ring_count(server);
+    consumer_job_t* consumers = (consumer_job_t*)calloc((size_t)(rings > 0 ? rings : 1), sizeof(consumer_job_t));
+    for (int i = 0; i < rings; ++i)
+    {
+        consumers[i].server = server;
+        consumers[i].index = i;
+        pthread_create(&consumers[i].thread, NULL, consumer_main, &consumers[i]);
+    }
+
+    const int probe_fd = connect_local(ntohs(bound.sin_port));
+    usleep(50000);
+
+    sender_job_t* senders = (sender_job_t*)calloc((size_t)clients, sizeof(sender_job_t));
+    const long expected = (long)clients * messages;
+    const double start = now_sec();
+
+    for (int i = 0; i < clients; ++i)
+    {
+        senders[i].port = ntohs(bound.sin_port);
+        senders[i].messages = messages;
+        pthread_create(&senders[i].thread, NULL, sender_main, &senders[i]);
+    }
+
+    /* 부하가 걸린 동안 탐침 클라이언트로 브로드캐스트 왕복 시간을 잽니다. */
+    double probe_total = 0.0;
+    double probe_max = 0.0;
+    int probes = 0;
+
+    while (atomic_load(&g_delivered) < expected)
+    {
+        const double sent_at = now_sec();
+        uint8_t reply[HEADER_SIZE + 1];
+        server_broadcast_message(server, MSG_TYPE_SERVER_NOTICE, (const uint8_t*)"p", 1, -1);
+
+        if (recv(probe_fd, reply, sizeof(reply), MSG_WAITALL) == (ssize_t)sizeof(reply))
+        {
+            const double rtt = now_sec() - sent_at;
+            probe_total += rtt;
+            probe_max = rtt > probe_max ? rtt : probe_max;
+            probes++;
+        }
+        usleep(1000);
+    }
+    const double elapsed = now_sec() - start;
+
+    /* 보내는 쪽 쓰레드가 연결을 닫고 끝나도록 알립니다. */
+    atomic_store(&g_delivered, -1);
+    for (int i = 0; i < clients; ++i)
+    {
+        pthread_join(senders[i].thread, NULL);
+    }
+
+    close_socket(probe_fd);
+    unsigned long wakeups = 0;
+    const unsigned long overflows = server_get_inbound_overflow_count(server);
+    server_shutdown(server);
+    for (int i = 0; i < rings; ++i)
+    {
+        pthread_join(consumers[i].thread, NULL);
+        wakeups += consumers[i].wakeups;
+    }
+    server_destroy(server);
+
+    printf("%-10s %10ld msgs %8.3f s %12.0f msgs/s   probe rtt avg %.3f ms max %.3f ms", name, expected, elapsed,
+           (double)expected / elapsed, probes > 0 ? probe_total * 1000.0 / probes : 0.0, probe_max * 1000.0);
+    if (rings > 0)
+    {
+        printf("   consumer wakeups/msg %.4f   overflow records %lu", (double)wakeups / (double)expected, overflows);
+    }
+    printf("\n");
+
+    free(senders);
+    free(consumers);
+}
+
+int main(const int argc, char** argv)
+{
+    const int clients = argc > 1 ? atoi(argv[1]) : 8;
+    const int messages = argc > 2 ? atoi(argv[2]) : 20000;
+    g_work_ns = argc > 3 ? atol(argv[3]) : 2000;
+    const size_t ring_bytes = argc > 4 ? (size_t)atol(argv[4]) : 1048576;
+
+    if (clients <= 0 || messages <= 0 || g_work_ns < 0 || ring_bytes == 0)
+    {
+        fprintf(stderr, "usage: %s [clients] [messages per client] [work ns per message] [ring bytes]\n", argv[0]);
+        return 1;
+    }
+
+    printf("clients=%d messages/client=%d work=%ldns payload=%dB ring=%zuB\n", clients, messages, g_work_ns, BENCH_PAYLOAD_SIZE, ring_bytes);
+    run_mode("callback", 0, clients, messages);
+    run_mode("ring", ring_bytes, clients, messages);
+    return 0;
+}
@@ -0,0 +1,240 @@
+//
+// 이벤트 루프 수(io_threads)에 따른 처리량 확장 벤치마크
+//
+// io_threads를 1부터 N까지 바꿔가며, 여러 클라이언트 쓰레드가 동시에 에코 요청을 보낼 때
+// 서버가 초당 처리하는 메시지 수를 측정합니다. 각 클라이언트는 window개의 요청을
+// 한 번에 보낸 뒤 응답을 모두 읽는 과정을 반복합니다.
+// 루프 수가 늘수록 처리량이 코어 수까지 비례해서 늘어나는지 확인하는 용도입니다.
+// 코어가 하나뿐인 환경에서는 루프를 늘려도 처리량이 늘지 않는 것이 정상입니다.
+//
+// 주의: 서버 소켓은 TCP_NODELAY를 쓰지 않으므로 window를 2 이상으로 주면
+//       작은 응답 프레임들이 Nagle 알고리즘에 묶여 지연 시간이 측정값을 지배합니다.
+//
+// 사용법: loop_scaling_bench [최대 루프 수(기본 코어 수)] [클라이언트 수(기본 32)] [클라이언트당 메시지 수(기본 20000)] [window(기본 1)]
+//
+
+#include "chat_server.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <netinet/in.h>
+#include <netinet/tcp.h>
+#include <pthread.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/socket.h>
+#include <time.h>
+#include <unistd.h>
+
+#define BENCH_PAYLOAD "0123456789abcdef0123456789abcdef"
+
+typedef struct
+{
+    int port;
+    int messages;
+    int window;
+    int completed;
+} client_job_t;
+
+static void on_echo(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len)
+{
+    server_send_payload_to_client((server_context_t*)user_data, client->socket_fd, msg_type, payload, len);
+}
+
+static void on_quiet(void* user_data, const client_info_t* client)
+{
+    (void)user_data;
+    (void)client;
+}
+
+static void on_quiet_error(void* user_data, const int error_code, const char* message)
+{
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static double now_sec(void)
+{
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (double)ts.tv_sec + (double)ts.tv_nsec / 1e9;
+}
+
+static int connect_local(const int port)
+{
+    const int fd = create_tcp_socket();
+
+    if (fd < 0)
+    {
+        return -1;
+    }
+
+    struct sockaddr_in addr =
+    {
+        .sin_family = AF_INET,
+        .sin_port = htons(port),
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+
+    if (connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0)
+    {
+        close_socket(fd);
+        return -1;
+    }
+
+    const int on = 1;
+    setsockopt(fd, IPPROTO_TCP, TCP_NODELAY, &on, sizeof(on));
+    return fd;
+}
+
+static int read_fully(const int fd, uint8_t* buffer, const size_t len)
+{
+    size_t received = 0;
+
+    while (received < len)
+    {
+        const ssize_t n = recv(fd, buffer + received, len - received, 0);
+
+        if (n <= 0)
+        {
+            return -1;
+        }
+        received += (size_t)n;
+    }
+    return 0;
+}
+
+static void* client_main(void* arg)
+{
+    client_job_t* job = (client_job_t*)arg;
+    const int fd = connect_local(job->port);
+
+    if (fd < 0)
+    {
+        return NULL;
+    }
+
+    uint8_t frame[64];
+    const int frame_len = frame_message(MSG_TYPE_CHAT_TEXT, (const uint8_t*)BENCH_PAYLOAD, strlen(BENCH_PAYLOAD), frame, sizeof(frame));
+    uint8_t* batch = (uint8_t*)malloc((size_t)frame_len * job->window);
+
+    for (int i = 0; i < job->window; ++i)
+    {
+        memcpy(batch + (size_t)i * frame_len, frame, frame_len);
+    }
+
+    int done = 0;
+
+    while (done < job->messages)
+    {
+        const int count = job->messages - done < job->window ? job->messages - done : job->window;
+        const size_t batch_len = (size_t)frame_len * count;
+
+        if (send(fd, batch, batch_len, MSG_NOSIGNAL) != (ssize_t)batch_len || read_fully(fd, batch, batch_len) < 0)
+        {
+            break;
+        }
+
+        /* 응답으로 덮어쓴 버퍼를 다음 요청에 그대로 재사용합니다. (에코이므로 내용이 같음) */
+        done += count;
+    }
+    job->completed = done;
+
+    free(batch);
+    close_socket(fd);
+    return NULL;
+}
+
+static void run_case(const int io_threads, const int clients, const int messages, const int window)
+{
+    server_options_t options;
+    server_options_init(&options, 0, clients + 16);
+    options.io_threads = io_threads;
+
+    server_context_t* server = server_create_with_options(&options);
+
+    if (server == NULL)
+    {
+        fprintf(stderr, "server_create_with_options() failed\n");
+        return;
+    }
+
+    server_register_complete_message_callback(server, on_echo, server);
+    server_register_connect_callback(server, on_quiet, NULL);
+    server_register_disconnect_callback(server, on_quiet, NULL);
+    server_register_error_callback(server, on_quiet_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+
+    if (server_start(server) != 0)
+    {
+        server_destroy(server);
+        return;
+    }
+
+    pthread_t* threads = (pthread_t*)calloc(clients, sizeof(pthread_t));
+    client_job_t* jobs = (client_job_t*)calloc(clients, sizeof(client_job_t));
+
+    const double start = now_sec();
+
+    for (int i = 0; i < clients; ++i)
+    {
+        jobs[i].port = ntohs(bound.sin_port);
+        jobs[i].messages = messages;
+        jobs[i].window = window;
+        pthread_create(&threads[i], NULL, client_main, &jobs[i]);
+    }
+
+    long total = 0;
+
+    for (int i = 0; i < clients; ++i)
+    {
+        pthread_join(threads[i], NULL);
+        total += jobs[i].completed;
+    }
+
+    const double elapsed = now_sec() - start;
+
+    printf("io_threads=%-3d clients=%-4d messages=%-9ld %10.0f msg/s  %8.3f s\n",
+           io_threads, clients, total, (double)total / elapsed, elapsed);
+
+    free(jobs);
+    free(threads);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+int main(const int argc, char** argv)
+{
+    const long cores = sysconf(_SC_NPROCESSORS_ONLN);
+    int max_threads = argc > 1 ? atoi(argv[1]) : (int)cores;
+    const int clients = argc > 2 ? atoi(argv[2]) : 32;
+    const int messages = argc > 3 ? atoi(argv[3]) : 20000;
+    const int window = argc > 4 ? atoi(argv[4]) : 1;
+
+    if (max_threads < 1)
+    {
+        max_threads = 1;
+    }
+    if (max_threads > SERVER_MAX_IO_THREADS)
+    {
+        max_threads = SERVER_MAX_IO_THREADS;
+    }
+
+    printf("online cores: %ld\n", cores);
+
+    for (int io_threads = 1; io_threads <= max_threads; io_threads *= 2)
+    {
+        run_case(io_threads, clients, messages, window);
+
+        if (io_threads * 2 > max_threads && io_threads != max_threads)
+        {
+            run_case(max_threads, clients, messages, window);
+        }
+    }
+    return 0;
+}
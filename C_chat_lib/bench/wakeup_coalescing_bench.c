@@ -0,0 +1,250 @@
+//
+// 커맨드 큐 깨우기 병합(coalescing) 벤치마크
+//
+// 여러 생산자 쓰레드가 한 클라이언트에게 server_send_payload_to_client()를 연달아 호출할 때,
+// 메시지 하나당 깨우기 fd에 쓰는 횟수(signals)와 루프가 깨어나는 횟수(wakeups)를 측정합니다.
+// 큐가 비어 있다가 채워질 때만 신호를 보내므로, 몰려드는 메시지일수록 메시지당 시스템 콜이 1보다 작아집니다.
+// Linux에서는 /proc/self/io의 read/write 시스템 콜 수 변화도 함께 출력합니다.
+// (소켓 send/recv는 포함되지 않으므로 대부분 깨우기 fd에 대한 read/write입니다.)
+//
+// 사용법: wakeup_coalescing_bench [최대 생산자 수(기본 8)] [생산자당 메시지 수(기본 50000)]
+//
+
+#include "chat_server.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <netinet/in.h>
+#include <pthread.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/socket.h>
+#include <time.h>
+#include <unistd.h>
+
+#define BENCH_PAYLOAD "0123456789abcdef0123456789abcdef"
+
+typedef struct
+{
+    server_context_t* server;
+    int client_fd;
+    int messages;
+} producer_job_t;
+
+typedef struct
+{
+    int fd;
+    size_t expected_bytes;
+} reader_job_t;
+
+static int g_server_side_fd = -1;
+static pthread_mutex_t g_mutex = PTHREAD_MUTEX_INITIALIZER;
+
+static void on_connect(void* user_data, const client_info_t* client)
+{
+    (void)user_data;
+    pthread_mutex_lock(&g_mutex);
+    g_server_side_fd = client->socket_fd;
+    pthread_mutex_unlock(&g_mutex);
+}
+
+static void on_quiet(void* user_data, const client_info_t* client)
+{
+    (void)user_data;
+    (void)client;
+}
+
+static void on_quiet_message(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len)
+{
+    (void)user_data;
+    (void)client;
+    (void)msg_type;
+    (void)payload;
+    (void)len;
+}
+
+static void on_quiet_error(void* user_data, const int error_code, const char* message)
+{
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static double now_sec(void)
+{
+    struct timespec ts;
+    clock_gettime(CLOCK_MONOTONIC, &ts);
+    return (double)ts.tv_sec + (double)ts.tv_nsec / 1e9;
+}
+
+/* /proc/self/io에서 read/write 시스템 콜 수를 읽습니다. 지원하지 않으면 0을 돌려줍니다. */
+static void read_proc_io(unsigned long* syscr, unsigned long* syscw)
+{
+    *syscr = 0;
+    *syscw = 0;
+
+    FILE* fp = fopen("/proc/self/io", "r");
+
+    if (fp == NULL)
+    {
+        return;
+    }
+
+    char line[128];
+
+    while (fgets(line, sizeof(line), fp) != NULL)
+    {
+        sscanf(line, "syscr: %lu", syscr);
+        sscanf(line, "syscw: %lu", syscw);
+    }
+    fclose(fp);
+}
+
+static void* producer_main(void* arg)
+{
+    producer_job_t* job = (producer_job_t*)arg;
+
+    for (int i = 0; i < job->messages; ++i)
+    {
+        server_send_payload_to_client(job->server, job->client_fd, MSG_TYPE_CHAT_TEXT, (const uint8_t*)BENCH_PAYLOAD, strlen(BENCH_PAYLOAD));
+    }
+    return NULL;
+}
+
+static void* reader_main(void* arg)
+{
+    reader_job_t* job = (reader_job_t*)arg;
+    uint8_t buffer[65536];
+    size_t received = 0;
+
+    while (received < job->expected_bytes)
+    {
+        const ssize_t n = recv(job->fd, buffer, sizeof(buffer), 0);
+
+        if (n <= 0)
+        {
+            break;
+        }
+        received += (size_t)n;
+    }
+    return NULL;
+}
+
+static void run_case(const int producers, const int messages)
+{
+    server_options_t options;
+    server_options_init(&options, 0, 4);
+    options.max_outbound_bytes = (size_t)1024 * 1024 * 1024;
+
+    server_context_t* server = server_create_with_options(&options);
+
+    if (server == NULL)
+    {
+        fprintf(stderr, "server_create_with_options() failed\n");
+        return;
+    }
+
+    server_register_connect_callback(server, on_connect, NULL);
+    server_register_complete_message_callback(server, on_quiet_message, NULL);
+    server_register_disconnect_callback(server, on_quiet, NULL);
+    server_register_error_callback(server, on_quiet_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+
+    g_server_side_fd = -1;
+
+    if (server_start(server) != 0)
+    {
+        server_destroy(server);
+        return;
+    }
+
+    const int fd = create_tcp_socket();
+    struct sockaddr_in addr =
+    {
+        .sin_family = AF_INET,
+        .sin_port = bound.sin_port,
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+
+    if (fd < 0 || connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0)
+    {
+        fprintf(stderr, "connect() failed\n");
+        server_shutdown(server);
+        server_destroy(server);
+        return;
+    }
+
+    int server_side_fd = -1;
+
+    for (int i = 0; i < 500 && server_side_fd < 0; ++i)
+    {
+        usleep(1000);
+        pthread_mutex_lock(&g_mutex);
+        server_side_fd = g_server_side_fd;
+        pthread_mutex_unlock(&g_mutex);
+    }
+
+    const long total = (long)producers * messages;
+    reader_job_t reader = { .fd = fd, .expected_bytes = (size_t)total * (HEADER_SIZE + strlen(BENCH_PAYLOAD)) };
+    pthread_t reader_thread;
+    pthread_create(&reader_thread, NULL, reader_main, &reader);
+
+    pthread_t* threads = (pthread_t*)calloc(producers, sizeof(pthread_t));
+    producer_job_t* jobs = (producer_job_t*)calloc(producers, sizeof(producer_job_t));
+
+    server_wakeup_stats_t before;
+    server_get_wakeup_stats(server, &before);
+    unsigned long syscr_before;
+    unsigned long syscw_before;
+    read_proc_io(&syscr_before, &syscw_before);
+    const double start = now_sec();
+
+    for (int i = 0; i < producers; ++i)
+    {
+        jobs[i].server = server;
+        jobs[i].client_fd = server_side_fd;
+        jobs[i].messages = messages;
+        pthread_create(&threads[i], NULL, producer_main, &jobs[i]);
+    }
+    for (int i = 0; i < producers; ++i)
+    {
+        pthread_join(threads[i], NULL);
+    }
+    pthread_join(reader_thread, NULL);
+
+    const double elapsed = now_sec() - start;
+    server_wakeup_stats_t after;
+    server_get_wakeup_stats(server, &after);
+    unsigned long syscr_after;
+    unsigned long syscw_after;
+    read_proc_io(&syscr_after, &syscw_after);
+
+    const double signals = (double)(after.signals - before.signals);
+    const double wakeups = (double)(after.wakeups - before.wakeups);
+
+    printf("producers=%-3d messages=%-8ld signals/msg=%.4f wakeups/msg=%.4f syscalls/msg=%.4f  proc read+write/msg=%.4f  %10.0f msg/s\n",
+           producers, total, signals / total, wakeups / total, (signals + wakeups) / total,
+           (double)((syscr_after - syscr_before) + (syscw_after - syscw_before)) / total, (double)total / elapsed);
+
+    free(jobs);
+    free(threads);
+    close_socket(fd);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+int main(const int argc, char** argv)
+{
+    const int max_producers = argc > 1 ? atoi(argv[1]) : 8;
+    const int messages = argc > 2 ? atoi(argv[2]) : 50000;
+
+    for (int producers = 1; producers <= max_producers; producers *= 2)
+    {
+        run_case(producers, messages);
+    }
+    return 0;
+}
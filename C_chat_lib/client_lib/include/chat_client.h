@@ -56,6 +56,7 @@ extern "C"
 
     /**
     * @brief 지정된 파일을 서버로 전송합니다.
+    * @details 파일은 64KB 단위의 MSG_TYPE_FILE_CHUNK 프레임으로 나누어 보냅니다.
     * @param ctx 클라이언트 컨텍스트
     * @param filepath 전송할 파일의 경로
     * @return 성공 시 0, 실패 시 -1
@@ -99,7 +100,8 @@ extern "C"
 
     /**
     * @brief payload를 서버로 전송합니다.
-    * @details 네트워크 상황에 따라 데이터가 분할 전송될 수 있는 경우를 처리합니다.
+    * @details 헤더와 payload를 복사 없이 sendmsg()로 함께 보내며, payload 크기는 프로토콜의 32비트 길이까지 허용됩니다.
+    *          네트워크 상황에 따라 데이터가 분할 전송될 수 있는 경우를 처리합니다.
     * @param ctx 클라이언트 컨텍스트
     * @param msg_type 전송할 payload의 타입
     * @param payload 전송할 bytestream
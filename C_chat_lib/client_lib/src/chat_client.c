@@ -11,7 +11,9 @@
 #include <string.h>
 #include <arpa/inet.h>
 #include <sys/socket.h>
+#include <sys/uio.h>
 #define BUFFER_SIZE 4096
+#define CLIENT_FILE_CHUNK_SIZE (64 * 1024)
 
 static void _def_on_complete_message_cb(void* user_data, const message_type_t msg_type, const uint8_t* payload, const size_t len);
 static void _def_on_error_cb(void* user_data, const int error_code, const char* message);
@@ -198,24 +200,39 @@ void client_send_payload(const client_context_t* ctx, const message_type_t msg_t
         _handle_error(NULL, "client_send_payload: invalid argument(s) provided.", EINVAL);
         return;
     }
-    uint8_t frame_buffer[BUFFER_SIZE];
-    const int frame_len = frame_message(msg_type, payload, payload_len, frame_buffer, sizeof(frame_buffer));
+    uint8_t header[HEADER_SIZE];
 
-    if (frame_len < 0)
+    if (frame_header(msg_type, payload_len, header) < 0)
     {
-        _handle_error(ctx, "client_send_payload : frame_message() failed.", 0);
+        _handle_error(ctx, "client_send_payload : frame_header() failed.", EMSGSIZE);
         return;
     }
 
+    /* 헤더와 payload를 하나의 버퍼로 복사하지 않고 sendmsg()로 함께 보냅니다. */
+    struct iovec iov[2] =
+    {
+        { .iov_base = header, .iov_len = HEADER_SIZE },
+        { .iov_base = (void*)payload, .iov_len = payload_len },
+    };
+    struct msghdr msg =
+    {
+        .msg_iov = iov,
+        .msg_iovlen = payload_len > 0 ? 2 : 1,
+    };
+    const size_t frame_len = HEADER_SIZE + payload_len;
     size_t sent_len = 0;
 
     while (sent_len < frame_len)
     {
-        const ssize_t bytes_sent = send(ctx->socket_fd, frame_buffer + sent_len, frame_len - sent_len, 0);
+        const ssize_t bytes_sent = sendmsg(ctx->socket_fd, &msg, MSG_NOSIGNAL);
 
         if (bytes_sent < 0)
         {
-            _handle_error(ctx, "client_send_payload: send() failed.", errno);
+            if (errno == EINTR)
+            {
+                continue;
+            }
+            _handle_error(ctx, "client_send_payload: sendmsg() failed.", errno);
             break;
         }
 
@@ -225,6 +242,24 @@ void client_send_payload(const client_context_t* ctx, const message_type_t msg_t
             break;
         }
         sent_len += (size_t)bytes_sent;
+
+        /* 일부만 보내졌다면 이미 보낸 만큼 iovec을 전진시킵니다. */
+        size_t advance = (size_t)bytes_sent;
+
+        while (advance > 0 && msg.msg_iovlen > 0)
+        {
+            if (advance < msg.msg_iov->iov_len)
+            {
+                msg.msg_iov->iov_base = (uint8_t*)msg.msg_iov->iov_base + advance;
+                msg.msg_iov->iov_len -= advance;
+                advance = 0;
+            } else
+            {
+                advance -= msg.msg_iov->iov_len;
+                msg.msg_iov++;
+                msg.msg_iovlen--;
+            }
+        }
     }
 
     if (sent_len < frame_len)
@@ -251,14 +286,22 @@ int client_send_file(const client_context_t* ctx, const char* filepath)
     const size_t header_len = snprintf(header, sizeof(header), "{\"filename\":\"%s\",\"filesize\":%zu}", filepath, filesize);
     client_send_payload(ctx, MSG_TYPE_FILE_INFO, (const uint8_t*)header, header_len);
 
-    uint8_t chunk[BUFFER_SIZE];
+    uint8_t* chunk = (uint8_t*)malloc(CLIENT_FILE_CHUNK_SIZE);
+
+    if (chunk == NULL)
+    {
+        _handle_error(ctx, "client_send_file : malloc() for chunk buffer failed.", ENOMEM);
+        fclose(fp);
+        return -1;
+    }
     size_t read_len;
 
-    while ((read_len = fread(chunk, 1, sizeof(chunk), fp)) > 0)
+    while ((read_len = fread(chunk, 1, CLIENT_FILE_CHUNK_SIZE, fp)) > 0)
     {
         client_send_payload(ctx, MSG_TYPE_FILE_CHUNK, chunk, read_len);
     }
     client_send_payload(ctx, MSG_TYPE_FILE_END, NULL, 0);
+    free(chunk);
     fclose(fp);
     return 0;
 }
@@ -10,28 +10,63 @@ extern "C"
 {
     #endif
     #include <protocol.h>
+    #include <frame_buffer.h>
 
     typedef enum
     {
         CMD_SEND_MESSAGE,
         CMD_BROADCAST_MESSAGE,
+        CMD_ADOPT_CLIENT,
+        CMD_SET_READ_PAUSED,
+        CMD_GROUP_JOIN,
+        CMD_GROUP_LEAVE,
+        CMD_GROUP_BROADCAST,
     } command_type_t;
 
+    /**
+    * @brief 특정 클라이언트에게 보내는 커맨드
+    * @details 생성 시 payload를 헤더와 함께 frame에 한 번 복사해 두므로, 이벤트 루프는 추가 복사 없이 frame을 그대로 씁니다.
+    *          payload는 frame 안의 payload 위치를 가리킬 뿐 따로 해제하지 않습니다. (payload_len이 0이면 NULL)
+    */
     typedef struct
     {
         int target_client_fd;
         message_type_t msg_type;
         uint8_t* payload;
         size_t payload_len;
+        frame_buffer_t* frame;
     } send_command_t;
 
+    /**
+    * @brief 브로드캐스트 커맨드 (CMD_BROADCAST_MESSAGE, CMD_GROUP_BROADCAST 공용)
+    * @details 프레임은 frame에 한 번만 만들어지며, 모든 수신자가 이를 공유합니다.
+    *          payload는 frame 안의 payload 위치를 가리킬 뿐 따로 해제하지 않습니다. (payload_len이 0이면 NULL)
+    *          group_id는 CMD_GROUP_BROADCAST에서만 쓰이며, 그 그룹의 멤버에게만 보냅니다.
+    */
     typedef struct {
         message_type_t msg_type;
         uint8_t* payload;
         size_t payload_len;
         int exclude_client_fd;
+        int group_id;
+        frame_buffer_t* frame;
     } broadcast_command_t;
 
+    typedef struct {
+        int client_fd;
+        char ip_addr[16];
+    } adopt_command_t;
+
+    typedef struct {
+        int client_fd;
+        int paused;
+    } read_pause_command_t;
+
+    typedef struct {
+        int group_id;
+        int client_fd;
+    } group_command_t;
+
     typedef struct
     {
         command_type_t type;
@@ -39,6 +74,9 @@ extern "C"
         {
             send_command_t send_cmd;
             broadcast_command_t broadcast_cmd;
+            adopt_command_t adopt_cmd;
+            read_pause_command_t read_pause_cmd;
+            group_command_t group_cmd;
         } data;
     } command_t;
 
@@ -62,12 +100,64 @@ extern "C"
     */
     command_t* create_broadcast_command(message_type_t msg_type, const uint8_t* payload, size_t len, int exclude_fd);
 
+    /**
+    * @brief 이미 만들어진 프레임을 공유하는 브로드캐스트 커맨드 객체를 생성
+    * @param frame 보낼 프레임. 커맨드가 참조를 하나 더 가지므로 호출자는 자신의 참조를 그대로 유지합니다.
+    * @param exclude_fd 브로드캐스트에서 제외할 클라이언트 fd
+    * @return 성공 시 생성된 커맨드 포인터, 실패 시 NULL
+    * @note 여러 이벤트 루프에 같은 메시지를 보낼 때 프레임을 루프 수만큼 복사하지 않기 위해 사용합니다.
+    */
+    command_t* create_frame_broadcast_command(frame_buffer_t* frame, int exclude_fd);
+
+    /**
+    * @brief 수락된 클라이언트 소켓을 다른 이벤트 루프로 넘기는 커맨드 객체를 생성
+    * @param client_fd 넘겨줄 클라이언트 소켓 fd
+    * @param ip_addr 클라이언트의 IP 주소 문자열 (NULL이면 빈 문자열)
+    * @return 성공 시 생성된 커맨드 포인터, 실패 시 NULL
+    * @note 커맨드를 해제해도 client_fd는 닫히지 않습니다.
+    */
+    command_t* create_adopt_command(int client_fd, const char* ip_addr);
+
+    /**
+    * @brief 클라이언트 소켓의 읽기를 멈추거나 다시 시작하는 커맨드 객체를 생성
+    * @param client_fd 대상 클라이언트의 소켓 fd
+    * @param paused 1이면 읽기를 멈추고, 0이면 다시 읽음
+    * @return 성공 시 생성된 커맨드 포인터, 실패 시 NULL
+    */
+    command_t* create_read_pause_command(int client_fd, int paused);
+
+    /**
+    * @brief 이미 만들어진 프레임을 그룹 멤버에게만 보내는 커맨드 객체를 생성
+    * @param frame 보낼 프레임. 커맨드가 참조를 하나 더 가지므로 호출자는 자신의 참조를 그대로 유지합니다.
+    * @param group_id 대상 그룹 id
+    * @param exclude_fd 그룹 안에서 제외할 클라이언트 fd (-1이면 제외 없음)
+    * @return 성공 시 생성된 커맨드 포인터, 실패 시 NULL
+    */
+    command_t* create_frame_group_broadcast_command(frame_buffer_t* frame, int group_id, int exclude_fd);
+
+    /**
+    * @brief 클라이언트를 그룹에 넣거나(CMD_GROUP_JOIN) 빼는(CMD_GROUP_LEAVE) 커맨드 객체를 생성
+    * @param type CMD_GROUP_JOIN 또는 CMD_GROUP_LEAVE
+    * @param group_id 대상 그룹 id
+    * @param client_fd 대상 클라이언트의 소켓 fd
+    * @return 성공 시 생성된 커맨드 포인터, type이 잘못됐거나 실패하면 NULL
+    */
+    command_t* create_group_command(command_type_t type, int group_id, int client_fd);
+
     /**
     * @brief 커맨드 객체와 그 내부의 동적 할당된 메모리를 안전하게 해제하는 함수
     * @param cmd_ptr 해제할 커맨드 포인터
     */
     void destroy_command(void* cmd_ptr);
 
+    /**
+    * @brief 커맨드 풀이 지금까지 만들어 둔 커맨드 수
+    * @details create_*_command()는 커맨드를 프로세스 전역 풀에서 꺼내고 destroy_command()는 풀에 돌려줍니다.
+    *          정상 상태에서 이 값이 더 늘지 않으면 커맨드 생성/해제가 할당 없이 돌고 있다는 뜻입니다.
+    * @return 커맨드 수
+    */
+    size_t command_pool_capacity(void);
+
     #ifdef __cplusplus
 }
 #endif
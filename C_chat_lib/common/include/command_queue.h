@@ -10,6 +10,11 @@ extern "C"
 {
     #endif
 
+    /**
+    * @brief 여러 생산자, 하나의 소비자(MPSC)를 위한 잠금 없는 큐
+    * @details push는 여러 쓰레드에서 동시에 불러도 되지만, pop은 한 쓰레드(이벤트 루프)에서만 불러야 합니다.
+    *          노드는 큐마다 가진 객체 풀에서 재사용하므로 정상 상태에서는 push/pop이 메모리를 할당하지 않습니다.
+    */
     typedef struct command_queue_t command_queue_t;
 
     /**
@@ -27,16 +32,17 @@ extern "C"
     void queue_destroy(command_queue_t* q, void (*data_destroy_func)(void* data));
 
     /**
-     * @brief 큐의 끝에 새로운 데이터를 추가합니다. (Thread-Safe)
+    * @brief 큐의 끝에 새로운 데이터를 추가합니다. (Thread-Safe, Lock-Free)
     * @param q 데이터를 추가할 큐
     * @param data 추가할 데이터 포인터
     */
     void queue_push(command_queue_t* q, void* data);
 
     /**
-    * @brief 큐의 앞에서 데이터를 꺼냅니다. (Thread-Safe)
+    * @brief 큐의 앞에서 데이터를 꺼냅니다. (소비자 쓰레드 전용)
     * @param q 데이터를 꺼낼 큐
     * @return 큐에서 꺼낸 데이터 포인터. 큐가 비어있으면 NULL을 반환합니다.
+    * @note 다른 쓰레드가 push하는 도중이면 그 데이터는 아직 보이지 않을 수 있습니다. push가 끝난 뒤 다시 꺼내면 나옵니다.
     */
     void* queue_pop(command_queue_t* q);
 
@@ -44,6 +50,7 @@ extern "C"
     * @brief 큐가 비어있는지 확인합니다. (Thread-Safe)
     * @param q 확인할 큐
     * @return 큐가 비어있으면 1, 그렇지 않으면 0을 반환합니다.
+    * @note 소비자 쓰레드가 아닌 곳에서 부르면 호출 순간의 근삿값입니다.
     */
     int queue_is_empty(command_queue_t* q);
 
@@ -0,0 +1,76 @@
+//
+// 이벤트 루프 하나가 관리하는 그룹 id → 소켓 fd 집합 (방 단위 브로드캐스트용)
+//
+
+#ifndef FD_GROUP_H
+#define FD_GROUP_H
+
+#ifdef __cplusplus
+extern "C"
+{
+    #endif
+    #include <stddef.h>
+
+    typedef struct fd_group_table_t fd_group_table_t;
+
+    /**
+    * @brief 빈 그룹 테이블을 생성합니다.
+    * @return 성공 시 생성된 테이블의 포인터, 실패 시 NULL을 반환합니다.
+    * @details 그룹 → 멤버 fd 배열과 fd → 가입한 그룹 배열을 함께 들고 있어서,
+    *          그룹 브로드캐스트는 멤버 수만큼만, 연결 종료 정리는 그 fd가 가입한 그룹 수만큼만 돕니다.
+    * @note 잠금이 없습니다. 테이블을 가진 이벤트 루프 쓰레드에서만 사용해야 합니다.
+    */
+    fd_group_table_t* fd_group_table_create(void);
+
+    /**
+    * @brief 테이블과 모든 그룹을 해제합니다.
+    * @param table 파괴할 테이블 (NULL이면 아무것도 하지 않음)
+    */
+    void fd_group_table_destroy(fd_group_table_t* table);
+
+    /**
+    * @brief fd를 그룹에 넣습니다. 그룹이 없으면 새로 만듭니다.
+    * @param table 대상 테이블
+    * @param group_id 그룹 id (0 이상)
+    * @param fd 넣을 소켓 fd (0 이상)
+    * @return 새로 넣었으면 1, 이미 멤버였으면 0, 인자가 잘못됐거나 메모리가 부족하면 -1
+    */
+    int fd_group_join(fd_group_table_t* table, int group_id, int fd);
+
+    /**
+    * @brief fd를 그룹에서 뺍니다. 마지막 멤버가 빠진 그룹은 사라집니다.
+    * @param table 대상 테이블
+    * @param group_id 그룹 id
+    * @param fd 뺄 소켓 fd
+    * @return 뺐으면 1, 멤버가 아니었으면 0
+    */
+    int fd_group_leave(fd_group_table_t* table, int group_id, int fd);
+
+    /**
+    * @brief fd를 가입한 모든 그룹에서 뺍니다. (연결 종료 시 호출)
+    * @param table 대상 테이블
+    * @param fd 뺄 소켓 fd
+    * @return 빠진 그룹 수
+    */
+    size_t fd_group_remove_fd(fd_group_table_t* table, int fd);
+
+    /**
+    * @brief 그룹의 멤버 fd 배열을 돌려줍니다.
+    * @param table 대상 테이블
+    * @param group_id 그룹 id
+    * @param count 멤버 수를 받을 포인터
+    * @return 멤버 배열, 그룹이 없으면 NULL (*count는 0)
+    * @note 배열은 테이블 내부 버퍼입니다. join/leave/remove_fd를 호출하면 순서가 바뀌거나 무효가 될 수 있습니다.
+    *       빼기는 마지막 원소를 빈자리로 옮기는 방식이므로, 순회 중 멤버가 빠질 수 있다면 뒤에서부터 돌고 다시 조회해야 합니다.
+    */
+    const int* fd_group_members(const fd_group_table_t* table, int group_id, size_t* count);
+
+    /**
+    * @brief 테이블에 있는 (멤버가 하나 이상인) 그룹 수
+    */
+    size_t fd_group_count(const fd_group_table_t* table);
+
+    #ifdef __cplusplus
+}
+#endif
+#endif //FD_GROUP_H
@@ -0,0 +1,76 @@
+//
+// 여러 수신자가 공유하는 참조 카운트 프레임 버퍼
+//
+
+#ifndef FRAME_BUFFER_H
+#define FRAME_BUFFER_H
+
+#ifdef __cplusplus
+extern "C"
+{
+    #endif
+    #include <protocol.h>
+    #include <stdatomic.h>
+
+    /**
+    * @brief 헤더까지 포함해 한 번만 만들어 두고 여러 곳에서 참조하는 프레임
+    * @details 브로드캐스트처럼 같은 프레임을 여러 클라이언트에게 보낼 때, 각 송신 경로(송신 대기열)는
+    *          복사본 대신 이 버퍼의 참조를 들고 있다가 전송이 끝나면 놓습니다.
+    *          마지막 참조가 놓일 때 메모리가 해제됩니다.
+    */
+    typedef struct
+    {
+        atomic_int ref_count;
+        size_t len;
+        uint8_t data[];
+    } frame_buffer_t;
+
+    /**
+    * @brief len 바이트를 담을 수 있는 프레임 버퍼를 할당합니다. 내용은 초기화되지 않습니다.
+    * @param len 버퍼 길이
+    * @return 참조 카운트가 1인 버퍼, 실패 시 NULL
+    */
+    frame_buffer_t* frame_buffer_alloc(size_t len);
+
+    /**
+    * @brief 메시지를 프레임(헤더 + payload)으로 만들어 새 프레임 버퍼에 담습니다.
+    * @param type 메시지 타입
+    * @param payload 메시지 payload (payload_len이 0이면 NULL 가능)
+    * @param payload_len payload 길이
+    * @return 참조 카운트가 1인 버퍼, 실패 시 NULL
+    */
+    frame_buffer_t* frame_buffer_create(message_type_t type, const uint8_t* payload, size_t payload_len);
+
+    /**
+    * @brief 참조를 하나 늘립니다. (Thread-Safe)
+    * @param frame 대상 버퍼
+    * @return frame
+    */
+    frame_buffer_t* frame_buffer_retain(frame_buffer_t* frame);
+
+    /**
+    * @brief 참조를 하나 놓습니다. 마지막 참조였다면 버퍼를 해제합니다. (Thread-Safe)
+    * @param frame 대상 버퍼 (NULL이면 아무것도 하지 않음)
+    */
+    void frame_buffer_release(frame_buffer_t* frame);
+
+    /**
+    * @brief 프레임에 담긴 payload의 시작 위치
+    */
+    static inline const uint8_t* frame_buffer_payload(const frame_buffer_t* frame)
+    {
+        return frame->data + HEADER_SIZE;
+    }
+
+    /**
+    * @brief 프레임에 담긴 payload의 길이
+    */
+    static inline size_t frame_buffer_payload_len(const frame_buffer_t* frame)
+    {
+        return frame->len - HEADER_SIZE;
+    }
+
+    #ifdef __cplusplus
+}
+#endif
+#endif //FRAME_BUFFER_H
@@ -0,0 +1,163 @@
+//
+// 이벤트 루프(생산자) 하나와 소비자 쓰레드 하나가 공유하는 수신 레코드 링 버퍼
+//
+
+#ifndef INBOUND_RING_H
+#define INBOUND_RING_H
+
+#ifdef __cplusplus
+extern "C"
+{
+    #endif
+    #include <stddef.h>
+    #include <stdint.h>
+
+    /**
+    * @brief 공유 메모리의 배치
+    * @details 링 메모리는 INBOUND_RING_HEADER_SIZE 바이트의 헤더 뒤에 capacity 바이트의 데이터 영역이 이어집니다.
+    *          다른 언어(JNA의 direct ByteBuffer 등)에서 직접 읽을 수 있도록 오프셋을 고정합니다.
+    *          모든 값은 호스트 바이트 순서입니다.
+    *          - head (uint64, 오프셋 0): 소비자가 다 읽은 위치. 소비자만 씁니다.
+    *          - tail (uint64, 오프셋 64): 생산자가 다 쓴 위치. 생산자만 씁니다.
+    *          - capacity (uint64, 오프셋 128): 데이터 영역 크기 (2의 거듭제곱)
+    *          - consumer_waiting (uint32, 오프셋 192): 소비자가 대기에 들어가기 직전에 1로 씁니다.
+    *          - closed (uint32, 오프셋 196): 링이 닫히면 1
+    *          head와 tail은 계속 증가하는 값이며, 데이터 영역의 위치는 (값 & (capacity - 1))입니다.
+    */
+    #define INBOUND_RING_HEADER_SIZE 256
+    #define INBOUND_RING_HEAD_OFFSET 0
+    #define INBOUND_RING_TAIL_OFFSET 64
+    #define INBOUND_RING_CAPACITY_OFFSET 128
+    #define INBOUND_RING_WAITING_OFFSET 192
+    #define INBOUND_RING_CLOSED_OFFSET 196
+
+    /** 레코드는 이 크기의 배수로 정렬됩니다. 레코드 헤더가 링 끝에서 잘리지 않도록 헤더 크기와 같게 둡니다. */
+    #define INBOUND_RING_ALIGNMENT 16
+
+    /** 데이터 영역의 최소 크기 */
+    #define INBOUND_RING_MIN_CAPACITY 4096
+
+    typedef enum
+    {
+        INBOUND_RECORD_MESSAGE = 0,          /**< payload가 레코드 헤더 바로 뒤에 있음 */
+        INBOUND_RECORD_CONNECT = 1,          /**< payload는 클라이언트 IP 문자열 (NUL 없음) */
+        INBOUND_RECORD_DISCONNECT = 2,       /**< payload 없음 */
+        INBOUND_RECORD_MESSAGE_EXTERNAL = 3, /**< 링에 담기지 않는 큰 메시지. payload 자리에 malloc한 버퍼의 주소(uint64)가 있음 */
+        INBOUND_RECORD_PADDING = 4,          /**< 링 끝의 남는 공간. 소비자는 건너뜁니다. */
+    } inbound_record_kind_t;
+
+    /**
+    * @brief 레코드 헤더 (INBOUND_RING_ALIGNMENT 바이트)
+    * @details 레코드 전체 크기는 헤더 + payload를 INBOUND_RING_ALIGNMENT 배수로 올린 값입니다.
+    *          EXTERNAL 레코드의 length는 외부 버퍼의 길이이고, 링 안의 payload는 8바이트 주소입니다.
+    *          PADDING 레코드의 length는 헤더 뒤로 건너뛸 바이트 수입니다.
+    */
+    typedef struct
+    {
+        uint32_t length;
+        int32_t kind;
+        int32_t fd;
+        int32_t msg_type;
+    } inbound_record_header_t;
+
+    typedef struct inbound_ring_t inbound_ring_t;
+
+    /**
+    * @brief 소비자가 레코드를 하나씩 받는 콜백
+    * @param payload 레코드의 payload. 콜백이 끝나면 무효가 됩니다.
+    * @note EXTERNAL 레코드는 kind를 INBOUND_RECORD_MESSAGE로 바꿔 외부 버퍼를 그대로 넘기고, 콜백이 끝나면 해제합니다.
+    */
+    typedef void (*inbound_ring_record_callback)(void* user_data, inbound_record_kind_t kind, int fd, int msg_type, const uint8_t* payload, size_t len);
+
+    /**
+    * @brief 링을 생성합니다.
+    * @param capacity 데이터 영역 크기. 2의 거듭제곱으로 올리고, INBOUND_RING_MIN_CAPACITY보다 작으면 그 값을 씁니다.
+    * @return 성공 시 링 포인터, 실패 시 NULL
+    */
+    inbound_ring_t* inbound_ring_create(size_t capacity);
+
+    /**
+    * @brief 링을 해제합니다. 읽히지 않은 EXTERNAL 레코드의 버퍼도 함께 해제합니다.
+    * @param ring 파괴할 링 (NULL이면 아무것도 하지 않음)
+    * @note 소비자가 더 이상 링을 읽지 않을 때 호출해야 합니다.
+    */
+    void inbound_ring_destroy(inbound_ring_t* ring);
+
+    /**
+    * @brief 레코드 하나를 씁니다. (생산자 전용)
+    * @details 소비자를 깨우지는 않습니다. 한 번에 여러 레코드를 쓴 뒤 inbound_ring_notify()를 부르십시오.
+    * @param ring 대상 링
+    * @param kind 레코드 종류 (PADDING 제외)
+    * @param fd 클라이언트 fd
+    * @param msg_type 메시지 타입 (MESSAGE가 아니면 0)
+    * @param payload 복사할 payload. EXTERNAL이면 8바이트 주소가 담긴 버퍼
+    * @param len 레코드 헤더에 기록할 길이. EXTERNAL이면 외부 버퍼의 길이
+    * @return 성공 시 0, 빈 공간이 모자라면 -1 (아무것도 쓰지 않음)
+    */
+    int inbound_ring_try_write(inbound_ring_t* ring, inbound_record_kind_t kind, int fd, int msg_type, const uint8_t* payload, size_t len);
+
+    /**
+    * @brief 링에 직접 담을 수 있는 가장 큰 payload 길이. 이보다 크면 EXTERNAL 레코드로 보내야 합니다.
+    */
+    size_t inbound_ring_max_inline_payload(const inbound_ring_t* ring);
+
+    /**
+    * @brief 소비자가 대기 중이면 깨웁니다. (생산자 전용)
+    * @return 깨우기 신호를 보냈으면 1, 대기 중인 소비자가 없으면 0
+    */
+    int inbound_ring_notify(inbound_ring_t* ring);
+
+    /**
+    * @brief 링을 닫고 대기 중인 소비자를 깨웁니다. 이후 inbound_ring_wait()는 바로 -1을 반환합니다.
+    */
+    void inbound_ring_close(inbound_ring_t* ring);
+
+    /**
+    * @brief 닫힌 링을 다시 엽니다. 서버를 다시 시작할 때 씁니다.
+    */
+    void inbound_ring_open(inbound_ring_t* ring);
+
+    /**
+    * @brief 레코드가 들어오거나 시간이 지날 때까지 기다립니다. (소비자 전용)
+    * @param ring 대상 링
+    * @param timeout_ms 최대 대기 시간 (음수면 무한정)
+    * @return 읽을 레코드가 있으면 1, 시간이 지났으면 0, 링이 닫혔으면 -1
+    */
+    int inbound_ring_wait(inbound_ring_t* ring, int timeout_ms);
+
+    /**
+    * @brief 쌓인 레코드를 최대 max_records개까지 읽습니다. (소비자 전용)
+    * @return 읽은 레코드 수 (PADDING 제외)
+    */
+    size_t inbound_ring_consume(inbound_ring_t* ring, inbound_ring_record_callback callback, void* user_data, size_t max_records);
+
+    /**
+    * @brief 생산자가 다음 레코드를 쓸 위치 (생산자 전용)
+    * @details 이 값까지 쓴 레코드는 소비 위치(inbound_ring_read_position)가 이 값 이상이 되면 모두 읽힌 것입니다.
+    */
+    uint64_t inbound_ring_write_position(const inbound_ring_t* ring);
+
+    /**
+    * @brief 소비자가 다 읽은 위치
+    */
+    uint64_t inbound_ring_read_position(const inbound_ring_t* ring);
+
+    /**
+    * @brief 헤더를 포함한 공유 메모리의 시작 주소
+    */
+    void* inbound_ring_memory(const inbound_ring_t* ring);
+
+    /**
+    * @brief 헤더를 포함한 공유 메모리의 크기 (INBOUND_RING_HEADER_SIZE + capacity)
+    */
+    size_t inbound_ring_memory_size(const inbound_ring_t* ring);
+
+    /**
+    * @brief EXTERNAL 레코드의 외부 버퍼를 해제합니다. 링을 직접 읽는 소비자가 레코드를 다 쓴 뒤 부릅니다.
+    */
+    void inbound_ring_release_external(void* buffer);
+
+    #ifdef __cplusplus
+}
+#endif
+#endif //INBOUND_RING_H
@@ -0,0 +1,64 @@
+//
+// 여러 쓰레드가 함께 쓰는 고정 크기 객체 풀
+//
+
+#ifndef OBJECT_POOL_H
+#define OBJECT_POOL_H
+
+#ifdef __cplusplus
+extern "C"
+{
+    #endif
+    #include <stddef.h>
+
+    /** 풀이 한 번에 늘리는 객체 수 */
+    #define OBJECT_POOL_CHUNK_SIZE 256
+
+    /** 풀이 관리하는 최대 묶음(chunk) 수. 넘치면 malloc/free로 대신 처리합니다. */
+    #define OBJECT_POOL_MAX_CHUNKS 4096
+
+    typedef struct object_pool_t object_pool_t;
+
+    /**
+    * @brief 같은 크기의 객체를 재사용하는 풀을 생성합니다.
+    * @param object_size 객체 하나의 크기
+    * @return 성공 시 생성된 풀의 포인터, 실패 시 NULL을 반환합니다.
+    * @details 반납된 객체는 잠금 없는 스택(Treiber stack)에 쌓였다가 다음 acquire에서 다시 쓰입니다.
+    *          스택 머리에는 슬롯 번호와 함께 세대(tag)를 두어 ABA 문제를 막습니다.
+    *          빈 스택에서 꺼내려 할 때만 뮤텍스를 잡고 OBJECT_POOL_CHUNK_SIZE개씩 늘립니다.
+    */
+    object_pool_t* object_pool_create(size_t object_size);
+
+    /**
+    * @brief 풀과 풀이 만든 모든 객체를 해제합니다.
+    * @param pool 파괴할 풀 (NULL이면 아무것도 하지 않음)
+    * @note 아직 반납되지 않은 객체도 함께 해제되므로, 더 이상 쓰는 곳이 없을 때 호출해야 합니다.
+    */
+    void object_pool_destroy(object_pool_t* pool);
+
+    /**
+    * @brief 풀에서 객체 하나를 꺼냅니다. (Thread-Safe, Lock-Free)
+    * @param pool 대상 풀
+    * @return 객체 포인터, 실패 시 NULL. 내용은 초기화되어 있지 않습니다.
+    */
+    void* object_pool_acquire(object_pool_t* pool);
+
+    /**
+    * @brief 객체를 풀에 돌려줍니다. (Thread-Safe, Lock-Free)
+    * @param pool 객체를 꺼낸 풀
+    * @param object 돌려줄 객체 (NULL이면 아무것도 하지 않음)
+    */
+    void object_pool_release(object_pool_t* pool, void* object);
+
+    /**
+    * @brief 지금까지 풀이 만들어 둔 객체 수 (풀 밖에서 malloc으로 처리한 객체는 제외)
+    * @param pool 대상 풀
+    * @return 객체 수
+    * @note 정상 상태에서 이 값이 더 늘지 않으면 acquire/release가 할당 없이 돌고 있다는 뜻입니다.
+    */
+    size_t object_pool_capacity(const object_pool_t* pool);
+
+    #ifdef __cplusplus
+}
+#endif
+#endif //OBJECT_POOL_H
@@ -30,6 +30,11 @@ extern "C"
         MSG_TYPE_FILE_CHUNK = 11,
         MSG_TYPE_FILE_END = 12,
         MSG_TYPE_FILE_REQUEST = 13,
+        MSG_TYPE_FILE_CHUNK_AT = 14,    /**< [업로드 id 16바이트][파일 위치 int64 big-endian][데이터] */
+
+        MSG_TYPE_ROOM_JOIN_REQUEST = 20,
+        MSG_TYPE_ROOM_LEAVE_REQUEST = 21,
+        MSG_TYPE_ROOM_NOTICE = 22,
 
         MSG_TYPE_USER_LOGIN_REQUEST = 100,
         MSG_TYPE_USER_LOGIN_RESPONSE = 101,
@@ -63,6 +68,17 @@ extern "C"
     */
     int frame_message(const message_type_t type, const uint8_t* payload, const size_t payload_len, uint8_t* out_buffer, const size_t buffer_len);
 
+    /**
+    * @brief 프레임 헤더(HEADER_SIZE 바이트)만 만듭니다.
+    * @details payload를 복사하지 않으므로, 헤더와 payload를 writev/sendmsg로 함께 보낼 때 사용합니다.
+    *          frame_message()와 달리 프레임 길이가 int 범위로 제한되지 않습니다.
+    * @param type 프레임의 타입
+    * @param payload_len payload의 길이 (최대 UINT32_MAX)
+    * @param out_header 헤더가 저장될 HEADER_SIZE 바이트 이상의 버퍼
+    * @return 성공 시 0, payload_len이 프로토콜의 32비트 길이를 넘거나 out_header가 NULL이면 -1
+    */
+    int frame_header(const message_type_t type, const size_t payload_len, uint8_t* out_header);
+
     typedef struct
     {
         parser_state_t parser_state;
@@ -3,44 +3,102 @@
 //
 
 #include "command.h"
+#include "object_pool.h"
 
+#include <pthread.h>
 #include <stdlib.h>
 #include <string.h>
 
+/* 커맨드는 여러 쓰레드에서 만들어지고 이벤트 루프에서 해제되므로 프로세스 전체가 하나의 풀을 함께 씁니다. */
+static object_pool_t* g_command_pool = NULL;
+static pthread_once_t g_command_pool_once = PTHREAD_ONCE_INIT;
+
+static void _init_command_pool(void)
+{
+    g_command_pool = object_pool_create(sizeof(command_t));
+}
+
+/**
+ * @brief 풀에서 0으로 초기화된 커맨드를 꺼냅니다.
+ */
+static command_t* _alloc_command(void)
+{
+    pthread_once(&g_command_pool_once, _init_command_pool);
+
+    command_t* cmd = (command_t*)object_pool_acquire(g_command_pool);
+
+    if (cmd != NULL)
+    {
+        memset(cmd, 0, sizeof(command_t));
+    }
+    return cmd;
+}
+
+static void _free_command(command_t* cmd)
+{
+    object_pool_release(g_command_pool, cmd);
+}
+
+size_t command_pool_capacity(void)
+{
+    pthread_once(&g_command_pool_once, _init_command_pool);
+    return object_pool_capacity(g_command_pool);
+}
+
 command_t* create_send_command(const int client_fd, const message_type_t msg_type, const uint8_t* payload, const size_t len)
 {
-    command_t* cmd = (command_t*)calloc(1, sizeof(command_t));
+    command_t* cmd = _alloc_command();
 
     if (cmd == NULL)
     {
         return NULL;
     }
 
-    cmd->type = CMD_SEND_MESSAGE;
     send_command_t* send_cmd = &cmd->data.send_cmd;
+    send_cmd->frame = frame_buffer_create(msg_type, payload, len);
+
+    if (send_cmd->frame == NULL)
+    {
+        _free_command(cmd);
+        return NULL;
+    }
+
+    cmd->type = CMD_SEND_MESSAGE;
     send_cmd->target_client_fd = client_fd;
     send_cmd->msg_type = msg_type;
     send_cmd->payload_len = len;
+    send_cmd->payload = len > 0 ? (uint8_t*)frame_buffer_payload(send_cmd->frame) : NULL;
+    return cmd;
+}
 
-    if (len > 0 && payload != NULL)
+command_t* create_broadcast_command(message_type_t msg_type, const uint8_t* payload, size_t len, int exclude_fd)
+{
+    frame_buffer_t* frame = frame_buffer_create(msg_type, payload, len);
+
+    if (frame == NULL)
     {
-        send_cmd->payload = (uint8_t*)malloc(len);
-        if (send_cmd->payload == NULL)
-        {
-            free(cmd);
-            return NULL;
-        }
-        memcpy(send_cmd->payload, payload, len);
-    } else
+        return NULL;
+    }
+
+    command_t* cmd = create_frame_broadcast_command(frame, exclude_fd);
+
+    /* 커맨드가 참조를 가져갔으므로 여기서 만든 참조는 놓습니다. */
+    frame_buffer_release(frame);
+    if (cmd != NULL)
     {
-        send_cmd->payload = NULL;
+        cmd->data.broadcast_cmd.msg_type = msg_type;
     }
     return cmd;
 }
 
-command_t* create_broadcast_command(message_type_t msg_type, const uint8_t* payload, size_t len, int exclude_fd)
+command_t* create_frame_broadcast_command(frame_buffer_t* frame, const int exclude_fd)
 {
-    command_t* cmd = (command_t*)calloc(1, sizeof(command_t));
+    if (frame == NULL || frame->len < HEADER_SIZE)
+    {
+        return NULL;
+    }
+
+    command_t* cmd = _alloc_command();
 
     if (cmd == NULL)
     {
@@ -49,27 +107,81 @@ command_t* create_broadcast_command(message_type_t msg_type, const uint8_t* payl
 
     cmd->type = CMD_BROADCAST_MESSAGE;
     broadcast_command_t* broadcast_cmd = &cmd->data.broadcast_cmd;
-    broadcast_cmd->msg_type = msg_type;
-    broadcast_cmd->payload_len = len;
+    broadcast_cmd->msg_type = (message_type_t)frame->data[0];
+    broadcast_cmd->payload_len = frame_buffer_payload_len(frame);
+    broadcast_cmd->payload = broadcast_cmd->payload_len > 0 ? (uint8_t*)frame_buffer_payload(frame) : NULL;
     broadcast_cmd->exclude_client_fd = exclude_fd;
+    broadcast_cmd->frame = frame_buffer_retain(frame);
 
-    if (len > 0 && payload != NULL)
+    return cmd;
+}
+
+command_t* create_frame_group_broadcast_command(frame_buffer_t* frame, const int group_id, const int exclude_fd)
+{
+    command_t* cmd = create_frame_broadcast_command(frame, exclude_fd);
+
+    if (cmd != NULL)
     {
-        broadcast_cmd->payload = (uint8_t*)malloc(len);
-        if (broadcast_cmd->payload == NULL)
-        {
-            free(cmd);
-            return NULL;
-        }
-        memcpy(broadcast_cmd->payload, payload, len);
-    } else
+        cmd->type = CMD_GROUP_BROADCAST;
+        cmd->data.broadcast_cmd.group_id = group_id;
+    }
+    return cmd;
+}
+
+command_t* create_adopt_command(const int client_fd, const char* ip_addr)
+{
+    command_t* cmd = _alloc_command();
+
+    if (cmd == NULL)
+    {
+        return NULL;
+    }
+
+    cmd->type = CMD_ADOPT_CLIENT;
+    adopt_command_t* adopt_cmd = &cmd->data.adopt_cmd;
+    adopt_cmd->client_fd = client_fd;
+
+    if (ip_addr != NULL)
+    {
+        strncpy(adopt_cmd->ip_addr, ip_addr, sizeof(adopt_cmd->ip_addr) - 1);
+    }
+    return cmd;
+}
+
+command_t* create_read_pause_command(const int client_fd, const int paused)
+{
+    command_t* cmd = _alloc_command();
+
+    if (cmd == NULL)
     {
-        broadcast_cmd->payload = NULL;
+        return NULL;
     }
 
+    cmd->type = CMD_SET_READ_PAUSED;
+    cmd->data.read_pause_cmd.client_fd = client_fd;
+    cmd->data.read_pause_cmd.paused = paused != 0;
     return cmd;
 }
 
+command_t* create_group_command(const command_type_t type, const int group_id, const int client_fd)
+{
+    if (type != CMD_GROUP_JOIN && type != CMD_GROUP_LEAVE)
+    {
+        return NULL;
+    }
+
+    command_t* cmd = _alloc_command();
+
+    if (cmd == NULL)
+    {
+        return NULL;
+    }
+
+    cmd->type = type;
+    cmd->data.group_cmd.group_id = group_id;
+    cmd->data.group_cmd.client_fd = client_fd;
+    return cmd;
+}
 
 void destroy_command(void* cmd_ptr)
 {
@@ -84,24 +196,17 @@ void destroy_command(void* cmd_ptr)
     {
         case CMD_SEND_MESSAGE:
         {
-            const send_command_t* send_cmd = &cmd->data.send_cmd;
-
-            if (send_cmd->payload != NULL)
-            {
-                free(send_cmd->payload);
-            }
+            frame_buffer_release(cmd->data.send_cmd.frame);
             break;
         }
         case CMD_BROADCAST_MESSAGE:
+        case CMD_GROUP_BROADCAST:
         {
-            const broadcast_command_t* broadcast_cmd = &cmd->data.broadcast_cmd;
-
-            if (broadcast_cmd->payload != NULL)
-            {
-                free(broadcast_cmd->payload);
-            }
+            frame_buffer_release(cmd->data.broadcast_cmd.frame);
             break;
         }
+        default:
+            break;
     }
-    free(cmd);
+    _free_command(cmd);
 }
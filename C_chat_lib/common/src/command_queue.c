@@ -3,23 +3,43 @@
 //
 
 #include "command_queue.h"
-#include <pthread.h>
+#include "object_pool.h"
+#include <stdatomic.h>
 #include <stdlib.h>
 
 typedef struct queue_node_t
 {
     void* data;
-    struct queue_node_t* next;
+    _Atomic(struct queue_node_t*) next;
 } queue_node_t;
 
+/**
+ * Vyukov 방식의 잠금 없는 MPSC 큐
+ * - 생산자는 head를 atomic_exchange로 바꾼 뒤 이전 노드의 next에 새 노드를 잇습니다.
+ * - 소비자는 tail(더미 노드)의 next를 따라가며 꺼내고, 꺼낸 노드가 새 더미가 됩니다.
+ * - 노드는 큐 전용 풀에서 꺼내고 돌려주므로 정상 상태에서는 할당이 없습니다.
+ */
 struct command_queue_t
 {
-    queue_node_t* fake_head;
-    queue_node_t* tail;
-    pthread_mutex_t mutex;
-    size_t size;
+    _Atomic(queue_node_t*) head;
+    _Atomic(queue_node_t*) tail;
+    object_pool_t* node_pool;
 };
 
+static queue_node_t* _acquire_node(command_queue_t* q, void* data)
+{
+    queue_node_t* node = (queue_node_t*)object_pool_acquire(q->node_pool);
+
+    if (node == NULL)
+    {
+        return NULL;
+    }
+
+    node->data = data;
+    atomic_store_explicit(&node->next, NULL, memory_order_relaxed);
+    return node;
+}
+
 command_queue_t* queue_create(void)
 {
     command_queue_t* q = (command_queue_t*)calloc(1, sizeof(command_queue_t));
@@ -29,29 +49,25 @@ command_queue_t* queue_create(void)
         return NULL;
     }
 
-    queue_node_t* dummy_node = (queue_node_t*)calloc(1, sizeof(queue_node_t));
+    q->node_pool = object_pool_create(sizeof(queue_node_t));
 
-    if (dummy_node == NULL)
+    if (q->node_pool == NULL)
     {
         free(q);
         return NULL;
     }
 
-    dummy_node->data = NULL;
-    dummy_node->next = NULL;
-
-    q->fake_head = dummy_node;
-    q->tail = dummy_node;
-    q->size = 1;
-
-    const int mutex_err = pthread_mutex_init(&q->mutex, NULL);
+    queue_node_t* dummy_node = _acquire_node(q, NULL);
 
-    if (mutex_err != 0)
+    if (dummy_node == NULL)
     {
-        free(dummy_node);
+        object_pool_destroy(q->node_pool);
         free(q);
         return NULL;
     }
+
+    atomic_init(&q->head, dummy_node);
+    atomic_init(&q->tail, dummy_node);
     return q;
 }
 
@@ -62,21 +78,24 @@ void queue_destroy(command_queue_t* q, void (*data_destroy_func)(void* data))
         return;
     }
 
-    pthread_mutex_lock(&q->mutex);
-    queue_node_t* current = q->fake_head;
+    queue_node_t* dummy = atomic_load(&q->tail);
+    queue_node_t* current = dummy;
 
     while (current != NULL)
     {
-        queue_node_t* next = current->next;
+        queue_node_t* next = atomic_load(&current->next);
 
-        if (data_destroy_func != NULL && current->data != NULL)
+        /* 더미 노드의 data는 이미 꺼내 간 것이므로 해제하지 않습니다. */
+        if (current != dummy && data_destroy_func != NULL && current->data != NULL)
         {
             data_destroy_func(current->data);
         }
-        free(current);
+        /* 풀이 모자라 malloc으로 만든 노드는 풀과 함께 해제되지 않으므로 더미까지 모두 돌려줍니다. */
+        object_pool_release(q->node_pool, current);
         current = next;
     }
-    pthread_mutex_destroy(&q->mutex);
+
+    object_pool_destroy(q->node_pool);
     free(q);
 }
 
@@ -87,22 +106,18 @@ void queue_push(command_queue_t* q, void* data)
         return;
     }
 
-    queue_node_t* new_node = (queue_node_t*)calloc(1, sizeof(queue_node_t));
+    queue_node_t* new_node = _acquire_node(q, data);
 
     if (new_node == NULL)
     {
         return;
     }
 
-    new_node->data = data;
-    new_node->next = NULL;
+    queue_node_t* prev = atomic_exchange_explicit(&q->head, new_node, memory_order_acq_rel);
 
-    pthread_mutex_lock(&q->mutex);
-
-    q->tail->next = new_node;
-    q->tail = new_node;
-    ++q->size;
-    pthread_mutex_unlock(&q->mutex);
+    /* exchange와 이 store 사이에서는 소비자가 new_node를 아직 볼 수 없습니다.
+       소비자는 이때 큐를 비어 있다고 보고, 호출자는 push가 끝난 뒤 소비자를 깨웁니다. */
+    atomic_store_explicit(&prev->next, new_node, memory_order_release);
 }
 
 void* queue_pop(command_queue_t* q)
@@ -112,26 +127,17 @@ void* queue_pop(command_queue_t* q)
         return NULL;
     }
 
-    pthread_mutex_lock(&q->mutex);
-    queue_node_t* first_node = q->fake_head->next;
+    queue_node_t* tail = atomic_load_explicit(&q->tail, memory_order_relaxed);
+    queue_node_t* next = atomic_load_explicit(&tail->next, memory_order_acquire);
 
-    if (first_node == NULL)
+    if (next == NULL)
     {
-        pthread_mutex_unlock(&q->mutex);
         return NULL;
     }
 
-    void* data = first_node->data;
-    q->fake_head->next = first_node->next;
-    --q->size;
-
-    if (q->tail == first_node)
-    {
-        q->tail = q->fake_head;
-    }
-
-    pthread_mutex_unlock(&q->mutex);
-    free(first_node);
+    void* data = next->data;
+    atomic_store_explicit(&q->tail, next, memory_order_relaxed);
+    object_pool_release(q->node_pool, tail);
     return data;
 }
 
@@ -141,8 +147,8 @@ int queue_is_empty(command_queue_t* q)
     {
         return 1;
     }
-    pthread_mutex_lock(&q->mutex);
-    const int empty = q->size == 1;
-    pthread_mutex_unlock(&q->mutex);
-    return empty;
-}
\ No newline at end of file
+
+    /* 노드는 풀이 살아 있는 동안 해제되지 않으므로 소비자가 아닌 쓰레드에서 불러도 안전합니다. (그 순간의 근삿값) */
+    queue_node_t* tail = atomic_load_explicit(&q->tail, memory_order_acquire);
+    return atomic_load_explicit(&tail->next, memory_order_acquire) == NULL;
+}
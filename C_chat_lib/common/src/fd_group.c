@@ -0,0 +1,355 @@
+//
+// 이벤트 루프 하나가 관리하는 그룹 id → 소켓 fd 집합 (방 단위 브로드캐스트용)
+//
+
+#include "fd_group.h"
+
+#include <stdlib.h>
+
+#define FD_GROUP_INITIAL_BUCKETS 64
+#define FD_GROUP_INITIAL_ITEMS 4
+
+/**
+ * 키 하나에 int 배열 하나를 매다는 체이닝 해시 맵의 노드.
+ * 그룹 맵에서는 키=그룹 id, 값=멤버 fd이고 멤버십 맵에서는 키=fd, 값=가입한 그룹 id입니다.
+ */
+typedef struct int_list_node_t
+{
+    int key;
+    int* items;
+    size_t count;
+    size_t capacity;
+    struct int_list_node_t* next;
+} int_list_node_t;
+
+typedef struct
+{
+    int_list_node_t** buckets;
+    size_t bucket_count;
+    size_t size;
+} int_list_map_t;
+
+struct fd_group_table_t
+{
+    int_list_map_t groups;
+    int_list_map_t memberships;
+};
+
+static size_t _bucket_of(const int key, const size_t bucket_count)
+{
+    /* fd와 그룹 id는 작은 연속 정수이므로 곱셈 해시로 하위 비트를 섞습니다. */
+    return (size_t)((unsigned int)key * 2654435761u) & (bucket_count - 1);
+}
+
+static int _map_init(int_list_map_t* map)
+{
+    map->buckets = calloc(FD_GROUP_INITIAL_BUCKETS, sizeof(int_list_node_t*));
+    map->bucket_count = FD_GROUP_INITIAL_BUCKETS;
+    map->size = 0;
+    return map->buckets != NULL ? 0 : -1;
+}
+
+static void _map_free(int_list_map_t* map)
+{
+    for (size_t i = 0; i < map->bucket_count && map->buckets != NULL; i++)
+    {
+        int_list_node_t* node = map->buckets[i];
+
+        while (node != NULL)
+        {
+            int_list_node_t* next = node->next;
+            free(node->items);
+            free(node);
+            node = next;
+        }
+    }
+    free(map->buckets);
+    map->buckets = NULL;
+}
+
+static int_list_node_t* _map_find(const int_list_map_t* map, const int key)
+{
+    int_list_node_t* node = map->buckets[_bucket_of(key, map->bucket_count)];
+
+    while (node != NULL && node->key != key)
+    {
+        node = node->next;
+    }
+    return node;
+}
+
+/**
+ * @brief 노드 수가 버킷 수를 넘으면 버킷을 두 배로 늘립니다. 실패해도 맵은 그대로 쓸 수 있습니다.
+ */
+static void _map_grow(int_list_map_t* map)
+{
+    const size_t new_count = map->bucket_count * 2;
+    int_list_node_t** new_buckets = calloc(new_count, sizeof(int_list_node_t*));
+
+    if (new_buckets == NULL)
+    {
+        return;
+    }
+
+    for (size_t i = 0; i < map->bucket_count; i++)
+    {
+        int_list_node_t* node = map->buckets[i];
+
+        while (node != NULL)
+        {
+            int_list_node_t* next = node->next;
+            const size_t bucket = _bucket_of(node->key, new_count);
+            node->next = new_buckets[bucket];
+            new_buckets[bucket] = node;
+            node = next;
+        }
+    }
+    free(map->buckets);
+    map->buckets = new_buckets;
+    map->bucket_count = new_count;
+}
+
+static int_list_node_t* _map_get_or_create(int_list_map_t* map, const int key)
+{
+    int_list_node_t* node = _map_find(map, key);
+
+    if (node != NULL)
+    {
+        return node;
+    }
+
+    node = calloc(1, sizeof(int_list_node_t));
+
+    if (node == NULL)
+    {
+        return NULL;
+    }
+
+    if (map->size >= map->bucket_count)
+    {
+        _map_grow(map);
+    }
+
+    const size_t bucket = _bucket_of(key, map->bucket_count);
+    node->key = key;
+    node->next = map->buckets[bucket];
+    map->buckets[bucket] = node;
+    map->size++;
+    return node;
+}
+
+static void _map_remove(int_list_map_t* map, const int key)
+{
+    int_list_node_t** link = &map->buckets[_bucket_of(key, map->bucket_count)];
+
+    while (*link != NULL)
+    {
+        int_list_node_t* node = *link;
+
+        if (node->key == key)
+        {
+            *link = node->next;
+            free(node->items);
+            free(node);
+            map->size--;
+            return;
+        }
+        link = &node->next;
+    }
+}
+
+static int _list_contains(const int_list_node_t* node, const int value)
+{
+    for (size_t i = 0; i < node->count; i++)
+    {
+        if (node->items[i] == value)
+        {
+            return 1;
+        }
+    }
+    return 0;
+}
+
+static int _list_add(int_list_node_t* node, const int value)
+{
+    if (node->count == node->capacity)
+    {
+        const size_t new_capacity = node->capacity == 0 ? FD_GROUP_INITIAL_ITEMS : node->capacity * 2;
+        int* items = realloc(node->items, new_capacity * sizeof(int));
+
+        if (items == NULL)
+        {
+            return -1;
+        }
+        node->items = items;
+        node->capacity = new_capacity;
+    }
+    node->items[node->count++] = value;
+    return 0;
+}
+
+/**
+ * @brief 값을 찾아 마지막 원소로 덮어씁니다. (순서는 유지하지 않음)
+ */
+static int _list_remove(int_list_node_t* node, const int value)
+{
+    for (size_t i = 0; i < node->count; i++)
+    {
+        if (node->items[i] == value)
+        {
+            node->items[i] = node->items[--node->count];
+            return 1;
+        }
+    }
+    return 0;
+}
+
+/**
+ * @brief 그룹 쪽 목록에서 fd를 빼고, 비었으면 그룹을 없앱니다.
+ */
+static void _drop_member(fd_group_table_t* table, const int group_id, const int fd)
+{
+    int_list_node_t* group = _map_find(&table->groups, group_id);
+
+    if (group != NULL && _list_remove(group, fd) && group->count == 0)
+    {
+        _map_remove(&table->groups, group_id);
+    }
+}
+
+fd_group_table_t* fd_group_table_create(void)
+{
+    fd_group_table_t* table = calloc(1, sizeof(fd_group_table_t));
+
+    if (table == NULL)
+    {
+        return NULL;
+    }
+
+    if (_map_init(&table->groups) != 0 || _map_init(&table->memberships) != 0)
+    {
+        fd_group_table_destroy(table);
+        return NULL;
+    }
+    return table;
+}
+
+void fd_group_table_destroy(fd_group_table_t* table)
+{
+    if (table == NULL)
+    {
+        return;
+    }
+    _map_free(&table->groups);
+    _map_free(&table->memberships);
+    free(table);
+}
+
+int fd_group_join(fd_group_table_t* table, const int group_id, const int fd)
+{
+    if (table == NULL || group_id < 0 || fd < 0)
+    {
+        return -1;
+    }
+
+    /* 한 fd가 가입한 그룹은 보통 몇 개뿐이므로 중복 확인은 멤버십 쪽에서 합니다. */
+    int_list_node_t* membership = _map_get_or_create(&table->memberships, fd);
+
+    if (membership == NULL)
+    {
+        return -1;
+    }
+
+    if (_list_contains(membership, group_id))
+    {
+        return 0;
+    }
+
+    int_list_node_t* group = _map_get_or_create(&table->groups, group_id);
+
+    if (group == NULL || _list_add(group, fd) != 0)
+    {
+        if (group != NULL && group->count == 0)
+        {
+            _map_remove(&table->groups, group_id);
+        }
+        if (membership->count == 0)
+        {
+            _map_remove(&table->memberships, fd);
+        }
+        return -1;
+    }
+
+    if (_list_add(membership, group_id) != 0)
+    {
+        _drop_member(table, group_id, fd);
+        if (membership->count == 0)
+        {
+            _map_remove(&table->memberships, fd);
+        }
+        return -1;
+    }
+    return 1;
+}
+
+int fd_group_leave(fd_group_table_t* table, const int group_id, const int fd)
+{
+    if (table == NULL)
+    {
+        return 0;
+    }
+
+    int_list_node_t* membership = _map_find(&table->memberships, fd);
+
+    if (membership == NULL || !_list_remove(membership, group_id))
+    {
+        return 0;
+    }
+
+    if (membership->count == 0)
+    {
+        _map_remove(&table->memberships, fd);
+    }
+    _drop_member(table, group_id, fd);
+    return 1;
+}
+
+size_t fd_group_remove_fd(fd_group_table_t* table, const int fd)
+{
+    if (table == NULL)
+    {
+        return 0;
+    }
+
+    int_list_node_t* membership = _map_find(&table->memberships, fd);
+
+    if (membership == NULL)
+    {
+        return 0;
+    }
+
+    const size_t removed = membership->count;
+
+    for (size_t i = 0; i < membership->count; i++)
+    {
+        _drop_member(table, membership->items[i], fd);
+    }
+    _map_remove(&table->memberships, fd);
+    return removed;
+}
+
+const int* fd_group_members(const fd_group_table_t* table, const int group_id, size_t* count)
+{
+    const int_list_node_t* group = table != NULL ? _map_find(&table->groups, group_id) : NULL;
+
+    if (count != NULL)
+    {
+        *count = group != NULL ? group->count : 0;
+    }
+    return group != NULL ? group->items : NULL;
+}
+
+size_t fd_group_count(const fd_group_table_t* table)
+{
+    return table != NULL ? table->groups.size : 0;
+}
@@ -0,0 +1,65 @@
+//
+// 여러 수신자가 공유하는 참조 카운트 프레임 버퍼
+//
+
+#include "frame_buffer.h"
+
+#include <stdlib.h>
+#include <string.h>
+
+frame_buffer_t* frame_buffer_alloc(const size_t len)
+{
+    frame_buffer_t* frame = (frame_buffer_t*)malloc(sizeof(frame_buffer_t) + len);
+
+    if (frame == NULL)
+    {
+        return NULL;
+    }
+
+    atomic_init(&frame->ref_count, 1);
+    frame->len = len;
+    return frame;
+}
+
+frame_buffer_t* frame_buffer_create(const message_type_t type, const uint8_t* payload, const size_t payload_len)
+{
+    if ((payload == NULL && payload_len > 0) || payload_len > UINT32_MAX)
+    {
+        return NULL;
+    }
+
+    frame_buffer_t* frame = frame_buffer_alloc(HEADER_SIZE + payload_len);
+
+    if (frame == NULL)
+    {
+        return NULL;
+    }
+
+    frame_header(type, payload_len, frame->data);
+
+    if (payload_len > 0)
+    {
+        memcpy(frame->data + HEADER_SIZE, payload, payload_len);
+    }
+    return frame;
+}
+
+frame_buffer_t* frame_buffer_retain(frame_buffer_t* frame)
+{
+    /* 이미 참조를 가진 쪽에서만 호출하므로 순서 보장이 필요 없습니다. */
+    atomic_fetch_add_explicit(&frame->ref_count, 1, memory_order_relaxed);
+    return frame;
+}
+
+void frame_buffer_release(frame_buffer_t* frame)
+{
+    if (frame == NULL)
+    {
+        return;
+    }
+
+    if (atomic_fetch_sub_explicit(&frame->ref_count, 1, memory_order_acq_rel) == 1)
+    {
+        free(frame);
+    }
+}
@@ -0,0 +1,391 @@
+//
+// 이벤트 루프(생산자) 하나와 소비자 쓰레드 하나가 공유하는 수신 레코드 링 버퍼
+//
+
+#include "inbound_ring.h"
+
+#include <errno.h>
+#include <fcntl.h>
+#include <poll.h>
+#include <stdatomic.h>
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+
+#ifdef __linux__
+#include <sys/eventfd.h>
+#endif
+
+_Static_assert(sizeof(inbound_record_header_t) == INBOUND_RING_ALIGNMENT, "record header must fill one alignment unit");
+
+struct inbound_ring_t
+{
+    uint8_t* memory;
+    uint8_t* data;
+    size_t capacity;
+    _Atomic uint64_t* head;
+    _Atomic uint64_t* tail;
+    _Atomic uint32_t* waiting;
+    _Atomic uint32_t* closed;
+    /* 생산자만 쓰는 값: 마지막으로 본 소비자 위치와 다음에 쓸 위치 */
+    uint64_t cached_head;
+    uint64_t local_tail;
+    int notify_fds[2];
+};
+
+static size_t _align_up(const size_t value)
+{
+    return (value + INBOUND_RING_ALIGNMENT - 1) & ~(size_t)(INBOUND_RING_ALIGNMENT - 1);
+}
+
+static size_t _inline_length(const inbound_record_header_t* header)
+{
+    return header->kind == INBOUND_RECORD_MESSAGE_EXTERNAL ? sizeof(uint64_t) : header->length;
+}
+
+/**
+ * @brief 소비자를 깨울 fd를 만듭니다. Linux에서는 eventfd, 그 외에는 논블로킹 pipe를 씁니다.
+ */
+static int _create_notify_fds(inbound_ring_t* ring)
+{
+#ifdef __linux__
+    const int efd = eventfd(0, EFD_NONBLOCK | EFD_CLOEXEC);
+
+    if (efd < 0)
+    {
+        return -1;
+    }
+    ring->notify_fds[0] = efd;
+    ring->notify_fds[1] = efd;
+    return 0;
+#else
+    if (pipe(ring->notify_fds) < 0)
+    {
+        return -1;
+    }
+
+    for (int i = 0; i < 2; ++i)
+    {
+        const int flags = fcntl(ring->notify_fds[i], F_GETFL, 0);
+        fcntl(ring->notify_fds[i], F_SETFL, flags | O_NONBLOCK);
+    }
+    return 0;
+#endif
+}
+
+static void _signal(const inbound_ring_t* ring)
+{
+#ifdef __linux__
+    const uint64_t signal = 1;
+#else
+    const uint8_t signal = 1;
+#endif
+    ssize_t written;
+
+    do
+    {
+        written = write(ring->notify_fds[1], &signal, sizeof(signal));
+    } while (written < 0 && errno == EINTR);
+}
+
+static void _drain_signal(const inbound_ring_t* ring)
+{
+    uint8_t buffer[64];
+
+    while (read(ring->notify_fds[0], buffer, sizeof(buffer)) > 0)
+    {
+    }
+}
+
+inbound_ring_t* inbound_ring_create(const size_t capacity)
+{
+    size_t rounded = INBOUND_RING_MIN_CAPACITY;
+
+    while (rounded < capacity)
+    {
+        if (rounded > SIZE_MAX / 2)
+        {
+            errno = EINVAL;
+            return NULL;
+        }
+        rounded <<= 1;
+    }
+
+    inbound_ring_t* ring = (inbound_ring_t*)calloc(1, sizeof(inbound_ring_t));
+
+    if (ring == NULL)
+    {
+        return NULL;
+    }
+    ring->notify_fds[0] = -1;
+    ring->notify_fds[1] = -1;
+
+    void* memory = NULL;
+
+    if (posix_memalign(&memory, 64, INBOUND_RING_HEADER_SIZE + rounded) != 0)
+    {
+        goto FAIL;
+    }
+    memset(memory, 0, INBOUND_RING_HEADER_SIZE);
+
+    ring->memory = (uint8_t*)memory;
+    ring->data = ring->memory + INBOUND_RING_HEADER_SIZE;
+    ring->capacity = rounded;
+    ring->head = (_Atomic uint64_t*)(ring->memory + INBOUND_RING_HEAD_OFFSET);
+    ring->tail = (_Atomic uint64_t*)(ring->memory + INBOUND_RING_TAIL_OFFSET);
+    ring->waiting = (_Atomic uint32_t*)(ring->memory + INBOUND_RING_WAITING_OFFSET);
+    ring->closed = (_Atomic uint32_t*)(ring->memory + INBOUND_RING_CLOSED_OFFSET);
+    *(uint64_t*)(ring->memory + INBOUND_RING_CAPACITY_OFFSET) = rounded;
+
+    if (_create_notify_fds(ring) < 0)
+    {
+        goto FAIL;
+    }
+    return ring;
+
+    FAIL:
+    free(ring->memory);
+    free(ring);
+    return NULL;
+}
+
+void inbound_ring_destroy(inbound_ring_t* ring)
+{
+    if (ring == NULL)
+    {
+        return;
+    }
+
+    /* 읽히지 않은 EXTERNAL 레코드의 버퍼는 여기서 해제합니다. */
+    uint64_t pos = atomic_load(ring->head);
+    const uint64_t end = atomic_load(ring->tail);
+    const size_t mask = ring->capacity - 1;
+
+    while (pos != end)
+    {
+        inbound_record_header_t header;
+        memcpy(&header, ring->data + (pos & mask), sizeof(header));
+
+        if (header.kind == INBOUND_RECORD_PADDING)
+        {
+            pos += sizeof(header) + header.length;
+            continue;
+        }
+
+        if (header.kind == INBOUND_RECORD_MESSAGE_EXTERNAL)
+        {
+            uint64_t address;
+            memcpy(&address, ring->data + (pos & mask) + sizeof(header), sizeof(address));
+            free((void*)(uintptr_t)address);
+        }
+        pos += _align_up(sizeof(header) + _inline_length(&header));
+    }
+
+    if (ring->notify_fds[0] >= 0)
+    {
+        close(ring->notify_fds[0]);
+    }
+    if (ring->notify_fds[1] >= 0 && ring->notify_fds[1] != ring->notify_fds[0])
+    {
+        close(ring->notify_fds[1]);
+    }
+    free(ring->memory);
+    free(ring);
+}
+
+size_t inbound_ring_max_inline_payload(const inbound_ring_t* ring)
+{
+    return ring->capacity - sizeof(inbound_record_header_t);
+}
+
+int inbound_ring_try_write(inbound_ring_t* ring, const inbound_record_kind_t kind, const int fd, const int msg_type, const uint8_t* payload, const size_t len)
+{
+    const size_t inline_len = kind == INBOUND_RECORD_MESSAGE_EXTERNAL ? sizeof(uint64_t) : len;
+
+    if (inline_len > inbound_ring_max_inline_payload(ring) || len > UINT32_MAX)
+    {
+        return -1;
+    }
+
+    const size_t mask = ring->capacity - 1;
+    const size_t record_size = _align_up(sizeof(inbound_record_header_t) + inline_len);
+    uint64_t pos = ring->local_tail;
+    const size_t to_end = ring->capacity - (size_t)(pos & mask);
+    /* 레코드가 링 끝에서 잘리면 남는 공간을 PADDING으로 채우고 처음부터 씁니다. */
+    const size_t needed = record_size > to_end ? to_end + record_size : record_size;
+
+    if (needed > ring->capacity - (size_t)(pos - ring->cached_head))
+    {
+        ring->cached_head = atomic_load_explicit(ring->head, memory_order_acquire);
+
+        if (needed > ring->capacity - (size_t)(pos - ring->cached_head))
+        {
+            return -1;
+        }
+    }
+
+    if (record_size > to_end)
+    {
+        const inbound_record_header_t padding =
+        {
+            .length = (uint32_t)(to_end - sizeof(inbound_record_header_t)),
+            .kind = INBOUND_RECORD_PADDING,
+            .fd = -1,
+            .msg_type = 0,
+        };
+        memcpy(ring->data + (pos & mask), &padding, sizeof(padding));
+        pos += to_end;
+    }
+
+    const inbound_record_header_t header =
+    {
+        .length = (uint32_t)len,
+        .kind = kind,
+        .fd = fd,
+        .msg_type = msg_type,
+    };
+    uint8_t* slot = ring->data + (pos & mask);
+    memcpy(slot, &header, sizeof(header));
+
+    if (inline_len > 0)
+    {
+        memcpy(slot + sizeof(header), payload, inline_len);
+    }
+
+    ring->local_tail = pos + record_size;
+    atomic_store_explicit(ring->tail, ring->local_tail, memory_order_release);
+    return 0;
+}
+
+int inbound_ring_notify(inbound_ring_t* ring)
+{
+    /* tail 저장과 waiting 읽기 사이의 순서를 보장해, 소비자가 빈 링을 보고 잠든 뒤 신호를 놓치지 않게 합니다. */
+    atomic_thread_fence(memory_order_seq_cst);
+
+    if (atomic_load_explicit(ring->waiting, memory_order_relaxed) == 0 || atomic_exchange(ring->waiting, 0) == 0)
+    {
+        return 0;
+    }
+    _signal(ring);
+    return 1;
+}
+
+void inbound_ring_close(inbound_ring_t* ring)
+{
+    if (ring == NULL)
+    {
+        return;
+    }
+    atomic_store(ring->closed, 1);
+    _signal(ring);
+}
+
+void inbound_ring_open(inbound_ring_t* ring)
+{
+    if (ring == NULL)
+    {
+        return;
+    }
+    atomic_store(ring->closed, 0);
+    _drain_signal(ring);
+}
+
+int inbound_ring_wait(inbound_ring_t* ring, const int timeout_ms)
+{
+    if (atomic_load(ring->closed))
+    {
+        return -1;
+    }
+
+    if (atomic_load_explicit(ring->tail, memory_order_acquire) != atomic_load_explicit(ring->head, memory_order_relaxed))
+    {
+        return 1;
+    }
+
+    atomic_store(ring->waiting, 1);
+
+    /* waiting을 세운 뒤 다시 확인해야, 그 사이에 쓰인 레코드를 놓치지 않습니다. */
+    if (atomic_load(ring->tail) == atomic_load_explicit(ring->head, memory_order_relaxed) && !atomic_load(ring->closed))
+    {
+        struct pollfd pfd =
+        {
+            .fd = ring->notify_fds[0],
+            .events = POLLIN,
+        };
+
+        if (poll(&pfd, 1, timeout_ms) > 0)
+        {
+            _drain_signal(ring);
+        }
+    }
+    atomic_store(ring->waiting, 0);
+
+    if (atomic_load(ring->closed))
+    {
+        return -1;
+    }
+    return atomic_load_explicit(ring->tail, memory_order_acquire) != atomic_load_explicit(ring->head, memory_order_relaxed);
+}
+
+size_t inbound_ring_consume(inbound_ring_t* ring, const inbound_ring_record_callback callback, void* user_data, const size_t max_records)
+{
+    const size_t mask = ring->capacity - 1;
+    uint64_t pos = atomic_load_explicit(ring->head, memory_order_relaxed);
+    const uint64_t end = atomic_load_explicit(ring->tail, memory_order_acquire);
+    size_t consumed = 0;
+
+    while (pos != end && consumed < max_records)
+    {
+        const uint8_t* slot = ring->data + (pos & mask);
+        inbound_record_header_t header;
+        memcpy(&header, slot, sizeof(header));
+
+        if (header.kind == INBOUND_RECORD_PADDING)
+        {
+            pos += sizeof(header) + header.length;
+            continue;
+        }
+
+        if (header.kind == INBOUND_RECORD_MESSAGE_EXTERNAL)
+        {
+            uint64_t address;
+            memcpy(&address, slot + sizeof(header), sizeof(address));
+            uint8_t* external = (uint8_t*)(uintptr_t)address;
+            callback(user_data, INBOUND_RECORD_MESSAGE, header.fd, header.msg_type, external, header.length);
+            free(external);
+        } else
+        {
+            callback(user_data, (inbound_record_kind_t)header.kind, header.fd, header.msg_type, slot + sizeof(header), header.length);
+        }
+        pos += _align_up(sizeof(header) + _inline_length(&header));
+        ++consumed;
+    }
+
+    atomic_store_explicit(ring->head, pos, memory_order_release);
+    return consumed;
+}
+
+uint64_t inbound_ring_write_position(const inbound_ring_t* ring)
+{
+    return ring->local_tail;
+}
+
+uint64_t inbound_ring_read_position(const inbound_ring_t* ring)
+{
+    return atomic_load_explicit(ring->head, memory_order_acquire);
+}
+
+void* inbound_ring_memory(const inbound_ring_t* ring)
+{
+    return ring->memory;
+}
+
+size_t inbound_ring_memory_size(const inbound_ring_t* ring)
+{
+    return INBOUND_RING_HEADER_SIZE + ring->capacity;
+}
+
+void inbound_ring_release_external(void* buffer)
+{
+    free(buffer);
+}
@@ -0,0 +1,227 @@
+//
+// 여러 쓰레드가 함께 쓰는 고정 크기 객체 풀
+//
+
+#include "object_pool.h"
+
+#include <pthread.h>
+#include <stdalign.h>
+#include <stdatomic.h>
+#include <stdint.h>
+#include <stdlib.h>
+
+/** 풀 밖에서 malloc으로 만든 객체의 슬롯 번호 */
+#define POOL_SLOT_UNPOOLED UINT32_MAX
+
+/**
+ * 슬롯 = 헤더 + 객체. 객체는 헤더 뒤 max_align_t 경계에서 시작합니다.
+ * next는 빈 스택에서 다음 슬롯 번호(+1, 0이면 끝)입니다.
+ */
+typedef struct
+{
+    uint32_t index;
+    _Atomic uint32_t next;
+} pool_slot_t;
+
+#define POOL_HEADER_SIZE ((sizeof(pool_slot_t) + alignof(max_align_t) - 1) / alignof(max_align_t) * alignof(max_align_t))
+
+struct object_pool_t
+{
+    size_t slot_size;
+    /* 상위 32비트: 세대(tag), 하위 32비트: 머리 슬롯 번호 + 1 (0이면 비어 있음) */
+    _Atomic uint64_t free_head;
+    _Atomic(uint8_t*) chunks[OBJECT_POOL_MAX_CHUNKS];
+    atomic_uint chunk_count;
+    pthread_mutex_t grow_mutex;
+};
+
+static pool_slot_t* _slot_at(object_pool_t* pool, const uint32_t index)
+{
+    uint8_t* chunk = atomic_load_explicit(&pool->chunks[index / OBJECT_POOL_CHUNK_SIZE], memory_order_acquire);
+    return (pool_slot_t*)(chunk + (size_t)(index % OBJECT_POOL_CHUNK_SIZE) * pool->slot_size);
+}
+
+static void* _slot_object(pool_slot_t* slot)
+{
+    return (uint8_t*)slot + POOL_HEADER_SIZE;
+}
+
+static pool_slot_t* _object_slot(void* object)
+{
+    return (pool_slot_t*)((uint8_t*)object - POOL_HEADER_SIZE);
+}
+
+/**
+ * @brief first부터 last까지 이어진 슬롯 사슬을 빈 스택 위에 올립니다.
+ */
+static void _push_chain(object_pool_t* pool, pool_slot_t* first, pool_slot_t* last)
+{
+    uint64_t head = atomic_load_explicit(&pool->free_head, memory_order_relaxed);
+    uint64_t next_head;
+
+    do
+    {
+        atomic_store_explicit(&last->next, (uint32_t)head, memory_order_relaxed);
+        next_head = ((head >> 32) + 1) << 32 | (uint64_t)(first->index + 1);
+    }
+    while (!atomic_compare_exchange_weak_explicit(&pool->free_head, &head, next_head, memory_order_release, memory_order_relaxed));
+}
+
+/**
+ * @brief 새 묶음을 하나 만들어 빈 스택에 올립니다.
+ * @return 성공 시 0, 묶음 수가 한계에 닿았거나 메모리가 부족하면 -1
+ */
+static int _grow(object_pool_t* pool)
+{
+    int result = -1;
+
+    pthread_mutex_lock(&pool->grow_mutex);
+
+    /* 다른 쓰레드가 먼저 늘렸다면 그것을 씁니다. */
+    if ((uint32_t)atomic_load_explicit(&pool->free_head, memory_order_acquire) != 0)
+    {
+        result = 0;
+        goto DONE;
+    }
+
+    const unsigned int chunk_index = atomic_load_explicit(&pool->chunk_count, memory_order_relaxed);
+
+    if (chunk_index >= OBJECT_POOL_MAX_CHUNKS)
+    {
+        goto DONE;
+    }
+
+    uint8_t* chunk = (uint8_t*)malloc(pool->slot_size * OBJECT_POOL_CHUNK_SIZE);
+
+    if (chunk == NULL)
+    {
+        goto DONE;
+    }
+
+    const uint32_t base = chunk_index * OBJECT_POOL_CHUNK_SIZE;
+
+    for (uint32_t i = 0; i < OBJECT_POOL_CHUNK_SIZE; ++i)
+    {
+        pool_slot_t* slot = (pool_slot_t*)(chunk + (size_t)i * pool->slot_size);
+        slot->index = base + i;
+        atomic_init(&slot->next, i + 1 < OBJECT_POOL_CHUNK_SIZE ? base + i + 2 : 0);
+    }
+
+    atomic_store_explicit(&pool->chunks[chunk_index], chunk, memory_order_release);
+    atomic_store_explicit(&pool->chunk_count, chunk_index + 1, memory_order_release);
+    _push_chain(pool, (pool_slot_t*)chunk, (pool_slot_t*)(chunk + (size_t)(OBJECT_POOL_CHUNK_SIZE - 1) * pool->slot_size));
+    result = 0;
+
+DONE:
+    pthread_mutex_unlock(&pool->grow_mutex);
+    return result;
+}
+
+object_pool_t* object_pool_create(const size_t object_size)
+{
+    object_pool_t* pool = (object_pool_t*)calloc(1, sizeof(object_pool_t));
+
+    if (pool == NULL)
+    {
+        return NULL;
+    }
+
+    const size_t align = alignof(max_align_t);
+    pool->slot_size = POOL_HEADER_SIZE + (object_size + align - 1) / align * align;
+    atomic_init(&pool->free_head, 0);
+    atomic_init(&pool->chunk_count, 0);
+
+    if (pthread_mutex_init(&pool->grow_mutex, NULL) != 0)
+    {
+        free(pool);
+        return NULL;
+    }
+    return pool;
+}
+
+void object_pool_destroy(object_pool_t* pool)
+{
+    if (pool == NULL)
+    {
+        return;
+    }
+
+    const unsigned int chunk_count = atomic_load(&pool->chunk_count);
+
+    for (unsigned int i = 0; i < chunk_count; ++i)
+    {
+        free(atomic_load(&pool->chunks[i]));
+    }
+    pthread_mutex_destroy(&pool->grow_mutex);
+    free(pool);
+}
+
+void* object_pool_acquire(object_pool_t* pool)
+{
+    if (pool == NULL)
+    {
+        return NULL;
+    }
+
+    for (;;)
+    {
+        uint64_t head = atomic_load_explicit(&pool->free_head, memory_order_acquire);
+
+        while ((uint32_t)head != 0)
+        {
+            pool_slot_t* slot = _slot_at(pool, (uint32_t)head - 1);
+            /* 슬롯은 풀이 파괴될 때까지 해제되지 않으므로, 다른 쓰레드가 먼저 꺼내 갔더라도 읽는 것은 안전합니다.
+               그 경우 세대가 바뀌어 아래 CAS가 실패합니다. */
+            const uint32_t next = atomic_load_explicit(&slot->next, memory_order_relaxed);
+            const uint64_t next_head = ((head >> 32) + 1) << 32 | next;
+
+            if (atomic_compare_exchange_weak_explicit(&pool->free_head, &head, next_head, memory_order_acquire, memory_order_acquire))
+            {
+                return _slot_object(slot);
+            }
+        }
+
+        if (_grow(pool) != 0)
+        {
+            break;
+        }
+    }
+
+    /* 풀이 한계에 닿으면 풀 밖에서 할당합니다. */
+    pool_slot_t* slot = (pool_slot_t*)malloc(pool->slot_size);
+
+    if (slot == NULL)
+    {
+        return NULL;
+    }
+
+    slot->index = POOL_SLOT_UNPOOLED;
+    atomic_init(&slot->next, 0);
+    return _slot_object(slot);
+}
+
+void object_pool_release(object_pool_t* pool, void* object)
+{
+    if (pool == NULL || object == NULL)
+    {
+        return;
+    }
+
+    pool_slot_t* slot = _object_slot(object);
+
+    if (slot->index == POOL_SLOT_UNPOOLED)
+    {
+        free(slot);
+        return;
+    }
+    _push_chain(pool, slot, slot);
+}
+
+size_t object_pool_capacity(const object_pool_t* pool)
+{
+    if (pool == NULL)
+    {
+        return 0;
+    }
+    return (size_t)atomic_load_explicit(&((object_pool_t*)pool)->chunk_count, memory_order_acquire) * OBJECT_POOL_CHUNK_SIZE;
+}
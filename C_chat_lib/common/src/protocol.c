@@ -3,6 +3,7 @@
 //
 #include "protocol.h"
 #include <stdlib.h>
+#include <limits.h>
 #include <arpa/inet.h>
 #include <string.h>
 
@@ -24,6 +25,20 @@ static void _reset_parser(stream_parser_t* parser)
     parser->payload_bytes_received = 0;
 }
 
+int frame_header(const message_type_t type, const size_t payload_len, uint8_t* out_header)
+{
+    if (out_header == NULL || payload_len > UINT32_MAX)
+    {
+        return -1;
+    }
+
+    const uint32_t net_payload_len = htonl((uint32_t)payload_len);
+
+    out_header[0] = (uint8_t)type;
+    memcpy(out_header + 1, &net_payload_len, sizeof(net_payload_len));
+    return 0;
+}
+
 int frame_message(const message_type_t type, const uint8_t* payload, const size_t payload_len, uint8_t* out_buffer, const size_t buffer_len)
 {
     if (out_buffer == NULL)
@@ -33,15 +48,12 @@ int frame_message(const message_type_t type, const uint8_t* payload, const size_
 
     const size_t frame_size = HEADER_SIZE + payload_len;
 
-    if (buffer_len < frame_size)
+    if (buffer_len < frame_size || frame_size > INT_MAX)
     {
         return -1;
     }
 
-    const uint32_t net_payload_len = htonl((uint32_t)payload_len);
-
-    out_buffer[0] = (uint8_t)type;
-    memcpy(out_buffer + 1, &net_payload_len, sizeof(net_payload_len));
+    frame_header(type, payload_len, out_buffer);
 
     if (payload != NULL && payload_len > 0)
     {
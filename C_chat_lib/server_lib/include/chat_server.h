@@ -12,9 +12,16 @@ extern "C"
 #include <command_queue.h>
 
 	#include "protocol.h"
+	#include "event_poller.h"
+	#include "inbound_ring.h"
 	#include <pthread.h>
-	#include <poll.h>
-	#define MAX_FD_LIMIT 4096
+	#include <stdatomic.h>
+	#define MAX_FD_LIMIT 65536
+	#define SERVER_MAX_READY_EVENTS 256
+	#define SERVER_MAX_IO_THREADS 64
+	#define SERVER_DEFAULT_MAX_OUTBOUND_BYTES (4 * 1024 * 1024)
+	/** 링 모드에서 넘친 레코드나 닫기를 미룬 fd가 있을 때 루프가 다시 확인하는 간격(ms) */
+	#define SERVER_INBOUND_RETRY_MS 1
 
 	typedef enum
 	{
@@ -23,11 +30,72 @@ extern "C"
 		SERVER_STATE_RUNNING
 	} server_state_t;
 
+	/**
+	* @brief 클라이언트의 송신 대기열이 한도를 넘었을 때 적용할 정책
+	*/
+	typedef enum
+	{
+		SLOW_CONSUMER_DISCONNECT = 0,	/**< 연결을 끊습니다. */
+		SLOW_CONSUMER_DROP_NEW = 1,		/**< 새로 보내려는 메시지를 버립니다. */
+		SLOW_CONSUMER_DROP_OLDEST = 2,	/**< 아직 전송을 시작하지 않은 가장 오래된 메시지부터 버립니다. */
+	} slow_consumer_policy_t;
+
+	/**
+	* @brief server_send_payload_to_client(), server_broadcast_message()의 반환값
+	* @note 0 이상은 요청이 받아들여졌음을 뜻하며, 양수는 느린 수신자 정책이 적용되었음을 알립니다.
+	*/
+	typedef enum
+	{
+		SERVER_SEND_FAILED = -1,		/**< 잘못된 인자, 메모리 부족 등으로 요청을 처리하지 못함 */
+		SERVER_SEND_OK = 0,				/**< 송신 대기열에 들어감 */
+		SERVER_SEND_DROPPED = 1,		/**< 대상의 송신 대기열이 가득 차 메시지를 버림 (DROP_NEW) */
+		SERVER_SEND_DROPPED_OLDEST = 2,	/**< 메시지는 들어가지만 대상의 오래된 메시지가 버려짐 (DROP_OLDEST) */
+		SERVER_SEND_DISCONNECTING = 3,	/**< 대상의 송신 대기열이 가득 차 연결이 끊어질 예정 (DISCONNECT) */
+		SERVER_SEND_PARTIAL = 4,		/**< 브로드캐스트 대상 중 느린 수신자 정책이 적용 중인 클라이언트가 있음 */
+	} server_send_result_t;
+
+	/**
+	* @brief server_submit_batch()에 넘기는 배치 항목의 종류
+	*/
+	typedef enum
+	{
+		SERVER_BATCH_SEND = 0,		/**< fd에게만 보냄 */
+		SERVER_BATCH_BROADCAST = 1,	/**< fd를 제외한 모두에게 보냄 (fd가 -1이면 제외 없음) */
+		SERVER_BATCH_GROUP = 2,		/**< group_id 그룹의 멤버 중 fd를 제외한 모두에게 보냄 (fd가 -1이면 제외 없음) */
+	} server_batch_kind_t;
+
+	/**
+	* @brief 배치 항목 헤더 (호스트 바이트 순서, SERVER_BATCH_ENTRY_HEADER_SIZE 바이트)
+	* @details 배치 버퍼는 [헤더][payload] 항목을 빈틈없이 이어 붙인 것입니다.
+	*          항목은 정렬되어 있지 않을 수 있으므로 memcpy로 읽습니다.
+	*/
+	typedef struct
+	{
+		int32_t kind;			/**< server_batch_kind_t */
+		int32_t fd;				/**< SEND의 대상 fd, BROADCAST/GROUP의 제외 fd */
+		int32_t msg_type;		/**< message_type_t */
+		uint32_t payload_len;	/**< 헤더 바로 뒤에 오는 payload의 길이 */
+		int32_t group_id;		/**< GROUP의 대상 그룹 id (다른 종류에서는 무시) */
+	} server_batch_entry_header_t;
+
+	#define SERVER_BATCH_ENTRY_HEADER_SIZE ((size_t)sizeof(server_batch_entry_header_t))
+
+	struct outbound_frame_t;
+	struct inbound_overflow_t;
+	struct pending_close_t;
+
 	typedef struct
 	{
     	int socket_fd;
     	char ip_addr[16];
 		stream_parser_t* client_parser;
+		struct outbound_frame_t* outbound_head;
+		struct outbound_frame_t* outbound_tail;
+		size_t outbound_bytes;
+		char write_pending;
+		char slow;
+		char read_paused;
+		char ring_paused;
 	} client_info_t;
 
 	typedef void (*server_on_client_connected_callback)(void* user_data, const client_info_t* client);
@@ -35,19 +103,98 @@ extern "C"
 	typedef void (*server_on_client_disconnected_callback)(void* user_data, const client_info_t* client);
 	typedef void (*server_on_error_callback)(void* user_data, const int error_code, const char* message);
 
+	/**
+	* @brief server_create_with_options()에 전달하는 서버 생성 옵션
+	* @note 반드시 server_options_init()으로 기본값을 채운 뒤 필요한 필드만 변경하십시오.
+	*/
 	typedef struct
 	{
-		int listening_socket_fd;
 		int port;
+		int max_clients;
+		poller_backend_t io_backend;
+		int io_threads;
+		slow_consumer_policy_t slow_consumer_policy;
+		size_t max_outbound_bytes;
+		size_t inbound_ring_bytes;	/**< 0이면 콜백 모드, 0보다 크면 루프마다 이 크기의 수신 링을 씀 */
+	} server_options_t;
+
+	/**
+	* @brief 송신 경로에서 서버가 프레임/페이로드를 메모리 복사한 횟수와 바이트 수
+	* @note JNA 등 호출자 쪽에서 일어나는 복사는 포함하지 않습니다.
+	*/
+	typedef struct
+	{
+		unsigned long copies;
+		unsigned long bytes;
+	} server_copy_stats_t;
+
+	/**
+	* @brief 이벤트 루프 깨우기 통계
+	* @details signals는 커맨드를 넣은 쪽이 깨우기 fd에 쓴 횟수(write 시스템 콜),
+	*          wakeups는 루프가 깨어나 커맨드 큐를 비운 횟수(read 시스템 콜)입니다.
+	*          큐가 비어 있다가 채워질 때만 신호를 보내므로, 몰려드는 커맨드는 한 번의 깨우기로 처리됩니다.
+	*/
+	typedef struct
+	{
+		unsigned long signals;
+		unsigned long wakeups;
+	} server_wakeup_stats_t;
+
+	typedef struct server_context_t server_context_t;
+
+	/**
+	* @brief 하나의 이벤트 루프 쓰레드가 소유하는 자원
+	* @details 각 루프는 자신만의 poller, 클라이언트 테이블, 커맨드 큐를 가지며
+	*          자신이 소유한 클라이언트의 수신/송신을 전담합니다.
+	*          0번 루프는 리스닝 소켓도 감시하며 수락한 연결을 각 루프에 분배합니다.
+	*/
+	typedef struct
+	{
+		int index;
+		server_context_t* server;
+		event_poller_t* poller;
+		poller_event_t* ready_events;
 		client_info_t* clients;
-		client_info_t* client_map[MAX_FD_LIMIT];
+		int* free_slots;
+		int free_slot_count;
+		atomic_int client_count;
+		int wakeup_fds[2];
+		atomic_int wakeup_pending;
+		atomic_ulong wakeup_signals;
+		atomic_ulong wakeup_drains;
+		command_queue_t* command_queue;
+		pthread_t thread;
+		char thread_started;
+		inbound_ring_t* inbound_ring;
+		struct inbound_overflow_t* overflow_head;
+		struct inbound_overflow_t* overflow_tail;
+		struct pending_close_t* pending_close_head;
+		struct pending_close_t* pending_close_tail;
+		int ring_paused_clients;
+		struct fd_group_table_t* groups;
+	} server_loop_t;
+
+	struct server_context_t
+	{
+		int listening_socket_fd;
+		int port;
 		int max_clients;
-		int client_count;
-		struct pollfd* pollers;
+		atomic_int client_count;
+		client_info_t** client_map;
+		atomic_int* fd_owner;
+		atomic_size_t* fd_backlog;
+		slow_consumer_policy_t slow_consumer_policy;
+		size_t max_outbound_bytes;
+		atomic_int slow_consumers;
+		atomic_ulong dropped_frames;
+		atomic_ulong copy_count;
+		atomic_ulong copy_bytes;
+		atomic_ulong inbound_overflows;
+		server_loop_t* loops;
+		int loop_count;
+		int next_loop;
+		atomic_int running_loops;
 		int shutdown_pipe[2];
-		int command_pipe[2];
-		command_queue_t* command_queue;
-		pthread_t server_thread;
 		server_state_t server_state;
 		pthread_mutex_t state_mutex;
 		char mutex_inited;
@@ -59,12 +206,13 @@ extern "C"
 		void* disconnect_user_data;
 		server_on_error_callback on_error_cb;
 		void* error_user_data;
-	} server_context_t;
+	};
 
 	typedef struct
 	{
 		server_context_t* server_context;
 		const client_info_t* client_info;
+		server_loop_t* loop;
 	} message_context_t;
 
 	/**
@@ -99,15 +247,138 @@ extern "C"
 	*/
 	void server_register_error_callback(server_context_t* stx, const server_on_error_callback callback, void* user_data);
 
+	/**
+	* @brief 서버 생성 옵션을 기본값으로 초기화합니다.
+	* @details io_backend는 POLLER_BACKEND_AUTO (Linux: epoll, 그 외: poll),
+	*          io_threads는 1(단일 이벤트 루프),
+	*          slow_consumer_policy는 SLOW_CONSUMER_DISCONNECT,
+	*          max_outbound_bytes는 SERVER_DEFAULT_MAX_OUTBOUND_BYTES,
+	*          inbound_ring_bytes는 0(콜백 모드)으로 설정됩니다.
+	* @param options 초기화할 옵션 구조체
+	* @param port 서버가 리스닝할 포트 번호
+	* @param max_clients 동시에 처리할 최대 클라이언트 수
+	*/
+	void server_options_init(server_options_t* options, const int port, const int max_clients);
+
 	/**
 	* @brief 채팅 서버 컨텍스트를 생성하고 초기화합니다.
 	* @details 내부적으로 소켓 생성, SO_REUSEADDR 설정, bind, listen을 수행합니다.
+	*          기본 옵션(server_options_init)으로 server_create_with_options()를 호출합니다.
 	* @param port 서버가 리스닝할 포트 번호
 	* @param max_clients 동시에 처리할 최대 클라이언트 수
 	* @return 성공 시 초기화된 server_context_t 포인터, 실패 시 NULL
 	*/
 	server_context_t* server_create(const int port, const int max_clients);
 
+	/**
+	* @brief 옵션을 지정하여 채팅 서버 컨텍스트를 생성하고 초기화합니다.
+	* @param options 서버 생성 옵션
+	* @return 성공 시 초기화된 server_context_t 포인터, 실패 시 NULL
+	*/
+	server_context_t* server_create_with_options(const server_options_t* options);
+
+	/**
+	* @brief 서버 이벤트 루프가 실제로 사용하는 I/O 백엔드를 반환합니다.
+	* @param stx 서버 컨텍스트
+	* @return POLLER_BACKEND_POLL 또는 POLLER_BACKEND_EPOLL
+	*/
+	poller_backend_t server_get_io_backend(const server_context_t* stx);
+
+	/**
+	* @brief 서버가 사용하는 이벤트 루프 쓰레드 수를 반환합니다.
+	* @param stx 서버 컨텍스트
+	* @return 이벤트 루프 수, stx가 NULL이면 0
+	*/
+	int server_get_io_threads(const server_context_t* stx);
+
+	/**
+	* @brief 특정 이벤트 루프가 현재 소유한 클라이언트 수를 반환합니다.
+	* @param stx 서버 컨텍스트
+	* @param loop_index 0 이상 server_get_io_threads() 미만의 루프 번호
+	* @return 클라이언트 수, 잘못된 인자이면 -1
+	*/
+	int server_get_loop_client_count(const server_context_t* stx, const int loop_index);
+
+	/**
+	* @brief 클라이언트의 송신 대기열에 쌓여 아직 소켓에 쓰지 못한 바이트 수를 반환합니다.
+	* @param stx 서버 컨텍스트
+	* @param client_fd 클라이언트 소켓 fd
+	* @return 대기 중인 바이트 수. 알 수 없는 fd이면 0
+	*/
+	size_t server_get_outbound_backlog(const server_context_t* stx, const int client_fd);
+
+	/**
+	* @brief 느린 수신자 정책으로 버려진 메시지의 누적 개수를 반환합니다.
+	* @param stx 서버 컨텍스트
+	*/
+	unsigned long server_get_dropped_frame_count(const server_context_t* stx);
+
+	/**
+	* @brief 서버가 지금까지 송신 경로에서 수행한 메모리 복사 통계를 반환합니다.
+	* @param stx 서버 컨텍스트
+	* @param out_stats 결과를 받을 구조체
+	*/
+	void server_get_copy_stats(const server_context_t* stx, server_copy_stats_t* out_stats);
+
+	/**
+	* @brief 모든 이벤트 루프의 깨우기 통계를 합산합니다.
+	* @param stx 서버 컨텍스트
+	* @param out_stats 결과를 받을 구조체
+	*/
+	void server_get_wakeup_stats(const server_context_t* stx, server_wakeup_stats_t* out_stats);
+
+	/**
+	* @brief 수신 링의 개수를 반환합니다. 링 모드이면 이벤트 루프 수와 같고, 콜백 모드이면 0입니다.
+	* @details 링 모드(server_options_t.inbound_ring_bytes > 0)에서는 연결/메시지/연결 해제 콜백을 부르지 않고,
+	*          각 루프가 자신의 링에 레코드(inbound_record_header_t + payload)를 씁니다.
+	*          루프는 소비자를 기다리지 않습니다. 링이 가득 차면 레코드를 루프 안의 대기열에 옮겨 두고,
+	*          그 클라이언트의 읽기를 대기열이 빌 때까지 멈춥니다.
+	*          연결이 끊긴 fd는 소비자가 DISCONNECT 레코드를 읽은 뒤에 닫으므로,
+	*          같은 fd 번호의 새 연결 레코드가 이전 연결의 레코드보다 먼저 읽히지 않습니다.
+	*          링마다 소비자 쓰레드는 하나여야 합니다.
+	* @param stx 서버 컨텍스트
+	* @return 링 개수
+	*/
+	int server_get_inbound_ring_count(const server_context_t* stx);
+
+	/**
+	* @brief 수신 링의 공유 메모리 주소를 반환합니다. 배치는 inbound_ring.h를 참고하십시오.
+	* @param stx 서버 컨텍스트
+	* @param index 링 번호 (0 ~ 링 개수 - 1)
+	* @return 공유 메모리 주소, 링이 없으면 NULL
+	*/
+	void* server_get_inbound_ring_memory(const server_context_t* stx, int index);
+
+	/**
+	* @brief 수신 링 공유 메모리의 크기(헤더 포함)를 반환합니다.
+	* @return 바이트 수, 링이 없으면 0
+	*/
+	size_t server_get_inbound_ring_memory_size(const server_context_t* stx, int index);
+
+	/**
+	* @brief 수신 링에 레코드가 들어올 때까지 기다립니다. (해당 링의 소비자 쓰레드 전용)
+	* @param timeout_ms 최대 대기 시간 (음수면 무한정)
+	* @return 읽을 레코드가 있으면 1, 시간이 지났으면 0, 서버가 멈췄거나 링이 없으면 -1
+	*/
+	int server_wait_inbound(server_context_t* stx, int index, int timeout_ms);
+
+	/**
+	* @brief 수신 링의 레코드를 최대 max_records개까지 읽어 callback으로 넘깁니다. (해당 링의 소비자 쓰레드 전용)
+	* @return 읽은 레코드 수
+	*/
+	size_t server_consume_inbound(server_context_t* stx, int index, inbound_ring_record_callback callback, void* user_data, size_t max_records);
+
+	/**
+	* @brief 링을 직접 읽는 소비자가 INBOUND_RECORD_MESSAGE_EXTERNAL 레코드의 버퍼를 다 쓴 뒤 해제합니다.
+	* @param buffer 레코드에 담긴 주소
+	*/
+	void server_release_inbound_payload(void* buffer);
+
+	/**
+	* @brief 수신 링이 가득 차서 루프 안의 대기열로 옮긴 레코드의 누적 개수
+	*/
+	unsigned long server_get_inbound_overflow_count(const server_context_t* stx);
+
 	/**
 	 * @brief 서버를 안전하게 종료합니다.
 	* @param stx 서버 컨텍스트
@@ -121,8 +392,8 @@ extern "C"
 	void server_destroy(server_context_t* stx);
 
 	/**
-	* @brief 서버의 메인 이벤트 루프를 시작합니다.
-	* @details 백그라운드에서 서버의 메인 이벤트 루프를 호출합니다.
+	* @brief 서버의 이벤트 루프를 시작합니다.
+	* @details io_threads 개수만큼의 백그라운드 쓰레드에서 이벤트 루프를 실행합니다.
 	* @param stx 서버 컨텍스트
 	* @return 성공 시 0, 치명적인 오류 발생 시 -1
 	*/
@@ -135,21 +406,93 @@ extern "C"
 	* @param msg_type 전송할 payload의 타입
 	* @param payload 전송할 bytestream
 	* @param payload_len 전송할 payload의 길이
-	* @return 성공 시 0, 실패 시 -1
+	* @return server_send_result_t 값. 실패 시 SERVER_SEND_FAILED(-1)
+	* @details payload는 헤더와 함께 프레임 버퍼에 한 번만 복사되며, 크기 제한은 프로토콜의 32비트 길이뿐입니다.
+	*          소켓은 논블로킹이며, 바로 쓰지 못한 바이트는 클라이언트별 송신 대기열에 쌓였다가
+	*          소켓이 쓰기 가능해질 때 전송됩니다. 대기열이 max_outbound_bytes를 넘으면
+	*          slow_consumer_policy가 적용되고, 그 결과가 반환값으로 드러납니다.
 	*/
 	int server_send_payload_to_client(server_context_t* stx, const int client_fd, const message_type_t msg_type, const uint8_t* payload, const size_t payload_len);
 
 	/**
 	* @brief 연결된 모든 클라이언트에게 메시지를 브로드캐스트합니다.
+	* @details 모든 이벤트 루프에 커맨드를 전달하므로 어느 루프에 속한 클라이언트든 메시지를 받습니다.
+	*          프레임은 호출한 쓰레드에서 참조 카운트 버퍼에 한 번만 만들어지고,
+	*          모든 루프와 수신자의 송신 대기열이 이 버퍼를 공유합니다.
 	* @param stx 서버 컨텍스트
 	* @param msg_type 보낼 메시지의 타입
 	* @param payload 브로드캐스트할 메시지
 	* @param payload_len 전송할 payload의 길이
 	* @param exclude_fd 이 파일 디스크립터를 가진 클라이언트는 제외 (메시지를 보낸 클라이언트에게 다시 보내지 않기 위함)
-	* @return 성공 시 0, 실패 시 -1
+	* @return 성공 시 SERVER_SEND_OK, 느린 수신자 정책이 적용 중인 클라이언트가 있으면 SERVER_SEND_PARTIAL,
+	*         실패 시 SERVER_SEND_FAILED(-1)
 	*/
 	int server_broadcast_message(server_context_t* stx, const message_type_t msg_type, const uint8_t* payload, const size_t payload_len, const int exclude_fd);
 
+	/**
+	* @brief 클라이언트를 그룹(방)에 넣습니다. (Thread-Safe)
+	* @details 그룹은 클라이언트를 소유한 이벤트 루프가 fd 집합으로 관리하므로, 커맨드로 넘겨 그 루프에서 반영합니다.
+	*          같은 호출 쓰레드에서 이어서 부른 server_group_broadcast()는 가입이 반영된 뒤에 처리됩니다.
+	*          연결이 끊기면 가입한 모든 그룹에서 자동으로 빠집니다.
+	* @param stx 서버 컨텍스트
+	* @param group_id 그룹 id (0 이상, 의미는 상위 계층이 정함)
+	* @param client_fd 대상 클라이언트의 소켓 fd
+	* @return 성공 시 0, 실패 시 -1
+	*/
+	int server_group_join(server_context_t* stx, int group_id, int client_fd);
+
+	/**
+	* @brief 클라이언트를 그룹에서 뺍니다. (Thread-Safe)
+	* @param stx 서버 컨텍스트
+	* @param group_id 그룹 id
+	* @param client_fd 대상 클라이언트의 소켓 fd
+	* @return 성공 시 0, 실패 시 -1 (멤버가 아니었던 것은 실패가 아님)
+	*/
+	int server_group_leave(server_context_t* stx, int group_id, int client_fd);
+
+	/**
+	* @brief 그룹의 멤버에게만 메시지를 보냅니다.
+	* @details server_broadcast_message()처럼 프레임을 한 번만 만들어 루프마다 커맨드를 하나씩 넣지만,
+	*          각 루프는 전체 클라이언트 슬롯 대신 자신이 가진 그 그룹의 멤버만 돕니다.
+	*          따라서 비용은 서버 전체 접속자 수가 아니라 그룹 크기에 비례합니다.
+	* @param stx 서버 컨텍스트
+	* @param group_id 대상 그룹 id
+	* @param msg_type 보낼 메시지의 타입
+	* @param payload 보낼 메시지
+	* @param payload_len 전송할 payload의 길이
+	* @param exclude_fd 그룹 안에서 제외할 클라이언트 fd (-1이면 제외 없음)
+	* @return server_broadcast_message()와 같음
+	*/
+	int server_group_broadcast(server_context_t* stx, int group_id, message_type_t msg_type, const uint8_t* payload, size_t payload_len, int exclude_fd);
+
+	/**
+	* @brief 클라이언트 소켓의 읽기를 멈추거나 다시 시작합니다. (Thread-Safe)
+	* @details 멈춘 동안에는 poller가 읽기 이벤트를 감시하지 않으므로 수신 데이터가 커널 버퍼에 쌓이고,
+	*          버퍼가 차면 TCP 흐름 제어로 클라이언트의 송신이 느려집니다.
+	*          상위 계층이 메시지를 처리하는 속도보다 빨리 들어올 때 역압(backpressure)을 거는 데 씁니다.
+	*          연결 끊김과 오류는 멈춘 동안에도 감지됩니다.
+	*          이미 읽어 파서에 들어간 데이터는 멈춘 뒤에도 콜백으로 전달될 수 있습니다.
+	* @param stx 서버 컨텍스트
+	* @param client_fd 대상 클라이언트의 소켓 fd
+	* @param paused 0이 아니면 멈추고, 0이면 다시 읽음
+	* @return 성공 시 0, 실패 시 -1
+	*/
+	int server_set_client_read_paused(server_context_t* stx, int client_fd, int paused);
+
+	/**
+	* @brief 여러 개의 송신/브로드캐스트를 한 번의 호출로 큐에 넣습니다.
+	* @details 항목마다 server_send_payload_to_client(), server_broadcast_message(), server_group_broadcast()와 같은 규칙으로 처리하지만,
+	*          모든 커맨드를 큐에 넣은 뒤 영향을 받는 이벤트 루프를 루프당 한 번만 깨웁니다.
+	*          배치 형식이 잘못되었으면 아무 항목도 넣지 않습니다.
+	* @param stx 서버 컨텍스트
+	* @param batch server_batch_entry_header_t와 payload를 이어 붙인 버퍼
+	* @param batch_len batch의 전체 길이
+	* @param results 항목별 server_send_result_t를 받을 배열 (NULL 가능)
+	* @param max_results results의 길이. 이보다 뒤의 항목은 결과를 기록하지 않습니다.
+	* @return 처리한 항목 수, 인자나 배치 형식이 잘못되었으면 SERVER_SEND_FAILED(-1)
+	*/
+	int server_submit_batch(server_context_t* stx, const uint8_t* batch, size_t batch_len, int8_t* results, size_t max_results);
+
     #ifdef __cplusplus
 }
 #endif
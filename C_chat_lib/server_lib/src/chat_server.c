@@ -4,20 +4,70 @@
 
 #include "chat_server.h"
 #include "command.h"
+#include "fd_group.h"
+#include "frame_buffer.h"
 #include "socket_utils.h"
 #include <errno.h>
+#include <limits.h>
 #include <stdio.h>
 #include <stdlib.h>
 #include <unistd.h>
 #include <string.h>
 #include <arpa/inet.h>
+#include <sys/socket.h>
+#include <sys/uio.h>
+#ifdef __linux__
+#include <sys/eventfd.h>
+#endif
 #define BUFFER_SIZE 4096
+#define SERVER_MAX_GATHER_FRAMES 64
+
+/**
+ * @brief 클라이언트 송신 대기열의 항목. 소켓에 아직 쓰지 못한 프레임을 참조합니다.
+ * @details 브로드캐스트 프레임은 여러 클라이언트의 대기열이 같은 frame을 공유합니다.
+ */
+typedef struct outbound_frame_t
+{
+    struct outbound_frame_t* next;
+    frame_buffer_t* frame;
+    size_t offset;
+} outbound_frame_t;
+
+/**
+ * @brief 수신 링이 가득 차서 루프 안에 잠시 보관하는 레코드
+ * @details payload에는 링에 들어갈 내용(EXTERNAL이면 8바이트 주소)이 그대로 담깁니다.
+ *          close_fd가 0 이상이면 이 레코드가 링에 들어간 뒤 소비자가 읽고 나서 그 fd를 닫습니다.
+ */
+typedef struct inbound_overflow_t
+{
+    struct inbound_overflow_t* next;
+    inbound_record_kind_t kind;
+    int fd;
+    int msg_type;
+    size_t len;
+    size_t inline_len;
+    int close_fd;
+    uint8_t payload[];
+} inbound_overflow_t;
+
+/**
+ * @brief 소비자가 링의 position까지 읽은 뒤에 닫을 fd
+ */
+typedef struct pending_close_t
+{
+    struct pending_close_t* next;
+    int fd;
+    uint64_t position;
+} pending_close_t;
 
 static void _def_on_client_connect_cb(void* user_data, const client_info_t* client);
 static void _def_on_complete_message_cb(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len);
 static void _def_on_client_disconnect_cb(void* user_data, const client_info_t* client);
 static void _def_on_error_cb(void* user_data, const int error_code, const char* message);
 static void _on_internal_parse_complete_cb(void* user_data, const message_type_t msg_type, const uint8_t* payload, const size_t len);
+static int _emit_inbound(server_loop_t* loop, inbound_record_kind_t kind, int fd, int msg_type, const uint8_t* payload, size_t len);
+static void _notify_disconnect(server_loop_t* loop, client_info_t* client);
+static void _close_after_consumed(server_loop_t* loop, int fd);
 
 void server_register_connect_callback(server_context_t* stx, const server_on_client_connected_callback callback, void* user_data)
 {
@@ -85,28 +135,78 @@ static void _handle_error(const server_context_t* stx, const client_info_t* clie
     }
 }
 static void _cleanup_server_context(server_context_t* stx);
+static int _init_loop(server_context_t* stx, server_loop_t* loop, const int index, const poller_backend_t backend);
+
+void server_options_init(server_options_t* options, const int port, const int max_clients)
+{
+    if (options == NULL)
+    {
+        return;
+    }
+    memset(options, 0, sizeof(server_options_t));
+    options->port = port;
+    options->max_clients = max_clients;
+    options->io_backend = POLLER_BACKEND_AUTO;
+    options->io_threads = 1;
+    options->slow_consumer_policy = SLOW_CONSUMER_DISCONNECT;
+    options->max_outbound_bytes = SERVER_DEFAULT_MAX_OUTBOUND_BYTES;
+}
 
 server_context_t* server_create(const int port, const int max_clients)
 {
-    server_context_t* stx = (server_context_t*)calloc(1, sizeof(server_context_t));
+    server_options_t options;
+    server_options_init(&options, port, max_clients);
+    return server_create_with_options(&options);
+}
+
+server_context_t* server_create_with_options(const server_options_t* options)
+{
+    if (options == NULL)
+    {
+        _handle_error(NULL, NULL, "server_create: options is NULL", EINVAL);
+        return NULL;
+    }
+
+    const int port = options->port;
+    const int max_clients = options->max_clients;
 
     if (max_clients <= 0)
     {
         _handle_error(NULL, NULL, "server_create: max_clients must be a positive integer", EINVAL);
-        goto FAIL;
+        return NULL;
+    }
+
+    if (options->io_threads <= 0 || options->io_threads > SERVER_MAX_IO_THREADS)
+    {
+        _handle_error(NULL, NULL, "server_create: io_threads is out of range", EINVAL);
+        return NULL;
     }
 
+    if (options->max_outbound_bytes == 0
+        || options->slow_consumer_policy < SLOW_CONSUMER_DISCONNECT
+        || options->slow_consumer_policy > SLOW_CONSUMER_DROP_OLDEST)
+    {
+        _handle_error(NULL, NULL, "server_create: invalid slow consumer options", EINVAL);
+        return NULL;
+    }
+
+    server_context_t* stx = (server_context_t*)calloc(1, sizeof(server_context_t));
+
     if (stx == NULL)
     {
         _handle_error(NULL, NULL, "server_create : calloc() for context failed.", errno);
-        goto FAIL;
+        return NULL;
     }
 
     stx->listening_socket_fd = -1;
     stx->shutdown_pipe[0] = -1;
     stx->shutdown_pipe[1] = -1;
-    stx->command_pipe[0] = -1;
-    stx->command_pipe[1] = -1;
+
+    if (!poller_backend_available(options->io_backend))
+    {
+        _handle_error(stx, NULL, "server_create: requested I/O backend is not available on this platform", ENOTSUP);
+        goto FAIL;
+    }
 
     stx->listening_socket_fd = create_tcp_socket();
 
@@ -140,21 +240,38 @@ server_context_t* server_create(const int port, const int max_clients)
         goto FAIL;
     }
 
+    if (set_socket_nonblocking(stx->listening_socket_fd) < 0)
+    {
+        _handle_error(stx, NULL, "server_create: set_socket_nonblocking() failed", errno);
+        goto FAIL;
+    }
+
     stx->port = port;
     stx->max_clients = max_clients;
-    stx->client_count = 0;
-
-    stx->clients = (client_info_t*)calloc(max_clients, sizeof(client_info_t));
-    stx->pollers = (struct pollfd*)calloc(max_clients + 3, sizeof(struct pollfd));
-
-    if (stx->clients == NULL || stx->pollers == NULL)
-    {
-        _handle_error(stx, NULL, "server_create: calloc() for clients/pollers failed.", ENOMEM);
+    atomic_init(&stx->client_count, 0);
+    atomic_init(&stx->running_loops, 0);
+    atomic_init(&stx->slow_consumers, 0);
+    atomic_init(&stx->dropped_frames, 0);
+    atomic_init(&stx->copy_count, 0);
+    atomic_init(&stx->copy_bytes, 0);
+    stx->slow_consumer_policy = options->slow_consumer_policy;
+    stx->max_outbound_bytes = options->max_outbound_bytes;
+
+    stx->client_map = (client_info_t**)calloc(MAX_FD_LIMIT, sizeof(client_info_t*));
+    stx->fd_owner = (atomic_int*)calloc(MAX_FD_LIMIT, sizeof(atomic_int));
+    stx->fd_backlog = (atomic_size_t*)calloc(MAX_FD_LIMIT, sizeof(atomic_size_t));
+
+    if (stx->client_map == NULL || stx->fd_owner == NULL || stx->fd_backlog == NULL)
+    {
+        _handle_error(stx, NULL, "server_create: calloc() for client tables failed.", ENOMEM);
         goto FAIL;
     }
 
-    stx->pollers[0].fd = stx->listening_socket_fd;
-    stx->pollers[0].events = POLLIN;
+    for (int fd = 0; fd < MAX_FD_LIMIT; ++fd)
+    {
+        atomic_init(&stx->fd_owner[fd], -1);
+        atomic_init(&stx->fd_backlog[fd], 0);
+    }
 
     if (pipe(stx->shutdown_pipe) == -1)
     {
@@ -162,32 +279,47 @@ server_context_t* server_create(const int port, const int max_clients)
         goto FAIL;
     }
 
-    stx->pollers[1].fd = stx->shutdown_pipe[0];
-    stx->pollers[1].events = POLLIN;
+    stx->loops = (server_loop_t*)calloc(options->io_threads, sizeof(server_loop_t));
 
-    if (pipe(stx->command_pipe) == -1)
+    if (stx->loops == NULL)
     {
-        _handle_error(stx, NULL, "server_create: pipe() for command pipe failed.", errno);
+        _handle_error(stx, NULL, "server_create: calloc() for event loops failed.", ENOMEM);
         goto FAIL;
     }
 
-    stx->pollers[2].fd = stx->command_pipe[0];
-    stx->pollers[2].events = POLLIN;
-
-    for (int i = 3; i < max_clients + 3; ++i)
+    for (int i = 0; i < options->io_threads; ++i)
     {
-        stx->pollers[i].fd = -1;
+        stx->loops[i].wakeup_fds[0] = -1;
+        stx->loops[i].wakeup_fds[1] = -1;
     }
+    stx->loop_count = options->io_threads;
+
+    for (int i = 0; i < stx->loop_count; ++i)
+    {
+        if (_init_loop(stx, &stx->loops[i], i, options->io_backend) < 0)
+        {
+            goto FAIL;
+        }
+
+        if (options->inbound_ring_bytes > 0)
+        {
+            stx->loops[i].inbound_ring = inbound_ring_create(options->inbound_ring_bytes);
 
-    stx->command_queue = queue_create();
+            if (stx->loops[i].inbound_ring == NULL)
+            {
+                _handle_error(stx, NULL, "server_create: inbound_ring_create() failed.", errno);
+                goto FAIL;
+            }
+        }
+    }
 
-    if (stx->command_queue == NULL)
+    /* 연결 수락은 0번 루프가 전담합니다. */
+    if (poller_add(stx->loops[0].poller, stx->listening_socket_fd, POLLER_EVENT_READ) < 0)
     {
-        _handle_error(stx, NULL, "server_create: queue_create() failed.", ENOMEM);
+        _handle_error(stx, NULL, "server_create: poller_add() for listening socket failed.", errno);
         goto FAIL;
     }
 
-    stx->server_thread = 0;
     stx->server_state = SERVER_STATE_STOPPED;
     stx->mutex_inited = 0;
 
@@ -209,516 +341,1728 @@ server_context_t* server_create(const int port, const int max_clients)
     _cleanup_server_context(stx);
     return NULL;
 }
-void server_shutdown(server_context_t* stx)
-{
-    if (stx == NULL)
-    {
-        return;
-    }
-    pthread_mutex_lock(&stx->state_mutex);
 
-    if (stx->server_state != SERVER_STATE_RUNNING)
-    {
-        pthread_mutex_unlock(&stx->state_mutex);
-        return;
-    }
-
-    stx->server_state = SERVER_STATE_SHUTTING_DOWN;
-    pthread_mutex_unlock(&stx->state_mutex);
+/**
+ * @brief 루프를 깨우는 데 쓸 fd를 만드는 헬퍼 함수 (내부용)
+ * @details Linux에서는 eventfd 하나로 읽기/쓰기를 모두 하고, 그 외 플랫폼에서는 논블로킹 pipe를 사용합니다.
+ * @param loop 대상 루프
+ * @return 성공 시 0, 실패 시 -1
+ */
+static int _create_wakeup_fds(server_loop_t* loop)
+{
+    atomic_init(&loop->wakeup_pending, 0);
+    atomic_init(&loop->wakeup_signals, 0);
+    atomic_init(&loop->wakeup_drains, 0);
 
-    const char shutdown_signal = 'x';
-    ssize_t bytes_written;
+#ifdef __linux__
+    const int efd = eventfd(0, EFD_NONBLOCK | EFD_CLOEXEC);
 
-    do
+    if (efd < 0)
     {
-        bytes_written = write(stx->shutdown_pipe[1], &shutdown_signal, 1);
-    } while (bytes_written == -1 && errno == EINTR);
-
-    if (bytes_written == -1)
+        return -1;
+    }
+    loop->wakeup_fds[0] = efd;
+    loop->wakeup_fds[1] = efd;
+    return 0;
+#else
+    if (pipe(loop->wakeup_fds) == -1)
     {
-        _handle_error(stx, NULL, "server_shutdown: write() to shutdown pipe failed.", errno);
+        return -1;
     }
-
-    if (stx->server_thread != 0)
+    if (set_socket_nonblocking(loop->wakeup_fds[0]) < 0 || set_socket_nonblocking(loop->wakeup_fds[1]) < 0)
     {
-        pthread_join(stx->server_thread, NULL);
+        return -1;
     }
+    return 0;
+#endif
 }
-void server_destroy(server_context_t* stx)
+
+/**
+ * @brief 깨우기 신호를 읽어 비우고 대기 표시를 해제하는 헬퍼 함수 (내부용)
+ * @details 표시를 해제한 뒤에 큐를 비우므로, 그 사이에 들어온 커맨드는 이번에 처리되거나 새 신호를 남깁니다.
+ * @param loop 대상 루프
+ */
+static void _drain_wakeup(server_loop_t* loop)
 {
-    if (stx->server_state == SERVER_STATE_STOPPED)
+#ifdef __linux__
+    uint64_t counter;
+#else
+    char counter[64];
+#endif
+
+    for (;;)
     {
-        _cleanup_server_context(stx);
+        const ssize_t bytes_read = read(loop->wakeup_fds[0], &counter, sizeof(counter));
+
+        if (bytes_read == -1 && errno == EINTR)
+        {
+            continue;
+        }
+#ifndef __linux__
+        /* pipe에는 신호가 여러 바이트 쌓여 있을 수 있으므로 빌 때까지 읽습니다. */
+        if (bytes_read > 0)
+        {
+            continue;
+        }
+#endif
+        /* eventfd는 한 번 읽으면 카운터가 0으로 초기화됩니다. */
+        break;
     }
+
+    atomic_fetch_add_explicit(&loop->wakeup_drains, 1, memory_order_relaxed);
+    atomic_exchange(&loop->wakeup_pending, 0);
 }
 
 /**
- * @brief 서버 컨텍스트에 할당된 모든 자원을 해제하고 정리합니다. (내부용)
+ * @brief 이벤트 루프 하나의 poller, 클라이언트 테이블, 커맨드 큐를 초기화하는 헬퍼 함수 (내부용)
+ * @details 루프마다 max_clients 크기의 테이블을 가지므로 연결이 한 루프에 몰려도 수용할 수 있습니다.
+ *          전체 연결 수 제한은 stx->client_count로 따로 관리됩니다.
  * @param stx 서버 컨텍스트
+ * @param loop 초기화할 루프
+ * @param index 루프 번호
+ * @param backend 사용할 I/O 백엔드
+ * @return 성공 시 0, 실패 시 -1
  */
-static void _cleanup_server_context(server_context_t* stx)
+static int _init_loop(server_context_t* stx, server_loop_t* loop, const int index, const poller_backend_t backend)
 {
-    if (stx == NULL)
-    {
-        return;
-    }
-    if (stx->pollers != NULL)
-    {
-        free(stx->pollers);
-    }
-    if (stx->clients != NULL)
-    {
-        for (int i = 0; i < stx->max_clients; ++i)
-        {
-            if (stx->clients[i].socket_fd >= 0)
-            {
-                close(stx->clients[i].socket_fd);
-                stx->clients[i].socket_fd = -1;
-            }
+    const int max_clients = stx->max_clients;
 
-            if (stx->clients[i].client_parser != NULL)
-            {
-                destroy_parser(stx->clients[i].client_parser);
-                free(stx->clients[i].client_parser);
-            }
-        }
-        free(stx->clients);
-        stx->clients = NULL;
-    }
-    if (stx->shutdown_pipe[0] >= 0)
-    {
-        close(stx->shutdown_pipe[0]);
-    }
-    if (stx->shutdown_pipe[1] >= 0)
-    {
-        close(stx->shutdown_pipe[1]);
-    }
-    if (stx->command_pipe[0] >= 0)
+    loop->index = index;
+    loop->server = stx;
+    loop->clients = (client_info_t*)calloc(max_clients, sizeof(client_info_t));
+    loop->free_slots = (int*)calloc(max_clients, sizeof(int));
+    loop->ready_events = (poller_event_t*)calloc(SERVER_MAX_READY_EVENTS, sizeof(poller_event_t));
+
+    if (loop->clients == NULL || loop->free_slots == NULL || loop->ready_events == NULL)
     {
-        close(stx->command_pipe[0]);
+        _handle_error(stx, NULL, "server_create: calloc() for client tables failed.", ENOMEM);
+        return -1;
     }
-    if (stx->command_pipe[1] >= 0)
+
+    /* 빈 슬롯 스택: 낮은 인덱스부터 사용되도록 역순으로 쌓습니다. */
+    for (int i = 0; i < max_clients; ++i)
     {
-        close(stx->command_pipe[1]);
+        loop->clients[i].socket_fd = -1;
+        loop->free_slots[i] = max_clients - 1 - i;
     }
-    if (stx->command_queue != NULL)
+    loop->free_slot_count = max_clients;
+    atomic_init(&loop->client_count, 0);
+
+    loop->poller = poller_create(backend, max_clients + 3);
+
+    if (loop->poller == NULL)
     {
-        queue_destroy(stx->command_queue, destroy_command);
+        _handle_error(stx, NULL, "server_create: poller_create() failed.", errno);
+        return -1;
     }
-    if (stx->listening_socket_fd >= 0)
+
+    /* shutdown pipe는 모든 루프가 함께 감시합니다. 어느 루프도 읽어 비우지 않으므로 모두 깨어납니다. */
+    if (poller_add(loop->poller, stx->shutdown_pipe[0], POLLER_EVENT_READ) < 0)
     {
-        close_socket(stx->listening_socket_fd);
+        _handle_error(stx, NULL, "server_create: poller_add() for shutdown pipe failed.", errno);
+        return -1;
     }
-    if (stx->mutex_inited)
+
+    if (_create_wakeup_fds(loop) < 0)
     {
-        pthread_mutex_destroy(&stx->state_mutex);
+        _handle_error(stx, NULL, "server_create: creating wakeup fd failed.", errno);
+        return -1;
     }
-    free(stx);
-}
 
-static void* _server_run(void* arg);
-int server_start(server_context_t* stx)
-{
-    if (stx == NULL)
+    if (poller_add(loop->poller, loop->wakeup_fds[0], POLLER_EVENT_READ) < 0)
     {
-        _handle_error(NULL, NULL, "server_start : context is NULL.", EINVAL);
+        _handle_error(stx, NULL, "server_create: poller_add() for wakeup fd failed.", errno);
         return -1;
     }
 
-    pthread_mutex_lock(&stx->state_mutex);
+    loop->command_queue = queue_create();
 
-    if (stx->server_state != SERVER_STATE_STOPPED)
+    if (loop->command_queue == NULL)
     {
-        _handle_error(stx, NULL, "server_start: server is already running or not in a stoppable state.", EALREADY);
-        pthread_mutex_unlock(&stx->state_mutex);
+        _handle_error(stx, NULL, "server_create: queue_create() failed.", ENOMEM);
         return -1;
     }
 
-    stx->server_state = SERVER_STATE_RUNNING;
-
-    const int thread_err = pthread_create(&stx->server_thread, NULL, _server_run, stx);
+    loop->groups = fd_group_table_create();
 
-    if (thread_err != 0)
+    if (loop->groups == NULL)
     {
-        char err_msg[BUFFER_SIZE];
-        snprintf(err_msg, sizeof(err_msg), "server_start: pthread_create() failed: %s", strerror(thread_err));
-
-        _handle_error(stx, NULL, err_msg, thread_err);
-
-        stx->server_state = SERVER_STATE_STOPPED;
-        pthread_mutex_unlock(&stx->state_mutex);
+        _handle_error(stx, NULL, "server_create: fd_group_table_create() failed.", ENOMEM);
         return -1;
     }
-    pthread_mutex_unlock(&stx->state_mutex);
     return 0;
 }
 
-static void _add_client(server_context_t* stx);
-static void _handle_client_data(server_context_t* stx, const int poller_index);
-static void _remove_client(server_context_t* stx, const int poller_index);
-static void _process_commands(server_context_t* stx);
+poller_backend_t server_get_io_backend(const server_context_t* stx)
+{
+    return stx ? poller_get_backend(stx->loops[0].poller) : POLLER_BACKEND_AUTO;
+}
 
-/**
-* @brief 서버의 메인 이벤트 루프. 별도의 쓰레드에서 호출됩니다.
-* @details server_start 함수에 의해 내부적으로 호출되는 쓰레드 함수입니다.
-*          server_start 함수 이외의 방법으로 호출하지 마십시오.
-* @param arg 서버 컨텍스트
-*/
-static void* _server_run(void* arg)
+int server_get_io_threads(const server_context_t* stx)
 {
-    server_context_t* stx = (server_context_t*)arg;
+    return stx ? stx->loop_count : 0;
+}
 
-    if (stx == NULL)
+int server_get_loop_client_count(const server_context_t* stx, const int loop_index)
+{
+    if (stx == NULL || loop_index < 0 || loop_index >= stx->loop_count)
     {
-        _handle_error(NULL, NULL, "_server_run : stx is NULL.", EINVAL);
-        return NULL;
+        return -1;
     }
+    return atomic_load(&stx->loops[loop_index].client_count);
+}
 
-    while (1)
+size_t server_get_outbound_backlog(const server_context_t* stx, const int client_fd)
+{
+    if (stx == NULL || client_fd < 0 || client_fd >= MAX_FD_LIMIT)
     {
-        const int poll_count = poll(stx->pollers, stx->max_clients + 3, -1);
-
-        if (poll_count < 0)
-        {
-            if (errno == EINTR)
-            {
-                continue;
-            }
-            _handle_error(stx, NULL, "_server_run : poll() failed.", errno);
-            break;
-        }
-
-        if (stx->pollers[1].revents & POLLIN)
-        {
-            char buf[8];
-            ssize_t bytes_read;
-            do {
-                bytes_read = read(stx->shutdown_pipe[0], buf, sizeof(buf));
-            } while (bytes_read == -1 && errno == EINTR);
-            break;
-        }
-
-        if (stx->pollers[2].revents & POLLIN)
-        {
-            char buf[8];
-            ssize_t bytes_read;
-            do {
-                bytes_read = read(stx->command_pipe[0], buf, sizeof(buf));
-            } while (bytes_read == -1 && errno == EINTR);
-            _process_commands(stx);
-        }
-
-        if (stx->pollers[0].revents & POLLIN)
-        {
-            _add_client(stx);
-        }
-
-        for (int i = 3; i < stx->max_clients + 3; ++i)
-        {
-            if (stx->pollers[i].revents)
-            {
-                _handle_client_data(stx, i);
-            }
-        }
+        return 0;
     }
-    pthread_mutex_lock(&stx->state_mutex);
-    stx->server_state = SERVER_STATE_STOPPED;
-    pthread_mutex_unlock(&stx->state_mutex);
-    return NULL;
+    return atomic_load(&stx->fd_backlog[client_fd]);
 }
 
-/**
-* @brief 새로운 클라이언트 연결을 처리하는 헬퍼 함수 (내부용)
-* @param stx 서버 컨텍스트
-*/
-static void _add_client(server_context_t* stx)
+unsigned long server_get_dropped_frame_count(const server_context_t* stx)
 {
-    struct sockaddr_in client_addr;
-    socklen_t client_len = sizeof(client_addr);
-
-    const int client_fd = accept(stx->listening_socket_fd, (struct sockaddr*)&client_addr, &client_len);
+    return stx ? atomic_load(&stx->dropped_frames) : 0;
+}
 
-    if (client_fd < 0)
+void server_get_wakeup_stats(const server_context_t* stx, server_wakeup_stats_t* out_stats)
+{
+    if (out_stats == NULL)
     {
-        _handle_error(stx, NULL, "_handle_new_connection: accept() failed", errno);
         return;
     }
+    out_stats->signals = 0;
+    out_stats->wakeups = 0;
 
-    if (client_fd >= MAX_FD_LIMIT)
+    if (stx == NULL)
     {
-        _handle_error(stx, NULL, "_handle_new_connection: too big fd", errno);
-        close_socket(client_fd);
         return;
     }
 
-    if (stx->client_count >= stx->max_clients)
+    for (int i = 0; i < stx->loop_count; ++i)
     {
-        const char* msg = "server is already filled up. please try again later.";
-        send(client_fd, msg, strlen(msg), 0);
-        close_socket(client_fd);
-        return;
+        out_stats->signals += atomic_load(&stx->loops[i].wakeup_signals);
+        out_stats->wakeups += atomic_load(&stx->loops[i].wakeup_drains);
     }
+}
 
-    int poller_index = -1;
-
-    for (int i = 3; i < stx->max_clients + 3; ++i)
+int server_get_inbound_ring_count(const server_context_t* stx)
+{
+    if (stx == NULL || stx->loop_count == 0 || stx->loops[0].inbound_ring == NULL)
     {
-        if (stx->pollers[i].fd == -1)
-        {
-            poller_index = i;
-            break;
-        }
+        return 0;
     }
+    return stx->loop_count;
+}
 
-    if (poller_index == -1)
+/**
+ * @brief 링 번호에 해당하는 수신 링을 찾는 헬퍼 함수 (내부용)
+ */
+static inbound_ring_t* _inbound_ring_at(const server_context_t* stx, const int index)
+{
+    if (index < 0 || index >= server_get_inbound_ring_count(stx))
     {
-        close_socket(client_fd);
-        return;
+        return NULL;
     }
+    return stx->loops[index].inbound_ring;
+}
 
-    stx->pollers[poller_index].fd = client_fd;
-    stx->pollers[poller_index].events = POLLIN;
+void* server_get_inbound_ring_memory(const server_context_t* stx, const int index)
+{
+    const inbound_ring_t* ring = _inbound_ring_at(stx, index);
+    return ring == NULL ? NULL : inbound_ring_memory(ring);
+}
 
-    const int client_index = poller_index - 3;
-    stx->clients[client_index].socket_fd = client_fd;
-    inet_ntop(AF_INET, &client_addr.sin_addr, stx->clients[client_index].ip_addr, sizeof(stx->clients[client_index].ip_addr));
-    stx->clients[client_index].client_parser = (stream_parser_t*)calloc(1, sizeof(stream_parser_t));
+size_t server_get_inbound_ring_memory_size(const server_context_t* stx, const int index)
+{
+    const inbound_ring_t* ring = _inbound_ring_at(stx, index);
+    return ring == NULL ? 0 : inbound_ring_memory_size(ring);
+}
 
-    if (stx->clients[client_index].client_parser == NULL)
-    {
-        _handle_error(stx, NULL, "_add_client: Failed to allocate memory for parser", ENOMEM);
-        close_socket(client_fd);
-        stx->pollers[poller_index].fd = -1;
-        return;
-    }
-    init_parser(stx->clients[client_index].client_parser);
-    ++stx->client_count;
+int server_wait_inbound(server_context_t* stx, const int index, const int timeout_ms)
+{
+    inbound_ring_t* ring = _inbound_ring_at(stx, index);
+    return ring == NULL ? -1 : inbound_ring_wait(ring, timeout_ms);
+}
 
-    stx->client_map[client_fd] = &stx->clients[client_index];
-    stx->on_connect_cb(stx->connect_user_data, &stx->clients[client_index]);
+size_t server_consume_inbound(server_context_t* stx, const int index, const inbound_ring_record_callback callback, void* user_data, const size_t max_records)
+{
+    inbound_ring_t* ring = _inbound_ring_at(stx, index);
+    return ring == NULL || callback == NULL ? 0 : inbound_ring_consume(ring, callback, user_data, max_records);
 }
 
-/**
- * @brief 기존 클라이언트로부터 온 데이터를 처리하는 헬퍼 함수 (내부용)
- * @param stx 서버 컨텍스트
- * @param poller_index 클라이언트 인덱스
- */
-static void _handle_client_data(server_context_t* stx, const int poller_index)
+void server_release_inbound_payload(void* buffer)
 {
-    client_info_t* client = &stx->clients[poller_index - 3];
-    stream_parser_t* parser = client->client_parser;
+    inbound_ring_release_external(buffer);
+}
 
-    if (stx->pollers[poller_index].revents & POLLIN)
+unsigned long server_get_inbound_overflow_count(const server_context_t* stx)
+{
+    return stx == NULL ? 0 : atomic_load(&stx->inbound_overflows);
+}
+
+void server_get_copy_stats(const server_context_t* stx, server_copy_stats_t* out_stats)
+{
+    if (out_stats == NULL)
+    {
+        return;
+    }
+    out_stats->copies = 0;
+    out_stats->bytes = 0;
+
+    if (stx == NULL)
+    {
+        return;
+    }
+
+    out_stats->copies = atomic_load(&stx->copy_count);
+    out_stats->bytes = atomic_load(&stx->copy_bytes);
+}
+
+/**
+ * @brief 송신 경로의 메모리 복사 한 번을 집계하는 헬퍼 함수 (내부용)
+ * @details 복사는 커맨드를 만드는 호출자 쓰레드에서만 일어나며, 이벤트 루프는 만들어진 프레임을 그대로 보냅니다.
+ */
+static void _count_copy(server_context_t* stx, const size_t len)
+{
+    atomic_fetch_add_explicit(&stx->copy_count, 1, memory_order_relaxed);
+    atomic_fetch_add_explicit(&stx->copy_bytes, len, memory_order_relaxed);
+}
+
+static void _join_loops(server_context_t* stx);
+
+void server_shutdown(server_context_t* stx)
+{
+    if (stx == NULL)
+    {
+        return;
+    }
+    pthread_mutex_lock(&stx->state_mutex);
+
+    if (stx->server_state != SERVER_STATE_RUNNING)
+    {
+        pthread_mutex_unlock(&stx->state_mutex);
+        return;
+    }
+
+    stx->server_state = SERVER_STATE_SHUTTING_DOWN;
+    pthread_mutex_unlock(&stx->state_mutex);
+
+    const char shutdown_signal = 'x';
+    ssize_t bytes_written;
+
+    do
+    {
+        bytes_written = write(stx->shutdown_pipe[1], &shutdown_signal, 1);
+    } while (bytes_written == -1 && errno == EINTR);
+
+    if (bytes_written == -1)
+    {
+        _handle_error(stx, NULL, "server_shutdown: write() to shutdown pipe failed.", errno);
+    }
+    _join_loops(stx);
+
+    /* 링을 기다리는 소비자 쓰레드를 깨워 끝낼 수 있게 합니다. */
+    for (int i = 0; i < stx->loop_count; ++i)
+    {
+        inbound_ring_close(stx->loops[i].inbound_ring);
+    }
+}
+
+/**
+ * @brief 실행 중인 모든 루프 쓰레드를 기다린 뒤 shutdown pipe를 비우는 헬퍼 함수 (내부용)
+ * @details 루프들은 shutdown pipe를 읽지 않으므로, 서버를 다시 시작할 수 있도록 여기서 비웁니다.
+ * @param stx 서버 컨텍스트
+ */
+static void _join_loops(server_context_t* stx)
+{
+    int joined = 0;
+
+    for (int i = 0; i < stx->loop_count; ++i)
+    {
+        if (stx->loops[i].thread_started)
+        {
+            pthread_join(stx->loops[i].thread, NULL);
+            stx->loops[i].thread_started = 0;
+            joined = 1;
+        }
+    }
+
+    if (joined)
+    {
+        char buf[8];
+        ssize_t bytes_read;
+        do {
+            bytes_read = read(stx->shutdown_pipe[0], buf, 1);
+        } while (bytes_read == -1 && errno == EINTR);
+    }
+}
+
+void server_destroy(server_context_t* stx)
+{
+    if (stx->server_state == SERVER_STATE_STOPPED)
+    {
+        _cleanup_server_context(stx);
+    }
+}
+
+/**
+ * @brief 클라이언트 송신 대기열의 모든 항목을 해제하는 헬퍼 함수 (내부용)
+ * @param client 대상 클라이언트
+ */
+static void _free_outbound(client_info_t* client)
+{
+    outbound_frame_t* frame = client->outbound_head;
+
+    while (frame != NULL)
+    {
+        outbound_frame_t* next = frame->next;
+        frame_buffer_release(frame->frame);
+        free(frame);
+        frame = next;
+    }
+    client->outbound_head = NULL;
+    client->outbound_tail = NULL;
+    client->outbound_bytes = 0;
+}
+
+/**
+ * @brief 이벤트 루프 하나에 할당된 자원을 해제하는 헬퍼 함수 (내부용)
+ * @param loop 정리할 루프
+ */
+static void _cleanup_loop(server_loop_t* loop)
+{
+    if (loop->poller != NULL)
+    {
+        poller_destroy(loop->poller);
+    }
+    free(loop->ready_events);
+    free(loop->free_slots);
+
+    if (loop->clients != NULL)
+    {
+        for (int i = 0; i < loop->server->max_clients; ++i)
+        {
+            if (loop->clients[i].socket_fd >= 0)
+            {
+                close(loop->clients[i].socket_fd);
+                loop->clients[i].socket_fd = -1;
+            }
+
+            if (loop->clients[i].client_parser != NULL)
+            {
+                destroy_parser(loop->clients[i].client_parser);
+                free(loop->clients[i].client_parser);
+            }
+            _free_outbound(&loop->clients[i]);
+        }
+        free(loop->clients);
+        loop->clients = NULL;
+    }
+    if (loop->wakeup_fds[0] >= 0)
+    {
+        close(loop->wakeup_fds[0]);
+    }
+    /* eventfd는 읽기/쓰기에 같은 fd를 쓰므로 한 번만 닫습니다. */
+    if (loop->wakeup_fds[1] >= 0 && loop->wakeup_fds[1] != loop->wakeup_fds[0])
+    {
+        close(loop->wakeup_fds[1]);
+    }
+    while (loop->overflow_head != NULL)
+    {
+        inbound_overflow_t* node = loop->overflow_head;
+        loop->overflow_head = node->next;
+
+        if (node->kind == INBOUND_RECORD_MESSAGE_EXTERNAL)
+        {
+            uint64_t address;
+            memcpy(&address, node->payload, sizeof(address));
+            free((void*)(uintptr_t)address);
+        }
+        if (node->close_fd >= 0)
+        {
+            close_socket(node->close_fd);
+        }
+        free(node);
+    }
+    while (loop->pending_close_head != NULL)
+    {
+        pending_close_t* pending = loop->pending_close_head;
+        loop->pending_close_head = pending->next;
+        close_socket(pending->fd);
+        free(pending);
+    }
+    inbound_ring_destroy(loop->inbound_ring);
+    loop->inbound_ring = NULL;
+    fd_group_table_destroy(loop->groups);
+    loop->groups = NULL;
+
+    if (loop->command_queue != NULL)
+    {
+        /* 아직 인계되지 못한 연결은 여기서 닫습니다. */
+        command_t* cmd;
+
+        while ((cmd = queue_pop(loop->command_queue)) != NULL)
+        {
+            if (cmd->type == CMD_ADOPT_CLIENT)
+            {
+                close_socket(cmd->data.adopt_cmd.client_fd);
+            }
+            destroy_command(cmd);
+        }
+        queue_destroy(loop->command_queue, destroy_command);
+    }
+}
+
+/**
+ * @brief 서버 컨텍스트에 할당된 모든 자원을 해제하고 정리합니다. (내부용)
+ * @param stx 서버 컨텍스트
+ */
+static void _cleanup_server_context(server_context_t* stx)
+{
+    if (stx == NULL)
+    {
+        return;
+    }
+    if (stx->loops != NULL)
+    {
+        for (int i = 0; i < stx->loop_count; ++i)
+        {
+            _cleanup_loop(&stx->loops[i]);
+        }
+        free(stx->loops);
+    }
+    free(stx->client_map);
+    free(stx->fd_owner);
+    free(stx->fd_backlog);
+
+    if (stx->shutdown_pipe[0] >= 0)
+    {
+        close(stx->shutdown_pipe[0]);
+    }
+    if (stx->shutdown_pipe[1] >= 0)
+    {
+        close(stx->shutdown_pipe[1]);
+    }
+    if (stx->listening_socket_fd >= 0)
+    {
+        close_socket(stx->listening_socket_fd);
+    }
+    if (stx->mutex_inited)
+    {
+        pthread_mutex_destroy(&stx->state_mutex);
+    }
+    free(stx);
+}
+
+static void* _server_run(void* arg);
+int server_start(server_context_t* stx)
+{
+    if (stx == NULL)
+    {
+        _handle_error(NULL, NULL, "server_start : context is NULL.", EINVAL);
+        return -1;
+    }
+
+    pthread_mutex_lock(&stx->state_mutex);
+
+    if (stx->server_state != SERVER_STATE_STOPPED)
+    {
+        _handle_error(stx, NULL, "server_start: server is already running or not in a stoppable state.", EALREADY);
+        pthread_mutex_unlock(&stx->state_mutex);
+        return -1;
+    }
+
+    stx->server_state = SERVER_STATE_RUNNING;
+    atomic_store(&stx->running_loops, stx->loop_count);
+
+    for (int i = 0; i < stx->loop_count; ++i)
+    {
+        inbound_ring_open(stx->loops[i].inbound_ring);
+    }
+
+    for (int i = 0; i < stx->loop_count; ++i)
+    {
+        const int thread_err = pthread_create(&stx->loops[i].thread, NULL, _server_run, &stx->loops[i]);
+
+        if (thread_err != 0)
+        {
+            char err_msg[BUFFER_SIZE];
+            snprintf(err_msg, sizeof(err_msg), "server_start: pthread_create() failed: %s", strerror(thread_err));
+
+            _handle_error(stx, NULL, err_msg, thread_err);
+
+            /* 이미 시작된 루프들을 멈추고 되돌립니다. */
+            atomic_fetch_sub(&stx->running_loops, stx->loop_count - i);
+
+            if (i > 0)
+            {
+                const char shutdown_signal = 'x';
+                ssize_t bytes_written;
+
+                do
+                {
+                    bytes_written = write(stx->shutdown_pipe[1], &shutdown_signal, 1);
+                } while (bytes_written == -1 && errno == EINTR);
+            }
+
+            pthread_mutex_unlock(&stx->state_mutex);
+            _join_loops(stx);
+
+            pthread_mutex_lock(&stx->state_mutex);
+            stx->server_state = SERVER_STATE_STOPPED;
+            pthread_mutex_unlock(&stx->state_mutex);
+            return -1;
+        }
+        stx->loops[i].thread_started = 1;
+    }
+    pthread_mutex_unlock(&stx->state_mutex);
+    return 0;
+}
+
+static void _accept_clients(server_loop_t* loop);
+static void _handle_client_data(server_loop_t* loop, client_info_t* client, const uint32_t events);
+static void _flush_outbound(server_loop_t* loop, client_info_t* client);
+static void _remove_client(server_loop_t* loop, client_info_t* client);
+static void _process_commands(server_loop_t* loop);
+static int _publish_inbound(server_loop_t* loop);
+
+/**
+* @brief 이벤트 루프 하나의 메인 함수. 루프마다 별도의 쓰레드에서 호출됩니다.
+* @details server_start 함수에 의해 내부적으로 호출되는 쓰레드 함수입니다.
+*          server_start 함수 이외의 방법으로 호출하지 마십시오.
+*          한 번의 깨어남에서 처리하는 비용은 준비된 fd 수에 비례합니다. (poll 백엔드 제외)
+* @param arg 이 쓰레드가 담당하는 server_loop_t
+*/
+static void* _server_run(void* arg)
+{
+    server_loop_t* loop = (server_loop_t*)arg;
+
+    if (loop == NULL)
+    {
+        _handle_error(NULL, NULL, "_server_run : loop is NULL.", EINVAL);
+        return NULL;
+    }
+
+    server_context_t* stx = loop->server;
+    char is_running = 1;
+
+    while (is_running)
+    {
+        /* 지난 반복에서 링에 쓴 레코드를 한 번에 알립니다. */
+        const int timeout_ms = loop->inbound_ring != NULL ? _publish_inbound(loop) : -1;
+        const int ready_count = poller_wait(loop->poller, loop->ready_events, SERVER_MAX_READY_EVENTS, timeout_ms);
+
+        if (ready_count < 0)
+        {
+            if (errno == EINTR)
+            {
+                continue;
+            }
+            _handle_error(stx, NULL, "_server_run : poller_wait() failed.", errno);
+            break;
+        }
+
+        for (int i = 0; i < ready_count; ++i)
+        {
+            const int fd = loop->ready_events[i].fd;
+            const uint32_t events = loop->ready_events[i].events;
+
+            if (fd == stx->shutdown_pipe[0])
+            {
+                is_running = 0;
+                break;
+            }
+
+            if (fd == loop->wakeup_fds[0])
+            {
+                _drain_wakeup(loop);
+                _process_commands(loop);
+                continue;
+            }
+
+            if (fd == stx->listening_socket_fd)
+            {
+                _accept_clients(loop);
+                continue;
+            }
+
+            if (fd < 0 || fd >= MAX_FD_LIMIT || stx->client_map[fd] == NULL)
+            {
+                continue;
+            }
+
+            if (events & POLLER_EVENT_WRITE)
+            {
+                _flush_outbound(loop, stx->client_map[fd]);
+            }
+
+            /* 송신 중 오류로 연결이 정리되었을 수 있으므로 다시 확인합니다. */
+            if ((events & ~POLLER_EVENT_WRITE) && stx->client_map[fd] != NULL)
+            {
+                _handle_client_data(loop, stx->client_map[fd], events);
+            }
+        }
+    }
+
+    /* 마지막으로 끝나는 루프가 서버 상태를 STOPPED로 바꿉니다. */
+    if (atomic_fetch_sub(&stx->running_loops, 1) == 1)
+    {
+        pthread_mutex_lock(&stx->state_mutex);
+        stx->server_state = SERVER_STATE_STOPPED;
+        pthread_mutex_unlock(&stx->state_mutex);
+    }
+    return NULL;
+}
+
+/**
+* @brief 루프를 깨우는 헬퍼 함수 (내부용)
+* @param loop 깨울 루프
+* @param caller 에러 메시지에 사용할 호출자 이름
+* @note 커맨드를 큐에 넣은 뒤에 불러야 합니다.
+*/
+static void _wake_loop(server_loop_t* loop, const char* caller)
+{
+    /* 이미 깨우기가 예약되어 있다면 루프가 아직 큐를 비우기 전이므로 이 커맨드도 함께 처리됩니다. */
+    if (atomic_exchange(&loop->wakeup_pending, 1))
+    {
+        return;
+    }
+    atomic_fetch_add_explicit(&loop->wakeup_signals, 1, memory_order_relaxed);
+
+#ifdef __linux__
+    const uint64_t signal = 1;
+#else
+    const char signal = 'c';
+#endif
+    ssize_t bytes_written;
+
+    do
+    {
+        bytes_written = write(loop->wakeup_fds[1], &signal, sizeof(signal));
+    } while (bytes_written == -1 && errno == EINTR);
+
+    /* EAGAIN은 이미 읽을 신호가 쌓여 있다는 뜻이므로 무시합니다. */
+    if (bytes_written == -1 && errno != EAGAIN && errno != EWOULDBLOCK)
+    {
+        char err_msg[BUFFER_SIZE];
+        snprintf(err_msg, sizeof(err_msg), "%s: write() to wakeup fd failed.", caller);
+        _handle_error(loop->server, NULL, err_msg, errno);
+    }
+}
+
+/**
+* @brief 커맨드를 루프의 큐에 넣고 루프를 깨우는 헬퍼 함수 (내부용)
+* @param loop 커맨드를 처리할 루프
+* @param cmd 큐에 넣을 커맨드
+* @param caller 에러 메시지에 사용할 호출자 이름
+*/
+static void _enqueue_command(server_loop_t* loop, command_t* cmd, const char* caller)
+{
+    queue_push(loop->command_queue, (void*)cmd);
+    _wake_loop(loop, caller);
+}
+
+/**
+* @brief 새로운 클라이언트 연결 하나를 루프에 등록하는 헬퍼 함수 (내부용)
+* @details 호출 전에 stx->client_count와 fd_owner가 이미 이 연결 몫으로 갱신되어 있어야 합니다.
+*          등록에 실패하면 둘 다 되돌리고 소켓을 닫습니다.
+* @param loop 연결을 소유할 루프
+* @param client_fd accept()로 얻은 클라이언트 소켓
+* @param ip_addr 클라이언트 IP 주소 문자열
+*/
+static void _add_client(server_loop_t* loop, const int client_fd, const char* ip_addr)
+{
+    server_context_t* stx = loop->server;
+
+    if (loop->free_slot_count == 0)
+    {
+        _handle_error(stx, NULL, "_add_client: no free client slot in event loop", EMFILE);
+        goto FAIL;
+    }
+
+    if (set_socket_nonblocking(client_fd) < 0)
+    {
+        _handle_error(stx, NULL, "_add_client: set_socket_nonblocking() failed", errno);
+        goto FAIL;
+    }
+
+    client_info_t* client = &loop->clients[loop->free_slots[loop->free_slot_count - 1]];
+    client->client_parser = (stream_parser_t*)calloc(1, sizeof(stream_parser_t));
+
+    if (client->client_parser == NULL)
+    {
+        _handle_error(stx, NULL, "_add_client: Failed to allocate memory for parser", ENOMEM);
+        goto FAIL;
+    }
+
+    if (poller_add(loop->poller, client_fd, POLLER_EVENT_READ) < 0)
+    {
+        _handle_error(stx, NULL, "_add_client: poller_add() failed", errno);
+        free(client->client_parser);
+        client->client_parser = NULL;
+        goto FAIL;
+    }
+
+    --loop->free_slot_count;
+    client->socket_fd = client_fd;
+    strncpy(client->ip_addr, ip_addr, sizeof(client->ip_addr) - 1);
+    client->ip_addr[sizeof(client->ip_addr) - 1] = '\0';
+    init_parser(client->client_parser);
+    atomic_fetch_add(&loop->client_count, 1);
+
+    stx->client_map[client_fd] = client;
+
+    if (loop->inbound_ring != NULL)
+    {
+        _emit_inbound(loop, INBOUND_RECORD_CONNECT, client_fd, 0, (const uint8_t*)client->ip_addr, strlen(client->ip_addr));
+    } else
+    {
+        stx->on_connect_cb(stx->connect_user_data, client);
+    }
+    return;
+
+    FAIL:
+    atomic_store(&stx->fd_owner[client_fd], -1);
+    atomic_fetch_sub(&stx->client_count, 1);
+    close_socket(client_fd);
+}
+
+/**
+* @brief 수락한 연결을 담당할 루프를 정하고 넘기는 헬퍼 함수 (내부용)
+* @details 루프를 돌아가며 배정합니다. 자기 자신에게 배정되면 곧바로 등록하고,
+*          다른 루프에 배정되면 CMD_ADOPT_CLIENT 커맨드로 넘깁니다.
+* @param loop 연결을 수락한 루프 (0번 루프)
+* @param client_fd accept()로 얻은 클라이언트 소켓
+* @param client_addr 클라이언트 주소
+*/
+static void _dispatch_accepted_client(server_loop_t* loop, const int client_fd, const struct sockaddr_in* client_addr)
+{
+    server_context_t* stx = loop->server;
+
+    if (client_fd >= MAX_FD_LIMIT)
+    {
+        _handle_error(stx, NULL, "_handle_new_connection: too big fd", EMFILE);
+        close_socket(client_fd);
+        return;
+    }
+
+    if (atomic_fetch_add(&stx->client_count, 1) >= stx->max_clients)
+    {
+        atomic_fetch_sub(&stx->client_count, 1);
+        const char* msg = "server is already filled up. please try again later.";
+        send(client_fd, msg, strlen(msg), MSG_NOSIGNAL);
+        close_socket(client_fd);
+        return;
+    }
+
+    char ip_addr[16] = {0};
+    inet_ntop(AF_INET, &client_addr->sin_addr, ip_addr, sizeof(ip_addr));
+
+    server_loop_t* target = &stx->loops[stx->next_loop];
+    stx->next_loop = (stx->next_loop + 1) % stx->loop_count;
+    atomic_store(&stx->fd_owner[client_fd], target->index);
+
+    if (target == loop)
+    {
+        _add_client(loop, client_fd, ip_addr);
+        return;
+    }
+
+    command_t* cmd = create_adopt_command(client_fd, ip_addr);
+
+    if (cmd == NULL)
+    {
+        _handle_error(stx, NULL, "_dispatch_accepted_client: create_adopt_command() failed.", ENOMEM);
+        atomic_store(&stx->fd_owner[client_fd], -1);
+        atomic_fetch_sub(&stx->client_count, 1);
+        close_socket(client_fd);
+        return;
+    }
+    _enqueue_command(target, cmd, "_dispatch_accepted_client");
+}
+
+/**
+* @brief 리스닝 소켓에 대기 중인 연결을 한 번에 수락하는 헬퍼 함수 (내부용)
+* @details 리스닝 소켓은 논블로킹이므로 EAGAIN이 나올 때까지 accept()를 반복합니다.
+* @param loop 리스닝 소켓을 감시하는 루프
+*/
+static void _accept_clients(server_loop_t* loop)
+{
+    server_context_t* stx = loop->server;
+
+    for (int i = 0; i < SERVER_MAX_READY_EVENTS; ++i)
+    {
+        struct sockaddr_in client_addr;
+        socklen_t client_len = sizeof(client_addr);
+
+        const int client_fd = accept(stx->listening_socket_fd, (struct sockaddr*)&client_addr, &client_len);
+
+        if (client_fd < 0)
+        {
+            if (errno == EINTR)
+            {
+                continue;
+            }
+            if (errno != EAGAIN && errno != EWOULDBLOCK)
+            {
+                _handle_error(stx, NULL, "_handle_new_connection: accept() failed", errno);
+            }
+            return;
+        }
+        _dispatch_accepted_client(loop, client_fd, &client_addr);
+    }
+}
+
+/**
+ * @brief 기존 클라이언트로부터 온 데이터를 처리하는 헬퍼 함수 (내부용)
+ * @param loop 클라이언트를 소유한 루프
+ * @param client 이벤트가 발생한 클라이언트
+ * @param events poller가 보고한 이벤트
+ */
+static void _handle_client_data(server_loop_t* loop, client_info_t* client, const uint32_t events)
+{
+    server_context_t* stx = loop->server;
+    stream_parser_t* parser = client->client_parser;
+
+    if (events & POLLER_EVENT_READ)
     {
         uint8_t buffer[BUFFER_SIZE];
-        const ssize_t bytes_received = recv(client->socket_fd, buffer, BUFFER_SIZE - 1, 0);
+        const ssize_t bytes_received = recv(client->socket_fd, buffer, BUFFER_SIZE - 1, MSG_DONTWAIT);
         message_context_t mtx =
         {
             .server_context = stx,
             .client_info = client,
+            .loop = loop,
         };
         if (bytes_received > 0)
         {
             if (parse_stream(parser, buffer, bytes_received, _on_internal_parse_complete_cb, &mtx) < 0)
             {
                 _handle_error(stx, client, "_handle_client_data : parse_stream() failed.", 0);
-                _remove_client(stx, poller_index);
+
+                /* 링 모드에서는 소비자가 CONNECT 레코드로 만든 상태를 정리할 수 있도록 알립니다. */
+                if (loop->inbound_ring != NULL)
+                {
+                    _notify_disconnect(loop, client);
+                }
+                _remove_client(loop, client);
             }
         } else if (bytes_received == 0)
         {
-            stx->on_disconnect_cb(stx->disconnect_user_data, client);
-            _remove_client(stx, poller_index);
-        } else
+            _notify_disconnect(loop, client);
+            _remove_client(loop, client);
+        } else if (errno != EAGAIN && errno != EWOULDBLOCK && errno != EINTR)
         {
             _handle_error(stx, client, "_handle_client_data: recv() failed", errno);
-            stx->on_disconnect_cb(stx->disconnect_user_data, client);
-            _remove_client(stx, poller_index);
+            _notify_disconnect(loop, client);
+            _remove_client(loop, client);
+        }
+    } else if (events & (POLLER_EVENT_ERROR | POLLER_EVENT_HANGUP))
+    {
+        _handle_error(stx, client, "_handle_client_data: socket error detected by poller", 0);
+        _notify_disconnect(loop, client);
+        _remove_client(loop, client);
+    }
+}
+/**
+ * @brief 기존 클라이언트와의 연결을 끊는 헬퍼 함수 (내부용)
+ * @details fd를 닫기 전에 소유 루프 표시를 지워, 같은 fd 번호로 새 연결이 수락되더라도 혼동되지 않게 합니다.
+ * @param loop 클라이언트를 소유한 루프
+ * @param client 연결을 끊을 클라이언트
+ */
+static void _remove_client(server_loop_t* loop, client_info_t* client)
+{
+    server_context_t* stx = loop->server;
+    const int client_fd = client->socket_fd;
+
+    if (client_fd < 0)
+    {
+        return;
+    }
+
+    if (client_fd < MAX_FD_LIMIT)
+    {
+        stx->client_map[client_fd] = NULL;
+        atomic_store(&stx->fd_owner[client_fd], -1);
+        atomic_store(&stx->fd_backlog[client_fd], 0);
+    }
+    poller_remove(loop->poller, client_fd);
+    fd_group_remove_fd(loop->groups, client_fd);
+    _free_outbound(client);
+
+    if (client->slow)
+    {
+        atomic_fetch_sub(&stx->slow_consumers, 1);
+    }
+
+    if (client->ring_paused)
+    {
+        loop->ring_paused_clients--;
+    }
+
+    if (client->client_parser != NULL)
+    {
+        destroy_parser(client->client_parser);
+        free(client->client_parser);
+        client->client_parser = NULL;
+    }
+    memset(client, 0, sizeof(client_info_t));
+    client->socket_fd = -1;
+    loop->free_slots[loop->free_slot_count++] = (int)(client - loop->clients);
+    atomic_fetch_sub(&loop->client_count, 1);
+    atomic_fetch_sub(&stx->client_count, 1);
+
+    if (loop->inbound_ring != NULL)
+    {
+        _close_after_consumed(loop, client_fd);
+    } else
+    {
+        close_socket(client_fd);
+    }
+}
+static int _is_valid_client(const server_loop_t* loop, const int client_fd);
+static void _update_interest(server_loop_t* loop, client_info_t* client, const char* caller);
+static int _send_frame_to_client(server_loop_t* loop, client_info_t* client, frame_buffer_t* frame);
+/**
+ * @brief 루프의 커맨드 큐에 쌓인 명령어를 처리합니다.
+ * @param loop 이벤트 루프
+ */
+static void _process_commands(server_loop_t* loop)
+{
+    server_context_t* stx = loop->server;
+    command_t* cmd;
+
+    while ((cmd = queue_pop(loop->command_queue)) != NULL)
+    {
+        switch (cmd->type)
+        {
+            case CMD_SEND_MESSAGE:
+            {
+                send_command_t* send_cmd = &cmd->data.send_cmd;
+
+                if (_is_valid_client(loop, send_cmd->target_client_fd))
+                {
+                    _send_frame_to_client(loop, stx->client_map[send_cmd->target_client_fd], send_cmd->frame);
+                }
+                break;
+            }
+            case CMD_BROADCAST_MESSAGE:
+            {
+                broadcast_command_t* broadcast_cmd = &cmd->data.broadcast_cmd;
+
+                for (int i = 0; i < stx->max_clients; ++i)
+                {
+                    const int client_fd = loop->clients[i].socket_fd;
+
+                    if (client_fd < 0 || client_fd == broadcast_cmd->exclude_client_fd)
+                    {
+                        continue;
+                    }
+                    if (_is_valid_client(loop, client_fd))
+                    {
+                        _send_frame_to_client(loop, &loop->clients[i], broadcast_cmd->frame);
+                    }
+                }
+                break;
+            }
+            case CMD_GROUP_BROADCAST:
+            {
+                broadcast_command_t* broadcast_cmd = &cmd->data.broadcast_cmd;
+                size_t remaining;
+                const int* members = fd_group_members(loop->groups, broadcast_cmd->group_id, &remaining);
+
+                /*
+                 * 보내다 연결이 끊기면 _remove_client가 멤버 배열에서 그 fd를 빼며 마지막 원소를 빈자리로 옮깁니다.
+                 * 뒤에서부터 돌면 옮겨지는 원소는 이미 지나온 것이므로, 끊긴 뒤에 배열만 다시 조회하면 됩니다.
+                 */
+                while (remaining > 0 && members != NULL)
+                {
+                    const int client_fd = members[--remaining];
+
+                    if (client_fd == broadcast_cmd->exclude_client_fd || !_is_valid_client(loop, client_fd))
+                    {
+                        continue;
+                    }
+
+                    const int result = _send_frame_to_client(loop, stx->client_map[client_fd], broadcast_cmd->frame);
+
+                    if (result == SERVER_SEND_FAILED || result == SERVER_SEND_DISCONNECTING)
+                    {
+                        size_t member_count;
+                        members = fd_group_members(loop->groups, broadcast_cmd->group_id, &member_count);
+                        remaining = remaining < member_count ? remaining : member_count;
+                    }
+                }
+                break;
+            }
+            case CMD_GROUP_JOIN:
+            {
+                const group_command_t* group_cmd = &cmd->data.group_cmd;
+
+                if (_is_valid_client(loop, group_cmd->client_fd) && fd_group_join(loop->groups, group_cmd->group_id, group_cmd->client_fd) < 0)
+                {
+                    _handle_error(stx, stx->client_map[group_cmd->client_fd], "_process_commands: fd_group_join() failed.", ENOMEM);
+                }
+                break;
+            }
+            case CMD_GROUP_LEAVE:
+            {
+                const group_command_t* group_cmd = &cmd->data.group_cmd;
+                fd_group_leave(loop->groups, group_cmd->group_id, group_cmd->client_fd);
+                break;
+            }
+            case CMD_ADOPT_CLIENT:
+            {
+                const adopt_command_t* adopt_cmd = &cmd->data.adopt_cmd;
+                _add_client(loop, adopt_cmd->client_fd, adopt_cmd->ip_addr);
+                break;
+            }
+            case CMD_SET_READ_PAUSED:
+            {
+                const read_pause_command_t* pause_cmd = &cmd->data.read_pause_cmd;
+
+                if (_is_valid_client(loop, pause_cmd->client_fd))
+                {
+                    client_info_t* client = stx->client_map[pause_cmd->client_fd];
+
+                    if (client->read_paused != (char)pause_cmd->paused)
+                    {
+                        client->read_paused = (char)pause_cmd->paused;
+                        _update_interest(loop, client, "_process_commands");
+                    }
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        destroy_command(cmd);
+    }
+}
+
+/**
+ * @brief 주어진 소켓 fd가 현재 이 루프가 소유한 유효한 클라이언트인지 확인하는 헬퍼 함수 (내부용)
+ */
+static int _is_valid_client(const server_loop_t* loop, const int client_fd)
+{
+    if (client_fd < 0 || client_fd >= MAX_FD_LIMIT)
+    {
+        return 0;
+    }
+
+    return atomic_load(&loop->server->fd_owner[client_fd]) == loop->index && loop->server->client_map[client_fd] != NULL;
+}
+
+/**
+ * @brief 클라이언트의 느린 수신자 상태를 갱신하는 헬퍼 함수 (내부용)
+ * @details 정책이 한 번 적용된 클라이언트는 송신 대기열이 완전히 비워질 때까지 느린 수신자로 집계됩니다.
+ */
+static void _set_slow(server_loop_t* loop, client_info_t* client, const char slow)
+{
+    if (client->slow == slow)
+    {
+        return;
+    }
+    client->slow = slow;
+
+    if (slow)
+    {
+        atomic_fetch_add(&loop->server->slow_consumers, 1);
+    } else
+    {
+        atomic_fetch_sub(&loop->server->slow_consumers, 1);
+    }
+}
+
+/**
+ * @brief 수신 레코드를 링에 쓰거나, 링이 가득 찼으면 루프 안의 대기열에 보관하는 헬퍼 함수 (내부용)
+ * @details 링에 담기지 않는 큰 메시지는 payload를 따로 복사해 EXTERNAL 레코드로 보냅니다.
+ *          대기열에 이미 레코드가 있으면 순서를 지키기 위해 링이 비어 있어도 대기열 뒤에 붙입니다.
+ * @return 링에 썼으면 0, 대기열에 보관했으면 1, 메모리 할당에 실패했으면 -1
+ */
+static int _emit_inbound(server_loop_t* loop, inbound_record_kind_t kind, const int fd, const int msg_type, const uint8_t* payload, const size_t len)
+{
+    inbound_ring_t* ring = loop->inbound_ring;
+    uint64_t address = 0;
+    size_t inline_len = len;
+
+    if (kind == INBOUND_RECORD_MESSAGE && len > inbound_ring_max_inline_payload(ring))
+    {
+        uint8_t* external = (uint8_t*)malloc(len);
+
+        if (external == NULL)
+        {
+            _handle_error(loop->server, NULL, "_emit_inbound: malloc() for external payload failed", ENOMEM);
+            return -1;
         }
-    } else if (stx->pollers[poller_index].revents & (POLLERR | POLLHUP | POLLNVAL))
+        memcpy(external, payload, len);
+        address = (uint64_t)(uintptr_t)external;
+        kind = INBOUND_RECORD_MESSAGE_EXTERNAL;
+        payload = (const uint8_t*)&address;
+        inline_len = sizeof(address);
+    }
+
+    if (loop->overflow_head == NULL && inbound_ring_try_write(ring, kind, fd, msg_type, payload, len) == 0)
+    {
+        return 0;
+    }
+
+    inbound_overflow_t* node = (inbound_overflow_t*)malloc(sizeof(inbound_overflow_t) + inline_len);
+
+    if (node == NULL)
+    {
+        _handle_error(loop->server, NULL, "_emit_inbound: malloc() for overflow record failed", ENOMEM);
+        free((void*)(uintptr_t)address);
+        return -1;
+    }
+    node->next = NULL;
+    node->kind = kind;
+    node->fd = fd;
+    node->msg_type = msg_type;
+    node->len = len;
+    node->inline_len = inline_len;
+    node->close_fd = -1;
+
+    if (inline_len > 0)
+    {
+        memcpy(node->payload, payload, inline_len);
+    }
+
+    if (loop->overflow_tail == NULL)
+    {
+        loop->overflow_head = node;
+    } else
+    {
+        loop->overflow_tail->next = node;
+    }
+    loop->overflow_tail = node;
+    atomic_fetch_add(&loop->server->inbound_overflows, 1);
+    return 1;
+}
+
+/**
+ * @brief 연결 해제를 상위 계층에 알리는 헬퍼 함수 (내부용)
+ * @details 콜백 모드에서는 연결 해제 콜백을, 링 모드에서는 DISCONNECT 레코드를 씁니다.
+ */
+static void _notify_disconnect(server_loop_t* loop, client_info_t* client)
+{
+    server_context_t* stx = loop->server;
+
+    if (loop->inbound_ring == NULL)
     {
-        _handle_error(stx, client, "_handle_client_data: socket error detected by poll()", 0);
         stx->on_disconnect_cb(stx->disconnect_user_data, client);
-        _remove_client(stx, poller_index);
+        return;
+    }
+    _emit_inbound(loop, INBOUND_RECORD_DISCONNECT, client->socket_fd, 0, NULL, 0);
+}
+
+/**
+ * @brief 링 모드에서 소비자가 지금까지 쓴 레코드를 모두 읽은 뒤에 fd를 닫도록 예약하는 헬퍼 함수 (내부용)
+ * @details fd를 바로 닫으면 같은 번호로 새 연결이 수락되어, 그 CONNECT 레코드가 이전 연결의
+ *          DISCONNECT 레코드보다 먼저(다른 루프의 링에서) 읽힐 수 있습니다.
+ */
+static void _close_after_consumed(server_loop_t* loop, const int fd)
+{
+    /* 대기열에 남은 레코드가 있으면 마지막 레코드가 링에 들어갈 때 위치를 정합니다. */
+    if (loop->overflow_tail != NULL && loop->overflow_tail->close_fd < 0)
+    {
+        loop->overflow_tail->close_fd = fd;
+        return;
+    }
+
+    const uint64_t position = inbound_ring_write_position(loop->inbound_ring);
+
+    if (loop->overflow_tail == NULL && inbound_ring_read_position(loop->inbound_ring) >= position)
+    {
+        close_socket(fd);
+        return;
+    }
+
+    pending_close_t* pending = (pending_close_t*)malloc(sizeof(pending_close_t));
+
+    if (pending == NULL)
+    {
+        _handle_error(loop->server, NULL, "_close_after_consumed: malloc() failed, closing immediately", ENOMEM);
+        close_socket(fd);
+        return;
+    }
+    pending->next = NULL;
+    pending->fd = fd;
+    /* 대기열에 이미 닫을 fd가 걸린 레코드가 있다면, 그 뒤의 위치는 알 수 없으므로 대기열이 빌 때 정합니다. */
+    pending->position = loop->overflow_tail == NULL ? position : UINT64_MAX;
+
+    if (loop->pending_close_tail == NULL)
+    {
+        loop->pending_close_head = pending;
+    } else
+    {
+        loop->pending_close_tail->next = pending;
+    }
+    loop->pending_close_tail = pending;
+}
+
+/**
+ * @brief 링 모드에서 매 반복마다 대기열을 링으로 옮기고, 소비자를 깨우고, 닫기를 미룬 fd를 정리하는 헬퍼 함수 (내부용)
+ * @return 다음 poller_wait에 쓸 timeout(ms). 할 일이 남아 있으면 SERVER_INBOUND_RETRY_MS, 없으면 -1
+ */
+static int _publish_inbound(server_loop_t* loop)
+{
+    inbound_ring_t* ring = loop->inbound_ring;
+
+    while (loop->overflow_head != NULL)
+    {
+        inbound_overflow_t* node = loop->overflow_head;
+
+        if (inbound_ring_try_write(ring, node->kind, node->fd, node->msg_type, node->payload, node->len) < 0)
+        {
+            break;
+        }
+
+        loop->overflow_head = node->next;
+
+        if (loop->overflow_head == NULL)
+        {
+            loop->overflow_tail = NULL;
+        }
+
+        if (node->close_fd >= 0)
+        {
+            _close_after_consumed(loop, node->close_fd);
+        }
+        free(node);
+    }
+
+    /* 대기열이 비었으면 위치가 정해지지 않은 닫기 예약에 지금 위치를 줍니다. */
+    if (loop->overflow_head == NULL)
+    {
+        const uint64_t position = inbound_ring_write_position(ring);
+
+        for (pending_close_t* pending = loop->pending_close_head; pending != NULL; pending = pending->next)
+        {
+            if (pending->position == UINT64_MAX)
+            {
+                pending->position = position;
+            }
+        }
+    }
+
+    inbound_ring_notify(ring);
+
+    const uint64_t consumed = inbound_ring_read_position(ring);
+
+    while (loop->pending_close_head != NULL && loop->pending_close_head->position <= consumed)
+    {
+        pending_close_t* pending = loop->pending_close_head;
+        loop->pending_close_head = pending->next;
+
+        if (loop->pending_close_head == NULL)
+        {
+            loop->pending_close_tail = NULL;
+        }
+        close_socket(pending->fd);
+        free(pending);
+    }
+
+    /* 대기열이 모두 링으로 옮겨졌으면 읽기를 멈췄던 클라이언트를 다시 읽습니다. */
+    if (loop->overflow_head == NULL && loop->ring_paused_clients > 0)
+    {
+        for (int i = 0; i < loop->server->max_clients && loop->ring_paused_clients > 0; ++i)
+        {
+            client_info_t* client = &loop->clients[i];
+
+            if (client->socket_fd >= 0 && client->ring_paused)
+            {
+                client->ring_paused = 0;
+                loop->ring_paused_clients--;
+                _update_interest(loop, client, "_publish_inbound");
+            }
+        }
+    }
+
+    if (loop->overflow_head != NULL || loop->pending_close_head != NULL)
+    {
+        return SERVER_INBOUND_RETRY_MS;
+    }
+    return -1;
+}
+
+/**
+ * @brief 클라이언트의 write_pending, read_paused 상태에 맞게 poller의 감시 이벤트를 바꾸는 헬퍼 함수 (내부용)
+ */
+static void _update_interest(server_loop_t* loop, client_info_t* client, const char* caller)
+{
+    uint32_t events = client->read_paused || client->ring_paused ? 0 : POLLER_EVENT_READ;
+
+    if (client->write_pending)
+    {
+        events |= POLLER_EVENT_WRITE;
+    }
+
+    if (poller_modify(loop->poller, client->socket_fd, events) < 0)
+    {
+        char err_msg[BUFFER_SIZE];
+        snprintf(err_msg, sizeof(err_msg), "%s: poller_modify() failed", caller);
+        _handle_error(loop->server, client, err_msg, errno);
     }
 }
+
 /**
- * @brief 기존 클라이언트와의 연결을 끊는 헬퍼 함수 (내부용)
- * @param stx 서버 컨텍스트
- * @param poller_index 클라이언트 인덱스
+ * @brief 송신 대기열 크기가 바뀐 뒤 fd별 backlog와 쓰기 이벤트 감시 여부를 맞추는 헬퍼 함수 (내부용)
  */
-static void _remove_client(server_context_t* stx, const int poller_index)
+static void _sync_outbound_state(server_loop_t* loop, client_info_t* client)
 {
-    const int client_fd = stx->pollers[poller_index].fd;
+    server_context_t* stx = loop->server;
+    const char want_write = client->outbound_head != NULL;
 
-    if (client_fd < 0)
+    atomic_store(&stx->fd_backlog[client->socket_fd], client->outbound_bytes);
+
+    if (want_write != client->write_pending)
     {
-        return;
+        client->write_pending = want_write;
+        _update_interest(loop, client, "_sync_outbound_state");
     }
 
-    if (client_fd < MAX_FD_LIMIT)
+    if (!want_write)
     {
-        stx->client_map[client_fd] = NULL;
+        _set_slow(loop, client, 0);
     }
+}
 
-    stx->pollers[poller_index].fd = -1;
-    stx->pollers[poller_index].revents = 0;
+/**
+ * @brief 송신 실패 또는 느린 수신자 정책으로 클라이언트 연결을 끊는 헬퍼 함수 (내부용)
+ */
+static void _drop_client(server_loop_t* loop, client_info_t* client, const char* reason, const int err_code)
+{
+    server_context_t* stx = loop->server;
 
-    client_info_t* client = &stx->clients[poller_index - 3];
-    if (client->client_parser != NULL)
-    {
-        destroy_parser(client->client_parser);
-        free(client->client_parser);
-        client->client_parser = NULL;
-    }
-    memset(client, 0, sizeof(client_info_t));
-    stx->client_count--;
-    close_socket(client_fd);
+    _handle_error(stx, client, reason, err_code);
+    _notify_disconnect(loop, client);
+    _remove_client(loop, client);
 }
-static int _is_valid_client(const server_context_t* stx, const int client_fd);
-static void _internal_send_frame(const int client_fd, const message_type_t msg_type, const uint8_t* payload, const size_t payload_len);
+
 /**
- * @brief 서버 컨텍스트 내부의 커맨드 큐의 명령어를 처리합니다.
- * @param stx 서버 컨텍스트
+ * @brief 송신 대기열에 쌓인 바이트를 소켓이 받아주는 만큼 쓰는 헬퍼 함수 (내부용)
+ * @details 쓰기 가능 이벤트를 받았을 때 호출됩니다. 대기열 앞쪽의 여러 프레임을 iovec으로 모아
+ *          sendmsg() 한 번에 보내며, 대기열이 비면 쓰기 이벤트 감시를 해제합니다.
+ * @param loop 클라이언트를 소유한 루프
+ * @param client 대상 클라이언트
  */
-static void _process_commands(server_context_t* stx)
+static void _flush_outbound(server_loop_t* loop, client_info_t* client)
 {
-    while (!queue_is_empty(stx->command_queue))
+    while (client->outbound_head != NULL)
     {
-        command_t* cmd = queue_pop(stx->command_queue);
+        struct iovec iov[SERVER_MAX_GATHER_FRAMES];
+        int iov_count = 0;
 
-        switch (cmd->type)
+        for (const outbound_frame_t* frame = client->outbound_head; frame != NULL && iov_count < SERVER_MAX_GATHER_FRAMES; frame = frame->next)
         {
-            case CMD_SEND_MESSAGE:
-            {
-                send_command_t* send_cmd = &cmd->data.send_cmd;
+            iov[iov_count].iov_base = frame->frame->data + frame->offset;
+            iov[iov_count].iov_len = frame->frame->len - frame->offset;
+            iov_count++;
+        }
 
-                if (_is_valid_client(stx, send_cmd->target_client_fd))
-                {
-                    _internal_send_frame(send_cmd->target_client_fd, send_cmd->msg_type, send_cmd->payload, send_cmd->payload_len);
-                }
-                break;
+        struct msghdr msg =
+        {
+            .msg_iov = iov,
+            .msg_iovlen = (size_t)iov_count,
+        };
+        const ssize_t bytes_sent = sendmsg(client->socket_fd, &msg, MSG_NOSIGNAL | MSG_DONTWAIT);
+
+        if (bytes_sent < 0)
+        {
+            if (errno == EINTR)
+            {
+                continue;
             }
-            case CMD_BROADCAST_MESSAGE:
+            if (errno == EAGAIN || errno == EWOULDBLOCK)
             {
-                broadcast_command_t* broadcast_cmd = &cmd->data.broadcast_cmd;
+                break;
+            }
+            _drop_client(loop, client, "_flush_outbound: sendmsg() failed", errno);
+            return;
+        }
 
-                for (int i = 3; i < stx->max_clients + 3; ++i)
-                {
-                    const int client_fd = stx->pollers[i].fd;
+        size_t remaining = (size_t)bytes_sent;
+        client->outbound_bytes -= remaining;
 
-                    if (client_fd < 0 || client_fd == broadcast_cmd->exclude_client_fd)
-                    {
-                        continue;
-                    }
-                    if (_is_valid_client(stx, client_fd))
-                    {
-                        _internal_send_frame(client_fd, broadcast_cmd->msg_type, broadcast_cmd->payload, broadcast_cmd->payload_len);
-                    }
-                }
+        /* 다 보낸 프레임은 대기열에서 빼고, 일부만 보낸 프레임은 offset을 전진시킵니다. */
+        while (remaining > 0)
+        {
+            outbound_frame_t* frame = client->outbound_head;
+            const size_t frame_left = frame->frame->len - frame->offset;
+
+            if (remaining < frame_left)
+            {
+                frame->offset += remaining;
                 break;
             }
-            default:
-                break;
+
+            remaining -= frame_left;
+            client->outbound_head = frame->next;
+
+            if (client->outbound_head == NULL)
+            {
+                client->outbound_tail = NULL;
+            }
+            frame_buffer_release(frame->frame);
+            free(frame);
         }
-        destroy_command(cmd);
     }
+    _sync_outbound_state(loop, client);
 }
 
 /**
- * @brief 주어진 소켓 fd가 현재 유효한 클라이언트인지 확인하는 헬퍼 함수 (내부용)
+ * @brief DROP_OLDEST 정책: 전송을 시작하지 않은 가장 오래된 항목부터 버려 new_bytes가 들어갈 자리를 만드는 헬퍼 함수 (내부용)
+ * @details 일부만 전송된 맨 앞 항목은 스트림이 깨지지 않도록 버리지 않습니다.
  */
-static int _is_valid_client(const server_context_t* stx, const int client_fd)
+static void _drop_oldest_frames(server_loop_t* loop, client_info_t* client, const size_t new_bytes)
 {
-    if (client_fd < 0 || client_fd >= MAX_FD_LIMIT)
+    server_context_t* stx = loop->server;
+    outbound_frame_t* prev = NULL;
+    outbound_frame_t* frame = client->outbound_head;
+
+    while (frame != NULL && client->outbound_bytes + new_bytes > stx->max_outbound_bytes)
     {
-        return 0;
-    }
+        outbound_frame_t* next = frame->next;
+
+        if (frame->offset > 0)
+        {
+            prev = frame;
+            frame = next;
+            continue;
+        }
+
+        if (prev == NULL)
+        {
+            client->outbound_head = next;
+        } else
+        {
+            prev->next = next;
+        }
 
-    return stx->client_map[client_fd] != NULL;
+        if (client->outbound_tail == frame)
+        {
+            client->outbound_tail = prev;
+        }
+        client->outbound_bytes -= frame->frame->len;
+        frame_buffer_release(frame->frame);
+        free(frame);
+        atomic_fetch_add(&stx->dropped_frames, 1);
+        frame = next;
+    }
 }
 
 /**
- * @brief 메시지를 프레임으로 만들어 소켓으로 전송하는 저수준 헬퍼 함수 (내부용)
- * @param client_fd
- * @param msg_type 
- * @param payload 
- * @param payload_len 
+ * @brief 프레임을 논블로킹으로 보내고, 다 보내지 못하면 송신 대기열에 넣는 헬퍼 함수 (내부용)
+ * @details 대기열이 비어 있으면 먼저 소켓에 바로 씁니다. 대기열은 프레임을 복사하지 않고 참조만 보관합니다.
+ *          비어 있지 않은 대기열에 추가했을 때 max_outbound_bytes를 넘게 되면 slow_consumer_policy를 적용합니다.
+ * @param loop 클라이언트를 소유한 루프
+ * @param client 대상 클라이언트
+ * @param frame 보낼 프레임. 브로드캐스트라면 여러 클라이언트가 같은 프레임을 공유합니다.
+ * @return server_send_result_t 값
  */
-static void _internal_send_frame(const int client_fd, const message_type_t msg_type, const uint8_t* payload, const size_t payload_len)
+static int _send_frame_to_client(server_loop_t* loop, client_info_t* client, frame_buffer_t* frame)
 {
-    if (client_fd < 0 || payload == NULL)
+    server_context_t* stx = loop->server;
+    size_t sent_len = 0;
+
+    if (client->outbound_head == NULL)
     {
-        _handle_error(NULL, NULL, "server_send_payload_to_client: invalid arguments provided.", EINVAL);
-        return;
-    }
+        while (sent_len < frame->len)
+        {
+            const ssize_t bytes_sent = send(client->socket_fd, frame->data + sent_len, frame->len - sent_len, MSG_NOSIGNAL | MSG_DONTWAIT);
 
-    uint8_t frame_buffer[BUFFER_SIZE];
-    const int frame_len = frame_message(msg_type, payload, payload_len, frame_buffer, sizeof(frame_buffer));
+            if (bytes_sent < 0)
+            {
+                if (errno == EINTR)
+                {
+                    continue;
+                }
+                if (errno == EAGAIN || errno == EWOULDBLOCK)
+                {
+                    break;
+                }
+                _drop_client(loop, client, "_send_frame_to_client: send() failed", errno);
+                return SERVER_SEND_FAILED;
+            }
+            sent_len += (size_t)bytes_sent;
+        }
 
-    if (frame_len < 0)
-    {
-        _handle_error(NULL, NULL, "server_send_payload_to_client: frame_message() failed.", 0);
-        return;
+        if (sent_len == frame->len)
+        {
+            return SERVER_SEND_OK;
+        }
     }
 
-    size_t sent_len = 0;
+    const size_t remaining = frame->len - sent_len;
+    int result = SERVER_SEND_OK;
 
-    while (sent_len < frame_len)
+    if (client->outbound_head != NULL && client->outbound_bytes + remaining > stx->max_outbound_bytes)
     {
-        const ssize_t bytes_sent = send(client_fd, frame_buffer + sent_len, frame_len - sent_len, MSG_NOSIGNAL);
+        _set_slow(loop, client, 1);
 
-        if (bytes_sent < 0)
+        switch (stx->slow_consumer_policy)
         {
-            _handle_error(NULL, NULL, "server_send_payload_to_client: send() failed", errno);
-            return;
+            case SLOW_CONSUMER_DROP_NEW:
+                atomic_fetch_add(&stx->dropped_frames, 1);
+                return SERVER_SEND_DROPPED;
+            case SLOW_CONSUMER_DROP_OLDEST:
+                _drop_oldest_frames(loop, client, remaining);
+                result = SERVER_SEND_DROPPED_OLDEST;
+                break;
+            case SLOW_CONSUMER_DISCONNECT:
+            default:
+                _drop_client(loop, client, "slow consumer: outbound queue limit exceeded", ENOBUFS);
+                return SERVER_SEND_DISCONNECTING;
         }
+    }
+
+    /* 일부만 전송된 프레임도 통째로 참조하고 offset으로 진행 상황을 표시해, DROP_OLDEST가 이를 버리지 않게 합니다. */
+    outbound_frame_t* node = (outbound_frame_t*)malloc(sizeof(outbound_frame_t));
+
+    if (node == NULL)
+    {
+        _drop_client(loop, client, "_send_frame_to_client: malloc() for outbound frame failed", ENOMEM);
+        return SERVER_SEND_FAILED;
+    }
+
+    node->next = NULL;
+    node->frame = frame_buffer_retain(frame);
+    node->offset = sent_len;
+
+    if (client->outbound_tail == NULL)
+    {
+        client->outbound_head = node;
+    } else
+    {
+        client->outbound_tail->next = node;
+    }
+    client->outbound_tail = node;
+    client->outbound_bytes += remaining;
+
+    _sync_outbound_state(loop, client);
+    return result;
+}
+
+/**
+ * @brief 클라이언트 fd를 소유한 루프를 찾는 헬퍼 함수 (내부용)
+ * @details 소유 루프를 알 수 없는 fd는 0번 루프로 보내며, 그곳에서 유효하지 않은 대상으로 버려집니다.
+ */
+static server_loop_t* _loop_for_fd(server_context_t* stx, const int client_fd)
+{
+    if (client_fd >= 0 && client_fd < MAX_FD_LIMIT)
+    {
+        const int owner = atomic_load(&stx->fd_owner[client_fd]);
 
-        if (bytes_sent == 0)
+        if (owner >= 0 && owner < stx->loop_count)
         {
-            _handle_error(NULL, NULL, "server_send_payload_to_client: send() returned 0, connection may be closed.", 0);
-            return;
+            return &stx->loops[owner];
         }
+    }
+    return &stx->loops[0];
+}
+
+/**
+ * @brief 호출한 쓰레드에서 대상의 송신 대기열을 보고 느린 수신자 정책의 결과를 미리 판단하는 헬퍼 함수 (내부용)
+ * @details 대기열이 비어 있는 클라이언트에게는 항상 OK입니다. 실제 정책은 루프 쓰레드에서 다시 적용됩니다.
+ */
+static int _predict_send_result(server_context_t* stx, const int client_fd, const size_t frame_len)
+{
+    if (client_fd >= MAX_FD_LIMIT)
+    {
+        return SERVER_SEND_OK;
+    }
 
-        sent_len += bytes_sent;
+    const size_t backlog = atomic_load(&stx->fd_backlog[client_fd]);
+
+    if (backlog == 0 || backlog + frame_len <= stx->max_outbound_bytes)
+    {
+        return SERVER_SEND_OK;
     }
 
-    if (sent_len < frame_len)
+    switch (stx->slow_consumer_policy)
     {
-        _handle_error(NULL, NULL, "client_send_chat_message: failed to send the entire payload.", 0);
+        case SLOW_CONSUMER_DROP_NEW:
+            return SERVER_SEND_DROPPED;
+        case SLOW_CONSUMER_DROP_OLDEST:
+            return SERVER_SEND_DROPPED_OLDEST;
+        case SLOW_CONSUMER_DISCONNECT:
+        default:
+            return SERVER_SEND_DISCONNECTING;
     }
 }
 
 int server_send_payload_to_client(server_context_t* stx, const int client_fd, const message_type_t msg_type, const uint8_t* payload, const size_t payload_len)
 {
-    if (stx == NULL || client_fd < 0 || payload == NULL)
+    if (stx == NULL || client_fd < 0 || (payload == NULL && payload_len > 0))
     {
         _handle_error(stx, NULL, "server_send_payload_to_client: invalid arguments provided.", EINVAL);
-        return -1;
+        return SERVER_SEND_FAILED;
+    }
+
+    const int result = _predict_send_result(stx, client_fd, HEADER_SIZE + payload_len);
+
+    if (result == SERVER_SEND_DROPPED)
+    {
+        atomic_fetch_add(&stx->dropped_frames, 1);
+        return result;
     }
 
-    const command_t* cmd = create_send_command(client_fd, msg_type, payload, payload_len);
+    command_t* cmd = create_send_command(client_fd, msg_type, payload, payload_len);
 
     if (cmd == NULL)
     {
         _handle_error(stx, NULL, "server_send_payload_to_client: create_send_command() failed.", errno);
-        return -1;
+        return SERVER_SEND_FAILED;
     }
+    _count_copy(stx, cmd->data.send_cmd.frame->len);
 
-    queue_push(stx->command_queue, (void*)cmd);
+    _enqueue_command(_loop_for_fd(stx, client_fd), cmd, "server_send_payload_to_client");
+    return result;
+}
 
-    const char signal = 'c';
-    ssize_t bytes_written;
+/**
+ * @brief 프레임을 공유하는 브로드캐스트 커맨드를 만드는 헬퍼 함수 (내부용)
+ * @param group_id 0 이상이면 그 그룹의 멤버에게만, 음수면 모두에게 보냄
+ */
+static command_t* _create_fan_out_command(frame_buffer_t* frame, const int group_id, const int exclude_fd)
+{
+    return group_id >= 0 ? create_frame_group_broadcast_command(frame, group_id, exclude_fd) : create_frame_broadcast_command(frame, exclude_fd);
+}
 
-    do
+/**
+ * @brief server_broadcast_message()와 server_group_broadcast()의 공통 구현 (내부용)
+ */
+static int _fan_out(server_context_t* stx, const int group_id, const message_type_t msg_type, const uint8_t* payload, const size_t payload_len, const int exclude_fd)
+{
+    /* 프레임은 여기서 한 번만 만들고, 모든 루프와 수신자가 참조로 공유합니다. */
+    frame_buffer_t* frame = frame_buffer_create(msg_type, payload, payload_len);
+
+    if (frame == NULL)
     {
-        bytes_written = write(stx->command_pipe[1], &signal, 1);
-    } while (bytes_written == -1 && errno == EINTR);
+        _handle_error(stx, NULL, "server_broadcast_payload : frame_buffer_create() failed.", errno);
+        return SERVER_SEND_FAILED;
+    }
+    _count_copy(stx, frame->len);
 
-    if (bytes_written == -1)
+    /* 각 루프는 자신이 소유한 클라이언트에게만 보내므로 루프마다 커맨드를 하나씩 넣습니다. */
+    for (int i = 0; i < stx->loop_count; ++i)
     {
-        _handle_error(stx, NULL, "server_send_payload_to_client: write() to command pipe failed.", errno);
+        command_t* cmd = _create_fan_out_command(frame, group_id, exclude_fd);
+
+        if (cmd == NULL)
+        {
+            _handle_error(stx, NULL, "server_broadcast_payload : create_frame_broadcast_command() failed.", errno);
+            frame_buffer_release(frame);
+            return SERVER_SEND_FAILED;
+        }
+        cmd->data.broadcast_cmd.msg_type = msg_type;
+        _enqueue_command(&stx->loops[i], cmd, "server_broadcast_payload");
     }
-    return 0;
+    frame_buffer_release(frame);
+    return atomic_load(&stx->slow_consumers) > 0 ? SERVER_SEND_PARTIAL : SERVER_SEND_OK;
 }
 
 int server_broadcast_message(server_context_t* stx, const message_type_t msg_type, const uint8_t* payload, const size_t payload_len, const int exclude_fd)
@@ -726,34 +2070,216 @@ int server_broadcast_message(server_context_t* stx, const message_type_t msg_typ
     if (stx == NULL || payload == NULL)
     {
         _handle_error(stx, NULL, "server_broadcast_payload: invalid arguments provided.", EINVAL);
+        return SERVER_SEND_FAILED;
+    }
+    return _fan_out(stx, -1, msg_type, payload, payload_len, exclude_fd);
+}
+
+int server_group_broadcast(server_context_t* stx, const int group_id, const message_type_t msg_type, const uint8_t* payload, const size_t payload_len, const int exclude_fd)
+{
+    if (stx == NULL || group_id < 0 || (payload == NULL && payload_len > 0))
+    {
+        _handle_error(stx, NULL, "server_group_broadcast: invalid arguments provided.", EINVAL);
+        return SERVER_SEND_FAILED;
+    }
+    return _fan_out(stx, group_id, msg_type, payload, payload_len, exclude_fd);
+}
+
+/**
+ * @brief server_group_join()과 server_group_leave()의 공통 구현 (내부용)
+ */
+static int _submit_group_command(server_context_t* stx, const command_type_t type, const int group_id, const int client_fd, const char* caller)
+{
+    if (stx == NULL || group_id < 0 || client_fd < 0 || client_fd >= MAX_FD_LIMIT)
+    {
+        _handle_error(stx, NULL, "server_group_join/leave: invalid arguments provided.", EINVAL);
         return -1;
     }
 
-    const command_t* cmd = create_broadcast_command(msg_type, payload, payload_len, exclude_fd);
+    /* 그룹 테이블은 소유 루프만 건드리므로, 같은 루프로 가는 송신/브로드캐스트와 순서가 맞춰집니다. */
+    command_t* cmd = create_group_command(type, group_id, client_fd);
 
     if (cmd == NULL)
     {
-        _handle_error(stx, NULL, "server_broadcast_payload : create_broadcast_command() failed.", errno);
+        _handle_error(stx, NULL, "server_group_join/leave: create_group_command() failed.", errno);
         return -1;
     }
+    _enqueue_command(_loop_for_fd(stx, client_fd), cmd, caller);
+    return 0;
+}
 
-    queue_push(stx->command_queue, (void*)cmd);
+int server_group_join(server_context_t* stx, const int group_id, const int client_fd)
+{
+    return _submit_group_command(stx, CMD_GROUP_JOIN, group_id, client_fd, "server_group_join");
+}
 
-    const char signal = 'c';
-    ssize_t bytes_written;
+int server_group_leave(server_context_t* stx, const int group_id, const int client_fd)
+{
+    return _submit_group_command(stx, CMD_GROUP_LEAVE, group_id, client_fd, "server_group_leave");
+}
 
-    do
+int server_set_client_read_paused(server_context_t* stx, const int client_fd, const int paused)
+{
+    if (stx == NULL || client_fd < 0 || client_fd >= MAX_FD_LIMIT)
     {
-        bytes_written = write(stx->command_pipe[1], &signal, 1);
-    } while (bytes_written == -1 && errno == EINTR);
+        _handle_error(stx, NULL, "server_set_client_read_paused: invalid arguments provided.", EINVAL);
+        return -1;
+    }
 
-    if (bytes_written == -1)
+    /* poller는 소유 루프만 건드릴 수 있으므로 호출한 쓰레드와 관계없이 커맨드로 넘깁니다. */
+    command_t* cmd = create_read_pause_command(client_fd, paused);
+
+    if (cmd == NULL)
     {
-        _handle_error(stx, NULL, "server_broadcast_payload: write() to command pipe failed.", errno);
+        _handle_error(stx, NULL, "server_set_client_read_paused: create_read_pause_command() failed.", errno);
+        return -1;
     }
+    _enqueue_command(_loop_for_fd(stx, client_fd), cmd, "server_set_client_read_paused");
     return 0;
 }
 
+/**
+ * @brief 배치 버퍼의 형식을 검사하고 항목 수를 셉니다. (내부용)
+ * @return 항목 수, 형식이 잘못되었으면 -1
+ */
+static int _count_batch_entries(const uint8_t* batch, const size_t batch_len)
+{
+    size_t offset = 0;
+    int count = 0;
+
+    while (offset < batch_len)
+    {
+        server_batch_entry_header_t header;
+
+        if (batch_len - offset < SERVER_BATCH_ENTRY_HEADER_SIZE || count == INT_MAX)
+        {
+            return -1;
+        }
+        memcpy(&header, batch + offset, SERVER_BATCH_ENTRY_HEADER_SIZE);
+        offset += SERVER_BATCH_ENTRY_HEADER_SIZE;
+
+        if ((header.kind != SERVER_BATCH_SEND && header.kind != SERVER_BATCH_BROADCAST && header.kind != SERVER_BATCH_GROUP) ||
+            (header.kind == SERVER_BATCH_SEND && header.fd < 0) ||
+            (header.kind == SERVER_BATCH_GROUP && header.group_id < 0) ||
+            batch_len - offset < header.payload_len)
+        {
+            return -1;
+        }
+        offset += header.payload_len;
+        ++count;
+    }
+    return count;
+}
+
+int server_submit_batch(server_context_t* stx, const uint8_t* batch, const size_t batch_len, int8_t* results, const size_t max_results)
+{
+    if (stx == NULL || (batch == NULL && batch_len > 0))
+    {
+        _handle_error(stx, NULL, "server_submit_batch: invalid arguments provided.", EINVAL);
+        return SERVER_SEND_FAILED;
+    }
+
+    const int count = _count_batch_entries(batch, batch_len);
+
+    if (count < 0)
+    {
+        _handle_error(stx, NULL, "server_submit_batch: malformed batch.", EINVAL);
+        return SERVER_SEND_FAILED;
+    }
+
+    /* 커맨드를 모두 넣은 뒤 루프마다 한 번만 깨웁니다. */
+    char touched[SERVER_MAX_IO_THREADS] = {0};
+    size_t offset = 0;
+
+    for (int i = 0; i < count; ++i)
+    {
+        server_batch_entry_header_t header;
+        memcpy(&header, batch + offset, SERVER_BATCH_ENTRY_HEADER_SIZE);
+        offset += SERVER_BATCH_ENTRY_HEADER_SIZE;
+
+        const uint8_t* payload = batch + offset;
+        const message_type_t msg_type = (message_type_t)header.msg_type;
+        int result;
+        offset += header.payload_len;
+
+        if (header.kind == SERVER_BATCH_SEND)
+        {
+            result = _predict_send_result(stx, header.fd, HEADER_SIZE + header.payload_len);
+
+            if (result == SERVER_SEND_DROPPED)
+            {
+                atomic_fetch_add(&stx->dropped_frames, 1);
+            }
+            else
+            {
+                command_t* cmd = create_send_command(header.fd, msg_type, payload, header.payload_len);
+
+                if (cmd == NULL)
+                {
+                    _handle_error(stx, NULL, "server_submit_batch: create_send_command() failed.", errno);
+                    result = SERVER_SEND_FAILED;
+                }
+                else
+                {
+                    server_loop_t* loop = _loop_for_fd(stx, header.fd);
+                    _count_copy(stx, cmd->data.send_cmd.frame->len);
+                    queue_push(loop->command_queue, cmd);
+                    touched[loop->index] = 1;
+                }
+            }
+        }
+        else
+        {
+            frame_buffer_t* frame = frame_buffer_create(msg_type, payload, header.payload_len);
+            result = frame == NULL ? SERVER_SEND_FAILED : SERVER_SEND_OK;
+
+            if (frame == NULL)
+            {
+                _handle_error(stx, NULL, "server_submit_batch: frame_buffer_create() failed.", errno);
+            }
+            else
+            {
+                _count_copy(stx, frame->len);
+
+                for (int l = 0; l < stx->loop_count; ++l)
+                {
+                    command_t* cmd = _create_fan_out_command(frame, header.kind == SERVER_BATCH_GROUP ? header.group_id : -1, header.fd);
+
+                    if (cmd == NULL)
+                    {
+                        _handle_error(stx, NULL, "server_submit_batch: create_frame_broadcast_command() failed.", errno);
+                        result = SERVER_SEND_FAILED;
+                        break;
+                    }
+                    cmd->data.broadcast_cmd.msg_type = msg_type;
+                    queue_push(stx->loops[l].command_queue, cmd);
+                    touched[l] = 1;
+                }
+                frame_buffer_release(frame);
+
+                if (result == SERVER_SEND_OK && atomic_load(&stx->slow_consumers) > 0)
+                {
+                    result = SERVER_SEND_PARTIAL;
+                }
+            }
+        }
+
+        if (results != NULL && (size_t)i < max_results)
+        {
+            results[i] = (int8_t)result;
+        }
+    }
+
+    for (int l = 0; l < stx->loop_count; ++l)
+    {
+        if (touched[l])
+        {
+            _wake_loop(&stx->loops[l], "server_submit_batch");
+        }
+    }
+    return count;
+}
+
 /**
  * @brief on_connect_cb의 기본값 (내부용)
  * @param user_data 식별자
@@ -879,5 +2405,22 @@ static void _on_internal_parse_complete_cb(void* user_data, const message_type_t
         return;
     }
 
-    stx->on_complete_message_cb(stx->completed_message_user_data, client, msg_type, payload, len);
+    if (mtx->loop->inbound_ring == NULL)
+    {
+        stx->on_complete_message_cb(stx->completed_message_user_data, client, msg_type, payload, len);
+        return;
+    }
+
+    /* 링이 가득 차면 이 클라이언트의 읽기를 멈춰, 루프 안의 대기열이 한없이 커지지 않게 합니다. */
+    if (_emit_inbound(mtx->loop, INBOUND_RECORD_MESSAGE, client->socket_fd, msg_type, payload, len) > 0)
+    {
+        client_info_t* paused = stx->client_map[client->socket_fd];
+
+        if (paused != NULL && !paused->ring_paused)
+        {
+            paused->ring_paused = 1;
+            mtx->loop->ring_paused_clients++;
+            _update_interest(mtx->loop, paused, "_on_internal_parse_complete_cb");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+//
+// Created by jhan_macbook on 25. 7. 20.
+//
+
+#ifndef EVENT_POLLER_H
+#define EVENT_POLLER_H
+
+#ifdef __cplusplus
+extern "C" {
+ #endif
+ #include <stdint.h>
+
+ /**
+ * @brief I/O 이벤트 감시에 사용할 운영체제 백엔드
+ * @note POLLER_BACKEND_AUTO는 현재 플랫폼에서 가장 효율적인 백엔드를 선택합니다.
+ *       (Linux: epoll, 그 외: poll)
+ */
+ typedef enum
+ {
+  POLLER_BACKEND_AUTO = 0,
+  POLLER_BACKEND_POLL = 1,
+  POLLER_BACKEND_EPOLL = 2,
+ } poller_backend_t;
+
+ #define POLLER_EVENT_READ   0x01u
+ #define POLLER_EVENT_WRITE  0x02u
+ #define POLLER_EVENT_ERROR  0x04u
+ #define POLLER_EVENT_HANGUP 0x08u
+
+ typedef struct
+ {
+  int fd;
+  uint32_t events;
+ } poller_event_t;
+
+ typedef struct event_poller_t event_poller_t;
+
+ /**
+ * @brief 해당 백엔드를 현재 플랫폼에서 사용할 수 있는지 확인합니다.
+ * @param backend 확인할 백엔드
+ * @return 사용 가능하면 1, 그렇지 않으면 0
+ */
+ int poller_backend_available(poller_backend_t backend);
+
+ /**
+ * @brief 이벤트 poller를 생성합니다.
+ * @param backend 사용할 백엔드. 사용할 수 없는 백엔드이면 실패합니다.
+ * @param capacity 예상되는 감시 대상 fd 수 (내부 버퍼 크기 힌트)
+ * @return 성공 시 poller 포인터, 실패 시 NULL. errno가 설정됩니다.
+ */
+ event_poller_t* poller_create(poller_backend_t backend, int capacity);
+
+ /**
+ * @brief poller와 내부 자원을 해제합니다. 등록된 fd는 닫지 않습니다.
+ * @param poller 해제할 poller
+ */
+ void poller_destroy(event_poller_t* poller);
+
+ /**
+ * @brief poller가 실제로 사용 중인 백엔드를 반환합니다. (AUTO가 해석된 결과)
+ * @param poller 대상 poller
+ */
+ poller_backend_t poller_get_backend(const event_poller_t* poller);
+
+ /**
+ * @brief fd를 감시 대상으로 등록합니다.
+ * @param poller 대상 poller
+ * @param fd 등록할 파일 디스크립터
+ * @param events 감시할 이벤트 (POLLER_EVENT_READ | POLLER_EVENT_WRITE)
+ * @return 성공 시 0, 실패 시 -1. errno가 설정됩니다.
+ */
+ int poller_add(event_poller_t* poller, const int fd, const uint32_t events);
+
+ /**
+ * @brief 등록된 fd의 감시 이벤트를 변경합니다.
+ * @return 성공 시 0, 실패 시 -1. errno가 설정됩니다.
+ */
+ int poller_modify(event_poller_t* poller, const int fd, const uint32_t events);
+
+ /**
+ * @brief fd를 감시 대상에서 제거합니다. fd를 닫기 전에 호출해야 합니다.
+ * @return 성공 시 0, 실패 시 -1. errno가 설정됩니다.
+ */
+ int poller_remove(event_poller_t* poller, const int fd);
+
+ /**
+ * @brief 준비된 이벤트를 기다립니다.
+ * @details epoll 백엔드는 준비된 fd 수에 비례하는 비용만 들며,
+ *          poll 백엔드는 등록된 fd 수에 비례하는 비용이 듭니다.
+ * @param poller 대상 poller
+ * @param events 준비된 이벤트가 저장될 배열
+ * @param max_events events 배열의 길이
+ * @param timeout_ms 대기 시간(ms). -1이면 무한 대기
+ * @return 준비된 이벤트 수, 실패 시 -1. errno가 설정됩니다.
+ */
+ int poller_wait(event_poller_t* poller, poller_event_t* events, const int max_events, const int timeout_ms);
+
+ #ifdef __cplusplus
+ }
+#endif
+
+#endif //EVENT_POLLER_H
@@ -22,6 +22,13 @@ extern "C" {
   */
  int set_socket_reusable(const int sockfd);
 
+ /**
+  * @brief 소켓을 논블로킹(O_NONBLOCK) 모드로 전환합니다.
+  * @param sockfd 옵션을 설정할 소켓의 파일 디스크립터
+  * @return 성공 시 0, 실패 시 -1. errno가 설정됩니다.
+  */
+ int set_socket_nonblocking(const int sockfd);
+
  /**
  * @brief 사용이 끝난 소켓을 안전하게 닫습니다.
  * @param sockfd 닫을 소켓의 파일 디스크립터
@@ -0,0 +1,434 @@
+//
+// Created by jhan_macbook on 25. 7. 20.
+//
+#include "event_poller.h"
+#include <errno.h>
+#include <poll.h>
+#include <stdlib.h>
+#include <string.h>
+#include <unistd.h>
+#ifdef __linux__
+#include <sys/epoll.h>
+#endif
+
+struct event_poller_t
+{
+    poller_backend_t backend;
+
+    /* poll 백엔드: 등록된 fd를 빈틈없이 유지하는 배열과 fd -> 배열 인덱스 역참조 테이블 */
+    struct pollfd* pollfds;
+    int pollfd_count;
+    int pollfd_capacity;
+    int* fd_index;
+    int fd_index_size;
+    int scan_offset;
+
+    /* epoll 백엔드 */
+    int epoll_fd;
+    void* epoll_events;
+    int epoll_events_capacity;
+};
+
+int poller_backend_available(const poller_backend_t backend)
+{
+    switch (backend)
+    {
+        case POLLER_BACKEND_AUTO:
+        case POLLER_BACKEND_POLL:
+            return 1;
+        case POLLER_BACKEND_EPOLL:
+#ifdef __linux__
+            return 1;
+#else
+            return 0;
+#endif
+        default:
+            return 0;
+    }
+}
+
+/**
+ * @brief AUTO 백엔드를 현재 플랫폼의 실제 백엔드로 해석하는 헬퍼 함수 (내부용)
+ */
+static poller_backend_t _resolve_backend(const poller_backend_t backend)
+{
+    if (backend != POLLER_BACKEND_AUTO)
+    {
+        return backend;
+    }
+#ifdef __linux__
+    return POLLER_BACKEND_EPOLL;
+#else
+    return POLLER_BACKEND_POLL;
+#endif
+}
+
+event_poller_t* poller_create(const poller_backend_t backend, const int capacity)
+{
+    if (!poller_backend_available(backend) || capacity <= 0)
+    {
+        errno = EINVAL;
+        return NULL;
+    }
+
+    event_poller_t* poller = (event_poller_t*)calloc(1, sizeof(event_poller_t));
+
+    if (poller == NULL)
+    {
+        return NULL;
+    }
+
+    poller->backend = _resolve_backend(backend);
+    poller->epoll_fd = -1;
+
+    if (poller->backend == POLLER_BACKEND_POLL)
+    {
+        poller->pollfds = (struct pollfd*)calloc(capacity, sizeof(struct pollfd));
+
+        if (poller->pollfds == NULL)
+        {
+            free(poller);
+            return NULL;
+        }
+        poller->pollfd_capacity = capacity;
+        return poller;
+    }
+
+#ifdef __linux__
+    poller->epoll_fd = epoll_create1(EPOLL_CLOEXEC);
+
+    if (poller->epoll_fd < 0)
+    {
+        free(poller);
+        return NULL;
+    }
+
+    poller->epoll_events = calloc(capacity, sizeof(struct epoll_event));
+
+    if (poller->epoll_events == NULL)
+    {
+        close(poller->epoll_fd);
+        free(poller);
+        return NULL;
+    }
+    poller->epoll_events_capacity = capacity;
+#endif
+    return poller;
+}
+
+void poller_destroy(event_poller_t* poller)
+{
+    if (poller == NULL)
+    {
+        return;
+    }
+    free(poller->pollfds);
+    free(poller->fd_index);
+    free(poller->epoll_events);
+
+    if (poller->epoll_fd >= 0)
+    {
+        close(poller->epoll_fd);
+    }
+    free(poller);
+}
+
+poller_backend_t poller_get_backend(const event_poller_t* poller)
+{
+    return poller ? poller->backend : POLLER_BACKEND_AUTO;
+}
+
+static short _to_poll_events(const uint32_t events)
+{
+    short result = 0;
+
+    if (events & POLLER_EVENT_READ)
+    {
+        result |= POLLIN;
+    }
+    if (events & POLLER_EVENT_WRITE)
+    {
+        result |= POLLOUT;
+    }
+    return result;
+}
+
+static uint32_t _from_poll_revents(const short revents)
+{
+    uint32_t result = 0;
+
+    if (revents & POLLIN)
+    {
+        result |= POLLER_EVENT_READ;
+    }
+    if (revents & POLLOUT)
+    {
+        result |= POLLER_EVENT_WRITE;
+    }
+    if (revents & (POLLERR | POLLNVAL))
+    {
+        result |= POLLER_EVENT_ERROR;
+    }
+    if (revents & POLLHUP)
+    {
+        result |= POLLER_EVENT_HANGUP;
+    }
+    return result;
+}
+
+/**
+ * @brief fd -> pollfd 인덱스 테이블이 fd를 담을 수 있도록 확장하는 헬퍼 함수 (내부용)
+ */
+static int _ensure_fd_index(event_poller_t* poller, const int fd)
+{
+    if (fd < poller->fd_index_size)
+    {
+        return 0;
+    }
+
+    int new_size = poller->fd_index_size > 0 ? poller->fd_index_size : 64;
+
+    while (new_size <= fd)
+    {
+        new_size *= 2;
+    }
+
+    int* new_index = (int*)realloc(poller->fd_index, new_size * sizeof(int));
+
+    if (new_index == NULL)
+    {
+        return -1;
+    }
+
+    for (int i = poller->fd_index_size; i < new_size; ++i)
+    {
+        new_index[i] = -1;
+    }
+    poller->fd_index = new_index;
+    poller->fd_index_size = new_size;
+    return 0;
+}
+
+static int _poll_add(event_poller_t* poller, const int fd, const uint32_t events)
+{
+    if (_ensure_fd_index(poller, fd) < 0)
+    {
+        errno = ENOMEM;
+        return -1;
+    }
+
+    if (poller->fd_index[fd] >= 0)
+    {
+        errno = EEXIST;
+        return -1;
+    }
+
+    if (poller->pollfd_count == poller->pollfd_capacity)
+    {
+        const int new_capacity = poller->pollfd_capacity * 2;
+        struct pollfd* new_fds = (struct pollfd*)realloc(poller->pollfds, new_capacity * sizeof(struct pollfd));
+
+        if (new_fds == NULL)
+        {
+            errno = ENOMEM;
+            return -1;
+        }
+        poller->pollfds = new_fds;
+        poller->pollfd_capacity = new_capacity;
+    }
+
+    const int index = poller->pollfd_count++;
+    poller->pollfds[index].fd = fd;
+    poller->pollfds[index].events = _to_poll_events(events);
+    poller->pollfds[index].revents = 0;
+    poller->fd_index[fd] = index;
+    return 0;
+}
+
+static int _poll_modify(event_poller_t* poller, const int fd, const uint32_t events)
+{
+    if (fd >= poller->fd_index_size || poller->fd_index[fd] < 0)
+    {
+        errno = ENOENT;
+        return -1;
+    }
+    poller->pollfds[poller->fd_index[fd]].events = _to_poll_events(events);
+    return 0;
+}
+
+static int _poll_remove(event_poller_t* poller, const int fd)
+{
+    if (fd >= poller->fd_index_size || poller->fd_index[fd] < 0)
+    {
+        errno = ENOENT;
+        return -1;
+    }
+
+    const int index = poller->fd_index[fd];
+    const int last = --poller->pollfd_count;
+
+    if (index != last)
+    {
+        poller->pollfds[index] = poller->pollfds[last];
+        poller->fd_index[poller->pollfds[index].fd] = index;
+    }
+    poller->fd_index[fd] = -1;
+    return 0;
+}
+
+static int _poll_wait(event_poller_t* poller, poller_event_t* events, const int max_events, const int timeout_ms)
+{
+    const int ready = poll(poller->pollfds, poller->pollfd_count, timeout_ms);
+
+    if (ready <= 0)
+    {
+        return ready;
+    }
+
+    const int count = poller->pollfd_count;
+    int produced = 0;
+
+    /* 준비된 fd가 max_events보다 많을 때 앞쪽 fd만 계속 처리되지 않도록 스캔 시작 위치를 돌아가며 바꿉니다. */
+    const int start = count > 0 ? poller->scan_offset % count : 0;
+
+    for (int n = 0; n < count && produced < max_events && produced < ready; ++n)
+    {
+        const struct pollfd* pfd = &poller->pollfds[(start + n) % count];
+
+        if (pfd->revents)
+        {
+            events[produced].fd = pfd->fd;
+            events[produced].events = _from_poll_revents(pfd->revents);
+            ++produced;
+        }
+    }
+    poller->scan_offset = start + 1;
+    return produced;
+}
+
+#ifdef __linux__
+static uint32_t _to_epoll_events(const uint32_t events)
+{
+    uint32_t result = 0;
+
+    if (events & POLLER_EVENT_READ)
+    {
+        result |= EPOLLIN | EPOLLRDHUP;
+    }
+    if (events & POLLER_EVENT_WRITE)
+    {
+        result |= EPOLLOUT;
+    }
+    return result;
+}
+
+static uint32_t _from_epoll_events(const uint32_t events)
+{
+    uint32_t result = 0;
+
+    if (events & EPOLLIN)
+    {
+        result |= POLLER_EVENT_READ;
+    }
+    if (events & EPOLLOUT)
+    {
+        result |= POLLER_EVENT_WRITE;
+    }
+    if (events & EPOLLERR)
+    {
+        result |= POLLER_EVENT_ERROR;
+    }
+    if (events & (EPOLLHUP | EPOLLRDHUP))
+    {
+        result |= POLLER_EVENT_HANGUP;
+    }
+    return result;
+}
+
+static int _epoll_ctl(const event_poller_t* poller, const int op, const int fd, const uint32_t events)
+{
+    struct epoll_event ev;
+    memset(&ev, 0, sizeof(ev));
+    ev.events = _to_epoll_events(events);
+    ev.data.fd = fd;
+    return epoll_ctl(poller->epoll_fd, op, fd, &ev);
+}
+
+static int _epoll_wait(event_poller_t* poller, poller_event_t* events, const int max_events, const int timeout_ms)
+{
+    struct epoll_event* buffer = (struct epoll_event*)poller->epoll_events;
+    const int limit = max_events < poller->epoll_events_capacity ? max_events : poller->epoll_events_capacity;
+    const int ready = epoll_wait(poller->epoll_fd, buffer, limit, timeout_ms);
+
+    for (int i = 0; i < ready; ++i)
+    {
+        events[i].fd = buffer[i].data.fd;
+        events[i].events = _from_epoll_events(buffer[i].events);
+    }
+    return ready;
+}
+#endif
+
+int poller_add(event_poller_t* poller, const int fd, const uint32_t events)
+{
+    if (poller == NULL || fd < 0)
+    {
+        errno = EINVAL;
+        return -1;
+    }
+#ifdef __linux__
+    if (poller->backend == POLLER_BACKEND_EPOLL)
+    {
+        return _epoll_ctl(poller, EPOLL_CTL_ADD, fd, events);
+    }
+#endif
+    return _poll_add(poller, fd, events);
+}
+
+int poller_modify(event_poller_t* poller, const int fd, const uint32_t events)
+{
+    if (poller == NULL || fd < 0)
+    {
+        errno = EINVAL;
+        return -1;
+    }
+#ifdef __linux__
+    if (poller->backend == POLLER_BACKEND_EPOLL)
+    {
+        return _epoll_ctl(poller, EPOLL_CTL_MOD, fd, events);
+    }
+#endif
+    return _poll_modify(poller, fd, events);
+}
+
+int poller_remove(event_poller_t* poller, const int fd)
+{
+    if (poller == NULL || fd < 0)
+    {
+        errno = EINVAL;
+        return -1;
+    }
+#ifdef __linux__
+    if (poller->backend == POLLER_BACKEND_EPOLL)
+    {
+        return _epoll_ctl(poller, EPOLL_CTL_DEL, fd, 0);
+    }
+#endif
+    return _poll_remove(poller, fd);
+}
+
+int poller_wait(event_poller_t* poller, poller_event_t* events, const int max_events, const int timeout_ms)
+{
+    if (poller == NULL || events == NULL || max_events <= 0)
+    {
+        errno = EINVAL;
+        return -1;
+    }
+#ifdef __linux__
+    if (poller->backend == POLLER_BACKEND_EPOLL)
+    {
+        return _epoll_wait(poller, events, max_events, timeout_ms);
+    }
+#endif
+    return _poll_wait(poller, events, max_events, timeout_ms);
+}
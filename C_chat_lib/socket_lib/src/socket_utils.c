@@ -3,6 +3,7 @@
 //
 #include "socket_utils.h"
 #include <sys/socket.h>
+#include <fcntl.h>
 #include <unistd.h>
 
 int create_tcp_socket(void)
@@ -16,6 +17,17 @@ int set_socket_reusable(const int sockfd)
     return setsockopt(sockfd, SOL_SOCKET, SO_REUSEADDR, &optval, sizeof(optval));
 }
 
+int set_socket_nonblocking(const int sockfd)
+{
+    const int flags = fcntl(sockfd, F_GETFL, 0);
+
+    if (flags < 0)
+    {
+        return -1;
+    }
+    return fcntl(sockfd, F_SETFL, flags | O_NONBLOCK);
+}
+
 int close_socket(const int sockfd)
 {
     return close(sockfd);
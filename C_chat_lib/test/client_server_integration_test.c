@@ -211,12 +211,78 @@ TEST(test_server_max_clients_limit) {
     server_destroy(server);
 }
 
+static size_t g_large_chunk_len = 0;
+static int g_large_chunk_intact = 0;
+
+static void large_chunk_on_message(void* user_data, const client_info_t* client, message_type_t msg_type, const uint8_t* payload, size_t len) {
+    (void)user_data;
+    (void)client;
+    if (msg_type != MSG_TYPE_FILE_CHUNK) {
+        return;
+    }
+
+    int intact = 1;
+    for (size_t i = 0; i < len; i++) {
+        if (payload[i] != (uint8_t)(i % 251)) {
+            intact = 0;
+            break;
+        }
+    }
+
+    pthread_mutex_lock(&g_test_mutex);
+    g_large_chunk_len = len;
+    g_large_chunk_intact = intact;
+    pthread_mutex_unlock(&g_test_mutex);
+}
+
+TEST(test_client_sends_large_chunk) {
+    const int test_port = TEST_PORT + 2;
+    const size_t chunk_len = 64 * 1024;
+    server_context_t* server = server_create(test_port, 2);
+    ASSERT_NOT_NULL(server);
+
+    server_register_complete_message_callback(server, large_chunk_on_message, server);
+    server_register_error_callback(server, test_server_on_error, NULL);
+    ASSERT_EQ_INT(server_start(server), 0);
+
+    client_context_t* client = client_connect("127.0.0.1", test_port);
+    ASSERT_NOT_NULL(client);
+
+    uint8_t* chunk = (uint8_t*)malloc(chunk_len);
+    ASSERT_NOT_NULL(chunk);
+    for (size_t i = 0; i < chunk_len; i++) {
+        chunk[i] = (uint8_t)(i % 251);
+    }
+
+    // 4KB 상한이 없어졌으므로 64KB 조각도 프레임 하나로 전송됨
+    client_send_payload(client, MSG_TYPE_FILE_CHUNK, chunk, chunk_len);
+
+    size_t received_len = 0;
+    for (int i = 0; i < 200 && received_len == 0; i++) {
+        usleep(10000);
+        pthread_mutex_lock(&g_test_mutex);
+        received_len = g_large_chunk_len;
+        pthread_mutex_unlock(&g_test_mutex);
+    }
+
+    pthread_mutex_lock(&g_test_mutex);
+    ASSERT_EQ_SIZE(g_large_chunk_len, chunk_len);
+    ASSERT_TRUE(g_large_chunk_intact);
+    pthread_mutex_unlock(&g_test_mutex);
+
+    free(chunk);
+    client_disconnect(client);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
 // 메인 함수
 int main(void) {
     test_init("Client-Server Integration Tests");
     
     RUN_TEST(test_multiple_clients_connection);
     RUN_TEST(test_server_max_clients_limit);
+    RUN_TEST(test_client_sends_large_chunk);
     
     test_finish();
     
@@ -4,10 +4,21 @@
 
 #include "test_framework.h"
 #include "command_queue.h"
+#include "object_pool.h"
+#include <pthread.h>
+#include <stdint.h>
 #include <stdlib.h>
 #include <string.h>
 #include <stdbool.h>
 
+#define PRODUCER_THREADS 8
+#define ITEMS_PER_PRODUCER 20000
+
+typedef struct {
+    command_queue_t* queue;
+    uintptr_t producer_id;
+} producer_arg_t;
+
 // 기본 큐 동작 테스트
 TEST(test_queue_create_destroy) {
     command_queue_t* queue = queue_create();
@@ -141,6 +152,138 @@ TEST(test_queue_fifo_order) {
     queue_destroy(queue, NULL);
 }
 
+// 생산자 번호와 순번을 포인터 값에 담아 넣습니다. (0이 되지 않도록 1을 더함)
+static void* producer_thread(void* arg) {
+    producer_arg_t* producer = (producer_arg_t*)arg;
+
+    for (uintptr_t seq = 0; seq < ITEMS_PER_PRODUCER; seq++) {
+        queue_push(producer->queue, (void*)((producer->producer_id << 20 | seq) + 1));
+    }
+    return NULL;
+}
+
+// 여러 생산자가 동시에 넣는 동안 소비자가 꺼내도 빠짐없이, 생산자별 순서대로 나와야 함
+TEST(test_queue_concurrent_producers_single_consumer) {
+    command_queue_t* queue = queue_create();
+    ASSERT_NOT_NULL(queue);
+
+    pthread_t threads[PRODUCER_THREADS];
+    producer_arg_t args[PRODUCER_THREADS];
+    long next_seq[PRODUCER_THREADS] = {0};
+
+    for (int i = 0; i < PRODUCER_THREADS; i++) {
+        args[i].queue = queue;
+        args[i].producer_id = (uintptr_t)i;
+        pthread_create(&threads[i], NULL, producer_thread, &args[i]);
+    }
+
+    long received = 0;
+    bool in_order = true;
+
+    while (received < (long)PRODUCER_THREADS * ITEMS_PER_PRODUCER) {
+        void* item = queue_pop(queue);
+
+        if (item == NULL) {
+            continue;
+        }
+
+        const uintptr_t value = (uintptr_t)item - 1;
+        const int producer = (int)(value >> 20);
+        const long seq = (long)(value & ((1u << 20) - 1));
+
+        if (producer >= PRODUCER_THREADS || seq != next_seq[producer]) {
+            in_order = false;
+        } else {
+            next_seq[producer]++;
+        }
+        received++;
+    }
+
+    for (int i = 0; i < PRODUCER_THREADS; i++) {
+        pthread_join(threads[i], NULL);
+    }
+
+    ASSERT_TRUE(in_order);
+    for (int i = 0; i < PRODUCER_THREADS; i++) {
+        ASSERT_EQ_INT((int)next_seq[i], ITEMS_PER_PRODUCER);
+    }
+    ASSERT_TRUE(queue_is_empty(queue));
+    ASSERT_NULL(queue_pop(queue));
+
+    queue_destroy(queue, NULL);
+}
+
+// 넣고 빼기를 번갈아 반복해도 (더미 노드가 계속 바뀌어도) 비어 있음 판단과 순서가 맞아야 함
+TEST(test_queue_interleaved_push_pop) {
+    command_queue_t* queue = queue_create();
+    ASSERT_NOT_NULL(queue);
+
+    int values[3] = {1, 2, 3};
+
+    for (int round = 0; round < 10000; round++) {
+        queue_push(queue, &values[0]);
+        queue_push(queue, &values[1]);
+        ASSERT_FALSE(queue_is_empty(queue));
+        ASSERT_TRUE(queue_pop(queue) == &values[0]);
+
+        queue_push(queue, &values[2]);
+        ASSERT_TRUE(queue_pop(queue) == &values[1]);
+        ASSERT_TRUE(queue_pop(queue) == &values[2]);
+        ASSERT_TRUE(queue_is_empty(queue));
+    }
+
+    queue_destroy(queue, NULL);
+}
+
+// 꺼내지 않은 요소가 많아도 destroy가 남은 것을 모두 콜백으로 넘겨야 함
+static int g_destroyed_count = 0;
+
+static void count_destroy(void* data) {
+    g_destroyed_count++;
+    free(data);
+}
+
+TEST(test_queue_destroy_after_partial_drain) {
+    command_queue_t* queue = queue_create();
+    ASSERT_NOT_NULL(queue);
+
+    for (int i = 0; i < 1000; i++) {
+        int* value = (int*)malloc(sizeof(int));
+        *value = i;
+        queue_push(queue, value);
+    }
+    for (int i = 0; i < 400; i++) {
+        free(queue_pop(queue));
+    }
+
+    g_destroyed_count = 0;
+    queue_destroy(queue, count_destroy);
+    ASSERT_EQ_INT(g_destroyed_count, 600);
+}
+
+static void count_only(void* data) {
+    (void)data;
+    g_destroyed_count++;
+}
+
+// 노드 풀이 모자라 malloc으로 만든 노드도 destroy가 모두 돌려줘야 함 (남은 노드와 더미 노드가 모두 풀 밖의 것인 경우)
+TEST(test_queue_destroy_releases_unpooled_nodes) {
+    const int capacity = OBJECT_POOL_CHUNK_SIZE * OBJECT_POOL_MAX_CHUNKS;
+    command_queue_t* queue = queue_create();
+    ASSERT_NOT_NULL(queue);
+
+    for (int i = 1; i <= capacity + 100; i++) {
+        queue_push(queue, (void*)(uintptr_t)i);
+    }
+    for (int i = 1; i <= capacity + 50; i++) {
+        ASSERT_EQ_INT((int)(uintptr_t)queue_pop(queue), i);
+    }
+
+    g_destroyed_count = 0;
+    queue_destroy(queue, count_only);
+    ASSERT_EQ_INT(g_destroyed_count, 50);
+}
+
 // 메인 함수
 int main(void) {
     test_init("Command Queue Tests");
@@ -151,6 +294,10 @@ int main(void) {
     RUN_TEST(test_queue_destroy_with_callback);
     RUN_TEST(test_queue_null_safety);
     RUN_TEST(test_queue_fifo_order);
+    RUN_TEST(test_queue_concurrent_producers_single_consumer);
+    RUN_TEST(test_queue_interleaved_push_pop);
+    RUN_TEST(test_queue_destroy_after_partial_drain);
+    RUN_TEST(test_queue_destroy_releases_unpooled_nodes);
     
     test_finish();
     
@@ -116,6 +116,83 @@ TEST(test_command_large_payload) {
     free(large_payload);
 }
 
+TEST(test_frame_broadcast_command_shares_frame) {
+    const char* payload = "shared frame";
+    frame_buffer_t* frame = frame_buffer_create(MSG_TYPE_CHAT_TEXT, (const uint8_t*)payload, strlen(payload));
+    ASSERT_NOT_NULL(frame);
+
+    command_t* first = create_frame_broadcast_command(frame, 3);
+    command_t* second = create_frame_broadcast_command(frame, 3);
+    ASSERT_NOT_NULL(first);
+    ASSERT_NOT_NULL(second);
+
+    // 두 커맨드가 같은 프레임을 복사 없이 가리킴
+    ASSERT_TRUE(first->data.broadcast_cmd.frame == frame);
+    ASSERT_TRUE(second->data.broadcast_cmd.payload == frame_buffer_payload(frame));
+    ASSERT_EQ_SIZE(first->data.broadcast_cmd.payload_len, strlen(payload));
+    ASSERT_EQ_INT(atomic_load(&frame->ref_count), 3);
+
+    destroy_command(first);
+    destroy_command(second);
+    ASSERT_EQ_INT(atomic_load(&frame->ref_count), 1);
+    frame_buffer_release(frame);
+
+    ASSERT_NULL(create_frame_broadcast_command(NULL, -1));
+}
+
+TEST(test_group_commands) {
+    const char* payload = "room";
+    frame_buffer_t* frame = frame_buffer_create(MSG_TYPE_CHAT_TEXT, (const uint8_t*)payload, strlen(payload));
+    ASSERT_NOT_NULL(frame);
+
+    command_t* broadcast = create_frame_group_broadcast_command(frame, 12, 5);
+    ASSERT_NOT_NULL(broadcast);
+    ASSERT_EQ_INT(broadcast->type, CMD_GROUP_BROADCAST);
+    ASSERT_EQ_INT(broadcast->data.broadcast_cmd.group_id, 12);
+    ASSERT_EQ_INT(broadcast->data.broadcast_cmd.exclude_client_fd, 5);
+    ASSERT_EQ_INT(atomic_load(&frame->ref_count), 2);
+
+    // 그룹 브로드캐스트도 해제 시 프레임 참조를 놓음
+    destroy_command(broadcast);
+    ASSERT_EQ_INT(atomic_load(&frame->ref_count), 1);
+    frame_buffer_release(frame);
+
+    command_t* join = create_group_command(CMD_GROUP_JOIN, 3, 9);
+    ASSERT_NOT_NULL(join);
+    ASSERT_EQ_INT(join->type, CMD_GROUP_JOIN);
+    ASSERT_EQ_INT(join->data.group_cmd.group_id, 3);
+    ASSERT_EQ_INT(join->data.group_cmd.client_fd, 9);
+    destroy_command(join);
+
+    ASSERT_NULL(create_group_command(CMD_SEND_MESSAGE, 3, 9));
+    ASSERT_NULL(create_frame_group_broadcast_command(NULL, 3, -1));
+}
+
+TEST(test_commands_are_pooled) {
+    const char* payload = "pooled";
+
+    // 첫 생성에서 풀이 채워진 뒤에는 생성/해제를 반복해도 풀이 늘지 않아야 함
+    destroy_command(create_send_command(1, MSG_TYPE_CHAT_TEXT, (const uint8_t*)payload, strlen(payload)));
+    const size_t capacity = command_pool_capacity();
+    ASSERT_TRUE(capacity > 0);
+
+    command_t* previous = NULL;
+
+    for (int i = 0; i < 10000; i++) {
+        command_t* cmd = create_send_command(i, MSG_TYPE_CHAT_TEXT, (const uint8_t*)payload, strlen(payload));
+        ASSERT_NOT_NULL(cmd);
+        ASSERT_EQ_INT(cmd->data.send_cmd.target_client_fd, i);
+
+        // 방금 반납한 커맨드를 다시 쓰더라도 내용은 새로 채워짐
+        if (previous == cmd) {
+            ASSERT_EQ_SIZE(cmd->data.send_cmd.payload_len, strlen(payload));
+        }
+        previous = cmd;
+        destroy_command(cmd);
+    }
+    ASSERT_EQ_SIZE(command_pool_capacity(), capacity);
+}
+
 // 메인 함수
 int main(void) {
     test_init("Command Tests");
@@ -128,6 +205,9 @@ int main(void) {
     RUN_TEST(test_destroy_command_send);
     RUN_TEST(test_destroy_command_broadcast);
     RUN_TEST(test_command_large_payload);
+    RUN_TEST(test_frame_broadcast_command_shares_frame);
+    RUN_TEST(test_group_commands);
+    RUN_TEST(test_commands_are_pooled);
     
     test_finish();
     
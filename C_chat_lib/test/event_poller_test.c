@@ -0,0 +1,177 @@
+//
+// Event Poller 모듈 단위 테스트 (poll / epoll 백엔드 공통)
+//
+
+#include "test_framework.h"
+#include "event_poller.h"
+#include "chat_server.h"
+#include <unistd.h>
+#include <errno.h>
+
+static poller_backend_t g_backend = POLLER_BACKEND_POLL;
+
+TEST(test_poller_create_destroy) {
+    event_poller_t* poller = poller_create(g_backend, 4);
+    ASSERT_NOT_NULL(poller);
+    ASSERT_EQ_INT(poller_get_backend(poller), g_backend);
+    poller_destroy(poller);
+
+    poller_destroy(NULL);
+}
+
+TEST(test_poller_invalid_arguments) {
+    ASSERT_NULL(poller_create(g_backend, 0));
+
+    event_poller_t* poller = poller_create(g_backend, 4);
+    ASSERT_NOT_NULL(poller);
+
+    poller_event_t events[4];
+    ASSERT_EQ_INT(poller_add(NULL, 0, POLLER_EVENT_READ), -1);
+    ASSERT_EQ_INT(poller_add(poller, -1, POLLER_EVENT_READ), -1);
+    ASSERT_EQ_INT(poller_wait(poller, NULL, 4, 0), -1);
+    ASSERT_EQ_INT(poller_wait(poller, events, 0, 0), -1);
+    ASSERT_EQ_INT(poller_remove(poller, 1000), -1);
+
+    poller_destroy(poller);
+}
+
+TEST(test_poller_reports_only_ready_fds) {
+    event_poller_t* poller = poller_create(g_backend, 2);
+    ASSERT_NOT_NULL(poller);
+
+    // 내부 버퍼 확장을 확인하기 위해 capacity보다 많은 fd를 등록
+    int pipes[8][2];
+    for (int i = 0; i < 8; i++) {
+        ASSERT_EQ_INT(pipe(pipes[i]), 0);
+        ASSERT_EQ_INT(poller_add(poller, pipes[i][0], POLLER_EVENT_READ), 0);
+    }
+
+    poller_event_t events[8];
+    ASSERT_EQ_INT(poller_wait(poller, events, 8, 0), 0);
+
+    ASSERT_EQ_INT((int)write(pipes[5][1], "x", 1), 1);
+
+    int ready = poller_wait(poller, events, 8, 1000);
+    ASSERT_EQ_INT(ready, 1);
+    ASSERT_EQ_INT(events[0].fd, pipes[5][0]);
+    ASSERT_TRUE(events[0].events & POLLER_EVENT_READ);
+
+    for (int i = 0; i < 8; i++) {
+        close(pipes[i][0]);
+        close(pipes[i][1]);
+    }
+    poller_destroy(poller);
+}
+
+TEST(test_poller_remove_and_readd) {
+    event_poller_t* poller = poller_create(g_backend, 4);
+    ASSERT_NOT_NULL(poller);
+
+    int a[2], b[2];
+    ASSERT_EQ_INT(pipe(a), 0);
+    ASSERT_EQ_INT(pipe(b), 0);
+    ASSERT_EQ_INT(poller_add(poller, a[0], POLLER_EVENT_READ), 0);
+    ASSERT_EQ_INT(poller_add(poller, b[0], POLLER_EVENT_READ), 0);
+    ASSERT_EQ_INT(poller_add(poller, a[0], POLLER_EVENT_READ), -1);
+
+    ASSERT_EQ_INT((int)write(a[1], "x", 1), 1);
+    ASSERT_EQ_INT((int)write(b[1], "y", 1), 1);
+
+    // 제거된 fd는 더 이상 보고되지 않아야 함
+    ASSERT_EQ_INT(poller_remove(poller, a[0]), 0);
+
+    poller_event_t events[4];
+    int ready = poller_wait(poller, events, 4, 1000);
+    ASSERT_EQ_INT(ready, 1);
+    ASSERT_EQ_INT(events[0].fd, b[0]);
+
+    ASSERT_EQ_INT(poller_add(poller, a[0], POLLER_EVENT_READ), 0);
+    ready = poller_wait(poller, events, 4, 1000);
+    ASSERT_EQ_INT(ready, 2);
+
+    close(a[0]); close(a[1]);
+    close(b[0]); close(b[1]);
+    poller_destroy(poller);
+}
+
+TEST(test_poller_modify_write_interest) {
+    event_poller_t* poller = poller_create(g_backend, 4);
+    ASSERT_NOT_NULL(poller);
+
+    int p[2];
+    ASSERT_EQ_INT(pipe(p), 0);
+
+    // 쓰기 끝은 항상 쓰기 가능하지만 READ만 감시하면 보고되지 않아야 함
+    ASSERT_EQ_INT(poller_add(poller, p[1], POLLER_EVENT_READ), 0);
+    poller_event_t events[4];
+    ASSERT_EQ_INT(poller_wait(poller, events, 4, 0), 0);
+
+    ASSERT_EQ_INT(poller_modify(poller, p[1], POLLER_EVENT_WRITE), 0);
+    int ready = poller_wait(poller, events, 4, 1000);
+    ASSERT_EQ_INT(ready, 1);
+    ASSERT_TRUE(events[0].events & POLLER_EVENT_WRITE);
+
+    close(p[0]);
+    close(p[1]);
+    poller_destroy(poller);
+}
+
+TEST(test_poller_max_events_limit) {
+    event_poller_t* poller = poller_create(g_backend, 4);
+    ASSERT_NOT_NULL(poller);
+
+    int pipes[4][2];
+    for (int i = 0; i < 4; i++) {
+        ASSERT_EQ_INT(pipe(pipes[i]), 0);
+        ASSERT_EQ_INT(poller_add(poller, pipes[i][0], POLLER_EVENT_READ), 0);
+        ASSERT_EQ_INT((int)write(pipes[i][1], "x", 1), 1);
+    }
+
+    poller_event_t events[2];
+    ASSERT_EQ_INT(poller_wait(poller, events, 2, 1000), 2);
+
+    for (int i = 0; i < 4; i++) {
+        close(pipes[i][0]);
+        close(pipes[i][1]);
+    }
+    poller_destroy(poller);
+}
+
+TEST(test_server_create_with_backend) {
+    server_options_t options;
+    server_options_init(&options, 0, 4);
+    options.io_backend = g_backend;
+
+    server_context_t* server = server_create_with_options(&options);
+    ASSERT_NOT_NULL(server);
+    ASSERT_EQ_INT(server_get_io_backend(server), g_backend);
+    server_destroy(server);
+}
+
+static void run_suite(void) {
+    RUN_TEST(test_poller_create_destroy);
+    RUN_TEST(test_poller_invalid_arguments);
+    RUN_TEST(test_poller_reports_only_ready_fds);
+    RUN_TEST(test_poller_remove_and_readd);
+    RUN_TEST(test_poller_modify_write_interest);
+    RUN_TEST(test_poller_max_events_limit);
+    RUN_TEST(test_server_create_with_backend);
+}
+
+int main(void) {
+    test_init("Event Poller Tests");
+
+    printf("--- backend: poll ---\n");
+    g_backend = POLLER_BACKEND_POLL;
+    run_suite();
+
+    if (poller_backend_available(POLLER_BACKEND_EPOLL)) {
+        printf("--- backend: epoll ---\n");
+        g_backend = POLLER_BACKEND_EPOLL;
+        run_suite();
+    }
+
+    test_finish();
+
+    return test_get_exit_code();
+}
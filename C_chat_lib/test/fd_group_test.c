@@ -0,0 +1,159 @@
+//
+// 그룹 id → fd 집합 테이블 단위 테스트
+//
+
+#include "test_framework.h"
+#include "fd_group.h"
+
+static int _contains(const int* members, const size_t count, const int fd) {
+    for (size_t i = 0; i < count; i++) {
+        if (members[i] == fd) {
+            return 1;
+        }
+    }
+    return 0;
+}
+
+TEST(test_join_and_members) {
+    fd_group_table_t* table = fd_group_table_create();
+    ASSERT_NOT_NULL(table);
+
+    ASSERT_EQ_INT(fd_group_join(table, 7, 10), 1);
+    ASSERT_EQ_INT(fd_group_join(table, 7, 11), 1);
+    ASSERT_EQ_INT(fd_group_join(table, 7, 10), 0);
+    ASSERT_EQ_INT(fd_group_join(table, 8, 10), 1);
+
+    size_t count;
+    const int* members = fd_group_members(table, 7, &count);
+    ASSERT_NOT_NULL(members);
+    ASSERT_EQ_SIZE(count, (size_t)2);
+    ASSERT_TRUE(_contains(members, count, 10));
+    ASSERT_TRUE(_contains(members, count, 11));
+
+    members = fd_group_members(table, 8, &count);
+    ASSERT_EQ_SIZE(count, (size_t)1);
+    ASSERT_EQ_INT(members[0], 10);
+
+    ASSERT_NULL(fd_group_members(table, 9, &count));
+    ASSERT_EQ_SIZE(count, (size_t)0);
+    ASSERT_EQ_SIZE(fd_group_count(table), (size_t)2);
+
+    fd_group_table_destroy(table);
+}
+
+TEST(test_leave_drops_empty_group) {
+    fd_group_table_t* table = fd_group_table_create();
+    ASSERT_NOT_NULL(table);
+
+    fd_group_join(table, 1, 5);
+    fd_group_join(table, 1, 6);
+
+    ASSERT_EQ_INT(fd_group_leave(table, 1, 5), 1);
+    ASSERT_EQ_INT(fd_group_leave(table, 1, 5), 0);
+    ASSERT_EQ_INT(fd_group_leave(table, 2, 6), 0);
+
+    size_t count;
+    const int* members = fd_group_members(table, 1, &count);
+    ASSERT_EQ_SIZE(count, (size_t)1);
+    ASSERT_EQ_INT(members[0], 6);
+
+    ASSERT_EQ_INT(fd_group_leave(table, 1, 6), 1);
+    ASSERT_NULL(fd_group_members(table, 1, &count));
+    ASSERT_EQ_SIZE(fd_group_count(table), (size_t)0);
+
+    // 빈 그룹이 사라진 뒤에도 다시 가입할 수 있음
+    ASSERT_EQ_INT(fd_group_join(table, 1, 6), 1);
+    ASSERT_EQ_SIZE(fd_group_count(table), (size_t)1);
+
+    fd_group_table_destroy(table);
+}
+
+TEST(test_remove_fd_leaves_all_groups) {
+    fd_group_table_t* table = fd_group_table_create();
+    ASSERT_NOT_NULL(table);
+
+    for (int group = 0; group < 5; group++) {
+        fd_group_join(table, group, 42);
+        fd_group_join(table, group, 43);
+    }
+    fd_group_join(table, 99, 42);
+
+    ASSERT_EQ_SIZE(fd_group_remove_fd(table, 42), (size_t)6);
+    ASSERT_EQ_SIZE(fd_group_remove_fd(table, 42), (size_t)0);
+    ASSERT_EQ_SIZE(fd_group_count(table), (size_t)5);
+
+    size_t count;
+    for (int group = 0; group < 5; group++) {
+        const int* members = fd_group_members(table, group, &count);
+        ASSERT_EQ_SIZE(count, (size_t)1);
+        ASSERT_EQ_INT(members[0], 43);
+    }
+    ASSERT_NULL(fd_group_members(table, 99, &count));
+
+    // 다시 연결된 같은 fd 번호는 빈 상태에서 시작
+    ASSERT_EQ_INT(fd_group_join(table, 0, 42), 1);
+
+    fd_group_table_destroy(table);
+}
+
+TEST(test_many_groups_and_members) {
+    fd_group_table_t* table = fd_group_table_create();
+    ASSERT_NOT_NULL(table);
+
+    // 버킷 수를 여러 번 넘기도록 그룹 500개에 fd를 4개씩 넣음
+    for (int group = 0; group < 500; group++) {
+        for (int i = 0; i < 4; i++) {
+            ASSERT_EQ_INT(fd_group_join(table, group, 1000 + group * 4 + i), 1);
+        }
+    }
+    ASSERT_EQ_SIZE(fd_group_count(table), (size_t)500);
+
+    size_t count;
+    for (int group = 0; group < 500; group++) {
+        const int* members = fd_group_members(table, group, &count);
+        ASSERT_EQ_SIZE(count, (size_t)4);
+        for (int i = 0; i < 4; i++) {
+            ASSERT_TRUE(_contains(members, count, 1000 + group * 4 + i));
+        }
+    }
+
+    for (int fd = 1000; fd < 1000 + 500 * 4; fd++) {
+        ASSERT_EQ_SIZE(fd_group_remove_fd(table, fd), (size_t)1);
+    }
+    ASSERT_EQ_SIZE(fd_group_count(table), (size_t)0);
+
+    fd_group_table_destroy(table);
+}
+
+TEST(test_invalid_arguments) {
+    fd_group_table_destroy(NULL);
+    ASSERT_EQ_INT(fd_group_join(NULL, 1, 1), -1);
+    ASSERT_EQ_INT(fd_group_leave(NULL, 1, 1), 0);
+    ASSERT_EQ_SIZE(fd_group_remove_fd(NULL, 1), (size_t)0);
+    ASSERT_EQ_SIZE(fd_group_count(NULL), (size_t)0);
+
+    size_t count = 123;
+    ASSERT_NULL(fd_group_members(NULL, 1, &count));
+    ASSERT_EQ_SIZE(count, (size_t)0);
+
+    fd_group_table_t* table = fd_group_table_create();
+    ASSERT_NOT_NULL(table);
+    ASSERT_EQ_INT(fd_group_join(table, -1, 1), -1);
+    ASSERT_EQ_INT(fd_group_join(table, 1, -1), -1);
+    ASSERT_EQ_SIZE(fd_group_count(table), (size_t)0);
+    fd_group_table_destroy(table);
+}
+
+int main(void) {
+    test_init("FD Group Tests");
+
+    RUN_TEST(test_join_and_members);
+    RUN_TEST(test_leave_drops_empty_group);
+    RUN_TEST(test_remove_fd_leaves_all_groups);
+    RUN_TEST(test_many_groups_and_members);
+    RUN_TEST(test_invalid_arguments);
+
+    test_finish();
+
+    return test_get_exit_code();
+}
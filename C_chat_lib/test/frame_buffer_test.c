@@ -0,0 +1,101 @@
+//
+// 참조 카운트 프레임 버퍼 단위 테스트
+//
+
+#include "test_framework.h"
+#include "frame_buffer.h"
+#include "protocol.h"
+#include <arpa/inet.h>
+#include <pthread.h>
+#include <string.h>
+
+#define RETAIN_THREADS 4
+#define RETAIN_ROUNDS 10000
+
+TEST(test_create_frames_header_and_payload) {
+    const char* payload = "hello";
+    frame_buffer_t* frame = frame_buffer_create(MSG_TYPE_CHAT_TEXT, (const uint8_t*)payload, strlen(payload));
+
+    ASSERT_NOT_NULL(frame);
+    ASSERT_EQ_SIZE(frame->len, HEADER_SIZE + strlen(payload));
+    ASSERT_EQ_INT(frame->data[0], MSG_TYPE_CHAT_TEXT);
+
+    uint32_t net_len;
+    memcpy(&net_len, frame->data + 1, sizeof(net_len));
+    ASSERT_EQ_INT((int)ntohl(net_len), (int)strlen(payload));
+    ASSERT_EQ_SIZE(frame_buffer_payload_len(frame), strlen(payload));
+    ASSERT_MEMEQ(frame_buffer_payload(frame), payload, strlen(payload));
+
+    frame_buffer_release(frame);
+}
+
+TEST(test_create_empty_payload) {
+    frame_buffer_t* frame = frame_buffer_create(MSG_TYPE_PING, NULL, 0);
+
+    ASSERT_NOT_NULL(frame);
+    ASSERT_EQ_SIZE(frame->len, (size_t)HEADER_SIZE);
+    ASSERT_EQ_SIZE(frame_buffer_payload_len(frame), 0U);
+
+    frame_buffer_release(frame);
+}
+
+TEST(test_create_invalid_arguments) {
+    ASSERT_NULL(frame_buffer_create(MSG_TYPE_CHAT_TEXT, NULL, 10));
+    frame_buffer_release(NULL); // NULL 안전하게 처리되어야 함
+}
+
+TEST(test_retain_release_counts) {
+    frame_buffer_t* frame = frame_buffer_alloc(16);
+    ASSERT_NOT_NULL(frame);
+    ASSERT_EQ_INT(atomic_load(&frame->ref_count), 1);
+
+    ASSERT_TRUE(frame_buffer_retain(frame) == frame);
+    frame_buffer_retain(frame);
+    ASSERT_EQ_INT(atomic_load(&frame->ref_count), 3);
+
+    frame_buffer_release(frame);
+    frame_buffer_release(frame);
+    ASSERT_EQ_INT(atomic_load(&frame->ref_count), 1);
+
+    frame_buffer_release(frame); // 마지막 참조: 해제됨
+}
+
+static void* retain_release_worker(void* arg) {
+    frame_buffer_t* frame = (frame_buffer_t*)arg;
+
+    for (int i = 0; i < RETAIN_ROUNDS; i++) {
+        frame_buffer_retain(frame);
+        frame_buffer_release(frame);
+    }
+    return NULL;
+}
+
+TEST(test_concurrent_retain_release) {
+    frame_buffer_t* frame = frame_buffer_alloc(64);
+    ASSERT_NOT_NULL(frame);
+
+    pthread_t threads[RETAIN_THREADS];
+    for (int i = 0; i < RETAIN_THREADS; i++) {
+        pthread_create(&threads[i], NULL, retain_release_worker, frame);
+    }
+    for (int i = 0; i < RETAIN_THREADS; i++) {
+        pthread_join(threads[i], NULL);
+    }
+
+    ASSERT_EQ_INT(atomic_load(&frame->ref_count), 1);
+    frame_buffer_release(frame);
+}
+
+int main(void) {
+    test_init("Frame Buffer Tests");
+
+    RUN_TEST(test_create_frames_header_and_payload);
+    RUN_TEST(test_create_empty_payload);
+    RUN_TEST(test_create_invalid_arguments);
+    RUN_TEST(test_retain_release_counts);
+    RUN_TEST(test_concurrent_retain_release);
+
+    test_finish();
+
+    return test_get_exit_code();
+}
@@ -0,0 +1,202 @@
+//
+// 수신 레코드 링 버퍼 단위 테스트
+//
+
+#include "test_framework.h"
+#include "inbound_ring.h"
+#include <pthread.h>
+#include <sched.h>
+#include <stdlib.h>
+#include <string.h>
+
+#define RING_STREAM_RECORDS 200000
+
+typedef struct {
+    int count;
+    int kinds[16];
+    int fds[16];
+    int msg_types[16];
+    size_t lens[16];
+    uint8_t last_payload[8192];
+} record_log_t;
+
+static void log_record(void* user_data, const inbound_record_kind_t kind, const int fd, const int msg_type, const uint8_t* payload, const size_t len) {
+    record_log_t* log = (record_log_t*)user_data;
+    if (log->count < 16) {
+        log->kinds[log->count] = kind;
+        log->fds[log->count] = fd;
+        log->msg_types[log->count] = msg_type;
+        log->lens[log->count] = len;
+    }
+    if (len <= sizeof(log->last_payload)) {
+        memcpy(log->last_payload, payload, len);
+    }
+    log->count++;
+}
+
+TEST(test_write_and_consume_in_order) {
+    inbound_ring_t* ring = inbound_ring_create(0);
+    ASSERT_NOT_NULL(ring);
+    ASSERT_EQ_SIZE(inbound_ring_memory_size(ring), (size_t)(INBOUND_RING_HEADER_SIZE + INBOUND_RING_MIN_CAPACITY));
+
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_CONNECT, 7, 0, (const uint8_t*)"127.0.0.1", 9), 0);
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_MESSAGE, 7, 1, (const uint8_t*)"hello", 5), 0);
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_DISCONNECT, 7, 0, NULL, 0), 0);
+
+    record_log_t log = {0};
+    ASSERT_EQ_SIZE(inbound_ring_consume(ring, log_record, &log, 16), (size_t)3);
+    ASSERT_EQ_INT(log.kinds[0], INBOUND_RECORD_CONNECT);
+    ASSERT_EQ_SIZE(log.lens[0], (size_t)9);
+    ASSERT_EQ_INT(log.kinds[1], INBOUND_RECORD_MESSAGE);
+    ASSERT_EQ_INT(log.msg_types[1], 1);
+    ASSERT_EQ_INT(log.fds[1], 7);
+    ASSERT_EQ_INT(log.kinds[2], INBOUND_RECORD_DISCONNECT);
+    ASSERT_EQ_SIZE(log.lens[2], (size_t)0);
+    ASSERT_EQ_SIZE((size_t)inbound_ring_read_position(ring), (size_t)inbound_ring_write_position(ring));
+
+    inbound_ring_destroy(ring);
+}
+
+TEST(test_full_ring_rejects_then_wraps_with_padding) {
+    inbound_ring_t* ring = inbound_ring_create(INBOUND_RING_MIN_CAPACITY);
+    ASSERT_NOT_NULL(ring);
+
+    uint8_t payload[1100];
+    memset(payload, 0x5a, sizeof(payload));
+
+    // 레코드 하나는 1120바이트이므로 3개가 들어가고 링 끝에 736바이트가 남음
+    int written = 0;
+    while (inbound_ring_try_write(ring, INBOUND_RECORD_MESSAGE, 3, 1, payload, sizeof(payload)) == 0) {
+        written++;
+    }
+    ASSERT_EQ_INT(written, 3);
+
+    record_log_t log = {0};
+    ASSERT_EQ_SIZE(inbound_ring_consume(ring, log_record, &log, 1), (size_t)1);
+
+    // 남은 끝 공간을 PADDING으로 채우고 앞에서부터 씀
+    payload[0] = 0x77;
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_MESSAGE, 3, 1, payload, sizeof(payload)), 0);
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_MESSAGE, 3, 1, payload, sizeof(payload)), -1);
+
+    // PADDING은 레코드 수에 들어가지 않음
+    ASSERT_EQ_SIZE(inbound_ring_consume(ring, log_record, &log, 16), (size_t)3);
+    ASSERT_EQ_INT(log.count, 4);
+    ASSERT_MEMEQ(log.last_payload, payload, sizeof(payload));
+
+    inbound_ring_destroy(ring);
+}
+
+TEST(test_oversized_payload_needs_external_record) {
+    inbound_ring_t* ring = inbound_ring_create(INBOUND_RING_MIN_CAPACITY);
+    ASSERT_NOT_NULL(ring);
+
+    const size_t big_len = INBOUND_RING_MIN_CAPACITY * 2;
+    uint8_t* big = (uint8_t*)malloc(big_len);
+    ASSERT_NOT_NULL(big);
+    memset(big, 0x11, big_len);
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_MESSAGE, 4, 11, big, big_len), -1);
+
+    const uint64_t address = (uint64_t)(uintptr_t)big;
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_MESSAGE_EXTERNAL, 4, 11, (const uint8_t*)&address, big_len), 0);
+
+    // 소비 쪽에서는 일반 메시지로 보이고, 콜백이 끝나면 외부 버퍼가 해제됨
+    record_log_t log = {0};
+    ASSERT_EQ_SIZE(inbound_ring_consume(ring, log_record, &log, 16), (size_t)1);
+    ASSERT_EQ_INT(log.kinds[0], INBOUND_RECORD_MESSAGE);
+    ASSERT_EQ_SIZE(log.lens[0], big_len);
+
+    // 읽히지 않은 외부 버퍼는 destroy가 해제함 (ASan/valgrind로 누수 확인)
+    uint8_t* unread = (uint8_t*)malloc(64);
+    const uint64_t unread_address = (uint64_t)(uintptr_t)unread;
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_MESSAGE_EXTERNAL, 4, 11, (const uint8_t*)&unread_address, 64), 0);
+    inbound_ring_destroy(ring);
+}
+
+TEST(test_wait_times_out_and_close_wakes) {
+    inbound_ring_t* ring = inbound_ring_create(0);
+    ASSERT_NOT_NULL(ring);
+
+    ASSERT_EQ_INT(inbound_ring_wait(ring, 10), 0);
+    ASSERT_EQ_INT(inbound_ring_try_write(ring, INBOUND_RECORD_DISCONNECT, 1, 0, NULL, 0), 0);
+    ASSERT_EQ_INT(inbound_ring_wait(ring, 10), 1);
+
+    inbound_ring_close(ring);
+    ASSERT_EQ_INT(inbound_ring_wait(ring, 1000), -1);
+    inbound_ring_open(ring);
+    ASSERT_EQ_INT(inbound_ring_wait(ring, 10), 1);
+
+    inbound_ring_destroy(ring);
+}
+
+typedef struct {
+    inbound_ring_t* ring;
+    long received;
+    long out_of_order;
+} stream_consumer_t;
+
+static void check_sequence(void* user_data, const inbound_record_kind_t kind, const int fd, const int msg_type, const uint8_t* payload, const size_t len) {
+    (void)kind;
+    (void)fd;
+    (void)msg_type;
+    stream_consumer_t* consumer = (stream_consumer_t*)user_data;
+    uint32_t seq;
+    memcpy(&seq, payload, sizeof(seq));
+    if ((long)seq != consumer->received || len != 4 + (seq % 97)) {
+        consumer->out_of_order++;
+    }
+    consumer->received++;
+}
+
+static void* consumer_main(void* arg) {
+    stream_consumer_t* consumer = (stream_consumer_t*)arg;
+    while (consumer->received < RING_STREAM_RECORDS) {
+        if (inbound_ring_consume(consumer->ring, check_sequence, consumer, 64) == 0) {
+            if (inbound_ring_wait(consumer->ring, 1000) < 0) {
+                break;
+            }
+        }
+    }
+    return NULL;
+}
+
+// 생산자/소비자 쓰레드가 동시에 돌 때 순서와 길이가 그대로 전달되고, 대기 중인 소비자를 놓치지 않아야 함
+TEST(test_concurrent_stream_keeps_order) {
+    inbound_ring_t* ring = inbound_ring_create(INBOUND_RING_MIN_CAPACITY);
+    ASSERT_NOT_NULL(ring);
+
+    stream_consumer_t consumer = { .ring = ring };
+    pthread_t thread;
+    ASSERT_EQ_INT(pthread_create(&thread, NULL, consumer_main, &consumer), 0);
+
+    uint8_t payload[4 + 97] = {0};
+    for (uint32_t seq = 0; seq < RING_STREAM_RECORDS; seq++) {
+        memcpy(payload, &seq, sizeof(seq));
+        while (inbound_ring_try_write(ring, INBOUND_RECORD_MESSAGE, 5, 1, payload, 4 + (seq % 97)) < 0) {
+            inbound_ring_notify(ring);
+            sched_yield();
+        }
+        if (seq % 32 == 0) {
+            inbound_ring_notify(ring);
+        }
+    }
+    inbound_ring_notify(ring);
+
+    pthread_join(thread, NULL);
+    ASSERT_EQ_INT((int)consumer.received, RING_STREAM_RECORDS);
+    ASSERT_EQ_INT((int)consumer.out_of_order, 0);
+
+    inbound_ring_destroy(ring);
+}
+
+int main(void) {
+    test_init("Inbound Ring Tests");
+
+    RUN_TEST(test_write_and_consume_in_order);
+    RUN_TEST(test_full_ring_rejects_then_wraps_with_padding);
+    RUN_TEST(test_oversized_payload_needs_external_record);
+    RUN_TEST(test_wait_times_out_and_close_wakes);
+    RUN_TEST(test_concurrent_stream_keeps_order);
+
+    test_finish();
+}
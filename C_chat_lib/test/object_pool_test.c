@@ -0,0 +1,138 @@
+//
+// 고정 크기 객체 풀 단위 테스트
+//
+
+#include "test_framework.h"
+#include "object_pool.h"
+#include <pthread.h>
+#include <stdalign.h>
+#include <stdint.h>
+#include <string.h>
+
+#define POOL_THREADS 8
+#define POOL_ROUNDS 20000
+
+typedef struct {
+    uint64_t owner;
+    char name[40];
+} pooled_item_t;
+
+TEST(test_acquire_release_reuses_object) {
+    object_pool_t* pool = object_pool_create(sizeof(pooled_item_t));
+    ASSERT_NOT_NULL(pool);
+    ASSERT_EQ_SIZE(object_pool_capacity(pool), (size_t)0);
+
+    pooled_item_t* first = (pooled_item_t*)object_pool_acquire(pool);
+    ASSERT_NOT_NULL(first);
+    ASSERT_EQ_SIZE(object_pool_capacity(pool), (size_t)OBJECT_POOL_CHUNK_SIZE);
+    ASSERT_EQ_INT((int)((uintptr_t)first % alignof(max_align_t)), 0);
+
+    object_pool_release(pool, first);
+    pooled_item_t* second = (pooled_item_t*)object_pool_acquire(pool);
+    ASSERT_TRUE(first == second);
+
+    object_pool_release(pool, second);
+    object_pool_destroy(pool);
+}
+
+TEST(test_pool_grows_by_chunk) {
+    object_pool_t* pool = object_pool_create(sizeof(pooled_item_t));
+    ASSERT_NOT_NULL(pool);
+
+    const int count = OBJECT_POOL_CHUNK_SIZE + 1;
+    void* items[OBJECT_POOL_CHUNK_SIZE + 1];
+
+    for (int i = 0; i < count; i++) {
+        items[i] = object_pool_acquire(pool);
+        ASSERT_NOT_NULL(items[i]);
+        memset(items[i], 0xab, sizeof(pooled_item_t));
+    }
+    ASSERT_EQ_SIZE(object_pool_capacity(pool), (size_t)OBJECT_POOL_CHUNK_SIZE * 2);
+
+    for (int i = 0; i < count; i++) {
+        object_pool_release(pool, items[i]);
+    }
+
+    // 모두 반납한 뒤에는 다시 꺼내도 늘어나지 않음
+    for (int i = 0; i < count; i++) {
+        items[i] = object_pool_acquire(pool);
+    }
+    ASSERT_EQ_SIZE(object_pool_capacity(pool), (size_t)OBJECT_POOL_CHUNK_SIZE * 2);
+
+    for (int i = 0; i < count; i++) {
+        object_pool_release(pool, items[i]);
+    }
+    object_pool_destroy(pool);
+}
+
+TEST(test_null_safety) {
+    object_pool_destroy(NULL);
+    object_pool_release(NULL, NULL);
+    ASSERT_NULL(object_pool_acquire(NULL));
+    ASSERT_EQ_SIZE(object_pool_capacity(NULL), (size_t)0);
+
+    object_pool_t* pool = object_pool_create(8);
+    object_pool_release(pool, NULL);
+    object_pool_destroy(pool);
+}
+
+typedef struct {
+    object_pool_t* pool;
+    uint64_t id;
+    int corrupted;
+} worker_arg_t;
+
+// 꺼낸 객체에 자기 번호를 적고 잠시 뒤 그대로인지 확인합니다. 같은 객체가 두 쓰레드에 동시에 나가면 깨집니다.
+static void* pool_worker(void* arg) {
+    worker_arg_t* worker = (worker_arg_t*)arg;
+
+    for (int i = 0; i < POOL_ROUNDS; i++) {
+        pooled_item_t* a = (pooled_item_t*)object_pool_acquire(worker->pool);
+        pooled_item_t* b = (pooled_item_t*)object_pool_acquire(worker->pool);
+        a->owner = worker->id;
+        b->owner = worker->id;
+
+        if (a == b || a->owner != worker->id || b->owner != worker->id) {
+            worker->corrupted = 1;
+        }
+        object_pool_release(worker->pool, a);
+        object_pool_release(worker->pool, b);
+    }
+    return NULL;
+}
+
+TEST(test_concurrent_acquire_release) {
+    object_pool_t* pool = object_pool_create(sizeof(pooled_item_t));
+    ASSERT_NOT_NULL(pool);
+
+    pthread_t threads[POOL_THREADS];
+    worker_arg_t args[POOL_THREADS];
+
+    for (int i = 0; i < POOL_THREADS; i++) {
+        args[i].pool = pool;
+        args[i].id = (uint64_t)i + 1;
+        args[i].corrupted = 0;
+        pthread_create(&threads[i], NULL, pool_worker, &args[i]);
+    }
+    for (int i = 0; i < POOL_THREADS; i++) {
+        pthread_join(threads[i], NULL);
+        ASSERT_FALSE(args[i].corrupted);
+    }
+
+    // 동시에 쓰이는 객체는 쓰레드당 2개뿐이므로 첫 묶음 하나로 충분해야 함
+    ASSERT_EQ_SIZE(object_pool_capacity(pool), (size_t)OBJECT_POOL_CHUNK_SIZE);
+    object_pool_destroy(pool);
+}
+
+int main(void) {
+    test_init("Object Pool Tests");
+
+    RUN_TEST(test_acquire_release_reuses_object);
+    RUN_TEST(test_pool_grows_by_chunk);
+    RUN_TEST(test_null_safety);
+    RUN_TEST(test_concurrent_acquire_release);
+
+    test_finish();
+
+    return test_get_exit_code();
+}
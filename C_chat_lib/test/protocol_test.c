@@ -61,6 +61,30 @@ TEST(test_frame_message_null_buffer) {
 }
 
 // Parser 초기화 및 파괴 테스트
+TEST(test_frame_header_large_payload) {
+    uint8_t header[HEADER_SIZE];
+    const size_t payload_len = 256 * 1024;
+
+    // 헤더만 만들므로 payload 크기가 BUFFER_SIZE와 무관함
+    ASSERT_EQ_INT(frame_header(MSG_TYPE_FILE_CHUNK, payload_len, header), 0);
+    ASSERT_EQ_INT(header[0], (uint8_t)MSG_TYPE_FILE_CHUNK);
+
+    uint32_t net_len;
+    memcpy(&net_len, header + 1, sizeof(uint32_t));
+    ASSERT_EQ_INT(ntohl(net_len), (uint32_t)payload_len);
+}
+
+TEST(test_frame_header_invalid) {
+    uint8_t header[HEADER_SIZE];
+
+    ASSERT_EQ_INT(frame_header(MSG_TYPE_CHAT_TEXT, 10, NULL), -1);
+#if SIZE_MAX > UINT32_MAX
+    // 프로토콜의 32비트 길이를 넘는 payload는 거부
+    ASSERT_EQ_INT(frame_header(MSG_TYPE_CHAT_TEXT, (size_t)UINT32_MAX + 1, header), -1);
+#endif
+    ASSERT_EQ_INT(frame_header(MSG_TYPE_CHAT_TEXT, UINT32_MAX, header), 0);
+}
+
 TEST(test_parser_init_destroy) {
     stream_parser_t parser;
     
@@ -206,6 +230,8 @@ int main(void) {
     RUN_TEST(test_frame_message_empty_payload);
     RUN_TEST(test_frame_message_insufficient_buffer);
     RUN_TEST(test_frame_message_null_buffer);
+    RUN_TEST(test_frame_header_large_payload);
+    RUN_TEST(test_frame_header_invalid);
     RUN_TEST(test_parser_init_destroy);
     RUN_TEST(test_parser_null_parser);
     RUN_TEST(test_parse_stream_complete_message);
@@ -0,0 +1,392 @@
+//
+// 수신 링 모드(inbound_ring_bytes > 0) 서버 테스트
+//
+
+#include "test_framework.h"
+#include "chat_server.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <fcntl.h>
+#include <pthread.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/socket.h>
+#include <sys/time.h>
+#include <unistd.h>
+
+#define TEST_RING_BYTES 4096
+#define TEST_MAX_RECORDS 8192
+#define TEST_BIG_PAYLOAD (16 * 1024)
+
+typedef struct {
+    int kind;
+    int fd;
+    int msg_type;
+    size_t len;
+    uint32_t seq;
+    char ip[16];
+    int big_ok;
+} test_record_t;
+
+static test_record_t g_records[TEST_MAX_RECORDS];
+static int g_record_count = 0;
+static int g_callback_count = 0;
+static int g_consumers_paused = 0;
+static pthread_mutex_t g_mutex = PTHREAD_MUTEX_INITIALIZER;
+
+typedef struct {
+    server_context_t* server;
+    int index;
+    pthread_t thread;
+} ring_consumer_t;
+
+static void on_record(void* user_data, const inbound_record_kind_t kind, const int fd, const int msg_type, const uint8_t* payload, const size_t len) {
+    (void)user_data;
+    pthread_mutex_lock(&g_mutex);
+    if (g_record_count < TEST_MAX_RECORDS) {
+        test_record_t* record = &g_records[g_record_count++];
+        memset(record, 0, sizeof(*record));
+        record->kind = kind;
+        record->fd = fd;
+        record->msg_type = msg_type;
+        record->len = len;
+        if (kind == INBOUND_RECORD_CONNECT && len < sizeof(record->ip)) {
+            memcpy(record->ip, payload, len);
+        }
+        if (kind == INBOUND_RECORD_MESSAGE && len >= sizeof(uint32_t)) {
+            memcpy(&record->seq, payload, sizeof(uint32_t));
+        }
+        if (kind == INBOUND_RECORD_MESSAGE && len == TEST_BIG_PAYLOAD) {
+            record->big_ok = 1;
+            for (size_t i = 0; i < len; i++) {
+                if (payload[i] != (uint8_t)(i * 7)) {
+                    record->big_ok = 0;
+                    break;
+                }
+            }
+        }
+    }
+    pthread_mutex_unlock(&g_mutex);
+}
+
+static void* consumer_main(void* arg) {
+    ring_consumer_t* consumer = (ring_consumer_t*)arg;
+    for (;;) {
+        pthread_mutex_lock(&g_mutex);
+        const int paused = g_consumers_paused;
+        pthread_mutex_unlock(&g_mutex);
+
+        if (paused) {
+            usleep(1000);
+            if (server_wait_inbound(consumer->server, consumer->index, 0) < 0) {
+                return NULL;
+            }
+            continue;
+        }
+        if (server_consume_inbound(consumer->server, consumer->index, on_record, NULL, 64) == 0
+            && server_wait_inbound(consumer->server, consumer->index, 100) < 0) {
+            return NULL;
+        }
+    }
+}
+
+static void on_any_callback(void* user_data, const client_info_t* client) {
+    (void)user_data;
+    (void)client;
+    pthread_mutex_lock(&g_mutex);
+    g_callback_count++;
+    pthread_mutex_unlock(&g_mutex);
+}
+
+static void on_message_callback(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len) {
+    (void)msg_type;
+    (void)payload;
+    (void)len;
+    on_any_callback(user_data, client);
+}
+
+static void on_error(void* user_data, const int error_code, const char* message) {
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static server_context_t* start_ring_server(const int io_threads, ring_consumer_t* consumers, int* out_port) {
+    server_options_t options;
+    server_options_init(&options, 0, 16);
+    options.io_threads = io_threads;
+    options.inbound_ring_bytes = TEST_RING_BYTES;
+
+    server_context_t* server = server_create_with_options(&options);
+    if (server == NULL) {
+        return NULL;
+    }
+
+    server_register_connect_callback(server, on_any_callback, NULL);
+    server_register_complete_message_callback(server, on_message_callback, NULL);
+    server_register_disconnect_callback(server, on_any_callback, NULL);
+    server_register_error_callback(server, on_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+    *out_port = ntohs(bound.sin_port);
+
+    pthread_mutex_lock(&g_mutex);
+    g_record_count = 0;
+    g_callback_count = 0;
+    pthread_mutex_unlock(&g_mutex);
+
+    if (server_start(server) != 0) {
+        server_destroy(server);
+        return NULL;
+    }
+
+    for (int i = 0; i < server_get_inbound_ring_count(server); i++) {
+        consumers[i].server = server;
+        consumers[i].index = i;
+        pthread_create(&consumers[i].thread, NULL, consumer_main, &consumers[i]);
+    }
+    return server;
+}
+
+static void stop_ring_server(server_context_t* server, ring_consumer_t* consumers) {
+    const int count = server_get_inbound_ring_count(server);
+    server_shutdown(server);
+    for (int i = 0; i < count; i++) {
+        pthread_join(consumers[i].thread, NULL);
+    }
+    server_destroy(server);
+}
+
+static int connect_local(const int port) {
+    const int fd = create_tcp_socket();
+    if (fd < 0) {
+        return -1;
+    }
+    struct timeval timeout = { .tv_sec = 2, .tv_usec = 0 };
+    setsockopt(fd, SOL_SOCKET, SO_RCVTIMEO, &timeout, sizeof(timeout));
+
+    struct sockaddr_in addr = {
+        .sin_family = AF_INET,
+        .sin_port = htons(port),
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+    if (connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0) {
+        close_socket(fd);
+        return -1;
+    }
+    return fd;
+}
+
+static int send_all(const int fd, const uint8_t* data, const size_t len) {
+    size_t sent = 0;
+    while (sent < len) {
+        const ssize_t n = send(fd, data + sent, len - sent, MSG_NOSIGNAL);
+        if (n <= 0) {
+            return -1;
+        }
+        sent += (size_t)n;
+    }
+    return 0;
+}
+
+static int send_seq_frame(const int fd, const uint32_t seq, const size_t payload_len) {
+    uint8_t payload[256] = {0};
+    uint8_t frame[HEADER_SIZE + sizeof(payload)];
+    memcpy(payload, &seq, sizeof(seq));
+    const int frame_len = frame_message(MSG_TYPE_CHAT_TEXT, payload, payload_len, frame, sizeof(frame));
+    return frame_len < 0 ? -1 : send_all(fd, frame, (size_t)frame_len);
+}
+
+static int count_kind(const int kind) {
+    int count = 0;
+    pthread_mutex_lock(&g_mutex);
+    for (int i = 0; i < g_record_count; i++) {
+        if (g_records[i].kind == kind) {
+            count++;
+        }
+    }
+    pthread_mutex_unlock(&g_mutex);
+    return count;
+}
+
+static int wait_for_kind(const int kind, const int expected) {
+    for (int i = 0; i < 500; i++) {
+        if (count_kind(kind) >= expected) {
+            return 0;
+        }
+        usleep(10000);
+    }
+    return -1;
+}
+
+static void set_consumers_paused(const int paused) {
+    pthread_mutex_lock(&g_mutex);
+    g_consumers_paused = paused;
+    pthread_mutex_unlock(&g_mutex);
+}
+
+// 연결, 메시지(큰 메시지 포함), 연결 해제가 콜백 대신 링으로 순서대로 전달되어야 함
+TEST(test_ring_mode_delivers_lifecycle_in_order) {
+    ring_consumer_t consumers[2];
+    int port;
+    server_context_t* server = start_ring_server(2, consumers, &port);
+    ASSERT_NOT_NULL(server);
+    ASSERT_EQ_INT(server_get_inbound_ring_count(server), 2);
+    ASSERT_EQ_SIZE(server_get_inbound_ring_memory_size(server, 0), (size_t)(INBOUND_RING_HEADER_SIZE + TEST_RING_BYTES));
+    ASSERT_NULL(server_get_inbound_ring_memory(server, 2));
+
+    const int fd = connect_local(port);
+    ASSERT_TRUE(fd >= 0);
+
+    for (uint32_t seq = 0; seq < 100; seq++) {
+        ASSERT_EQ_INT(send_seq_frame(fd, seq, 8 + seq), 0);
+    }
+
+    uint8_t header[HEADER_SIZE];
+    uint8_t* big = (uint8_t*)malloc(TEST_BIG_PAYLOAD);
+    ASSERT_NOT_NULL(big);
+    for (size_t i = 0; i < TEST_BIG_PAYLOAD; i++) {
+        big[i] = (uint8_t)(i * 7);
+    }
+    ASSERT_EQ_INT(frame_header(MSG_TYPE_FILE_CHUNK, TEST_BIG_PAYLOAD, header), 0);
+    ASSERT_EQ_INT(send_all(fd, header, HEADER_SIZE), 0);
+    ASSERT_EQ_INT(send_all(fd, big, TEST_BIG_PAYLOAD), 0);
+    free(big);
+
+    close_socket(fd);
+    ASSERT_EQ_INT(wait_for_kind(INBOUND_RECORD_DISCONNECT, 1), 0);
+
+    pthread_mutex_lock(&g_mutex);
+    ASSERT_EQ_INT(g_callback_count, 0);
+    ASSERT_EQ_INT(g_record_count, 103);
+    ASSERT_EQ_INT(g_records[0].kind, INBOUND_RECORD_CONNECT);
+    ASSERT_STREQ(g_records[0].ip, "127.0.0.1");
+    for (int i = 0; i < 100; i++) {
+        ASSERT_EQ_INT(g_records[1 + i].kind, INBOUND_RECORD_MESSAGE);
+        ASSERT_EQ_INT((int)g_records[1 + i].seq, i);
+        ASSERT_EQ_SIZE(g_records[1 + i].len, (size_t)(8 + i));
+    }
+    ASSERT_EQ_INT(g_records[101].msg_type, MSG_TYPE_FILE_CHUNK);
+    ASSERT_TRUE(g_records[101].big_ok);
+    ASSERT_EQ_INT(g_records[102].kind, INBOUND_RECORD_DISCONNECT);
+    ASSERT_EQ_INT(g_records[102].fd, g_records[0].fd);
+    pthread_mutex_unlock(&g_mutex);
+
+    stop_ring_server(server, consumers);
+}
+
+// 소비자가 멈춰 링이 가득 차도 루프는 다른 클라이언트를 계속 처리하고, 나중에 모든 메시지가 순서대로 전달되어야 함
+TEST(test_full_ring_does_not_block_loop) {
+    ring_consumer_t consumers[1];
+    int port;
+    server_context_t* server = start_ring_server(1, consumers, &port);
+    ASSERT_NOT_NULL(server);
+
+    set_consumers_paused(1);
+
+    const int flooder = connect_local(port);
+    const int watcher = connect_local(port);
+    ASSERT_TRUE(flooder >= 0);
+    ASSERT_TRUE(watcher >= 0);
+
+    const int messages = 2000;
+    for (uint32_t seq = 0; seq < (uint32_t)messages; seq++) {
+        ASSERT_EQ_INT(send_seq_frame(flooder, seq, 100), 0);
+    }
+
+    // 링이 가득 찬 동안에도 루프는 다른 클라이언트로의 송신을 계속 처리해야 함
+    ASSERT_EQ_INT(server_broadcast_message(server, MSG_TYPE_CHAT_TEXT, (const uint8_t*)"hi", 2, -1), SERVER_SEND_OK);
+    uint8_t reply[HEADER_SIZE + 2];
+    ASSERT_EQ_INT((int)recv(watcher, reply, sizeof(reply), MSG_WAITALL), (int)sizeof(reply));
+    ASSERT_MEMEQ(reply + HEADER_SIZE, "hi", 2);
+    ASSERT_TRUE(server_get_inbound_overflow_count(server) > 0);
+
+    set_consumers_paused(0);
+    ASSERT_EQ_INT(wait_for_kind(INBOUND_RECORD_MESSAGE, messages), 0);
+
+    pthread_mutex_lock(&g_mutex);
+    uint32_t expected = 0;
+    int flooder_fd = -1;
+    for (int i = 0; i < g_record_count; i++) {
+        if (g_records[i].kind == INBOUND_RECORD_CONNECT && flooder_fd < 0) {
+            flooder_fd = g_records[i].fd;
+        }
+        if (g_records[i].kind == INBOUND_RECORD_MESSAGE && g_records[i].fd == flooder_fd) {
+            ASSERT_EQ_INT((int)g_records[i].seq, (int)expected);
+            expected++;
+        }
+    }
+    pthread_mutex_unlock(&g_mutex);
+    ASSERT_EQ_INT((int)expected, messages);
+
+    close_socket(flooder);
+    close_socket(watcher);
+    stop_ring_server(server, consumers);
+}
+
+// 소비자가 DISCONNECT를 읽기 전에는 fd를 닫지 않으므로, 새 연결이 같은 fd 번호를 받지 않아야 함
+TEST(test_fd_reused_only_after_disconnect_consumed) {
+    ring_consumer_t consumers[1];
+    int port;
+    server_context_t* server = start_ring_server(1, consumers, &port);
+    ASSERT_NOT_NULL(server);
+
+    set_consumers_paused(1);
+
+    const int first = connect_local(port);
+    ASSERT_TRUE(first >= 0);
+    usleep(50000);
+    close_socket(first);
+    usleep(50000);
+
+    const int second = connect_local(port);
+    ASSERT_TRUE(second >= 0);
+    usleep(50000);
+
+    set_consumers_paused(0);
+    ASSERT_EQ_INT(wait_for_kind(INBOUND_RECORD_CONNECT, 2), 0);
+
+    pthread_mutex_lock(&g_mutex);
+    ASSERT_EQ_INT(g_records[0].kind, INBOUND_RECORD_CONNECT);
+    ASSERT_EQ_INT(g_records[1].kind, INBOUND_RECORD_DISCONNECT);
+    ASSERT_EQ_INT(g_records[2].kind, INBOUND_RECORD_CONNECT);
+    ASSERT_TRUE(g_records[2].fd != g_records[0].fd);
+    pthread_mutex_unlock(&g_mutex);
+
+    // 소비가 끝났으므로 미뤄 둔 fd가 곧 닫혀야 함 (테스트와 서버가 같은 프로세스이므로 fd를 직접 확인)
+    pthread_mutex_lock(&g_mutex);
+    const int first_fd = g_records[0].fd;
+    pthread_mutex_unlock(&g_mutex);
+    int closed = 0;
+    for (int i = 0; i < 200 && !closed; i++) {
+        closed = fcntl(first_fd, F_GETFD) < 0;
+        usleep(5000);
+    }
+    ASSERT_TRUE(closed);
+
+    close_socket(second);
+    stop_ring_server(server, consumers);
+}
+
+TEST(test_callback_mode_has_no_rings) {
+    server_context_t* server = server_create(0, 4);
+    ASSERT_NOT_NULL(server);
+    ASSERT_EQ_INT(server_get_inbound_ring_count(server), 0);
+    ASSERT_NULL(server_get_inbound_ring_memory(server, 0));
+    ASSERT_EQ_INT(server_wait_inbound(server, 0, 0), -1);
+    server_destroy(server);
+}
+
+int main(void) {
+    test_init("Server Inbound Ring Tests");
+
+    RUN_TEST(test_callback_mode_has_no_rings);
+    RUN_TEST(test_ring_mode_delivers_lifecycle_in_order);
+    RUN_TEST(test_full_ring_does_not_block_loop);
+    RUN_TEST(test_fd_reused_only_after_disconnect_consumed);
+
+    test_finish();
+}
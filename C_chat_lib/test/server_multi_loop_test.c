@@ -0,0 +1,522 @@
+//
+// 다중 이벤트 루프(io_threads > 1) 서버 테스트
+//
+
+#include "test_framework.h"
+#include "chat_server.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <pthread.h>
+#include <sys/socket.h>
+#include <sys/time.h>
+#include <unistd.h>
+
+#define TEST_IO_THREADS 4
+#define TEST_CLIENTS 8
+#define TEST_BURST 100
+
+static int g_connected = 0;
+static int g_server_fds[TEST_CLIENTS];
+static pthread_mutex_t g_mutex = PTHREAD_MUTEX_INITIALIZER;
+
+static void on_connect(void* user_data, const client_info_t* client) {
+    (void)user_data;
+    pthread_mutex_lock(&g_mutex);
+    if (g_connected < TEST_CLIENTS) {
+        g_server_fds[g_connected] = client->socket_fd;
+    }
+    g_connected++;
+    pthread_mutex_unlock(&g_mutex);
+}
+
+static void on_disconnect(void* user_data, const client_info_t* client) {
+    (void)user_data;
+    (void)client;
+    pthread_mutex_lock(&g_mutex);
+    g_connected--;
+    pthread_mutex_unlock(&g_mutex);
+}
+
+// 수신한 CHAT_TEXT를 보낸 클라이언트에게 그대로 돌려줌. FILE_REQUEST를 받으면 TEST_BURST번 연달아 돌려줌
+static void on_echo(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len) {
+    if (msg_type == MSG_TYPE_CHAT_TEXT) {
+        server_send_payload_to_client((server_context_t*)user_data, client->socket_fd, msg_type, payload, len);
+    } else if (msg_type == MSG_TYPE_FILE_REQUEST) {
+        for (int i = 0; i < TEST_BURST; i++) {
+            server_send_payload_to_client((server_context_t*)user_data, client->socket_fd, msg_type, payload, len);
+        }
+    }
+}
+
+static void on_error(void* user_data, const int error_code, const char* message) {
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static int get_connected(void) {
+    pthread_mutex_lock(&g_mutex);
+    const int n = g_connected;
+    pthread_mutex_unlock(&g_mutex);
+    return n;
+}
+
+static server_context_t* start_server(const int max_clients, const int io_threads, int* out_port) {
+    server_options_t options;
+    server_options_init(&options, 0, max_clients);
+    options.io_threads = io_threads;
+
+    server_context_t* server = server_create_with_options(&options);
+    if (server == NULL) {
+        return NULL;
+    }
+
+    server_register_connect_callback(server, on_connect, NULL);
+    server_register_complete_message_callback(server, on_echo, server);
+    server_register_disconnect_callback(server, on_disconnect, NULL);
+    server_register_error_callback(server, on_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+    *out_port = ntohs(bound.sin_port);
+
+    if (server_start(server) != 0) {
+        server_destroy(server);
+        return NULL;
+    }
+    return server;
+}
+
+static int connect_local(const int port) {
+    const int fd = create_tcp_socket();
+    if (fd < 0) {
+        return -1;
+    }
+
+    struct timeval timeout = { .tv_sec = 2, .tv_usec = 0 };
+    setsockopt(fd, SOL_SOCKET, SO_RCVTIMEO, &timeout, sizeof(timeout));
+
+    struct sockaddr_in addr = {
+        .sin_family = AF_INET,
+        .sin_port = htons(port),
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+    if (connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0) {
+        close_socket(fd);
+        return -1;
+    }
+    return fd;
+}
+
+// 프레임 하나를 읽어 payload를 out에 복사하고 payload 길이를 반환, 실패 시 -1
+static int read_frame(const int fd, uint8_t* out, const size_t out_len) {
+    uint8_t header[HEADER_SIZE];
+    size_t received = 0;
+
+    while (received < HEADER_SIZE) {
+        const ssize_t n = recv(fd, header + received, HEADER_SIZE - received, 0);
+        if (n <= 0) {
+            return -1;
+        }
+        received += (size_t)n;
+    }
+
+    uint32_t net_len;
+    memcpy(&net_len, header + 1, sizeof(net_len));
+    const uint32_t payload_len = ntohl(net_len);
+    if (payload_len > out_len) {
+        return -1;
+    }
+
+    received = 0;
+    while (received < payload_len) {
+        const ssize_t n = recv(fd, out + received, payload_len - received, 0);
+        if (n <= 0) {
+            return -1;
+        }
+        received += (size_t)n;
+    }
+    return (int)payload_len;
+}
+
+static void wait_connected(const int expected) {
+    for (int i = 0; i < 200 && get_connected() != expected; i++) {
+        usleep(10000);
+    }
+}
+
+TEST(test_invalid_io_threads) {
+    server_options_t options;
+    server_options_init(&options, 0, 4);
+    ASSERT_EQ_INT(options.io_threads, 1);
+
+    options.io_threads = 0;
+    ASSERT_NULL(server_create_with_options(&options));
+
+    options.io_threads = SERVER_MAX_IO_THREADS + 1;
+    ASSERT_NULL(server_create_with_options(&options));
+
+    options.io_threads = 2;
+    server_context_t* server = server_create_with_options(&options);
+    ASSERT_NOT_NULL(server);
+    ASSERT_EQ_INT(server_get_io_threads(server), 2);
+    ASSERT_EQ_INT(server_get_loop_client_count(server, 2), -1);
+    server_destroy(server);
+}
+
+TEST(test_clients_spread_across_loops) {
+    int port;
+    g_connected = 0;
+    server_context_t* server = start_server(TEST_CLIENTS, TEST_IO_THREADS, &port);
+    ASSERT_NOT_NULL(server);
+
+    int fds[TEST_CLIENTS];
+    for (int i = 0; i < TEST_CLIENTS; i++) {
+        fds[i] = connect_local(port);
+        ASSERT_TRUE(fds[i] >= 0);
+    }
+    wait_connected(TEST_CLIENTS);
+    ASSERT_EQ_INT(get_connected(), TEST_CLIENTS);
+
+    // 연결은 루프에 돌아가며 배정됨
+    for (int i = 0; i < TEST_IO_THREADS; i++) {
+        ASSERT_EQ_INT(server_get_loop_client_count(server, i), TEST_CLIENTS / TEST_IO_THREADS);
+    }
+
+    // 각 클라이언트의 메시지는 자신을 소유한 루프에서 에코됨
+    for (int i = 0; i < TEST_CLIENTS; i++) {
+        char text[32];
+        snprintf(text, sizeof(text), "echo %d", i);
+
+        uint8_t frame[64];
+        const int frame_len = frame_message(MSG_TYPE_CHAT_TEXT, (const uint8_t*)text, strlen(text), frame, sizeof(frame));
+        ASSERT_EQ_INT((int)send(fds[i], frame, frame_len, 0), frame_len);
+
+        uint8_t reply[64];
+        const int reply_len = read_frame(fds[i], reply, sizeof(reply));
+        ASSERT_EQ_INT(reply_len, (int)strlen(text));
+        ASSERT_TRUE(memcmp(reply, text, reply_len) == 0);
+    }
+
+    for (int i = 0; i < TEST_CLIENTS; i++) {
+        close_socket(fds[i]);
+    }
+    wait_connected(0);
+    ASSERT_EQ_INT(get_connected(), 0);
+
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+TEST(test_broadcast_reaches_every_loop) {
+    int port;
+    g_connected = 0;
+    server_context_t* server = start_server(TEST_CLIENTS, TEST_IO_THREADS, &port);
+    ASSERT_NOT_NULL(server);
+
+    int fds[TEST_CLIENTS];
+    for (int i = 0; i < TEST_CLIENTS; i++) {
+        fds[i] = connect_local(port);
+        ASSERT_TRUE(fds[i] >= 0);
+    }
+    wait_connected(TEST_CLIENTS);
+
+    server_copy_stats_t before;
+    server_get_copy_stats(server, &before);
+
+    const char* notice = "hello every loop";
+    ASSERT_EQ_INT(server_broadcast_message(server, MSG_TYPE_SERVER_NOTICE, (const uint8_t*)notice, strlen(notice), -1), 0);
+
+    for (int i = 0; i < TEST_CLIENTS; i++) {
+        uint8_t reply[64];
+        const int reply_len = read_frame(fds[i], reply, sizeof(reply));
+        ASSERT_EQ_INT(reply_len, (int)strlen(notice));
+        ASSERT_TRUE(memcmp(reply, notice, reply_len) == 0);
+    }
+
+    // 루프와 수신자 수에 관계없이 프레임은 한 번만 만들어짐
+    server_copy_stats_t after;
+    server_get_copy_stats(server, &after);
+    ASSERT_EQ_INT((int)(after.copies - before.copies), 1);
+    ASSERT_EQ_INT((int)(after.bytes - before.bytes), HEADER_SIZE + (int)strlen(notice));
+
+    for (int i = 0; i < TEST_CLIENTS; i++) {
+        close_socket(fds[i]);
+    }
+    wait_connected(0);
+
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+TEST(test_max_clients_is_global) {
+    int port;
+    g_connected = 0;
+    server_context_t* server = start_server(3, 2, &port);
+    ASSERT_NOT_NULL(server);
+
+    int fds[3];
+    for (int i = 0; i < 3; i++) {
+        fds[i] = connect_local(port);
+        ASSERT_TRUE(fds[i] >= 0);
+    }
+    wait_connected(3);
+    ASSERT_EQ_INT(get_connected(), 3);
+
+    // 루프마다 여유 슬롯이 있어도 서버 전체 한도를 넘으면 거절됨
+    const int extra = connect_local(port);
+    ASSERT_TRUE(extra >= 0);
+
+    char buf[128];
+    ssize_t n;
+    size_t total = 0;
+    while ((n = recv(extra, buf + total, sizeof(buf) - 1 - total, 0)) > 0) {
+        total += (size_t)n;
+    }
+    buf[total] = '\0';
+    ASSERT_TRUE(strstr(buf, "filled up") != NULL);
+    ASSERT_EQ_INT(get_connected(), 3);
+    close_socket(extra);
+
+    for (int i = 0; i < 3; i++) {
+        close_socket(fds[i]);
+    }
+    wait_connected(0);
+
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+TEST(test_restart_after_shutdown) {
+    int port;
+    g_connected = 0;
+    server_context_t* server = start_server(4, TEST_IO_THREADS, &port);
+    ASSERT_NOT_NULL(server);
+
+    server_shutdown(server);
+    ASSERT_EQ_INT(server->server_state, SERVER_STATE_STOPPED);
+
+    // 모든 루프가 멈춘 뒤 다시 시작해도 정상적으로 연결을 받아야 함
+    ASSERT_EQ_INT(server_start(server), 0);
+
+    const int fd = connect_local(port);
+    ASSERT_TRUE(fd >= 0);
+    wait_connected(1);
+    ASSERT_EQ_INT(get_connected(), 1);
+
+    close_socket(fd);
+    wait_connected(0);
+
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+TEST(test_wakeups_are_coalesced) {
+    int port;
+    g_connected = 0;
+    server_context_t* server = start_server(2, 1, &port);
+    ASSERT_NOT_NULL(server);
+
+    const int fd = connect_local(port);
+    ASSERT_TRUE(fd >= 0);
+    wait_connected(1);
+
+    server_wakeup_stats_t before;
+    server_get_wakeup_stats(server, &before);
+
+    // 루프 쓰레드가 콜백 안에서 연달아 넣은 커맨드는 큐가 비기 전까지 한 번만 깨움
+    const char* text = "burst";
+    uint8_t frame[64];
+    const int frame_len = frame_message(MSG_TYPE_FILE_REQUEST, (const uint8_t*)text, strlen(text), frame, sizeof(frame));
+    ASSERT_EQ_INT((int)send(fd, frame, frame_len, 0), frame_len);
+
+    for (int i = 0; i < TEST_BURST; i++) {
+        uint8_t reply[64];
+        ASSERT_EQ_INT(read_frame(fd, reply, sizeof(reply)), (int)strlen(text));
+    }
+
+    server_wakeup_stats_t after;
+    server_get_wakeup_stats(server, &after);
+    ASSERT_EQ_INT((int)(after.signals - before.signals), 1);
+    ASSERT_EQ_INT((int)(after.wakeups - before.wakeups), 1);
+
+    close_socket(fd);
+    wait_connected(0);
+
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+// 배치 버퍼에 항목 하나를 이어 붙이고 다음 위치를 반환
+static size_t put_batch_entry(uint8_t* batch, size_t offset, const int kind, const int fd, const message_type_t type, const char* text) {
+    const server_batch_entry_header_t header = {
+        .kind = kind,
+        .fd = fd,
+        .msg_type = type,
+        .payload_len = (uint32_t)strlen(text),
+    };
+    memcpy(batch + offset, &header, SERVER_BATCH_ENTRY_HEADER_SIZE);
+    memcpy(batch + offset + SERVER_BATCH_ENTRY_HEADER_SIZE, text, strlen(text));
+    return offset + SERVER_BATCH_ENTRY_HEADER_SIZE + strlen(text);
+}
+
+TEST(test_submit_batch_wakes_each_loop_once) {
+    int port;
+    g_connected = 0;
+    server_context_t* server = start_server(TEST_CLIENTS, 2, &port);
+    ASSERT_NOT_NULL(server);
+
+    // 연결은 루프에 돌아가며 배정되므로 두 클라이언트는 서로 다른 루프에 속함
+    const int fd_a = connect_local(port);
+    wait_connected(1);
+    const int fd_b = connect_local(port);
+    wait_connected(2);
+    ASSERT_TRUE(fd_a >= 0 && fd_b >= 0);
+
+    pthread_mutex_lock(&g_mutex);
+    const int server_fd_a = g_server_fds[0];
+    const int server_fd_b = g_server_fds[1];
+    pthread_mutex_unlock(&g_mutex);
+
+    uint8_t batch[256];
+    size_t batch_len = 0;
+    batch_len = put_batch_entry(batch, batch_len, SERVER_BATCH_SEND, server_fd_a, MSG_TYPE_CHAT_TEXT, "one");
+    batch_len = put_batch_entry(batch, batch_len, SERVER_BATCH_SEND, server_fd_a, MSG_TYPE_CHAT_TEXT, "two");
+    batch_len = put_batch_entry(batch, batch_len, SERVER_BATCH_BROADCAST, server_fd_a, MSG_TYPE_SERVER_NOTICE, "all");
+    batch_len = put_batch_entry(batch, batch_len, SERVER_BATCH_SEND, server_fd_b, MSG_TYPE_CHAT_TEXT, "three");
+
+    // 형식이 잘못된 배치는 아무것도 넣지 않음
+    ASSERT_EQ_INT(server_submit_batch(server, batch, batch_len - 1, NULL, 0), SERVER_SEND_FAILED);
+
+    server_wakeup_stats_t before;
+    server_get_wakeup_stats(server, &before);
+
+    int8_t results[4] = {-1, -1, -1, -1};
+    ASSERT_EQ_INT(server_submit_batch(server, batch, batch_len, results, 4), 4);
+    for (int i = 0; i < 4; i++) {
+        ASSERT_EQ_INT(results[i], SERVER_SEND_OK);
+    }
+
+    const char* expected_a[] = {"one", "two"};
+    const char* expected_b[] = {"all", "three"};
+    for (int i = 0; i < 2; i++) {
+        uint8_t reply[64];
+        int reply_len = read_frame(fd_a, reply, sizeof(reply));
+        ASSERT_EQ_INT(reply_len, (int)strlen(expected_a[i]));
+        ASSERT_TRUE(memcmp(reply, expected_a[i], reply_len) == 0);
+
+        reply_len = read_frame(fd_b, reply, sizeof(reply));
+        ASSERT_EQ_INT(reply_len, (int)strlen(expected_b[i]));
+        ASSERT_TRUE(memcmp(reply, expected_b[i], reply_len) == 0);
+    }
+
+    // 항목이 네 개여도 두 루프를 한 번씩만 깨움
+    server_wakeup_stats_t after;
+    server_get_wakeup_stats(server, &after);
+    ASSERT_EQ_INT((int)(after.signals - before.signals), 2);
+
+    close_socket(fd_a);
+    close_socket(fd_b);
+    wait_connected(0);
+
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+// 그룹 항목은 헤더의 group_id까지 채움
+static size_t put_group_batch_entry(uint8_t* batch, const size_t offset, const int group_id, const int exclude_fd, const message_type_t type, const char* text) {
+    const size_t next = put_batch_entry(batch, offset, SERVER_BATCH_GROUP, exclude_fd, type, text);
+    const int32_t group = group_id;
+    memcpy(batch + offset + offsetof(server_batch_entry_header_t, group_id), &group, sizeof(group));
+    return next;
+}
+
+// 다음에 읽히는 프레임이 expected인지 확인. 그룹 메시지가 오지 않아야 하는 클라이언트는 직접 보낸 표식이 먼저 읽혀야 함
+static int next_frame_is(const int fd, const char* expected) {
+    uint8_t reply[64];
+    const int reply_len = read_frame(fd, reply, sizeof(reply));
+    return reply_len == (int)strlen(expected) && memcmp(reply, expected, reply_len) == 0;
+}
+
+TEST(test_group_broadcast_reaches_only_members) {
+    int port;
+    g_connected = 0;
+    server_context_t* server = start_server(TEST_CLIENTS, 2, &port);
+    ASSERT_NOT_NULL(server);
+
+    // 0, 2번은 0번 루프, 1, 3번은 1번 루프에 배정됨
+    int fds[4];
+    int server_fds[4];
+    for (int i = 0; i < 4; i++) {
+        fds[i] = connect_local(port);
+        ASSERT_TRUE(fds[i] >= 0);
+        wait_connected(i + 1);
+    }
+    pthread_mutex_lock(&g_mutex);
+    memcpy(server_fds, g_server_fds, sizeof(server_fds));
+    pthread_mutex_unlock(&g_mutex);
+
+    const int room = 7;
+    ASSERT_EQ_INT(server_group_join(server, room, server_fds[0]), 0);
+    ASSERT_EQ_INT(server_group_join(server, room, server_fds[1]), 0);
+    ASSERT_EQ_INT(server_group_join(server, room, server_fds[3]), 0);
+    ASSERT_EQ_INT(server_group_join(server, -1, server_fds[0]), -1);
+    ASSERT_EQ_INT(server_group_broadcast(server, -1, MSG_TYPE_SERVER_NOTICE, (const uint8_t*)"x", 1, -1), SERVER_SEND_FAILED);
+
+    // 보낸 사람(0번)과 멤버가 아닌 2번은 받지 않음
+    const char* text = "room hello";
+    ASSERT_EQ_INT(server_group_broadcast(server, room, MSG_TYPE_CHAT_TEXT, (const uint8_t*)text, strlen(text), server_fds[0]), SERVER_SEND_OK);
+    server_send_payload_to_client(server, server_fds[0], MSG_TYPE_CHAT_TEXT, (const uint8_t*)"marker", 6);
+    server_send_payload_to_client(server, server_fds[2], MSG_TYPE_CHAT_TEXT, (const uint8_t*)"marker", 6);
+
+    ASSERT_TRUE(next_frame_is(fds[1], text));
+    ASSERT_TRUE(next_frame_is(fds[3], text));
+    ASSERT_TRUE(next_frame_is(fds[0], "marker"));
+    ASSERT_TRUE(next_frame_is(fds[2], "marker"));
+
+    // 탈퇴한 멤버와 연결이 끊긴 멤버는 빠지고, 배치의 그룹 항목도 같은 규칙을 따름
+    ASSERT_EQ_INT(server_group_leave(server, room, server_fds[1]), 0);
+    close_socket(fds[3]);
+    wait_connected(3);
+
+    uint8_t batch[128];
+    const size_t batch_len = put_group_batch_entry(batch, 0, room, -1, MSG_TYPE_CHAT_TEXT, "batched");
+    int8_t result = -1;
+    ASSERT_EQ_INT(server_submit_batch(server, batch, batch_len, &result, 1), 1);
+    ASSERT_EQ_INT(result, SERVER_SEND_OK);
+    server_send_payload_to_client(server, server_fds[1], MSG_TYPE_CHAT_TEXT, (const uint8_t*)"marker", 6);
+
+    ASSERT_TRUE(next_frame_is(fds[0], "batched"));
+    ASSERT_TRUE(next_frame_is(fds[1], "marker"));
+
+    // 음수 group_id의 그룹 항목은 형식 오류
+    const size_t bad_len = put_group_batch_entry(batch, 0, -1, -1, MSG_TYPE_CHAT_TEXT, "bad");
+    ASSERT_EQ_INT(server_submit_batch(server, batch, bad_len, NULL, 0), SERVER_SEND_FAILED);
+
+    for (int i = 0; i < 3; i++) {
+        close_socket(fds[i]);
+    }
+    wait_connected(0);
+
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+int main(void) {
+    test_init("Server Multi Loop Tests");
+
+    RUN_TEST(test_invalid_io_threads);
+    RUN_TEST(test_clients_spread_across_loops);
+    RUN_TEST(test_broadcast_reaches_every_loop);
+    RUN_TEST(test_max_clients_is_global);
+    RUN_TEST(test_restart_after_shutdown);
+    RUN_TEST(test_wakeups_are_coalesced);
+    RUN_TEST(test_submit_batch_wakes_each_loop_once);
+    RUN_TEST(test_group_broadcast_reaches_only_members);
+
+    test_finish();
+
+    return test_get_exit_code();
+}
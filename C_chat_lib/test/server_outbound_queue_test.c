@@ -0,0 +1,397 @@
+//
+// 논블로킹 송신 대기열과 느린 수신자 정책 테스트
+//
+
+#include "test_framework.h"
+#include "chat_server.h"
+#include "protocol.h"
+#include "socket_utils.h"
+#include <arpa/inet.h>
+#include <errno.h>
+#include <pthread.h>
+#include <stdlib.h>
+#include <sys/socket.h>
+#include <sys/time.h>
+#include <unistd.h>
+
+#define TEST_LIMIT (64 * 1024)
+#define TEST_PAYLOAD_SIZE 4000
+#define TEST_LARGE_PAYLOAD_SIZE (256 * 1024)
+
+static int g_last_connected_fd = -1;
+static int g_connected = 0;
+static int g_disconnected = 0;
+static pthread_mutex_t g_mutex = PTHREAD_MUTEX_INITIALIZER;
+
+static void on_connect(void* user_data, const client_info_t* client) {
+    (void)user_data;
+    pthread_mutex_lock(&g_mutex);
+    g_last_connected_fd = client->socket_fd;
+    g_connected++;
+    pthread_mutex_unlock(&g_mutex);
+}
+
+static void on_disconnect(void* user_data, const client_info_t* client) {
+    (void)user_data;
+    (void)client;
+    pthread_mutex_lock(&g_mutex);
+    g_disconnected++;
+    pthread_mutex_unlock(&g_mutex);
+}
+
+static void on_echo(void* user_data, const client_info_t* client, const message_type_t msg_type, const uint8_t* payload, const size_t len) {
+    server_send_payload_to_client((server_context_t*)user_data, client->socket_fd, msg_type, payload, len);
+}
+
+static void on_error(void* user_data, const int error_code, const char* message) {
+    (void)user_data;
+    (void)error_code;
+    (void)message;
+}
+
+static server_context_t* start_server(const slow_consumer_policy_t policy, int* out_port) {
+    server_options_t options;
+    server_options_init(&options, 0, 8);
+    options.slow_consumer_policy = policy;
+    options.max_outbound_bytes = TEST_LIMIT;
+
+    server_context_t* server = server_create_with_options(&options);
+    if (server == NULL) {
+        return NULL;
+    }
+
+    server_register_connect_callback(server, on_connect, NULL);
+    server_register_complete_message_callback(server, on_echo, server);
+    server_register_disconnect_callback(server, on_disconnect, NULL);
+    server_register_error_callback(server, on_error, NULL);
+
+    struct sockaddr_in bound;
+    socklen_t bound_len = sizeof(bound);
+    getsockname(server->listening_socket_fd, (struct sockaddr*)&bound, &bound_len);
+    *out_port = ntohs(bound.sin_port);
+
+    g_connected = 0;
+    g_disconnected = 0;
+    g_last_connected_fd = -1;
+
+    if (server_start(server) != 0) {
+        server_destroy(server);
+        return NULL;
+    }
+    return server;
+}
+
+// 서버 쪽 fd를 함께 돌려주는 연결 헬퍼. 수신 버퍼를 작게 잡아 빨리 막히게 함
+static int connect_local(const int port, int* out_server_fd) {
+    const int fd = create_tcp_socket();
+    if (fd < 0) {
+        return -1;
+    }
+
+    const int rcvbuf = 4096;
+    setsockopt(fd, SOL_SOCKET, SO_RCVBUF, &rcvbuf, sizeof(rcvbuf));
+    struct timeval timeout = { .tv_sec = 2, .tv_usec = 0 };
+    setsockopt(fd, SOL_SOCKET, SO_RCVTIMEO, &timeout, sizeof(timeout));
+
+    pthread_mutex_lock(&g_mutex);
+    const int before = g_connected;
+    pthread_mutex_unlock(&g_mutex);
+
+    struct sockaddr_in addr = {
+        .sin_family = AF_INET,
+        .sin_port = htons(port),
+        .sin_addr.s_addr = htonl(INADDR_LOOPBACK),
+    };
+    if (connect(fd, (struct sockaddr*)&addr, sizeof(addr)) < 0) {
+        close_socket(fd);
+        return -1;
+    }
+
+    for (int i = 0; i < 200; i++) {
+        pthread_mutex_lock(&g_mutex);
+        const int now = g_connected;
+        *out_server_fd = g_last_connected_fd;
+        pthread_mutex_unlock(&g_mutex);
+        if (now > before) {
+            return fd;
+        }
+        usleep(10000);
+    }
+    close_socket(fd);
+    return -1;
+}
+
+// 읽지 않는 클라이언트에게 결과가 OK가 아닐 때까지 보냄. 마지막 결과를 반환
+static int flood_until_policy(server_context_t* server, const int server_fd) {
+    static uint8_t payload[TEST_PAYLOAD_SIZE];
+    int result = SERVER_SEND_OK;
+
+    for (int i = 0; i < 20000 && result == SERVER_SEND_OK; i++) {
+        result = server_send_payload_to_client(server, server_fd, MSG_TYPE_FILE_CHUNK, payload, sizeof(payload));
+        if (i % 16 == 0) {
+            usleep(1000);
+        }
+    }
+    return result;
+}
+
+// 프레임 단위로 읽어 헤더가 온전한지 확인하며 모두 비움. 읽은 프레임 수 반환, 프레임이 깨졌으면 -1
+static int drain_frames(const int fd) {
+    int frames = 0;
+    uint8_t payload[TEST_PAYLOAD_SIZE + 64];
+
+    for (;;) {
+        uint8_t header[HEADER_SIZE];
+        size_t received = 0;
+        while (received < HEADER_SIZE) {
+            const ssize_t n = recv(fd, header + received, HEADER_SIZE - received, 0);
+            if (n <= 0) {
+                return frames;
+            }
+            received += (size_t)n;
+        }
+
+        uint32_t net_len;
+        memcpy(&net_len, header + 1, sizeof(net_len));
+        const uint32_t len = ntohl(net_len);
+        if (header[0] != (uint8_t)MSG_TYPE_FILE_CHUNK || len > sizeof(payload)) {
+            return -1;
+        }
+
+        received = 0;
+        while (received < len) {
+            const ssize_t n = recv(fd, payload + received, len - received, 0);
+            if (n <= 0) {
+                return -1;
+            }
+            received += (size_t)n;
+        }
+        frames++;
+    }
+}
+
+static int echo_round_trip(const int fd, const char* text) {
+    uint8_t frame[64];
+    const int frame_len = frame_message(MSG_TYPE_CHAT_TEXT, (const uint8_t*)text, strlen(text), frame, sizeof(frame));
+    if (send(fd, frame, frame_len, 0) != frame_len) {
+        return -1;
+    }
+
+    uint8_t reply[64];
+    size_t received = 0;
+    while (received < (size_t)frame_len) {
+        const ssize_t n = recv(fd, reply + received, frame_len - received, 0);
+        if (n <= 0) {
+            return -1;
+        }
+        received += (size_t)n;
+    }
+    return memcmp(reply, frame, frame_len) == 0 ? 0 : -1;
+}
+
+// 4KB를 훨씬 넘는 프레임도 헤더와 payload가 온전히 왕복해야 함
+TEST(test_large_frame_round_trip) {
+    int port;
+    server_context_t* server = start_server(SLOW_CONSUMER_DISCONNECT, &port);
+    ASSERT_NOT_NULL(server);
+
+    int server_fd = -1;
+    const int fd = connect_local(port, &server_fd);
+    ASSERT_TRUE(fd >= 0);
+
+    const size_t payload_len = TEST_LARGE_PAYLOAD_SIZE;
+    uint8_t* payload = (uint8_t*)malloc(payload_len);
+    uint8_t* reply = (uint8_t*)malloc(payload_len);
+    ASSERT_NOT_NULL(payload);
+    ASSERT_NOT_NULL(reply);
+    for (size_t i = 0; i < payload_len; i++) {
+        payload[i] = (uint8_t)(i * 31);
+    }
+
+    uint8_t header[HEADER_SIZE];
+    ASSERT_EQ_INT(frame_header(MSG_TYPE_FILE_CHUNK, payload_len, header), 0);
+    ASSERT_EQ_INT((int)send(fd, header, HEADER_SIZE, 0), HEADER_SIZE);
+
+    size_t sent = 0;
+    while (sent < payload_len) {
+        const ssize_t n = send(fd, payload + sent, payload_len - sent, 0);
+        ASSERT_TRUE(n > 0);
+        sent += (size_t)n;
+    }
+
+    uint8_t reply_header[HEADER_SIZE];
+    size_t received = 0;
+    while (received < HEADER_SIZE) {
+        const ssize_t n = recv(fd, reply_header + received, HEADER_SIZE - received, 0);
+        ASSERT_TRUE(n > 0);
+        received += (size_t)n;
+    }
+    ASSERT_MEMEQ(reply_header, header, HEADER_SIZE);
+
+    received = 0;
+    while (received < payload_len) {
+        const ssize_t n = recv(fd, reply + received, payload_len - received, 0);
+        ASSERT_TRUE(n > 0);
+        received += (size_t)n;
+    }
+    ASSERT_MEMEQ(reply, payload, payload_len);
+
+    free(payload);
+    free(reply);
+    close_socket(fd);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+TEST(test_invalid_slow_consumer_options) {
+    server_options_t options;
+    server_options_init(&options, 0, 4);
+    ASSERT_EQ_INT(options.slow_consumer_policy, SLOW_CONSUMER_DISCONNECT);
+    ASSERT_TRUE(options.max_outbound_bytes == SERVER_DEFAULT_MAX_OUTBOUND_BYTES);
+
+    options.max_outbound_bytes = 0;
+    ASSERT_NULL(server_create_with_options(&options));
+
+    options.max_outbound_bytes = TEST_LIMIT;
+    options.slow_consumer_policy = (slow_consumer_policy_t)7;
+    ASSERT_NULL(server_create_with_options(&options));
+}
+
+TEST(test_drop_new_does_not_stall_others) {
+    int port;
+    server_context_t* server = start_server(SLOW_CONSUMER_DROP_NEW, &port);
+    ASSERT_NOT_NULL(server);
+
+    int slow_server_fd = -1;
+    int fast_server_fd = -1;
+    const int slow_fd = connect_local(port, &slow_server_fd);
+    const int fast_fd = connect_local(port, &fast_server_fd);
+    ASSERT_TRUE(slow_fd >= 0);
+    ASSERT_TRUE(fast_fd >= 0);
+
+    ASSERT_EQ_INT(flood_until_policy(server, slow_server_fd), SERVER_SEND_DROPPED);
+    ASSERT_TRUE(server_get_dropped_frame_count(server) > 0);
+
+    const size_t backlog = server_get_outbound_backlog(server, slow_server_fd);
+    ASSERT_TRUE(backlog > 0);
+    ASSERT_TRUE(backlog <= TEST_LIMIT + TEST_PAYLOAD_SIZE + HEADER_SIZE);
+
+    // 막힌 클라이언트가 있어도 다른 클라이언트의 요청은 바로 처리되어야 함
+    ASSERT_EQ_INT(echo_round_trip(fast_fd, "still responsive"), 0);
+
+    // 느린 수신자가 있는 동안 브로드캐스트는 PARTIAL을 알려줌
+    const char* notice = "notice";
+    ASSERT_EQ_INT(server_broadcast_message(server, MSG_TYPE_SERVER_NOTICE, (const uint8_t*)notice, strlen(notice), slow_server_fd), SERVER_SEND_PARTIAL);
+
+    close_socket(slow_fd);
+    close_socket(fast_fd);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+TEST(test_drop_oldest_keeps_stream_intact) {
+    int port;
+    server_context_t* server = start_server(SLOW_CONSUMER_DROP_OLDEST, &port);
+    ASSERT_NOT_NULL(server);
+
+    int server_fd = -1;
+    const int fd = connect_local(port, &server_fd);
+    ASSERT_TRUE(fd >= 0);
+
+    ASSERT_EQ_INT(flood_until_policy(server, server_fd), SERVER_SEND_DROPPED_OLDEST);
+
+    // 루프가 대기열을 정리할 시간을 줌
+    usleep(100000);
+    ASSERT_TRUE(server_get_dropped_frame_count(server) > 0);
+    ASSERT_TRUE(server_get_outbound_backlog(server, server_fd) <= TEST_LIMIT);
+
+    // 오래된 프레임이 버려져도 프레임 경계는 온전해야 하며, 다 읽으면 대기열이 비워짐
+    struct timeval timeout = { .tv_sec = 0, .tv_usec = 300000 };
+    setsockopt(fd, SOL_SOCKET, SO_RCVTIMEO, &timeout, sizeof(timeout));
+    const int frames = drain_frames(fd);
+    ASSERT_TRUE(frames > 0);
+    ASSERT_EQ_INT((int)server_get_outbound_backlog(server, server_fd), 0);
+
+    const char* notice = "notice";
+    ASSERT_EQ_INT(server_broadcast_message(server, MSG_TYPE_SERVER_NOTICE, (const uint8_t*)notice, strlen(notice), -1), SERVER_SEND_OK);
+
+    close_socket(fd);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+TEST(test_disconnect_policy) {
+    int port;
+    server_context_t* server = start_server(SLOW_CONSUMER_DISCONNECT, &port);
+    ASSERT_NOT_NULL(server);
+
+    int server_fd = -1;
+    const int fd = connect_local(port, &server_fd);
+    ASSERT_TRUE(fd >= 0);
+
+    flood_until_policy(server, server_fd);
+
+    for (int i = 0; i < 200; i++) {
+        pthread_mutex_lock(&g_mutex);
+        const int disconnected = g_disconnected;
+        pthread_mutex_unlock(&g_mutex);
+        if (disconnected > 0) {
+            break;
+        }
+        usleep(10000);
+    }
+
+    pthread_mutex_lock(&g_mutex);
+    ASSERT_EQ_INT(g_disconnected, 1);
+    pthread_mutex_unlock(&g_mutex);
+    ASSERT_EQ_INT((int)server->client_count, 0);
+    ASSERT_EQ_INT((int)server_get_outbound_backlog(server, server_fd), 0);
+
+    close_socket(fd);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+// 읽기를 멈춘 동안에는 요청이 처리되지 않고, 다시 시작하면 쌓여 있던 요청이 처리되어야 함
+TEST(test_read_pause_defers_messages) {
+    int port;
+    server_context_t* server = start_server(SLOW_CONSUMER_DISCONNECT, &port);
+    ASSERT_NOT_NULL(server);
+
+    int server_fd = -1;
+    const int fd = connect_local(port, &server_fd);
+    ASSERT_TRUE(fd >= 0);
+
+    ASSERT_EQ_INT(server_set_client_read_paused(server, server_fd, 1), 0);
+    usleep(50000); // 커맨드는 비동기로 적용되므로 루프가 처리할 시간을 줌
+    ASSERT_EQ_INT(echo_round_trip(fd, "warmup"), -1);
+
+    ASSERT_EQ_INT(server_set_client_read_paused(server, server_fd, 0), 0);
+
+    uint8_t reply[64];
+    const ssize_t n = recv(fd, reply, sizeof(reply), 0);
+    ASSERT_TRUE(n > HEADER_SIZE);
+    ASSERT_EQ_INT(echo_round_trip(fd, "after resume"), 0);
+
+    ASSERT_EQ_INT(server_set_client_read_paused(server, -1, 1), -1);
+    ASSERT_EQ_INT(server_set_client_read_paused(NULL, server_fd, 1), -1);
+
+    close_socket(fd);
+    server_shutdown(server);
+    server_destroy(server);
+}
+
+int main(void) {
+    test_init("Server Outbound Queue Tests");
+
+    RUN_TEST(test_invalid_slow_consumer_options);
+    RUN_TEST(test_drop_new_does_not_stall_others);
+    RUN_TEST(test_drop_oldest_keeps_stream_intact);
+    RUN_TEST(test_disconnect_policy);
+    RUN_TEST(test_large_frame_round_trip);
+    RUN_TEST(test_read_pause_defers_messages);
+
+    test_finish();
+
+    return test_get_exit_code();
+}
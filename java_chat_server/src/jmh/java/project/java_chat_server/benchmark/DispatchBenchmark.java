@@ -0,0 +1,98 @@
+package project.java_chat_server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.service.ChatService;
+import project.java_chat_server.service.RoomService;
+import project.java_chat_server.service.SessionRegistry;
+import project.java_chat_server.service.UserService;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.dispatch.MessageDispatcher;
+import project.java_chat_server.service.handlers.ChatTextHandler;
+import project.java_chat_server.service.handlers.LoginRequestHandler;
+import project.java_chat_server.service.handlers.MessageHandler;
+import project.java_chat_server.wrapper_library.ChatServer;
+import project.java_chat_server.wrapper_library.OutboundBatch;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+import project.java_chat_server.wrapper_library.enums.SendResult;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChatService.handleMessageReceived에 로그인한 클라이언트의 채팅 메시지를 넣었을 때 메시지당 시간과 힙 할당량을 잽니다.
+ * 디스패처 없이 콜백 쓰레드에서 바로 실행하는 구성입니다.
+ * - dispatch: sendBatch를 막아 Java 쪽 경로(타입 조회, 핸들러, 결과 풀기, 배치 인코딩)만
+ * - native: 실제 네이티브 배치 제출까지 (연결된 클라이언트가 없어 브로드캐스트는 바로 끝남)
+ * 실행: ./gradlew jmh -PjmhIncludes=DispatchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatchBenchmark {
+    private static final int PORT = 8202;
+    private static final int CLIENT_ID = 5;
+    private static final int CHAT_TEXT = MessageType.MSG_TYPE_CHAT_TEXT.getValue();
+
+    @Param({"dispatch", "native"})
+    public String path;
+
+    private ChatServer server;
+    private ChatService chatService;
+    private ByteBuffer payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        final byte[] json = objectMapper.writeValueAsBytes(new ChatTextRequest("안녕하세요, 오늘 회의는 3시에 시작합니다. see you there!"));
+        payload = ByteBuffer.allocateDirect(json.length).put(json).flip().asReadOnlyBuffer();
+
+        server = "dispatch".equals(path)
+                ? new ChatServer(PORT, 16) {
+                    @Override
+                    public List<SendResult> sendBatch(final OutboundBatch batch) {
+                        return List.of();
+                    }
+                }
+                : new ChatServer(PORT, 16);
+
+        final WireCodecs codecs = new WireCodecs(objectMapper);
+        final UserService userService = new UserService();
+        final SessionRegistry sessionRegistry = new SessionRegistry();
+        final RoomService roomService = new RoomService(server);
+        final List<MessageHandler> handlers = List.of(new LoginRequestHandler(userService, sessionRegistry, roomService, codecs), new ChatTextHandler(codecs));
+        chatService = new ChatService(server, handlers, userService, sessionRegistry, roomService, codecs, (MessageDispatcher) null, null);
+
+        chatService.handleClientConnected(CLIENT_ID, "127.0.0.1");
+        userService.login(sessionRegistry.get(CLIENT_ID), "benchuser");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public void handleMessageReceived() {
+        chatService.handleMessageReceived(CLIENT_ID, CHAT_TEXT, payload);
+    }
+}
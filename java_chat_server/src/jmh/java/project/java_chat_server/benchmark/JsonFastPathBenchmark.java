@@ -0,0 +1,110 @@
+package project.java_chat_server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
+import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.dto.common.ErrorResponse;
+import project.java_chat_server.service.codec.PrecomputedPayload;
+import project.java_chat_server.service.codec.WireCodec;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.codec.WireFormat;
+import project.java_chat_server.wrapper_library.OutboundBatch;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지 하나를 읽고 브로드캐스트를 배치에 담기까지, 그리고 고정 에러 응답 하나를 담기까지의 시간과 힙 할당량을 비교합니다.
+ * - *Before: ObjectMapper.readValue(InputStream) + writeValueAsBytes로 만든 byte[]를 배치에 복사
+ * - *After: 타입별 ObjectReader/ObjectWriter로 읽고 배치 버퍼에 바로 쓰기, 에러는 미리 인코딩한 바이트
+ * payload는 네이티브 버퍼처럼 direct 버퍼의 읽기 전용 뷰로 넘깁니다.
+ * chatBinary는 같은 경로를 바이너리 코덱으로 돌린 것으로, JSON에 남는 할당 중 Jackson 자체 몫이 얼마인지 보여줍니다.
+ * 실행: ./gradlew jmh -PjmhIncludes=JsonFastPathBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonFastPathBenchmark {
+    private static final String MESSAGE = "안녕하세요, 오늘 회의는 3시에 시작합니다.";
+
+    private ObjectMapper objectMapper;
+    private WireCodec codec;
+    private WireCodec binaryCodec;
+    private OutboundBatch batch;
+    private ByteBuffer payload;
+    private ByteBuffer binaryPayload;
+    private PrecomputedPayload authRequired;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        final WireCodecs codecs = new WireCodecs(objectMapper);
+        codec = codecs.json();
+        binaryCodec = codecs.get(WireFormat.BINARY);
+        batch = new OutboundBatch();
+
+        final byte[] json = objectMapper.writeValueAsBytes(new ChatTextRequest(MESSAGE));
+        payload = ByteBuffer.allocateDirect(json.length).put(json).flip().asReadOnlyBuffer();
+        final byte[] binary = binaryCodec.encode(new ChatTextRequest(MESSAGE));
+        binaryPayload = ByteBuffer.allocateDirect(binary.length).put(binary).flip().asReadOnlyBuffer();
+        authRequired = PrecomputedPayload.error("AUTH_REQUIRED", "채팅을 하려면 먼저 로그인해야 합니다.");
+    }
+
+    @Benchmark
+    public int chatBefore() throws Exception {
+        batch.clear();
+        final ChatTextRequest request = objectMapper.readValue(new ByteBufferBackedInputStream(payload.duplicate()), ChatTextRequest.class);
+        batch.addBroadcast(MessageType.MSG_TYPE_CHAT_TEXT, objectMapper.writeValueAsBytes(new ChatTextBroadcast("benchuser", request.message())), 1);
+        return batch.length();
+    }
+
+    @Benchmark
+    public int chatAfter() throws Exception {
+        batch.clear();
+        final ChatTextRequest request = codec.decode(payload, ChatTextRequest.class);
+        codec.encode(new ChatTextBroadcast("benchuser", request.message()), batch.beginBroadcast(MessageType.MSG_TYPE_CHAT_TEXT, 1));
+        batch.endEntry();
+        return batch.length();
+    }
+
+    @Benchmark
+    public int chatBinary() throws Exception {
+        batch.clear();
+        final ChatTextRequest request = binaryCodec.decode(binaryPayload, ChatTextRequest.class);
+        binaryCodec.encode(new ChatTextBroadcast("benchuser", request.message()), batch.beginBroadcast(MessageType.MSG_TYPE_CHAT_TEXT, 1));
+        batch.endEntry();
+        return batch.length();
+    }
+
+    @Benchmark
+    public int errorBefore() throws Exception {
+        batch.clear();
+        batch.addSend(1, MessageType.MSG_TYPE_ERROR_RESPONSE, objectMapper.writeValueAsBytes(new ErrorResponse("AUTH_REQUIRED", "채팅을 하려면 먼저 로그인해야 합니다.")));
+        return batch.length();
+    }
+
+    @Benchmark
+    public int errorAfter() throws Exception {
+        batch.clear();
+        batch.addSend(1, MessageType.MSG_TYPE_ERROR_RESPONSE, authRequired.bytes(codec));
+        return batch.length();
+    }
+}
@@ -0,0 +1,124 @@
+package project.java_chat_server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
+import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.dto.common.ErrorResponse;
+import project.java_chat_server.dto.common.SystemNoticeBroadcast;
+import project.java_chat_server.dto.file.FileEndBroadcast;
+import project.java_chat_server.dto.file.FileEndRequest;
+import project.java_chat_server.dto.file.FileStartBroadcast;
+import project.java_chat_server.dto.file.FileStartRequest;
+import project.java_chat_server.dto.user.UserJoinBroadcast;
+import project.java_chat_server.dto.user.UserLeaveBroadcast;
+import project.java_chat_server.dto.user.UserLoginRequest;
+import project.java_chat_server.dto.user.UserLoginResponse;
+import project.java_chat_server.service.codec.WireCodec;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.codec.WireFormat;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DTO마다 JSON과 바이너리 코덱의 인코딩/디코딩 시간과 힙 할당량을 비교합니다.
+ * 디코딩은 클라이언트가 보내는 요청 DTO만 측정합니다. 인코딩된 크기 비교는 BinaryWireCodecTest에 있습니다.
+ * 실행: ./gradlew jmh -PjmhIncludes=WireCodecBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireCodecBenchmark {
+
+    static WireCodecs newCodecs() {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return new WireCodecs(objectMapper);
+    }
+
+    static Object sample(String dto) {
+        return switch (dto) {
+            case "UserLoginRequest" -> new UserLoginRequest("benchuser", "binary");
+            case "ChatTextRequest" -> new ChatTextRequest("안녕하세요, 오늘 회의는 3시에 시작합니다.");
+            case "FileStartRequest" -> new FileStartRequest("report-2026-q3.pdf", 12_345_678L);
+            case "FileEndRequest" -> new FileEndRequest("report-2026-q3.pdf", "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+            case "UserLoginResponse" -> UserLoginResponse.onSuccess("benchuser", 1000, "binary");
+            case "ChatTextBroadcast" -> new ChatTextBroadcast("benchuser", "안녕하세요, 오늘 회의는 3시에 시작합니다.");
+            case "ErrorResponse" -> new ErrorResponse("AUTH_REQUIRED", "Authentication required. Client not logged in.");
+            case "SystemNoticeBroadcast" -> new SystemNoticeBroadcast("benchuser 님이 퇴장했습니다.");
+            case "UserJoinBroadcast" -> new UserJoinBroadcast("benchuser");
+            case "UserLeaveBroadcast" -> new UserLeaveBroadcast("benchuser");
+            case "FileStartBroadcast" -> new FileStartBroadcast("benchuser", "report-2026-q3.pdf", "STARTED");
+            case "FileEndBroadcast" -> new FileEndBroadcast("benchuser", "report-2026-q3.pdf", "COMPLETED");
+            default -> throw new IllegalArgumentException("Unknown DTO: " + dto);
+        };
+    }
+
+    @State(Scope.Thread)
+    public static class EncodeState {
+        @Param({"UserLoginRequest", "ChatTextRequest", "FileStartRequest", "FileEndRequest",
+                "UserLoginResponse", "ChatTextBroadcast", "ErrorResponse", "SystemNoticeBroadcast",
+                "UserJoinBroadcast", "UserLeaveBroadcast", "FileStartBroadcast", "FileEndBroadcast"})
+        public String dto;
+        @Param({"json", "binary"})
+        public String format;
+
+        WireCodec codec;
+        Object message;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            codec = newCodecs().get(WireFormat.fromName(format));
+            message = sample(dto);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DecodeState {
+        @Param({"UserLoginRequest", "ChatTextRequest", "FileStartRequest", "FileEndRequest"})
+        public String request;
+        @Param({"json", "binary"})
+        public String format;
+
+        WireCodec codec;
+        ByteBuffer payload;
+        Class<?> type;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            final Object message = sample(request);
+            codec = newCodecs().get(WireFormat.fromName(format));
+            payload = ByteBuffer.wrap(codec.encode(message)).asReadOnlyBuffer();
+            type = message.getClass();
+
+            if (!message.equals(codec.decode(payload, type))) {
+                throw new IllegalStateException(request + "/" + format + " 왕복 결과가 원래 값과 다릅니다.");
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(EncodeState state) throws Exception {
+        return state.codec.encode(state.message);
+    }
+
+    @Benchmark
+    public Object decode(DecodeState state) throws Exception {
+        return state.codec.decode(state.payload, state.type);
+    }
+}
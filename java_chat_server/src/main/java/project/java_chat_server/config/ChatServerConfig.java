@@ -1,9 +1,20 @@
 package project.java_chat_server.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import project.java_chat_server.service.dispatch.Bulkhead;
+import project.java_chat_server.service.dispatch.MessageDispatcher;
+import project.java_chat_server.service.journal.ChatJournal;
 import project.java_chat_server.wrapper_library.ChatServer;
+import project.java_chat_server.wrapper_library.enums.IoBackend;
+import project.java_chat_server.wrapper_library.enums.SlowConsumerPolicy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 public class ChatServerConfig {
@@ -13,9 +24,71 @@ public class ChatServerConfig {
     @Value("${chat.server.max-clients}")
     private int maxClients;
 
+    @Value("${chat.server.io-backend:auto}")
+    private String ioBackend;
+
+    @Value("${chat.server.io-threads:1}")
+    private int ioThreads;
+
+    @Value("${chat.server.slow-consumer-policy:disconnect}")
+    private String slowConsumerPolicy;
+
+    @Value("${chat.server.max-outbound-bytes:" + ChatServer.DEFAULT_MAX_OUTBOUND_BYTES + "}")
+    private long maxOutboundBytes;
+
+    @Value("${chat.server.inbound-ring-bytes:0}")
+    private long inboundRingBytes;
+
+    @Value("${chat.dispatch.chat-threads:4}")
+    private int dispatchChatThreads;
+
+    @Value("${chat.dispatch.file-threads:2}")
+    private int dispatchFileThreads;
+
+    @Value("${chat.dispatch.max-pending-chat:4096}")
+    private int dispatchMaxPendingChat;
+
+    @Value("${chat.dispatch.max-pending-file:256}")
+    private int dispatchMaxPendingFile;
+
+    @Value("${chat.dispatch.max-pending-per-client:64}")
+    private int dispatchMaxPendingPerClient;
+
+    @Value("${chat.journal.directory:${java.io.tmpdir}/chat_journal}")
+    private String journalDirectory;
+
+    @Value("${chat.journal.segment-bytes:" + ChatJournal.Options.DEFAULT_SEGMENT_BYTES + "}")
+    private int journalSegmentBytes;
+
+    @Value("${chat.journal.retention-hours:168}")
+    private long journalRetentionHours;
+
+    @Value("${chat.journal.max-bytes:" + ChatJournal.Options.DEFAULT_MAX_TOTAL_BYTES + "}")
+    private long journalMaxBytes;
+
+    @Value("${chat.journal.queue-capacity:" + ChatJournal.Options.DEFAULT_QUEUE_CAPACITY + "}")
+    private int journalQueueCapacity;
+
     @Bean
     public ChatServer chatServer() {
-        return new ChatServer(port, maxClients);
+        return new ChatServer(port, maxClients, IoBackend.fromName(ioBackend), ioThreads,
+                SlowConsumerPolicy.fromName(slowConsumerPolicy), maxOutboundBytes, inboundRingBytes);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.dispatch.enabled", havingValue = "true", matchIfMissing = true)
+    public MessageDispatcher messageDispatcher(ChatServer chatServer) {
+        return new MessageDispatcher(chatServer,
+                Map.of(Bulkhead.CHAT, dispatchChatThreads, Bulkhead.FILE, dispatchFileThreads),
+                Map.of(Bulkhead.CHAT, dispatchMaxPendingChat, Bulkhead.FILE, dispatchMaxPendingFile),
+                dispatchMaxPendingPerClient);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "chat.journal.enabled", havingValue = "true")
+    public ChatJournal chatJournal() throws IOException {
+        return ChatJournal.open(new ChatJournal.Options(Path.of(journalDirectory), journalSegmentBytes, ChatJournal.Options.DEFAULT_INDEX_INTERVAL_BYTES,
+                Duration.ofHours(journalRetentionHours), journalMaxBytes, journalQueueCapacity));
     }
 
 }
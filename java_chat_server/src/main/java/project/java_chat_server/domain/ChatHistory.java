@@ -0,0 +1,119 @@
+package project.java_chat_server.domain;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 최근 채팅 메시지를 인코딩된 payload 그대로 담아 두는 고정 크기 링
+ * 메시지 하나마다 객체를 만들지 않도록 payload는 byte[] 아레나 하나에, 위치와 길이는 int 배열에 둡니다.
+ * 메시지 수나 바이트 한도를 넘으면 오래된 것부터 지웁니다. 아레나 끝에 들어가지 않는 메시지는 앞으로 감아서 씁니다.
+ * (Thread-Safe: 추가와 재생은 이 객체로 동기화합니다.)
+ */
+public class ChatHistory {
+    @Getter
+    private final int maxMessages;
+    private final byte[] arena;
+    private final int[] offsets;
+    private final int[] lengths;
+    /** 가장 오래된 메시지의 슬롯 */
+    private int head;
+    private int count;
+    /** 다음 메시지를 쓸 아레나 위치 */
+    private int tail;
+
+    /**
+     * @param maxMessages 0이면 아무것도 담지 않습니다.
+     * @param maxBytes    payload를 담는 아레나 크기. 이보다 큰 메시지는 담지 않습니다.
+     */
+    public ChatHistory(int maxMessages, int maxBytes) {
+        if (maxMessages < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("History limits cannot be negative.");
+        }
+        this.maxMessages = maxMessages;
+        this.arena = new byte[maxMessages == 0 ? 0 : maxBytes];
+        this.offsets = new int[maxMessages];
+        this.lengths = new int[maxMessages];
+    }
+
+    /**
+     * payload의 position부터 limit까지를 복사해 담습니다. payload의 position은 바꾸지 않습니다.
+     * @return 담았으면 true, 한도보다 커서 버렸으면 false
+     */
+    public synchronized boolean append(ByteBuffer payload) {
+        final int length = payload.remaining();
+
+        if (maxMessages == 0 || length > arena.length) {
+            return false;
+        }
+
+        final int position = reserve(length);
+        payload.duplicate().get(arena, position, length);
+
+        final int slot = (head + count) % maxMessages;
+        offsets[slot] = position;
+        lengths[slot] = length;
+        count++;
+        tail = position + length;
+        return true;
+    }
+
+    /**
+     * 담긴 메시지를 오래된 것부터 넘깁니다. 넘겨받은 배열은 이 호출 안에서만 읽어야 합니다.
+     * @return 넘긴 메시지 수
+     */
+    public synchronized int forEach(FrameVisitor visitor) throws IOException {
+        for (int i = 0; i < count; i++) {
+            final int slot = (head + i) % maxMessages;
+            visitor.visit(arena, offsets[slot], lengths[slot]);
+        }
+        return count;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getMaxBytes() {
+        return arena.length;
+    }
+
+    /**
+     * length 바이트를 쓸 자리를 찾습니다. 살아 있는 메시지와 겹치면 가장 오래된 것부터 지웁니다.
+     * 살아 있는 메시지는 항상 offsets[head]부터 tail 직전까지 (필요하면 아레나 끝에서 앞으로 감겨) 이어져 있습니다.
+     */
+    private int reserve(int length) {
+        while (true) {
+            if (count == 0) {
+                return 0;
+            }
+            if (count < maxMessages) {
+                final int oldest = offsets[head];
+
+                if (oldest < tail) {
+                    // 감기지 않은 상태: [tail, 끝)과 [0, oldest)가 비어 있음
+                    if (tail + length <= arena.length) {
+                        return tail;
+                    }
+                    if (length <= oldest) {
+                        return 0;
+                    }
+                } else if (tail + length <= oldest) {
+                    // 감긴 상태: [tail, oldest)만 비어 있음
+                    return tail;
+                }
+            }
+            head = (head + 1) % maxMessages;
+            count--;
+        }
+    }
+
+    @FunctionalInterface
+    public interface FrameVisitor {
+        void visit(byte[] frame, int offset, int length) throws IOException;
+    }
+}
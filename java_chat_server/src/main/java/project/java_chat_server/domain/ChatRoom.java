@@ -0,0 +1,45 @@
+package project.java_chat_server.domain;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 채팅방 하나. 멤버는 네이티브 서버의 fd 그룹(groupId)에도 똑같이 들어 있어서, 방 브로드캐스트는 네이티브 호출 한 번으로 끝납니다.
+ * 멤버 변경은 RoomService가 방 이름 단위로 잠근 상태에서만 합니다.
+ */
+@RequiredArgsConstructor
+public class ChatRoom {
+    @Getter
+    private final String name;
+    /** 방이 비어 사라졌다가 다시 만들어지면 새 id를 받습니다. */
+    @Getter
+    private final int groupId;
+    /** 새로 들어온 멤버에게 다시 보내 줄 최근 채팅 */
+    @Getter
+    private final ChatHistory history;
+    private final Set<Integer> members = ConcurrentHashMap.newKeySet();
+
+    public boolean addMember(int clientId) {
+        return members.add(clientId);
+    }
+
+    public boolean removeMember(int clientId) {
+        return members.remove(clientId);
+    }
+
+    /** 멤버 fd (읽기 전용 뷰) */
+    public Set<Integer> getMemberIds() {
+        return Collections.unmodifiableSet(members);
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+}
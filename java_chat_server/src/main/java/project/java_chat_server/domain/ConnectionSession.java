@@ -0,0 +1,58 @@
+package project.java_chat_server.domain;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import project.java_chat_server.service.codec.WireFormat;
+
+/**
+ * 연결 하나의 Java 쪽 상태. 연결될 때 한 번 만들어 SessionRegistry에 두고, 메시지마다 fd로 찾아 씁니다.
+ * 수신 카운터는 그 연결의 메시지를 전달하는 쓰레드(이벤트 루프 또는 수신 링 소비자) 하나만 갱신합니다.
+ */
+@RequiredArgsConstructor
+@Getter
+public class ConnectionSession {
+    private final int clientId;
+    private final String ipAddr;
+    private final long connectedAtMillis = System.currentTimeMillis();
+    private volatile String nickname;
+    /** 직접 바꾸지 말고 SessionRegistry.switchFormat을 거칩니다. (브로드캐스트 경로를 고르는 집계가 어긋남) */
+    @Setter
+    private volatile WireFormat wireFormat = WireFormat.JSON;
+    /** 채팅 중계용 JSON 접두 (닉네임을 넣은 author 필드부터 content 키까지). 로그인 뒤 ChatTextHandler가 처음 쓸 때 채웁니다. */
+    @Setter
+    private volatile byte[] chatRelayPrefix;
+    /** 들어가 있는 방, 없으면 null. 직접 바꾸지 말고 RoomService를 거칩니다. (네이티브 그룹과 어긋남) */
+    @Setter
+    private volatile ChatRoom room;
+    private volatile long receivedMessages = 0;
+    private volatile long receivedBytes = 0;
+
+    /**
+     * UserService.login이 성공한 뒤에만 닉네임이 채워집니다.
+     */
+    public boolean isAuthenticated() {
+        return nickname != null;
+    }
+
+    /**
+     * @throws IllegalStateException 아직 로그인하지 않은 경우
+     */
+    public String requireNickname() {
+        final String current = nickname;
+
+        if (current == null) {
+            throw new IllegalStateException("Authentication required. Client not logged in.");
+        }
+        return current;
+    }
+
+    public void authenticate(String nickname) {
+        this.nickname = nickname;
+        this.chatRelayPrefix = null;
+    }
+
+    public void recordReceived(int bytes) {
+        receivedMessages++;
+        receivedBytes += bytes;
+    }
+}
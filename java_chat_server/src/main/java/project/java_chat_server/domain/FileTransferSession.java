@@ -1,21 +1,219 @@
 package project.java_chat_server.domain;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import project.java_chat_server.service.upload.ChecksumAlgorithm;
+import project.java_chat_server.service.upload.ReceivedBlocks;
+import project.java_chat_server.service.upload.UploadChecksum;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.util.List;
 
-@RequiredArgsConstructor
+/**
+ * 업로드 하나. 파일 채널은 시작할 때(이어 받을 때는 다시 열 때) 열어 끝나거나 취소되거나 멈출 때까지 들고 있습니다.
+ * 조각을 받는 쪽(한 클라이언트의 메시지는 한 번에 한 쓰레드가 처리)이 체크섬을 갱신하고 buffer에 조각을 모으고,
+ * 꽉 찬 버퍼는 업로드 쓰기 쓰레드가 씁니다. 아직 끝나지 않은 쓰기 수와 실패는 이 객체로 동기화합니다.
+ * <p>
+ * 조각은 위치 없이 순서대로 오거나(스트림) 위치를 지정해 아무 순서로나 옵니다. 받은 구간은 블록 비트맵으로 표시합니다.
+ * 체크섬은 앞에서부터 빠짐없이 이어지는 조각만 받는 즉시 넣고, 순서가 어긋나 건너뛴 부분은 끝낼 때 파일에서 읽어 넣습니다.
+ */
 @Getter
 public class FileTransferSession {
+    /** 끊긴 뒤 이어 받을 때 클라이언트가 보내는 id */
+    private final String uploadId;
+    /** 업로드를 시작한 닉네임 */
+    private final String owner;
     private final String fileName;
     private final long fileSize;
     private final Path filePath;
-    private long receivedBytes = 0;
+    private final FileChannel channel;
+    private final ChecksumAlgorithm checksumAlgorithm;
+    /** 받은 조각을 순서대로 넣은 체크섬. 끝낼 때 파일을 다시 읽지 않고 이것만 마무리합니다. 멈출 때는 이어 받을 세션에 넘깁니다. */
+    private final UploadChecksum checksum;
+    /** 저장소 키로 쓸 SHA-256. 체크섬 방식이 SHA-256이면 checksum과 같은 객체입니다. */
+    private final UploadChecksum contentChecksum;
+    /** finishChecksum() 뒤에 채워지는 SHA-256 다이제스트 (소문자 16진수) */
+    private String contentDigest;
+    /** 다 받아 저장소로 옮긴 뒤의 경로 */
+    @Setter
+    private Path storedPath;
+    @Getter(AccessLevel.NONE)
+    private final ReceivedBlocks blocks;
+    /** 위치 없이 온 조각을 쓸 다음 위치 */
+    private long streamOffset;
+    /** 체크섬에 앞에서부터 빠짐없이 넣은 바이트 수 */
+    private long hashedBytes;
+    /** 위치를 지정한 조각을 한 번이라도 받았으면 true. 이런 업로드는 덜 받은 채 끝내려 하면 지우지 않고 빠진 구간을 알려 줍니다. */
+    private boolean positional;
+    /** 조각을 모으고 있는 버퍼. 아직 받은 조각이 없거나 막 넘겼으면 null */
+    @Setter
+    private ByteBuffer buffer;
+    /** buffer의 첫 바이트가 들어갈 파일 위치 */
+    @Setter
+    private long bufferOffset;
+    @Getter(AccessLevel.NONE)
+    private int pendingWrites;
+    @Getter(AccessLevel.NONE)
+    private IOException writeFailure;
+
+    public FileTransferSession(String fileName, long fileSize, Path filePath, FileChannel channel, ChecksumAlgorithm checksumAlgorithm) {
+        this(null, null, fileName, fileSize, filePath, channel, checksumAlgorithm, checksumAlgorithm.newChecksum(), null, 0);
+    }
+
+    /**
+     * @param checksum        receivedBytes까지 받은 바이트를 이미 넣은 체크섬
+     * @param contentChecksum 같은 바이트를 넣은 SHA-256. checksum이 이미 SHA-256이면 null
+     * @param receivedBytes   파일 앞에서부터 이미 써 둔 바이트 수. 이어 받을 때는 여기서부터 받습니다.
+     */
+    public FileTransferSession(String uploadId, String owner, String fileName, long fileSize, Path filePath, FileChannel channel,
+                               ChecksumAlgorithm checksumAlgorithm, UploadChecksum checksum, UploadChecksum contentChecksum, long receivedBytes) {
+        this.uploadId = uploadId;
+        this.owner = owner;
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.filePath = filePath;
+        this.channel = channel;
+        this.checksumAlgorithm = checksumAlgorithm;
+        this.checksum = checksum;
+        this.contentChecksum = checksumAlgorithm == ChecksumAlgorithm.SHA256 ? checksum
+                : contentChecksum != null ? contentChecksum : ChecksumAlgorithm.SHA256.newChecksum();
+        this.blocks = new ReceivedBlocks(fileSize);
+        this.streamOffset = receivedBytes;
+        this.hashedBytes = receivedBytes;
+        markStream(0, receivedBytes);
+    }
+
+    /**
+     * 위치 없이 온 조각을 앞 조각 바로 뒤에 받았다고 기록하고 체크섬에 넣습니다. chunk의 position은 바뀌지 않습니다.
+     * @return 조각을 쓸 파일 위치
+     */
+    public long acceptNext(ByteBuffer chunk) {
+        final long offset = streamOffset;
+        hash(offset, chunk);
+        streamOffset += chunk.remaining();
+        markStream(offset, streamOffset);
+        return offset;
+    }
+
+    /**
+     * offset 위치의 조각을 받았다고 기록합니다. offset은 블록 경계여야 하고, 조각은 블록 단위이거나 파일 끝까지여야 합니다.
+     * 이미 체크섬에 넣은 부분 바로 뒤에 이어지는 부분만 체크섬에 넣습니다. chunk의 position은 바뀌지 않습니다.
+     */
+    public void acceptAt(long offset, ByteBuffer chunk) {
+        final long end = offset + chunk.remaining();
+        hash(offset, chunk);
+        positional = true;
+        blocks.mark((int) (offset / ReceivedBlocks.BLOCK_BYTES), blockIndexAfter(end));
+    }
+
+    /**
+     * 스트림은 앞에서부터 빠짐없이 이어지므로 end까지 다 찬 블록을 표시합니다.
+     */
+    private void markStream(long offset, long end) {
+        blocks.mark((int) (offset / ReceivedBlocks.BLOCK_BYTES), blockIndexAfter(end));
+    }
+
+    /** end에서 끝나는 구간이 다 채운 마지막 블록의 다음 번호. 파일 끝이면 짧은 마지막 블록도 다 찬 것입니다. */
+    private int blockIndexAfter(long end) {
+        return end == fileSize ? blocks.getBlockCount() : (int) (end / ReceivedBlocks.BLOCK_BYTES);
+    }
+
+    private void hash(long offset, ByteBuffer chunk) {
+        final long end = offset + chunk.remaining();
+
+        if (offset <= hashedBytes && hashedBytes < end) {
+            ByteBuffer tail = chunk.duplicate();
+            tail.position(tail.position() + (int) (hashedBytes - offset));
+            hashNext(tail);
+        }
+    }
 
-    public void addReceivedBytes(long length) {
-        receivedBytes += length;
+    /**
+     * hashedBytes 위치부터 이어지는 바이트를 체크섬에 넣습니다. data의 position은 바뀌지 않습니다.
+     */
+    public void hashNext(ByteBuffer data) {
+        checksum.update(data);
+        if (contentChecksum != checksum) {
+            contentChecksum.update(data);
+        }
+        hashedBytes += data.remaining();
+    }
+
+    /**
+     * @return 받은 서로 다른 바이트 수. 같은 구간을 다시 받아도 늘지 않습니다.
+     */
+    public long getReceivedBytes() {
+        final long partial = streamOffset % ReceivedBlocks.BLOCK_BYTES;
+
+        // 아직 다 차지 않은 스트림 블록의 앞부분은 비트맵에 없으므로 따로 더합니다.
+        if (partial != 0 && streamOffset < fileSize && !blocks.isSet((int) (streamOffset / ReceivedBlocks.BLOCK_BYTES))) {
+            return blocks.coveredBytes() + partial;
+        }
+        return blocks.coveredBytes();
+    }
+
+    /**
+     * @return 아직 받지 못한 구간을 [시작, 끝) 쌍으로 앞에서부터 maxRanges개까지
+     */
+    public List<long[]> getMissingRanges(int maxRanges) {
+        return blocks.missingRanges(maxRanges);
+    }
+
+    /**
+     * 체크섬과 SHA-256 다이제스트를 마무리합니다. 한 번만 부릅니다.
+     * @return 받은 조각 전체의 체크섬 (소문자 16진수)
+     */
+    public String finishChecksum() {
+        String value = checksum.finish();
+        contentDigest = contentChecksum == checksum ? value : contentChecksum.finish();
+        return value;
     }
 
     public boolean isCompleted() {
-        return receivedBytes == fileSize;
+        return blocks.isComplete();
+    }
+
+    public synchronized void writeSubmitted() {
+        pendingWrites++;
+    }
+
+    /**
+     * @param failure 실패했으면 그 예외. 처음 실패만 남깁니다.
+     */
+    public synchronized void writeCompleted(IOException failure) {
+        if (failure != null && writeFailure == null) {
+            writeFailure = failure;
+        }
+        if (--pendingWrites == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * 앞서 넘긴 쓰기 중 실패한 것이 있으면 그 예외를 던집니다.
+     */
+    public synchronized void throwIfWriteFailed() throws IOException {
+        if (writeFailure != null) {
+            throw new IOException("파일 쓰기에 실패했습니다: " + writeFailure.getMessage(), writeFailure);
+        }
+    }
+
+    /**
+     * 넘긴 쓰기가 모두 끝날 때까지 기다립니다.
+     */
+    public synchronized void awaitWrites() throws IOException {
+        try {
+            while (pendingWrites > 0) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("파일 쓰기를 기다리다 중단되었습니다.");
+        }
+        throwIfWriteFailed();
     }
 }
@@ -1,4 +1,6 @@
 package project.java_chat_server.dto.chat;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import java.time.Instant;
 
@@ -9,8 +11,17 @@ public class ChatTextBroadcast {
     private final Instant timestamp;
 
     public ChatTextBroadcast(String author, String content) {
+        this(author, content, Instant.now());
+    }
+
+    /** 채팅 기록(JSON)을 다른 인코딩으로 다시 쓸 때 읽습니다. */
+    @JsonCreator
+    public ChatTextBroadcast(
+            @JsonProperty("author") String author,
+            @JsonProperty("content") String content,
+            @JsonProperty("timestamp") Instant timestamp) {
         this.author = author;
         this.content = content;
-        this.timestamp = Instant.now();
+        this.timestamp = timestamp;
     }
 }
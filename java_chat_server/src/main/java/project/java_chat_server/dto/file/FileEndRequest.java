@@ -2,13 +2,22 @@ package project.java_chat_server.dto.file;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-public record FileEndRequest(String filename, String checksum) {
+/**
+ * @param uploadId 끝낼 업로드. 진행 중인 업로드가 하나뿐이면 없어도 됩니다.
+ */
+public record FileEndRequest(String filename, String checksum, String uploadId) {
     @JsonCreator
     public FileEndRequest(
             @JsonProperty("filename") String filename,
-            @JsonProperty("checksum") String checksum) {
+            @JsonProperty("checksum") String checksum,
+            @JsonProperty("uploadId") String uploadId) {
         this.filename = filename;
         this.checksum = checksum;
+        this.uploadId = uploadId;
+    }
+
+    public FileEndRequest(String filename, String checksum) {
+        this(filename, checksum, null);
     }
 
 }
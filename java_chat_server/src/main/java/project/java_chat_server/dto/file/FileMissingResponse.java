@@ -0,0 +1,8 @@
+package project.java_chat_server.dto.file;
+
+/**
+ * 위치를 지정해 보낸 업로드를 덜 받은 채 끝내려 했을 때의 응답. 업로드는 그대로 남아 있으므로 빠진 구간만 다시 보내고 다시 끝내면 됩니다.
+ * @param missing 빠진 구간을 [시작, 끝) 바이트 위치 쌍으로 이어 붙인 배열 (시작0, 끝0, 시작1, 끝1, ...)
+ */
+public record FileMissingResponse(String uploadId, String filename, String status, long[] missing) {
+}
@@ -2,12 +2,35 @@ package project.java_chat_server.dto.file;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-public record FileStartRequest(String filename, long filesize) {
+/**
+ * @param checksumAlgorithm 파일 끝 요청의 checksum을 계산한 방식 ("sha256", "crc32c"). 없으면 SHA-256
+ * @param uploadId          끊긴 업로드를 이어 보낼 때 앞서 받은 FileStartResponse의 uploadId. 없으면 새 업로드
+ * @param contentDigest     파일 전체의 SHA-256 (16진수). 서버가 이미 가지고 있으면 조각을 보내지 않아도 바로 끝납니다.
+ */
+public record FileStartRequest(String filename, long filesize, String checksumAlgorithm, String uploadId, String contentDigest) {
     @JsonCreator
     public FileStartRequest(
             @JsonProperty("filename") String filename,
-            @JsonProperty("filesize") long filesize) {
+            @JsonProperty("filesize") long filesize,
+            @JsonProperty("checksumAlgorithm") String checksumAlgorithm,
+            @JsonProperty("uploadId") String uploadId,
+            @JsonProperty("contentDigest") String contentDigest) {
         this.filename = filename;
         this.filesize = filesize;
+        this.checksumAlgorithm = checksumAlgorithm;
+        this.uploadId = uploadId;
+        this.contentDigest = contentDigest;
+    }
+
+    public FileStartRequest(String filename, long filesize, String checksumAlgorithm, String uploadId) {
+        this(filename, filesize, checksumAlgorithm, uploadId, null);
+    }
+
+    public FileStartRequest(String filename, long filesize, String checksumAlgorithm) {
+        this(filename, filesize, checksumAlgorithm, null, null);
+    }
+
+    public FileStartRequest(String filename, long filesize) {
+        this(filename, filesize, null, null, null);
     }
 }
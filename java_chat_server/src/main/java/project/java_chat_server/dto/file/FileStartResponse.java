@@ -0,0 +1,9 @@
+package project.java_chat_server.dto.file;
+
+/**
+ * 파일 전송 시작(또는 이어 받기) 요청을 받아들였을 때 보낸 사람에게만 보냅니다.
+ * @param uploadId 연결이 끊긴 뒤 같은 업로드를 이어 보낼 때 FILE_INFO에 담아 보낼 id
+ * @param offset   서버가 이미 받은 바이트 수. 클라이언트는 파일의 이 위치부터 조각을 보내면 됩니다.
+ */
+public record FileStartResponse(String uploadId, String filename, long offset, String checksumAlgorithm) {
+}
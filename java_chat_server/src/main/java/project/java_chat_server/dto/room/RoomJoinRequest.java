@@ -0,0 +1,10 @@
+package project.java_chat_server.dto.room;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record RoomJoinRequest(String room) {
+    @JsonCreator
+    public RoomJoinRequest(@JsonProperty("room") String room) {
+        this.room = room;
+    }
+}
@@ -0,0 +1,7 @@
+package project.java_chat_server.dto.room;
+
+/**
+ * @param status "JOINED" 또는 "LEFT"
+ */
+public record RoomNoticeBroadcast(String room, String nickname, String status) {
+}
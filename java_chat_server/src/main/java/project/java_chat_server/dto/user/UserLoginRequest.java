@@ -2,9 +2,17 @@ package project.java_chat_server.dto.user;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-public record UserLoginRequest(String nickname) {
+/**
+ * @param codec 로그인 이후 쓸 payload 인코딩 ("json", "binary"). 없으면 JSON
+ */
+public record UserLoginRequest(String nickname, String codec) {
     @JsonCreator
-    public UserLoginRequest(@JsonProperty("nickname") String nickname) {
+    public UserLoginRequest(@JsonProperty("nickname") String nickname, @JsonProperty("codec") String codec) {
         this.nickname = nickname;
+        this.codec = codec;
+    }
+
+    public UserLoginRequest(String nickname) {
+        this(nickname, null);
     }
 }
@@ -7,19 +7,26 @@ public class UserLoginResponse {
     private final String message;
     private final String nickname;
     private final int clientId;
+    /** 다음 메시지부터 쓸 인코딩. 이 응답 자체는 항상 JSON입니다. */
+    private final String codec;
 
-    private UserLoginResponse(boolean success, String message, String nickname, int clientId) {
+    private UserLoginResponse(boolean success, String message, String nickname, int clientId, String codec) {
         this.success = success;
         this.message = message;
         this.nickname = nickname;
         this.clientId = clientId;
+        this.codec = codec;
     }
 
     public static UserLoginResponse onSuccess(String nickname, int clientId) {
-        return new UserLoginResponse(true, "success", nickname, clientId);
+        return onSuccess(nickname, clientId, "json");
+    }
+
+    public static UserLoginResponse onSuccess(String nickname, int clientId, String codec) {
+        return new UserLoginResponse(true, "success", nickname, clientId, codec);
     }
 
     public static UserLoginResponse onFailure(String message) {
-        return new UserLoginResponse(false, message, null, -1);
+        return new UserLoginResponse(false, message, null, -1, "json");
     }
 }
@@ -10,10 +10,12 @@ import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 import project.java_chat_server.service.ChatService;
 import project.java_chat_server.wrapper_library.ChatServer;
+import project.java_chat_server.wrapper_library.InboundRecordListener;
 import project.java_chat_server.wrapper_library.enums.MessageType;
 import project.java_chat_server.wrapper_library.structure.ClientInfo;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 @Slf4j
@@ -22,23 +24,31 @@ import java.nio.charset.StandardCharsets;
 public class ChatServerRunner implements ApplicationRunner {
     private final ChatServer chatServer;
     private final ChatService chatService;
+    private static final ByteBuffer EMPTY_PAYLOAD = ByteBuffer.allocate(0).asReadOnlyBuffer();
 
     @Override
     public void run(ApplicationArguments args) {
         log.info("스프링 부트 애플리케이션 시작 완료. 네이티브 채팅 서버 초기화를 시작합니다...");
 
+        if (chatServer.isInboundRingEnabled()) {
+            startWithInboundRing();
+            return;
+        }
+
         chatServer.setOnConnectListener(
-                (Pointer userData, ClientInfo client) -> chatService.handleClientConnected(client)
+                (Pointer userData, ClientInfo client) -> chatService.handleClientConnected(client.socketFd, client.getIpAddress())
         );
 
+        // 연결 이후의 콜백은 구조체를 읽지 않고 fd만 꺼내 세션을 찾습니다.
         chatServer.setOnDisconnectListener(
-                (Pointer userData, ClientInfo client) -> chatService.handleClientDisconnected(client)
+                (Pointer userData, Pointer client) -> chatService.handleClientDisconnected(ClientInfo.socketFdOf(client))
         );
 
         chatServer.setOnMessageListener(
-                (Pointer userData, ClientInfo client, int msgType, Pointer payload, NativeLong len) -> {
-                    byte[] messageBytes = payload.getByteArray(0, len.intValue());
-                    chatService.handleMessageReceived(client, msgType, messageBytes);
+                (Pointer userData, Pointer client, int msgType, Pointer payload, NativeLong len) -> {
+                    // 네이티브 파서 버퍼를 복사하지 않고 감쌉니다. 콜백이 끝나면 무효가 되므로 핸들러가 들고 있으면 안 됩니다.
+                    ByteBuffer view = (payload == null || len.longValue() == 0) ? EMPTY_PAYLOAD : payload.getByteBuffer(0, len.longValue()).asReadOnlyBuffer();
+                    chatService.handleMessageReceived(ClientInfo.socketFdOf(client), msgType, view);
                 }
         );
 
@@ -50,6 +60,35 @@ public class ChatServerRunner implements ApplicationRunner {
         log.info("네이티브 채팅 서버가 포트 {}에서 성공적으로 시작되었습니다.", chatServer.getPort());
     }
 
+    /**
+     * 수신 링 모드: 이벤트 루프는 레코드를 링에 쓰기만 하고, 링마다 하나인 소비자 쓰레드가 서비스로 넘깁니다.
+     * 연결/메시지/연결 해제가 같은 링을 거치므로 한 클라이언트의 레코드 순서는 유지됩니다.
+     */
+    private void startWithInboundRing() {
+        chatServer.setOnErrorListener(
+                (Pointer userData, int errorCode, String message) -> log.error("네이티브 에러 발생: (코드 {}) {}", errorCode, message)
+        );
+
+        chatServer.start();
+        chatServer.startInboundConsumers(new InboundRecordListener() {
+            @Override
+            public void onConnect(int clientId, String ipAddr) {
+                chatService.handleClientConnected(clientId, ipAddr);
+            }
+
+            @Override
+            public void onMessage(int clientId, int msgType, ByteBuffer payload) {
+                chatService.handleMessageReceived(clientId, msgType, payload);
+            }
+
+            @Override
+            public void onDisconnect(int clientId) {
+                chatService.handleClientDisconnected(clientId);
+            }
+        });
+        log.info("네이티브 채팅 서버가 포트 {}에서 수신 링 모드로 시작되었습니다.", chatServer.getPort());
+    }
+
     @PreDestroy
     public void onShutdown() {
         log.info("애플리케이션 종료 신호 감지. Graceful shutdown을 시작합니다...");
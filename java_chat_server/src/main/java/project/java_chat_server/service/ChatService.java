@@ -1,17 +1,36 @@
 package project.java_chat_server.service;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import project.java_chat_server.domain.ChatHistory;
+import project.java_chat_server.domain.ChatRoom;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
 import project.java_chat_server.dto.user.UserLeaveBroadcast;
+import project.java_chat_server.service.codec.DirectPayload;
+import project.java_chat_server.service.codec.PrecomputedPayload;
+import project.java_chat_server.service.codec.WireCodec;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.codec.WireFormat;
+import project.java_chat_server.service.dispatch.Bulkhead;
+import project.java_chat_server.service.dispatch.MessageDispatcher;
+import project.java_chat_server.service.journal.ChatJournal;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.service.handlers.*;
 import project.java_chat_server.wrapper_library.ChatServer;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.wrapper_library.OutboundBatch;
 import project.java_chat_server.wrapper_library.enums.MessageType;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
@@ -27,68 +46,157 @@ public class ChatService {
             MessageType.MSG_TYPE_CHAT_TEXT,
             MessageType.MSG_TYPE_FILE_INFO,
             MessageType.MSG_TYPE_FILE_CHUNK,
+            MessageType.MSG_TYPE_FILE_CHUNK_AT,
             MessageType.MSG_TYPE_FILE_END,
-            MessageType.MSG_TYPE_FILE_REQUEST
+            MessageType.MSG_TYPE_FILE_REQUEST,
+            MessageType.MSG_TYPE_ROOM_JOIN_REQUEST,
+            MessageType.MSG_TYPE_ROOM_LEAVE_REQUEST
     );
-    private final Map<MessageType, MessageHandler> messageHandlers;
+    /** 응답 배치 버퍼는 핸들러를 실행하는 쓰레드마다 하나씩 두고 재사용합니다. */
+    private static final ThreadLocal<OutboundBatch> OUTBOUND_BATCH = ThreadLocal.withInitial(OutboundBatch::new);
+    /** 이보다 커진 쓰레드별 배치 버퍼는 보낸 뒤 버리고 새로 만듭니다. */
+    private static final int MAX_RETAINED_BATCH_SIZE = 64 * 1024;
+    /** 와이어 타입 값을 그대로 인덱스로 씁니다. 클라이언트가 보낼 수 있는 타입의 핸들러만 들어 있고 나머지는 null입니다. */
+    private final MessageHandler[] handlersByWireType;
     private final UserService userService;
+    private final SessionRegistry sessionRegistry;
+    private final RoomService roomService;
     private final ChatServer chatServer;
-    private final ObjectMapper objectMapper;
+    private final WireCodecs codecs;
+    /** null이면 핸들러를 네이티브 콜백 쓰레드에서 바로 실행합니다. */
+    @Nullable
+    private final MessageDispatcher dispatcher;
+    /** null이면 채팅을 파일에 남기지 않습니다. */
+    @Nullable
+    private final ChatJournal journal;
 
-    public ChatService(ChatServer chatServer, List<MessageHandler> handlers, UserService userService, ObjectMapper objectMapper) {
+    @Autowired
+    public ChatService(ChatServer chatServer, List<MessageHandler> handlers, UserService userService, SessionRegistry sessionRegistry, RoomService roomService, WireCodecs codecs,
+                       ObjectProvider<MessageDispatcher> dispatcher, ObjectProvider<ChatJournal> journal) {
+        this(chatServer, handlers, userService, sessionRegistry, roomService, codecs, dispatcher.getIfAvailable(), journal.getIfAvailable());
+    }
+
+    public ChatService(ChatServer chatServer, List<MessageHandler> handlers, UserService userService, SessionRegistry sessionRegistry, RoomService roomService, WireCodecs codecs,
+                       @Nullable MessageDispatcher dispatcher, @Nullable ChatJournal journal) {
         this.chatServer = chatServer;
-        this.messageHandlers = handlers.stream().collect(Collectors.toUnmodifiableMap(MessageHandler::getMessageType, Function.identity()));
+        Map<MessageType, MessageHandler> messageHandlers = handlers.stream().collect(Collectors.toUnmodifiableMap(MessageHandler::getMessageType, Function.identity()));
+        this.handlersByWireType = indexHandlers(messageHandlers);
         this.userService = userService;
-        this.objectMapper = objectMapper;
-        log.info("{}개의 메시지 핸들러가 등록되었습니다: {}", messageHandlers.size(), messageHandlers.keySet());
+        this.sessionRegistry = sessionRegistry;
+        this.roomService = roomService;
+        this.codecs = codecs;
+        this.dispatcher = dispatcher;
+        this.journal = journal;
+        log.info("{}개의 메시지 핸들러가 등록되었습니다: {} (핸들러 실행: {}, 채팅 저널: {})", messageHandlers.size(), messageHandlers.keySet(),
+                dispatcher == null ? "콜백 쓰레드" : "디스패처", journal == null ? "사용 안 함" : "사용");
     }
 
-    public void handleClientConnected(ClientInfo client) {
-        log.info("새로운 클라이언트 연결 수립: id={}, ip={}", client.socketFd, client.ipAddr);
+    private static MessageHandler[] indexHandlers(Map<MessageType, MessageHandler> messageHandlers) {
+        MessageHandler[] index = new MessageHandler[MessageType.indexSize()];
+
+        for (MessageType type : VALID_CLIENT_MESSAGE_TYPES) {
+            index[type.getValue()] = messageHandlers.get(type);
+        }
+        return index;
     }
 
-    public void handleClientDisconnected(ClientInfo client) {
-        String nickname = userService.logout(client.socketFd);
-        log.info("클라이언트 연결 종료: id={}, nickname={}", client.socketFd, nickname);
+    /**
+     * 연결마다 한 번만 세션을 만듭니다. 이후 메시지 콜백은 fd만 넘기고 이 세션을 찾아 씁니다.
+     */
+    public void handleClientConnected(int clientId, String ipAddr) {
+        sessionRegistry.open(clientId, ipAddr);
+        log.info("새로운 클라이언트 연결 수립: id={}, ip={}", clientId, ipAddr);
+    }
 
-        UserLeaveBroadcast leaveNotice = new UserLeaveBroadcast(nickname);
+    public void handleClientDisconnected(int clientId) {
+        final ConnectionSession session = sessionRegistry.get(clientId);
 
-        try {
-            byte[] payload = objectMapper.writeValueAsBytes(leaveNotice);
-            chatServer.broadcast(MessageType.MSG_TYPE_USER_LEAVE_NOTICE, payload, -1);
-        } catch (JsonProcessingException e) {
-            log.error("사용자 퇴장 공지 직렬화 실패: {}", nickname, e);
-        } catch (IOException e) {
-            log.error("사용자 퇴장 공지 방송 실패: {}", nickname, e);
+        // 앞서 받은 메시지들이 모두 처리된 뒤에 로그아웃해야 하므로 같은 대기열의 마지막 작업으로 넣습니다.
+        if (dispatcher != null) {
+            dispatcher.dispatchLast(clientId, Bulkhead.CHAT, () -> processClientDisconnected(clientId, session));
+            return;
         }
+        processClientDisconnected(clientId, session);
     }
 
-    public void handleMessageReceived(ClientInfo client, int msgTypeInt, byte[] payload) {
-        MessageType msgType = MessageType.fromValue(msgTypeInt);
+    private void processClientDisconnected(int clientId, @Nullable ConnectionSession session) {
+        String nickname = userService.logout(clientId);
 
-        if (!isValidMessage(msgType)) {
-            handleInvalidMessage(client, msgType);
-            return;
+        if (session != null) {
+            for (MessageHandler handler : handlersByWireType) {
+                if (handler != null) {
+                    handler.onDisconnect(session);
+                }
+            }
+            roomService.onDisconnect(session);
+            sessionRegistry.close(session);
+            log.info("클라이언트 연결 종료: id={}, nickname={}, 받은 메시지 {}개 ({} bytes)", clientId, nickname, session.getReceivedMessages(), session.getReceivedBytes());
+        } else {
+            log.info("클라이언트 연결 종료: id={}, nickname={}", clientId, nickname);
         }
 
-        MessageHandler handler = messageHandlers.get(msgType);
+        UserLeaveBroadcast leaveNotice = new UserLeaveBroadcast(nickname);
+        executeHandlerResult(HandlerResult.broadcast(MessageType.MSG_TYPE_USER_LEAVE_NOTICE, leaveNotice), -1);
+    }
+
+    public void handleMessageReceived(int clientId, int msgTypeInt, byte[] payload) {
+        handleMessageReceived(clientId, msgTypeInt, ByteBuffer.wrap(payload).asReadOnlyBuffer());
+    }
+
+    /**
+     * @param payload 네이티브 파서 버퍼를 감싼 읽기 전용 뷰. 이 메서드가 끝나면 무효가 됩니다.
+     *                디스패처를 쓰는 경우 핸들러가 나중에 실행되므로 여기서 한 번 복사합니다.
+     */
+    public void handleMessageReceived(int clientId, int msgTypeInt, ByteBuffer payload) {
+        ConnectionSession session = sessionRegistry.get(clientId);
+
+        if (session == null) {
+            log.warn("세션이 없는 클라이언트(id:{})의 메시지를 무시합니다. 타입={}", clientId, msgTypeInt);
+            return;
+        }
+        session.recordReceived(payload.remaining());
+        MessageHandler handler = msgTypeInt >= 0 && msgTypeInt < handlersByWireType.length ? handlersByWireType[msgTypeInt] : null;
 
         if (handler == null) {
-            log.warn("유효한 메시지 타입이지만, 처리할 핸들러가 없습니다: {}", msgType);
+            handleUnroutableMessage(session, MessageType.fromValue(msgTypeInt));
+            return;
+        }
+
+        if (dispatcher == null) {
+            executeHandlerResult(handler.handle(session, payload), clientId);
+            return;
+        }
+
+        ByteBuffer copy = copyPayload(payload);
+        dispatcher.dispatch(clientId, Bulkhead.of(handler.getMessageType()), () -> executeHandlerResult(handler.handle(session, copy), clientId));
+    }
+
+    /**
+     * 핸들러 배열에 없는 타입. 클라이언트가 보낼 수 없는 타입이면 프로토콜 위반으로 응답하고, 아니면 핸들러 등록 누락으로 보고 로그만 남깁니다.
+     */
+    private void handleUnroutableMessage(ConnectionSession session, MessageType msgType) {
+        if (!isValidMessage(msgType)) {
+            handleInvalidMessage(session, msgType);
             return;
         }
-        HandlerResult result = handler.handle(client, payload);
-        executeHandlerResult(result, client.socketFd);
+        log.warn("유효한 메시지 타입이지만, 처리할 핸들러가 없습니다: {}", msgType);
     }
 
-    private void handleInvalidMessage(ClientInfo client, MessageType msgType) {
-        log.warn("프로토콜 위반 감지. 클라이언트(id:{}, ip:{})가 유효하지 않은 메시지 타입({})을 전송했습니다.", client.socketFd, client.ipAddr, msgType);
+    private static ByteBuffer copyPayload(ByteBuffer payload) {
+        ByteBuffer copy = ByteBuffer.allocate(payload.remaining());
+        copy.put(payload.duplicate()).flip();
+        return copy.asReadOnlyBuffer();
+    }
+
+    private void handleInvalidMessage(ConnectionSession session, MessageType msgType) {
+        final int clientId = session.getClientId();
+        log.warn("프로토콜 위반 감지. 클라이언트(id:{}, ip:{})가 유효하지 않은 메시지 타입({})을 전송했습니다.", clientId, session.getIpAddr(), msgType);
         String errorMessage = String.format("Error: Invalid message type (%s) sent from client.", msgType.name());
 
         try {
-            chatServer.sendToClient(client.socketFd, MessageType.MSG_TYPE_ERROR_RESPONSE, errorMessage.getBytes(StandardCharsets.UTF_8));
+            chatServer.sendToClient(clientId, MessageType.MSG_TYPE_ERROR_RESPONSE, errorMessage.getBytes(StandardCharsets.UTF_8));
         } catch (Exception e) {
-            log.error("클라이언트(id:{})에게 에러 응답 전송 실패.", client.socketFd, e);
+            log.error("클라이언트(id:{})에게 에러 응답 전송 실패.", clientId, e);
         }
     }
 
@@ -97,32 +205,222 @@ public class ChatService {
     }
 
     private void executeHandlerResult(HandlerResult result, int senderId) {
-        result.getDirectResponse().ifPresent(response -> {
-            Object dto = response.payload();
+        if (result.isEmpty()) {
+            return;
+        }
+
+        // 메시지 수와 관계없이 쓰레드별 배치 버퍼에 payload를 바로 인코딩해 한 번의 네이티브 호출로 넘깁니다.
+        // getMessages()는 리스트와 RoutedMessage를 새로 만드므로 필드를 직접 꺼내 씁니다.
+        OutboundBatch batch = OUTBOUND_BATCH.get();
+        batch.clear();
+
+        HandlerResult.OutgoingMessage directResponse = result.directResponseOrNull();
+        HandlerResult.OutgoingMessage broadcast = result.broadcastOrNull();
+        List<HandlerResult.RoutedMessage> additional = result.getAdditionalMessages();
+
+        if (directResponse != null) {
+            appendMessage(batch, HandlerResult.Target.SENDER, senderId, directResponse, senderId);
+        }
+        if (broadcast != null) {
+            int groupId = result.getBroadcastGroupId();
+            appendMessage(batch, groupId >= 0 ? HandlerResult.Target.GROUP : HandlerResult.Target.BROADCAST, groupId, broadcast, senderId);
+        }
+        for (int i = 0; i < additional.size(); i++) {
+            HandlerResult.RoutedMessage message = additional.get(i);
+            appendMessage(batch, message.target(), message.clientId(), message.message(), senderId);
+        }
 
+        if (!batch.isEmpty()) {
             try {
-                byte[] payloadBytes = objectMapper.writeValueAsBytes(dto);
-                chatServer.sendToClient(senderId, response.type(), payloadBytes);
+                chatServer.sendBatch(batch);
             } catch (IOException e) {
-                log.error("클라이언트(id:{})에게 직접 응답 전송 실패", senderId, e);
+                log.error("클라이언트(id:{})의 응답 배치({}개) 전송 실패", senderId, batch.getSize(), e);
             }
-        });
+        }
+        // 큰 브로드캐스트나 긴 기록 재전송 한 번으로 커진 direct 버퍼를 쓰레드마다 붙잡고 있지 않도록 합니다.
+        if (batch.capacity() > MAX_RETAINED_BATCH_SIZE) {
+            OUTBOUND_BATCH.remove();
+        }
+    }
 
-        result.getBroadcast().ifPresent(broadcast -> {
-            Object dto = broadcast.payload();
+    private void appendMessage(OutboundBatch batch, HandlerResult.Target target, int clientId, HandlerResult.OutgoingMessage outgoing, int senderId) {
+        try {
+            switch (target) {
+                case SENDER -> writeEntry(batch, batch.beginSend(senderId, outgoing.type()), outgoing, codecFor(senderId));
+                case CLIENT -> writeEntry(batch, batch.beginSend(clientId, outgoing.type()), outgoing, codecFor(clientId));
+                case BROADCAST -> appendBroadcast(batch, outgoing, senderId);
+                case GROUP -> appendGroupBroadcast(batch, clientId, outgoing, senderId);
+                case REPLAY -> appendReplay(batch, senderId, clientId);
+            }
+        } catch (IOException e) {
+            log.error("클라이언트(id:{})의 응답 메시지({}) 직렬화 실패", senderId, outgoing.type(), e);
+        }
+    }
 
-            try {
-                byte[] payloadBytes;
+    /**
+     * 모든 연결이 JSON이면 네이티브 브로드캐스트 한 건으로, 인코딩이 섞여 있으면 인코딩마다 한 번만 직렬화해 연결별 송신으로 나눕니다.
+     */
+    private void appendBroadcast(OutboundBatch batch, HandlerResult.OutgoingMessage message, int excludeClientId) throws IOException {
+        if (sessionRegistry.isAllJson()) {
+            writeEntry(batch, batch.beginBroadcast(message.type(), excludeClientId), message, codecs.json());
+            recordHistory(-1, message, batch.lastPayload());
+            return;
+        }
 
-                if (broadcast.type() == MessageType.MSG_TYPE_FILE_CHUNK) {
-                    payloadBytes = (byte[]) dto;
+        Map<WireFormat, byte[]> encoded = appendPerConnection(batch, message, sessionRegistry.getOpenSessions(), excludeClientId);
+        recordHistory(-1, message, encoded);
+    }
+
+    /**
+     * 방 브로드캐스트. 모든 연결이 JSON이면 네이티브 그룹 항목 하나로 보내고, 네이티브 쪽이 그 방의 멤버만 순회합니다.
+     * 인코딩이 섞여 있으면 방 멤버에게만 연결별 송신으로 나눕니다.
+     */
+    private void appendGroupBroadcast(OutboundBatch batch, int groupId, HandlerResult.OutgoingMessage message, int excludeClientId) throws IOException {
+        if (sessionRegistry.isAllJson()) {
+            writeEntry(batch, batch.beginGroupBroadcast(groupId, message.type(), excludeClientId), message, codecs.json());
+            recordHistory(groupId, message, batch.lastPayload());
+            return;
+        }
+
+        ChatRoom room = roomService.findByGroupId(groupId);
+
+        if (room == null) {
+            return;
+        }
+
+        List<ConnectionSession> members = new ArrayList<>(room.size());
+
+        for (int memberId : room.getMemberIds()) {
+            ConnectionSession member = sessionRegistry.get(memberId);
+
+            if (member != null) {
+                members.add(member);
+            }
+        }
+        recordHistory(groupId, message, appendPerConnection(batch, message, members, excludeClientId));
+    }
+
+    /**
+     * 인코딩마다 한 번만 직렬화해 연결별 송신 항목으로 넣습니다.
+     * @return 인코딩별 payload (받는 연결이 있던 인코딩만)
+     */
+    private Map<WireFormat, byte[]> appendPerConnection(OutboundBatch batch, HandlerResult.OutgoingMessage message, Collection<ConnectionSession> sessions, int excludeClientId) throws IOException {
+        Map<WireFormat, byte[]> encoded = new EnumMap<>(WireFormat.class);
+
+        for (ConnectionSession session : sessions) {
+            if (session.getClientId() == excludeClientId) {
+                continue;
+            }
+            WireFormat format = session.getWireFormat();
+            byte[] payloadBytes = encoded.get(format);
+
+            if (payloadBytes == null) {
+                payloadBytes = toPayloadBytes(message, codecs.get(format));
+                encoded.put(format, payloadBytes);
+            }
+            batch.addSend(session.getClientId(), message.type(), payloadBytes);
+        }
+        return encoded;
+    }
+
+    /**
+     * 채팅 브로드캐스트를 대상(방 또는 로비)의 기록과 저널에 남깁니다. 둘 다 JSON payload로 두므로 방금 배치에 쓴 JSON을 그대로 복사합니다.
+     * 저널은 큐에 넣기만 하므로 여기서 디스크를 기다리지 않습니다.
+     */
+    private void recordHistory(int groupId, HandlerResult.OutgoingMessage message, ByteBuffer json) {
+        if (message.type() != MessageType.MSG_TYPE_CHAT_TEXT) {
+            return;
+        }
+        ChatHistory history = roomService.historyFor(groupId);
+
+        if (history != null) {
+            history.append(json);
+        }
+        if (journal != null) {
+            journal.append(groupId, message.type(), json);
+        }
+    }
+
+    /**
+     * 연결별 송신으로 나눈 경우. 받는 연결 중에 JSON이 없었을 때만 기록용으로 한 번 더 인코딩합니다.
+     */
+    private void recordHistory(int groupId, HandlerResult.OutgoingMessage message, Map<WireFormat, byte[]> encoded) throws IOException {
+        if (message.type() != MessageType.MSG_TYPE_CHAT_TEXT) {
+            return;
+        }
+        byte[] json = encoded.get(WireFormat.JSON);
+        recordHistory(groupId, message, ByteBuffer.wrap(json != null ? json : toPayloadBytes(message, codecs.json())));
+    }
+
+    /**
+     * 그룹(로비는 -1)의 채팅 기록을 메시지마다 항목 하나로 넣습니다. JSON 연결에는 담아 둔 payload를 그대로 복사하고,
+     * 다른 인코딩이면 JSON을 읽어 그 인코딩으로 다시 씁니다. 그 사이 방이 사라졌으면 보내지 않습니다.
+     */
+    private void appendReplay(OutboundBatch batch, int clientId, int groupId) throws IOException {
+        ChatHistory history = roomService.historyFor(groupId);
+
+        if (history == null) {
+            return;
+        }
+        WireCodec json = codecs.json();
+        WireCodec codec = codecFor(clientId);
+
+        history.forEach((frame, offset, length) -> {
+            OutputStream out = batch.beginSend(clientId, MessageType.MSG_TYPE_CHAT_TEXT);
+
+            try {
+                if (codec == json) {
+                    out.write(frame, offset, length);
                 } else {
-                    payloadBytes = objectMapper.writeValueAsBytes(dto);
+                    codec.encode(json.decode(ByteBuffer.wrap(frame, offset, length), ChatTextBroadcast.class), out);
                 }
-                chatServer.broadcast(broadcast.type(), payloadBytes, senderId);
-            } catch (IOException e) {
-                log.error("메시지 방송 실패", e);
+                batch.endEntry();
+            } catch (IOException | RuntimeException e) {
+                batch.abortEntry();
+                throw e;
             }
         });
     }
+
+    /**
+     * beginSend/beginBroadcast로 연 항목에 payload를 쓰고 닫습니다. 인코딩에 실패하면 항목을 지워 배치의 다른 메시지는 그대로 나갑니다.
+     */
+    private static void writeEntry(OutboundBatch batch, OutputStream out, HandlerResult.OutgoingMessage message, WireCodec codec) throws IOException {
+        try {
+            if (message.payload() instanceof byte[] bytes) {
+                out.write(bytes);
+            } else if (message.payload() instanceof DirectPayload direct) {
+                direct.writeTo(out, codec);
+            } else {
+                codec.encode(message.payload(), out);
+            }
+            batch.endEntry();
+        } catch (IOException | RuntimeException e) {
+            batch.abortEntry();
+            throw e;
+        }
+    }
+
+    private WireCodec codecFor(int clientId) {
+        ConnectionSession session = sessionRegistry.get(clientId);
+        return session != null ? codecs.get(session.getWireFormat()) : codecs.json();
+    }
+
+    /**
+     * byte[] payload는 이미 인코딩된 것(파일 조각, 로그인 응답)으로 보고 그대로 보냅니다.
+     */
+    private static byte[] toPayloadBytes(HandlerResult.OutgoingMessage message, WireCodec codec) throws IOException {
+        if (message.payload() instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (message.payload() instanceof PrecomputedPayload precomputed) {
+            return precomputed.bytes(codec);
+        }
+        if (message.payload() instanceof DirectPayload direct) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            direct.writeTo(out, codec);
+            return out.toByteArray();
+        }
+        return codec.encode(message.payload());
+    }
 }
@@ -1,111 +1,723 @@
 package project.java_chat_server.service;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.apache.commons.codec.digest.DigestUtils;
 import project.java_chat_server.domain.FileTransferSession;
+import project.java_chat_server.service.upload.ChecksumAlgorithm;
+import project.java_chat_server.service.upload.ContentStore;
+import project.java_chat_server.service.upload.ManifestEntry;
+import project.java_chat_server.service.upload.ReceivedBlocks;
+import project.java_chat_server.service.upload.UploadCheckpoint;
+import project.java_chat_server.service.upload.UploadChecksum;
+import project.java_chat_server.service.upload.UploadManifest;
+import project.java_chat_server.service.upload.UploadWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * 업로드 세션 관리. 파일은 시작할 때 선언한 크기로 늘려 열어 두고, 조각은 세션 버퍼에 모았다가 업로드 쓰기 쓰레드가 씁니다.
+ * 그래서 조각마다 파일을 열고 닫거나 이벤트 루프 쓰레드에서 디스크를 기다리지 않습니다.
+ * 체크섬도 조각을 받을 때 함께 계산하므로, 끝낼 때 파일을 다시 읽지 않습니다.
+ * <p>
+ * 연결이 끊기거나 서버가 종료되면 업로드를 지우지 않고 멈춥니다. 받은 바이트를 디스크에 내린 뒤 사이드카에 그 위치를 남기고,
+ * 클라이언트가 업로드 id를 담아 FILE_INFO를 다시 보내면 그 위치부터 이어 받습니다. 멈춘 지 resume TTL이 지난 업로드는 청소 쓰레드가 지웁니다.
+ * <p>
+ * 받는 중인 파일은 incoming/ 아래 업로드 id 이름으로 두고, 다 받으면 SHA-256 다이제스트로 찾는 저장소(objects/)로 옮깁니다.
+ * 누가 어떤 이름으로 올렸는지는 업로드 목록(manifest)에 남깁니다. 같은 내용은 한 번만 저장하며,
+ * 저장소에 이미 있는 다이제스트를 미리 알려 준 클라이언트는 조각을 보내지 않고 바로 끝납니다.
+ * <p>
+ * 한 클라이언트가 여러 파일을 동시에 올릴 수 있습니다. 업로드 id와 위치를 담은 조각(FILE_CHUNK_AT)은 아무 순서로나 보내도 되고,
+ * 덜 받은 채 끝내려 하면 빠진 구간을 알려 주므로 그 부분만 다시 보내면 됩니다. 위치 없는 조각과 끝 요청은 진행 중인 업로드가 하나일 때만 씁니다.
+ */
 @Slf4j
 @Service
 public class FileTransferService {
-    private final Map<Integer, FileTransferSession> activeSessions = new ConcurrentHashMap<>();
+    public static final int DEFAULT_WRITE_BUFFER_BYTES = 256 * 1024;
+    public static final int DEFAULT_WRITE_QUEUE_CAPACITY = 64;
+    public static final long DEFAULT_RESUME_TTL_MINUTES = 24 * 60;
+    public static final int DEFAULT_MAX_TRANSFERS_PER_CLIENT = 4;
+    public static final long DEFAULT_MAX_UPLOAD_BYTES = 4L * 1024 * 1024 * 1024;
+    /** 덜 받은 업로드를 끝내려 할 때 알려 줄 빠진 구간 수 */
+    public static final int MAX_REPORTED_MISSING_RANGES = 256;
+    private static final int REHASH_BUFFER_BYTES = 64 * 1024;
+
+    /** clientId -> (업로드 id -> 진행 중인 업로드) */
+    private final Map<Integer, Map<String, FileTransferSession>> activeSessions = new ConcurrentHashMap<>();
+    /** 업로드 id -> 연결이 끊기거나 서버가 종료되어 멈춘 업로드 */
+    private final Map<String, SuspendedUpload> suspendedUploads = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
     private final Path uploadDirectory;
+    /** 받는 중인 파일과 사이드카 */
+    private final Path incomingDirectory;
+    @Getter
+    private final ContentStore contentStore;
+    @Getter
+    private UploadManifest manifest;
+    @Getter
+    private final UploadWriter uploadWriter;
+    private final long resumeTtlMillis;
+    private final int maxTransfersPerClient;
+    /** 한 업로드의 최대 크기. 받은 블록 비트맵을 선언한 크기만큼 미리 만들므로, 파일 시작 요청에서 이보다 크면 거절합니다. */
+    @Getter
+    private final long maxUploadBytes;
+    private ScheduledExecutorService sweeper;
+
+    public FileTransferService(String uploadDirectory) {
+        this(uploadDirectory, DEFAULT_WRITE_BUFFER_BYTES, DEFAULT_WRITE_QUEUE_CAPACITY);
+    }
 
-    public FileTransferService(@Value("${file.upload-directory}") String uploadDirectory) {
+    public FileTransferService(String uploadDirectory, int writeBufferBytes, int writeQueueCapacity) {
+        this(uploadDirectory, writeBufferBytes, writeQueueCapacity, DEFAULT_RESUME_TTL_MINUTES, DEFAULT_MAX_TRANSFERS_PER_CLIENT,
+                DEFAULT_MAX_UPLOAD_BYTES);
+    }
+
+    /**
+     * @param writeBufferBytes      업로드마다 조각을 모을 direct 버퍼 크기
+     * @param writeQueueCapacity    쓰기 쓰레드에 넘길 수 있는 버퍼 수. 가득 차면 조각을 받은 쓰레드가 직접 씁니다.
+     * @param resumeTtlMinutes      멈춘 업로드를 이어 받을 수 있게 남겨 두는 시간
+     * @param maxTransfersPerClient 한 클라이언트가 동시에 진행할 수 있는 업로드 수
+     * @param maxUploadBytes        한 업로드의 최대 크기
+     */
+    @Autowired
+    public FileTransferService(@Value("${file.upload-directory}") String uploadDirectory,
+                               @Value("${file.write-buffer-bytes:" + DEFAULT_WRITE_BUFFER_BYTES + "}") int writeBufferBytes,
+                               @Value("${file.write-queue-capacity:" + DEFAULT_WRITE_QUEUE_CAPACITY + "}") int writeQueueCapacity,
+                               @Value("${file.resume-ttl-minutes:" + DEFAULT_RESUME_TTL_MINUTES + "}") long resumeTtlMinutes,
+                               @Value("${file.max-transfers-per-client:" + DEFAULT_MAX_TRANSFERS_PER_CLIENT + "}") int maxTransfersPerClient,
+                               @Value("${file.max-upload-bytes:" + DEFAULT_MAX_UPLOAD_BYTES + "}") long maxUploadBytes) {
+        if (resumeTtlMinutes < 1 || maxTransfersPerClient < 1 || maxUploadBytes < 1) {
+            throw new IllegalArgumentException("Resume TTL, transfers per client and upload size limit must be positive.");
+        }
+        this.maxTransfersPerClient = maxTransfersPerClient;
+        this.maxUploadBytes = maxUploadBytes;
         this.uploadDirectory = Paths.get(uploadDirectory).toAbsolutePath();
+        this.incomingDirectory = this.uploadDirectory.resolve("incoming");
+        this.contentStore = new ContentStore(this.uploadDirectory.resolve("objects"));
+        this.uploadWriter = new UploadWriter(writeBufferBytes, writeQueueCapacity);
+        this.resumeTtlMillis = TimeUnit.MINUTES.toMillis(resumeTtlMinutes);
     }
 
     @PostConstruct
     public void init() {
         try {
-            Files.createDirectories(this.uploadDirectory);
+            Files.createDirectories(this.incomingDirectory);
+            contentStore.init();
+            manifest = UploadManifest.open(this.uploadDirectory.resolve("manifest.idx"));
             log.info("파일 업로드 디렉토리 초기화 완료: {}", this.uploadDirectory);
         } catch (IOException e) {
-            log.error("치명적 오류: 파일 업로드 디렉토리({})를 생성할 수 없습니다.", this.uploadDirectory, e);
-            throw new RuntimeException("파일 업로드 디렉토리 생성에 실패했습니다.", e);
+            log.error("치명적 오류: 파일 업로드 디렉토리({})를 준비할 수 없습니다.", this.uploadDirectory, e);
+            throw new RuntimeException("파일 업로드 디렉토리 준비에 실패했습니다.", e);
         }
+        loadSuspendedUploads();
+
+        long sweepIntervalMillis = Math.min(resumeTtlMillis, TimeUnit.MINUTES.toMillis(1));
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upload-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(() -> sweepExpiredUploads(System.currentTimeMillis()), sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * 진행 중인 업로드는 지우지 않고 멈춰 두므로, 재시작한 뒤에도 클라이언트가 이어 보낼 수 있습니다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Integer clientId : activeSessions.keySet()) {
+            suspendFileTransfer(clientId);
+        }
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        uploadWriter.close();
+
+        if (manifest != null) {
+            try {
+                manifest.close();
+            } catch (IOException e) {
+                log.warn("업로드 목록을 닫지 못했습니다.", e);
+            }
+        }
+    }
+
+    /**
+     * 이전 실행이 남긴 사이드카를 읽어 멈춘 업로드로 다시 등록합니다. 읽을 수 없거나 받던 파일이 없어진 사이드카는 지웁니다.
+     * 체크섬은 이어 받을 때 받던 파일에서 다시 만듭니다.
+     */
+    private void loadSuspendedUploads() {
+        try (DirectoryStream<Path> sidecars = Files.newDirectoryStream(incomingDirectory, "*" + UploadCheckpoint.SUFFIX)) {
+            for (Path sidecar : sidecars) {
+                try {
+                    UploadCheckpoint checkpoint = UploadCheckpoint.read(sidecar);
+
+                    if (!Files.isRegularFile(checkpoint.filePath()) || Files.size(checkpoint.filePath()) != checkpoint.fileSize()) {
+                        throw new IOException("받던 파일이 없거나 크기가 다릅니다.");
+                    }
+                    suspendedUploads.put(checkpoint.uploadId(),
+                            new SuspendedUpload(checkpoint, null, null, Files.getLastModifiedTime(sidecar).toMillis()));
+                } catch (IOException e) {
+                    log.warn("이어 받을 수 없는 업로드 사이드카를 지웁니다: {} ({})", sidecar, e.getMessage());
+                    deleteQuietly(sidecar);
+                }
+            }
+        } catch (IOException e) {
+            log.error("업로드 사이드카를 읽지 못했습니다: {}", incomingDirectory, e);
+        }
+
+        if (!suspendedUploads.isEmpty()) {
+            log.info("이어 받을 수 있는 업로드 {}개를 불러왔습니다.", suspendedUploads.size());
+        }
+    }
 
     public void startFileTransfer(int clientId, String fileName, long fileSize) throws IOException {
-        if (activeSessions.containsKey(clientId)) {
-            throw new IOException("이미 진행 중인 파일 전송이 있습니다.");
+        startFileTransfer(clientId, fileName, fileSize, ChecksumAlgorithm.SHA256);
+    }
+
+    /**
+     * @param checksumAlgorithm 끝낼 때 클라이언트가 보낼 체크섬의 계산 방식
+     */
+    public void startFileTransfer(int clientId, String fileName, long fileSize, ChecksumAlgorithm checksumAlgorithm) throws IOException {
+        startFileTransfer(clientId, null, fileName, fileSize, checksumAlgorithm);
+    }
+
+    /**
+     * 새 업로드를 시작하고, 받은 위치 0으로 사이드카를 남깁니다.
+     * @param owner 업로드를 시작한 닉네임. 이어 받을 때 같은 닉네임인지 확인합니다.
+     * @return 시작한 세션. 클라이언트에게 업로드 id를 알려 줄 때 씁니다.
+     */
+    public FileTransferSession startFileTransfer(int clientId, @Nullable String owner, String fileName, long fileSize,
+                                                 ChecksumAlgorithm checksumAlgorithm) throws IOException {
+        checkTransferLimit(clientId);
+
+        String uploadId = newUploadId();
+        // 클라이언트가 보낸 이름은 경로에 쓰지 않습니다. 다 받으면 다이제스트 이름으로 저장소에 옮깁니다.
+        Path filePath = incomingDirectory.resolve(uploadId + ".part");
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileTransferSession session;
+
+        try {
+            // 마지막 바이트를 먼저 써서 파일을 선언한 크기로 늘려 둡니다. 이후 조각은 위치를 지정해 쓰므로 파일 크기가 바뀌지 않습니다.
+            if (fileSize > 0) {
+                channel.write(ByteBuffer.allocate(1), fileSize - 1);
+            }
+            // 서버가 갑자기 죽어도 청소 쓰레드가 받던 파일을 찾아 지울 수 있도록 시작할 때부터 사이드카를 둡니다.
+            new UploadCheckpoint(uploadId, owner, fileName, fileSize, checksumAlgorithm, 0, filePath).write();
+            session = new FileTransferSession(uploadId, owner, fileName, fileSize, filePath, channel,
+                    checksumAlgorithm, checksumAlgorithm.newChecksum(), null, 0);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            deleteQuietly(filePath);
+            deleteQuietly(UploadCheckpoint.sidecarOf(filePath));
+            throw e;
+        }
+
+        addSession(clientId, session);
+        log.info("파일 전송 시작: 클라이언트(id:{}) -> 파일 '{}' ({} bytes, 체크섬 {})", clientId, fileName, fileSize, checksumAlgorithm.getName());
+        return session;
+    }
+
+    /**
+     * 멈춘 업로드를 이어 받습니다. 돌려준 세션의 receivedBytes부터 조각을 받습니다.
+     * 서버가 재시작되어 체크섬이 메모리에 없으면 받던 파일의 앞부분을 읽어 다시 만듭니다.
+     * @throws UploadNotResumableException 해당 id의 멈춘 업로드가 없거나, 닉네임/파일 이름/크기/체크섬 방식이 다르면
+     */
+    public FileTransferSession resumeFileTransfer(int clientId, String uploadId, @Nullable String owner, String fileName, long fileSize,
+                                                  ChecksumAlgorithm checksumAlgorithm) throws IOException {
+        checkTransferLimit(clientId);
+
+        // 꺼내는 쪽만 이어 받으므로 같은 id로 동시에 이어 받거나 청소 쓰레드와 겹치지 않습니다.
+        SuspendedUpload suspended = suspendedUploads.remove(uploadId);
+
+        if (suspended == null) {
+            throw new UploadNotResumableException("이어 받을 업로드가 없습니다: " + uploadId);
+        }
+
+        UploadCheckpoint checkpoint = suspended.checkpoint();
+
+        if (!Objects.equals(checkpoint.owner(), owner) || !checkpoint.fileName().equals(fileName)
+                || checkpoint.fileSize() != fileSize || checkpoint.checksumAlgorithm() != checksumAlgorithm) {
+            suspendedUploads.put(uploadId, suspended);
+            throw new UploadNotResumableException("이어 받을 업로드의 정보가 일치하지 않습니다: " + uploadId);
         }
 
-        Path filePath = uploadDirectory.resolve(System.currentTimeMillis() + "_" + fileName);
-        FileTransferSession session = new FileTransferSession(fileName, fileSize, filePath);
+        FileChannel channel = null;
+        FileTransferSession session;
+
+        try {
+            channel = FileChannel.open(checkpoint.filePath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            UploadChecksum checksum = suspended.checksum();
+            UploadChecksum contentChecksum = suspended.contentChecksum();
+
+            if (checksum == null) {
+                checksum = checksumAlgorithm.newChecksum();
+                contentChecksum = checksumAlgorithm == ChecksumAlgorithm.SHA256 ? checksum : ChecksumAlgorithm.SHA256.newChecksum();
+                rehash(channel, checkpoint, checksum, contentChecksum);
+            }
+            session = new FileTransferSession(uploadId, owner, fileName, fileSize, checkpoint.filePath(), channel,
+                    checksumAlgorithm, checksum, contentChecksum, checkpoint.receivedBytes());
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                closeQuietly(channel);
+            }
+            suspendedUploads.put(uploadId, suspended);
+            throw e;
+        }
 
-        activeSessions.put(clientId, session);
-        log.info("파일 전송 시작: 클라이언트(id:{}) -> 파일 '{}' ({} bytes)", clientId, fileName, fileSize);
+        addSession(clientId, session);
+        log.info("파일 전송 재개: 클라이언트(id:{}) -> 파일 '{}' ({} / {} bytes)", clientId, fileName, checkpoint.receivedBytes(), fileSize);
+        return session;
     }
 
-    public void processFileChunk(int clientId, byte[] chunk) throws IOException {
-        FileTransferSession session = activeSessions.get(clientId);
+    private static void rehash(FileChannel channel, UploadCheckpoint checkpoint, UploadChecksum checksum, UploadChecksum contentChecksum) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(REHASH_BUFFER_BYTES);
+        long position = 0;
 
-        if (session == null) {
-            throw new IOException("해당 클라이언트의 파일 전송 세션이 존재하지 않습니다.");
+        while (position < checkpoint.receivedBytes()) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), checkpoint.receivedBytes() - position));
+            int read = channel.read(buffer, position);
+
+            if (read < 0) {
+                throw new IOException("받던 파일이 사이드카의 위치보다 짧습니다: " + checkpoint.filePath());
+            }
+            checksum.update(buffer.flip());
+            if (contentChecksum != checksum) {
+                contentChecksum.update(buffer);
+            }
+            position += read;
         }
+    }
+
+    /**
+     * 클라이언트의 진행 중인 업로드를 모두 멈춥니다. 모으던 버퍼까지 써서 디스크에 내린 뒤 받은 위치를 사이드카에 남깁니다.
+     * 앞에서부터 빠짐없이 받은 부분까지만 남기므로, 순서를 건너뛰어 받은 뒷부분은 이어 받을 때 다시 받습니다.
+     * 멈추지 못하면(쓰기 실패 등) 업로드를 지웁니다.
+     */
+    public void suspendFileTransfer(int clientId) {
+        Map<String, FileTransferSession> transfers = activeSessions.remove(clientId);
 
-        Files.write(session.getFilePath(), chunk, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-        session.addReceivedBytes(chunk.length);
+        if (transfers != null) {
+            for (FileTransferSession session : transfers.values()) {
+                suspend(clientId, session);
+            }
+        }
     }
 
-    public FileTransferSession endFileTransfer(int clientId, String clientChecksum) throws IOException {
-        FileTransferSession session = activeSessions.get(clientId);
+    private void suspend(int clientId, FileTransferSession session) {
+        try {
+            submitBuffer(session);
+            session.awaitWrites();
+            session.getChannel().force(false);
+            session.getChannel().close();
 
-        if (session == null) {
-            throw new IOException("해당 클라이언트의 파일 전송 세션이 존재하지 않습니다.");
+            UploadCheckpoint checkpoint = new UploadCheckpoint(session.getUploadId(), session.getOwner(), session.getFileName(), session.getFileSize(),
+                    session.getChecksumAlgorithm(), session.getHashedBytes(), session.getFilePath());
+            checkpoint.write();
+            suspendedUploads.put(checkpoint.uploadId(), new SuspendedUpload(checkpoint, session.getChecksum(), session.getContentChecksum(), System.currentTimeMillis()));
+            log.info("파일 전송 일시 중지: id={}, 파일={}, {} / {} bytes", clientId, session.getFileName(), session.getHashedBytes(), session.getFileSize());
+        } catch (IOException e) {
+            log.warn("파일 전송을 멈추지 못해 취소합니다: id={}, 파일={}, 사유: {}", clientId, session.getFileName(), e.getMessage());
+            discard(session, "멈추지 못한 전송");
         }
+    }
 
-        if (!session.isCompleted()) {
-            activeSessions.remove(clientId);
+    /**
+     * 멈춘 지 resume TTL이 지난 업로드의 받던 파일과 사이드카를 지웁니다.
+     * @return 지운 업로드 수
+     */
+    public int sweepExpiredUploads(long nowMillis) {
+        int swept = 0;
+
+        for (Map.Entry<String, SuspendedUpload> entry : suspendedUploads.entrySet()) {
+            SuspendedUpload suspended = entry.getValue();
+
+            if (nowMillis - suspended.suspendedAt() < resumeTtlMillis || !suspendedUploads.remove(entry.getKey(), suspended)) {
+                continue;
+            }
+
+            UploadCheckpoint checkpoint = suspended.checkpoint();
             try {
-                Files.deleteIfExists(session.getFilePath());
+                Files.deleteIfExists(checkpoint.filePath());
+                Files.deleteIfExists(checkpoint.sidecar());
             } catch (IOException e) {
-                log.error("불완전한 전송 파일 삭제 실패: {}", session.getFilePath(), e);
+                log.error("만료된 업로드를 지우지 못했습니다: {}", checkpoint.filePath(), e);
             }
-            throw new IOException(String.format("파일 전송이 불완전합니다. 예상 크기: %d, 수신 크기: %d", session.getFileSize(), session.getReceivedBytes()));
+            log.info("만료된 업로드를 지웠습니다: 파일={}, {} / {} bytes", checkpoint.fileName(), checkpoint.receivedBytes(), checkpoint.fileSize());
+            swept++;
         }
+        return swept;
+    }
 
-        String serverChecksum;
+    public int getSuspendedUploadCount() {
+        return suspendedUploads.size();
+    }
+
+    private String newUploadId() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
 
-        try (InputStream is = Files.newInputStream(session.getFilePath())) {
-            serverChecksum = DigestUtils.sha256Hex(is);
+    public void processFileChunk(int clientId, byte[] chunk) throws IOException {
+        processFileChunk(clientId, ByteBuffer.wrap(chunk));
+    }
+
+    /**
+     * 위치 없이 온 조각을 진행 중인 업로드(하나뿐이어야 함)의 앞 조각 바로 뒤에 씁니다. chunk의 position은 바뀌지 않습니다.
+     * 앞서 넘긴 쓰기가 실패했으면 여기서 그 예외를 던집니다.
+     */
+    public void processFileChunk(int clientId, ByteBuffer chunk) throws IOException {
+        FileTransferSession session = requireSession(clientId, null);
+        session.throwIfWriteFailed();
+
+        if (session.isPositional()) {
+            throw new IOException("위치를 지정한 조각을 받은 업로드에는 위치 없는 조각을 보낼 수 없습니다.");
+        }
+
+        ByteBuffer source = chunk.duplicate();
+        int length = source.remaining();
+
+        if (length > session.getFileSize() - session.getStreamOffset()) {
+            throw new IOException(String.format("선언한 파일 크기를 넘는 조각입니다. 예상 크기: %d, 수신 크기: %d", session.getFileSize(), session.getStreamOffset() + length));
+        }
+        write(session, session.acceptNext(source), source);
+    }
+
+    /**
+     * uploadId 업로드의 offset 위치에 조각을 씁니다. 같은 구간을 다시 보내도 됩니다. chunk의 position은 바뀌지 않습니다.
+     * offset은 ReceivedBlocks.BLOCK_BYTES의 배수여야 하고, 조각 길이도 그 배수이거나 파일 끝까지여야 합니다.
+     */
+    public void processFileChunk(int clientId, String uploadId, long offset, ByteBuffer chunk) throws IOException {
+        FileTransferSession session = requireSession(clientId, uploadId);
+        session.throwIfWriteFailed();
+
+        ByteBuffer source = chunk.duplicate();
+        int length = source.remaining();
+        long end = offset + length;
+
+        if (offset < 0 || length == 0 || end > session.getFileSize()) {
+            throw new IOException(String.format("파일 범위를 벗어난 조각입니다. 파일 크기: %d, 조각: %d+%d", session.getFileSize(), offset, length));
+        }
+        if (offset % ReceivedBlocks.BLOCK_BYTES != 0 || (length % ReceivedBlocks.BLOCK_BYTES != 0 && end != session.getFileSize())) {
+            throw new IOException(String.format("조각의 위치와 길이는 %d바이트 단위여야 합니다. (마지막 조각 제외)", ReceivedBlocks.BLOCK_BYTES));
+        }
+        session.acceptAt(offset, source);
+        write(session, offset, source);
+    }
+
+    /**
+     * source를 세션 버퍼에 복사하고, 버퍼가 차거나 파일을 다 받으면 쓰기 쓰레드에 넘깁니다.
+     * 조각이 모으던 버퍼 끝에 이어지지 않으면 모으던 버퍼를 먼저 넘기고 그 위치에서 새로 모읍니다.
+     */
+    private void write(FileTransferSession session, long offset, ByteBuffer source) {
+        long position = offset;
+
+        while (source.hasRemaining()) {
+            ByteBuffer buffer = session.getBuffer();
+
+            if (buffer != null && session.getBufferOffset() + buffer.position() != position) {
+                submitBuffer(session);
+                buffer = null;
+            }
+            if (buffer == null) {
+                buffer = uploadWriter.acquire();
+                session.setBuffer(buffer);
+                session.setBufferOffset(position);
+            }
+
+            int copied = Math.min(buffer.remaining(), source.remaining());
+            int limit = source.limit();
+            buffer.put(source.limit(source.position() + copied));
+            source.limit(limit);
+            position += copied;
+
+            if (!buffer.hasRemaining()) {
+                submitBuffer(session);
+            }
         }
 
-        if (!serverChecksum.equals(clientChecksum)) {
+        if (session.isCompleted()) {
+            submitBuffer(session);
+        }
+    }
+
+    private void submitBuffer(FileTransferSession session) {
+        ByteBuffer buffer = session.getBuffer();
+
+        if (buffer == null) {
+            return;
+        }
+        session.setBuffer(null);
+
+        if (buffer.position() == 0) {
+            uploadWriter.release(buffer);
+            return;
+        }
+
+        buffer.flip();
+        uploadWriter.submit(session, buffer, session.getBufferOffset());
+    }
+
+    public FileTransferSession endFileTransfer(int clientId, String clientChecksum) throws IOException {
+        return endFileTransfer(clientId, null, clientChecksum);
+    }
+
+    /**
+     * @param uploadId null이면 진행 중인 업로드가 하나여야 합니다.
+     * @throws IncompleteUploadException 위치를 지정해 보낸 업로드를 덜 받았을 때. 업로드는 그대로 두므로 빠진 구간만 다시 보내고 다시 끝내면 됩니다.
+     */
+    public FileTransferSession endFileTransfer(int clientId, @Nullable String uploadId, String clientChecksum) throws IOException {
+        FileTransferSession session = requireSession(clientId, uploadId);
+
+        if (!session.isCompleted()) {
+            if (session.isPositional()) {
+                throw new IncompleteUploadException(session, session.getMissingRanges(MAX_REPORTED_MISSING_RANGES));
+            }
+            removeSession(clientId, session);
+            discard(session, "불완전한 전송");
+            throw new IOException(String.format("파일 전송이 불완전합니다. 예상 크기: %d, 수신 크기: %d", session.getFileSize(), session.getReceivedBytes()));
+        }
+
+        try {
+            session.awaitWrites();
+            hashRemaining(session);
+            session.getChannel().close();
+        } catch (IOException e) {
+            removeSession(clientId, session);
+            discard(session, "쓰기에 실패한 전송");
+            throw e;
+        }
+
+        String serverChecksum = session.finishChecksum();
+
+        if (!serverChecksum.equalsIgnoreCase(clientChecksum)) {
             Files.delete(session.getFilePath());
-            activeSessions.remove(clientId);
+            deleteSidecar(session);
+            removeSession(clientId, session);
             throw new IOException("파일 무결성 검증 실패: 체크섬이 일치하지 않습니다.");
         }
 
-        activeSessions.remove(clientId);
+        try {
+            session.setStoredPath(contentStore.commit(session.getFilePath(), session.getContentDigest()));
+            recordUpload(session.getOwner(), session.getFileName(), session.getContentDigest());
+        } catch (IOException e) {
+            removeSession(clientId, session);
+            discard(session, "저장소로 옮기지 못한 전송");
+            throw e;
+        }
+
+        deleteSidecar(session);
+        removeSession(clientId, session);
         return session;
     }
 
+    /**
+     * 순서가 어긋나 받자마자 체크섬에 넣지 못한 부분을 파일에서 읽어 넣습니다. 순서대로 받았으면 아무것도 읽지 않습니다.
+     */
+    private static void hashRemaining(FileTransferSession session) throws IOException {
+        if (session.getHashedBytes() == session.getFileSize()) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(REHASH_BUFFER_BYTES);
+
+        while (session.getHashedBytes() < session.getFileSize()) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), session.getFileSize() - session.getHashedBytes()));
+
+            if (session.getChannel().read(buffer, session.getHashedBytes()) < 0) {
+                throw new IOException("받은 파일이 선언한 크기보다 짧습니다: " + session.getFilePath());
+            }
+            session.hashNext(buffer.flip());
+        }
+    }
+
+    /**
+     * 클라이언트가 미리 알려 준 SHA-256 다이제스트의 파일을 저장소가 이미 가지고 있으면 조각을 받지 않고 업로드를 끝냅니다.
+     * @param digest 소문자 16진수 64자리 SHA-256
+     * @return 저장소 안의 경로. 가지고 있지 않으면 null (평소처럼 업로드를 시작하면 됩니다.)
+     */
+    @Nullable
+    public Path completeFromStore(int clientId, @Nullable String owner, String fileName, long fileSize, String digest) throws IOException {
+        if (!contentStore.contains(digest, fileSize)) {
+            return null;
+        }
+        recordUpload(owner, fileName, digest);
+        log.info("저장소에 있는 파일이라 전송을 건너뜁니다: 클라이언트(id:{}) -> 파일 '{}' ({} bytes)", clientId, fileName, fileSize);
+        return contentStore.pathOf(digest);
+    }
+
+    private void recordUpload(@Nullable String owner, String fileName, String digest) throws IOException {
+        manifest.append(new ManifestEntry(owner == null ? "" : owner, fileName, System.currentTimeMillis(), digest));
+    }
+
+    /**
+     * @return 진행 중인 업로드가 하나면 그 업로드, 없거나 여러 개면 null
+     */
     public FileTransferSession getSession(int clientId) {
-        return activeSessions.get(clientId);
+        Map<String, FileTransferSession> transfers = activeSessions.get(clientId);
+        return transfers != null && transfers.size() == 1 ? transfers.values().iterator().next() : null;
+    }
+
+    public FileTransferSession getSession(int clientId, String uploadId) {
+        Map<String, FileTransferSession> transfers = activeSessions.get(clientId);
+        return transfers != null ? transfers.get(uploadId) : null;
+    }
+
+    public int getTransferCount(int clientId) {
+        Map<String, FileTransferSession> transfers = activeSessions.get(clientId);
+        return transfers != null ? transfers.size() : 0;
     }
 
+    /**
+     * 클라이언트의 진행 중인 업로드를 모두 취소합니다.
+     */
     public void cancelFileTransfer(int clientId, String reason) {
-        FileTransferSession session = activeSessions.remove(clientId);
+        Map<String, FileTransferSession> transfers = activeSessions.remove(clientId);
 
-        if (session != null) {
-            try {
-                Files.deleteIfExists(session.getFilePath());
-            } catch (IOException e) {
-                log.error("취소된 전송의 임시 파일 삭제 실패", e);
+        if (transfers != null) {
+            for (FileTransferSession session : transfers.values()) {
+                discard(session, "취소된 전송");
+                log.warn("파일 전송이 취소되었습니다: id={}, 파일={}, 사유: {}", clientId, session.getFileName(), reason);
             }
-            log.warn("파일 전송이 취소되었습니다: id={}, 파일={}, 사유: {}", clientId, session.getFileName(), reason);
+        }
+    }
+
+    /**
+     * @param uploadId null이면 진행 중인 업로드가 하나뿐일 때 그 업로드
+     */
+    private FileTransferSession requireSession(int clientId, @Nullable String uploadId) throws IOException {
+        Map<String, FileTransferSession> transfers = activeSessions.get(clientId);
+        FileTransferSession session;
+
+        if (uploadId == null) {
+            if (transfers != null && transfers.size() > 1) {
+                throw new IOException("진행 중인 파일 전송이 여러 개입니다. 업로드 id를 함께 보내야 합니다.");
+            }
+            session = getSession(clientId);
+        } else {
+            session = transfers != null ? transfers.get(uploadId) : null;
+        }
+
+        if (session == null) {
+            throw new IOException("해당 클라이언트의 파일 전송 세션이 존재하지 않습니다.");
+        }
+        return session;
+    }
+
+    private void checkTransferLimit(int clientId) throws IOException {
+        if (getTransferCount(clientId) >= maxTransfersPerClient) {
+            throw new IOException(String.format("동시에 진행할 수 있는 파일 전송은 최대 %d개입니다.", maxTransfersPerClient));
+        }
+    }
+
+    private void addSession(int clientId, FileTransferSession session) {
+        activeSessions.computeIfAbsent(clientId, id -> new ConcurrentHashMap<>()).put(session.getUploadId(), session);
+    }
+
+    private void removeSession(int clientId, FileTransferSession session) {
+        activeSessions.computeIfPresent(clientId, (id, transfers) -> {
+            transfers.remove(session.getUploadId(), session);
+            return transfers.isEmpty() ? null : transfers;
+        });
+    }
+
+    /**
+     * 모으던 버퍼를 풀에 돌려주고 채널을 닫은 뒤 파일과 사이드카를 지웁니다. 아직 쓰고 있던 버퍼는 닫힌 채널에 쓰다 실패하고 풀로 돌아갑니다.
+     */
+    private void discard(FileTransferSession session, String description) {
+        ByteBuffer buffer = session.getBuffer();
+
+        if (buffer != null) {
+            session.setBuffer(null);
+            uploadWriter.release(buffer);
+        }
+        closeQuietly(session.getChannel());
+
+        try {
+            Files.deleteIfExists(session.getFilePath());
+        } catch (IOException e) {
+            log.error("{}의 파일 삭제 실패: {}", description, session.getFilePath(), e);
+        }
+        deleteSidecar(session);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("파일을 지우지 못했습니다: {}", path, e);
+        }
+    }
+
+    private static void deleteSidecar(FileTransferSession session) {
+        try {
+            Files.deleteIfExists(UploadCheckpoint.sidecarOf(session.getFilePath()));
+        } catch (IOException e) {
+            log.warn("업로드 사이드카를 지우지 못했습니다: {}", session.getFilePath(), e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("업로드 파일 채널을 닫지 못했습니다.", e);
+        }
+    }
+
+    /**
+     * @param checksum 연결이 끊겨 멈췄으면 받은 바이트까지 넣은 체크섬, 재시작 뒤 사이드카에서 불러왔으면 null
+     */
+    private record SuspendedUpload(UploadCheckpoint checkpoint, @Nullable UploadChecksum checksum, @Nullable UploadChecksum contentChecksum, long suspendedAt) {}
+
+    /**
+     * 위치를 지정해 보낸 업로드를 덜 받은 채 끝내려 할 때. 업로드는 지우지 않습니다.
+     */
+    public static class IncompleteUploadException extends IOException {
+        private final transient FileTransferSession session;
+        /** 빠진 구간 [시작, 끝) 바이트 위치. 많으면 앞에서부터 MAX_REPORTED_MISSING_RANGES개만 */
+        private final transient List<long[]> missingRanges;
+
+        public IncompleteUploadException(FileTransferSession session, List<long[]> missingRanges) {
+            super(String.format("파일 전송이 불완전합니다. 예상 크기: %d, 수신 크기: %d", session.getFileSize(), session.getReceivedBytes()));
+            this.session = session;
+            this.missingRanges = missingRanges;
+        }
+
+        public FileTransferSession getSession() {
+            return session;
+        }
+
+        public List<long[]> getMissingRanges() {
+            return missingRanges;
+        }
+    }
+
+    /**
+     * 요청한 업로드를 이어 받을 수 없을 때. 클라이언트는 처음부터 새로 보내면 됩니다.
+     */
+    public static class UploadNotResumableException extends IOException {
+        public UploadNotResumableException(String message) {
+            super(message);
         }
     }
 
@@ -0,0 +1,186 @@
+package project.java_chat_server.service;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import project.java_chat_server.domain.ChatHistory;
+import project.java_chat_server.domain.ChatRoom;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.wrapper_library.ChatServer;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 채팅방 목록과 멤버십. 방마다 네이티브 fd 그룹을 하나씩 두고, 들어가고 나갈 때 그룹에도 똑같이 반영합니다.
+ * 한 세션은 한 번에 한 방에만 들어갈 수 있습니다. 같은 세션의 join/leave는 ChatService가 한 쓰레드에서 순서대로 부르므로,
+ * 방 이름 단위의 compute로 서로 다른 세션끼리의 경쟁(마지막 멤버가 나가는 순간의 입장 등)만 막으면 됩니다.
+ * 방마다, 그리고 방에 들어가지 않은 사용자끼리의 전체 채팅(로비)에 최근 채팅 기록을 하나씩 둡니다.
+ */
+@Slf4j
+@Service
+public class RoomService {
+    private static final Pattern ROOM_NAME_PATTERN = Pattern.compile("[a-zA-Z0-9_-]{1,30}");
+    public static final int DEFAULT_HISTORY_MESSAGES = 50;
+    public static final int DEFAULT_HISTORY_BYTES = 32 * 1024;
+
+    private final ChatServer chatServer;
+    private final int historyMessages;
+    private final int historyBytes;
+    /** 방에 들어가지 않은 사용자들의 전체 채팅 기록. 로그인 직후 재생합니다. */
+    @Getter
+    private final ChatHistory lobbyHistory;
+    private final Map<String, ChatRoom> roomsByName = new ConcurrentHashMap<>();
+    /** 인코딩이 섞여 그룹 브로드캐스트를 연결별 송신으로 나눌 때 멤버를 찾는 용도 */
+    private final Map<Integer, ChatRoom> roomsByGroupId = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGroupId = new AtomicInteger();
+
+    public RoomService(ChatServer chatServer) {
+        this(chatServer, DEFAULT_HISTORY_MESSAGES, DEFAULT_HISTORY_BYTES);
+    }
+
+    /**
+     * @param historyMessages 방(로비 포함)마다 남겨 둘 최근 채팅 수, 0이면 기록하지 않음
+     * @param historyBytes    방마다 기록에 쓸 최대 바이트
+     */
+    @Autowired
+    public RoomService(ChatServer chatServer,
+                       @Value("${chat.history.max-messages:" + DEFAULT_HISTORY_MESSAGES + "}") int historyMessages,
+                       @Value("${chat.history.max-bytes:" + DEFAULT_HISTORY_BYTES + "}") int historyBytes) {
+        this.chatServer = chatServer;
+        this.historyMessages = historyMessages;
+        this.historyBytes = historyBytes;
+        this.lobbyHistory = new ChatHistory(historyMessages, historyBytes);
+    }
+
+    /**
+     * 세션을 방에 넣습니다. 방이 없으면 만들고, 다른 방에 있었으면 먼저 나옵니다.
+     * @return 들어간 방
+     */
+    public ChatRoom join(ConnectionSession session, String roomName) throws RoomException {
+        if (roomName == null || !ROOM_NAME_PATTERN.matcher(roomName).matches()) {
+            throw new RoomException("방 이름은 1~30자의 영문/숫자/_/-만 가능합니다.");
+        }
+
+        final ChatRoom current = session.getRoom();
+
+        if (current != null && current.getName().equals(roomName)) {
+            throw new RoomException("이미 들어가 있는 방입니다.");
+        }
+        if (current != null) {
+            leave(session);
+        }
+
+        final int clientId = session.getClientId();
+        final ChatRoom room = roomsByName.compute(roomName, (name, existing) -> {
+            final ChatRoom target = existing != null ? existing : createRoom(name);
+            target.addMember(clientId);
+            return target;
+        });
+
+        if (!chatServer.joinGroup(room.getGroupId(), clientId)) {
+            // Java 쪽만 멤버로 남지 않도록 되돌립니다.
+            removeMember(room, clientId);
+            log.warn("클라이언트(id:{})를 방 '{}'의 네이티브 그룹({})에 넣지 못했습니다.", clientId, roomName, room.getGroupId());
+            throw new RoomException("방에 들어가지 못했습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        session.setRoom(room);
+        log.info("클라이언트(id:{})가 방 '{}'에 들어왔습니다. (인원 {}명)", clientId, roomName, room.size());
+        return room;
+    }
+
+    /**
+     * @return 나온 방, 들어가 있던 방이 없으면 비어 있음
+     */
+    public Optional<ChatRoom> leave(ConnectionSession session) {
+        final ChatRoom room = session.getRoom();
+
+        if (room == null) {
+            return Optional.empty();
+        }
+        session.setRoom(null);
+        removeMember(room, session.getClientId());
+        chatServer.leaveGroup(room.getGroupId(), session.getClientId());
+        log.info("클라이언트(id:{})가 방 '{}'에서 나갔습니다.", session.getClientId(), room.getName());
+        return Optional.of(room);
+    }
+
+    /**
+     * 연결이 끊긴 세션을 방에서 뺍니다. 네이티브 쪽은 소켓을 닫으면서 그룹에서 빼지만,
+     * 입장 요청이 소켓이 닫힌 뒤에 처리되면 그 사이 같은 fd를 받은 새 연결이 대신 그룹에 들어갑니다.
+     * 그래서 네이티브 그룹에서도 한 번 더 뺍니다. 같은 fd의 명령은 한 루프가 순서대로 처리하고,
+     * 새 연결의 작업은 이 연결 종료 처리가 끝난 뒤에 실행되므로 새 연결이 스스로 들어간 방에는 영향이 없습니다.
+     */
+    public void onDisconnect(ConnectionSession session) {
+        final ChatRoom room = session.getRoom();
+
+        if (room != null) {
+            session.setRoom(null);
+            removeMember(room, session.getClientId());
+            chatServer.leaveGroup(room.getGroupId(), session.getClientId());
+        }
+    }
+
+    public Optional<ChatRoom> findRoom(String roomName) {
+        return Optional.ofNullable(roomsByName.get(roomName));
+    }
+
+    @Nullable
+    public ChatRoom findByGroupId(int groupId) {
+        return roomsByGroupId.get(groupId);
+    }
+
+    /**
+     * 브로드캐스트 대상(그룹 id, 전체면 -1)의 채팅 기록. 그 사이 방이 사라졌으면 null
+     */
+    @Nullable
+    public ChatHistory historyFor(int groupId) {
+        if (groupId < 0) {
+            return lobbyHistory;
+        }
+        final ChatRoom room = roomsByGroupId.get(groupId);
+        return room != null ? room.getHistory() : null;
+    }
+
+    public int getRoomCount() {
+        return roomsByName.size();
+    }
+
+    /** compute 안에서만 부릅니다. */
+    private ChatRoom createRoom(String name) {
+        // 한 바퀴 돌아 재사용될 즈음에는 같은 id의 방이 남아 있지 않다고 봅니다.
+        final int groupId = nextGroupId.getAndUpdate(id -> id == Integer.MAX_VALUE ? 0 : id + 1);
+        final ChatRoom room = new ChatRoom(name, groupId, new ChatHistory(historyMessages, historyBytes));
+        roomsByGroupId.put(groupId, room);
+        return room;
+    }
+
+    /**
+     * 마지막 멤버가 나가면 방을 지웁니다. 같은 이름으로 새로 만들어진 방이면 건드리지 않습니다.
+     */
+    private void removeMember(ChatRoom room, int clientId) {
+        roomsByName.computeIfPresent(room.getName(), (name, existing) -> {
+            if (existing != room) {
+                return existing;
+            }
+            existing.removeMember(clientId);
+
+            if (existing.isEmpty()) {
+                roomsByGroupId.remove(existing.getGroupId(), existing);
+                return null;
+            }
+            return existing;
+        });
+    }
+
+    public static class RoomException extends Exception {
+        public RoomException(String message) {
+            super(message);
+        }
+    }
+}
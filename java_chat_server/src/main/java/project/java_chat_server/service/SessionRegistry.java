@@ -0,0 +1,111 @@
+package project.java_chat_server.service;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.WireFormat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * fd로 바로 찾는 연결 세션 표. 네이티브 서버의 client_map과 같은 방식으로 fd를 배열 인덱스로 씁니다.
+ * 메시지 경로에서는 맵 조회나 객체 생성 없이 배열 한 칸만 읽습니다.
+ */
+@Slf4j
+@Service
+public class SessionRegistry {
+    /** C의 MAX_FD_LIMIT */
+    public static final int MAX_CLIENT_ID = 65536;
+
+    private final AtomicReferenceArray<ConnectionSession> sessions = new AtomicReferenceArray<>(MAX_CLIENT_ID);
+    private final AtomicInteger count = new AtomicInteger();
+    /** 코덱이 섞였을 때 브로드캐스트를 연결별로 나눠 보내기 위한 열린 세션 목록 */
+    private final Set<ConnectionSession> openSessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nonJsonSessions = new AtomicInteger();
+
+    public ConnectionSession open(int clientId, String ipAddr) {
+        checkClientId(clientId);
+        ConnectionSession session = new ConnectionSession(clientId, ipAddr);
+        ConnectionSession previous = sessions.getAndSet(clientId, session);
+        openSessions.add(session);
+
+        if (previous != null) {
+            log.warn("닫히지 않은 세션을 덮어씁니다: 클라이언트(id:{}), 이전 ip={}", clientId, previous.getIpAddr());
+            forget(previous);
+        } else {
+            count.incrementAndGet();
+        }
+        return session;
+    }
+
+    @Nullable
+    public ConnectionSession get(int clientId) {
+        return clientId >= 0 && clientId < MAX_CLIENT_ID ? sessions.get(clientId) : null;
+    }
+
+    /**
+     * 표에 남아 있는 것이 바로 이 세션일 때만 지웁니다.
+     * 연결 해제 처리가 늦게 실행되는 사이 같은 fd로 새 연결이 들어와도 새 세션은 그대로 둡니다.
+     */
+    public boolean close(ConnectionSession session) {
+        if (sessions.compareAndSet(session.getClientId(), session, null)) {
+            count.decrementAndGet();
+            forget(session);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 세션의 payload 인코딩을 바꿉니다. 한 세션의 전환은 그 연결의 메시지를 처리하는 쓰레드에서만 일어납니다.
+     */
+    public void switchFormat(ConnectionSession session, WireFormat format) {
+        final WireFormat previous = session.getWireFormat();
+
+        if (previous == format) {
+            return;
+        }
+        session.setWireFormat(format);
+
+        if (!openSessions.contains(session)) {
+            return;
+        }
+        if (previous == WireFormat.JSON) {
+            nonJsonSessions.incrementAndGet();
+        } else if (format == WireFormat.JSON) {
+            nonJsonSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return 모든 연결이 JSON이면 true (브로드캐스트를 네이티브 한 번으로 보낼 수 있음)
+     */
+    public boolean isAllJson() {
+        return nonJsonSessions.get() == 0;
+    }
+
+    public Collection<ConnectionSession> getOpenSessions() {
+        return Collections.unmodifiableSet(openSessions);
+    }
+
+    private void forget(ConnectionSession session) {
+        if (openSessions.remove(session) && session.getWireFormat() != WireFormat.JSON) {
+            nonJsonSessions.decrementAndGet();
+        }
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    private static void checkClientId(int clientId) {
+        if (clientId < 0 || clientId >= MAX_CLIENT_ID) {
+            throw new IllegalArgumentException("Client ID out of range: " + clientId);
+        }
+    }
+}
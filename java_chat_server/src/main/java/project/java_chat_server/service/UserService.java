@@ -1,20 +1,28 @@
 package project.java_chat_server.service;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import project.java_chat_server.domain.ConnectionSession;
 
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
+/**
+ * 로그인한 사용자를 fd → 닉네임, 닉네임 → fd 두 방향으로 들고 있습니다. 전역 락 없이 닉네임 선점(putIfAbsent)으로 중복을 막습니다.
+ * 같은 fd의 로그인/로그아웃은 ChatService가 한 쓰레드에서 순서대로 부르므로, 서로 다른 fd끼리의 경쟁만 고려하면 됩니다.
+ */
 @Slf4j
 @Service
 public class UserService {
+    private static final Pattern NICKNAME_PATTERN = Pattern.compile("[a-zA-Z0-9]{3,15}");
+
     private final Map<Integer, String> loggedInUsers = new ConcurrentHashMap<>();
+    private final Map<String, Integer> clientIdsByNickname = new ConcurrentHashMap<>();
 
-    public synchronized void login(int clientId, String nickname) throws UserLoginException {
+    public void login(int clientId, String nickname) throws UserLoginException {
         if (isLoggedIn(clientId)) {
             throw new UserLoginException("이미 로그인된 상태입니다.");
         }
@@ -23,17 +31,30 @@ public class UserService {
             throw new UserLoginException("닉네임은 3~15자의 영문/숫자만 가능합니다.");
         }
 
-        if (isNicknameTaken(nickname)) {
+        // 닉네임을 먼저 선점해야 두 fd가 같은 닉네임으로 동시에 로그인해도 한쪽만 성공합니다.
+        if (clientIdsByNickname.putIfAbsent(nickname, clientId) != null) {
             throw new UserLoginException("이미 사용 중인 닉네임입니다.");
         }
 
-        loggedInUsers.put(clientId, nickname);
+        if (loggedInUsers.putIfAbsent(clientId, nickname) != null) {
+            clientIdsByNickname.remove(nickname, clientId);
+            throw new UserLoginException("이미 로그인된 상태입니다.");
+        }
         log.info("사용자 등록 완료: 클라이언트(id:{}) -> 닉네임 '{}'", clientId, nickname);
     }
 
+    /**
+     * 로그인에 성공하면 세션에도 닉네임을 기록해, 이후 메시지부터는 세션에서 바로 읽도록 합니다.
+     */
+    public void login(ConnectionSession session, String nickname) throws UserLoginException {
+        login(session.getClientId(), nickname);
+        session.authenticate(nickname);
+    }
+
     public String logout(int clientId) {
         final String nickname = loggedInUsers.remove(clientId);
         if (nickname != null) {
+            clientIdsByNickname.remove(nickname, clientId);
             log.info("사용자 제거 완료: 닉네임 '{}' (id:{})", nickname, clientId);
         }
         return nickname;
@@ -43,19 +64,16 @@ public class UserService {
         return Optional.ofNullable(loggedInUsers.get(clientId));
     }
 
-    public boolean isLoggedIn(int clientId) {
-        return loggedInUsers.containsKey(clientId);
+    public Optional<Integer> getClientId(String nickname) {
+        return Optional.ofNullable(clientIdsByNickname.get(nickname));
     }
 
-    private boolean isNicknameTaken(String nickname) {
-        return loggedInUsers.containsValue(nickname);
+    public boolean isLoggedIn(int clientId) {
+        return loggedInUsers.containsKey(clientId);
     }
 
     private boolean isNicknameValid(String nickname) {
-        if (nickname == null || nickname.length() < 3 || nickname.length() > 15) {
-            return false;
-        }
-        return nickname.matches("^[a-zA-Z0-9]+$");
+        return nickname != null && NICKNAME_PATTERN.matcher(nickname).matches();
     }
 
     public Set<Integer> getUserIds() {
@@ -0,0 +1,97 @@
+package project.java_chat_server.service.codec;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * BinaryWriter로 쓴 필드를 순서대로 읽습니다. 원본 버퍼의 position은 건드리지 않습니다.
+ */
+final class BinaryReader {
+    private final ByteBuffer buffer;
+
+    BinaryReader(ByteBuffer payload) {
+        this.buffer = payload.duplicate();
+    }
+
+    /**
+     * 뒤에 덧붙인 선택 필드가 있는지 확인할 때 씁니다.
+     */
+    boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    long readVarLong() throws IOException {
+        long result = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    long readSignedVarLong() throws IOException {
+        final long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    int readSignedVarInt() throws IOException {
+        final long value = readSignedVarLong();
+
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IOException("Varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    String readString() throws IOException {
+        final long encoded = readVarLong();
+
+        if (encoded == 0) {
+            return null;
+        }
+        final long length = encoded - 1;
+
+        if (length > buffer.remaining()) {
+            throw new EOFException("String length " + length + " exceeds remaining " + buffer.remaining());
+        }
+        if (buffer.hasArray()) {
+            final String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), (int) length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + (int) length);
+            return value;
+        }
+        final byte[] bytes = new byte[(int) length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    Instant readInstant() throws IOException {
+        final long seconds = readSignedVarLong();
+        final long nanos = readVarLong();
+
+        if (nanos == 1_000_000_000L) {
+            return null;
+        }
+        if (nanos > 999_999_999L) {
+            throw new IOException("Invalid nanos: " + nanos);
+        }
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    private byte readByte() throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new EOFException("Unexpected end of binary payload");
+        }
+        return buffer.get();
+    }
+}
@@ -0,0 +1,182 @@
+package project.java_chat_server.service.codec;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
+import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.dto.common.ErrorResponse;
+import project.java_chat_server.dto.common.SystemNoticeBroadcast;
+import project.java_chat_server.dto.file.FileEndBroadcast;
+import project.java_chat_server.dto.file.FileEndRequest;
+import project.java_chat_server.dto.file.FileMissingResponse;
+import project.java_chat_server.dto.file.FileStartBroadcast;
+import project.java_chat_server.dto.file.FileStartRequest;
+import project.java_chat_server.dto.file.FileStartResponse;
+import project.java_chat_server.dto.room.RoomJoinRequest;
+import project.java_chat_server.dto.room.RoomNoticeBroadcast;
+import project.java_chat_server.dto.user.UserJoinBroadcast;
+import project.java_chat_server.dto.user.UserLeaveBroadcast;
+import project.java_chat_server.dto.user.UserLoginRequest;
+import project.java_chat_server.dto.user.UserLoginResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 필드 이름 없이 DTO의 필드를 선언 순서대로 이어 붙이는 인코딩
+ * - 문자열: varint(UTF-8 바이트 수 + 1) + UTF-8, 0이면 null
+ * - 정수: varint (음수가 올 수 있는 필드는 zigzag), boolean: 1바이트
+ * - Instant: zigzag varint 초 + varint 나노초
+ * 클라이언트가 보내는 요청 DTO는 양방향, 서버가 보내는 DTO는 인코딩만 등록되어 있습니다.
+ */
+public class BinaryWireCodec implements WireCodec {
+    private static final int INITIAL_BUFFER_SIZE = 64;
+    /** 이보다 커진 쓰레드별 인코딩 버퍼는 버리고 새로 만듭니다. */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<BinaryWriter> WRITER = ThreadLocal.withInitial(() -> new BinaryWriter(INITIAL_BUFFER_SIZE));
+
+    private final Map<Class<?>, Encoder<?>> encoders = new HashMap<>();
+    private final Map<Class<?>, Decoder<?>> decoders = new HashMap<>();
+
+    public BinaryWireCodec() {
+        register(UserLoginRequest.class,
+                (w, m) -> { w.writeString(m.nickname()); w.writeString(m.codec()); },
+                r -> new UserLoginRequest(r.readString(), r.readString()));
+        register(ChatTextRequest.class,
+                (w, m) -> w.writeString(m.message()),
+                r -> new ChatTextRequest(r.readString()));
+        register(FileStartRequest.class,
+                (w, m) -> {
+                    w.writeString(m.filename());
+                    w.writeSignedVarLong(m.filesize());
+                    w.writeString(m.checksumAlgorithm());
+                    w.writeString(m.uploadId());
+                    w.writeString(m.contentDigest());
+                },
+                // 뒤의 선택 필드(checksumAlgorithm, uploadId, contentDigest)는 나중에 생겼으므로, 예전 클라이언트는 앞부분까지만 보냅니다.
+                r -> new FileStartRequest(r.readString(), r.readSignedVarLong(), r.hasRemaining() ? r.readString() : null,
+                        r.hasRemaining() ? r.readString() : null, r.hasRemaining() ? r.readString() : null));
+        register(FileEndRequest.class,
+                (w, m) -> { w.writeString(m.filename()); w.writeString(m.checksum()); w.writeString(m.uploadId()); },
+                r -> new FileEndRequest(r.readString(), r.readString(), r.hasRemaining() ? r.readString() : null));
+        register(RoomJoinRequest.class,
+                (w, m) -> w.writeString(m.room()),
+                r -> new RoomJoinRequest(r.readString()));
+
+        register(UserLoginResponse.class, (w, m) -> {
+            w.writeBoolean(m.isSuccess());
+            w.writeString(m.getMessage());
+            w.writeString(m.getNickname());
+            w.writeSignedVarLong(m.getClientId());
+            w.writeString(m.getCodec());
+        });
+        register(ChatTextBroadcast.class, (w, m) -> {
+            w.writeString(m.getAuthor());
+            w.writeString(m.getContent());
+            w.writeInstant(m.getTimestamp());
+        });
+        register(ErrorResponse.class, (w, m) -> {
+            w.writeString(m.getErrorCode());
+            w.writeString(m.getMessage());
+            w.writeInstant(m.getTimestamp());
+        });
+        register(SystemNoticeBroadcast.class, (w, m) -> w.writeString(m.notice()));
+        register(UserJoinBroadcast.class, (w, m) -> w.writeString(m.nickname()));
+        register(UserLeaveBroadcast.class, (w, m) -> w.writeString(m.nickname()));
+        register(FileStartBroadcast.class, (w, m) -> {
+            w.writeString(m.senderNickname());
+            w.writeString(m.filename());
+            w.writeString(m.status());
+        });
+        register(FileStartResponse.class, (w, m) -> {
+            w.writeString(m.uploadId());
+            w.writeString(m.filename());
+            w.writeSignedVarLong(m.offset());
+            w.writeString(m.checksumAlgorithm());
+        });
+        register(FileEndBroadcast.class, (w, m) -> {
+            w.writeString(m.senderNickname());
+            w.writeString(m.filename());
+            w.writeString(m.status());
+        });
+        register(FileMissingResponse.class, (w, m) -> {
+            w.writeString(m.uploadId());
+            w.writeString(m.filename());
+            w.writeString(m.status());
+            w.writeVarLong(m.missing().length);
+            for (long position : m.missing()) {
+                w.writeVarLong(position);
+            }
+        });
+        register(RoomNoticeBroadcast.class, (w, m) -> {
+            w.writeString(m.room());
+            w.writeString(m.nickname());
+            w.writeString(m.status());
+        });
+    }
+
+    @Override
+    public WireFormat getFormat() {
+        return WireFormat.BINARY;
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer payload, Class<T> type) throws IOException {
+        final Decoder<?> decoder = decoders.get(type);
+
+        if (decoder == null) {
+            throw new IOException("No binary decoder for " + type.getSimpleName());
+        }
+        return type.cast(decoder.read(new BinaryReader(payload)));
+    }
+
+    @Override
+    public byte[] encode(Object message) throws IOException {
+        final Encoder<Object> encoder = encoderFor(message);
+        final BinaryWriter writer = new BinaryWriter(INITIAL_BUFFER_SIZE);
+        encoder.write(writer, message);
+        return writer.toByteArray();
+    }
+
+    @Override
+    public void encode(Object message, OutputStream out) throws IOException {
+        final Encoder<Object> encoder = encoderFor(message);
+        final BinaryWriter writer = WRITER.get();
+        writer.reset();
+        encoder.write(writer, message);
+        writer.writeTo(out);
+
+        if (writer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            WRITER.remove();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Encoder<Object> encoderFor(Object message) throws IOException {
+        final Encoder<Object> encoder = (Encoder<Object>) encoders.get(message.getClass());
+
+        if (encoder == null) {
+            throw new IOException("No binary encoder for " + message.getClass().getSimpleName());
+        }
+        return encoder;
+    }
+
+    private <T> void register(Class<T> type, Encoder<T> encoder) {
+        encoders.put(type, encoder);
+    }
+
+    private <T> void register(Class<T> type, Encoder<T> encoder, Decoder<T> decoder) {
+        encoders.put(type, encoder);
+        decoders.put(type, decoder);
+    }
+
+    @FunctionalInterface
+    private interface Encoder<T> {
+        void write(BinaryWriter writer, T message);
+    }
+
+    @FunctionalInterface
+    private interface Decoder<T> {
+        T read(BinaryReader reader) throws IOException;
+    }
+}
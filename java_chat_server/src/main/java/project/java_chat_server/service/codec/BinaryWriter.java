@@ -0,0 +1,136 @@
+package project.java_chat_server.service.codec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * BinaryWireCodec의 필드 인코더. 정수는 LEB128 varint(부호 있는 값은 zigzag), 문자열은 길이 접두 UTF-8로 씁니다.
+ */
+final class BinaryWriter {
+    private byte[] buffer;
+    private int position;
+
+    BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    void writeBoolean(boolean value) {
+        ensure(1);
+        buffer[position++] = (byte) (value ? 1 : 0);
+    }
+
+    void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * 길이는 (바이트 수 + 1)로 써서 0을 null로 구분합니다.
+     * 중간 byte[]를 만들지 않도록 UTF-8 길이를 먼저 세고 버퍼에 바로 인코딩합니다. 짝이 없는 surrogate는 '?'로 씁니다.
+     */
+    void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        final int length = value.length();
+        final int utf8Length = utf8Length(value);
+        writeVarLong(utf8Length + 1L);
+        ensure(utf8Length);
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (isSurrogatePair(value, i)) {
+                final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * epoch 초(zigzag varint) + 나노초(varint). null은 나노초 자리에 1e9를 씁니다.
+     */
+    void writeInstant(Instant value) {
+        if (value == null) {
+            writeSignedVarLong(0);
+            writeVarLong(1_000_000_000L);
+            return;
+        }
+        writeSignedVarLong(value.getEpochSecond());
+        writeVarLong(value.getNano());
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, position);
+    }
+
+    /** 버퍼는 그대로 두고 처음부터 다시 씁니다. */
+    void reset() {
+        position = 0;
+    }
+
+    /** 지금 잡고 있는 버퍼 크기 */
+    int capacity() {
+        return buffer.length;
+    }
+
+    private static int utf8Length(String value) {
+        final int length = value.length();
+        int bytes = length;
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (isSurrogatePair(value, i)) {
+                bytes += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isSurrogatePair(String value, int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+
+    private void ensure(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package project.java_chat_server.service.codec;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * DTO를 코덱에 넘기지 않고 payload 바이트를 스스로 쓰는 메시지
+ * HandlerResult의 payload 자리에 넣으면 ChatService가 대상 연결의 코덱과 함께 writeTo를 부릅니다.
+ */
+public interface DirectPayload {
+    void writeTo(OutputStream out, WireCodec codec) throws IOException;
+}
@@ -0,0 +1,83 @@
+package project.java_chat_server.service.codec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * DTO 타입마다 ObjectReader/ObjectWriter를 한 번만 만들어 두고, 호출마다 타입을 다시 찾지 않습니다.
+ * 배열이 없는 payload(direct, 읽기 전용 뷰)는 쓰레드별 임시 배열로 옮겨 byte[] 파서로 읽습니다.
+ */
+public class JsonWireCodec implements WireCodec {
+    private static final int INITIAL_SCRATCH_SIZE = 1024;
+    /** 이보다 큰 payload는 임시 배열에 붙잡아 두지 않고 한 번만 씁니다. */
+    private static final int MAX_RETAINED_SCRATCH_SIZE = 64 * 1024;
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[INITIAL_SCRATCH_SIZE]);
+
+    private final ClassValue<ObjectReader> readers;
+    private final ClassValue<ObjectWriter> writers;
+    /** payload가 null인 메시지("null")용 */
+    private final ObjectWriter untypedWriter;
+
+    public JsonWireCodec(ObjectMapper objectMapper) {
+        this.untypedWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readers = new ClassValue<>() {
+            @Override
+            protected ObjectReader computeValue(Class<?> type) {
+                return objectMapper.readerFor(type);
+            }
+        };
+        this.writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                // 배치 버퍼를 감싼 스트림은 호출한 쪽이 계속 쓰므로 닫지 않습니다.
+                return objectMapper.writerFor(type).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            }
+        };
+    }
+
+    @Override
+    public WireFormat getFormat() {
+        return WireFormat.JSON;
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer payload, Class<T> type) throws IOException {
+        final ObjectReader reader = readers.get(type);
+        final int length = payload.remaining();
+
+        if (payload.hasArray()) {
+            return reader.readValue(payload.array(), payload.arrayOffset() + payload.position(), length);
+        }
+
+        byte[] scratch = SCRATCH.get();
+
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+
+            if (scratch.length <= MAX_RETAINED_SCRATCH_SIZE) {
+                SCRATCH.set(scratch);
+            }
+        }
+        payload.get(payload.position(), scratch, 0, length);
+        return reader.readValue(scratch, 0, length);
+    }
+
+    @Override
+    public byte[] encode(Object message) throws IOException {
+        return writerFor(message).writeValueAsBytes(message);
+    }
+
+    @Override
+    public void encode(Object message, OutputStream out) throws IOException {
+        writerFor(message).writeValue(out, message);
+    }
+
+    private ObjectWriter writerFor(Object message) {
+        return message == null ? untypedWriter : writers.get(message.getClass());
+    }
+}
@@ -0,0 +1,46 @@
+package project.java_chat_server.service.codec;
+import project.java_chat_server.dto.common.ErrorResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * 내용이 바뀌지 않는 응답(고정 에러 등)을 WireFormat별로 한 번 인코딩해 두고 그 바이트를 그대로 보냅니다.
+ * DTO에 생성 시각이 들어가므로 초가 바뀌었을 때만 다시 인코딩합니다. (받는 쪽 timestamp는 최대 1초 늦을 수 있음)
+ */
+public final class PrecomputedPayload implements DirectPayload {
+    private final Supplier<Object> factory;
+    private final AtomicReferenceArray<Encoded> encoded = new AtomicReferenceArray<>(WireFormat.values().length);
+
+    private PrecomputedPayload(Supplier<Object> factory) {
+        this.factory = factory;
+    }
+
+    public static PrecomputedPayload error(String errorCode, String message) {
+        return new PrecomputedPayload(() -> new ErrorResponse(errorCode, message));
+    }
+
+    /** 인코딩된 바이트. 호출한 쪽에서 고치면 안 됩니다. */
+    public byte[] bytes(WireCodec codec) throws IOException {
+        final long second = System.currentTimeMillis() / 1000;
+        final int slot = codec.getFormat().ordinal();
+        final Encoded current = encoded.get(slot);
+
+        if (current != null && current.second() == second) {
+            return current.bytes();
+        }
+        // 여러 쓰레드가 동시에 다시 인코딩해도 같은 초의 값이므로 어느 쪽이 남아도 됩니다.
+        final Encoded refreshed = new Encoded(second, codec.encode(factory.get()));
+        encoded.set(slot, refreshed);
+        return refreshed.bytes();
+    }
+
+    @Override
+    public void writeTo(OutputStream out, WireCodec codec) throws IOException {
+        out.write(bytes(codec));
+    }
+
+    private record Encoded(long second, byte[] bytes) {}
+}
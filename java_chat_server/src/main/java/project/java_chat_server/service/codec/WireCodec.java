@@ -0,0 +1,23 @@
+package project.java_chat_server.service.codec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * DTO와 메시지 payload 사이의 변환. 구현체는 상태가 없어 여러 쓰레드에서 같이 써도 됩니다.
+ */
+public interface WireCodec {
+    WireFormat getFormat();
+
+    /**
+     * payload를 복사하지 않고 읽습니다. payload의 position은 바뀌지 않습니다.
+     */
+    <T> T decode(ByteBuffer payload, Class<T> type) throws IOException;
+
+    byte[] encode(Object message) throws IOException;
+
+    /**
+     * 새 byte[]를 만들지 않고 out에 바로 씁니다. 송신 배치 버퍼에 payload를 직접 채울 때 씁니다.
+     */
+    void encode(Object message, OutputStream out) throws IOException;
+}
@@ -0,0 +1,27 @@
+package project.java_chat_server.service.codec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * WireFormat별 코덱 모음. 핸들러와 ChatService는 세션의 WireFormat으로 여기서 코덱을 꺼내 씁니다.
+ */
+@Component
+public class WireCodecs {
+    private final Map<WireFormat, WireCodec> codecs = new EnumMap<>(WireFormat.class);
+
+    public WireCodecs(ObjectMapper objectMapper) {
+        codecs.put(WireFormat.JSON, new JsonWireCodec(objectMapper));
+        codecs.put(WireFormat.BINARY, new BinaryWireCodec());
+    }
+
+    public WireCodec get(WireFormat format) {
+        return codecs.get(format);
+    }
+
+    public WireCodec json() {
+        return codecs.get(WireFormat.JSON);
+    }
+}
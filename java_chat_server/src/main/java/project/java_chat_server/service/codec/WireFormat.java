@@ -0,0 +1,28 @@
+package project.java_chat_server.service.codec;
+import java.util.Locale;
+
+/**
+ * 클라이언트와 주고받는 payload의 인코딩. 로그인 요청의 codec 필드로 연결마다 정하며, 기본은 JSON입니다.
+ */
+public enum WireFormat {
+    JSON,
+    BINARY;
+
+    /**
+     * @return 알 수 없는 이름이면 null
+     */
+    public static WireFormat fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return JSON;
+        }
+        try {
+            return WireFormat.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,17 @@
+package project.java_chat_server.service.dispatch;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+/**
+ * 핸들러를 실행할 쓰레드 풀의 구분. 파일 전송의 디스크 I/O가 채팅 처리를 막지 않도록 풀을 나눕니다.
+ */
+public enum Bulkhead {
+    CHAT,
+    FILE;
+
+    public static Bulkhead of(MessageType type) {
+        return switch (type) {
+            case MSG_TYPE_FILE_INFO, MSG_TYPE_FILE_CHUNK, MSG_TYPE_FILE_CHUNK_AT, MSG_TYPE_FILE_END, MSG_TYPE_FILE_REQUEST -> FILE;
+            default -> CHAT;
+        };
+    }
+}
@@ -0,0 +1,263 @@
+package project.java_chat_server.service.dispatch;
+import lombok.extern.slf4j.Slf4j;
+import project.java_chat_server.wrapper_library.ChatServer;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 네이티브 이벤트 루프 쓰레드에서 받은 작업을 별도의 쓰레드 풀에서 실행합니다.
+ * <p>
+ * 같은 클라이언트(socketFd)의 작업은 풀이 달라도 들어온 순서대로 하나씩 실행되고,
+ * 서로 다른 클라이언트의 작업은 병렬로 실행됩니다.
+ * 클라이언트별 대기 작업 수나 풀별 대기 작업 수가 한도에 닿으면 해당 클라이언트의 네이티브 읽기를 멈추고,
+ * 절반 아래로 줄면 다시 읽습니다. 읽기를 멈추는 요청은 비동기로 적용되므로 한도는 조금 넘을 수 있습니다.
+ */
+@Slf4j
+public class MessageDispatcher implements AutoCloseable {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ChatServer chatServer;
+    private final Map<Bulkhead, Lane> lanes;
+    private final Map<Integer, ClientQueue> queues = new ConcurrentHashMap<>();
+    private final Set<ClientQueue> pausedQueues = ConcurrentHashMap.newKeySet();
+    private final int maxPendingPerClient;
+
+    /**
+     * @param threads 풀별 쓰레드 수
+     * @param maxPending 풀별 대기 작업 한도
+     * @param maxPendingPerClient 클라이언트별 대기 작업 한도
+     */
+    public MessageDispatcher(ChatServer chatServer, Map<Bulkhead, Integer> threads, Map<Bulkhead, Integer> maxPending, int maxPendingPerClient) {
+        if (maxPendingPerClient < 1) {
+            throw new IllegalArgumentException("maxPendingPerClient must be positive: " + maxPendingPerClient);
+        }
+        this.chatServer = chatServer;
+        this.maxPendingPerClient = maxPendingPerClient;
+        this.lanes = new EnumMap<>(Bulkhead.class);
+
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            int threadCount = threads.getOrDefault(bulkhead, 1);
+            int pendingLimit = maxPending.getOrDefault(bulkhead, Integer.MAX_VALUE);
+
+            if (threadCount < 1 || pendingLimit < 1) {
+                throw new IllegalArgumentException("Invalid bulkhead settings for " + bulkhead + ": threads=" + threadCount + ", maxPending=" + pendingLimit);
+            }
+            lanes.put(bulkhead, new Lane(Executors.newFixedThreadPool(threadCount, namedThreadFactory(bulkhead)), pendingLimit));
+        }
+        log.info("메시지 디스패처 시작: 쓰레드 {}, 풀별 대기 한도 {}, 클라이언트별 대기 한도 {}", threads, maxPending, maxPendingPerClient);
+    }
+
+    /**
+     * 클라이언트의 이전 작업이 모두 끝난 뒤 실행되도록 작업을 넣습니다.
+     */
+    public void dispatch(int clientId, Bulkhead bulkhead, Runnable task) {
+        enqueue(clientId, lanes.get(bulkhead), task, false);
+    }
+
+    /**
+     * 연결 종료 처리처럼 클라이언트의 마지막 작업을 넣습니다. 실행이 끝나면 클라이언트의 대기열을 정리합니다.
+     * 같은 fd로 새 연결이 먼저 들어와 작업을 넣었다면 그 작업들은 이 작업 뒤에 실행됩니다.
+     */
+    public void dispatchLast(int clientId, Bulkhead bulkhead, Runnable task) {
+        enqueue(clientId, lanes.get(bulkhead), task, true);
+    }
+
+    /**
+     * 풀에 들어가 아직 끝나지 않은 작업 수
+     */
+    public int getPendingCount(Bulkhead bulkhead) {
+        return lanes.get(bulkhead).pending.get();
+    }
+
+    /**
+     * 읽기를 멈춘 클라이언트 수
+     */
+    public int getPausedClientCount() {
+        return pausedQueues.size();
+    }
+
+    @Override
+    public void close() {
+        for (Lane lane : lanes.values()) {
+            lane.executor.shutdown();
+        }
+
+        for (Map.Entry<Bulkhead, Lane> entry : lanes.entrySet()) {
+            try {
+                if (!entry.getValue().executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("{} 풀의 작업이 {}초 안에 끝나지 않아 강제로 종료합니다.", entry.getKey(), SHUTDOWN_TIMEOUT_SECONDS);
+                    entry.getValue().executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                entry.getValue().executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void enqueue(int clientId, Lane lane, Runnable body, boolean last) {
+        Task task = new Task(lane, body, last);
+
+        for (;;) {
+            ClientQueue queue = queues.computeIfAbsent(clientId, ClientQueue::new);
+            boolean start;
+
+            synchronized (queue) {
+                // 맵에서 빠진 대기열을 잡았다면 새 대기열로 다시 시도합니다.
+                if (queue.retired) {
+                    continue;
+                }
+                queue.tasks.add(task);
+                lane.pending.incrementAndGet();
+                start = !queue.running;
+                queue.running = true;
+
+                if (!queue.paused && (queue.tasks.size() >= maxPendingPerClient || lane.pending.get() >= lane.maxPending)) {
+                    setPaused(queue, true);
+                }
+            }
+
+            if (start) {
+                submitNext(queue);
+            }
+            return;
+        }
+    }
+
+    private void submitNext(ClientQueue queue) {
+        Task task;
+
+        synchronized (queue) {
+            task = queue.tasks.poll();
+
+            if (task == null) {
+                queue.running = false;
+                return;
+            }
+        }
+
+        try {
+            task.lane.executor.execute(() -> runTask(queue, task));
+        } catch (RejectedExecutionException e) {
+            log.warn("디스패처가 종료되어 클라이언트(id:{})의 작업을 버립니다.", queue.clientId);
+            task.lane.pending.decrementAndGet();
+            synchronized (queue) {
+                for (Task dropped : queue.tasks) {
+                    dropped.lane.pending.decrementAndGet();
+                }
+                queue.tasks.clear();
+                queue.running = false;
+            }
+        }
+    }
+
+    private void runTask(ClientQueue queue, Task task) {
+        try {
+            task.body.run();
+        } catch (RuntimeException e) {
+            log.error("클라이언트(id:{})의 작업 처리 중 예외 발생", queue.clientId, e);
+        } finally {
+            task.lane.pending.decrementAndGet();
+            afterTask(queue, task);
+        }
+    }
+
+    private void afterTask(ClientQueue queue, Task task) {
+        synchronized (queue) {
+            if (task.last && queue.tasks.isEmpty()) {
+                queue.retired = true;
+                queue.running = false;
+                queues.remove(queue.clientId, queue);
+                pausedQueues.remove(queue);
+                return;
+            }
+            resumeIfDrained(queue);
+        }
+
+        // 풀이 가득 차서 멈췄던 다른 클라이언트도 풀에 여유가 생기면 다시 읽게 합니다.
+        if (!pausedQueues.isEmpty() && task.lane.pending.get() <= task.lane.maxPending / 2) {
+            for (ClientQueue paused : pausedQueues) {
+                if (paused != queue) {
+                    synchronized (paused) {
+                        resumeIfDrained(paused);
+                    }
+                }
+            }
+        }
+        submitNext(queue);
+    }
+
+    /** queue의 락을 잡은 상태에서 불러야 합니다. */
+    private void resumeIfDrained(ClientQueue queue) {
+        if (!queue.paused || queue.retired || queue.tasks.size() > maxPendingPerClient / 2) {
+            return;
+        }
+
+        for (Lane lane : lanes.values()) {
+            if (lane.pending.get() > lane.maxPending / 2) {
+                return;
+            }
+        }
+        setPaused(queue, false);
+    }
+
+    /** queue의 락을 잡은 상태에서 불러야 합니다. 같은 클라이언트의 멈춤/재개 요청 순서가 뒤바뀌지 않게 합니다. */
+    private void setPaused(ClientQueue queue, boolean paused) {
+        queue.paused = paused;
+
+        if (paused) {
+            pausedQueues.add(queue);
+            log.debug("클라이언트(id:{})의 대기 작업이 많아 읽기를 멈춥니다. (대기 {}개)", queue.clientId, queue.tasks.size());
+        } else {
+            pausedQueues.remove(queue);
+            log.debug("클라이언트(id:{})의 읽기를 다시 시작합니다.", queue.clientId);
+        }
+
+        if (!chatServer.setReadPaused(queue.clientId, paused)) {
+            log.warn("클라이언트(id:{})의 읽기 {} 요청 실패", queue.clientId, paused ? "멈춤" : "재개");
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(Bulkhead bulkhead) {
+        AtomicInteger sequence = new AtomicInteger();
+        String prefix = "dispatch-" + bulkhead.name().toLowerCase() + "-";
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Lane(ExecutorService executor, int maxPending, AtomicInteger pending) {
+        Lane(ExecutorService executor, int maxPending) {
+            this(executor, maxPending, new AtomicInteger());
+        }
+    }
+
+    private record Task(Lane lane, Runnable body, boolean last) {
+    }
+
+    /** 한 클라이언트의 실행 대기열. 필드는 모두 이 객체의 락으로 보호됩니다. */
+    private static final class ClientQueue {
+        private final int clientId;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private boolean running;
+        private boolean paused;
+        private boolean retired;
+
+        private ClientQueue(int clientId) {
+            this.clientId = clientId;
+        }
+    }
+}
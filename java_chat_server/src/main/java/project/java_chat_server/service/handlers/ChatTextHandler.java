@@ -1,54 +1,91 @@
 package project.java_chat_server.service.handlers;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.dto.chat.ChatTextBroadcast;
 import project.java_chat_server.dto.chat.ChatTextRequest;
-import project.java_chat_server.service.UserService;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ChatRoom;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.codec.WireFormat;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
 
 @Slf4j
 @Component
 public class ChatTextHandler extends MessageHandler{
-    private final UserService userService;
+    private static final HandlerResult AUTH_REQUIRED = errorResult("AUTH_REQUIRED", "채팅을 하려면 먼저 로그인해야 합니다.");
 
-    public ChatTextHandler(ObjectMapper objectMapper, UserService userService) {
-        super(objectMapper);
-        this.userService = userService;
+    /** ObjectMapper 설정상 중계 결과가 직접 직렬화한 것과 같을 때만 켭니다. */
+    private final boolean relayEnabled;
+    private final boolean decimalTimestamp;
+
+    public ChatTextHandler(WireCodecs codecs) {
+        super(codecs);
+        this.relayEnabled = ChatTextRelay.matchesCodec(codecs.json());
+        this.decimalTimestamp = ChatTextRelay.timestampMatches(codecs.json());
+
+        if (!relayEnabled) {
+            log.warn("{} : ObjectMapper 설정이 기본 JSON 모양과 달라 채팅 원문 중계를 끄고 매번 직렬화합니다.", this.getClass().getSimpleName());
+        }
     }
 
     @Override
-    public HandlerResult handle(ClientInfo client, byte[] payload) {
+    public HandlerResult handle(ConnectionSession session, ByteBuffer payload) {
         try {
-            String senderNickname = userService.getNickname(client.socketFd)
-                    .orElseThrow(() -> new IllegalStateException("Authentication required. Client not logged in."));
+            String senderNickname = session.getNickname();
+
+            // 로그인 전 채팅은 흔한 상황이라 예외(스택 트레이스)를 만들지 않고 바로 응답합니다.
+            if (senderNickname == null) {
+                log.warn("{} : chat message rejected for unauthenticated client {}.", this.getClass().getSimpleName(), session.getClientId());
+                return AUTH_REQUIRED;
+            }
 
-            ChatTextRequest request = objectMapper.readValue(payload, ChatTextRequest.class);
+            // JSON 연결의 평범한 {"message":"..."}는 파싱/재직렬화 없이 원문 바이트를 그대로 브로드캐스트에 이어 붙입니다.
+            if (relayEnabled && session.getWireFormat() == WireFormat.JSON) {
+                long span = ChatTextRelay.locateMessage(payload);
+
+                if (span == ChatTextRelay.BLANK) {
+                    log.trace("{} : client {}({}) sent an empty message. Ignored.", this.getClass().getSimpleName(), session.getClientId(), senderNickname);
+                    return HandlerResult.empty();
+                }
+                if (span >= 0) {
+                    byte[] prefix = ChatTextRelay.prefixFor(session, senderNickname, codecs.json());
+                    return broadcastTo(session.getRoom(), new ChatTextRelay(senderNickname, prefix, payload, span, Instant.now(), decimalTimestamp));
+                }
+            }
+
+            ChatTextRequest request = readPayload(session, payload, ChatTextRequest.class);
             String messageContent = request.message();
 
             if (messageContent == null || messageContent.isBlank()) {
-                log.trace("{} : client {}({}) sent an empty message. Ignored.", this.getClass().getSimpleName(), client.socketFd, senderNickname);
+                log.trace("{} : client {}({}) sent an empty message. Ignored.", this.getClass().getSimpleName(), session.getClientId(), senderNickname);
                 return HandlerResult.empty();
             }
 
             ChatTextBroadcast broadcastDto = new ChatTextBroadcast(senderNickname, messageContent);
-            return HandlerResult.broadcast(MessageType.MSG_TYPE_CHAT_TEXT, broadcastDto);
-        } catch (IllegalStateException e) {
-            log.warn("{} : chat message rejected for unauthenticated client {}. details: {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
-            return super.createErrorResponse("AUTH_REQUIRED", "채팅을 하려면 먼저 로그인해야 합니다.");
+            return broadcastTo(session.getRoom(), broadcastDto);
         } catch (IOException e) {
-            log.error("{} : failed to parse chat request for client {}. details: {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
-            return super.createErrorResponse("INVALID_REQUEST_FORMAT", "요청 형식이 올바르지 않습니다.");
+            log.error("{} : failed to parse chat request for client {}. details: {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
+            return INVALID_REQUEST_FORMAT;
         } catch (Exception e) {
-            log.error("{} : unknown error while processing chat for client {}. details: {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage(), e);
-            return super.createErrorResponse("UNKNOWN_ERROR", "알 수 없는 오류가 발생했습니다.");
+            log.error("{} : unknown error while processing chat for client {}. details: {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage(), e);
+            return UNKNOWN_ERROR;
         }
     }
 
+    /**
+     * 방에 들어가 있으면 그 방의 멤버에게만, 아니면 모두에게 보냅니다.
+     */
+    private static HandlerResult broadcastTo(ChatRoom room, Object payload) {
+        return room == null
+                ? HandlerResult.broadcast(MessageType.MSG_TYPE_CHAT_TEXT, payload)
+                : HandlerResult.broadcastToGroup(room.getGroupId(), MessageType.MSG_TYPE_CHAT_TEXT, payload);
+    }
+
     @Override
     public MessageType getMessageType() {
         return MessageType.MSG_TYPE_CHAT_TEXT;
@@ -0,0 +1,313 @@
+package project.java_chat_server.service.handlers;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
+import project.java_chat_server.service.codec.DirectPayload;
+import project.java_chat_server.service.codec.WireCodec;
+import project.java_chat_server.service.codec.WireFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * 채팅 요청의 message 문자열을 디코딩하지 않고 원본 바이트 그대로 ChatTextBroadcast JSON에 이어 붙이는 payload
+ * {"author":닉네임,"content":원본 문자열,"timestamp":시각} 순서로 쓰며, 같은 내용을 ObjectMapper로 쓴 결과와 바이트까지 같습니다.
+ * 원본 payload 뷰를 그대로 들고 있으므로 핸들러를 부른 ChatService가 같은 호출 안에서 바로 써야 합니다.
+ */
+final class ChatTextRelay implements DirectPayload {
+    private static final byte[] MESSAGE_KEY = "\"message\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AUTHOR_FIELD = "{\"author\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTENT_FIELD = ",\"content\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TIMESTAMP_FIELD = ",\"timestamp\":".getBytes(StandardCharsets.US_ASCII);
+    private static final int COPY_CHUNK_SIZE = 4096;
+    private static final ThreadLocal<byte[]> COPY_CHUNK = ThreadLocal.withInitial(() -> new byte[COPY_CHUNK_SIZE]);
+
+    /** locateMessage의 결과: 중계할 수 없는 모양 */
+    static final long NOT_RELAYABLE = -1;
+    /** locateMessage의 결과: 공백뿐인 메시지 */
+    static final long BLANK = -2;
+
+    private final String author;
+    private final byte[] prefix;
+    private final ByteBuffer payload;
+    /** 여는 따옴표와 닫는 따옴표의 절대 위치 */
+    private final int open;
+    private final int close;
+    private final Instant timestamp;
+    /** true면 timestamp를 Jackson 기본 모양(초.나노초 9자리)으로 직접 씁니다. timestampMatches로 확인한 경우에만 켭니다. */
+    private final boolean decimalTimestamp;
+
+    ChatTextRelay(String author, byte[] prefix, ByteBuffer payload, long span, Instant timestamp) {
+        this(author, prefix, payload, span, timestamp, false);
+    }
+
+    ChatTextRelay(String author, byte[] prefix, ByteBuffer payload, long span, Instant timestamp, boolean decimalTimestamp) {
+        this.author = author;
+        this.prefix = prefix;
+        this.payload = payload;
+        this.open = (int) (span >>> 32);
+        this.close = (int) span;
+        this.timestamp = timestamp;
+        this.decimalTimestamp = decimalTimestamp;
+    }
+
+    @Override
+    public void writeTo(OutputStream out, WireCodec codec) throws IOException {
+        if (codec.getFormat() != WireFormat.JSON) {
+            codec.encode(toBroadcast(), out);
+            return;
+        }
+        out.write(prefix);
+        copy(payload, open, close + 1, out);
+        out.write(TIMESTAMP_FIELD);
+
+        // 0초(Jackson은 "0.0")와 음수는 드물므로 Jackson에 맡깁니다.
+        if (decimalTimestamp && timestamp.getEpochSecond() > 0) {
+            writeDecimal(timestamp, out);
+        } else {
+            codec.encode(timestamp, out);
+        }
+        out.write('}');
+    }
+
+    /** Jackson의 Instant 직렬화는 메시지마다 900바이트 가까이 할당하므로, 같은 모양이면 숫자를 직접 씁니다. */
+    private static void writeDecimal(Instant timestamp, OutputStream out) throws IOException {
+        final byte[] digits = COPY_CHUNK.get();
+        int i = 32;
+        int nanos = timestamp.getNano();
+
+        for (int k = 0; k < 9; k++) {
+            digits[--i] = (byte) ('0' + nanos % 10);
+            nanos /= 10;
+        }
+        digits[--i] = '.';
+        long seconds = timestamp.getEpochSecond();
+
+        do {
+            digits[--i] = (byte) ('0' + seconds % 10);
+            seconds /= 10;
+        } while (seconds > 0);
+        out.write(digits, i, 32 - i);
+    }
+
+    /** 바이너리 등 다른 인코딩으로 보낼 때만 문자열로 디코딩합니다. */
+    ChatTextBroadcast toBroadcast() {
+        final byte[] content = new byte[close - open - 1];
+        payload.get(open + 1, content);
+        return new ChatTextBroadcast(author, new String(content, StandardCharsets.UTF_8), timestamp);
+    }
+
+    /**
+     * 세션마다 한 번만 닉네임을 JSON 문자열로 인코딩해 {"author":"닉네임","content": 접두를 만들어 둡니다.
+     */
+    static byte[] prefixFor(ConnectionSession session, String nickname, WireCodec json) throws IOException {
+        final byte[] cached = session.getChatRelayPrefix();
+
+        if (cached != null) {
+            return cached;
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(AUTHOR_FIELD.length + CONTENT_FIELD.length + nickname.length() * 3 + 2);
+        out.write(AUTHOR_FIELD);
+        json.encode(nickname, out);
+        out.write(CONTENT_FIELD);
+        final byte[] prefix = out.toByteArray();
+        session.setChatRelayPrefix(prefix);
+        return prefix;
+    }
+
+    /**
+     * payload가 공백 외에 아무것도 없는 {"message":"..."} 모양이고, 문자열 안에 이스케이프, 제어 문자, BMP 밖의 문자가 없으며 UTF-8이 올바를 때만
+     * 여는/닫는 따옴표의 절대 위치를 (open << 32 | close)로 돌려줍니다. 이런 문자열은 Jackson이 다시 써도 바이트가 바뀌지 않습니다.
+     * 그 밖의 모양(다른 필드, null, 이스케이프 등)은 NOT_RELAYABLE을 돌려주므로 원래처럼 DTO로 읽으면 됩니다.
+     * 공백(U+0020)만 있거나 빈 문자열이면 BLANK를 돌려줍니다. 그 밖의 유니코드 공백만 있는 경우는 NOT_RELAYABLE로 넘깁니다.
+     */
+    static long locateMessage(ByteBuffer payload) {
+        final int limit = payload.limit();
+        int i = skipWhitespace(payload, payload.position(), limit);
+
+        if (i >= limit || payload.get(i) != '{') {
+            return NOT_RELAYABLE;
+        }
+        i = skipWhitespace(payload, i + 1, limit);
+
+        if (!startsWith(payload, i, limit, MESSAGE_KEY)) {
+            return NOT_RELAYABLE;
+        }
+        i = skipWhitespace(payload, i + MESSAGE_KEY.length, limit);
+
+        if (i >= limit || payload.get(i) != ':') {
+            return NOT_RELAYABLE;
+        }
+        i = skipWhitespace(payload, i + 1, limit);
+
+        if (i >= limit || payload.get(i) != '"') {
+            return NOT_RELAYABLE;
+        }
+        final int open = i;
+        final int close = scanString(payload, open + 1, limit);
+
+        if (close < 0) {
+            return NOT_RELAYABLE;
+        }
+        i = skipWhitespace(payload, close + 1, limit);
+
+        if (i >= limit || payload.get(i) != '}' || skipWhitespace(payload, i + 1, limit) != limit) {
+            return NOT_RELAYABLE;
+        }
+
+        boolean onlySpaces = true;
+        boolean hasVisibleAscii = false;
+
+        for (int j = open + 1; j < close; j++) {
+            final byte b = payload.get(j);
+
+            if (b != ' ') {
+                onlySpaces = false;
+                hasVisibleAscii |= b > 0;
+            }
+        }
+        if (onlySpaces) {
+            return BLANK;
+        }
+        // 비ASCII 문자만 있으면 유니코드 공백일 수 있으므로 String.isBlank 판단을 원래 경로에 맡깁니다.
+        return hasVisibleAscii ? ((long) open << 32) | close : NOT_RELAYABLE;
+    }
+
+    /**
+     * 중계 결과가 이 ObjectMapper 설정에서 ChatTextBroadcast를 직접 쓴 것과 같은지 확인합니다.
+     * 필드 이름 규칙이나 escape 설정이 바뀌었으면 false입니다.
+     */
+    static boolean matchesCodec(WireCodec json) {
+        try {
+            final String author = "검사 \"user\"";
+            final byte[] request = "{\"message\":\"안녕 hello </> é\"}".getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer payload = ByteBuffer.wrap(request).asReadOnlyBuffer();
+            final ChatTextRelay relay = new ChatTextRelay(author, prefixFor(new ConnectionSession(-1, ""), author, json), payload, locateMessage(payload), Instant.now());
+
+            final ByteArrayOutputStream relayed = new ByteArrayOutputStream();
+            relay.writeTo(relayed, json);
+            return Arrays.equals(relayed.toByteArray(), json.encode(relay.toBroadcast()));
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 이 ObjectMapper가 Instant를 초.나노초(9자리) 십진수로 쓰는지 확인합니다. (WRITE_DATES_AS_TIMESTAMPS와 나노초 설정이 기본값일 때)
+     */
+    static boolean timestampMatches(WireCodec json) {
+        final Instant[] samples = {Instant.ofEpochSecond(9, 5), Instant.ofEpochSecond(1, 0), Instant.ofEpochSecond(1_792_202_993L, 743_199_310), Instant.now()};
+
+        try {
+            for (Instant sample : samples) {
+                final ByteArrayOutputStream direct = new ByteArrayOutputStream();
+                writeDecimal(sample, direct);
+
+                if (!Arrays.equals(direct.toByteArray(), json.encode(sample))) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static int scanString(ByteBuffer payload, int from, int limit) {
+        int i = from;
+
+        while (i < limit) {
+            final int b = payload.get(i) & 0xFF;
+
+            if (b == '"') {
+                return i;
+            }
+            if (b == '\\' || b < 0x20) {
+                return -1;
+            }
+            if (b < 0x80) {
+                i++;
+                continue;
+            }
+
+            final int continuation;
+            int low = 0x80;
+            int high = 0xBF;
+
+            if (b >= 0xC2 && b <= 0xDF) {
+                continuation = 1;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                continuation = 2;
+                // 과잉 표현(E0 80..9F)과 surrogate(ED A0..BF)는 거절
+                if (b == 0xE0) {
+                    low = 0xA0;
+                } else if (b == 0xED) {
+                    high = 0x9F;
+                }
+            } else {
+                // 4바이트 문자(이모지 등)는 Jackson이 surrogate 쌍 이스케이프로 쓰므로 원본 복사와 달라집니다.
+                return -1;
+            }
+
+            if (i + continuation >= limit) {
+                return -1;
+            }
+            final int second = payload.get(i + 1) & 0xFF;
+
+            if (second < low || second > high) {
+                return -1;
+            }
+            for (int k = 2; k <= continuation; k++) {
+                if ((payload.get(i + k) & 0xC0) != 0x80) {
+                    return -1;
+                }
+            }
+            i += continuation + 1;
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(ByteBuffer payload, int from, int limit) {
+        int i = from;
+
+        while (i < limit) {
+            final byte b = payload.get(i);
+
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean startsWith(ByteBuffer payload, int from, int limit, byte[] expected) {
+        if (limit - from < expected.length) {
+            return false;
+        }
+        for (int k = 0; k < expected.length; k++) {
+            if (payload.get(from + k) != expected[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void copy(ByteBuffer payload, int from, int to, OutputStream out) throws IOException {
+        if (payload.hasArray()) {
+            out.write(payload.array(), payload.arrayOffset() + from, to - from);
+            return;
+        }
+        final byte[] chunk = COPY_CHUNK.get();
+
+        for (int i = from; i < to; i += chunk.length) {
+            final int length = Math.min(chunk.length, to - i);
+            payload.get(i, chunk, 0, length);
+            out.write(chunk, 0, length);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package project.java_chat_server.service.handlers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import project.java_chat_server.service.model.HandlerResult;
+import project.java_chat_server.service.FileTransferService;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.WireCodecs;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HexFormat;
+
+/**
+ * 업로드 id와 파일 위치를 담은 조각. 헤더는 와이어 형식(JSON/바이너리)과 상관없이 [업로드 id 16바이트][위치 int64 big-endian]이고 그 뒤가 데이터입니다.
+ */
+@Slf4j
+@Component
+public class FileChunkAtHandler extends MessageHandler{
+    public static final int UPLOAD_ID_BYTES = 16;
+    public static final int HEADER_BYTES = UPLOAD_ID_BYTES + Long.BYTES;
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final HandlerResult INVALID_CHUNK_HEADER = errorResult("INVALID_CHUNK_HEADER", "조각 헤더(업로드 id 16바이트, 위치 8바이트)가 올바르지 않습니다.");
+    private static final HandlerResult CHUNK_PROCESSING_FAILED = errorResult("CHUNK_PROCESSING_FAILED", "파일 조각 처리 중 서버 오류가 발생했습니다.");
+
+    private final FileTransferService fileTransferService;
+
+    public FileChunkAtHandler(FileTransferService fileTransferService, WireCodecs codecs) {
+        super(codecs);
+        this.fileTransferService = fileTransferService;
+    }
+
+    @Override
+    public HandlerResult handle(ConnectionSession session, ByteBuffer payload) {
+        if (payload.remaining() < HEADER_BYTES) {
+            log.warn("{} : chunk header too short from client {}.", this.getClass().getSimpleName(), session.getClientId());
+            return INVALID_CHUNK_HEADER;
+        }
+
+        try {
+            ByteBuffer header = payload.duplicate().order(ByteOrder.BIG_ENDIAN);
+            byte[] uploadId = new byte[UPLOAD_ID_BYTES];
+            header.get(uploadId);
+            long offset = header.getLong();
+
+            fileTransferService.processFileChunk(session.getClientId(), HEX.formatHex(uploadId), offset, header.slice());
+            return HandlerResult.empty();
+        } catch (IOException e) {
+            log.error("{} : failed to process file chunk for client {}. details: {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
+            return CHUNK_PROCESSING_FAILED;
+        } catch (Exception e) {
+            log.error("{} : unknown error while processing file chunk for client {}. details: {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage(), e);
+            return UNKNOWN_ERROR;
+        }
+    }
+
+    @Override
+    public MessageType getMessageType() {
+        return MessageType.MSG_TYPE_FILE_CHUNK_AT;
+    }
+}
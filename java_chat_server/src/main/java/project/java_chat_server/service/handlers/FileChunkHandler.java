@@ -1,40 +1,42 @@
 package project.java_chat_server.service.handlers;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.service.FileTransferService;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.WireCodecs;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 @Slf4j
 @Component
 public class FileChunkHandler extends MessageHandler{
+    private static final HandlerResult INVALID_SEQUENCE = errorResult("INVALID_SEQUENCE", "파일 정보(FILE_INFO)를 먼저 보내야 합니다.");
+    private static final HandlerResult CHUNK_PROCESSING_FAILED = errorResult("CHUNK_PROCESSING_FAILED", "파일 조각 처리 중 서버 오류가 발생했습니다.");
+
     private final FileTransferService fileTransferService;
 
-    public FileChunkHandler(FileTransferService fileTransferService, ObjectMapper objectMapper) {
-        super(objectMapper);
+    public FileChunkHandler(FileTransferService fileTransferService, WireCodecs codecs) {
+        super(codecs);
         this.fileTransferService = fileTransferService;
     }
 
     @Override
-    public HandlerResult handle(ClientInfo client, byte[] payload) {
+    public HandlerResult handle(ConnectionSession session, ByteBuffer payload) {
         try {
-            if (fileTransferService.getSession(client.socketFd) == null) {
-                throw new IllegalStateException("File transfer session not found. FILE_INFO must be sent first.");
+            if (fileTransferService.getSession(session.getClientId()) == null) {
+                log.warn("{} : file chunk received from client {} before FILE_INFO.", this.getClass().getSimpleName(), session.getClientId());
+                return INVALID_SEQUENCE;
             }
-            fileTransferService.processFileChunk(client.socketFd, payload);
+            fileTransferService.processFileChunk(session.getClientId(), payload);
             return HandlerResult.empty();
-        } catch (IllegalStateException e) {
-            log.warn("{} : invalid file chunk received from client {}. details: {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
-            return super.createErrorResponse("INVALID_SEQUENCE", "파일 정보(FILE_INFO)를 먼저 보내야 합니다.");
         } catch (IOException e) {
-            log.error("{} : failed to process file chunk for client {}. details: {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage(), e);
-            return super.createErrorResponse("CHUNK_PROCESSING_FAILED", "파일 조각 처리 중 서버 오류가 발생했습니다.");
+            log.error("{} : failed to process file chunk for client {}. details: {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage(), e);
+            return CHUNK_PROCESSING_FAILED;
         } catch (Exception e) {
-            log.error("{} : unknown error while processing file chunk for client {}. details: {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage(), e);
-            return super.createErrorResponse("UNKNOWN_ERROR", "알 수 없는 오류가 발생했습니다.");
+            log.error("{} : unknown error while processing file chunk for client {}. details: {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage(), e);
+            return UNKNOWN_ERROR;
         }
     }
 
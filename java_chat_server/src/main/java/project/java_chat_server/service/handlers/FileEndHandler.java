@@ -1,56 +1,61 @@
 package project.java_chat_server.service.handlers;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import project.java_chat_server.dto.common.SystemNoticeBroadcast;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.dto.file.FileEndBroadcast;
 import project.java_chat_server.dto.file.FileEndRequest;
+import project.java_chat_server.dto.file.FileMissingResponse;
 import project.java_chat_server.service.FileTransferService;
-import project.java_chat_server.service.UserService;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.WireCodecs;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 @Slf4j
 @Component
 public class FileEndHandler extends MessageHandler{
-    private final FileTransferService fileTransferService;
-    private final UserService userService;
+    private static final HandlerResult AUTH_REQUIRED = errorResult("AUTH_REQUIRED", "파일을 전송하려면 먼저 로그인해야 합니다.");
 
-    public FileEndHandler(FileTransferService fileTransferService, UserService userService, ObjectMapper objectMapper) {
-        super(objectMapper);
+    private final FileTransferService fileTransferService;
+    public FileEndHandler(FileTransferService fileTransferService, WireCodecs codecs) {
+        super(codecs);
         this.fileTransferService = fileTransferService;
-        this.userService = userService;
     }
 
     @Override
-    public HandlerResult handle(ClientInfo client, byte[] payload) {
+    public HandlerResult handle(ConnectionSession session, ByteBuffer payload) {
         String senderNickname = null;
         FileEndRequest request = null;
 
         try {
-            senderNickname = userService.getNickname(client.socketFd).orElseThrow(
-                    () -> new IllegalStateException("Authentication required. Client not logged in."));
+            senderNickname = session.getNickname();
 
-            request = objectMapper.readValue(payload, FileEndRequest.class);
+            if (senderNickname == null) {
+                log.warn("{} : file transfer end rejected for unauthenticated client {}.", this.getClass().getSimpleName(), session.getClientId());
+                return AUTH_REQUIRED;
+            }
 
-            fileTransferService.endFileTransfer(client.socketFd, request.checksum());
+            request = readPayload(session, payload, FileEndRequest.class);
+
+            String uploadId = request.uploadId() == null || request.uploadId().isBlank() ? null : request.uploadId().trim();
+            fileTransferService.endFileTransfer(session.getClientId(), uploadId, request.checksum());
             FileEndBroadcast broadcast = new FileEndBroadcast(senderNickname, request.filename(), "COMPLETED");
-            log.info("{} : client {} succeeded to transfer file '{}'", this.getClass().getSimpleName(), client.socketFd, request.filename());
-            SystemNoticeBroadcast noticeBroadcast = new SystemNoticeBroadcast(String.format("[SYSTEM] %s 님이 %s 을(를) 전송했습니다.", userService.getNickname(client.socketFd), request.filename()));
+            log.info("{} : client {} succeeded to transfer file '{}'", this.getClass().getSimpleName(), session.getClientId(), request.filename());
+            SystemNoticeBroadcast noticeBroadcast = new SystemNoticeBroadcast(String.format("[SYSTEM] %s 님이 %s 을(를) 전송했습니다.", senderNickname, request.filename()));
             return HandlerResult.response(MessageType.MSG_TYPE_FILE_END, broadcast).andBroadcast(MessageType.MSG_TYPE_SERVER_NOTICE, noticeBroadcast);
 
-        } catch (IllegalStateException e) {
-            log.warn("{} : file transfer end rejected for unauthenticated client {}. details : {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
-            return super.createErrorResponse("AUTH_REQUIRED", "파일을 전송하려면 먼저 로그인해야 합니다.");
+        } catch (FileTransferService.IncompleteUploadException e) {
+            log.info("{} : client {} tried to finish incomplete upload '{}'. missing ranges: {}", this.getClass().getSimpleName(), session.getClientId(), request.filename(), e.getMissingRanges().size());
+            return HandlerResult.response(MessageType.MSG_TYPE_FILE_END, missingResponse(e));
         } catch (IOException e) {
-            log.error("{} : failed to parse file end request for client {}. details : {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
-            return super.createErrorResponse("INVALID_REQUEST_FORMAT", "요청 형식이 올바르지 않습니다.");
+            log.error("{} : failed to parse file end request for client {}. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
+            return INVALID_REQUEST_FORMAT;
         } catch (Exception e) {
             String filename = (request != null) ? request.filename() : "unknown file";
-            log.error("{} : failed to finalize file transfer for client {}. filename: '{}', details: {}", this.getClass().getSimpleName(), client.socketFd, filename, e.getMessage(), e);
+            log.error("{} : failed to finalize file transfer for client {}. filename: '{}', details: {}", this.getClass().getSimpleName(), session.getClientId(), filename, e.getMessage(), e);
 
             FileEndBroadcast failedBroadcast = new FileEndBroadcast(senderNickname, filename, "FAILED");
 
@@ -59,6 +64,16 @@ public class FileEndHandler extends MessageHandler{
         }
     }
 
+    private static FileMissingResponse missingResponse(FileTransferService.IncompleteUploadException e) {
+        long[] missing = new long[e.getMissingRanges().size() * 2];
+
+        for (int i = 0; i < e.getMissingRanges().size(); i++) {
+            missing[i * 2] = e.getMissingRanges().get(i)[0];
+            missing[i * 2 + 1] = e.getMissingRanges().get(i)[1];
+        }
+        return new FileMissingResponse(e.getSession().getUploadId(), e.getSession().getFileName(), "INCOMPLETE", missing);
+    }
+
     @Override
     public MessageType getMessageType() {
         return MessageType.MSG_TYPE_FILE_END;
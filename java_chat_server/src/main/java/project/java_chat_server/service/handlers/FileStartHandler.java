@@ -1,65 +1,125 @@
 package project.java_chat_server.service.handlers;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import project.java_chat_server.dto.common.SystemNoticeBroadcast;
 import project.java_chat_server.service.model.HandlerResult;
+import project.java_chat_server.dto.file.FileEndBroadcast;
 import project.java_chat_server.dto.file.FileStartBroadcast;
 import project.java_chat_server.dto.file.FileStartRequest;
+import project.java_chat_server.dto.file.FileStartResponse;
+import project.java_chat_server.domain.FileTransferSession;
 import project.java_chat_server.service.FileTransferService;
-import project.java_chat_server.service.UserService;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.upload.ChecksumAlgorithm;
+import project.java_chat_server.service.upload.ContentStore;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
 
 @Slf4j
 @Component
 public class FileStartHandler extends MessageHandler{
-    private final FileTransferService fileTransferService;
-    private final UserService userService;
+    private static final HandlerResult INVALID_FILE_INFO = errorResult("INVALID_FILE_INFO", "유효하지 않은 파일 이름 또는 크기입니다.");
+    private static final HandlerResult FILE_TOO_LARGE = errorResult("FILE_TOO_LARGE", "파일이 서버가 받을 수 있는 최대 크기보다 큽니다.");
+    private static final HandlerResult AUTH_REQUIRED = errorResult("AUTH_REQUIRED", "파일을 전송하려면 먼저 로그인해야 합니다.");
+    private static final HandlerResult INVALID_DIGEST = errorResult("INVALID_DIGEST", "contentDigest는 16진수 64자리 SHA-256이어야 합니다.");
+    private static final HandlerResult UNSUPPORTED_CHECKSUM = errorResult("UNSUPPORTED_CHECKSUM", "지원하지 않는 체크섬 방식입니다. (sha256, crc32c)");
+    private static final HandlerResult FILE_TRANSFER_FAILED = errorResult("FILE_TRANSFER_FAILED", "파일 전송 시작 중 서버 오류가 발생했습니다.");
 
-    public FileStartHandler(FileTransferService fileTransferService, UserService userService, ObjectMapper objectMapper) {
-        super(objectMapper);
+    private final FileTransferService fileTransferService;
+    public FileStartHandler(FileTransferService fileTransferService, WireCodecs codecs) {
+        super(codecs);
         this.fileTransferService = fileTransferService;
-        this.userService = userService;
     }
 
     @Override
-    public HandlerResult handle(ClientInfo client, byte[] payload) {
+    public HandlerResult handle(ConnectionSession session, ByteBuffer payload) {
         String senderNickname = null;
         FileStartRequest request = null;
 
         try {
-            senderNickname = userService.getNickname(client.socketFd).orElseThrow(
-                    () -> new IllegalStateException("Authentication required. Client not logged in.")
-            );
+            senderNickname = session.getNickname();
+
+            if (senderNickname == null) {
+                log.warn("{} : file transfer rejected for unauthenticated client {}.", this.getClass().getSimpleName(), session.getClientId());
+                return AUTH_REQUIRED;
+            }
 
-            request = objectMapper.readValue(payload, FileStartRequest.class);
+            request = readPayload(session, payload, FileStartRequest.class);
             String filename = request.filename().trim();
             long filesize = request.filesize();
 
             if (filename.isEmpty() || filesize <= 0) {
-                return super.createErrorResponse("INVALID_FILE_INFO", "유효하지 않은 파일 이름 또는 크기입니다.");
+                return INVALID_FILE_INFO;
+            }
+            if (filesize > fileTransferService.getMaxUploadBytes()) {
+                log.warn("{} : client {} declared {} bytes, over the upload limit {}.", this.getClass().getSimpleName(), session.getClientId(), filesize, fileTransferService.getMaxUploadBytes());
+                return FILE_TOO_LARGE;
+            }
+
+            ChecksumAlgorithm checksumAlgorithm = ChecksumAlgorithm.fromName(request.checksumAlgorithm());
+
+            if (checksumAlgorithm == null) {
+                return UNSUPPORTED_CHECKSUM;
             }
 
-            fileTransferService.startFileTransfer(client.socketFd, filename, filesize);
+            String uploadId = request.uploadId();
+            boolean resuming = uploadId != null && !uploadId.isBlank();
 
-            SystemNoticeBroadcast ackResponse = new SystemNoticeBroadcast("파일 전송을 시작합니다.");
-            FileStartBroadcast startBroadcast = new FileStartBroadcast(senderNickname, filename, "STARTED");
+            if (!resuming && request.contentDigest() != null && !request.contentDigest().isBlank()) {
+                String digest = request.contentDigest().trim().toLowerCase(Locale.ROOT);
 
-            return HandlerResult.response(MessageType.MSG_TYPE_SERVER_NOTICE, ackResponse).andBroadcast(MessageType.MSG_TYPE_FILE_INFO, startBroadcast);
-        } catch (IllegalStateException e) {
-            log.warn("{} : file transfer rejected for unauthenticated client {}. details : {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
-            return super.createErrorResponse("AUTH_REQUIRED", "파일을 전송하려면 먼저 로그인해야 합니다.");
+                if (!ContentStore.isDigest(digest)) {
+                    return INVALID_DIGEST;
+                }
+                if (fileTransferService.completeFromStore(session.getClientId(), senderNickname, filename, filesize, digest) != null) {
+                    return completedResult(senderNickname, filename);
+                }
+            }
+            FileTransferSession transfer = resuming
+                    ? fileTransferService.resumeFileTransfer(session.getClientId(), uploadId.trim(), senderNickname, filename, filesize, checksumAlgorithm)
+                    : fileTransferService.startFileTransfer(session.getClientId(), senderNickname, filename, filesize, checksumAlgorithm);
+
+            SystemNoticeBroadcast ackResponse = new SystemNoticeBroadcast(resuming
+                    ? String.format("파일 전송을 %d 바이트부터 이어 받습니다.", transfer.getReceivedBytes())
+                    : "파일 전송을 시작합니다.");
+            FileStartBroadcast startBroadcast = new FileStartBroadcast(senderNickname, filename, resuming ? "RESUMED" : "STARTED");
+            FileStartResponse startResponse = new FileStartResponse(transfer.getUploadId(), filename, transfer.getReceivedBytes(), checksumAlgorithm.getName());
+
+            return HandlerResult.response(MessageType.MSG_TYPE_SERVER_NOTICE, ackResponse)
+                    .andBroadcast(MessageType.MSG_TYPE_FILE_INFO, startBroadcast)
+                    .andRespond(MessageType.MSG_TYPE_FILE_INFO, startResponse);
+        } catch (FileTransferService.UploadNotResumableException e) {
+            log.warn("{} : client {} cannot resume upload. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
+            return createErrorResponse("UPLOAD_NOT_RESUMABLE", "이어 받을 수 없는 업로드입니다. 처음부터 다시 보내 주세요.");
         } catch (IOException e) {
-            log.error("{} : failed to parse file info request for client {}. details : {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
-            return super.createErrorResponse("INVALID_REQUEST_FORMAT", "요청 형식이 올바르지 않습니다.");
+            log.error("{} : failed to parse file info request for client {}. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
+            return INVALID_REQUEST_FORMAT;
         } catch (Exception e) {
-            log.error("{} : failed to start file transfer for client {}. details : {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
-            return super.createErrorResponse("FILE_TRANSFER_FAILED", "파일 전송 시작 중 서버 오류가 발생했습니다.");
+            log.error("{} : failed to start file transfer for client {}. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
+            return FILE_TRANSFER_FAILED;
         }
     }
 
+    /**
+     * 조각 없이 끝난 업로드. 파일 끝 요청을 처리했을 때와 같은 응답과 알림을 보냅니다.
+     */
+    private static HandlerResult completedResult(String senderNickname, String filename) {
+        FileEndBroadcast endBroadcast = new FileEndBroadcast(senderNickname, filename, "COMPLETED");
+        SystemNoticeBroadcast noticeBroadcast = new SystemNoticeBroadcast(String.format("[SYSTEM] %s 님이 %s 을(를) 전송했습니다.", senderNickname, filename));
+        return HandlerResult.response(MessageType.MSG_TYPE_FILE_END, endBroadcast).andBroadcast(MessageType.MSG_TYPE_SERVER_NOTICE, noticeBroadcast);
+    }
+
+    /**
+     * 업로드 도중 끊긴 연결의 업로드를 지우지 않고 멈춰 둡니다. 다시 접속해 같은 업로드 id를 보내면 이어 받습니다.
+     */
+    @Override
+    public void onDisconnect(ConnectionSession session) {
+        fileTransferService.suspendFileTransfer(session.getClientId());
+    }
+
     @Override
     public MessageType getMessageType() {
         return MessageType.MSG_TYPE_FILE_INFO;
@@ -1,49 +1,74 @@
 package project.java_chat_server.service.handlers;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import project.java_chat_server.dto.user.UserJoinBroadcast;
 import project.java_chat_server.dto.user.UserLoginRequest;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.dto.user.UserLoginResponse;
+import project.java_chat_server.service.RoomService;
+import project.java_chat_server.service.SessionRegistry;
 import project.java_chat_server.service.UserService;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ChatHistory;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.codec.WireFormat;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 @Slf4j
 @Component
 public class LoginRequestHandler extends MessageHandler{
+    private static final HandlerResult INVALID_NICKNAME = errorResult("INVALID_NICKNAME", "닉네임을 작성하세요.");
+
     private final UserService userService;
+    private final SessionRegistry sessionRegistry;
+    private final RoomService roomService;
 
-    public LoginRequestHandler(UserService userService, ObjectMapper objectMapper) {
-        super(objectMapper);
+    public LoginRequestHandler(UserService userService, SessionRegistry sessionRegistry, RoomService roomService, WireCodecs codecs) {
+        super(codecs);
         this.userService = userService;
+        this.sessionRegistry = sessionRegistry;
+        this.roomService = roomService;
     }
 
     @Override
-    public HandlerResult handle(ClientInfo client, byte[] payload) {
+    public HandlerResult handle(ConnectionSession session, ByteBuffer payload) {
         try {
-            UserLoginRequest request = objectMapper.readValue(payload, UserLoginRequest.class);
+            UserLoginRequest request = readPayload(session, payload, UserLoginRequest.class);
             String requestedNickname = request.nickname().trim();
 
             if (requestedNickname.isEmpty()) {
-                return super.createErrorResponse("INVALID_NICKNAME", "닉네임을 작성하세요.");
+                return INVALID_NICKNAME;
             }
-            userService.login(client.socketFd, requestedNickname);
+            userService.login(session, requestedNickname);
+
+            WireFormat format = WireFormat.fromName(request.codec());
 
-            UserLoginResponse response = UserLoginResponse.onSuccess(requestedNickname, client.socketFd);
+            if (format == null) {
+                log.warn("{} : client {} requested unknown codec '{}'. falling back to json", this.getClass().getSimpleName(), session.getClientId(), request.codec());
+                format = WireFormat.JSON;
+            }
+            UserLoginResponse response = UserLoginResponse.onSuccess(requestedNickname, session.getClientId(), format.getName());
             UserJoinBroadcast broadcast = new UserJoinBroadcast(requestedNickname);
 
-            return HandlerResult.response(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE, response).andBroadcast(MessageType.MSG_TYPE_USER_JOIN_NOTICE, broadcast);
+            // 클라이언트는 응답을 받아야 협상 결과를 알 수 있으므로 응답은 전환 전에 JSON으로 만들어 두고, 그 다음부터 새 인코딩을 씁니다.
+            byte[] encodedResponse = codecs.json().encode(response);
+            sessionRegistry.switchFormat(session, format);
+
+            HandlerResult result = HandlerResult.response(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE, encodedResponse).andBroadcast(MessageType.MSG_TYPE_USER_JOIN_NOTICE, broadcast);
+
+            // 최근 전체 채팅을 응답 바로 뒤에 같은 배치로 보내 줍니다. (협상한 인코딩으로)
+            ChatHistory history = roomService.getLobbyHistory();
+            return history.isEmpty() ? result : result.andReplay(-1);
         } catch (UserService.UserLoginException e) {
-            log.warn("{} : client {} failed to login via UserService.login(). details : {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
+            log.warn("{} : client {} failed to login via UserService.login(). details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
             return super.createErrorResponse("LOGIN_FAILED", e.getMessage());
         } catch (IOException e) {
-          log.error("{} : client {} nickname is invalid. details : {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
+          log.error("{} : client {} nickname is invalid. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
           return super.createErrorResponse("LOGIN_FAILED", e.getMessage());
         } catch (Exception e) {
-            log.error("{} : client {} failed to login because of unknown reason. details : {}", this.getClass().getSimpleName(), client.socketFd, e.getMessage());
+            log.error("{} : client {} failed to login because of unknown reason. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
             return HandlerResult.empty();
         }
     }
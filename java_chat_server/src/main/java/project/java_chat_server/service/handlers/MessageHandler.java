@@ -1,21 +1,57 @@
 package project.java_chat_server.service.handlers;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.PrecomputedPayload;
+import project.java_chat_server.service.codec.WireCodecs;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.dto.common.ErrorResponse;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
 
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public abstract class MessageHandler {
-    protected final ObjectMapper objectMapper;
+    protected static final HandlerResult INVALID_REQUEST_FORMAT = errorResult("INVALID_REQUEST_FORMAT", "요청 형식이 올바르지 않습니다.");
+    protected static final HandlerResult UNKNOWN_ERROR = errorResult("UNKNOWN_ERROR", "알 수 없는 오류가 발생했습니다.");
+
+    protected final WireCodecs codecs;
 
-    abstract public HandlerResult handle(ClientInfo client, byte[] payload);
+    /**
+     * 네이티브 파서 버퍼를 그대로 감싼 읽기 전용 뷰로 메시지를 처리합니다.
+     * session은 연결될 때 한 번 만들어 둔 것을 그대로 넘기므로, 닉네임 등은 여기서 바로 읽으면 됩니다.
+     * payload는 콜백이 끝나면 무효가 되므로 핸들러 밖으로 들고 나가면 안 됩니다. (필요하면 복사)
+     */
+    abstract public HandlerResult handle(ConnectionSession session, ByteBuffer payload);
     abstract public MessageType getMessageType();
 
+    public HandlerResult handle(ConnectionSession session, byte[] payload) {
+        return handle(session, ByteBuffer.wrap(payload).asReadOnlyBuffer());
+    }
+
+    /**
+     * 연결이 끊겼을 때, 그 연결의 메시지를 모두 처리한 뒤 한 번 불립니다. 연결에 묶인 자원이 있는 핸들러만 정리하면 됩니다.
+     */
+    public void onDisconnect(ConnectionSession session) {
+    }
+
+    /**
+     * 세션이 로그인 때 고른 인코딩으로 payload를 복사하지 않고 읽습니다. payload의 position은 바뀌지 않습니다.
+     */
+    protected <T> T readPayload(ConnectionSession session, ByteBuffer payload, Class<T> type) throws IOException {
+        return codecs.get(session.getWireFormat()).decode(payload, type);
+    }
+
     protected HandlerResult createErrorResponse(String errorCode, String message) {
         ErrorResponse error = new ErrorResponse(errorCode, message);
         return HandlerResult.response(MessageType.MSG_TYPE_ERROR_RESPONSE, error);
     }
+
+    /**
+     * 메시지가 고정된 에러는 미리 인코딩해 둔 바이트를 담은 결과를 상수로 만들어 두고, 매번 같은 객체를 돌려줍니다.
+     */
+    protected static HandlerResult errorResult(String errorCode, String message) {
+        return HandlerResult.response(MessageType.MSG_TYPE_ERROR_RESPONSE, PrecomputedPayload.error(errorCode, message));
+    }
 }
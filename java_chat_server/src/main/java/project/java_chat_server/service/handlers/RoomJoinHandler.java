@@ -0,0 +1,67 @@
+package project.java_chat_server.service.handlers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import project.java_chat_server.domain.ChatRoom;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.dto.room.RoomJoinRequest;
+import project.java_chat_server.dto.room.RoomNoticeBroadcast;
+import project.java_chat_server.service.RoomService;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.model.HandlerResult;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+@Slf4j
+@Component
+public class RoomJoinHandler extends MessageHandler {
+    private static final HandlerResult AUTH_REQUIRED = errorResult("AUTH_REQUIRED", "방에 들어가려면 먼저 로그인해야 합니다.");
+
+    private final RoomService roomService;
+
+    public RoomJoinHandler(RoomService roomService, WireCodecs codecs) {
+        super(codecs);
+        this.roomService = roomService;
+    }
+
+    @Override
+    public HandlerResult handle(ConnectionSession session, ByteBuffer payload) {
+        try {
+            String nickname = session.getNickname();
+
+            if (nickname == null) {
+                log.warn("{} : room join rejected for unauthenticated client {}.", this.getClass().getSimpleName(), session.getClientId());
+                return AUTH_REQUIRED;
+            }
+
+            RoomJoinRequest request = readPayload(session, payload, RoomJoinRequest.class);
+            String roomName = request.room() == null ? null : request.room().trim();
+            ChatRoom previous = session.getRoom();
+            ChatRoom room = roomService.join(session, roomName);
+
+            // 들어온 사람에게는 응답으로, 원래 있던 멤버에게는 방 그룹 브로드캐스트로 같은 알림을 보냅니다.
+            RoomNoticeBroadcast joined = new RoomNoticeBroadcast(room.getName(), nickname, "JOINED");
+            HandlerResult result = HandlerResult.response(MessageType.MSG_TYPE_ROOM_NOTICE, joined).andBroadcastToGroup(room.getGroupId(), MessageType.MSG_TYPE_ROOM_NOTICE, joined);
+
+            if (previous != null) {
+                RoomNoticeBroadcast left = new RoomNoticeBroadcast(previous.getName(), nickname, "LEFT");
+                result = result.andAlsoBroadcastToGroup(previous.getGroupId(), MessageType.MSG_TYPE_ROOM_NOTICE, left);
+            }
+            return room.getHistory().isEmpty() ? result : result.andReplay(room.getGroupId());
+        } catch (RoomService.RoomException e) {
+            log.warn("{} : client {} failed to join room. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
+            return super.createErrorResponse("ROOM_JOIN_FAILED", e.getMessage());
+        } catch (IOException e) {
+            log.error("{} : failed to parse room join request for client {}. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage());
+            return INVALID_REQUEST_FORMAT;
+        } catch (Exception e) {
+            log.error("{} : unknown error while joining room for client {}. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage(), e);
+            return UNKNOWN_ERROR;
+        }
+    }
+
+    @Override
+    public MessageType getMessageType() {
+        return MessageType.MSG_TYPE_ROOM_JOIN_REQUEST;
+    }
+}
@@ -0,0 +1,59 @@
+package project.java_chat_server.service.handlers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import project.java_chat_server.domain.ChatRoom;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.dto.room.RoomNoticeBroadcast;
+import project.java_chat_server.service.RoomService;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.model.HandlerResult;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * 방 나가기. 요청 payload는 읽지 않습니다.
+ */
+@Slf4j
+@Component
+public class RoomLeaveHandler extends MessageHandler {
+    private static final HandlerResult AUTH_REQUIRED = errorResult("AUTH_REQUIRED", "방에서 나가려면 먼저 로그인해야 합니다.");
+    private static final HandlerResult NOT_IN_ROOM = errorResult("NOT_IN_ROOM", "들어가 있는 방이 없습니다.");
+
+    private final RoomService roomService;
+
+    public RoomLeaveHandler(RoomService roomService, WireCodecs codecs) {
+        super(codecs);
+        this.roomService = roomService;
+    }
+
+    @Override
+    public HandlerResult handle(ConnectionSession session, ByteBuffer payload) {
+        try {
+            String nickname = session.getNickname();
+
+            if (nickname == null) {
+                log.warn("{} : room leave rejected for unauthenticated client {}.", this.getClass().getSimpleName(), session.getClientId());
+                return AUTH_REQUIRED;
+            }
+
+            Optional<ChatRoom> left = roomService.leave(session);
+
+            if (left.isEmpty()) {
+                return NOT_IN_ROOM;
+            }
+
+            ChatRoom room = left.get();
+            RoomNoticeBroadcast notice = new RoomNoticeBroadcast(room.getName(), nickname, "LEFT");
+            return HandlerResult.response(MessageType.MSG_TYPE_ROOM_NOTICE, notice).andBroadcastToGroup(room.getGroupId(), MessageType.MSG_TYPE_ROOM_NOTICE, notice);
+        } catch (Exception e) {
+            log.error("{} : unknown error while leaving room for client {}. details : {}", this.getClass().getSimpleName(), session.getClientId(), e.getMessage(), e);
+            return UNKNOWN_ERROR;
+        }
+    }
+
+    @Override
+    public MessageType getMessageType() {
+        return MessageType.MSG_TYPE_ROOM_LEAVE_REQUEST;
+    }
+}
@@ -0,0 +1,403 @@
+package project.java_chat_server.service.journal;
+import lombok.extern.slf4j.Slf4j;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * 채팅 브로드캐스트를 파일에 남기는 추가 전용 저널
+ * <p>
+ * append()는 payload를 복사해 락 없는 큐에 넣기만 하고 바로 돌아오며, 큐가 가득 차면 기다리지 않고 버립니다.
+ * 쓰기 쓰레드 하나가 큐를 비우면서 고정 크기 메모리 매핑 세그먼트(JournalSegment)에 이어 쓰고, 가득 차면 다음 세그먼트로 넘어갑니다.
+ * 세그먼트마다 희소 timestamp 인덱스가 있어 read()는 시각으로 시작 위치를 찾습니다.
+ * 보관 기간이 지났거나 전체 크기 한도를 넘은 세그먼트는 오래된 것부터 지웁니다. (쓰고 있는 세그먼트는 지우지 않음)
+ * 시작할 때는 디렉토리의 세그먼트를 모두 훑어 인덱스를 다시 만들고, 마지막 세그먼트의 끝에서 이어 씁니다.
+ */
+@Slf4j
+public class ChatJournal implements AutoCloseable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAINTENANCE_INTERVAL_MILLIS = 1000;
+    /** 큐가 비었을 때 잠들기 전에 기다려 보는 횟수. 바로 잠들면 append()마다 unpark 시스템 콜이 생깁니다. 코어가 하나면 생산자 시간만 뺏으므로 돌지 않습니다. */
+    private static final int SPINS_BEFORE_PARK = Runtime.getRuntime().availableProcessors() > 1 ? 1000 : 0;
+
+    private final Options options;
+    /** 오래된 것부터. 쓰기 쓰레드만 바꾸고, 읽는 쪽은 스냅샷을 순회합니다. */
+    private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<PendingRecord> queue = new ConcurrentLinkedQueue<>();
+    /** 큐에 들어 있는 레코드 수. ConcurrentLinkedQueue.size()는 O(n)이라 따로 셉니다. */
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    private volatile long writtenRecords;
+    private volatile long writtenBytes;
+    private JournalSegment active;
+    /** 다음에 만들 세그먼트 id. 건너뛴 파일과 이름이 겹치지 않게 디렉토리에서 본 가장 큰 id 다음부터 씁니다. */
+    private long nextSegmentId;
+    /** 레코드 timestamp가 거꾸로 가지 않게 쓰기 쓰레드가 맞춰 줍니다. */
+    private long lastTimestamp;
+
+    private ChatJournal(Options options) throws IOException {
+        this.options = options;
+        Files.createDirectories(options.directory());
+        recoverSegments();
+        this.writer = new Thread(this::runWriter, "chat-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * 디렉토리의 세그먼트를 복구하고 쓰기 쓰레드를 시작합니다.
+     */
+    public static ChatJournal open(Options options) throws IOException {
+        ChatJournal journal = new ChatJournal(options);
+        journal.writer.start();
+        log.info("채팅 저널 시작: {} (세그먼트 {}개, 세그먼트 크기 {}바이트, 보관 {}, 최대 {}바이트)",
+                options.directory(), journal.segments.size(), options.segmentBytes(), options.retention(), options.maxTotalBytes());
+        return journal;
+    }
+
+    /**
+     * 브로드캐스트 하나를 저널에 넣습니다. 파일에는 쓰기 쓰레드가 나중에 씁니다. 절대 기다리지 않습니다.
+     * @param groupId 방 브로드캐스트면 그룹 id, 전체면 -1
+     * @param payload position부터 limit까지를 복사합니다. position은 바꾸지 않습니다.
+     * @return 큐가 가득 찼거나 닫혀서 버렸으면 false
+     */
+    public boolean append(int groupId, MessageType type, ByteBuffer payload) {
+        if (closed || payload.remaining() > options.segmentBytes() - JournalSegment.HEADER_SIZE - JournalSegment.RECORD_HEADER_SIZE) {
+            dropped.increment();
+            return false;
+        }
+        if (queued.incrementAndGet() > options.queueCapacity()) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+
+        byte[] copy = new byte[payload.remaining()];
+        payload.duplicate().get(copy);
+        queue.offer(new PendingRecord(System.currentTimeMillis(), groupId, type.getValue(), copy));
+
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * fromMillis 이후(포함)의 레코드를 오래된 것부터 넘깁니다. 아직 큐에 있는 레코드는 보이지 않습니다.
+     * @return 넘긴 레코드 수
+     */
+    public int read(long fromMillis, RecordVisitor visitor) {
+        int[] count = {0};
+        RecordVisitor counting = (timestamp, groupId, type, payload) -> {
+            count[0]++;
+            return visitor.visit(timestamp, groupId, type, payload);
+        };
+
+        for (JournalSegment segment : segments) {
+            if (segment.isEmpty() || segment.getLastTimestamp() < fromMillis) {
+                continue;
+            }
+            if (!segment.read(fromMillis, counting)) {
+                break;
+            }
+        }
+        return count[0];
+    }
+
+    /**
+     * fromMillis 이후의 레코드를 최대 limit개까지 복사해 돌려줍니다.
+     */
+    public List<JournalRecord> read(long fromMillis, int limit) {
+        List<JournalRecord> records = new ArrayList<>();
+
+        read(fromMillis, (timestamp, groupId, type, payload) -> {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            records.add(new JournalRecord(timestamp, groupId, MessageType.fromValue(type), bytes));
+            return records.size() < limit;
+        });
+        return records;
+    }
+
+    /** 쓰기 쓰레드가 파일에 쓴 레코드 수 (복구한 레코드 제외) */
+    public long getWrittenRecords() {
+        return writtenRecords;
+    }
+
+    /** 쓰기 쓰레드가 파일에 쓴 바이트 수 (레코드 헤더 포함) */
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    /** 큐가 가득 찼거나 너무 커서 버린 레코드 수 */
+    public long getDroppedRecords() {
+        return dropped.sum();
+    }
+
+    public int getQueuedRecords() {
+        return queued.get();
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 큐에 남은 레코드를 모두 쓰고 디스크로 내린 뒤 닫습니다.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("채팅 저널 쓰기 쓰레드가 10초 안에 끝나지 않았습니다. 남은 레코드 {}개", queued.get());
+            return;
+        }
+
+        for (JournalSegment segment : segments) {
+            closeQuietly(segment);
+        }
+        log.info("채팅 저널 종료: 쓴 레코드 {}개 ({}바이트), 버린 레코드 {}개", writtenRecords, writtenBytes, dropped.sum());
+    }
+
+    private void runWriter() {
+        long nextMaintenance = 0;
+        int idleSpins = 0;
+
+        while (true) {
+            PendingRecord record = queue.poll();
+
+            if (record != null) {
+                queued.decrementAndGet();
+                write(record);
+                idleSpins = 0;
+
+                // 쉬지 않고 쓰는 동안에도 주기 작업이 밀리지 않게 레코드 시각으로 확인합니다.
+                if (record.timestamp() >= nextMaintenance) {
+                    maintain(record.timestamp());
+                    nextMaintenance = record.timestamp() + MAINTENANCE_INTERVAL_MILLIS;
+                }
+                continue;
+            }
+            if (closed) {
+                break;
+            }
+            if (++idleSpins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+                continue;
+            }
+            idleSpins = 0;
+
+            long now = System.currentTimeMillis();
+
+            if (now >= nextMaintenance) {
+                maintain(now);
+                nextMaintenance = now + MAINTENANCE_INTERVAL_MILLIS;
+            }
+
+            // append()는 큐에 넣은 뒤 writerParked를 보고 깨우므로, 표시한 다음 큐를 한 번 더 봐야 놓치지 않습니다.
+            writerParked = true;
+
+            if (queue.isEmpty() && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    private void write(PendingRecord record) {
+        long timestamp = Math.max(record.timestamp(), lastTimestamp);
+
+        try {
+            if (active == null || !active.append(timestamp, record.groupId(), record.type(), record.payload())) {
+                roll(timestamp);
+
+                if (!active.append(timestamp, record.groupId(), record.type(), record.payload())) {
+                    dropped.increment();
+                    return;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("채팅 저널 기록 실패. 레코드를 버립니다.", e);
+            dropped.increment();
+            return;
+        }
+        lastTimestamp = timestamp;
+        writtenRecords++;
+        writtenBytes += JournalSegment.RECORD_HEADER_SIZE + record.payload().length;
+    }
+
+    /**
+     * 지금 세그먼트를 디스크로 내리고 새 세그먼트를 엽니다.
+     */
+    private void roll(long now) throws IOException {
+        if (active != null) {
+            active.force();
+        }
+        active = JournalSegment.create(options.directory(), nextSegmentId++, options.segmentBytes(), options.indexIntervalBytes(), now);
+        segments.add(active);
+        log.debug("채팅 저널 세그먼트 생성: {}", active.getPath());
+        applyRetention(now);
+    }
+
+    private void maintain(long now) {
+        if (active != null) {
+            active.force();
+        }
+        applyRetention(now);
+    }
+
+    /**
+     * 보관 기간이 지났거나 전체 크기 한도를 넘은 세그먼트를 오래된 것부터 지웁니다.
+     */
+    private void applyRetention(long now) {
+        long totalBytes = 0;
+
+        for (JournalSegment segment : segments) {
+            totalBytes += segment.getCapacity();
+        }
+
+        long expireBefore = now - options.retention().toMillis();
+
+        while (segments.size() > 1 && segments.get(0) != active) {
+            JournalSegment oldest = segments.get(0);
+            boolean expired = !oldest.isEmpty() && oldest.getLastTimestamp() < expireBefore;
+
+            if (!expired && totalBytes <= options.maxTotalBytes()) {
+                break;
+            }
+            segments.remove(0);
+            totalBytes -= oldest.getCapacity();
+            closeQuietly(oldest);
+
+            try {
+                Files.deleteIfExists(oldest.getPath());
+                log.info("채팅 저널 세그먼트 삭제: {} ({})", oldest.getPath().getFileName(), expired ? "보관 기간 지남" : "크기 한도 초과");
+            } catch (IOException e) {
+                log.warn("채팅 저널 세그먼트 삭제 실패: {}", oldest.getPath(), e);
+            }
+        }
+    }
+
+    /**
+     * 디렉토리의 세그먼트를 id 순서로 열어 인덱스를 다시 만들고, 마지막 세그먼트를 이어 쓸 세그먼트로 삼습니다.
+     */
+    private void recoverSegments() throws IOException {
+        List<Path> files;
+
+        try (Stream<Path> listing = Files.list(options.directory())) {
+            files = listing.filter(path -> parseSegmentId(path) >= 0).sorted().toList();
+        }
+
+        for (Path file : files) {
+            nextSegmentId = Math.max(nextSegmentId, parseSegmentId(file) + 1);
+            JournalSegment segment = JournalSegment.recover(file, parseSegmentId(file), options.indexIntervalBytes());
+
+            if (segment == null) {
+                log.warn("채팅 저널 세그먼트가 아닌 파일을 건너뜁니다: {}", file);
+                continue;
+            }
+            segments.add(segment);
+            lastTimestamp = Math.max(lastTimestamp, segment.getLastTimestamp());
+        }
+
+        if (!segments.isEmpty()) {
+            active = segments.get(segments.size() - 1);
+            long records = segments.stream().mapToLong(JournalSegment::getRecordCount).sum();
+            log.info("채팅 저널 복구: 세그먼트 {}개, 레코드 {}개, {}에서 이어 씀", segments.size(), records, active.getPath().getFileName());
+        }
+        applyRetention(System.currentTimeMillis());
+    }
+
+    private static long parseSegmentId(Path path) {
+        String name = path.getFileName().toString();
+
+        if (!name.endsWith(JournalSegment.FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - JournalSegment.FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void closeQuietly(JournalSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("채팅 저널 세그먼트 닫기 실패: {}", segment.getPath(), e);
+        }
+    }
+
+    private record PendingRecord(long timestamp, int groupId, int type, byte[] payload) {
+    }
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        /**
+         * @param payload 세그먼트를 직접 보는 읽기 전용 뷰. 이 호출 안에서만 유효합니다.
+         * @return false면 더 읽지 않습니다.
+         */
+        boolean visit(long timestamp, int groupId, int type, ByteBuffer payload);
+    }
+
+    /**
+     * @param segmentBytes       세그먼트 파일 하나의 크기 (매핑 크기)
+     * @param indexIntervalBytes 희소 인덱스 항목 사이의 대략적인 바이트 간격
+     * @param retention          이보다 오래된 레코드만 남은 세그먼트는 지움
+     * @param maxTotalBytes      세그먼트 파일 크기의 합 한도
+     * @param queueCapacity      쓰기 쓰레드가 따라오지 못할 때 쌓아 둘 레코드 수. 넘으면 버림
+     */
+    public record Options(Path directory, int segmentBytes, int indexIntervalBytes, Duration retention, long maxTotalBytes, int queueCapacity) {
+        public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+        public static final int DEFAULT_INDEX_INTERVAL_BYTES = 4096;
+        public static final Duration DEFAULT_RETENTION = Duration.ofDays(7);
+        public static final long DEFAULT_MAX_TOTAL_BYTES = 1024L * 1024 * 1024;
+        public static final int DEFAULT_QUEUE_CAPACITY = 65536;
+
+        public Options {
+            if (directory == null) {
+                throw new IllegalArgumentException("Journal directory cannot be null.");
+            }
+            if (segmentBytes < JournalSegment.HEADER_SIZE + JournalSegment.RECORD_HEADER_SIZE + 1) {
+                throw new IllegalArgumentException("Journal segment is too small: " + segmentBytes);
+            }
+            if (indexIntervalBytes < 1 || maxTotalBytes < 1 || queueCapacity < 1 || retention == null || retention.isNegative()) {
+                throw new IllegalArgumentException("Invalid journal options.");
+            }
+        }
+
+        public static Options defaults(Path directory) {
+            return new Options(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_INDEX_INTERVAL_BYTES, DEFAULT_RETENTION, DEFAULT_MAX_TOTAL_BYTES, DEFAULT_QUEUE_CAPACITY);
+        }
+    }
+}
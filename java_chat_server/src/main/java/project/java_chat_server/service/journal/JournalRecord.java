@@ -0,0 +1,9 @@
+package project.java_chat_server.service.journal;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+/**
+ * 저널에서 읽어 복사한 레코드
+ * @param groupId 방 브로드캐스트였으면 그룹 id, 전체 브로드캐스트였으면 -1
+ */
+public record JournalRecord(long timestamp, int groupId, MessageType type, byte[] payload) {
+}
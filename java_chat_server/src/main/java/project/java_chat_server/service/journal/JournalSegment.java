@@ -0,0 +1,279 @@
+package project.java_chat_server.service.journal;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * 저널 세그먼트 파일 하나. 파일 전체를 고정 크기로 매핑해 두고 레코드를 앞에서부터 이어 씁니다.
+ * <p>
+ * 파일: [magic int][version int][segment id long][생성 시각 long][예약 8바이트] 다음에 레코드가 이어집니다.
+ * 레코드: [전체 길이 int][CRC32C int][timestamp long][groupId int][type int][payload]
+ * 매핑한 영역은 0으로 채워져 있으므로 길이 자리가 0이면 거기가 끝입니다. CRC는 timestamp부터 payload 끝까지입니다.
+ * <p>
+ * 쓰기와 희소 인덱스 추가는 저널의 쓰기 쓰레드 하나만 합니다. 다른 쓰레드는 writePosition까지만 읽습니다.
+ */
+final class JournalSegment implements Closeable {
+    static final int MAGIC = 0x434A4E4C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_HEADER_SIZE = 24;
+    static final String FILE_SUFFIX = ".journal";
+
+    @Getter
+    private final long id;
+    @Getter
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int indexIntervalBytes;
+    private final CRC32C crc = new CRC32C();
+    /** CRC 계산용 뷰. 쓰기 쓰레드(복구 중에는 여는 쓰레드)만 씁니다. */
+    private final ByteBuffer crcView;
+
+    /** 희소 인덱스: 대략 indexIntervalBytes마다 (timestamp, 레코드 위치) 하나. 쓰기 쓰레드가 추가하고 읽기는 아무 쓰레드나 합니다. */
+    private long[] indexTimestamps = new long[16];
+    private int[] indexOffsets = new int[16];
+    private int indexSize;
+    private int lastIndexedOffset = Integer.MIN_VALUE;
+
+    /** 여기까지는 다 쓴 레코드입니다. */
+    private volatile int writePosition = HEADER_SIZE;
+    @Getter
+    private volatile long firstTimestamp = -1;
+    @Getter
+    private volatile long lastTimestamp = -1;
+    @Getter
+    private volatile int recordCount;
+    private boolean dirty;
+
+    private JournalSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer, int indexIntervalBytes) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.indexIntervalBytes = indexIntervalBytes;
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        this.crcView = buffer.duplicate();
+    }
+
+    static Path fileName(Path directory, long id) {
+        return directory.resolve(String.format("%020d%s", id, FILE_SUFFIX));
+    }
+
+    /**
+     * 새 세그먼트 파일을 만들어 size 바이트 전체를 매핑합니다.
+     */
+    static JournalSegment create(Path directory, long id, int size, int indexIntervalBytes, long createdAt) throws IOException {
+        Path path = fileName(directory, id);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            JournalSegment segment = new JournalSegment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), indexIntervalBytes);
+            segment.buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, id).putLong(16, createdAt);
+            segment.dirty = true;
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * 기존 세그먼트를 열고 레코드를 처음부터 훑어 쓰기 위치와 인덱스를 복구합니다.
+     * 길이나 CRC가 맞지 않는 레코드(쓰다가 죽은 흔적)를 만나면 거기서부터 끝까지 0으로 지웁니다.
+     * @return 헤더가 저널 세그먼트가 아니면 null
+     */
+    static JournalSegment recover(Path path, long id, int indexIntervalBytes) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            long size = channel.size();
+
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                channel.close();
+                return null;
+            }
+            JournalSegment segment = new JournalSegment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), indexIntervalBytes);
+
+            if (segment.buffer.getInt(0) != MAGIC || segment.buffer.getInt(4) != VERSION || segment.buffer.getLong(8) != id) {
+                channel.close();
+                return null;
+            }
+            segment.scanForRecovery();
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void scanForRecovery() {
+        int position = HEADER_SIZE;
+        final int capacity = buffer.capacity();
+
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+
+            if (length == 0) {
+                break;
+            }
+            if (length < RECORD_HEADER_SIZE || length > capacity - position || buffer.getInt(position + 4) != checksum(position, length)) {
+                truncate(position);
+                break;
+            }
+            onAppended(position, buffer.getLong(position + 8), length);
+            position += length;
+        }
+        writePosition = position;
+    }
+
+    private void truncate(int position) {
+        final byte[] zeros = new byte[8192];
+        final ByteBuffer view = buffer.duplicate().position(position);
+
+        while (view.hasRemaining()) {
+            view.put(zeros, 0, Math.min(zeros.length, view.remaining()));
+        }
+        dirty = true;
+    }
+
+    /**
+     * @return 남은 자리가 모자라면 false (아무것도 쓰지 않음)
+     */
+    boolean append(long timestamp, int groupId, int type, byte[] payload) {
+        final int position = writePosition;
+        final int length = RECORD_HEADER_SIZE + payload.length;
+
+        if (length > buffer.capacity() - position) {
+            return false;
+        }
+
+        buffer.putLong(position + 8, timestamp).putInt(position + 16, groupId).putInt(position + 20, type);
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+        buffer.putInt(position + 4, checksum(position, length));
+        buffer.putInt(position, length);
+
+        onAppended(position, timestamp, length);
+        dirty = true;
+        writePosition = position + length;
+        return true;
+    }
+
+    private int checksum(int position, int length) {
+        crc.reset();
+        crc.update(crcView.clear().position(position + 8).limit(position + length));
+        return (int) crc.getValue();
+    }
+
+    private void onAppended(int position, long timestamp, int length) {
+        if (firstTimestamp < 0) {
+            firstTimestamp = timestamp;
+        }
+        lastTimestamp = timestamp;
+        recordCount++;
+
+        if (position - lastIndexedOffset >= indexIntervalBytes) {
+            addIndexEntry(timestamp, position);
+            lastIndexedOffset = position;
+        }
+    }
+
+    private synchronized void addIndexEntry(long timestamp, int position) {
+        if (indexSize == indexOffsets.length) {
+            indexTimestamps = Arrays.copyOf(indexTimestamps, indexSize * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+        }
+        indexTimestamps[indexSize] = timestamp;
+        indexOffsets[indexSize] = position;
+        indexSize++;
+    }
+
+    /**
+     * fromTimestamp 이상인 레코드가 나올 수 있는 가장 앞 위치. timestamp가 fromTimestamp보다 작은 마지막 인덱스 항목부터 읽으면 됩니다.
+     */
+    synchronized int seek(long fromTimestamp) {
+        int low = 0;
+        int high = indexSize - 1;
+        int found = -1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+
+            if (indexTimestamps[mid] < fromTimestamp) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found < 0 ? HEADER_SIZE : indexOffsets[found];
+    }
+
+    synchronized int getIndexSize() {
+        return indexSize;
+    }
+
+    /**
+     * fromTimestamp 이상인 레코드를 순서대로 넘깁니다. visitor가 false를 돌려주면 멈춥니다.
+     * @return visitor가 멈추라고 했으면 false
+     */
+    boolean read(long fromTimestamp, ChatJournal.RecordVisitor visitor) {
+        final int end = writePosition;
+        final ByteBuffer view = buffer.duplicate();
+        int position = seek(fromTimestamp);
+
+        while (position < end) {
+            final int length = view.getInt(position);
+            final long timestamp = view.getLong(position + 8);
+
+            if (timestamp >= fromTimestamp) {
+                ByteBuffer payload = view.duplicate().limit(position + length).position(position + RECORD_HEADER_SIZE).slice().asReadOnlyBuffer();
+
+                if (!visitor.visit(timestamp, view.getInt(position + 16), view.getInt(position + 20), payload)) {
+                    return false;
+                }
+            }
+            position += length;
+        }
+        return true;
+    }
+
+    int getWrittenBytes() {
+        return writePosition;
+    }
+
+    int getCapacity() {
+        return buffer.capacity();
+    }
+
+    boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    /** 쓴 내용을 디스크로 내립니다. 바뀐 게 없으면 아무것도 하지 않습니다. 쓰기 쓰레드에서만 부릅니다. */
+    void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * 매핑은 GC가 풀 때까지 남으므로, 닫은 뒤에도 이미 읽고 있던 쓰레드는 끝까지 읽을 수 있습니다.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -2,29 +2,87 @@ package project.java_chat_server.service.model;
 
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import org.springframework.lang.Nullable;
 import project.java_chat_server.wrapper_library.enums.MessageType;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * 불변 객체이므로 고정된 결과(빈 결과, 미리 인코딩한 에러 응답)는 한 번 만들어 두고 여러 쓰레드에서 같이 써도 됩니다.
+ */
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class HandlerResult {
+    private static final HandlerResult EMPTY = new HandlerResult(null, null, -1, List.of());
+
     private final OutgoingMessage directResponse;
     private final OutgoingMessage broadcast;
+    /** 0 이상이면 broadcast는 이 네이티브 그룹(방)의 멤버에게만 갑니다. */
+    private final int broadcastGroupId;
+    private final List<RoutedMessage> additionalMessages;
 
     public static HandlerResult empty() {
-        return new HandlerResult(null, null);
+        return EMPTY;
     }
 
     public static HandlerResult response(MessageType type, Object payload) {
-        return new HandlerResult(new OutgoingMessage(type, payload), null);
+        return new HandlerResult(new OutgoingMessage(type, payload), null, -1, List.of());
     }
 
     public static HandlerResult broadcast(MessageType type, Object payload) {
-        return new HandlerResult(null, new OutgoingMessage(type, payload));
+        return new HandlerResult(null, new OutgoingMessage(type, payload), -1, List.of());
+    }
+
+    /**
+     * 보낸 사람을 제외한 그룹(방) 멤버에게만 보냅니다.
+     */
+    public static HandlerResult broadcastToGroup(int groupId, MessageType type, Object payload) {
+        return new HandlerResult(null, new OutgoingMessage(type, payload), requireGroupId(groupId), List.of());
     }
 
     public HandlerResult andBroadcast(MessageType type, Object payload) {
-        return new HandlerResult(this.directResponse, new OutgoingMessage(type, payload));
+        return new HandlerResult(this.directResponse, new OutgoingMessage(type, payload), -1, this.additionalMessages);
+    }
+
+    public HandlerResult andBroadcastToGroup(int groupId, MessageType type, Object payload) {
+        return new HandlerResult(this.directResponse, new OutgoingMessage(type, payload), requireGroupId(groupId), this.additionalMessages);
+    }
+
+    /**
+     * 직접 응답 뒤에 보낸 사람에게 갈 메시지를 하나 더 덧붙입니다.
+     */
+    public HandlerResult andRespond(MessageType type, Object payload) {
+        return withAdditional(new RoutedMessage(Target.SENDER, -1, new OutgoingMessage(type, payload)));
+    }
+
+    /**
+     * 보낸 사람이 아닌 특정 클라이언트에게 보낼 메시지를 덧붙입니다.
+     */
+    public HandlerResult andSendTo(int clientId, MessageType type, Object payload) {
+        return withAdditional(new RoutedMessage(Target.CLIENT, clientId, new OutgoingMessage(type, payload)));
+    }
+
+    /**
+     * 기존 broadcast를 바꾸지 않고 브로드캐스트를 하나 더 덧붙입니다. (보낸 사람 제외)
+     */
+    public HandlerResult andAlsoBroadcast(MessageType type, Object payload) {
+        return withAdditional(new RoutedMessage(Target.BROADCAST, -1, new OutgoingMessage(type, payload)));
+    }
+
+    /**
+     * 기존 broadcast를 바꾸지 않고 다른 그룹(방)에 보낼 브로드캐스트를 덧붙입니다. (보낸 사람 제외)
+     */
+    public HandlerResult andAlsoBroadcastToGroup(int groupId, MessageType type, Object payload) {
+        return withAdditional(new RoutedMessage(Target.GROUP, requireGroupId(groupId), new OutgoingMessage(type, payload)));
+    }
+
+    /**
+     * 보낸 클라이언트에게 그룹(방)의 채팅 기록을 메시지마다 따로 이어서 보냅니다. 기록에 담긴 payload를 배치로 복사만 하므로 다시 직렬화하지 않습니다.
+     * @param groupId 기록을 꺼낼 그룹, 로비 기록이면 -1
+     */
+    public HandlerResult andReplay(int groupId) {
+        return withAdditional(new RoutedMessage(Target.REPLAY, groupId, new OutgoingMessage(MessageType.MSG_TYPE_CHAT_TEXT, null)));
     }
 
     public Optional<OutgoingMessage> getDirectResponse() {
@@ -35,5 +93,70 @@ public class HandlerResult {
         return Optional.ofNullable(broadcast);
     }
 
+    /** broadcast의 대상 그룹, 모두에게 보내는 브로드캐스트면 -1 */
+    public int getBroadcastGroupId() {
+        return broadcastGroupId;
+    }
+
+    public boolean isEmpty() {
+        return directResponse == null && broadcast == null && additionalMessages.isEmpty();
+    }
+
+    /** 메시지마다 부르는 송신 경로용. Optional을 만들지 않습니다. */
+    @Nullable
+    public OutgoingMessage directResponseOrNull() {
+        return directResponse;
+    }
+
+    @Nullable
+    public OutgoingMessage broadcastOrNull() {
+        return broadcast;
+    }
+
+    /** andSendTo/andAlsoBroadcast로 덧붙인 메시지만 (불변 리스트) */
+    public List<RoutedMessage> getAdditionalMessages() {
+        return additionalMessages;
+    }
+
+    /**
+     * 보낼 모든 메시지 (직접 응답, 브로드캐스트, 덧붙인 메시지 순). 호출마다 리스트를 새로 만듭니다.
+     */
+    public List<RoutedMessage> getMessages() {
+        List<RoutedMessage> messages = new ArrayList<>(2 + additionalMessages.size());
+
+        if (directResponse != null) {
+            messages.add(new RoutedMessage(Target.SENDER, -1, directResponse));
+        }
+        if (broadcast != null) {
+            messages.add(broadcastGroupId >= 0 ? new RoutedMessage(Target.GROUP, broadcastGroupId, broadcast) : new RoutedMessage(Target.BROADCAST, -1, broadcast));
+        }
+        messages.addAll(additionalMessages);
+        return messages;
+    }
+
+    private HandlerResult withAdditional(RoutedMessage message) {
+        List<RoutedMessage> messages = new ArrayList<>(additionalMessages);
+        messages.add(message);
+        return new HandlerResult(this.directResponse, this.broadcast, this.broadcastGroupId, List.copyOf(messages));
+    }
+
+    private static int requireGroupId(int groupId) {
+        if (groupId < 0) {
+            throw new IllegalArgumentException("Group ID cannot be negative.");
+        }
+        return groupId;
+    }
+
     public record OutgoingMessage(MessageType type, Object payload) {}
+
+    /**
+     * SENDER: 보낸 사람에게, CLIENT: clientId에게, BROADCAST: 보낸 사람을 제외한 모두에게, GROUP: 보낸 사람을 제외한 그룹 멤버에게,
+     * REPLAY: 보낸 사람에게 그룹의 채팅 기록을 (payload 없음)
+     */
+    public enum Target { SENDER, CLIENT, BROADCAST, GROUP, REPLAY }
+
+    /**
+     * @param clientId CLIENT면 받을 클라이언트, GROUP이면 그룹 id, REPLAY면 기록을 꺼낼 그룹 id (로비는 -1)
+     */
+    public record RoutedMessage(Target target, int clientId, OutgoingMessage message) {}
 }
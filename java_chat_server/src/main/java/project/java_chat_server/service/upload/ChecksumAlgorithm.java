@@ -0,0 +1,85 @@
+package project.java_chat_server.service.upload;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+
+/**
+ * 업로드 무결성 확인에 쓸 체크섬. 파일 전송 시작 요청의 checksumAlgorithm 필드로 업로드마다 정하며, 기본은 SHA-256입니다.
+ * 변조가 아니라 전송 오류만 확인하면 되는 클라이언트는 훨씬 빠른 CRC32C를 고를 수 있습니다.
+ */
+public enum ChecksumAlgorithm {
+    SHA256 {
+        @Override
+        public UploadChecksum newChecksum() {
+            try {
+                return new DigestChecksum(MessageDigest.getInstance("SHA-256"));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available.", e);
+            }
+        }
+    },
+    CRC32C {
+        @Override
+        public UploadChecksum newChecksum() {
+            return new Crc32cChecksum();
+        }
+    };
+
+    /**
+     * 받은 조각을 순서대로 넣을 새 체크섬 상태를 만듭니다.
+     */
+    public abstract UploadChecksum newChecksum();
+
+    /**
+     * @return 알 수 없는 이름이면 null
+     */
+    public static ChecksumAlgorithm fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return SHA256;
+        }
+        try {
+            return ChecksumAlgorithm.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class DigestChecksum implements UploadChecksum {
+        private final MessageDigest digest;
+
+        private DigestChecksum(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void update(ByteBuffer chunk) {
+            digest.update(chunk.duplicate());
+        }
+
+        @Override
+        public String finish() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    private static final class Crc32cChecksum implements UploadChecksum {
+        private final CRC32C crc = new CRC32C();
+
+        @Override
+        public void update(ByteBuffer chunk) {
+            crc.update(chunk.duplicate());
+        }
+
+        @Override
+        public String finish() {
+            return HexFormat.of().toHexDigits((int) crc.getValue());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package project.java_chat_server.service.upload;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+/**
+ * 다 받은 파일을 SHA-256 다이제스트로 찾는 저장소. 경로는 root/ab/cd/abcd...처럼 다이제스트 앞 두 바이트로 두 단계 나눠,
+ * 파일이 수십만 개가 되어도 한 디렉토리에 256개 남짓만 들어갑니다. 같은 내용은 한 번만 저장합니다.
+ * CRC32C는 충돌이 너무 쉬워서 키로 쓰지 않습니다.
+ */
+public class ContentStore {
+    private static final Pattern DIGEST = Pattern.compile("[0-9a-f]{64}");
+
+    @Getter
+    private final Path root;
+
+    public ContentStore(Path root) {
+        this.root = root;
+    }
+
+    public void init() throws IOException {
+        Files.createDirectories(root);
+    }
+
+    /**
+     * @return 소문자 16진수 64자리 SHA-256 다이제스트면 true
+     */
+    public static boolean isDigest(String digest) {
+        return digest != null && DIGEST.matcher(digest).matches();
+    }
+
+    public Path pathOf(String digest) {
+        if (!isDigest(digest)) {
+            throw new IllegalArgumentException("Not a SHA-256 digest: " + digest);
+        }
+        return root.resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4)).resolve(digest);
+    }
+
+    /**
+     * @param size 저장된 파일 크기도 같아야 가지고 있다고 봅니다.
+     */
+    public boolean contains(String digest, long size) throws IOException {
+        Path path = pathOf(digest);
+        return Files.isRegularFile(path) && Files.size(path) == size;
+    }
+
+    /**
+     * 다 받은 파일을 저장소로 옮깁니다. 같은 내용이 이미 있으면 옮기지 않고 source를 지웁니다.
+     * source는 저장소와 같은 파일 시스템에 있어야 합니다(이름만 바꿔 옮깁니다).
+     * @return 저장소 안의 경로
+     */
+    public Path commit(Path source, String digest) throws IOException {
+        Path target = pathOf(digest);
+
+        if (Files.isRegularFile(target)) {
+            Files.delete(source);
+            return target;
+        }
+        Files.createDirectories(target.getParent());
+        // 같은 내용을 동시에 옮기더라도 내용이 같으므로 어느 쪽이 남든 상관없습니다.
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+}
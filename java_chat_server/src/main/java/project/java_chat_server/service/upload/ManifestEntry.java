@@ -0,0 +1,8 @@
+package project.java_chat_server.service.upload;
+
+/**
+ * 업로드 목록의 항목 하나
+ * @param digest 저장소에서 파일을 찾을 SHA-256 다이제스트
+ */
+public record ManifestEntry(String uploader, String fileName, long uploadedAt, String digest) {
+}
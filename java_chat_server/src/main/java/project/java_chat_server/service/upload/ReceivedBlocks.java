@@ -0,0 +1,119 @@
+package project.java_chat_server.service.upload;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 업로드 하나에서 받은 블록을 표시하는 비트맵. 파일을 BLOCK_BYTES 단위로 나누며 마지막 블록만 짧을 수 있습니다.
+ * 위치를 지정한 조각은 블록 경계에서 시작해 블록 단위로(마지막 블록은 파일 끝까지) 와야 하므로, 조각 하나가 블록을 반만 채우는 일은 없습니다.
+ * (Thread-Safe 아님: 한 업로드의 조각은 한 번에 한 쓰레드만 처리합니다.)
+ */
+public class ReceivedBlocks {
+    public static final int BLOCK_BYTES = 4096;
+
+    @Getter
+    private final long fileSize;
+    @Getter
+    private final int blockCount;
+    private final long[] words;
+    private int setCount;
+
+    public ReceivedBlocks(long fileSize) {
+        long blocks = (fileSize + BLOCK_BYTES - 1) / BLOCK_BYTES;
+
+        if (fileSize < 0 || blocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported file size: " + fileSize);
+        }
+        this.fileSize = fileSize;
+        this.blockCount = (int) blocks;
+        this.words = new long[(blockCount + 63) >>> 6];
+    }
+
+    /**
+     * [fromBlock, toBlock) 블록을 받았다고 표시합니다.
+     * @return 이번에 새로 표시한 블록들의 바이트 수 (이미 받은 블록은 세지 않음)
+     */
+    public long mark(int fromBlock, int toBlock) {
+        long added = 0;
+
+        for (int block = fromBlock; block < toBlock; block++) {
+            final long bit = 1L << block;
+            final int word = block >>> 6;
+
+            if ((words[word] & bit) == 0) {
+                words[word] |= bit;
+                setCount++;
+                added += blockLength(block);
+            }
+        }
+        return added;
+    }
+
+    public boolean isSet(int block) {
+        return (words[block >>> 6] & (1L << block)) != 0;
+    }
+
+    public boolean isComplete() {
+        return setCount == blockCount;
+    }
+
+    /**
+     * @return fromBlock부터 찾은 첫 빈 블록. 없으면 blockCount
+     */
+    public int nextMissing(int fromBlock) {
+        int word = fromBlock >>> 6;
+
+        if (word >= words.length) {
+            return blockCount;
+        }
+        long missing = ~words[word] & (-1L << fromBlock);
+
+        while (true) {
+            if (missing != 0) {
+                return Math.min(blockCount, (word << 6) + Long.numberOfTrailingZeros(missing));
+            }
+            if (++word == words.length) {
+                return blockCount;
+            }
+            missing = ~words[word];
+        }
+    }
+
+    /**
+     * @return 표시한 블록의 바이트 수 합
+     */
+    public long coveredBytes() {
+        long bytes = (long) setCount * BLOCK_BYTES;
+
+        // 마지막 블록만 짧을 수 있습니다.
+        if (blockCount > 0 && isSet(blockCount - 1)) {
+            bytes -= (long) BLOCK_BYTES - blockLength(blockCount - 1);
+        }
+        return bytes;
+    }
+
+    /**
+     * 아직 받지 못한 구간을 앞에서부터 [시작, 끝) 바이트 위치 쌍으로 돌려줍니다.
+     * @param maxRanges 이만큼만 찾습니다.
+     */
+    public List<long[]> missingRanges(int maxRanges) {
+        List<long[]> ranges = new ArrayList<>();
+        int block = nextMissing(0);
+
+        while (block < blockCount && ranges.size() < maxRanges) {
+            int end = block + 1;
+
+            while (end < blockCount && !isSet(end)) {
+                end++;
+            }
+            ranges.add(new long[]{(long) block * BLOCK_BYTES, Math.min(fileSize, (long) end * BLOCK_BYTES)});
+            block = nextMissing(end);
+        }
+        return ranges;
+    }
+
+    private int blockLength(int block) {
+        return (int) Math.min(BLOCK_BYTES, fileSize - (long) block * BLOCK_BYTES);
+    }
+}
@@ -0,0 +1,92 @@
+package project.java_chat_server.service.upload;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * 이어 받을 수 있는 업로드의 사이드카 파일. 받는 중인 파일 옆에 "파일이름.resume"으로 둡니다.
+ * receivedBytes까지는 디스크에 내려간 것이 확인된 바이트이므로, 재시작 뒤에는 여기서부터 이어 받으면 됩니다.
+ * JDK의 MessageDigest와 CRC32C는 내부 상태를 꺼낼 수 없어서 체크섬 상태는 담지 않습니다. 서버가 재시작된 뒤 이어 받을 때만
+ * 이미 받은 앞부분을 한 번 읽어 체크섬을 다시 만듭니다.
+ * @param owner 업로드를 시작한 닉네임. 같은 닉네임만 이어 받을 수 있습니다.
+ */
+public record UploadCheckpoint(String uploadId, @Nullable String owner, String fileName, long fileSize,
+                               ChecksumAlgorithm checksumAlgorithm, long receivedBytes, Path filePath) {
+    public static final String SUFFIX = ".resume";
+
+    public static Path sidecarOf(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + SUFFIX);
+    }
+
+    public Path sidecar() {
+        return sidecarOf(filePath);
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 이름을 바꿔서, 쓰다가 죽어도 이전 사이드카나 새 사이드카 중 하나만 남게 합니다.
+     */
+    public void write() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("uploadId", uploadId);
+        if (owner != null) {
+            properties.setProperty("owner", owner);
+        }
+        properties.setProperty("fileName", fileName);
+        properties.setProperty("fileSize", Long.toString(fileSize));
+        properties.setProperty("checksumAlgorithm", checksumAlgorithm.getName());
+        properties.setProperty("receivedBytes", Long.toString(receivedBytes));
+
+        Path sidecar = sidecar();
+        Path temporary = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            properties.store(out, null);
+        }
+        Files.move(temporary, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @throws IOException 읽을 수 없거나 필드가 빠졌거나 값이 맞지 않으면
+     */
+    public static UploadCheckpoint read(Path sidecar) throws IOException {
+        String name = sidecar.getFileName().toString();
+
+        if (!name.endsWith(SUFFIX)) {
+            throw new IOException("사이드카 파일 이름이 아닙니다: " + sidecar);
+        }
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(sidecar)) {
+            properties.load(in);
+        }
+
+        try {
+            ChecksumAlgorithm checksumAlgorithm = ChecksumAlgorithm.fromName(require(properties, "checksumAlgorithm"));
+            long fileSize = Long.parseLong(require(properties, "fileSize"));
+            long receivedBytes = Long.parseLong(require(properties, "receivedBytes"));
+
+            if (checksumAlgorithm == null || receivedBytes < 0 || receivedBytes > fileSize) {
+                throw new IOException("사이드카 값이 올바르지 않습니다: " + sidecar);
+            }
+            return new UploadCheckpoint(require(properties, "uploadId"), properties.getProperty("owner"), require(properties, "fileName"), fileSize,
+                    checksumAlgorithm, receivedBytes, sidecar.resolveSibling(name.substring(0, name.length() - SUFFIX.length())));
+        } catch (NumberFormatException e) {
+            throw new IOException("사이드카 값이 올바르지 않습니다: " + sidecar, e);
+        }
+    }
+
+    private static String require(Properties properties, String key) throws IOException {
+        String value = properties.getProperty(key);
+
+        if (value == null) {
+            throw new IOException("사이드카에 " + key + " 값이 없습니다.");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,18 @@
+package project.java_chat_server.service.upload;
+import java.nio.ByteBuffer;
+
+/**
+ * 업로드 조각을 받는 대로 갱신하는 체크섬 상태. 업로드가 끝나면 파일을 다시 읽지 않고 finish()만 부릅니다.
+ * 한 업로드의 조각은 한 번에 한 쓰레드가 순서대로 넣습니다.
+ */
+public interface UploadChecksum {
+    /**
+     * chunk의 position부터 limit까지를 반영합니다. chunk의 position은 바뀌지 않습니다.
+     */
+    void update(ByteBuffer chunk);
+
+    /**
+     * @return 소문자 16진수 문자열. 부른 뒤에는 이 객체를 다시 쓰지 않습니다.
+     */
+    String finish();
+}
@@ -0,0 +1,168 @@
+package project.java_chat_server.service.upload;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 누가 어떤 이름으로 언제 올렸는지를 저장소의 다이제스트에 잇는 목록. 파일 하나에 이어 쓰기만 합니다.
+ * <p>
+ * 레코드: [길이 int][uploadedAt long][다이제스트 32바이트][uploader UTF][fileName UTF]. 다이제스트는 16진수가 아니라 바이트 그대로 둡니다.
+ * 열 때 처음부터 읽어 메모리에 올리고, 쓰다 만 마지막 레코드가 있으면 잘라 냅니다.
+ * (Thread-Safe: 추가는 이 객체로 동기화합니다.)
+ */
+@Slf4j
+public class UploadManifest implements AutoCloseable {
+    private static final int DIGEST_BYTES = 32;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final FileChannel channel;
+    /** uploader -> 올린 순서대로의 항목 */
+    private final Map<String, List<ManifestEntry>> byUploader = new ConcurrentHashMap<>();
+    private int size;
+
+    private UploadManifest(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static UploadManifest open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            UploadManifest manifest = new UploadManifest(channel);
+            manifest.load();
+            return manifest;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void load() throws IOException {
+        final long fileSize = channel.size();
+        final ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+        long position = 0;
+
+        while (position < fileSize) {
+            lengthBuffer.clear();
+            if (fileSize - position < Integer.BYTES || channel.read(lengthBuffer, position) < Integer.BYTES) {
+                break;
+            }
+            int length = lengthBuffer.getInt(0);
+
+            if (length < Long.BYTES + DIGEST_BYTES + 4 || length > fileSize - position - Integer.BYTES) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.allocate(length);
+
+            while (record.hasRemaining()) {
+                if (channel.read(record, position + Integer.BYTES + record.position()) < 0) {
+                    throw new IOException("업로드 목록을 끝까지 읽지 못했습니다.");
+                }
+            }
+            try {
+                add(decode(record.flip()));
+            } catch (BufferUnderflowException e) {
+                break;
+            }
+            position += Integer.BYTES + length;
+        }
+
+        if (position < fileSize) {
+            log.warn("업로드 목록 끝의 쓰다 만 레코드를 잘라 냅니다: {} -> {} bytes", fileSize, position);
+            channel.truncate(position);
+        }
+        channel.position(position);
+    }
+
+    private static ManifestEntry decode(ByteBuffer record) {
+        long uploadedAt = record.getLong();
+        byte[] digest = new byte[DIGEST_BYTES];
+        record.get(digest);
+        return new ManifestEntry(readString(record), readString(record), uploadedAt, HEX.formatHex(digest));
+    }
+
+    private static String readString(ByteBuffer record) {
+        byte[] bytes = new byte[record.getShort() & 0xFFFF];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 항목을 파일 끝에 붙이고 디스크에 내린 뒤 메모리 목록에 넣습니다.
+     */
+    public synchronized void append(ManifestEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entry.fileName().length());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeLong(entry.uploadedAt());
+        out.write(HEX.parseHex(entry.digest()));
+        writeString(out, entry.uploader());
+        writeString(out, entry.fileName());
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - Integer.BYTES);
+
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        channel.force(false);
+        add(entry);
+    }
+
+    /** DataOutputStream.writeUTF와 달리 표준 UTF-8로 씁니다. 길이는 2바이트라 65535바이트에서 자릅니다. */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+    }
+
+    private void add(ManifestEntry entry) {
+        byUploader.computeIfAbsent(entry.uploader(), k -> new ArrayList<>()).add(entry);
+        size++;
+    }
+
+    /**
+     * @return uploader가 올린 항목 (올린 순서대로)
+     */
+    public synchronized List<ManifestEntry> findByUploader(String uploader) {
+        return List.copyOf(byUploader.getOrDefault(uploader, List.of()));
+    }
+
+    /**
+     * @return uploader가 fileName으로 가장 최근에 올린 항목
+     */
+    public synchronized Optional<ManifestEntry> findLatest(String uploader, String fileName) {
+        List<ManifestEntry> entries = byUploader.getOrDefault(uploader, List.of());
+
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            if (entries.get(i).fileName().equals(fileName)) {
+                return Optional.of(entries.get(i));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
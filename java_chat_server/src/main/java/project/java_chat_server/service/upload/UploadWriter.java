@@ -0,0 +1,182 @@
+package project.java_chat_server.service.upload;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import project.java_chat_server.domain.FileTransferSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 업로드 조각을 모아 둔 direct 버퍼를 파일에 쓰는 전용 쓰레드와 버퍼 풀.
+ * 조각을 받는 쓰레드는 꽉 찬 버퍼를 큐에 넣기만 합니다. 큐가 가득 차면 기다리지 않고 그 쓰레드가 직접 씁니다.
+ * 버퍼마다 파일 위치를 들고 다니므로(위치 지정 쓰기) 어느 쓰레드가 어떤 순서로 쓰든 결과는 같습니다.
+ * 다 쓴 버퍼는 풀로 돌아가 다음 업로드가 다시 씁니다.
+ */
+@Slf4j
+public class UploadWriter implements AutoCloseable {
+    private static final WriteTask STOP = new WriteTask(null, null, 0);
+
+    @Getter
+    private final int bufferBytes;
+    private final int maxPooledBuffers;
+    private final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    /** 풀에 들어 있는 버퍼 수. ConcurrentLinkedQueue.size()는 O(n)이라 따로 셉니다. */
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final BlockingQueue<WriteTask> queue;
+    private final Thread writer;
+    private final LongAdder writeCalls = new LongAdder();
+    private final LongAdder inlineWrites = new LongAdder();
+    /** 넘기는 쪽은 읽기 잠금 안에서 closed를 보고 큐에 넣고, close()는 쓰기 잠금 안에서 closed를 켭니다. 그래서 STOP 뒤에 들어가는 작업이 없습니다. */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    /**
+     * @param bufferBytes   조각을 모을 버퍼 크기. 업로드 하나는 보통 이 크기 단위로 파일에 씁니다.
+     * @param queueCapacity 쓰기 쓰레드에 넘길 수 있는 버퍼 수. 풀도 이만큼만 들고 있습니다.
+     */
+    public UploadWriter(int bufferBytes, int queueCapacity) {
+        if (bufferBytes < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Upload buffer size and queue capacity must be positive.");
+        }
+        this.bufferBytes = bufferBytes;
+        this.maxPooledBuffers = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::runWriter, "file-upload-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 풀에서 빈 버퍼를 꺼냅니다. 풀이 비었으면 새로 만듭니다.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferBytes);
+        }
+        pooled.decrementAndGet();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        buffer.clear();
+
+        if (pooled.incrementAndGet() <= maxPooledBuffers) {
+            pool.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    /**
+     * buffer의 position부터 limit까지를 session 파일의 position 위치에 쓰도록 넘깁니다. 다 쓰면 버퍼는 풀로 돌아갑니다.
+     * 결과는 session.writeCompleted()로 알립니다.
+     */
+    public void submit(FileTransferSession session, ByteBuffer buffer, long position) {
+        session.writeSubmitted();
+        WriteTask task = new WriteTask(session, buffer, position);
+        boolean queued;
+
+        closeLock.readLock().lock();
+        try {
+            queued = !closed && queue.offer(task);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        if (!queued) {
+            inlineWrites.increment();
+            write(task);
+        }
+    }
+
+    /** 파일에 쓴 write 호출 수 (한 버퍼가 여러 번에 나뉘어 써지면 그만큼) */
+    public long getWriteCalls() {
+        return writeCalls.sum();
+    }
+
+    /** 큐가 가득 차서 넘긴 쓰레드가 직접 쓴 버퍼 수 */
+    public long getInlineWrites() {
+        return inlineWrites.sum();
+    }
+
+    private void runWriter() {
+        while (true) {
+            WriteTask task;
+
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (task == STOP) {
+                break;
+            }
+            write(task);
+        }
+    }
+
+    private void write(WriteTask task) {
+        IOException failure = null;
+
+        try {
+            ByteBuffer buffer = task.buffer();
+            long position = task.position();
+
+            while (buffer.hasRemaining()) {
+                position += task.session().getChannel().write(buffer, position);
+                writeCalls.increment();
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            release(task.buffer());
+            task.session().writeCompleted(failure);
+        }
+    }
+
+    /**
+     * 큐에 남은 버퍼를 모두 쓰고 쓰기 쓰레드를 멈춥니다. 이후에 넘긴 버퍼는 넘긴 쓰레드가 직접 씁니다.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        try {
+            queue.put(STOP);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("업로드 쓰기 쓰레드가 10초 안에 끝나지 않았습니다. 남은 버퍼 {}개", queue.size());
+            return;
+        }
+        // 쓰기 쓰레드가 인터럽트로 STOP 전에 끝났으면 큐에 남은 버퍼를 여기서 씁니다.
+        WriteTask task;
+        while ((task = queue.poll()) != null) {
+            if (task != STOP) {
+                write(task);
+            }
+        }
+    }
+
+    private record WriteTask(FileTransferSession session, ByteBuffer buffer, long position) {
+    }
+}
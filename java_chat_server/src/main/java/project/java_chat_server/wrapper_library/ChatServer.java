@@ -1,6 +1,7 @@
 package project.java_chat_server.wrapper_library;
 
 import com.sun.jna.NativeLong;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import project.java_chat_server.wrapper_library.aliases.ServerContext;
@@ -9,25 +10,84 @@ import project.java_chat_server.wrapper_library.callbacks.ServerOnClientConnecte
 import project.java_chat_server.wrapper_library.callbacks.ServerOnClientDisconnectedCallback;
 import project.java_chat_server.wrapper_library.callbacks.ServerOnCompleteMessageReceivedCallback;
 import project.java_chat_server.wrapper_library.callbacks.ServerOnErrorCallback;
+import project.java_chat_server.wrapper_library.enums.IoBackend;
 import project.java_chat_server.wrapper_library.enums.MessageType;
+import project.java_chat_server.wrapper_library.enums.SendResult;
+import project.java_chat_server.wrapper_library.enums.SlowConsumerPolicy;
+import project.java_chat_server.wrapper_library.structure.ServerOptions;
+import project.java_chat_server.wrapper_library.structure.WakeupStats;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Getter
 public class ChatServer implements AutoCloseable {
+    /** C의 SERVER_DEFAULT_MAX_OUTBOUND_BYTES와 같은 값 */
+    public static final long DEFAULT_MAX_OUTBOUND_BYTES = 4L * 1024 * 1024;
+    private static final int INBOUND_DRAIN_BATCH = 256;
+    private static final int INBOUND_WAIT_TIMEOUT_MS = 100;
+
     private final ChatServerLibrary lib = ChatServerLibrary.INSTANCE;
     private volatile ServerContext context;
     private final int port;
     private final int maxClients;
+    private final IoBackend ioBackend;
+    private final int ioThreads;
+    private final SlowConsumerPolicy slowConsumerPolicy;
+    private final long maxOutboundBytes;
+    private final long inboundRingBytes;
+    @Getter(AccessLevel.NONE)
+    private final List<Thread> inboundConsumers = new ArrayList<>();
 
     public ChatServer(int port, int maxClients) {
+        this(port, maxClients, IoBackend.AUTO);
+    }
+
+    public ChatServer(int port, int maxClients, IoBackend ioBackend) {
+        this(port, maxClients, ioBackend, 1);
+    }
+
+    public ChatServer(int port, int maxClients, IoBackend ioBackend, int ioThreads) {
+        this(port, maxClients, ioBackend, ioThreads, SlowConsumerPolicy.DISCONNECT, DEFAULT_MAX_OUTBOUND_BYTES);
+    }
+
+    public ChatServer(int port, int maxClients, IoBackend ioBackend, int ioThreads, SlowConsumerPolicy slowConsumerPolicy, long maxOutboundBytes) {
+        this(port, maxClients, ioBackend, ioThreads, slowConsumerPolicy, maxOutboundBytes, 0);
+    }
+
+    /**
+     * @param inboundRingBytes 0이면 메시지마다 콜백을 부르고, 0보다 크면 이벤트 루프마다 이 크기의 수신 링을 씁니다.
+     *                         링 모드에서는 setOn*Listener 대신 startInboundConsumers()로 레코드를 받습니다.
+     */
+    public ChatServer(int port, int maxClients, IoBackend ioBackend, int ioThreads, SlowConsumerPolicy slowConsumerPolicy, long maxOutboundBytes, long inboundRingBytes) {
         this.port = port;
         this.maxClients = maxClients;
-        this.context = lib.serverCreate(port, maxClients);
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.maxOutboundBytes = maxOutboundBytes;
+        this.inboundRingBytes = inboundRingBytes;
+
+        ServerOptions options = new ServerOptions();
+        options.port = port;
+        options.maxClients = maxClients;
+        options.ioBackend = ioBackend.getValue();
+        options.ioThreads = ioThreads;
+        options.slowConsumerPolicy = slowConsumerPolicy.getValue();
+        options.maxOutboundBytes = new NativeLong(maxOutboundBytes);
+        options.inboundRingBytes = new NativeLong(inboundRingBytes);
+        this.context = lib.serverCreateWithOptions(options);
 
         if (context == null) {
             throw new RuntimeException("Failed to create native server context.");
         }
+        this.ioBackend = IoBackend.fromValue(lib.serverGetIoBackend(context));
+        this.ioThreads = lib.serverGetIoThreads(context);
+        log.info("네이티브 서버 I/O 백엔드: {} (요청: {}), 이벤트 루프 쓰레드: {}개, 수신 링: {}", this.ioBackend, ioBackend, this.ioThreads,
+                inboundRingBytes > 0 ? inboundRingBytes + "바이트" : "사용 안 함");
+    }
+
+    public boolean isInboundRingEnabled() {
+        return inboundRingBytes > 0;
     }
 
     public void setOnConnectListener(ServerOnClientConnectedCallback listener) {
@@ -54,16 +114,187 @@ public class ChatServer implements AutoCloseable {
         }
     }
 
+    /**
+     * 수신 링마다 소비자 쓰레드를 하나씩 띄워 레코드를 listener로 넘깁니다. (링 모드 전용)
+     * 소비자는 쌓인 레코드를 한 번에 여러 개씩 읽고, 링이 비었을 때만 잠듭니다. close()가 불리면 끝납니다.
+     */
+    public synchronized void startInboundConsumers(final InboundRecordListener listener) {
+        final ServerContext currentContext = this.context;
+
+        if (currentContext == null) {
+            throw new IllegalStateException("ChatServer context has already been closed.");
+        }
+
+        if (!isInboundRingEnabled()) {
+            throw new IllegalStateException("Inbound ring is not enabled.");
+        }
+
+        if (!inboundConsumers.isEmpty()) {
+            throw new IllegalStateException("Inbound consumers are already running.");
+        }
+
+        final int ringCount = lib.serverGetInboundRingCount(currentContext);
+
+        for (int index = 0; index < ringCount; index++) {
+            final long size = lib.serverGetInboundRingMemorySize(currentContext, index).longValue();
+            final InboundRing ring = new InboundRing(lib.serverGetInboundRingMemory(currentContext, index).getByteBuffer(0, size), lib::serverReleaseInboundPayload);
+            final int ringIndex = index;
+            final Thread consumer = new Thread(() -> runInboundConsumer(currentContext, ringIndex, ring, listener), "inbound-ring-" + index);
+            consumer.setDaemon(true);
+            consumer.start();
+            inboundConsumers.add(consumer);
+        }
+        log.info("수신 링 소비자 쓰레드 {}개 시작", ringCount);
+    }
+
+    private void runInboundConsumer(final ServerContext currentContext, final int index, final InboundRing ring, final InboundRecordListener listener) {
+        while (true) {
+            if (ring.drain(listener, INBOUND_DRAIN_BATCH) > 0) {
+                continue;
+            }
+
+            if (lib.serverWaitInbound(currentContext, index, INBOUND_WAIT_TIMEOUT_MS) < 0) {
+                break;
+            }
+        }
+        // 서버가 멈추기 전에 쓰인 레코드(마지막 DISCONNECT 등)까지 넘깁니다.
+        while (ring.drain(listener, INBOUND_DRAIN_BATCH) > 0) {
+        }
+    }
+
+    /**
+     * 수신 링이 가득 차서 네이티브 루프 안에 잠시 보관된 레코드의 누적 개수
+     */
+    public long getInboundOverflowCount() {
+        final ServerContext currentContext = this.context;
+        return currentContext == null ? 0 : lib.serverGetInboundOverflowCount(currentContext).longValue();
+    }
+
     @Override
-    public void close() {
+    public synchronized void close() {
         if (this.context != null) {
             lib.serverShutdown(this.context);
+
+            // 소비자가 링 메모리를 다 읽고 끝난 뒤에 해제합니다. 중간에 해제하면 소비자가 해제된 메모리를 읽게 됩니다.
+            boolean interrupted = false;
+
+            for (Thread consumer : inboundConsumers) {
+                while (consumer.isAlive()) {
+                    try {
+                        consumer.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            inboundConsumers.clear();
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
             lib.serverDestroy(this.context);
             this.context = null;
         }
     }
 
-    public void sendToClient(final int clientId, final MessageType type, final byte[] payload) throws IOException {
+    /**
+     * 클라이언트의 네이티브 송신 대기열에 쌓여 아직 소켓에 쓰지 못한 바이트 수
+     */
+    public long getOutboundBacklog(final int clientId) {
+        final ServerContext currentContext = this.context;
+        return currentContext == null ? 0 : lib.serverGetOutboundBacklog(currentContext, clientId).longValue();
+    }
+
+    /**
+     * 느린 수신자 정책으로 버려진 메시지의 누적 개수
+     */
+    public long getDroppedFrameCount() {
+        final ServerContext currentContext = this.context;
+        return currentContext == null ? 0 : lib.serverGetDroppedFrameCount(currentContext).longValue();
+    }
+
+    /**
+     * 이벤트 루프 깨우기 통계 (모든 루프의 합)
+     * signals는 송신 쓰레드가 깨우기 fd에 쓴 횟수, wakeups는 루프가 깨우기 fd를 비운 횟수
+     */
+    public WakeupStats getWakeupStats() {
+        final WakeupStats stats = new WakeupStats();
+        final ServerContext currentContext = this.context;
+
+        if (currentContext != null) {
+            lib.serverGetWakeupStats(currentContext, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * 클라이언트 소켓의 읽기를 멈추거나 다시 시작합니다. 멈춘 동안 들어온 데이터는 커널 버퍼에 쌓이고,
+     * 버퍼가 차면 TCP 흐름 제어로 클라이언트의 송신이 느려집니다. 요청은 비동기로 적용됩니다.
+     * @return 요청이 이벤트 루프에 전달되었으면 true
+     */
+    public boolean setReadPaused(final int clientId, final boolean paused) {
+        final ServerContext currentContext = this.context;
+        return currentContext != null && lib.serverSetClientReadPaused(currentContext, clientId, paused ? 1 : 0) == 0;
+    }
+
+    /**
+     * 클라이언트를 네이티브 그룹(방)에 넣습니다. 그룹은 클라이언트를 소유한 이벤트 루프가 fd 집합으로 관리하며,
+     * 같은 쓰레드에서 이어서 보낸 그룹 브로드캐스트는 가입이 반영된 뒤에 처리됩니다. 연결이 끊기면 자동으로 빠집니다.
+     * @return 요청이 이벤트 루프에 전달되었으면 true
+     */
+    public boolean joinGroup(final int groupId, final int clientId) {
+        final ServerContext currentContext = this.context;
+        return currentContext != null && lib.serverGroupJoin(currentContext, groupId, clientId) == 0;
+    }
+
+    /**
+     * @return 요청이 이벤트 루프에 전달되었으면 true (멤버가 아니었어도 true)
+     */
+    public boolean leaveGroup(final int groupId, final int clientId) {
+        final ServerContext currentContext = this.context;
+        return currentContext != null && lib.serverGroupLeave(currentContext, groupId, clientId) == 0;
+    }
+
+    /**
+     * 그룹 멤버에게만 보냅니다. 네이티브 쪽은 접속자 전체가 아니라 그룹 멤버만 순회합니다.
+     * @throws IOException 서버가 닫혔거나 네이티브 함수가 실패한 경우
+     */
+    public SendResult broadcastToGroup(final int groupId, final MessageType type, final byte[] payload, final int excludeClientId) throws IOException {
+        final ServerContext currentContext = this.context;
+
+        if (currentContext == null) {
+            throw new IOException("ChatServer context has already been closed.");
+        }
+
+        if (groupId < 0) {
+            throw new IllegalArgumentException("Group ID cannot be negative.");
+        }
+
+        if (type == null) {
+            throw new IllegalArgumentException("Message type cannot be null.");
+        }
+
+        if (payload == null || payload.length == 0) {
+            log.warn("Attempted to broadcast an empty or null payload to group {}. Aborting.", groupId);
+            return SendResult.DROPPED;
+        }
+
+        final int result = lib.serverGroupBroadcast(currentContext, groupId, type.getValue(), payload, new NativeLong(payload.length), excludeClientId);
+        final SendResult sendResult = SendResult.fromValue(result);
+
+        if (sendResult == SendResult.FAILED) {
+            final String errorMessage = String.format("Failed to broadcast payload to group %d. Native function returned error code: %d", groupId, result);
+            log.error(errorMessage);
+            throw new IOException(errorMessage);
+        }
+        return sendResult;
+    }
+
+    /**
+     * @return 송신 결과. 대상이 느린 수신자이면 DROPPED, DROPPED_OLDEST, DISCONNECTING 중 하나
+     * @throws IOException 서버가 닫혔거나 네이티브 함수가 실패한 경우
+     */
+    public SendResult sendToClient(final int clientId, final MessageType type, final byte[] payload) throws IOException {
         final ServerContext currentContext = this.context;
 
         if (currentContext == null) {
@@ -80,19 +311,29 @@ public class ChatServer implements AutoCloseable {
 
         if (payload == null || payload.length == 0) {
             log.warn("Attempted to send an empty or null payload to client {}. Aborting.", clientId);
-            return;
+            return SendResult.DROPPED;
         }
 
         final int result = lib.serverSendPayloadToClient(currentContext, clientId, type.getValue(), payload, new NativeLong(payload.length));
+        final SendResult sendResult = SendResult.fromValue(result);
 
-        if (result != 0) {
+        if (sendResult == SendResult.FAILED) {
             final String errorMessage = String.format("Failed to send payload to client %d. Native function returned error code: %d", clientId, result);
             log.error(errorMessage);
             throw new IOException(errorMessage);
         }
+
+        if (sendResult != SendResult.OK) {
+            log.warn("느린 수신자 정책 적용: 클라이언트(id:{}), 결과={}, 정책={}", clientId, sendResult, slowConsumerPolicy);
+        }
+        return sendResult;
     }
 
-    public void broadcast(final MessageType type, final byte[] payload, final int excludeClientId) throws IOException {
+    /**
+     * @return 송신 결과. 느린 수신자 정책이 적용 중인 클라이언트가 있으면 PARTIAL
+     * @throws IOException 서버가 닫혔거나 네이티브 함수가 실패한 경우
+     */
+    public SendResult broadcast(final MessageType type, final byte[] payload, final int excludeClientId) throws IOException {
         final ServerContext currentContext = this.context;
 
         if (currentContext == null) {
@@ -105,15 +346,44 @@ public class ChatServer implements AutoCloseable {
 
         if (payload == null || payload.length == 0) {
             log.warn("Attempted to broadcast an empty or null payload. Aborting.");
-            return;
+            return SendResult.DROPPED;
         }
 
         final int result = lib.serverBroadcastMessage(currentContext, type.getValue(), payload, new NativeLong(payload.length), excludeClientId);
+        final SendResult sendResult = SendResult.fromValue(result);
 
-        if (result != 0) {
+        if (sendResult == SendResult.FAILED) {
             final String errorMessage = String.format("Failed to broadcast payload. Native function returned error code: %d", result);
             log.error(errorMessage);
             throw new IOException(errorMessage);
         }
+        return sendResult;
+    }
+
+    /**
+     * 배치에 담긴 모든 송신/브로드캐스트를 한 번의 네이티브 호출로 큐에 넣습니다.
+     * 이벤트 루프는 배치 하나당 루프마다 한 번만 깨어납니다.
+     * @return 항목별 송신 결과 (배치에 넣은 순서). 배치가 가진 뷰라서 같은 배치를 다시 보내면 내용이 바뀝니다.
+     * @throws IOException 서버가 닫혔거나 네이티브 함수가 배치를 거부한 경우
+     */
+    public List<SendResult> sendBatch(final OutboundBatch batch) throws IOException {
+        final ServerContext currentContext = this.context;
+
+        if (currentContext == null) {
+            throw new IOException("ChatServer context has already been closed.");
+        }
+
+        if (batch == null || batch.isEmpty()) {
+            return List.of();
+        }
+
+        final int submitted = lib.serverSubmitBatch(currentContext, batch.address(), new NativeLong(batch.length()), batch.resultCodes(), new NativeLong(batch.getSize()));
+
+        if (submitted < 0) {
+            final String errorMessage = String.format("Failed to submit batch of %d entries. Native function returned error code: %d", batch.getSize(), submitted);
+            log.error(errorMessage);
+            throw new IOException(errorMessage);
+        }
+        return batch.results();
     }
 }
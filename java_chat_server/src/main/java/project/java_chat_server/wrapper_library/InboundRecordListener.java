@@ -0,0 +1,18 @@
+package project.java_chat_server.wrapper_library;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 수신 링 모드에서 소비자 쓰레드가 레코드를 하나씩 넘기는 대상
+ * 링 하나의 레코드는 항상 같은 쓰레드에서 순서대로 전달되지만, 링이 여러 개면 서로 다른 쓰레드에서 동시에 호출됩니다.
+ */
+public interface InboundRecordListener {
+    void onConnect(int clientId, String ipAddr);
+
+    /**
+     * @param payload 링 메모리를 그대로 감싼 읽기 전용 뷰. 메서드가 끝나면 생산자가 덮어쓰므로 들고 있으면 안 됩니다.
+     */
+    void onMessage(int clientId, int msgType, ByteBuffer payload);
+
+    void onDisconnect(int clientId);
+}
@@ -0,0 +1,116 @@
+package project.java_chat_server.wrapper_library;
+
+import com.sun.jna.Pointer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * 네이티브 이벤트 루프가 쓰는 수신 링(inbound_ring.h)을 JNA 호출 없이 직접 읽는 소비자
+ * 링 하나당 소비자 쓰레드 하나에서만 사용해야 합니다. (Thread-Safe 아님)
+ */
+@Slf4j
+public class InboundRing {
+    /** C의 INBOUND_RING_HEADER_SIZE 및 헤더 안의 오프셋 */
+    static final int HEADER_SIZE = 256;
+    static final int HEAD_OFFSET = 0;
+    static final int TAIL_OFFSET = 64;
+    static final int CAPACITY_OFFSET = 128;
+    static final int RECORD_HEADER_SIZE = 16;
+    static final int KIND_MESSAGE = 0;
+    static final int KIND_CONNECT = 1;
+    static final int KIND_DISCONNECT = 2;
+    static final int KIND_MESSAGE_EXTERNAL = 3;
+    static final int KIND_PADDING = 4;
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final ByteBuffer EMPTY_PAYLOAD = ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+    private final ByteBuffer memory;
+    private final long capacity;
+    private final long mask;
+    private final Consumer<Pointer> externalReleaser;
+
+    /**
+     * @param memory 헤더를 포함한 링 전체를 감싼 direct 버퍼
+     * @param externalReleaser EXTERNAL 레코드의 버퍼를 다 쓴 뒤 해제하는 함수 (server_release_inbound_payload)
+     */
+    public InboundRing(ByteBuffer memory, Consumer<Pointer> externalReleaser) {
+        this.memory = memory.duplicate().order(ByteOrder.nativeOrder());
+        this.capacity = this.memory.getLong(CAPACITY_OFFSET);
+        this.mask = capacity - 1;
+        this.externalReleaser = externalReleaser;
+
+        if (capacity <= 0 || (capacity & mask) != 0 || HEADER_SIZE + capacity > this.memory.capacity()) {
+            throw new IllegalArgumentException("Invalid inbound ring capacity: " + capacity);
+        }
+    }
+
+    /**
+     * 쌓인 레코드를 최대 maxRecords개까지 읽어 listener에 넘기고, 다 읽은 위치를 한 번에 생산자에게 알립니다.
+     * listener가 던진 예외는 로그만 남기고 다음 레코드로 넘어갑니다.
+     * @return 읽은 레코드 수 (PADDING 제외)
+     */
+    public int drain(InboundRecordListener listener, int maxRecords) {
+        long pos = (long) LONG_VIEW.getOpaque(memory, HEAD_OFFSET);
+        final long end = (long) LONG_VIEW.getAcquire(memory, TAIL_OFFSET);
+        int consumed = 0;
+
+        while (pos != end && consumed < maxRecords) {
+            final int slot = HEADER_SIZE + (int) (pos & mask);
+            final int length = memory.getInt(slot);
+            final int kind = memory.getInt(slot + 4);
+            final int clientId = memory.getInt(slot + 8);
+            final int msgType = memory.getInt(slot + 12);
+
+            if (kind == KIND_PADDING) {
+                pos += RECORD_HEADER_SIZE + Integer.toUnsignedLong(length);
+                continue;
+            }
+
+            final int inlineLength = kind == KIND_MESSAGE_EXTERNAL ? Long.BYTES : length;
+
+            try {
+                deliver(listener, kind, clientId, msgType, slot + RECORD_HEADER_SIZE, length);
+            } catch (RuntimeException e) {
+                log.error("수신 레코드 처리 중 예외 발생: kind={}, 클라이언트(id:{}), 타입={}", kind, clientId, msgType, e);
+            }
+            pos += alignUp(RECORD_HEADER_SIZE + inlineLength);
+            consumed++;
+        }
+
+        LONG_VIEW.setRelease(memory, HEAD_OFFSET, pos);
+        return consumed;
+    }
+
+    private void deliver(InboundRecordListener listener, int kind, int clientId, int msgType, int payloadOffset, int length) {
+        switch (kind) {
+            case KIND_CONNECT -> {
+                final byte[] ip = new byte[length];
+                memory.get(payloadOffset, ip);
+                listener.onConnect(clientId, new String(ip, StandardCharsets.US_ASCII));
+            }
+            case KIND_DISCONNECT -> listener.onDisconnect(clientId);
+            case KIND_MESSAGE -> listener.onMessage(clientId, msgType,
+                    length == 0 ? EMPTY_PAYLOAD : memory.slice(payloadOffset, length).asReadOnlyBuffer());
+            case KIND_MESSAGE_EXTERNAL -> {
+                final Pointer external = new Pointer(memory.getLong(payloadOffset));
+                try {
+                    listener.onMessage(clientId, msgType, external.getByteBuffer(0, Integer.toUnsignedLong(length)).asReadOnlyBuffer());
+                } finally {
+                    externalReleaser.accept(external);
+                }
+            }
+            default -> log.error("알 수 없는 수신 레코드 종류: {}", kind);
+        }
+    }
+
+    private static long alignUp(long value) {
+        return (value + RECORD_HEADER_SIZE - 1) & ~(long) (RECORD_HEADER_SIZE - 1);
+    }
+}
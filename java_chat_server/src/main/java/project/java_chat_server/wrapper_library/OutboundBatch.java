@@ -0,0 +1,309 @@
+package project.java_chat_server.wrapper_library;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import lombok.Getter;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+import project.java_chat_server.wrapper_library.enums.SendResult;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 여러 송신/브로드캐스트를 네이티브 배치 형식(server_batch_entry_header_t + payload)으로 모아 두는 버퍼
+ * ChatServer.sendBatch()로 한 번에 넘기며, clear() 후 다시 쓸 수 있습니다. (Thread-Safe 아님)
+ */
+public class OutboundBatch {
+    /** C의 SERVER_BATCH_ENTRY_HEADER_SIZE */
+    public static final int ENTRY_HEADER_SIZE = 20;
+    private static final int KIND_SEND = 0;
+    private static final int KIND_BROADCAST = 1;
+    private static final int KIND_GROUP = 2;
+    /** 헤더에서 payload 길이가 있는 위치 */
+    private static final int PAYLOAD_LENGTH_OFFSET = 12;
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private ByteBuffer buffer;
+    /** buffer의 네이티브 주소. 버퍼를 키울 때만 다시 구합니다. */
+    private Pointer address;
+    @Getter
+    private int size;
+    /** beginSend/beginBroadcast로 열어 둔 항목의 헤더 위치, 없으면 -1 */
+    private int openEntry = -1;
+    /** 마지막으로 닫힌 항목의 헤더 위치, 없으면 -1 */
+    private int lastEntry = -1;
+    private final PayloadStream payloadStream = new PayloadStream();
+    /** sendBatch가 항목별 결과를 받아 두는 곳. 배치를 다시 쓸 때도 그대로 재사용합니다. */
+    private byte[] resultCodes = new byte[16];
+    private final List<SendResult> results = new ResultList();
+
+    public OutboundBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OutboundBatch(int initialCapacity) {
+        this.buffer = ByteBuffer.allocateDirect(Math.max(initialCapacity, ENTRY_HEADER_SIZE)).order(ByteOrder.nativeOrder());
+        this.address = Native.getDirectBufferPointer(buffer);
+    }
+
+    public OutboundBatch addSend(int clientId, MessageType type, byte[] payload) {
+        if (clientId < 0) {
+            throw new IllegalArgumentException("Client ID cannot be negative.");
+        }
+        return append(KIND_SEND, clientId, -1, type, payload);
+    }
+
+    public OutboundBatch addBroadcast(MessageType type, byte[] payload, int excludeClientId) {
+        return append(KIND_BROADCAST, excludeClientId, -1, type, payload);
+    }
+
+    /**
+     * 네이티브 그룹(방)의 멤버에게만 보내는 항목. 네이티브 쪽은 그 그룹의 멤버만 순회합니다.
+     */
+    public OutboundBatch addGroupBroadcast(int groupId, MessageType type, byte[] payload, int excludeClientId) {
+        requireGroupId(groupId);
+        return append(KIND_GROUP, excludeClientId, groupId, type, payload);
+    }
+
+    /**
+     * payload를 byte[]로 만들지 않고 배치 버퍼에 바로 쓰는 항목을 엽니다.
+     * 반환된 스트림에 payload를 다 쓴 뒤 endEntry()를, 쓰다가 실패하면 abortEntry()를 불러야 합니다.
+     * 스트림은 배치마다 하나를 돌려 쓰므로 endEntry() 이후에는 쓰면 안 됩니다.
+     */
+    public OutputStream beginSend(int clientId, MessageType type) {
+        if (clientId < 0) {
+            throw new IllegalArgumentException("Client ID cannot be negative.");
+        }
+        return begin(KIND_SEND, clientId, -1, type);
+    }
+
+    public OutputStream beginBroadcast(MessageType type, int excludeClientId) {
+        return begin(KIND_BROADCAST, excludeClientId, -1, type);
+    }
+
+    public OutputStream beginGroupBroadcast(int groupId, MessageType type, int excludeClientId) {
+        requireGroupId(groupId);
+        return begin(KIND_GROUP, excludeClientId, groupId, type);
+    }
+
+    /** 열어 둔 항목의 payload 길이를 헤더에 채우고 닫습니다. */
+    public void endEntry() {
+        requireOpenEntry();
+        buffer.putInt(openEntry + PAYLOAD_LENGTH_OFFSET, buffer.position() - openEntry - ENTRY_HEADER_SIZE);
+        lastEntry = openEntry;
+        openEntry = -1;
+        size++;
+    }
+
+    /** 열어 둔 항목을 헤더까지 지웁니다. */
+    public void abortEntry() {
+        requireOpenEntry();
+        buffer.position(openEntry);
+        openEntry = -1;
+    }
+
+    public void clear() {
+        buffer.clear();
+        size = 0;
+        openEntry = -1;
+        lastEntry = -1;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** 네이티브로 넘길 버퍼 (0부터 length()까지가 유효) */
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    Pointer address() {
+        return address;
+    }
+
+    /** 네이티브가 항목별 결과를 채울 배열. 길이는 getSize() 이상입니다. */
+    byte[] resultCodes() {
+        if (resultCodes.length < size) {
+            resultCodes = Arrays.copyOf(resultCodes, Math.max(size, resultCodes.length * 2));
+        }
+        return resultCodes;
+    }
+
+    /** 마지막 sendBatch의 항목별 결과를 보여주는 뷰. 배치를 다시 보내면 내용이 바뀝니다. */
+    List<SendResult> results() {
+        return results;
+    }
+
+    /**
+     * 마지막으로 닫힌 항목의 payload를 복사하지 않고 보여주는 읽기 전용 뷰. 배치에 항목을 더하거나 clear()하면 무효가 됩니다.
+     */
+    public ByteBuffer lastPayload() {
+        if (lastEntry < 0) {
+            throw new IllegalStateException("No batch entry has been added.");
+        }
+        int start = lastEntry + ENTRY_HEADER_SIZE;
+        int length = buffer.getInt(lastEntry + PAYLOAD_LENGTH_OFFSET);
+        return buffer.asReadOnlyBuffer().limit(start + length).position(start);
+    }
+
+    /** 지금까지 쓴 바이트 수 */
+    public int length() {
+        return buffer.position();
+    }
+
+    /** 버퍼 크기. clear()해도 줄지 않습니다. */
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * 담긴 항목을 다시 읽어 돌려줍니다. (로그, 테스트용)
+     */
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(size);
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.nativeOrder());
+        view.flip();
+
+        while (view.remaining() >= ENTRY_HEADER_SIZE) {
+            int kind = view.getInt();
+            int clientId = view.getInt();
+            int type = view.getInt();
+            int payloadLength = view.getInt();
+            int groupId = view.getInt();
+            view.position(view.position() + payloadLength);
+            entries.add(new Entry(kind != KIND_SEND, clientId, MessageType.fromValue(type), payloadLength, kind == KIND_GROUP ? groupId : -1));
+        }
+        return entries;
+    }
+
+    /**
+     * 담긴 항목의 payload를 복사해 돌려줍니다. 순서는 entries()와 같습니다. (로그, 테스트용)
+     */
+    public List<byte[]> payloads() {
+        List<byte[]> payloads = new ArrayList<>(size);
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.nativeOrder());
+        view.flip();
+
+        while (view.remaining() >= ENTRY_HEADER_SIZE) {
+            view.position(view.position() + PAYLOAD_LENGTH_OFFSET);
+            byte[] payload = new byte[view.getInt()];
+            view.position(view.position() + Integer.BYTES);
+            view.get(payload);
+            payloads.add(payload);
+        }
+        return payloads;
+    }
+
+    private OutboundBatch append(int kind, int clientId, int groupId, MessageType type, byte[] payload) {
+        if (type == null) {
+            throw new IllegalArgumentException("Message type cannot be null.");
+        }
+        requireNoOpenEntry();
+
+        int payloadLength = payload == null ? 0 : payload.length;
+        ensureCapacity(ENTRY_HEADER_SIZE + payloadLength);
+        lastEntry = buffer.position();
+
+        buffer.putInt(kind).putInt(clientId).putInt(type.getValue()).putInt(payloadLength).putInt(groupId);
+        if (payloadLength > 0) {
+            buffer.put(payload);
+        }
+        size++;
+        return this;
+    }
+
+    private OutputStream begin(int kind, int clientId, int groupId, MessageType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Message type cannot be null.");
+        }
+        requireNoOpenEntry();
+        ensureCapacity(ENTRY_HEADER_SIZE);
+        openEntry = buffer.position();
+        buffer.putInt(kind).putInt(clientId).putInt(type.getValue()).putInt(0).putInt(groupId);
+        return payloadStream;
+    }
+
+    private static void requireGroupId(int groupId) {
+        if (groupId < 0) {
+            throw new IllegalArgumentException("Group ID cannot be negative.");
+        }
+    }
+
+    private void requireOpenEntry() {
+        if (openEntry < 0) {
+            throw new IllegalStateException("No batch entry is open.");
+        }
+    }
+
+    private void requireNoOpenEntry() {
+        if (openEntry >= 0) {
+            throw new IllegalStateException("Previous batch entry is still open.");
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        if (buffer.remaining() >= additional) {
+            return;
+        }
+
+        int required = buffer.position() + additional;
+        int capacity = buffer.capacity();
+
+        while (capacity < required) {
+            capacity = capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : capacity * 2;
+        }
+
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+        address = Native.getDirectBufferPointer(buffer);
+    }
+
+    private final class PayloadStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            requireOpenEntry();
+            ensureCapacity(1);
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            requireOpenEntry();
+            ensureCapacity(length);
+            buffer.put(bytes, offset, length);
+        }
+    }
+
+    private final class ResultList extends AbstractList<SendResult> {
+        @Override
+        public SendResult get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return SendResult.fromValue(resultCodes[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * @param broadcast true면 clientId는 제외할 클라이언트, false면 받을 클라이언트
+     * @param groupId 그룹 브로드캐스트면 대상 그룹, 아니면 -1
+     */
+    public record Entry(boolean broadcast, int clientId, MessageType type, int payloadLength, int groupId) {
+        public Entry(boolean broadcast, int clientId, MessageType type, int payloadLength) {
+            this(broadcast, clientId, type, payloadLength, -1);
+        }
+    }
+}
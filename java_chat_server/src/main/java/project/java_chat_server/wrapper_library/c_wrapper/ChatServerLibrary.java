@@ -5,6 +5,8 @@ import project.java_chat_server.wrapper_library.callbacks.ServerOnClientDisconne
 import project.java_chat_server.wrapper_library.callbacks.ServerOnCompleteMessageReceivedCallback;
 import project.java_chat_server.wrapper_library.callbacks.ServerOnErrorCallback;
 import project.java_chat_server.wrapper_library.aliases.ServerContext;
+import project.java_chat_server.wrapper_library.structure.ServerOptions;
+import project.java_chat_server.wrapper_library.structure.WakeupStats;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,10 +33,27 @@ public interface ChatServerLibrary extends Library {
     void serverRegisterErrorCallback(ServerContext stx, ServerOnErrorCallback callback, Pointer userData);
 
     ServerContext serverCreate(int port, int maxClients);
+    ServerContext serverCreateWithOptions(ServerOptions options);
+    int serverGetIoBackend(ServerContext stx);
+    int serverGetIoThreads(ServerContext stx);
+    NativeLong serverGetOutboundBacklog(ServerContext stx, int clientFd);
+    NativeLong serverGetDroppedFrameCount(ServerContext stx);
+    void serverGetWakeupStats(ServerContext stx, WakeupStats stats);
+    int serverSetClientReadPaused(ServerContext stx, int clientFd, int paused);
+    int serverGetInboundRingCount(ServerContext stx);
+    Pointer serverGetInboundRingMemory(ServerContext stx, int index);
+    NativeLong serverGetInboundRingMemorySize(ServerContext stx, int index);
+    int serverWaitInbound(ServerContext stx, int index, int timeoutMs);
+    void serverReleaseInboundPayload(Pointer buffer);
+    NativeLong serverGetInboundOverflowCount(ServerContext stx);
     void serverShutdown(ServerContext stx);
     void serverDestroy(ServerContext stx);
     int serverStart(ServerContext stx);
 
     int serverSendPayloadToClient(ServerContext stx, int clientFd, int msgType, byte[] payload, NativeLong payloadLen);
     int serverBroadcastMessage(ServerContext stx, int msgType, byte[] payload, NativeLong payloadLen, int excludeFd);
+    int serverSubmitBatch(ServerContext stx, Pointer batch, NativeLong batchLen, byte[] results, NativeLong maxResults);
+    int serverGroupJoin(ServerContext stx, int groupId, int clientFd);
+    int serverGroupLeave(ServerContext stx, int groupId, int clientFd);
+    int serverGroupBroadcast(ServerContext stx, int groupId, int msgType, byte[] payload, NativeLong payloadLen, int excludeFd);
 }
@@ -2,8 +2,10 @@ package project.java_chat_server.wrapper_library.callbacks;
 
 import com.sun.jna.Callback;
 import com.sun.jna.Pointer;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
 
 public interface ServerOnClientDisconnectedCallback extends Callback {
-    void invoke(Pointer user_data, ClientInfo client);
+    /**
+     * @param client 네이티브 client_info_t*. 연결 해제에는 fd만 필요하므로 ClientInfo.socketFdOf로 읽습니다.
+     */
+    void invoke(Pointer user_data, Pointer client);
 }
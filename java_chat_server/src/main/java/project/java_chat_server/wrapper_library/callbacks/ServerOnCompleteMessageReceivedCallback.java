@@ -3,8 +3,11 @@ package project.java_chat_server.wrapper_library.callbacks;
 import com.sun.jna.Callback;
 import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
 
 public interface ServerOnCompleteMessageReceivedCallback extends Callback {
-    void invoke(Pointer userData, ClientInfo client, int msgType, Pointer payload, NativeLong len);
+    /**
+     * @param client 네이티브 client_info_t* 그대로. 콜백마다 구조체를 읽지 않도록 ClientInfo로 매핑하지 않습니다.
+     *               (fd는 ClientInfo.socketFdOf로 꺼냅니다)
+     */
+    void invoke(Pointer userData, Pointer client, int msgType, Pointer payload, NativeLong len);
 }
@@ -0,0 +1,30 @@
+package project.java_chat_server.wrapper_library.enums;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import java.util.Locale;
+
+@RequiredArgsConstructor
+@Getter
+public enum IoBackend {
+    AUTO(0),
+    POLL(1),
+    EPOLL(2);
+
+    private final int value;
+
+    public static IoBackend fromValue(int value) {
+        for (IoBackend backend : values()) {
+            if (backend.value == value) {
+                return backend;
+            }
+        }
+        return AUTO;
+    }
+
+    public static IoBackend fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return AUTO;
+        }
+        return IoBackend.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -1,10 +1,7 @@
 package project.java_chat_server.wrapper_library.enums;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Arrays;
 
 @RequiredArgsConstructor
 @Getter
@@ -17,6 +14,12 @@ public enum MessageType {
     MSG_TYPE_FILE_CHUNK(11),
     MSG_TYPE_FILE_END(12),
     MSG_TYPE_FILE_REQUEST(13),
+    /** [업로드 id 16바이트][파일 위치 int64, big-endian][데이터]. 여러 업로드의 조각을 아무 순서로나 보낼 때 씁니다. */
+    MSG_TYPE_FILE_CHUNK_AT(14),
+
+    MSG_TYPE_ROOM_JOIN_REQUEST(20),
+    MSG_TYPE_ROOM_LEAVE_REQUEST(21),
+    MSG_TYPE_ROOM_NOTICE(22),
 
     MSG_TYPE_USER_LOGIN_REQUEST(100),
     MSG_TYPE_USER_LOGIN_RESPONSE(101),
@@ -32,10 +35,27 @@ public enum MessageType {
 
     private final int value;
 
-    private static final Map<Integer, MessageType> valueMap = Stream.of(values()).collect(Collectors.toMap(MessageType::getValue, Function.identity()));
+    /** 값이 0~901로 작으므로 박싱하는 Map 대신 값을 그대로 인덱스로 쓰는 배열로 찾습니다. */
+    private static final MessageType[] BY_VALUE = buildIndex();
 
     public static MessageType fromValue(int value) {
-        return valueMap.getOrDefault(value, MSG_TYPE_UNKNOWN);
+        return value >= 0 && value < BY_VALUE.length ? BY_VALUE[value] : MSG_TYPE_UNKNOWN;
+    }
+
+    /** 가장 큰 메시지 타입 값 + 1. 값으로 인덱스하는 배열의 크기로 씁니다. */
+    public static int indexSize() {
+        return BY_VALUE.length;
+    }
+
+    private static MessageType[] buildIndex() {
+        final MessageType[] types = values();
+        final MessageType[] index = new MessageType[Arrays.stream(types).mapToInt(MessageType::getValue).max().orElse(0) + 1];
+        Arrays.fill(index, MSG_TYPE_UNKNOWN);
+
+        for (MessageType type : types) {
+            index[type.value] = type;
+        }
+        return index;
     }
 }
 
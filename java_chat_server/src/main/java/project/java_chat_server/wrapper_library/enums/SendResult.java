@@ -0,0 +1,38 @@
+package project.java_chat_server.wrapper_library.enums;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 네이티브 송신 함수의 결과 (C의 server_send_result_t)
+ */
+@RequiredArgsConstructor
+@Getter
+public enum SendResult {
+    FAILED(-1),
+    OK(0),
+    /** 대상의 송신 대기열이 가득 차 이번 메시지를 버림 */
+    DROPPED(1),
+    /** 메시지는 들어가지만 대상의 오래된 메시지가 버려짐 */
+    DROPPED_OLDEST(2),
+    /** 대상의 송신 대기열이 가득 차 연결이 끊어질 예정 */
+    DISCONNECTING(3),
+    /** 브로드캐스트 대상 중 느린 수신자 정책이 적용 중인 클라이언트가 있음 */
+    PARTIAL(4);
+
+    private static final SendResult[] VALUES = values();
+
+    private final int value;
+
+    public static SendResult fromValue(int value) {
+        for (SendResult result : VALUES) {
+            if (result.value == value) {
+                return result;
+            }
+        }
+        return value < 0 ? FAILED : OK;
+    }
+
+    public boolean isDelivered() {
+        return this == OK || this == DROPPED_OLDEST || this == PARTIAL;
+    }
+}
@@ -0,0 +1,24 @@
+package project.java_chat_server.wrapper_library.enums;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import java.util.Locale;
+
+/**
+ * 클라이언트의 네이티브 송신 대기열이 한도를 넘었을 때 적용할 정책 (C의 slow_consumer_policy_t)
+ */
+@RequiredArgsConstructor
+@Getter
+public enum SlowConsumerPolicy {
+    DISCONNECT(0),
+    DROP_NEW(1),
+    DROP_OLDEST(2);
+
+    private final int value;
+
+    public static SlowConsumerPolicy fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return DISCONNECT;
+        }
+        return SlowConsumerPolicy.valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
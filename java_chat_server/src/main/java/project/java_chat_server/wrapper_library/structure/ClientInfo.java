@@ -1,11 +1,25 @@
 package project.java_chat_server.wrapper_library.structure;
+import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import com.sun.jna.Structure;
 
+import java.nio.charset.StandardCharsets;
+
 @Structure.FieldOrder({"socketFd", "ipAddr", "clientParser"})
 public class ClientInfo extends Structure {
     public int socketFd;
     public byte[] ipAddr = new byte[16];
     public Pointer clientParser;
+
+    /**
+     * 구조체 전체를 읽지 않고 client_info_t* 에서 socket_fd(첫 필드)만 꺼냅니다.
+     */
+    public static int socketFdOf(Pointer client) {
+        return client.getInt(0);
+    }
+
+    public String getIpAddress() {
+        return Native.toString(ipAddr, StandardCharsets.US_ASCII);
+    }
 }
 
@@ -0,0 +1,14 @@
+package project.java_chat_server.wrapper_library.structure;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Structure;
+
+@Structure.FieldOrder({"port", "maxClients", "ioBackend", "ioThreads", "slowConsumerPolicy", "maxOutboundBytes", "inboundRingBytes"})
+public class ServerOptions extends Structure {
+    public int port;
+    public int maxClients;
+    public int ioBackend;
+    public int ioThreads;
+    public int slowConsumerPolicy;
+    public NativeLong maxOutboundBytes = new NativeLong(0);
+    public NativeLong inboundRingBytes = new NativeLong(0);
+}
@@ -0,0 +1,9 @@
+package project.java_chat_server.wrapper_library.structure;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Structure;
+
+@Structure.FieldOrder({"signals", "wakeups"})
+public class WakeupStats extends Structure {
+    public NativeLong signals = new NativeLong(0);
+    public NativeLong wakeups = new NativeLong(0);
+}
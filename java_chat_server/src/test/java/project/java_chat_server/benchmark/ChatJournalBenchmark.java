@@ -0,0 +1,116 @@
+package project.java_chat_server.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import project.java_chat_server.service.journal.ChatJournal;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 채팅 저널의 쓰기 처리량(MB/s)을 payload 크기와 생산자 쓰레드 수별로 측정합니다.
+ * - append: 생산자 쓰레드가 append() 한 번에 쓰는 시간 (메시지 경로가 기다리는 시간)
+ * - MB/s: 첫 append부터 쓰기 쓰레드가 마지막 레코드를 세그먼트에 쓸 때까지 레코드 헤더를 포함한 처리량
+ * 큐가 가득 차서 버린 레코드 수도 함께 출력합니다.
+ * 실행: ./gradlew benchmark --tests '*ChatJournalBenchmark'
+ */
+@Tag("benchmark")
+class ChatJournalBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(ChatJournalBenchmark.class);
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 500_000;
+    private static final int[] PAYLOAD_SIZES = {64, 256, 1024, 4096};
+    private static final int[] PRODUCERS = {1, 4};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void measureWriteThroughput() throws Exception {
+        log.info(String.format("%7s %9s %12s %10s %10s", "payload", "producers", "append ns", "MB/s", "dropped"));
+
+        for (int payloadSize : PAYLOAD_SIZES) {
+            for (int producers : PRODUCERS) {
+                final double megabytesPerSecond = measure(payloadSize, producers);
+                assertTrue(megabytesPerSecond > 0);
+            }
+        }
+    }
+
+    private double measure(final int payloadSize, final int producers) throws Exception {
+        final Path runDirectory = Files.createDirectories(directory.resolve(payloadSize + "-" + producers));
+        final ChatJournal.Options options = new ChatJournal.Options(runDirectory, ChatJournal.Options.DEFAULT_SEGMENT_BYTES,
+                ChatJournal.Options.DEFAULT_INDEX_INTERVAL_BYTES, Duration.ofDays(1), Long.MAX_VALUE, ChatJournal.Options.DEFAULT_QUEUE_CAPACITY);
+        final byte[] bytes = new byte[payloadSize];
+        Arrays.fill(bytes, (byte) 'x');
+
+        try (ChatJournal journal = ChatJournal.open(options)) {
+            final ByteBuffer warmupPayload = ByteBuffer.wrap(bytes);
+
+            for (int i = 0; i < WARMUP; i++) {
+                journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, warmupPayload);
+            }
+            awaitDrained(journal, WARMUP);
+
+            final long writtenBefore = journal.getWrittenBytes();
+            final long recordsBefore = journal.getWrittenRecords();
+            final long droppedBefore = journal.getDroppedRecords();
+            final int perProducer = ITERATIONS / producers;
+            final long[] appendNanos = new long[producers];
+            final CountDownLatch start = new CountDownLatch(1);
+            final Thread[] threads = new Thread[producers];
+
+            for (int p = 0; p < producers; p++) {
+                final int index = p;
+                threads[p] = new Thread(() -> {
+                    final ByteBuffer payload = ByteBuffer.wrap(bytes);
+
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    final long begin = System.nanoTime();
+
+                    for (int i = 0; i < perProducer; i++) {
+                        journal.append(index, MessageType.MSG_TYPE_CHAT_TEXT, payload);
+                    }
+                    appendNanos[index] = System.nanoTime() - begin;
+                });
+                threads[p].start();
+            }
+
+            final long begin = System.nanoTime();
+            start.countDown();
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            final long dropped = journal.getDroppedRecords() - droppedBefore;
+            awaitDrained(journal, recordsBefore + (long) perProducer * producers - dropped);
+            final long elapsed = System.nanoTime() - begin;
+
+            final double megabytesPerSecond = (journal.getWrittenBytes() - writtenBefore) / (elapsed / 1e9) / (1024 * 1024);
+            final double appendNs = (double) Arrays.stream(appendNanos).sum() / ((long) perProducer * producers);
+            log.info(String.format("%7d %9d %12.1f %10.1f %10d", payloadSize, producers, appendNs, megabytesPerSecond, dropped));
+            return megabytesPerSecond;
+        }
+    }
+
+    private static void awaitDrained(final ChatJournal journal, final long records) throws InterruptedException {
+        while (journal.getWrittenRecords() < records || journal.getQueuedRecords() > 0) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package project.java_chat_server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
+import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.service.codec.DirectPayload;
+import project.java_chat_server.service.codec.WireCodec;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.handlers.ChatTextHandler;
+import project.java_chat_server.wrapper_library.OutboundBatch;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 채팅 메시지 하나를 브로드캐스트 배치에 담기까지의 시간과 힙 할당량을 비교합니다.
+ * - decode: ChatTextRequest로 읽고 ChatTextBroadcast를 다시 직렬화 (기존 경로)
+ * - relay: ChatTextHandler가 message 위치만 찾고 원문 바이트를 닉네임 접두 뒤에 이어 붙임
+ * 실행: ./gradlew benchmark --tests '*ChatRelayBenchmark'
+ */
+@Tag("benchmark")
+class ChatRelayBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(ChatRelayBenchmark.class);
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareDecodeAndRelay() throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        final WireCodecs codecs = new WireCodecs(objectMapper);
+        final WireCodec codec = codecs.json();
+        final ChatTextHandler handler = new ChatTextHandler(codecs);
+        final OutboundBatch batch = new OutboundBatch();
+
+        final ConnectionSession session = new ConnectionSession(1, "127.0.0.1");
+        session.authenticate("benchuser");
+
+        final byte[] json = objectMapper.writeValueAsBytes(new ChatTextRequest("안녕하세요, 오늘 회의는 3시에 시작합니다. see you there!"));
+        final ByteBuffer payload = ByteBuffer.allocateDirect(json.length).put(json).flip().asReadOnlyBuffer();
+
+        final double decode = measure("chat/decode", () -> {
+            batch.clear();
+            final ChatTextRequest request = codec.decode(payload, ChatTextRequest.class);
+            codec.encode(new ChatTextBroadcast("benchuser", request.message()), batch.beginBroadcast(MessageType.MSG_TYPE_CHAT_TEXT, 1));
+            batch.endEntry();
+            return batch.length();
+        });
+        final double relay = measure("chat/relay", () -> {
+            batch.clear();
+            final Object broadcast = handler.handle(session, payload).getBroadcast().orElseThrow().payload();
+            ((DirectPayload) broadcast).writeTo(batch.beginBroadcast(MessageType.MSG_TYPE_CHAT_TEXT, 1), codec);
+            batch.endEntry();
+            return batch.length();
+        });
+
+        assertTrue(relay < decode, "원문 중계의 할당이 더 적어야 함");
+    }
+
+    private double measure(final String name, final Step step) throws Exception {
+        final long threadId = Thread.currentThread().getId();
+        long sink = 0;
+
+        for (int i = 0; i < WARMUP; i++) {
+            sink += step.run();
+        }
+
+        final long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += step.run();
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        final double bytesPerMessage = (double) (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+        log.info(String.format("%-12s %8.1f bytes/msg  %7.1f ns/msg  (sink=%d)", name, bytesPerMessage, (double) elapsed / ITERATIONS, sink));
+        return bytesPerMessage;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        int run() throws Exception;
+    }
+}
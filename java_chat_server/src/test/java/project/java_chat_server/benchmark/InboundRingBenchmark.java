@@ -0,0 +1,148 @@
+package project.java_chat_server.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import project.java_chat_server.wrapper_library.ChatServer;
+import project.java_chat_server.wrapper_library.InboundRecordListener;
+import project.java_chat_server.wrapper_library.enums.IoBackend;
+import project.java_chat_server.wrapper_library.enums.SlowConsumerPolicy;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 클라이언트들이 합쳐서 초당 TARGET_RATE개의 채팅 메시지를 보낼 때,
+ * 메시지마다 JNA 콜백을 부르는 모드와 수신 링 모드의 전달 처리량과 지연(보낸 수 - 받은 수)을 비교합니다.
+ * 마지막 두 줄은 속도 제한 없이 최대로 보냈을 때의 처리량입니다.
+ * 실행: ./gradlew benchmark --tests '*InboundRingBenchmark'
+ */
+@Tag("benchmark")
+class InboundRingBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(InboundRingBenchmark.class);
+    private static final int PORT = 8201;
+    private static final int CLIENTS = 8;
+    private static final int TARGET_RATE = 100_000;
+    private static final int DURATION_SECONDS = 5;
+    private static final int PAYLOAD_SIZE = 64;
+    private static final long RING_BYTES = 1L << 20;
+
+    @Test
+    void compareCallbackAndRing() throws Exception {
+        runCase("callback", 0, TARGET_RATE);
+        runCase("ring", RING_BYTES, TARGET_RATE);
+        runCase("callback", 0, Integer.MAX_VALUE);
+        runCase("ring", RING_BYTES, Integer.MAX_VALUE);
+    }
+
+    private void runCase(final String mode, final long ringBytes, final int targetRate) throws Exception {
+        final AtomicLong delivered = new AtomicLong();
+
+        try (ChatServer server = new ChatServer(PORT, CLIENTS + 8, IoBackend.AUTO, 1, SlowConsumerPolicy.DISCONNECT, ChatServer.DEFAULT_MAX_OUTBOUND_BYTES, ringBytes)) {
+            if (server.isInboundRingEnabled()) {
+                server.start();
+                server.startInboundConsumers(new InboundRecordListener() {
+                    @Override
+                    public void onConnect(int clientId, String ipAddr) {
+                    }
+
+                    @Override
+                    public void onMessage(int clientId, int msgType, ByteBuffer payload) {
+                        delivered.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onDisconnect(int clientId) {
+                    }
+                });
+            } else {
+                server.setOnConnectListener((userData, client) -> { });
+                server.setOnDisconnectListener((userData, client) -> { });
+                server.setOnMessageListener((userData, client, msgType, payload, len) -> delivered.incrementAndGet());
+                server.start();
+            }
+
+            final long perClientRate = targetRate == Integer.MAX_VALUE ? Long.MAX_VALUE : targetRate / CLIENTS;
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+            final AtomicLong sent = new AtomicLong();
+            final CountDownLatch finished = new CountDownLatch(1);
+            final List<Thread> senders = new ArrayList<>();
+            final long start = System.nanoTime();
+
+            for (int i = 0; i < CLIENTS; i++) {
+                final Thread sender = new Thread(() -> send(perClientRate, deadline, sent, finished));
+                senders.add(sender);
+                sender.start();
+            }
+
+            long maxLag = 0;
+
+            while (System.nanoTime() < deadline) {
+                maxLag = Math.max(maxLag, sent.get() - delivered.get());
+                Thread.sleep(10);
+            }
+            while (delivered.get() < sent.get() && System.nanoTime() - deadline < TimeUnit.SECONDS.toNanos(30)) {
+                Thread.sleep(1);
+            }
+
+            final double elapsed = (System.nanoTime() - start) / 1e9;
+            finished.countDown();
+
+            for (Thread sender : senders) {
+                sender.join();
+            }
+            log.info(String.format("mode=%-8s target=%-10s sent=%-9d delivered=%-9d %10.0f msg/s  maxLag=%-7d overflow=%d",
+                    mode, targetRate == Integer.MAX_VALUE ? "max" : targetRate + "/s", sent.get(), delivered.get(),
+                    delivered.get() / elapsed, maxLag, server.getInboundOverflowCount()));
+            assertEquals(sent.get(), delivered.get());
+        }
+    }
+
+    /**
+     * 1ms마다 그 시점까지 보냈어야 할 만큼의 프레임을 한 번에 씁니다.
+     */
+    private static void send(final long ratePerSecond, final long deadline, final AtomicLong sent, final CountDownLatch finished) {
+        final byte[] frame = new byte[5 + PAYLOAD_SIZE];
+        frame[0] = 1;
+        ByteBuffer.wrap(frame, 1, 4).putInt(PAYLOAD_SIZE);
+        final byte[] burst = new byte[frame.length * 256];
+
+        for (int i = 0; i < 256; i++) {
+            System.arraycopy(frame, 0, burst, i * frame.length, frame.length);
+        }
+
+        try (Socket socket = new Socket("127.0.0.1", PORT)) {
+            final OutputStream out = socket.getOutputStream();
+            final long start = System.nanoTime();
+            long written = 0;
+
+            while (System.nanoTime() < deadline) {
+                final long due = ratePerSecond == Long.MAX_VALUE ? written + 256 : (System.nanoTime() - start) * ratePerSecond / 1_000_000_000L;
+                final int count = (int) Math.min(256, due - written);
+
+                if (count <= 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    continue;
+                }
+                out.write(burst, 0, count * frame.length);
+                written += count;
+                sent.addAndGet(count);
+            }
+            out.flush();
+            // 서버가 남은 프레임을 다 전달할 때까지 연결을 유지합니다.
+            finished.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
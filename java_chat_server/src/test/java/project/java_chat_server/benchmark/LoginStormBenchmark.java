@@ -0,0 +1,117 @@
+package project.java_chat_server.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import project.java_chat_server.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 배포 직후처럼 USERS명이 THREADS개 쓰레드에서 한꺼번에 로그인할 때 전체 소요 시간을 비교합니다.
+ * - before: synchronized login + containsValue 전체 순회 + 매번 정규식 컴파일 (예전 UserService를 그대로 옮긴 것)
+ * - after: 닉네임 선점 인덱스를 쓰는 지금의 UserService
+ * 두 쪽 모두 로그인마다 같은 INFO 로그를 남깁니다.
+ * 실행: ./gradlew benchmark --tests '*LoginStormBenchmark'
+ */
+@Tag("benchmark")
+class LoginStormBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(LoginStormBenchmark.class);
+    private static final int USERS = 10_000;
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void compareLoginStorm() throws Exception {
+        final double before = measure("before", () -> new LockedRegistry()::login);
+        final double after = measure("after", () -> new UserService()::login);
+
+        assertTrue(after < before, "닉네임 인덱스를 쓰는 쪽이 더 빨라야 함");
+    }
+
+    /** 첫 라운드는 워밍업으로 버리고 나머지의 평균(ms)을 돌려줍니다. */
+    private double measure(final String name, final RegistryFactory factory) throws Exception {
+        double totalMillis = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final LoginCall registry = factory.create();
+            final CountDownLatch ready = new CountDownLatch(THREADS);
+            final CountDownLatch start = new CountDownLatch(1);
+            final AtomicInteger succeeded = new AtomicInteger();
+            final List<Thread> workers = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++) {
+                final int offset = t;
+                final Thread worker = new Thread(() -> {
+                    ready.countDown();
+                    try {
+                        start.await();
+                        for (int i = offset; i < USERS; i += THREADS) {
+                            registry.login(i, "user" + i);
+                            succeeded.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                worker.start();
+                workers.add(worker);
+            }
+
+            ready.await();
+            final long begin = System.nanoTime();
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            final double millis = (System.nanoTime() - begin) / 1_000_000.0;
+
+            assertEquals(USERS, succeeded.get());
+            if (round > 0) {
+                totalMillis += millis;
+            }
+        }
+
+        final double average = totalMillis / (ROUNDS - 1);
+        log.info(String.format("%-7s %d users / %d threads: %8.1f ms  (%,.0f logins/s)", name, USERS, THREADS, average, USERS / (average / 1000)));
+        return average;
+    }
+
+    @FunctionalInterface
+    private interface LoginCall {
+        void login(int clientId, String nickname) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface RegistryFactory {
+        LoginCall create();
+    }
+
+    private static class LockedRegistry {
+        // 같은 로그 설정을 타도록 UserService의 로거를 씁니다.
+        private static final Logger log = LoggerFactory.getLogger(UserService.class);
+        private final Map<Integer, String> loggedInUsers = new ConcurrentHashMap<>();
+
+        synchronized void login(int clientId, String nickname) throws UserService.UserLoginException {
+            if (loggedInUsers.containsKey(clientId)) {
+                throw new UserService.UserLoginException("이미 로그인된 상태입니다.");
+            }
+            if (nickname == null || nickname.length() < 3 || nickname.length() > 15 || !nickname.matches("^[a-zA-Z0-9]+$")) {
+                throw new UserService.UserLoginException("닉네임은 3~15자의 영문/숫자만 가능합니다.");
+            }
+            if (loggedInUsers.containsValue(nickname)) {
+                throw new UserService.UserLoginException("이미 사용 중인 닉네임입니다.");
+            }
+            loggedInUsers.put(clientId, nickname);
+            log.info("사용자 등록 완료: 클라이언트(id:{}) -> 닉네임 '{}'", clientId, nickname);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package project.java_chat_server.benchmark;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.SessionRegistry;
+import project.java_chat_server.service.UserService;
+import project.java_chat_server.wrapper_library.structure.ClientInfo;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 메시지 콜백 한 번마다 클라이언트를 식별하는 데 드는 힙 할당량을 비교합니다.
+ * - before: JNA가 ClientInfo 인자를 위해 하는 일(Structure.newInstance + read)과 UserService 닉네임 조회
+ * - after: client_info_t*에서 fd만 읽고 SessionRegistry에서 세션을 꺼내는 경로
+ * 실행: ./gradlew benchmark --tests '*SessionLookupBenchmark'
+ */
+@Tag("benchmark")
+class SessionLookupBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(SessionLookupBenchmark.class);
+    private static final int CLIENT_ID = 1000;
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+    private static final int PAYLOAD_SIZE = 64;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareAllocationsPerMessage() throws Exception {
+        final UserService userService = new UserService();
+        final SessionRegistry sessionRegistry = new SessionRegistry();
+        final ConnectionSession session = sessionRegistry.open(CLIENT_ID, "127.0.0.1");
+        userService.login(session, "benchuser");
+
+        // 네이티브 client_info_t를 흉내낸 메모리
+        final ClientInfo nativeClient = new ClientInfo();
+        final Pointer client = new Memory(nativeClient.size());
+        client.setInt(0, CLIENT_ID);
+        client.write(4, "127.0.0.1".getBytes(), 0, 9);
+
+        final double before = measure("before", () -> {
+            final ClientInfo info = Structure.newInstance(ClientInfo.class, client);
+            info.read();
+            return userService.getNickname(info.socketFd).orElseThrow().length();
+        });
+        final double after = measure("after", () -> {
+            final ConnectionSession found = sessionRegistry.get(ClientInfo.socketFdOf(client));
+            found.recordReceived(PAYLOAD_SIZE);
+            return found.requireNickname().length();
+        });
+
+        assertTrue(after < before, "세션 조회 경로가 할당을 줄여야 함");
+    }
+
+    private double measure(final String name, final Lookup lookup) {
+        final long threadId = Thread.currentThread().getId();
+        long sink = 0;
+
+        for (int i = 0; i < WARMUP; i++) {
+            sink += lookup.run();
+        }
+
+        final long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += lookup.run();
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        final double bytesPerMessage = (double) (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / ITERATIONS;
+        log.info(String.format("%-7s %8.1f bytes/msg  %7.1f ns/msg  (sink=%d)", name, bytesPerMessage, (double) elapsed / ITERATIONS, sink));
+        return bytesPerMessage;
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        int run();
+    }
+}
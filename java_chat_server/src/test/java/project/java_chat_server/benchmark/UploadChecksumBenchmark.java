@@ -0,0 +1,106 @@
+package project.java_chat_server.benchmark;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import project.java_chat_server.service.FileTransferService;
+import project.java_chat_server.service.upload.ChecksumAlgorithm;
+import project.java_chat_server.service.upload.UploadChecksum;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 업로드 체크섬 비용을 비교합니다.
+ * - FILE_END 지연: 끝날 때 파일을 다시 읽어 SHA-256을 계산 (기존 경로) vs 조각마다 갱신해 둔 체크섬을 마무리
+ * - 조각 경로 비용: 4KiB 조각마다 체크섬을 갱신할 때 알고리즘별 처리량 (조각을 받는 쓰레드가 내는 비용)
+ * 실행: ./gradlew benchmark --tests '*UploadChecksumBenchmark'
+ */
+@Tag("benchmark")
+class UploadChecksumBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(UploadChecksumBenchmark.class);
+    private static final int FILE_BYTES = 128 * 1024 * 1024;
+    private static final int CHUNK_BYTES = 4 * 1024;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compareEndLatencyAndChunkCost() throws Exception {
+        final byte[] chunk = new byte[CHUNK_BYTES];
+        ThreadLocalRandom.current().nextBytes(chunk);
+
+        log.info(String.format("%-28s %12s %10s", "step", "ms", "MB/s"));
+
+        for (ChecksumAlgorithm algorithm : ChecksumAlgorithm.values()) {
+            double best = Double.MAX_VALUE;
+
+            for (int round = 0; round < ROUNDS; round++) {
+                final UploadChecksum checksum = algorithm.newChecksum();
+                final ByteBuffer source = ByteBuffer.wrap(chunk);
+                final long start = System.nanoTime();
+
+                for (int offset = 0; offset < FILE_BYTES; offset += CHUNK_BYTES) {
+                    checksum.update(source);
+                }
+                assertFalse(checksum.finish().isEmpty());
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            report("chunks/" + algorithm.getName(), best, true);
+        }
+
+        final FileTransferService service = new FileTransferService(directory.toString());
+        service.init();
+
+        try {
+            double reread = Double.MAX_VALUE;
+            double finish = Double.MAX_VALUE;
+
+            for (int round = 0; round < ROUNDS; round++) {
+                service.startFileTransfer(1, "upload.bin", FILE_BYTES);
+                final ByteBuffer source = ByteBuffer.wrap(chunk);
+
+                for (int offset = 0; offset < FILE_BYTES; offset += CHUNK_BYTES) {
+                    service.processFileChunk(1, source);
+                }
+                final Path path = service.getSession(1).getFilePath();
+                service.getSession(1).awaitWrites();
+
+                long start = System.nanoTime();
+                final String rereadChecksum;
+                try (InputStream is = Files.newInputStream(path)) {
+                    rereadChecksum = DigestUtils.sha256Hex(is);
+                }
+                reread = Math.min(reread, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                final Path stored = service.endFileTransfer(1, rereadChecksum).getStoredPath();
+                finish = Math.min(finish, System.nanoTime() - start);
+                // 다음 라운드가 같은 내용을 저장소에서 찾아 옮기기를 건너뛰지 않도록 지웁니다.
+                Files.delete(stored);
+            }
+            report("end/reread-sha256", reread, true);
+            report("end/incremental-sha256", finish, false);
+            assertTrue(finish < reread, "끝낼 때 파일을 다시 읽지 않으므로 더 빨라야 함");
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    /**
+     * @param perByte 파일 전체를 훑는 단계면 true. 체크섬 마무리처럼 크기와 상관없는 단계는 MB/s를 찍지 않습니다.
+     */
+    private static void report(final String name, final double elapsedNanos, final boolean perByte) {
+        log.info(String.format("%-28s %12.3f %10s", name, elapsedNanos / 1e6,
+                perByte ? String.format("%.1f", FILE_BYTES / (1024.0 * 1024.0) / (elapsedNanos / 1e9)) : "-"));
+    }
+}
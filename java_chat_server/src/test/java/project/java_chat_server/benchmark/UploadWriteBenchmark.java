@@ -0,0 +1,136 @@
+package project.java_chat_server.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import project.java_chat_server.domain.FileTransferSession;
+import project.java_chat_server.service.FileTransferService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 업로드 조각을 파일에 쓰는 두 방식의 처리량과 MB당 시스템 콜 수를 비교합니다.
+ * - per-chunk: 조각마다 파일을 APPEND로 열고, 쓰고, 닫음 (기존 경로)
+ * - write-behind: FileTransferService가 세션 채널을 열어 두고 조각을 direct 버퍼에 모아 쓰기 쓰레드가 씀
+ * write 시스템 콜 수는 /proc/self/io의 syscw로 셉니다 (리눅스만). open/close는 경로에서 바로 셀 수 있어 따로 출력합니다.
+ * 실행: ./gradlew benchmark --tests '*UploadWriteBenchmark'
+ */
+@Tag("benchmark")
+class UploadWriteBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(UploadWriteBenchmark.class);
+    private static final long FILE_BYTES = 64L * 1024 * 1024;
+    private static final int[] CHUNK_SIZES = {4 * 1024, 64 * 1024};
+    private static final int ROUNDS = 3;
+    private static final Path PROC_IO = Path.of("/proc/self/io");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void comparePerChunkOpenAndWriteBehind() throws Exception {
+        final FileTransferService service = new FileTransferService(directory.resolve("uploads").toString());
+        service.init();
+
+        log.info(String.format("%-13s %7s %10s %14s %16s", "path", "chunk", "MB/s", "write calls/MB", "open+close/MB"));
+
+        try {
+            for (int chunkSize : CHUNK_SIZES) {
+                final byte[] chunk = new byte[chunkSize];
+                double perChunk = 0;
+                double writeBehind = 0;
+
+                for (int round = 0; round < ROUNDS; round++) {
+                    perChunk = Math.max(perChunk, measurePerChunk(chunk, round == ROUNDS - 1));
+                    writeBehind = Math.max(writeBehind, measureWriteBehind(service, chunk, round == ROUNDS - 1));
+                }
+                assertTrue(writeBehind > 0 && perChunk > 0);
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private double measurePerChunk(final byte[] chunk, final boolean print) throws IOException {
+        final Path path = directory.resolve("per-chunk.bin");
+        final long chunks = FILE_BYTES / chunk.length;
+        final long syscallsBefore = writeSyscalls();
+        final long start = System.nanoTime();
+
+        for (long i = 0; i < chunks; i++) {
+            final ByteBuffer source = ByteBuffer.wrap(chunk);
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+            }
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        final long syscalls = writeSyscalls() - syscallsBefore;
+        assertEquals(FILE_BYTES, Files.size(path));
+        Files.delete(path);
+        return report("per-chunk", chunk.length, elapsed, syscalls, chunks * 2, print);
+    }
+
+    private double measureWriteBehind(final FileTransferService service, final byte[] chunk, final boolean print) throws IOException {
+        final long chunks = FILE_BYTES / chunk.length;
+        final ByteBuffer source = ByteBuffer.wrap(chunk);
+        final long syscallsBefore = writeSyscalls();
+        final long start = System.nanoTime();
+
+        service.startFileTransfer(1, "write-behind.bin", FILE_BYTES);
+        final FileTransferSession session = service.getSession(1);
+
+        for (long i = 0; i < chunks; i++) {
+            service.processFileChunk(1, source);
+        }
+        session.awaitWrites();
+
+        final long elapsed = System.nanoTime() - start;
+        final long syscalls = writeSyscalls() - syscallsBefore;
+        assertTrue(session.isCompleted());
+        assertEquals(FILE_BYTES, Files.size(session.getFilePath()));
+        service.cancelFileTransfer(1, "benchmark");
+        return report("write-behind", chunk.length, elapsed, syscalls, 2, print);
+    }
+
+    private static double report(final String name, final int chunkSize, final long elapsedNanos, final long writeSyscalls, final long openClose, final boolean print) {
+        final double megabytes = FILE_BYTES / (1024.0 * 1024.0);
+        final double megabytesPerSecond = megabytes / (elapsedNanos / 1e9);
+
+        if (print) {
+            log.info(String.format("%-13s %6dK %10.1f %14s %16.2f", name, chunkSize / 1024, megabytesPerSecond,
+                    writeSyscalls < 0 ? "n/a" : String.format("%.1f", writeSyscalls / megabytes), openClose / megabytes));
+        }
+        return megabytesPerSecond;
+    }
+
+    /**
+     * @return 이 프로세스가 지금까지 부른 write 계열 시스템 콜 수, 알 수 없으면 -1
+     */
+    private static long writeSyscalls() {
+        try {
+            List<String> lines = Files.readAllLines(PROC_IO);
+
+            for (String line : lines) {
+                if (line.startsWith("syscw:")) {
+                    return Long.parseLong(line.substring("syscw:".length()).trim());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 리눅스가 아니면 셀 수 없음
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,113 @@
+package project.java_chat_server.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import project.java_chat_server.wrapper_library.ChatServer;
+import project.java_chat_server.wrapper_library.enums.IoBackend;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+import project.java_chat_server.wrapper_library.enums.SlowConsumerPolicy;
+import project.java_chat_server.wrapper_library.structure.WakeupStats;
+
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 여러 Java 쓰레드가 한 클라이언트에게 sendToClient를 동시에 호출할 때
+ * 메시지당 이벤트 루프 깨우기 시스템 콜 수를 측정합니다.
+ * 실행: ./gradlew benchmark --tests '*WakeupCoalescingBenchmark'
+ */
+@Tag("benchmark")
+class WakeupCoalescingBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(WakeupCoalescingBenchmark.class);
+    private static final int PORT = 8200;
+    private static final int MESSAGES_PER_THREAD = 20_000;
+    private static final byte[] PAYLOAD = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final int FRAME_SIZE = 5 + PAYLOAD.length;
+
+    @Test
+    void measureWakeupsPerMessage() throws Exception {
+        for (int producers = 1; producers <= 8; producers *= 2) {
+            runCase(producers);
+        }
+    }
+
+    private void runCase(final int producers) throws Exception {
+        final AtomicInteger clientFd = new AtomicInteger(-1);
+        final CountDownLatch connected = new CountDownLatch(1);
+
+        try (ChatServer server = new ChatServer(PORT, 8, IoBackend.AUTO, 1, SlowConsumerPolicy.DISCONNECT, 1024L * 1024 * 1024)) {
+            server.setOnConnectListener((userData, client) -> {
+                clientFd.set(client.socketFd);
+                connected.countDown();
+            });
+            server.start();
+
+            try (Socket socket = new Socket("127.0.0.1", PORT)) {
+                assertTrue(connected.await(5, TimeUnit.SECONDS));
+
+                final long total = (long) producers * MESSAGES_PER_THREAD;
+                final Thread reader = new Thread(() -> drain(socket, total * FRAME_SIZE));
+                reader.start();
+
+                final WakeupStats before = server.getWakeupStats();
+                final long start = System.nanoTime();
+                final List<Thread> threads = new ArrayList<>();
+
+                for (int i = 0; i < producers; i++) {
+                    final Thread thread = new Thread(() -> {
+                        try {
+                            for (int n = 0; n < MESSAGES_PER_THREAD; n++) {
+                                server.sendToClient(clientFd.get(), MessageType.MSG_TYPE_CHAT_TEXT, PAYLOAD);
+                            }
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                    threads.add(thread);
+                    thread.start();
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                reader.join(TimeUnit.SECONDS.toMillis(30));
+
+                final double elapsed = (System.nanoTime() - start) / 1e9;
+                final WakeupStats after = server.getWakeupStats();
+                final double signals = after.signals.longValue() - before.signals.longValue();
+                final double wakeups = after.wakeups.longValue() - before.wakeups.longValue();
+
+                log.info(String.format("producers=%-3d messages=%-8d signals/msg=%.4f wakeups/msg=%.4f syscalls/msg=%.4f %10.0f msg/s",
+                        producers, total, signals / total, wakeups / total, (signals + wakeups) / total, total / elapsed));
+                assertTrue(signals <= total);
+            }
+        }
+    }
+
+    private static void drain(final Socket socket, final long expectedBytes) {
+        final byte[] buffer = new byte[65536];
+        long received = 0;
+
+        try (InputStream in = socket.getInputStream()) {
+            while (received < expectedBytes) {
+                final int n = in.read(buffer);
+
+                if (n < 0) {
+                    break;
+                }
+                received += n;
+            }
+        } catch (Exception ignored) {
+            // 소켓이 닫히면 측정을 끝냅니다.
+        }
+    }
+}
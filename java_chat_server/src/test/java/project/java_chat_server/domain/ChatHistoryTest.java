@@ -0,0 +1,98 @@
+package project.java_chat_server.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatHistoryTest {
+
+    @Test
+    void testAppend_ReplaysOldestFirst() throws IOException {
+        ChatHistory history = new ChatHistory(3, 1024);
+
+        for (String message : List.of("a", "bb", "ccc", "dddd")) {
+            assertTrue(history.append(frame(message)));
+        }
+
+        // 메시지 수 한도를 넘으면 가장 오래된 것부터 빠짐
+        assertEquals(List.of("bb", "ccc", "dddd"), replay(history));
+        assertEquals(3, history.size());
+    }
+
+    @Test
+    void testAppend_EvictsByBytesAndWrapsAround() throws IOException {
+        ChatHistory history = new ChatHistory(100, 10);
+
+        history.append(frame("1234"));
+        history.append(frame("5678"));
+        // 끝에 2바이트밖에 남지 않아 앞으로 감기며 "1234" 자리를 씀
+        history.append(frame("abc"));
+        assertEquals(List.of("5678", "abc"), replay(history));
+
+        history.append(frame("defg"));
+        assertEquals(List.of("abc", "defg"), replay(history));
+
+        history.append(frame("0123456789"));
+        assertEquals(List.of("0123456789"), replay(history));
+    }
+
+    @Test
+    void testAppend_ManyFramesStayWithinBudget() throws IOException {
+        ChatHistory history = new ChatHistory(8, 64);
+        List<String> expected = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            String message = "m" + i + "-".repeat(i % 13);
+            history.append(frame(message));
+            expected.add(message);
+        }
+
+        List<String> replayed = replay(history);
+        assertFalse(replayed.isEmpty());
+        assertTrue(replayed.size() <= 8);
+        assertEquals(expected.subList(expected.size() - replayed.size(), expected.size()), replayed);
+        assertTrue(replayed.stream().mapToInt(String::length).sum() <= 64);
+    }
+
+    @Test
+    void testAppend_OversizedOrDisabled_Dropped() throws IOException {
+        ChatHistory history = new ChatHistory(4, 4);
+        history.append(frame("ok"));
+
+        assertFalse(history.append(frame("too long")));
+        assertEquals(List.of("ok"), replay(history));
+
+        ChatHistory disabled = new ChatHistory(0, 1024);
+        assertFalse(disabled.append(frame("a")));
+        assertTrue(disabled.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new ChatHistory(-1, 10));
+    }
+
+    @Test
+    void testAppend_DoesNotMoveSourcePosition() {
+        ChatHistory history = new ChatHistory(4, 64);
+        ByteBuffer source = ByteBuffer.allocateDirect(16);
+        source.put("xxhello".getBytes(StandardCharsets.UTF_8)).flip().position(2);
+
+        history.append(source.asReadOnlyBuffer());
+
+        assertEquals(2, source.position());
+        assertEquals(1, history.size());
+    }
+
+    private static ByteBuffer frame(String message) {
+        return ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> replay(ChatHistory history) throws IOException {
+        List<String> frames = new ArrayList<>();
+        history.forEach((frame, offset, length) -> frames.add(new String(frame, offset, length, StandardCharsets.UTF_8)));
+        return frames;
+    }
+}
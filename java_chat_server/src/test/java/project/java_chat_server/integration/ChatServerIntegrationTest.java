@@ -9,7 +9,10 @@ import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.Timeout;
 import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.domain.ConnectionSession;
 import project.java_chat_server.dto.user.UserLoginRequest;
+import project.java_chat_server.service.RoomService;
+import project.java_chat_server.service.SessionRegistry;
 import project.java_chat_server.service.UserService;
 import project.java_chat_server.service.handlers.ChatTextHandler;
 import project.java_chat_server.service.handlers.LoginRequestHandler;
@@ -22,6 +25,7 @@ import project.java_chat_server.wrapper_library.callbacks.ServerOnCompleteMessag
 import project.java_chat_server.wrapper_library.enums.MessageType;
 import project.java_chat_server.wrapper_library.structure.ClientInfo;
 import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.service.codec.WireCodecs;
 import com.sun.jna.Memory;
 import com.sun.jna.Pointer;
 
@@ -35,13 +39,17 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 @EnabledOnOs({OS.MAC, OS.LINUX})
 class ChatServerIntegrationTest {
 
     private ChatServer server;
     private UserService userService;
+    private SessionRegistry sessionRegistry;
+    private RoomService roomService;
     private ObjectMapper objectMapper;
+    private WireCodecs codecs;
     private List<MessageHandler> handlers;
     private static final int TEST_PORT = 9999;
     private static final int MAX_CLIENTS = 10;
@@ -49,11 +57,15 @@ class ChatServerIntegrationTest {
     @BeforeEach
     void setUp() {
         userService = new UserService();
+        sessionRegistry = new SessionRegistry();
+        // 로그인 핸들러는 로비 채팅 기록만 읽으므로 네이티브 그룹 호출은 필요 없음
+        roomService = new RoomService(mock(ChatServer.class));
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // Support Instant serialization
+        codecs = new WireCodecs(objectMapper);
         handlers = Arrays.asList(
-                new LoginRequestHandler(userService, objectMapper),
-                new ChatTextHandler(objectMapper, userService)
+                new LoginRequestHandler(userService, sessionRegistry, roomService, codecs),
+                new ChatTextHandler(codecs)
         );
     }
 
@@ -118,7 +130,7 @@ class ChatServerIntegrationTest {
             if (handler != null) {
                     byte[] payloadArray = new byte[(int) len.longValue()];
                     payload.read(0, payloadArray, 0, payloadArray.length);
-                    HandlerResult result = handler.handle(client, payloadArray);
+                    HandlerResult result = handler.handle(sessionRegistry.get(ClientInfo.socketFdOf(client)), payloadArray);
 
                 if (msgType == MessageType.MSG_TYPE_USER_LOGIN_REQUEST.getValue()) {
                     loginLatch.countDown();
@@ -137,7 +149,9 @@ class ChatServerIntegrationTest {
         Thread.sleep(500);
 
         // Test login handler
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
+        ClientInfo clientInfo = TestUtils.createClientInfo(1, "127.0.0.1");
+        sessionRegistry.open(clientInfo.socketFd, clientInfo.getIpAddress());
+        Pointer client = clientInfo.getPointer();
         UserLoginRequest loginRequest = new UserLoginRequest("testuser");
         byte[] loginPayload = objectMapper.writeValueAsBytes(loginRequest);
         Memory loginMemory = new Memory(loginPayload.length);
@@ -161,9 +175,9 @@ class ChatServerIntegrationTest {
     @Test
     @Timeout(value = 10, unit = TimeUnit.SECONDS)
     void testHandlerResult_ResponseAndBroadcast() throws Exception {
-        LoginRequestHandler handler = new LoginRequestHandler(userService, objectMapper);
+        LoginRequestHandler handler = new LoginRequestHandler(userService, sessionRegistry, roomService, codecs);
 
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
+        ConnectionSession client = TestUtils.createSession(1, "127.0.0.1");
         UserLoginRequest request = new UserLoginRequest("testuser");
         byte[] payload = objectMapper.writeValueAsBytes(request);
 
@@ -181,9 +195,9 @@ class ChatServerIntegrationTest {
     @Timeout(value = 10, unit = TimeUnit.SECONDS)
     void testUserService_Integration() throws Exception {
         // Test user service with handlers
-        LoginRequestHandler loginHandler = new LoginRequestHandler(userService, objectMapper);
+        LoginRequestHandler loginHandler = new LoginRequestHandler(userService, sessionRegistry, roomService, codecs);
 
-        ClientInfo client1 = TestUtils.createClientInfo(1, "127.0.0.1");
+        ConnectionSession client1 = TestUtils.createSession(1, "127.0.0.1");
         UserLoginRequest request1 = new UserLoginRequest("user1");
         byte[] payload1 = objectMapper.writeValueAsBytes(request1);
 
@@ -191,7 +205,7 @@ class ChatServerIntegrationTest {
         assertTrue(result1.getDirectResponse().isPresent());
         assertTrue(userService.isLoggedIn(1));
 
-        ClientInfo client2 = TestUtils.createClientInfo(2, "127.0.0.1");
+        ConnectionSession client2 = TestUtils.createSession(2, "127.0.0.1");
         UserLoginRequest request2 = new UserLoginRequest("user2");
         byte[] payload2 = objectMapper.writeValueAsBytes(request2);
 
@@ -200,7 +214,7 @@ class ChatServerIntegrationTest {
         assertTrue(userService.isLoggedIn(2));
 
         // Test chat with logged in users
-        ChatTextHandler chatHandler = new ChatTextHandler(objectMapper, userService);
+        ChatTextHandler chatHandler = new ChatTextHandler(codecs);
         ChatTextRequest chatRequest = new ChatTextRequest("Hello");
         byte[] chatPayload = objectMapper.writeValueAsBytes(chatRequest);
 
@@ -216,8 +230,8 @@ class ChatServerIntegrationTest {
     @Test
     @Timeout(value = 10, unit = TimeUnit.SECONDS)
     void testErrorHandling_InvalidJson() {
-        LoginRequestHandler handler = new LoginRequestHandler(userService, objectMapper);
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
+        LoginRequestHandler handler = new LoginRequestHandler(userService, sessionRegistry, roomService, codecs);
+        ConnectionSession client = TestUtils.createSession(1, "127.0.0.1");
         byte[] invalidPayload = "invalid json".getBytes(StandardCharsets.UTF_8);
 
         HandlerResult result = handler.handle(client, invalidPayload);
@@ -230,8 +244,8 @@ class ChatServerIntegrationTest {
     @Test
     @Timeout(value = 10, unit = TimeUnit.SECONDS)
     void testErrorHandling_UnauthenticatedChat() {
-        ChatTextHandler handler = new ChatTextHandler(objectMapper, userService);
-        ClientInfo client = TestUtils.createClientInfo(999, "127.0.0.1");
+        ChatTextHandler handler = new ChatTextHandler(codecs);
+        ConnectionSession client = TestUtils.createSession(999, "127.0.0.1");
 
         try {
             ChatTextRequest request = new ChatTextRequest("Hello");
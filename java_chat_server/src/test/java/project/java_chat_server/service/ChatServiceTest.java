@@ -4,22 +4,37 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.dto.user.UserLoginRequest;
+import project.java_chat_server.service.dispatch.Bulkhead;
+import project.java_chat_server.service.dispatch.MessageDispatcher;
 import project.java_chat_server.service.handlers.ChatTextHandler;
 import project.java_chat_server.service.handlers.LoginRequestHandler;
 import project.java_chat_server.service.handlers.MessageHandler;
+import project.java_chat_server.service.handlers.RoomJoinHandler;
+import project.java_chat_server.service.handlers.RoomLeaveHandler;
+import project.java_chat_server.service.journal.ChatJournal;
+import project.java_chat_server.service.journal.JournalRecord;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.wrapper_library.ChatServer;
+import project.java_chat_server.wrapper_library.OutboundBatch;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
-import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.codec.WireFormat;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,7 +44,13 @@ class ChatServiceTest {
 
     private ChatService chatService;
     private UserService userService;
+    private SessionRegistry sessionRegistry;
+    private RoomService roomService;
     private ObjectMapper objectMapper;
+    private WireCodecs codecs;
+
+    /** sendBatch로 넘어간 배치는 쓰레드별로 재사용되므로 호출 시점에 내용을 복사해 둡니다. */
+    private final List<SentMessage> sent = new CopyOnWriteArrayList<>();
 
     @Mock
     private ChatServer mockChatServer;
@@ -38,71 +59,75 @@ class ChatServiceTest {
     void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
         userService = new UserService();
+        sessionRegistry = new SessionRegistry();
         
         // ObjectMapper with JSR310 module for Instant support
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        codecs = new WireCodecs(objectMapper);
+        roomService = new RoomService(mockChatServer);
 
         // Mock ChatServer methods to avoid IOException
         // Using Answer to handle IOException properly
-        doAnswer(invocation -> null).when(mockChatServer).broadcast(
-                any(MessageType.class), any(byte[].class), anyInt());
         doAnswer(invocation -> null).when(mockChatServer).sendToClient(
                 anyInt(), any(MessageType.class), any(byte[].class));
+        sent.clear();
+        doAnswer(invocation -> {
+            OutboundBatch batch = invocation.getArgument(0);
+            List<OutboundBatch.Entry> entries = batch.entries();
+            List<byte[]> payloads = batch.payloads();
+
+            for (int i = 0; i < entries.size(); i++) {
+                sent.add(new SentMessage(entries.get(i), new String(payloads.get(i), StandardCharsets.UTF_8)));
+            }
+            return List.of();
+        }).when(mockChatServer).sendBatch(any(OutboundBatch.class));
 
         List<MessageHandler> handlers = Arrays.asList(
-                new LoginRequestHandler(userService, objectMapper),
-                new ChatTextHandler(objectMapper, userService)
+                new LoginRequestHandler(userService, sessionRegistry, roomService, codecs),
+                new ChatTextHandler(codecs),
+                new RoomJoinHandler(roomService, codecs),
+                new RoomLeaveHandler(roomService, codecs)
         );
 
-        chatService = new ChatService(mockChatServer, handlers, userService, objectMapper);
+        chatService = new ChatService(mockChatServer, handlers, userService, sessionRegistry, roomService, codecs, (MessageDispatcher) null, null);
     }
 
     @Test
     void testHandleClientConnected() {
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
-        
         // Should not throw exception
-        assertDoesNotThrow(() -> chatService.handleClientConnected(client));
+        assertDoesNotThrow(() -> chatService.handleClientConnected(1, "127.0.0.1"));
+
+        assertNotNull(sessionRegistry.get(1));
+        assertEquals("127.0.0.1", sessionRegistry.get(1).getIpAddr());
     }
 
     @Test
     void testHandleClientDisconnected_LoggedInUser() throws Exception {
         // Login user first
-        userService.login(1, "testuser");
-        
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
+        chatService.handleClientConnected(1, "127.0.0.1");
+        userService.login(sessionRegistry.get(1), "testuser");
         
         try {
-            chatService.handleClientDisconnected(client);
+            chatService.handleClientDisconnected(1);
         } catch (Exception e) {
             // Ignore IOException from mock
         }
         
         assertFalse(userService.isLoggedIn(1));
-        try {
-            verify(mockChatServer, atLeastOnce()).broadcast(
-                    eq(MessageType.MSG_TYPE_USER_LEAVE_NOTICE), 
-                    any(byte[].class), 
-                    eq(-1)
-            );
-        } catch (Exception e) {
-            // Ignore
-        }
+        assertNull(sessionRegistry.get(1));
+        SentMessage leave = sentOf(MessageType.MSG_TYPE_USER_LEAVE_NOTICE).get(0);
+        assertTrue(leave.entry().broadcast());
+        assertEquals(-1, leave.entry().clientId());
+        assertTrue(leave.payload().contains("testuser"));
     }
 
     @Test
     void testHandleClientDisconnected_NotLoggedInUser() {
-        ClientInfo client = TestUtils.createClientInfo(999, "127.0.0.1");
-        
         // Should not throw exception
         try {
-            chatService.handleClientDisconnected(client);
-            verify(mockChatServer, atLeastOnce()).broadcast(
-                    eq(MessageType.MSG_TYPE_USER_LEAVE_NOTICE), 
-                    any(byte[].class), 
-                    eq(-1)
-            );
+            chatService.handleClientDisconnected(999);
+            assertEquals(1, sentOf(MessageType.MSG_TYPE_USER_LEAVE_NOTICE).size());
         } catch (Exception e) {
             // IOException from mock is acceptable
         }
@@ -111,30 +136,85 @@ class ChatServiceTest {
     @Test
     void testHandleMessageReceived_ValidMessage() throws Exception {
         // Login user first
-        userService.login(1, "testuser");
+        chatService.handleClientConnected(1, "127.0.0.1");
+        userService.login(sessionRegistry.get(1), "testuser");
         
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
         ChatTextRequest request = new ChatTextRequest("Hello");
         byte[] payload = objectMapper.writeValueAsBytes(request);
         
-        chatService.handleMessageReceived(client, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), payload);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), payload);
         
-        // Verify broadcast was called
+        // Verify broadcast was queued
         // ChatTextHandler should return HandlerResult.broadcast() which triggers executeHandlerResult
-        verify(mockChatServer, atLeastOnce()).broadcast(
-                eq(MessageType.MSG_TYPE_CHAT_TEXT), 
-                any(byte[].class), 
-                eq(1)
+        SentMessage chat = sentOf(MessageType.MSG_TYPE_CHAT_TEXT).get(0);
+        assertTrue(chat.entry().broadcast());
+        assertEquals(1, chat.entry().clientId());
+        assertTrue(chat.payload().contains("Hello"));
+    }
+
+    @Test
+    void testHandleMessageReceived_CountsOnSession() throws Exception {
+        chatService.handleClientConnected(1, "127.0.0.1");
+        userService.login(sessionRegistry.get(1), "testuser");
+        byte[] payload = objectMapper.writeValueAsBytes(new ChatTextRequest("Hello"));
+
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), payload);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), payload);
+
+        assertEquals(2, sessionRegistry.get(1).getReceivedMessages());
+        assertEquals(2L * payload.length, sessionRegistry.get(1).getReceivedBytes());
+    }
+
+    @Test
+    void testHandleMessageReceived_WithoutSession_Ignored() throws Exception {
+        byte[] payload = "{\"nickname\":\"testuser\"}".getBytes(StandardCharsets.UTF_8);
+
+        // 연결 콜백 없이 들어온 메시지는 핸들러까지 가지 않음
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_USER_LOGIN_REQUEST.getValue(), payload);
+
+        assertFalse(userService.isLoggedIn(1));
+        verifyNoInteractions(mockChatServer);
+    }
+
+    @Test
+    void testHandleMessageReceived_WithDispatcher_CopiesPayloadAndLogsOutAfterMessages() throws Exception {
+        // given
+        when(mockChatServer.setReadPaused(anyInt(), anyBoolean())).thenReturn(true);
+        List<MessageHandler> handlers = Arrays.asList(
+                new LoginRequestHandler(userService, sessionRegistry, roomService, codecs),
+                new ChatTextHandler(codecs)
         );
+
+        try (MessageDispatcher dispatcher = new MessageDispatcher(mockChatServer,
+                Map.of(Bulkhead.CHAT, 2, Bulkhead.FILE, 1), Map.of(Bulkhead.CHAT, 100, Bulkhead.FILE, 100), 100)) {
+            ChatService asyncService = new ChatService(mockChatServer, handlers, userService, sessionRegistry, roomService, codecs, dispatcher, null);
+            asyncService.handleClientConnected(1, "127.0.0.1");
+            userService.login(sessionRegistry.get(1), "testuser");
+            byte[] payload = objectMapper.writeValueAsBytes(new ChatTextRequest("Hello"));
+            ByteBuffer nativeView = ByteBuffer.wrap(payload);
+
+            // when: 콜백이 끝난 뒤 네이티브 버퍼가 덮어써져도 핸들러는 복사본을 읽어야 함
+            asyncService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), nativeView.asReadOnlyBuffer());
+            Arrays.fill(payload, (byte) 0);
+            asyncService.handleClientDisconnected(1);
+
+            // then
+            awaitSent(2);
+            SentMessage chat = sentOf(MessageType.MSG_TYPE_CHAT_TEXT).get(0);
+            assertEquals(1, chat.entry().clientId());
+            assertTrue(chat.payload().contains("Hello"));
+            assertEquals(-1, sentOf(MessageType.MSG_TYPE_USER_LEAVE_NOTICE).get(0).entry().clientId());
+            assertFalse(userService.isLoggedIn(1));
+        }
     }
 
     @Test
     void testHandleMessageReceived_InvalidMessageType() throws Exception {
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
+        chatService.handleClientConnected(1, "127.0.0.1");
         byte[] payload = "test".getBytes(StandardCharsets.UTF_8);
         
         // MSG_TYPE_USER_JOIN_NOTICE is not a valid client message type
-        chatService.handleMessageReceived(client, MessageType.MSG_TYPE_USER_JOIN_NOTICE.getValue(), payload);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_USER_JOIN_NOTICE.getValue(), payload);
         
         verify(mockChatServer, atLeastOnce()).sendToClient(
                 eq(1), 
@@ -145,11 +225,11 @@ class ChatServiceTest {
 
     @Test
     void testHandleMessageReceived_UnknownMessageType() throws Exception {
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
+        chatService.handleClientConnected(1, "127.0.0.1");
         byte[] payload = "test".getBytes(StandardCharsets.UTF_8);
         
         // Unknown message type (999)
-        chatService.handleMessageReceived(client, 999, payload);
+        chatService.handleMessageReceived(1, 999, payload);
         
         verify(mockChatServer, atLeastOnce()).sendToClient(
                 eq(1), 
@@ -158,44 +238,233 @@ class ChatServiceTest {
         );
     }
 
+    @Test
+    void testHandleMessageReceived_OutOfRangeMessageType() throws Exception {
+        chatService.handleClientConnected(1, "127.0.0.1");
+        byte[] payload = "test".getBytes(StandardCharsets.UTF_8);
+
+        // 핸들러 배열 범위 밖의 값도 프로토콜 위반으로 응답
+        chatService.handleMessageReceived(1, -7, payload);
+        chatService.handleMessageReceived(1, 70_000, payload);
+
+        verify(mockChatServer, times(2)).sendToClient(eq(1), eq(MessageType.MSG_TYPE_ERROR_RESPONSE), any(byte[].class));
+    }
+
     @Test
     void testHandleMessageReceived_LoginRequest() throws Exception {
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
+        chatService.handleClientConnected(1, "127.0.0.1");
         String json = "{\"nickname\":\"testuser\"}";
         byte[] payload = json.getBytes(StandardCharsets.UTF_8);
         
-        chatService.handleMessageReceived(client, MessageType.MSG_TYPE_USER_LOGIN_REQUEST.getValue(), payload);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_USER_LOGIN_REQUEST.getValue(), payload);
         
         assertTrue(userService.isLoggedIn(1));
-        verify(mockChatServer, atLeastOnce()).sendToClient(
-                eq(1), 
-                eq(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE), 
-                any(byte[].class)
-        );
-        verify(mockChatServer, atLeastOnce()).broadcast(
-                eq(MessageType.MSG_TYPE_USER_JOIN_NOTICE), 
-                any(byte[].class), 
-                eq(1)
-        );
+
+        // 응답과 입장 공지는 한 번의 배치로 전달됨
+        ArgumentCaptor<OutboundBatch> captor = ArgumentCaptor.forClass(OutboundBatch.class);
+        verify(mockChatServer, times(1)).sendBatch(captor.capture());
+        verify(mockChatServer, never()).sendToClient(anyInt(), any(), any());
+        verify(mockChatServer, never()).broadcast(any(), any(), anyInt());
+
+        List<OutboundBatch.Entry> entries = captor.getValue().entries();
+        assertEquals(2, entries.size());
+        assertFalse(entries.get(0).broadcast());
+        assertEquals(1, entries.get(0).clientId());
+        assertEquals(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE, entries.get(0).type());
+        assertTrue(entries.get(1).broadcast());
+        assertEquals(1, entries.get(1).clientId());
+        assertEquals(MessageType.MSG_TYPE_USER_JOIN_NOTICE, entries.get(1).type());
     }
 
     @Test
     void testHandleMessageReceived_UnauthenticatedChatMessage() throws Exception {
-        ClientInfo client = TestUtils.createClientInfo(1, "127.0.0.1");
+        chatService.handleClientConnected(1, "127.0.0.1");
         ChatTextRequest request = new ChatTextRequest("Hello");
         byte[] payload = objectMapper.writeValueAsBytes(request);
         
         // User not logged in
-        chatService.handleMessageReceived(client, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), payload);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), payload);
         
-        // Verify sendToClient was called with error response
+        // Verify the error response was queued for the sender only
         // ChatTextHandler returns createErrorResponse() for unauthenticated users
         // This should trigger executeHandlerResult with directResponse
-        verify(mockChatServer, atLeastOnce()).sendToClient(
-                eq(1), 
-                eq(MessageType.MSG_TYPE_ERROR_RESPONSE), 
-                any(byte[].class)
-        );
+        SentMessage error = sentOf(MessageType.MSG_TYPE_ERROR_RESPONSE).get(0);
+        assertFalse(error.entry().broadcast());
+        assertEquals(1, error.entry().clientId());
+        assertTrue(error.payload().contains("AUTH_REQUIRED"));
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void testHandleMessageReceived_MixedCodecBroadcast_EncodesOncePerFormat() throws Exception {
+        // given: 1(JSON)이 보내고, 2(BINARY)와 3(JSON)이 받음
+        for (int id = 1; id <= 3; id++) {
+            chatService.handleClientConnected(id, "127.0.0.1");
+            userService.login(sessionRegistry.get(id), "user" + id);
+        }
+        sessionRegistry.switchFormat(sessionRegistry.get(2), WireFormat.BINARY);
+        byte[] payload = objectMapper.writeValueAsBytes(new ChatTextRequest("Hello"));
+
+        // when
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), payload);
+
+        // then: 네이티브 브로드캐스트 대신 연결별 송신 두 건이 한 배치로 나감
+        ArgumentCaptor<OutboundBatch> captor = ArgumentCaptor.forClass(OutboundBatch.class);
+        verify(mockChatServer, times(1)).sendBatch(captor.capture());
         verify(mockChatServer, never()).broadcast(any(), any(), anyInt());
+
+        List<OutboundBatch.Entry> entries = captor.getValue().entries().stream()
+                .sorted(Comparator.comparingInt(OutboundBatch.Entry::clientId))
+                .toList();
+        assertEquals(2, entries.size());
+        assertFalse(entries.get(0).broadcast());
+        assertEquals(2, entries.get(0).clientId());
+        assertEquals(3, entries.get(1).clientId());
+        assertTrue(entries.get(0).payloadLength() < entries.get(1).payloadLength());
+    }
+
+    @Test
+    void testHandleMessageReceived_ChatInRoom_BroadcastsToGroup() throws Exception {
+        // given
+        when(mockChatServer.joinGroup(anyInt(), anyInt())).thenReturn(true);
+        for (int id = 1; id <= 2; id++) {
+            chatService.handleClientConnected(id, "127.0.0.1");
+            userService.login(sessionRegistry.get(id), "user" + id);
+            chatService.handleMessageReceived(id, MessageType.MSG_TYPE_ROOM_JOIN_REQUEST.getValue(),
+                    "{\"room\":\"lobby\"}".getBytes(StandardCharsets.UTF_8));
+        }
+        int groupId = roomService.findRoom("lobby").orElseThrow().getGroupId();
+        verify(mockChatServer).joinGroup(groupId, 1);
+        verify(mockChatServer).joinGroup(groupId, 2);
+        sent.clear();
+
+        // when
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), objectMapper.writeValueAsBytes(new ChatTextRequest("Hello")));
+
+        // then: 전체 브로드캐스트가 아니라 방 그룹 하나로 나감
+        SentMessage chat = sentOf(MessageType.MSG_TYPE_CHAT_TEXT).get(0);
+        assertTrue(chat.entry().broadcast());
+        assertEquals(groupId, chat.entry().groupId());
+        assertEquals(1, chat.entry().clientId());
+        assertTrue(chat.payload().contains("Hello"));
+
+        // 끊긴 멤버는 방에서 빠짐
+        chatService.handleClientDisconnected(2);
+        assertEquals(1, roomService.findRoom("lobby").orElseThrow().size());
+    }
+
+    @Test
+    void testHandleMessageReceived_Login_ReplaysLobbyHistoryAfterResponse() throws Exception {
+        // given: 1이 채팅 두 개를 보낸 뒤 2(JSON)와 3(BINARY)이 로그인
+        chatService.handleClientConnected(1, "127.0.0.1");
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_USER_LOGIN_REQUEST.getValue(), objectMapper.writeValueAsBytes(new UserLoginRequest("user1")));
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), objectMapper.writeValueAsBytes(new ChatTextRequest("first")));
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), objectMapper.writeValueAsBytes(new ChatTextRequest("second")));
+        List<String> broadcasts = sentOf(MessageType.MSG_TYPE_CHAT_TEXT).stream().map(SentMessage::payload).toList();
+        sent.clear();
+
+        // when
+        chatService.handleClientConnected(2, "127.0.0.1");
+        chatService.handleMessageReceived(2, MessageType.MSG_TYPE_USER_LOGIN_REQUEST.getValue(), objectMapper.writeValueAsBytes(new UserLoginRequest("user2")));
+        List<SentMessage> toJsonClient = List.copyOf(sent);
+        sent.clear();
+        chatService.handleClientConnected(3, "127.0.0.1");
+        chatService.handleMessageReceived(3, MessageType.MSG_TYPE_USER_LOGIN_REQUEST.getValue(), objectMapper.writeValueAsBytes(new UserLoginRequest("user3", "binary")));
+
+        // then: 응답, 입장 알림 다음에 기록이 보낸 사람에게만 순서대로, JSON이면 브로드캐스트 때의 바이트 그대로 나감
+        assertEquals(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE, toJsonClient.get(0).entry().type());
+        List<SentMessage> replayed = toJsonClient.stream().filter(message -> message.entry().type() == MessageType.MSG_TYPE_CHAT_TEXT).toList();
+        assertEquals(broadcasts, replayed.stream().map(SentMessage::payload).toList());
+        assertFalse(replayed.get(0).entry().broadcast());
+        assertEquals(2, replayed.get(0).entry().clientId());
+
+        List<SentMessage> binaryReplay = sentOf(MessageType.MSG_TYPE_CHAT_TEXT);
+        assertEquals(2, binaryReplay.size());
+        assertEquals(3, binaryReplay.get(0).entry().clientId());
+        assertTrue(binaryReplay.get(1).payload().contains("second"));
+        assertFalse(binaryReplay.get(1).payload().startsWith("{"));
+    }
+
+    @Test
+    void testHandleMessageReceived_OversizedBatchIsNotRetained() throws Exception {
+        // given
+        chatService.handleClientConnected(1, "127.0.0.1");
+        userService.login(sessionRegistry.get(1), "user1");
+        byte[] small = objectMapper.writeValueAsBytes(new ChatTextRequest("hi"));
+        byte[] large = objectMapper.writeValueAsBytes(new ChatTextRequest("a".repeat(200 * 1024)));
+
+        // when
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), small);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), large);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), small);
+
+        // then: 큰 메시지로 커진 배치는 쓰레드에 남지 않고 다음 전송은 새 배치로 나감
+        ArgumentCaptor<OutboundBatch> captor = ArgumentCaptor.forClass(OutboundBatch.class);
+        verify(mockChatServer, times(3)).sendBatch(captor.capture());
+        List<OutboundBatch> batches = captor.getAllValues();
+        assertSame(batches.get(0), batches.get(1));
+        assertNotSame(batches.get(1), batches.get(2));
+        assertTrue(batches.get(2).capacity() < 200 * 1024);
+    }
+
+    @Test
+    void testHandleMessageReceived_RoomJoin_ReplaysRoomHistory() throws Exception {
+        // given
+        when(mockChatServer.joinGroup(anyInt(), anyInt())).thenReturn(true);
+        for (int id = 1; id <= 2; id++) {
+            chatService.handleClientConnected(id, "127.0.0.1");
+            userService.login(sessionRegistry.get(id), "user" + id);
+        }
+        byte[] joinLobby = "{\"room\":\"lobby\"}".getBytes(StandardCharsets.UTF_8);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_ROOM_JOIN_REQUEST.getValue(), joinLobby);
+        chatService.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), objectMapper.writeValueAsBytes(new ChatTextRequest("in room")));
+        sent.clear();
+
+        // when
+        chatService.handleMessageReceived(2, MessageType.MSG_TYPE_ROOM_JOIN_REQUEST.getValue(), joinLobby);
+
+        // then: 방 기록만 재생되고 로비 기록에는 방 채팅이 남지 않음
+        SentMessage replay = sentOf(MessageType.MSG_TYPE_CHAT_TEXT).get(0);
+        assertEquals(2, replay.entry().clientId());
+        assertTrue(replay.payload().contains("in room"));
+        assertTrue(roomService.getLobbyHistory().isEmpty());
     }
+
+    @Test
+    void testHandleMessageReceived_Chat_AppendsBroadcastToJournal(@TempDir Path journalDirectory) throws Exception {
+        // given
+        List<MessageHandler> handlers = List.of(new ChatTextHandler(codecs));
+
+        try (ChatJournal journal = ChatJournal.open(ChatJournal.Options.defaults(journalDirectory))) {
+            ChatService journaled = new ChatService(mockChatServer, handlers, userService, sessionRegistry, roomService, codecs, null, journal);
+            journaled.handleClientConnected(1, "127.0.0.1");
+            userService.login(sessionRegistry.get(1), "user1");
+
+            // when
+            journaled.handleMessageReceived(1, MessageType.MSG_TYPE_CHAT_TEXT.getValue(), objectMapper.writeValueAsBytes(new ChatTextRequest("Hello")));
+            journal.close();
+
+            // then: 브로드캐스트에 쓴 JSON이 그대로 저널에 남음
+            List<JournalRecord> records = journal.read(0, 10);
+            assertEquals(1, records.size());
+            assertEquals(-1, records.get(0).groupId());
+            assertEquals(MessageType.MSG_TYPE_CHAT_TEXT, records.get(0).type());
+            assertEquals(sentOf(MessageType.MSG_TYPE_CHAT_TEXT).get(0).payload(), new String(records.get(0).payload(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, sent.size());
+    }
+
+    private List<SentMessage> sentOf(MessageType type) {
+        return sent.stream().filter(message -> message.entry().type() == type).toList();
+    }
+
+    private record SentMessage(OutboundBatch.Entry entry, String payload) {}
 }
@@ -1,13 +1,19 @@
 package project.java_chat_server.service;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import project.java_chat_server.domain.FileTransferSession;
+import project.java_chat_server.service.upload.ChecksumAlgorithm;
+import project.java_chat_server.service.upload.ReceivedBlocks;
+import project.java_chat_server.service.upload.UploadCheckpoint;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.CRC32C;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,6 +30,11 @@ class FileTransferServiceTest {
         fileTransferService.init();
     }
 
+    @AfterEach
+    void tearDown() {
+        fileTransferService.shutdown();
+    }
+
     @Test
     void testStartFileTransfer_Success() throws IOException {
         int clientId = 1;
@@ -42,16 +53,39 @@ class FileTransferServiceTest {
     }
 
     @Test
-    void testStartFileTransfer_Duplicate() throws IOException {
+    void testStartFileTransfer_LimitPerClient() throws IOException {
         int clientId = 1;
-        String fileName = "test.txt";
-        long fileSize = 1024;
 
-        fileTransferService.startFileTransfer(clientId, fileName, fileSize);
+        for (int i = 0; i < FileTransferService.DEFAULT_MAX_TRANSFERS_PER_CLIENT; i++) {
+            fileTransferService.startFileTransfer(clientId, "file" + i + ".txt", 1024);
+        }
+        assertEquals(FileTransferService.DEFAULT_MAX_TRANSFERS_PER_CLIENT, fileTransferService.getTransferCount(clientId));
 
         assertThrows(IOException.class, () -> {
             fileTransferService.startFileTransfer(clientId, "another.txt", 2048);
         });
+        // 동시에 여러 개면 어느 것인지 모르므로 id 없이 찾으면 null
+        assertNull(fileTransferService.getSession(clientId));
+    }
+
+    @Test
+    void testProcessFileChunk_DirectByteBufferView() throws IOException {
+        int clientId = 1;
+        fileTransferService.startFileTransfer(clientId, "view.bin", 6);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(8);
+        direct.put(new byte[]{9, 1, 2, 3, 4, 5, 6, 9}).position(1).limit(7);
+        ByteBuffer view = direct.asReadOnlyBuffer();
+
+        fileTransferService.processFileChunk(clientId, view);
+
+        // 호출자의 position은 그대로이고, 남은 6바이트만 기록됨
+        assertEquals(1, view.position());
+        FileTransferSession session = fileTransferService.getSession(clientId);
+        assertTrue(session.isCompleted());
+        // 파일에는 쓰기 쓰레드가 쓰므로 끝날 때까지 기다린 뒤 확인
+        session.awaitWrites();
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, Files.readAllBytes(session.getFilePath()));
     }
 
     @Test
@@ -73,6 +107,75 @@ class FileTransferServiceTest {
         assertEquals(fileSize, session.getReceivedBytes());
     }
 
+    @Test
+    void testStartFileTransfer_PreallocatesDeclaredSize() throws IOException {
+        fileTransferService.startFileTransfer(1, "big.bin", 1_000_000);
+
+        FileTransferSession session = fileTransferService.getSession(1);
+        assertTrue(session.getChannel().isOpen());
+        assertEquals(1_000_000, Files.size(session.getFilePath()));
+    }
+
+    @Test
+    void testStartFileTransfer_FailureLeavesNoFiles() throws IOException {
+        // 블록 수가 int를 넘는 크기: 미리 늘리기나 비트맵 만들기 중 어디서 실패하든 파일이 남지 않아야 함
+        long tooLarge = (Integer.MAX_VALUE + 1L) * ReceivedBlocks.BLOCK_BYTES;
+
+        assertThrows(Exception.class, () -> fileTransferService.startFileTransfer(1, null, "huge.bin", tooLarge, ChecksumAlgorithm.SHA256));
+
+        assertEquals(0, fileTransferService.getTransferCount(1));
+        try (var files = Files.list(tempDir.resolve("incoming"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testProcessFileChunk_AggregatesAcrossBuffers() throws Exception {
+        // 버퍼 16바이트, 큐 1칸: 조각이 버퍼 경계에 걸치고, 큐가 차면 호출한 쓰레드가 직접 씀
+        FileTransferService small = new FileTransferService(tempDir.resolve("small").toString(), 16, 1);
+        small.init();
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        try {
+            small.startFileTransfer(1, "chunks.bin", content.length);
+            for (int offset = 0; offset < content.length; offset += 7) {
+                small.processFileChunk(1, ByteBuffer.wrap(content, offset, Math.min(7, content.length - offset)));
+            }
+            FileTransferSession session = small.endFileTransfer(1, org.apache.commons.codec.digest.DigestUtils.sha256Hex(content));
+
+            assertArrayEquals(content, Files.readAllBytes(session.getStoredPath()));
+            assertTrue(small.getUploadWriter().getWriteCalls() >= content.length / 16);
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void testProcessFileChunk_RejectsBytesBeyondDeclaredSize() throws IOException {
+        fileTransferService.startFileTransfer(1, "test.txt", 10);
+        fileTransferService.processFileChunk(1, new byte[8]);
+
+        assertThrows(IOException.class, () -> fileTransferService.processFileChunk(1, new byte[3]));
+        assertEquals(8, fileTransferService.getSession(1).getReceivedBytes());
+    }
+
+    @Test
+    void testEndFileTransfer_WriteFailureDeletesFile() throws IOException {
+        byte[] content = "Hello, World!".getBytes();
+        fileTransferService.startFileTransfer(1, "test.txt", content.length);
+        FileTransferSession session = fileTransferService.getSession(1);
+        session.getChannel().close();
+
+        fileTransferService.processFileChunk(1, content);
+
+        assertThrows(IOException.class, () -> fileTransferService.endFileTransfer(1, org.apache.commons.codec.digest.DigestUtils.sha256Hex(content)));
+        assertNull(fileTransferService.getSession(1));
+        assertFalse(Files.exists(session.getFilePath()));
+    }
+
     @Test
     void testProcessFileChunk_NoSession() {
         int clientId = 999;
@@ -108,6 +211,32 @@ class FileTransferServiceTest {
         assertNull(fileTransferService.getSession(clientId));
     }
 
+    @Test
+    void testEndFileTransfer_Crc32cComputedFromChunks() throws Exception {
+        byte[] fileContent = "Hello, World!".getBytes();
+        fileTransferService.startFileTransfer(1, "test.txt", fileContent.length, ChecksumAlgorithm.CRC32C);
+        fileTransferService.processFileChunk(1, java.util.Arrays.copyOfRange(fileContent, 0, 5));
+        fileTransferService.processFileChunk(1, java.util.Arrays.copyOfRange(fileContent, 5, fileContent.length));
+
+        CRC32C crc = new CRC32C();
+        crc.update(fileContent);
+        // 대소문자는 가리지 않음
+        String checksum = String.format("%08X", crc.getValue());
+
+        FileTransferSession session = fileTransferService.endFileTransfer(1, checksum);
+        assertEquals(ChecksumAlgorithm.CRC32C, session.getChecksumAlgorithm());
+        assertArrayEquals(fileContent, Files.readAllBytes(session.getStoredPath()));
+    }
+
+    @Test
+    void testEndFileTransfer_ChecksumOfOtherAlgorithmFails() throws Exception {
+        byte[] fileContent = "Hello, World!".getBytes();
+        fileTransferService.startFileTransfer(1, "test.txt", fileContent.length, ChecksumAlgorithm.CRC32C);
+        fileTransferService.processFileChunk(1, fileContent);
+
+        assertThrows(IOException.class, () -> fileTransferService.endFileTransfer(1, org.apache.commons.codec.digest.DigestUtils.sha256Hex(fileContent)));
+    }
+
     @Test
     void testEndFileTransfer_InvalidChecksum() throws Exception {
         int clientId = 1;
@@ -174,6 +303,19 @@ class FileTransferServiceTest {
         assertFalse(Files.exists(filePath));
     }
 
+    @Test
+    void testCancelFileTransfer_MidUploadClosesChannel() throws IOException {
+        fileTransferService.startFileTransfer(1, "test.txt", 1024);
+        fileTransferService.processFileChunk(1, new byte[100]);
+        FileTransferSession session = fileTransferService.getSession(1);
+
+        fileTransferService.cancelFileTransfer(1, "Test cancellation");
+
+        assertFalse(session.getChannel().isOpen());
+        assertNull(session.getBuffer());
+        assertFalse(Files.exists(session.getFilePath()));
+    }
+
     @Test
     void testCancelFileTransfer_NoSession() {
         int clientId = 999;
@@ -211,4 +353,228 @@ class FileTransferServiceTest {
         assertNotNull(fileTransferService.getSession(2));
         assertNotNull(fileTransferService.getSession(3));
     }
+
+    @Test
+    void testSuspendAndResume_ContinuesFromReceivedBytes() throws IOException {
+        byte[] content = new byte[1000];
+        new java.util.Random(7).nextBytes(content);
+        FileTransferSession started = fileTransferService.startFileTransfer(1, "owner", "resume.bin", content.length, ChecksumAlgorithm.SHA256);
+        fileTransferService.processFileChunk(1, ByteBuffer.wrap(content, 0, 400));
+
+        fileTransferService.suspendFileTransfer(1);
+
+        assertNull(fileTransferService.getSession(1));
+        assertTrue(Files.exists(UploadCheckpoint.sidecarOf(started.getFilePath())));
+        assertEquals(400, UploadCheckpoint.read(UploadCheckpoint.sidecarOf(started.getFilePath())).receivedBytes());
+
+        FileTransferSession resumed = fileTransferService.resumeFileTransfer(2, started.getUploadId(), "owner", "resume.bin", content.length, ChecksumAlgorithm.SHA256);
+        assertEquals(400, resumed.getReceivedBytes());
+        fileTransferService.processFileChunk(2, ByteBuffer.wrap(content, 400, 600));
+        FileTransferSession ended = fileTransferService.endFileTransfer(2, org.apache.commons.codec.digest.DigestUtils.sha256Hex(content));
+
+        assertArrayEquals(content, Files.readAllBytes(ended.getStoredPath()));
+        assertFalse(Files.exists(UploadCheckpoint.sidecarOf(started.getFilePath())));
+    }
+
+    @Test
+    void testResume_AfterRestartRebuildsChecksumFromPartialFile() throws IOException {
+        byte[] content = new byte[3000];
+        new java.util.Random(11).nextBytes(content);
+        FileTransferSession started = fileTransferService.startFileTransfer(1, "owner", "restart.bin", content.length, ChecksumAlgorithm.CRC32C);
+        fileTransferService.processFileChunk(1, ByteBuffer.wrap(content, 0, 1234));
+        fileTransferService.shutdown();
+
+        fileTransferService = new FileTransferService(tempDir.toString());
+        fileTransferService.init();
+        assertEquals(1, fileTransferService.getSuspendedUploadCount());
+
+        FileTransferSession resumed = fileTransferService.resumeFileTransfer(1, started.getUploadId(), "owner", "restart.bin", content.length, ChecksumAlgorithm.CRC32C);
+        assertEquals(1234, resumed.getReceivedBytes());
+        fileTransferService.processFileChunk(1, ByteBuffer.wrap(content, 1234, content.length - 1234));
+
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        FileTransferSession ended = fileTransferService.endFileTransfer(1, String.format("%08x", crc.getValue()));
+        assertArrayEquals(content, Files.readAllBytes(ended.getStoredPath()));
+        // CRC32C로 확인한 업로드도 저장소에는 SHA-256으로 들어갑니다.
+        assertEquals(org.apache.commons.codec.digest.DigestUtils.sha256Hex(content), ended.getContentDigest());
+    }
+
+    @Test
+    void testResume_RejectsMismatchedUpload() throws IOException {
+        FileTransferSession started = fileTransferService.startFileTransfer(1, "owner", "a.bin", 100, ChecksumAlgorithm.SHA256);
+        fileTransferService.suspendFileTransfer(1);
+
+        assertThrows(FileTransferService.UploadNotResumableException.class,
+                () -> fileTransferService.resumeFileTransfer(2, started.getUploadId(), "someone", "a.bin", 100, ChecksumAlgorithm.SHA256));
+        assertThrows(FileTransferService.UploadNotResumableException.class,
+                () -> fileTransferService.resumeFileTransfer(2, started.getUploadId(), "owner", "a.bin", 101, ChecksumAlgorithm.SHA256));
+        assertThrows(FileTransferService.UploadNotResumableException.class,
+                () -> fileTransferService.resumeFileTransfer(2, "unknown", "owner", "a.bin", 100, ChecksumAlgorithm.SHA256));
+
+        // 맞지 않는 요청으로는 멈춘 업로드가 없어지지 않습니다.
+        assertEquals(1, fileTransferService.getSuspendedUploadCount());
+        assertNotNull(fileTransferService.resumeFileTransfer(2, started.getUploadId(), "owner", "a.bin", 100, ChecksumAlgorithm.SHA256));
+    }
+
+    @Test
+    void testSweepExpiredUploads_DeletesPartialAndSidecar() throws IOException {
+        FileTransferSession started = fileTransferService.startFileTransfer(1, "owner", "old.bin", 100, ChecksumAlgorithm.SHA256);
+        fileTransferService.suspendFileTransfer(1);
+
+        assertEquals(0, fileTransferService.sweepExpiredUploads(System.currentTimeMillis()));
+        assertEquals(1, fileTransferService.sweepExpiredUploads(System.currentTimeMillis() + java.util.concurrent.TimeUnit.MINUTES.toMillis(FileTransferService.DEFAULT_RESUME_TTL_MINUTES)));
+
+        assertEquals(0, fileTransferService.getSuspendedUploadCount());
+        assertFalse(Files.exists(started.getFilePath()));
+        assertFalse(Files.exists(UploadCheckpoint.sidecarOf(started.getFilePath())));
+    }
+
+    @Test
+    void testCancel_DeletesSidecar() throws IOException {
+        FileTransferSession started = fileTransferService.startFileTransfer(1, "owner", "c.bin", 100, ChecksumAlgorithm.SHA256);
+        assertTrue(Files.exists(UploadCheckpoint.sidecarOf(started.getFilePath())));
+
+        fileTransferService.cancelFileTransfer(1, "test");
+
+        assertFalse(Files.exists(UploadCheckpoint.sidecarOf(started.getFilePath())));
+    }
+
+    @Test
+    void testEndFileTransfer_StoresByDigestAndRecordsManifest() throws IOException {
+        byte[] content = "same bytes".getBytes();
+        String digest = org.apache.commons.codec.digest.DigestUtils.sha256Hex(content);
+
+        fileTransferService.startFileTransfer(1, "alice", "a.txt", content.length, ChecksumAlgorithm.SHA256);
+        fileTransferService.processFileChunk(1, content);
+        FileTransferSession first = fileTransferService.endFileTransfer(1, digest);
+
+        fileTransferService.startFileTransfer(2, "bob", "b.txt", content.length, ChecksumAlgorithm.SHA256);
+        fileTransferService.processFileChunk(2, content);
+        FileTransferSession second = fileTransferService.endFileTransfer(2, digest);
+
+        Path expected = tempDir.resolve("objects").resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4)).resolve(digest);
+        assertEquals(expected, first.getStoredPath());
+        assertEquals(expected, second.getStoredPath());
+        assertFalse(Files.exists(second.getFilePath()));
+        assertArrayEquals(content, Files.readAllBytes(expected));
+
+        assertEquals(2, fileTransferService.getManifest().size());
+        assertEquals(digest, fileTransferService.getManifest().findLatest("bob", "b.txt").orElseThrow().digest());
+    }
+
+    @Test
+    void testCompleteFromStore_SkipsKnownDigest() throws IOException {
+        byte[] content = "known".getBytes();
+        String digest = org.apache.commons.codec.digest.DigestUtils.sha256Hex(content);
+
+        assertNull(fileTransferService.completeFromStore(1, "alice", "k.txt", content.length, digest));
+
+        fileTransferService.startFileTransfer(1, "alice", "k.txt", content.length, ChecksumAlgorithm.SHA256);
+        fileTransferService.processFileChunk(1, content);
+        fileTransferService.endFileTransfer(1, digest);
+
+        // 크기가 다르면 가지고 있다고 보지 않습니다.
+        assertNull(fileTransferService.completeFromStore(2, "bob", "k.txt", content.length + 1, digest));
+        assertEquals(fileTransferService.getContentStore().pathOf(digest), fileTransferService.completeFromStore(2, "bob", "copy.txt", content.length, digest));
+        assertNull(fileTransferService.getSession(2));
+        assertEquals(digest, fileTransferService.getManifest().findLatest("bob", "copy.txt").orElseThrow().digest());
+    }
+
+    @Test
+    void testPositionalChunks_TwoUploadsOutOfOrder() throws IOException {
+        final int block = ReceivedBlocks.BLOCK_BYTES;
+        byte[] first = randomBytes(block * 3 + 100, 1);
+        byte[] second = randomBytes(block * 2, 2);
+
+        FileTransferSession a = fileTransferService.startFileTransfer(1, "alice", "a.bin", first.length, ChecksumAlgorithm.CRC32C);
+        FileTransferSession b = fileTransferService.startFileTransfer(1, "alice", "b.bin", second.length, ChecksumAlgorithm.SHA256);
+
+        // 두 파일의 블록을 섞어서, 각 파일 안에서는 거꾸로 보냅니다.
+        sendAt(a, first, 3 * block, first.length);
+        sendAt(b, second, block, 2 * block);
+        sendAt(a, first, block, 3 * block);
+        sendAt(b, second, 0, block);
+        sendAt(a, first, 0, block);
+
+        assertEquals(first.length, a.getReceivedBytes());
+        assertTrue(a.isCompleted());
+        assertTrue(b.isCompleted());
+
+        CRC32C crc = new CRC32C();
+        crc.update(first);
+        FileTransferSession endedA = fileTransferService.endFileTransfer(1, a.getUploadId(), String.format("%08x", crc.getValue()));
+        FileTransferSession endedB = fileTransferService.endFileTransfer(1, b.getUploadId(), org.apache.commons.codec.digest.DigestUtils.sha256Hex(second));
+
+        assertArrayEquals(first, Files.readAllBytes(endedA.getStoredPath()));
+        assertArrayEquals(second, Files.readAllBytes(endedB.getStoredPath()));
+        assertEquals(0, fileTransferService.getTransferCount(1));
+    }
+
+    @Test
+    void testPositionalChunks_RetransmitDoesNotDoubleCount() throws IOException {
+        final int block = ReceivedBlocks.BLOCK_BYTES;
+        byte[] content = randomBytes(block * 2, 3);
+        FileTransferSession session = fileTransferService.startFileTransfer(1, null, "r.bin", content.length, ChecksumAlgorithm.SHA256);
+
+        sendAt(session, content, block, 2 * block);
+        sendAt(session, content, block, 2 * block);
+        assertEquals(block, session.getReceivedBytes());
+
+        sendAt(session, content, 0, block);
+        assertEquals(content.length, session.getReceivedBytes());
+        assertArrayEquals(content, Files.readAllBytes(fileTransferService.endFileTransfer(1, session.getUploadId(),
+                org.apache.commons.codec.digest.DigestUtils.sha256Hex(content)).getStoredPath()));
+    }
+
+    @Test
+    void testEndFileTransfer_IncompletePositionalReportsMissingRanges() throws IOException {
+        final int block = ReceivedBlocks.BLOCK_BYTES;
+        byte[] content = randomBytes(block * 4, 4);
+        FileTransferSession session = fileTransferService.startFileTransfer(1, null, "m.bin", content.length, ChecksumAlgorithm.SHA256);
+        String checksum = org.apache.commons.codec.digest.DigestUtils.sha256Hex(content);
+
+        sendAt(session, content, 0, block);
+        sendAt(session, content, 2 * block, 3 * block);
+
+        FileTransferService.IncompleteUploadException e = assertThrows(FileTransferService.IncompleteUploadException.class,
+                () -> fileTransferService.endFileTransfer(1, session.getUploadId(), checksum));
+        assertEquals(2, e.getMissingRanges().size());
+        assertArrayEquals(new long[]{block, 2L * block}, e.getMissingRanges().get(0));
+        assertArrayEquals(new long[]{3L * block, 4L * block}, e.getMissingRanges().get(1));
+
+        // 업로드는 남아 있으므로 빠진 부분만 다시 보내면 끝낼 수 있습니다.
+        assertSame(session, fileTransferService.getSession(1, session.getUploadId()));
+        sendAt(session, content, block, 2 * block);
+        sendAt(session, content, 3 * block, 4 * block);
+        assertArrayEquals(content, Files.readAllBytes(fileTransferService.endFileTransfer(1, session.getUploadId(), checksum).getStoredPath()));
+    }
+
+    @Test
+    void testPositionalChunk_RejectsMisalignedOffset() throws IOException {
+        FileTransferSession session = fileTransferService.startFileTransfer(1, null, "x.bin", ReceivedBlocks.BLOCK_BYTES * 2, ChecksumAlgorithm.SHA256);
+
+        assertThrows(IOException.class, () -> fileTransferService.processFileChunk(1, session.getUploadId(), 100, ByteBuffer.wrap(new byte[10])));
+        assertThrows(IOException.class, () -> fileTransferService.processFileChunk(1, "unknown", 0, ByteBuffer.wrap(new byte[10])));
+        assertEquals(0, session.getReceivedBytes());
+    }
+
+    @Test
+    void testStreamChunk_RequiresSingleTransfer() throws IOException {
+        fileTransferService.startFileTransfer(1, "one.txt", 10);
+        fileTransferService.startFileTransfer(1, "two.txt", 10);
+
+        // 헤더 없는 조각은 어느 업로드의 것인지 알 수 없음
+        assertThrows(IOException.class, () -> fileTransferService.processFileChunk(1, new byte[5]));
+    }
+
+    private void sendAt(FileTransferSession session, byte[] content, int from, int to) throws IOException {
+        fileTransferService.processFileChunk(1, session.getUploadId(), from, ByteBuffer.wrap(content, from, to - from));
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new java.util.Random(seed).nextBytes(bytes);
+        return bytes;
+    }
 }
@@ -0,0 +1,106 @@
+package project.java_chat_server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.domain.ChatRoom;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.wrapper_library.ChatServer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class RoomServiceTest {
+
+    private ChatServer mockChatServer;
+    private RoomService roomService;
+
+    @BeforeEach
+    void setUp() {
+        mockChatServer = mock(ChatServer.class);
+        when(mockChatServer.joinGroup(anyInt(), anyInt())).thenReturn(true);
+        when(mockChatServer.leaveGroup(anyInt(), anyInt())).thenReturn(true);
+        roomService = new RoomService(mockChatServer);
+    }
+
+    @Test
+    void testJoin_CreatesRoomAndJoinsNativeGroup() throws Exception {
+        ConnectionSession first = TestUtils.createSession(1, "127.0.0.1");
+        ConnectionSession second = TestUtils.createSession(2, "127.0.0.1");
+
+        ChatRoom room = roomService.join(first, "lobby");
+
+        assertSame(room, roomService.join(second, "lobby"));
+        assertSame(room, first.getRoom());
+        assertEquals(2, room.size());
+        assertEquals(1, roomService.getRoomCount());
+        assertSame(room, roomService.findByGroupId(room.getGroupId()));
+        verify(mockChatServer).joinGroup(room.getGroupId(), 1);
+        verify(mockChatServer).joinGroup(room.getGroupId(), 2);
+    }
+
+    @Test
+    void testJoin_OtherRoomLeavesCurrentOne() throws Exception {
+        ConnectionSession session = TestUtils.createSession(1, "127.0.0.1");
+        ChatRoom lobby = roomService.join(session, "lobby");
+
+        ChatRoom games = roomService.join(session, "games");
+
+        assertSame(games, session.getRoom());
+        assertNotEquals(lobby.getGroupId(), games.getGroupId());
+        // 마지막 멤버가 나간 방은 지워짐
+        assertTrue(roomService.findRoom("lobby").isEmpty());
+        assertNull(roomService.findByGroupId(lobby.getGroupId()));
+        verify(mockChatServer).leaveGroup(lobby.getGroupId(), 1);
+    }
+
+    @Test
+    void testJoin_InvalidOrSameRoomRejected() throws Exception {
+        ConnectionSession session = TestUtils.createSession(1, "127.0.0.1");
+
+        assertThrows(RoomService.RoomException.class, () -> roomService.join(session, null));
+        assertThrows(RoomService.RoomException.class, () -> roomService.join(session, ""));
+        assertThrows(RoomService.RoomException.class, () -> roomService.join(session, "has space"));
+        assertThrows(RoomService.RoomException.class, () -> roomService.join(session, "a".repeat(31)));
+
+        roomService.join(session, "lobby");
+        assertThrows(RoomService.RoomException.class, () -> roomService.join(session, "lobby"));
+        assertEquals(1, roomService.findRoom("lobby").orElseThrow().size());
+    }
+
+    @Test
+    void testLeave_WithoutRoom_ReturnsEmpty() {
+        assertTrue(roomService.leave(TestUtils.createSession(1, "127.0.0.1")).isEmpty());
+        verifyNoInteractions(mockChatServer);
+    }
+
+    @Test
+    void testOnDisconnect_AlsoLeavesNativeGroup() throws Exception {
+        ConnectionSession first = TestUtils.createSession(1, "127.0.0.1");
+        ConnectionSession second = TestUtils.createSession(2, "127.0.0.1");
+        ChatRoom room = roomService.join(first, "lobby");
+        roomService.join(second, "lobby");
+
+        roomService.onDisconnect(first);
+
+        assertNull(first.getRoom());
+        assertEquals(1, room.size());
+        assertFalse(room.getMemberIds().contains(1));
+        // 소켓이 닫힌 뒤 처리된 입장 명령이 같은 fd의 새 연결을 그룹에 넣었을 수 있으므로 네이티브에서도 뺌
+        verify(mockChatServer).leaveGroup(room.getGroupId(), 1);
+        verify(mockChatServer, never()).leaveGroup(room.getGroupId(), 2);
+    }
+
+    @Test
+    void testJoin_NativeJoinFailureRollsBack() {
+        ConnectionSession session = TestUtils.createSession(1, "127.0.0.1");
+        when(mockChatServer.joinGroup(anyInt(), anyInt())).thenReturn(false);
+
+        assertThrows(RoomService.RoomException.class, () -> roomService.join(session, "lobby"));
+
+        assertNull(session.getRoom());
+        assertTrue(roomService.findRoom("lobby").isEmpty());
+        assertEquals(0, roomService.getRoomCount());
+    }
+}
@@ -0,0 +1,104 @@
+package project.java_chat_server.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.service.codec.WireFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRegistryTest {
+
+    private SessionRegistry sessionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        sessionRegistry = new SessionRegistry();
+    }
+
+    @Test
+    void testOpen_ThenGetReturnsSameSession() {
+        ConnectionSession session = sessionRegistry.open(7, "10.0.0.1");
+
+        assertSame(session, sessionRegistry.get(7));
+        assertEquals(7, session.getClientId());
+        assertEquals("10.0.0.1", session.getIpAddr());
+        assertFalse(session.isAuthenticated());
+        assertEquals(1, sessionRegistry.size());
+    }
+
+    @Test
+    void testClose_RemovesSession() {
+        ConnectionSession session = sessionRegistry.open(7, "10.0.0.1");
+
+        assertTrue(sessionRegistry.close(session));
+        assertNull(sessionRegistry.get(7));
+        assertFalse(sessionRegistry.close(session));
+        assertEquals(0, sessionRegistry.size());
+    }
+
+    @Test
+    void testClose_StaleSessionKeepsNewOne() {
+        ConnectionSession first = sessionRegistry.open(7, "10.0.0.1");
+        sessionRegistry.close(first);
+        ConnectionSession second = sessionRegistry.open(7, "10.0.0.2");
+
+        // 늦게 실행된 이전 연결의 해제 처리가 새 연결의 세션을 지우면 안 됨
+        assertFalse(sessionRegistry.close(first));
+        assertSame(second, sessionRegistry.get(7));
+        assertEquals(1, sessionRegistry.size());
+    }
+
+    @Test
+    void testOpen_ReusedFdReplacesStaleSession() {
+        ConnectionSession first = sessionRegistry.open(7, "10.0.0.1");
+        first.authenticate("olduser");
+
+        // 연결 해제가 유실된 채 같은 fd가 다시 쓰이면 이전 로그인 상태를 물려받지 않아야 함
+        ConnectionSession second = sessionRegistry.open(7, "10.0.0.2");
+
+        assertNotSame(first, second);
+        assertSame(second, sessionRegistry.get(7));
+        assertFalse(second.isAuthenticated());
+        assertEquals(1, sessionRegistry.size());
+    }
+
+    @Test
+    void testOutOfRangeClientId() {
+        assertNull(sessionRegistry.get(-1));
+        assertNull(sessionRegistry.get(SessionRegistry.MAX_CLIENT_ID));
+        assertThrows(IllegalArgumentException.class, () -> sessionRegistry.open(SessionRegistry.MAX_CLIENT_ID, "10.0.0.1"));
+    }
+
+    @Test
+    void testLogin_AuthenticatesSession() throws UserService.UserLoginException {
+        UserService userService = new UserService();
+        ConnectionSession session = sessionRegistry.open(3, "127.0.0.1");
+
+        userService.login(session, "tester");
+
+        assertTrue(session.isAuthenticated());
+        assertEquals("tester", session.requireNickname());
+        assertEquals("tester", userService.getNickname(3).orElse(null));
+    }
+
+    @Test
+    void testSwitchFormat_TracksNonJsonSessions() {
+        ConnectionSession json = sessionRegistry.open(1, "10.0.0.1");
+        ConnectionSession binary = sessionRegistry.open(2, "10.0.0.2");
+        assertTrue(sessionRegistry.isAllJson());
+
+        sessionRegistry.switchFormat(binary, WireFormat.BINARY);
+        sessionRegistry.switchFormat(binary, WireFormat.BINARY);
+
+        assertEquals(WireFormat.BINARY, binary.getWireFormat());
+        assertFalse(sessionRegistry.isAllJson());
+        assertEquals(2, sessionRegistry.getOpenSessions().size());
+
+        // 바이너리 세션이 닫히면 다시 네이티브 브로드캐스트를 쓸 수 있어야 함
+        sessionRegistry.close(binary);
+        assertTrue(sessionRegistry.isAllJson());
+        assertEquals(1, sessionRegistry.getOpenSessions().size());
+        assertTrue(sessionRegistry.getOpenSessions().contains(json));
+    }
+}
@@ -3,8 +3,16 @@ package project.java_chat_server.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -149,4 +157,73 @@ class UserServiceTest {
         assertFalse(userIds.contains(2));
         assertFalse(nicknames.contains("user2"));
     }
+
+    @Test
+    void testLogin_InvalidNickname() {
+        for (String nickname : new String[]{null, "ab", "a".repeat(16), "user_1", "닉네임닉네임", "user 1"}) {
+            assertThrows(UserService.UserLoginException.class, () -> userService.login(1, nickname), String.valueOf(nickname));
+        }
+        assertFalse(userService.isLoggedIn(1));
+    }
+
+    @Test
+    void testLogout_ReleasesNickname() throws UserService.UserLoginException {
+        userService.login(1, "testuser");
+        userService.logout(1);
+
+        assertDoesNotThrow(() -> userService.login(2, "testuser"));
+        assertEquals(2, userService.getClientId("testuser").orElse(null));
+    }
+
+    @Test
+    void testLogin_RejectedLoginDoesNotClaimNickname() throws UserService.UserLoginException {
+        userService.login(1, "user1");
+
+        assertThrows(UserService.UserLoginException.class, () -> userService.login(1, "user2"));
+        assertTrue(userService.getClientId("user2").isEmpty());
+        assertDoesNotThrow(() -> userService.login(2, "user2"));
+    }
+
+    @Test
+    void testGetClientId() throws UserService.UserLoginException {
+        userService.login(7, "seven");
+
+        assertEquals(7, userService.getClientId("seven").orElse(null));
+        assertTrue(userService.getClientId("Seven").isEmpty());
+    }
+
+    @Test
+    void testLogin_ConcurrentSameNickname_OnlyOneWins() throws Exception {
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int clientId = i + 1;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        userService.login(clientId, "samename");
+                        succeeded.incrementAndGet();
+                    } catch (UserService.UserLoginException ignored) {
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, succeeded.get());
+        assertEquals(1, userService.getUserIds().size());
+        int winner = userService.getUserIds().iterator().next();
+        assertEquals(winner, userService.getClientId("samename").orElse(null));
+    }
 }
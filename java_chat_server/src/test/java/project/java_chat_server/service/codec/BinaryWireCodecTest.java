@@ -0,0 +1,159 @@
+package project.java_chat_server.service.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
+import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.dto.common.ErrorResponse;
+import project.java_chat_server.dto.common.SystemNoticeBroadcast;
+import project.java_chat_server.dto.file.FileEndBroadcast;
+import project.java_chat_server.dto.file.FileEndRequest;
+import project.java_chat_server.dto.file.FileStartBroadcast;
+import project.java_chat_server.dto.file.FileStartRequest;
+import project.java_chat_server.dto.room.RoomJoinRequest;
+import project.java_chat_server.dto.user.UserJoinBroadcast;
+import project.java_chat_server.dto.user.UserLeaveBroadcast;
+import project.java_chat_server.dto.user.UserLoginRequest;
+import project.java_chat_server.dto.user.UserLoginResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryWireCodecTest {
+
+    private final BinaryWireCodec codec = new BinaryWireCodec();
+
+    private <T> T roundTrip(Object message, Class<T> type) throws IOException {
+        return codec.decode(ByteBuffer.wrap(codec.encode(message)).asReadOnlyBuffer(), type);
+    }
+
+    @Test
+    void testRoundTrip_Requests() throws IOException {
+        assertEquals(new ChatTextRequest("안녕하세요 hello"), roundTrip(new ChatTextRequest("안녕하세요 hello"), ChatTextRequest.class));
+        assertEquals(new UserLoginRequest("tester", "binary"), roundTrip(new UserLoginRequest("tester", "binary"), UserLoginRequest.class));
+        assertEquals(new FileStartRequest("a.bin", 5_000_000_000L), roundTrip(new FileStartRequest("a.bin", 5_000_000_000L), FileStartRequest.class));
+        assertEquals(new RoomJoinRequest("lobby"), roundTrip(new RoomJoinRequest("lobby"), RoomJoinRequest.class));
+        assertEquals(new FileStartRequest("a.bin", 1, "crc32c"), roundTrip(new FileStartRequest("a.bin", 1, "crc32c"), FileStartRequest.class));
+        assertEquals(new FileStartRequest("a.bin", 1, null, "0f1e"), roundTrip(new FileStartRequest("a.bin", 1, null, "0f1e"), FileStartRequest.class));
+        assertEquals(new FileStartRequest("a.bin", 1, null, null, "ab".repeat(32)), roundTrip(new FileStartRequest("a.bin", 1, null, null, "ab".repeat(32)), FileStartRequest.class));
+    }
+
+    @Test
+    void testEncode_SmallerThanJson() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        WireCodec json = new WireCodecs(objectMapper).json();
+
+        for (Object message : new Object[]{
+                new UserLoginRequest("benchuser", "binary"),
+                new ChatTextRequest("안녕하세요, 오늘 회의는 3시에 시작합니다."),
+                new FileStartRequest("report-2026-q3.pdf", 12_345_678L),
+                new FileEndRequest("report-2026-q3.pdf", "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08"),
+                UserLoginResponse.onSuccess("benchuser", 1000, "binary"),
+                new ChatTextBroadcast("benchuser", "안녕하세요, 오늘 회의는 3시에 시작합니다."),
+                new ErrorResponse("AUTH_REQUIRED", "Authentication required. Client not logged in."),
+                new SystemNoticeBroadcast("benchuser 님이 퇴장했습니다."),
+                new UserJoinBroadcast("benchuser"),
+                new UserLeaveBroadcast("benchuser"),
+                new FileStartBroadcast("benchuser", "report-2026-q3.pdf", "STARTED"),
+                new FileEndBroadcast("benchuser", "report-2026-q3.pdf", "COMPLETED")}) {
+            assertTrue(codec.encode(message).length < json.encode(message).length, message.getClass().getSimpleName() + ": 바이너리 인코딩이 JSON보다 작아야 함");
+        }
+    }
+
+    @Test
+    void testDecode_FileStartWithoutChecksumAlgorithm() throws IOException {
+        // checksumAlgorithm 필드가 생기기 전의 배치: filename + zigzag(filesize)
+        byte[] legacy = {6, 'a', '.', 'b', 'i', 'n', 20};
+
+        assertEquals(new FileStartRequest("a.bin", 10), codec.decode(ByteBuffer.wrap(legacy), FileStartRequest.class));
+    }
+
+    @Test
+    void testRoundTrip_FileEndWithUploadId() throws IOException {
+        assertEquals(new FileEndRequest("a.bin", "abcd", "0f".repeat(16)), roundTrip(new FileEndRequest("a.bin", "abcd", "0f".repeat(16)), FileEndRequest.class));
+
+        // uploadId 필드가 생기기 전의 배치: filename + checksum
+        byte[] legacy = {2, 'a', 2, 'c'};
+        assertEquals(new FileEndRequest("a", "c"), codec.decode(ByteBuffer.wrap(legacy), FileEndRequest.class));
+    }
+
+    @Test
+    void testRoundTrip_NullAndEmptyStringsAreDistinct() throws IOException {
+        assertNull(roundTrip(new ChatTextRequest(null), ChatTextRequest.class).message());
+        assertEquals("", roundTrip(new ChatTextRequest(""), ChatTextRequest.class).message());
+        assertNull(roundTrip(new UserLoginRequest("tester"), UserLoginRequest.class).codec());
+    }
+
+    @Test
+    void testEncode_Layout() throws IOException {
+        // varint(len+1) + UTF-8
+        assertArrayEquals(new byte[]{3, 'h', 'i'}, codec.encode(new ChatTextRequest("hi")));
+
+        // success(1) + message + nickname + zigzag(clientId=-1 -> 1) + codec
+        byte[] failure = codec.encode(UserLoginResponse.onFailure("no"));
+        assertArrayEquals(new byte[]{0, 3, 'n', 'o', 0, 1, 5, 'j', 's', 'o', 'n'}, failure);
+    }
+
+    @Test
+    void testEncode_InstantAndLongStrings() throws IOException {
+        String content = "x".repeat(300);
+        byte[] encoded = codec.encode(new ChatTextBroadcast("author", content));
+
+        // 300 + 1 = 301 -> varint 두 바이트 (0xAD 0x02)
+        int contentOffset = 1 + "author".length();
+        assertEquals((byte) 0xAD, encoded[contentOffset]);
+        assertEquals(0x02, encoded[contentOffset + 1]);
+
+        BinaryReader reader = new BinaryReader(ByteBuffer.wrap(encoded));
+        assertEquals("author", reader.readString());
+        assertEquals(content, reader.readString());
+        Instant timestamp = reader.readInstant();
+        assertNotNull(timestamp);
+        assertTrue(Math.abs(Instant.now().getEpochSecond() - timestamp.getEpochSecond()) < 60);
+    }
+
+    @Test
+    void testDecode_DoesNotMovePosition() throws IOException {
+        ByteBuffer payload = ByteBuffer.wrap(codec.encode(new ChatTextRequest("hello")));
+
+        codec.decode(payload, ChatTextRequest.class);
+
+        assertEquals(0, payload.position());
+    }
+
+    @Test
+    void testDecode_TruncatedPayloadThrows() throws IOException {
+        byte[] encoded = codec.encode(new ChatTextRequest("hello"));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThrows(IOException.class, () -> codec.decode(ByteBuffer.wrap(truncated), ChatTextRequest.class));
+        assertThrows(IOException.class, () -> codec.decode(ByteBuffer.wrap("{\"message\":\"hi\"}".getBytes(StandardCharsets.UTF_8)), FileStartRequest.class));
+    }
+
+    @Test
+    void testUnregisteredTypeThrows() {
+        assertThrows(IOException.class, () -> codec.encode("plain string"));
+        assertThrows(IOException.class, () -> codec.decode(ByteBuffer.allocate(1), ChatTextBroadcast.class));
+    }
+
+    @Test
+    void testEncode_Utf8MatchesJdkAndStreamMatchesArray() throws IOException {
+        for (String text : new String[]{"ascii", "é ß", "한글 채팅", "emoji \uD83D\uDE00 끝", "lone \uD800 high", "lone \uDC00 low"}) {
+            byte[] jdk = text.getBytes(StandardCharsets.UTF_8);
+            byte[] encoded = codec.encode(new ChatTextRequest(text));
+            ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+            codec.encode(new ChatTextRequest(text), streamed);
+
+            assertArrayEquals(jdk, Arrays.copyOfRange(encoded, encoded.length - jdk.length, encoded.length), text);
+            assertArrayEquals(encoded, streamed.toByteArray(), text);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package project.java_chat_server.service.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
+import project.java_chat_server.dto.chat.ChatTextRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonWireCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final JsonWireCodec codec = new JsonWireCodec(objectMapper);
+
+    @Test
+    void testDecode_AllBufferKinds() throws IOException {
+        byte[] json = "xx{\"message\":\"안녕\"}".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer heap = ByteBuffer.wrap(json);
+        heap.position(2);
+        ByteBuffer direct = ByteBuffer.allocateDirect(json.length);
+        direct.put(json).position(2);
+
+        ChatTextRequest expected = new ChatTextRequest("안녕");
+        assertEquals(expected, codec.decode(heap, ChatTextRequest.class));
+        assertEquals(expected, codec.decode(heap.asReadOnlyBuffer(), ChatTextRequest.class));
+        assertEquals(expected, codec.decode(direct, ChatTextRequest.class));
+        assertEquals(2, direct.position());
+    }
+
+    @Test
+    void testDecode_LargerThanScratchBuffer() throws IOException {
+        String message = "가".repeat(5000);
+        byte[] json = objectMapper.writeValueAsBytes(new ChatTextRequest(message));
+
+        assertEquals(message, codec.decode(ByteBuffer.wrap(json).asReadOnlyBuffer(), ChatTextRequest.class).message());
+    }
+
+    @Test
+    void testEncodeToStream_MatchesByteArrayAndKeepsStreamOpen() throws IOException {
+        ChatTextBroadcast broadcast = new ChatTextBroadcast("author", "content");
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("코덱이 스트림을 닫으면 안 됨");
+            }
+        };
+
+        codec.encode(broadcast, out);
+        codec.encode(null, out);
+
+        assertEquals(objectMapper.writeValueAsString(broadcast) + "null", out.toString(StandardCharsets.UTF_8));
+        assertArrayEquals(objectMapper.writeValueAsBytes(broadcast), codec.encode(broadcast));
+    }
+}
@@ -0,0 +1,47 @@
+package project.java_chat_server.service.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrecomputedPayloadTest {
+
+    private final WireCodecs codecs = new WireCodecs(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Test
+    void testBytes_ReusedWithinSameSecond() throws IOException {
+        PrecomputedPayload error = PrecomputedPayload.error("AUTH_REQUIRED", "로그인이 필요합니다.");
+        WireCodec json = codecs.json();
+
+        byte[] first = error.bytes(json);
+        byte[] second = error.bytes(json);
+
+        // 초 경계에 걸리면 한 번 다시 인코딩될 수 있음
+        if (first != second) {
+            assertSame(second, error.bytes(json));
+        }
+        String text = new String(first, StandardCharsets.UTF_8);
+        assertTrue(text.contains("\"errorCode\":\"AUTH_REQUIRED\""));
+        assertTrue(text.contains("\"timestamp\""));
+    }
+
+    @Test
+    void testBytes_PerFormat() throws IOException {
+        PrecomputedPayload error = PrecomputedPayload.error("UNKNOWN_ERROR", "알 수 없는 오류");
+
+        byte[] json = error.bytes(codecs.get(WireFormat.JSON));
+        byte[] binary = error.bytes(codecs.get(WireFormat.BINARY));
+
+        assertTrue(binary.length < json.length);
+        BinaryReader reader = new BinaryReader(ByteBuffer.wrap(binary));
+        assertEquals("UNKNOWN_ERROR", reader.readString());
+        assertEquals("알 수 없는 오류", reader.readString());
+        assertNotNull(reader.readInstant());
+    }
+}
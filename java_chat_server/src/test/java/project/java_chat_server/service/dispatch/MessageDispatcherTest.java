@@ -0,0 +1,184 @@
+package project.java_chat_server.service.dispatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import project.java_chat_server.wrapper_library.ChatServer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class MessageDispatcherTest {
+
+    private ChatServer mockChatServer;
+    private MessageDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        mockChatServer = mock(ChatServer.class);
+        when(mockChatServer.setReadPaused(anyInt(), anyBoolean())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    private MessageDispatcher createDispatcher(int maxPendingChat, int maxPendingFile, int maxPendingPerClient) {
+        return new MessageDispatcher(mockChatServer,
+                Map.of(Bulkhead.CHAT, 4, Bulkhead.FILE, 2),
+                Map.of(Bulkhead.CHAT, maxPendingChat, Bulkhead.FILE, maxPendingFile),
+                maxPendingPerClient);
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testDispatch_KeepsPerClientOrderAcrossBulkheads() throws InterruptedException {
+        // given
+        dispatcher = createDispatcher(10_000, 10_000, 10_000);
+        int taskCount = 500;
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(taskCount * 2);
+
+        // when
+        for (int i = 0; i < taskCount; i++) {
+            final int seq = i;
+            Bulkhead bulkhead = i % 3 == 0 ? Bulkhead.FILE : Bulkhead.CHAT;
+            dispatcher.dispatch(1, bulkhead, () -> { first.add(seq); done.countDown(); });
+            dispatcher.dispatch(2, bulkhead, () -> { second.add(seq); done.countDown(); });
+        }
+
+        // then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < taskCount; i++) {
+            assertEquals(i, first.get(i));
+            assertEquals(i, second.get(i));
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testDispatch_PausesClientOverPerClientLimit() throws InterruptedException {
+        // given
+        dispatcher = createDispatcher(10_000, 10_000, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(5);
+
+        // when
+        dispatcher.dispatch(7, Bulkhead.CHAT, () -> { awaitQuietly(release); done.countDown(); });
+        for (int i = 0; i < 4; i++) {
+            dispatcher.dispatch(7, Bulkhead.CHAT, done::countDown);
+        }
+
+        // then
+        verify(mockChatServer, timeout(1000)).setReadPaused(7, true);
+        assertEquals(1, dispatcher.getPausedClientCount());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        verify(mockChatServer, timeout(1000)).setReadPaused(7, false);
+        assertEquals(0, dispatcher.getPausedClientCount());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testDispatch_FullBulkheadPausesOnlyIncomingClient() throws InterruptedException {
+        // given
+        dispatcher = createDispatcher(10_000, 2, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        // when: 파일 풀이 가득 찬 상태에서 들어온 클라이언트만 멈춰야 함
+        dispatcher.dispatch(1, Bulkhead.FILE, () -> { awaitQuietly(release); done.countDown(); });
+        dispatcher.dispatch(2, Bulkhead.FILE, () -> { awaitQuietly(release); done.countDown(); });
+        dispatcher.dispatch(3, Bulkhead.CHAT, done::countDown);
+
+        // then
+        verify(mockChatServer, timeout(1000)).setReadPaused(2, true);
+        verify(mockChatServer, never()).setReadPaused(1, true);
+        verify(mockChatServer, never()).setReadPaused(3, true);
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        verify(mockChatServer, timeout(1000)).setReadPaused(2, false);
+        // 대기 수는 작업 본문이 끝난 뒤에 줄어들므로 latch만으로는 0이 되었다고 볼 수 없음
+        awaitPending(dispatcher, Bulkhead.FILE, 0);
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testDispatchLast_TasksForReusedFdRunAfterDisconnect() throws InterruptedException {
+        // given
+        dispatcher = createDispatcher(10_000, 10_000, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        // when: 연결 종료 처리가 끝나기 전에 같은 fd로 새 연결의 메시지가 들어옴
+        dispatcher.dispatch(5, Bulkhead.FILE, () -> { awaitQuietly(release); order.add("old"); done.countDown(); });
+        dispatcher.dispatchLast(5, Bulkhead.CHAT, () -> { order.add("disconnect"); done.countDown(); });
+        dispatcher.dispatch(5, Bulkhead.CHAT, () -> { order.add("new"); done.countDown(); });
+        release.countDown();
+
+        // then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("old", "disconnect", "new"), order);
+
+        CountDownLatch after = new CountDownLatch(1);
+        dispatcher.dispatch(5, Bulkhead.CHAT, after::countDown);
+        assertTrue(after.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testDispatch_HandlerExceptionDoesNotBlockQueue() throws InterruptedException {
+        // given
+        dispatcher = createDispatcher(10_000, 10_000, 100);
+        CountDownLatch done = new CountDownLatch(1);
+
+        // when
+        dispatcher.dispatch(9, Bulkhead.CHAT, () -> { throw new IllegalStateException("boom"); });
+        dispatcher.dispatch(9, Bulkhead.CHAT, done::countDown);
+
+        // then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> createDispatcher(10, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> createDispatcher(0, 10, 10));
+    }
+
+    private static void awaitPending(MessageDispatcher dispatcher, Bulkhead bulkhead, int expected) {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (dispatcher.getPendingCount(bulkhead) != expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail(bulkhead + " 대기 작업 수가 5초 안에 " + expected + "이 되지 않음 (현재 " + dispatcher.getPendingCount(bulkhead) + ")");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
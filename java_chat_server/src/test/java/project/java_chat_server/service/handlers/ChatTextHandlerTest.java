@@ -4,13 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
 import project.java_chat_server.dto.chat.ChatTextRequest;
 import project.java_chat_server.service.UserService;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ConnectionSession;
 import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.service.codec.WireCodecs;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,18 +23,18 @@ class ChatTextHandlerTest {
     private ChatTextHandler handler;
     private UserService userService;
     private ObjectMapper objectMapper;
-    private ClientInfo testClient;
+    private ConnectionSession testClient;
 
     @BeforeEach
     void setUp() throws Exception {
         userService = new UserService();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // Support Instant serialization
-        handler = new ChatTextHandler(objectMapper, userService);
-        testClient = TestUtils.createClientInfo(1, "127.0.0.1");
+        handler = new ChatTextHandler(new WireCodecs(objectMapper));
+        testClient = TestUtils.createSession(1, "127.0.0.1");
 
         // Login user first
-        userService.login(testClient.socketFd, "testuser");
+        userService.login(testClient, "testuser");
     }
 
     @Test
@@ -46,9 +49,23 @@ class ChatTextHandlerTest {
         assertEquals(MessageType.MSG_TYPE_CHAT_TEXT, result.getBroadcast().get().type());
     }
 
+    @Test
+    void testHandle_ReadOnlyDirectView() throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(new ChatTextRequest("from native buffer"));
+        ByteBuffer direct = ByteBuffer.allocateDirect(json.length);
+        direct.put(json).flip();
+        ByteBuffer view = direct.asReadOnlyBuffer();
+
+        HandlerResult result = handler.handle(testClient, view);
+
+        assertTrue(result.getBroadcast().isPresent());
+        assertEquals(MessageType.MSG_TYPE_CHAT_TEXT, result.getBroadcast().get().type());
+        assertEquals(0, view.position());
+    }
+
     @Test
     void testHandle_NotLoggedIn() throws Exception {
-        ClientInfo unauthenticatedClient = TestUtils.createClientInfo(999, "127.0.0.1");
+        ConnectionSession unauthenticatedClient = TestUtils.createSession(999, "127.0.0.1");
         ChatTextRequest request = new ChatTextRequest("Hello");
         byte[] payload = objectMapper.writeValueAsBytes(request);
 
@@ -58,6 +75,8 @@ class ChatTextHandlerTest {
         assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, 
                 result.getDirectResponse().get().type());
         assertFalse(result.getBroadcast().isPresent());
+        // 고정 에러 응답은 매번 같은 결과 객체
+        assertSame(result, handler.handle(unauthenticatedClient, payload));
     }
 
     @Test
@@ -143,4 +162,24 @@ class ChatTextHandlerTest {
         assertTrue(result.getBroadcast().isPresent());
         assertEquals(MessageType.MSG_TYPE_CHAT_TEXT, result.getBroadcast().get().type());
     }
+
+    @Test
+    void testHandle_PlainJsonIsRelayedWithoutDecoding() throws Exception {
+        byte[] payload = objectMapper.writeValueAsBytes(new ChatTextRequest("relay me"));
+
+        HandlerResult result = handler.handle(testClient, payload);
+
+        assertInstanceOf(ChatTextRelay.class, result.getBroadcast().get().payload());
+    }
+
+    @Test
+    void testHandle_EscapedMessageFallsBackToDto() throws Exception {
+        byte[] payload = objectMapper.writeValueAsBytes(new ChatTextRequest("line\nbreak \"quoted\""));
+
+        HandlerResult result = handler.handle(testClient, payload);
+
+        ChatTextBroadcast broadcast = assertInstanceOf(ChatTextBroadcast.class, result.getBroadcast().get().payload());
+        assertEquals("line\nbreak \"quoted\"", broadcast.getContent());
+        assertEquals("testuser", broadcast.getAuthor());
+    }
 }
@@ -0,0 +1,179 @@
+package project.java_chat_server.service.handlers;
+
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.dto.chat.ChatTextBroadcast;
+import project.java_chat_server.dto.chat.ChatTextRequest;
+import project.java_chat_server.service.codec.WireCodec;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.codec.WireFormat;
+import project.java_chat_server.test_utils.TestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatTextRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final WireCodecs codecs = new WireCodecs(objectMapper);
+
+    private static ByteBuffer payload(String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+    @Test
+    void testWriteTo_ByteIdenticalToSerializedBroadcast() throws Exception {
+        WireCodec json = codecs.json();
+        String[] nicknames = {"tester", "따옴표\"닉", "back\\slash"};
+        String[] messages = {"Hello, World!", "안녕하세요 ok", "</script> & 'quotes' {json}", "a".repeat(10000), " leading space", "é\u007F"};
+        Instant timestamp = Instant.parse("2026-10-17T01:02:03.456789Z");
+
+        for (String nickname : nicknames) {
+            ConnectionSession session = TestUtils.createSession(1, "127.0.0.1");
+            session.authenticate(nickname);
+
+            for (String message : messages) {
+                // direct 버퍼에 앞쪽 여유를 두어 절대 위치 계산도 같이 확인
+                byte[] request = objectMapper.writeValueAsBytes(new ChatTextRequest(message));
+                ByteBuffer direct = ByteBuffer.allocateDirect(request.length + 3);
+                direct.position(3);
+                direct.put(request).flip().position(3);
+                ByteBuffer view = direct.asReadOnlyBuffer();
+
+                long span = ChatTextRelay.locateMessage(view);
+                assertTrue(span >= 0, message);
+                ChatTextRelay relay = new ChatTextRelay(nickname, ChatTextRelay.prefixFor(session, nickname, json), view, span, timestamp);
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                relay.writeTo(out, json);
+
+                assertArrayEquals(objectMapper.writeValueAsBytes(new ChatTextBroadcast(nickname, message, timestamp)), out.toByteArray(), message);
+                assertEquals(3, view.position());
+            }
+        }
+    }
+
+    @Test
+    void testWriteTo_DecimalTimestampMatchesMapper() throws Exception {
+        WireCodec json = codecs.json();
+        ConnectionSession session = TestUtils.createSession(1, "127.0.0.1");
+        session.authenticate("tester");
+        Instant[] timestamps = {Instant.EPOCH, Instant.ofEpochSecond(1_792_202_993L), Instant.ofEpochSecond(1_792_202_993L, 7), Instant.now()};
+
+        assertTrue(ChatTextRelay.timestampMatches(json));
+        for (Instant timestamp : timestamps) {
+            ByteBuffer view = payload("{\"message\":\"hi\"}");
+            ChatTextRelay relay = new ChatTextRelay("tester", ChatTextRelay.prefixFor(session, "tester", json), view, ChatTextRelay.locateMessage(view), timestamp, true);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            relay.writeTo(out, json);
+
+            assertArrayEquals(objectMapper.writeValueAsBytes(new ChatTextBroadcast("tester", "hi", timestamp)), out.toByteArray(), timestamp.toString());
+        }
+    }
+
+    @Test
+    void testTimestampMatches_FalseForMillisTimestamps() {
+        ObjectMapper millis = new ObjectMapper().registerModule(new JavaTimeModule());
+        millis.disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+
+        assertFalse(ChatTextRelay.timestampMatches(new WireCodecs(millis).json()));
+    }
+
+    @Test
+    void testWriteTo_BinaryCodecFallsBackToDto() throws Exception {
+        ByteBuffer view = payload("{\"message\":\"binary 바이너리\"}");
+        Instant timestamp = Instant.now();
+        ChatTextRelay relay = new ChatTextRelay("tester", new byte[0], view, ChatTextRelay.locateMessage(view), timestamp);
+        WireCodec binary = codecs.get(WireFormat.BINARY);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        relay.writeTo(out, binary);
+
+        assertArrayEquals(binary.encode(new ChatTextBroadcast("tester", "binary 바이너리", timestamp)), out.toByteArray());
+    }
+
+    @Test
+    void testLocateMessage_AcceptsWhitespaceAroundTokens() {
+        ByteBuffer view = payload(" \r\n{ \"message\" :\t\"hi\" }\n");
+
+        long span = ChatTextRelay.locateMessage(view);
+
+        assertTrue(span >= 0);
+        assertEquals('"', view.get((int) (span >>> 32)));
+        assertEquals('"', view.get((int) span));
+        assertEquals(3, (int) span - (int) (span >>> 32));
+    }
+
+    @Test
+    void testLocateMessage_Blank() {
+        assertEquals(ChatTextRelay.BLANK, ChatTextRelay.locateMessage(payload("{\"message\":\"\"}")));
+        assertEquals(ChatTextRelay.BLANK, ChatTextRelay.locateMessage(payload("{\"message\":\"   \"}")));
+        // U+3000 같은 유니코드 공백은 원래 경로에서 판단
+        assertEquals(ChatTextRelay.NOT_RELAYABLE, ChatTextRelay.locateMessage(payload("{\"message\":\" \u3000 \"}")));
+    }
+
+    @Test
+    void testLocateMessage_RejectsNonCanonicalShapes() {
+        String[] rejected = {
+                "", "invalid json", "[]", "{}", "{\"message\":null}", "{\"message\":1}",
+                "{\"message\":\"a\\\"b\"}", "{\"message\":\"\\u0041\"}", "{\"message\":\"tab\there\"}",
+                "{\"message\":\"hi\",\"extra\":1}", "{\"extra\":1,\"message\":\"hi\"}", "{\"message\":\"hi\"} trailing",
+                "{\"message\":\"unterminated}", "{\"mess\\u0061ge\":\"hi\"}",
+                // 이모지는 Jackson이 surrogate 이스케이프로 다시 쓰므로 원래 경로로
+                "{\"message\":\"hi 😀\"}"
+        };
+
+        for (String json : rejected) {
+            assertEquals(ChatTextRelay.NOT_RELAYABLE, ChatTextRelay.locateMessage(payload(json)), json);
+        }
+    }
+
+    @Test
+    void testLocateMessage_RejectsMalformedUtf8() {
+        byte[][] invalid = {
+                {(byte) 0xC0, (byte) 0x80},                          // 과잉 표현
+                {(byte) 0xE0, (byte) 0x80, (byte) 0x80},             // 과잉 표현
+                {(byte) 0xED, (byte) 0xA0, (byte) 0x80},             // surrogate
+                {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80}, // U+10FFFF 초과
+                {(byte) 0xE4, (byte) 0xB8},                          // 잘린 문자
+                {(byte) 0x80},                                       // 홀로 있는 continuation
+        };
+
+        for (byte[] bytes : invalid) {
+            ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 16);
+            buffer.put("{\"message\":\"a".getBytes(StandardCharsets.US_ASCII)).put(bytes).put("\"}".getBytes(StandardCharsets.US_ASCII)).flip();
+            assertEquals(ChatTextRelay.NOT_RELAYABLE, ChatTextRelay.locateMessage(buffer));
+        }
+    }
+
+    @Test
+    void testMatchesCodec() {
+        assertTrue(ChatTextRelay.matchesCodec(codecs.json()));
+
+        ObjectMapper escaping = JsonMapper.builder().enable(JsonWriteFeature.ESCAPE_NON_ASCII).addModule(new JavaTimeModule()).build();
+        assertFalse(ChatTextRelay.matchesCodec(new WireCodecs(escaping).json()));
+    }
+
+    @Test
+    void testPrefixFor_CachedOnSessionAndResetOnLogin() throws Exception {
+        ConnectionSession session = TestUtils.createSession(1, "127.0.0.1");
+        session.authenticate("first");
+
+        byte[] prefix = ChatTextRelay.prefixFor(session, "first", codecs.json());
+
+        assertSame(prefix, ChatTextRelay.prefixFor(session, "first", codecs.json()));
+        assertEquals("{\"author\":\"first\",\"content\":", new String(prefix, StandardCharsets.UTF_8));
+        session.authenticate("second");
+        assertNull(session.getChatRelayPrefix());
+    }
+}
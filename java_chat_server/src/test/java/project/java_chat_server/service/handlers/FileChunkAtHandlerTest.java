@@ -0,0 +1,101 @@
+package project.java_chat_server.service.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import project.java_chat_server.domain.FileTransferSession;
+import project.java_chat_server.service.FileTransferService;
+import project.java_chat_server.service.model.HandlerResult;
+import project.java_chat_server.service.upload.ChecksumAlgorithm;
+import project.java_chat_server.service.upload.ReceivedBlocks;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.service.codec.WireCodecs;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileChunkAtHandlerTest {
+
+    private FileChunkAtHandler handler;
+    private FileTransferService fileTransferService;
+    private ConnectionSession testClient;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        fileTransferService = new FileTransferService(tempDir.toString());
+        fileTransferService.init();
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule()); // Support Instant serialization
+        handler = new FileChunkAtHandler(fileTransferService, new WireCodecs(objectMapper));
+        testClient = TestUtils.createSession(1, "127.0.0.1");
+    }
+
+    private static byte[] chunkAt(String uploadId, long offset, int length) {
+        return ByteBuffer.allocate(FileChunkAtHandler.HEADER_BYTES + length)
+                .put(HexFormat.of().parseHex(uploadId))
+                .putLong(offset)
+                .array();
+    }
+
+    @Test
+    void testHandle_Success() throws Exception {
+        FileTransferSession session = fileTransferService.startFileTransfer(testClient.getClientId(), null, "test.bin", ReceivedBlocks.BLOCK_BYTES + 50, ChecksumAlgorithm.SHA256);
+
+        HandlerResult result = handler.handle(testClient, chunkAt(session.getUploadId(), ReceivedBlocks.BLOCK_BYTES, 50));
+
+        assertFalse(result.getDirectResponse().isPresent());
+        assertEquals(50, session.getReceivedBytes());
+        assertTrue(session.isPositional());
+    }
+
+    @Test
+    void testHandle_TwoUploadsInParallel() throws Exception {
+        FileTransferSession first = fileTransferService.startFileTransfer(testClient.getClientId(), null, "a.bin", 100, ChecksumAlgorithm.SHA256);
+        FileTransferSession second = fileTransferService.startFileTransfer(testClient.getClientId(), null, "b.bin", 200, ChecksumAlgorithm.SHA256);
+
+        handler.handle(testClient, chunkAt(second.getUploadId(), 0, 200));
+        handler.handle(testClient, chunkAt(first.getUploadId(), 0, 100));
+
+        assertTrue(first.isCompleted());
+        assertTrue(second.isCompleted());
+    }
+
+    @Test
+    void testHandle_ShortHeader() {
+        HandlerResult result = handler.handle(testClient, new byte[FileChunkAtHandler.HEADER_BYTES - 1]);
+
+        assertTrue(result.getDirectResponse().isPresent());
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
+    }
+
+    @Test
+    void testHandle_MisalignedOffset() throws Exception {
+        FileTransferSession session = fileTransferService.startFileTransfer(testClient.getClientId(), null, "test.bin", ReceivedBlocks.BLOCK_BYTES * 2, ChecksumAlgorithm.SHA256);
+
+        HandlerResult result = handler.handle(testClient, chunkAt(session.getUploadId(), 1, 10));
+
+        assertTrue(result.getDirectResponse().isPresent());
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
+        assertEquals(0, session.getReceivedBytes());
+    }
+
+    @Test
+    void testHandle_UnknownUpload() {
+        HandlerResult result = handler.handle(testClient, chunkAt("00".repeat(FileChunkAtHandler.UPLOAD_ID_BYTES), 0, 10));
+
+        assertTrue(result.getDirectResponse().isPresent());
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
+    }
+
+    @Test
+    void testGetMessageType() {
+        assertEquals(MessageType.MSG_TYPE_FILE_CHUNK_AT, handler.getMessageType());
+    }
+}
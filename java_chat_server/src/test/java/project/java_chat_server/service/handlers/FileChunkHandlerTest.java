@@ -8,8 +8,9 @@ import org.junit.jupiter.api.io.TempDir;
 import project.java_chat_server.service.FileTransferService;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ConnectionSession;
 import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.service.codec.WireCodecs;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -21,7 +22,7 @@ class FileChunkHandlerTest {
     private FileChunkHandler handler;
     private FileTransferService fileTransferService;
     private ObjectMapper objectMapper;
-    private ClientInfo testClient;
+    private ConnectionSession testClient;
 
     @BeforeEach
     void setUp(@TempDir Path tempDir) {
@@ -29,14 +30,14 @@ class FileChunkHandlerTest {
         fileTransferService.init();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // Support Instant serialization
-        handler = new FileChunkHandler(fileTransferService, objectMapper);
-        testClient = TestUtils.createClientInfo(1, "127.0.0.1");
+        handler = new FileChunkHandler(fileTransferService, new WireCodecs(objectMapper));
+        testClient = TestUtils.createSession(1, "127.0.0.1");
     }
 
     @Test
     void testHandle_Success() throws Exception {
         // Start file transfer first
-        fileTransferService.startFileTransfer(testClient.socketFd, "test.txt", 100);
+        fileTransferService.startFileTransfer(testClient.getClientId(), "test.txt", 100);
         
         byte[] chunk = new byte[50];
         HandlerResult result = handler.handle(testClient, chunk);
@@ -45,8 +46,8 @@ class FileChunkHandlerTest {
         assertFalse(result.getBroadcast().isPresent());
         
         // Verify chunk was processed
-        assertNotNull(fileTransferService.getSession(testClient.socketFd));
-        assertEquals(50, fileTransferService.getSession(testClient.socketFd).getReceivedBytes());
+        assertNotNull(fileTransferService.getSession(testClient.getClientId()));
+        assertEquals(50, fileTransferService.getSession(testClient.getClientId()).getReceivedBytes());
     }
 
     @Test
@@ -61,7 +62,7 @@ class FileChunkHandlerTest {
 
     @Test
     void testHandle_MultipleChunks() throws Exception {
-        fileTransferService.startFileTransfer(testClient.socketFd, "test.txt", 200);
+        fileTransferService.startFileTransfer(testClient.getClientId(), "test.txt", 200);
         
         byte[] chunk1 = new byte[50];
         byte[] chunk2 = new byte[100];
@@ -71,7 +72,7 @@ class FileChunkHandlerTest {
         handler.handle(testClient, chunk2);
         handler.handle(testClient, chunk3);
 
-        var session = fileTransferService.getSession(testClient.socketFd);
+        var session = fileTransferService.getSession(testClient.getClientId());
         assertNotNull(session);
         assertTrue(session.isCompleted());
         assertEquals(200, session.getReceivedBytes());
@@ -79,7 +80,7 @@ class FileChunkHandlerTest {
 
     @Test
     void testHandle_EmptyChunk() throws Exception {
-        fileTransferService.startFileTransfer(testClient.socketFd, "test.txt", 0);
+        fileTransferService.startFileTransfer(testClient.getClientId(), "test.txt", 0);
         
         byte[] emptyChunk = new byte[0];
         
@@ -91,14 +92,14 @@ class FileChunkHandlerTest {
 
     @Test
     void testHandle_LargeChunk() throws Exception {
-        fileTransferService.startFileTransfer(testClient.socketFd, "test.txt", 1024 * 1024); // 1MB
+        fileTransferService.startFileTransfer(testClient.getClientId(), "test.txt", 1024 * 1024); // 1MB
         
         byte[] largeChunk = new byte[512 * 1024]; // 512KB
         HandlerResult result = handler.handle(testClient, largeChunk);
 
         assertFalse(result.getDirectResponse().isPresent());
         
-        var session = fileTransferService.getSession(testClient.socketFd);
+        var session = fileTransferService.getSession(testClient.getClientId());
         assertEquals(512 * 1024, session.getReceivedBytes());
     }
 
@@ -109,10 +110,10 @@ class FileChunkHandlerTest {
 
     @Test
     void testHandle_IOException() throws Exception {
-        fileTransferService.startFileTransfer(testClient.socketFd, "test.txt", 100);
+        fileTransferService.startFileTransfer(testClient.getClientId(), "test.txt", 100);
         
         // Cancel the transfer to make file unavailable
-        fileTransferService.cancelFileTransfer(testClient.socketFd, "test");
+        fileTransferService.cancelFileTransfer(testClient.getClientId(), "test");
         
         // Now try to process chunk - should fail
         byte[] chunk = new byte[50];
@@ -6,14 +6,20 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import project.java_chat_server.domain.FileTransferSession;
 import project.java_chat_server.dto.file.FileEndRequest;
+import project.java_chat_server.dto.file.FileMissingResponse;
 import project.java_chat_server.service.FileTransferService;
 import project.java_chat_server.service.UserService;
+import project.java_chat_server.service.upload.ChecksumAlgorithm;
+import project.java_chat_server.service.upload.ReceivedBlocks;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ConnectionSession;
 import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.service.codec.WireCodecs;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 
@@ -25,7 +31,7 @@ class FileEndHandlerTest {
     private FileTransferService fileTransferService;
     private UserService userService;
     private ObjectMapper objectMapper;
-    private ClientInfo testClient;
+    private ConnectionSession testClient;
 
     @BeforeEach
     void setUp(@TempDir Path tempDir) throws Exception {
@@ -34,11 +40,11 @@ class FileEndHandlerTest {
         userService = new UserService();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // Support Instant serialization
-        handler = new FileEndHandler(fileTransferService, userService, objectMapper);
-        testClient = TestUtils.createClientInfo(1, "127.0.0.1");
+        handler = new FileEndHandler(fileTransferService, new WireCodecs(objectMapper));
+        testClient = TestUtils.createSession(1, "127.0.0.1");
         
         // Login user first
-        userService.login(testClient.socketFd, "testuser");
+        userService.login(testClient, "testuser");
     }
 
     @Test
@@ -49,8 +55,8 @@ class FileEndHandlerTest {
         String checksum = DigestUtils.sha256Hex(fileContent);
         
         // Start transfer and process chunks
-        fileTransferService.startFileTransfer(testClient.socketFd, fileName, fileSize);
-        fileTransferService.processFileChunk(testClient.socketFd, fileContent);
+        fileTransferService.startFileTransfer(testClient.getClientId(), fileName, fileSize);
+        fileTransferService.processFileChunk(testClient.getClientId(), fileContent);
         
         FileEndRequest request = new FileEndRequest(fileName, checksum);
         byte[] payload = objectMapper.writeValueAsBytes(request);
@@ -63,12 +69,12 @@ class FileEndHandlerTest {
         assertEquals(MessageType.MSG_TYPE_SERVER_NOTICE, result.getBroadcast().get().type());
         
         // Session should be removed
-        assertNull(fileTransferService.getSession(testClient.socketFd));
+        assertNull(fileTransferService.getSession(testClient.getClientId()));
     }
 
     @Test
     void testHandle_NotLoggedIn() throws Exception {
-        ClientInfo unauthenticatedClient = TestUtils.createClientInfo(999, "127.0.0.1");
+        ConnectionSession unauthenticatedClient = TestUtils.createSession(999, "127.0.0.1");
         FileEndRequest request = new FileEndRequest("test.txt", "checksum");
         byte[] payload = objectMapper.writeValueAsBytes(request);
 
@@ -84,8 +90,8 @@ class FileEndHandlerTest {
         byte[] fileContent = "Hello, World!".getBytes();
         long fileSize = fileContent.length;
         
-        fileTransferService.startFileTransfer(testClient.socketFd, fileName, fileSize);
-        fileTransferService.processFileChunk(testClient.socketFd, fileContent);
+        fileTransferService.startFileTransfer(testClient.getClientId(), fileName, fileSize);
+        fileTransferService.processFileChunk(testClient.getClientId(), fileContent);
         
         FileEndRequest request = new FileEndRequest(fileName, "wrong_checksum");
         byte[] payload = objectMapper.writeValueAsBytes(request);
@@ -96,7 +102,7 @@ class FileEndHandlerTest {
         assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
         
         // Session should be removed after checksum failure
-        assertNull(fileTransferService.getSession(testClient.socketFd));
+        assertNull(fileTransferService.getSession(testClient.getClientId()));
     }
 
     @Test
@@ -105,8 +111,8 @@ class FileEndHandlerTest {
         byte[] fileContent = "Hello, World!".getBytes();
         long fileSize = fileContent.length + 100; // Expect more than received
         
-        fileTransferService.startFileTransfer(testClient.socketFd, fileName, fileSize);
-        fileTransferService.processFileChunk(testClient.socketFd, fileContent);
+        fileTransferService.startFileTransfer(testClient.getClientId(), fileName, fileSize);
+        fileTransferService.processFileChunk(testClient.getClientId(), fileContent);
         
         FileEndRequest request = new FileEndRequest(fileName, "checksum");
         byte[] payload = objectMapper.writeValueAsBytes(request);
@@ -117,7 +123,28 @@ class FileEndHandlerTest {
         assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
         
         // Session should be removed
-        assertNull(fileTransferService.getSession(testClient.socketFd));
+        assertNull(fileTransferService.getSession(testClient.getClientId()));
+    }
+
+    @Test
+    void testHandle_IncompletePositionalUploadReportsMissingRanges() throws Exception {
+        byte[] fileContent = new byte[ReceivedBlocks.BLOCK_BYTES * 2];
+        FileTransferSession session = fileTransferService.startFileTransfer(testClient.getClientId(), null, "test.bin", fileContent.length, ChecksumAlgorithm.SHA256);
+        fileTransferService.processFileChunk(testClient.getClientId(), session.getUploadId(), ReceivedBlocks.BLOCK_BYTES,
+                ByteBuffer.wrap(fileContent, ReceivedBlocks.BLOCK_BYTES, ReceivedBlocks.BLOCK_BYTES));
+
+        FileEndRequest request = new FileEndRequest("test.bin", DigestUtils.sha256Hex(fileContent), session.getUploadId());
+        HandlerResult result = handler.handle(testClient, objectMapper.writeValueAsBytes(request));
+
+        assertTrue(result.getDirectResponse().isPresent());
+        assertEquals(MessageType.MSG_TYPE_FILE_END, result.getDirectResponse().get().type());
+        FileMissingResponse response = (FileMissingResponse) result.getDirectResponse().get().payload();
+        assertEquals("INCOMPLETE", response.status());
+        assertArrayEquals(new long[]{0, ReceivedBlocks.BLOCK_BYTES}, response.missing());
+        assertFalse(result.getBroadcast().isPresent());
+
+        // 업로드는 남아 있음
+        assertSame(session, fileTransferService.getSession(testClient.getClientId(), session.getUploadId()));
     }
 
     @Test
@@ -166,7 +193,7 @@ class FileEndHandlerTest {
         long fileSize = fileContent.length;
         String checksum = DigestUtils.sha256Hex(fileContent);
         
-        fileTransferService.startFileTransfer(testClient.socketFd, fileName, fileSize);
+        fileTransferService.startFileTransfer(testClient.getClientId(), fileName, fileSize);
         
         // Process in chunks
         int chunkSize = 100 * 1024; // 100KB chunks
@@ -174,7 +201,7 @@ class FileEndHandlerTest {
             int remaining = Math.min(chunkSize, fileContent.length - i);
             byte[] chunk = new byte[remaining];
             System.arraycopy(fileContent, i, chunk, 0, remaining);
-            fileTransferService.processFileChunk(testClient.socketFd, chunk);
+            fileTransferService.processFileChunk(testClient.getClientId(), chunk);
         }
         
         FileEndRequest request = new FileEndRequest(fileName, checksum);
@@ -6,12 +6,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import project.java_chat_server.dto.file.FileStartRequest;
+import project.java_chat_server.dto.file.FileStartResponse;
 import project.java_chat_server.service.FileTransferService;
 import project.java_chat_server.service.UserService;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ConnectionSession;
 import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.upload.ChecksumAlgorithm;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
@@ -24,7 +27,7 @@ class FileStartHandlerTest {
     private FileTransferService fileTransferService;
     private UserService userService;
     private ObjectMapper objectMapper;
-    private ClientInfo testClient;
+    private ConnectionSession testClient;
 
     @BeforeEach
     void setUp(@TempDir Path tempDir) throws Exception {
@@ -33,11 +36,11 @@ class FileStartHandlerTest {
         userService = new UserService();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // Support Instant serialization
-        handler = new FileStartHandler(fileTransferService, userService, objectMapper);
-        testClient = TestUtils.createClientInfo(1, "127.0.0.1");
+        handler = new FileStartHandler(fileTransferService, new WireCodecs(objectMapper));
+        testClient = TestUtils.createSession(1, "127.0.0.1");
         
         // Login user first
-        userService.login(testClient.socketFd, "testuser");
+        userService.login(testClient, "testuser");
     }
 
     @Test
@@ -53,12 +56,12 @@ class FileStartHandlerTest {
         assertEquals(MessageType.MSG_TYPE_FILE_INFO, result.getBroadcast().get().type());
         
         // Verify session was created
-        assertNotNull(fileTransferService.getSession(testClient.socketFd));
+        assertNotNull(fileTransferService.getSession(testClient.getClientId()));
     }
 
     @Test
     void testHandle_NotLoggedIn() throws Exception {
-        ClientInfo unauthenticatedClient = TestUtils.createClientInfo(999, "127.0.0.1");
+        ConnectionSession unauthenticatedClient = TestUtils.createSession(999, "127.0.0.1");
         FileStartRequest request = new FileStartRequest("test.txt", 1024);
         byte[] payload = objectMapper.writeValueAsBytes(request);
 
@@ -66,7 +69,7 @@ class FileStartHandlerTest {
 
         assertTrue(result.getDirectResponse().isPresent());
         assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
-        assertFalse(fileTransferService.getSession(unauthenticatedClient.socketFd) != null);
+        assertFalse(fileTransferService.getSession(unauthenticatedClient.getClientId()) != null);
     }
 
     @Test
@@ -134,17 +137,140 @@ class FileStartHandlerTest {
     }
 
     @Test
-    void testHandle_DuplicateTransfer() throws Exception {
-        FileStartRequest request = new FileStartRequest("test.txt", 1024);
-        byte[] payload = objectMapper.writeValueAsBytes(request);
+    void testHandle_RejectsFileOverUploadLimit() throws Exception {
+        long tooLarge = fileTransferService.getMaxUploadBytes() + 1;
+
+        // 새 업로드, 이어 받기, 저장소에서 끝내기 모두 세션을 만들기 전에 거절
+        for (FileStartRequest request : new FileStartRequest[]{
+                new FileStartRequest("test.txt", tooLarge),
+                new FileStartRequest("test.txt", tooLarge, null, "0f".repeat(16)),
+                new FileStartRequest("test.txt", tooLarge, null, null, "ab".repeat(32))}) {
+            HandlerResult result = handler.handle(testClient, objectMapper.writeValueAsBytes(request));
+
+            assertTrue(result.getDirectResponse().isPresent());
+            assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
+        }
+        assertEquals(0, fileTransferService.getTransferCount(testClient.getClientId()));
+    }
 
-        handler.handle(testClient, payload);
-        
-        // Try to start another transfer for same client
-        HandlerResult result = handler.handle(testClient, payload);
+    @Test
+    void testHandle_TooManyTransfers() throws Exception {
+        for (int i = 0; i < FileTransferService.DEFAULT_MAX_TRANSFERS_PER_CLIENT; i++) {
+            HandlerResult started = handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("test" + i + ".txt", 1024)));
+            assertEquals(MessageType.MSG_TYPE_SERVER_NOTICE, started.getDirectResponse().get().type());
+        }
+
+        // Try to start one more transfer than allowed for same client
+        HandlerResult result = handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("test.txt", 1024)));
+
+        assertTrue(result.getDirectResponse().isPresent());
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
+    }
+
+    @Test
+    void testHandle_NegotiatesChecksumAlgorithm() throws Exception {
+        handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("test.txt", 1024, "crc32c")));
+
+        assertEquals(ChecksumAlgorithm.CRC32C, fileTransferService.getSession(testClient.getClientId()).getChecksumAlgorithm());
+    }
+
+    @Test
+    void testHandle_UnsupportedChecksumAlgorithm() throws Exception {
+        HandlerResult result = handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("test.txt", 1024, "md5")));
 
         assertTrue(result.getDirectResponse().isPresent());
         assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
+        assertNull(fileTransferService.getSession(testClient.getClientId()));
+    }
+
+    @Test
+    void testHandle_RespondsWithUploadId() throws Exception {
+        HandlerResult result = handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("test.txt", 1024)));
+
+        assertEquals(1, result.getAdditionalMessages().size());
+        HandlerResult.RoutedMessage routed = result.getAdditionalMessages().get(0);
+        assertEquals(HandlerResult.Target.SENDER, routed.target());
+        assertEquals(MessageType.MSG_TYPE_FILE_INFO, routed.message().type());
+
+        FileStartResponse response = (FileStartResponse) routed.message().payload();
+        assertEquals(fileTransferService.getSession(testClient.getClientId()).getUploadId(), response.uploadId());
+        assertEquals(0, response.offset());
+        assertEquals("sha256", response.checksumAlgorithm());
+    }
+
+    @Test
+    void testOnDisconnect_SuspendsTransferAndClosesFile() throws Exception {
+        handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("test.txt", 1024)));
+        var session = fileTransferService.getSession(testClient.getClientId());
+
+        handler.onDisconnect(testClient);
+
+        assertNull(fileTransferService.getSession(testClient.getClientId()));
+        assertFalse(session.getChannel().isOpen());
+        assertTrue(java.nio.file.Files.exists(session.getFilePath()));
+        assertEquals(1, fileTransferService.getSuspendedUploadCount());
+    }
+
+    @Test
+    void testHandle_ResumesAfterReconnect() throws Exception {
+        handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("test.txt", 1024)));
+        String uploadId = fileTransferService.getSession(testClient.getClientId()).getUploadId();
+        fileTransferService.processFileChunk(testClient.getClientId(), new byte[300]);
+        handler.onDisconnect(testClient);
+        userService.logout(testClient.getClientId());
+
+        ConnectionSession reconnected = TestUtils.createSession(2, "127.0.0.1");
+        userService.login(reconnected, "testuser");
+        HandlerResult result = handler.handle(reconnected, objectMapper.writeValueAsBytes(new FileStartRequest("test.txt", 1024, null, uploadId)));
+
+        assertEquals(MessageType.MSG_TYPE_SERVER_NOTICE, result.getDirectResponse().get().type());
+        FileStartResponse response = (FileStartResponse) result.getAdditionalMessages().get(0).message().payload();
+        assertEquals(uploadId, response.uploadId());
+        assertEquals(300, response.offset());
+        assertEquals(300, fileTransferService.getSession(reconnected.getClientId()).getReceivedBytes());
+    }
+
+    @Test
+    void testHandle_ResumeUnknownUpload() throws Exception {
+        HandlerResult result = handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("test.txt", 1024, null, "deadbeef")));
+
+        assertTrue(result.getDirectResponse().isPresent());
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
+        assertNull(fileTransferService.getSession(testClient.getClientId()));
+    }
+
+    @Test
+    void testHandle_KnownDigestCompletesWithoutChunks() throws Exception {
+        byte[] content = "already stored".getBytes(StandardCharsets.UTF_8);
+        String digest = org.apache.commons.codec.digest.DigestUtils.sha256Hex(content);
+        fileTransferService.startFileTransfer(5, "other", "first.txt", content.length, ChecksumAlgorithm.SHA256);
+        fileTransferService.processFileChunk(5, content);
+        fileTransferService.endFileTransfer(5, digest);
+
+        HandlerResult result = handler.handle(testClient,
+                objectMapper.writeValueAsBytes(new FileStartRequest("again.txt", content.length, null, null, digest.toUpperCase())));
+
+        assertEquals(MessageType.MSG_TYPE_FILE_END, result.getDirectResponse().get().type());
+        assertEquals(MessageType.MSG_TYPE_SERVER_NOTICE, result.getBroadcast().get().type());
+        assertNull(fileTransferService.getSession(testClient.getClientId()));
+    }
+
+    @Test
+    void testHandle_UnknownDigestStartsUpload() throws Exception {
+        String digest = org.apache.commons.codec.digest.DigestUtils.sha256Hex("not stored");
+
+        HandlerResult result = handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("new.txt", 10, null, null, digest)));
+
+        assertEquals(MessageType.MSG_TYPE_SERVER_NOTICE, result.getDirectResponse().get().type());
+        assertNotNull(fileTransferService.getSession(testClient.getClientId()));
+    }
+
+    @Test
+    void testHandle_MalformedDigest() throws Exception {
+        HandlerResult result = handler.handle(testClient, objectMapper.writeValueAsBytes(new FileStartRequest("new.txt", 10, null, null, "../etc")));
+
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().get().type());
+        assertNull(fileTransferService.getSession(testClient.getClientId()));
     }
 
     @Test
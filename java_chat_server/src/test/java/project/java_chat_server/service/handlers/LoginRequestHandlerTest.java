@@ -8,27 +8,38 @@ import project.java_chat_server.dto.user.UserLoginRequest;
 import project.java_chat_server.service.UserService;
 import project.java_chat_server.service.model.HandlerResult;
 import project.java_chat_server.wrapper_library.enums.MessageType;
-import project.java_chat_server.wrapper_library.structure.ClientInfo;
+import project.java_chat_server.domain.ConnectionSession;
 import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.codec.WireFormat;
+import project.java_chat_server.service.RoomService;
+import project.java_chat_server.service.SessionRegistry;
+import project.java_chat_server.wrapper_library.ChatServer;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 class LoginRequestHandlerTest {
 
     private LoginRequestHandler handler;
     private UserService userService;
+    private SessionRegistry sessionRegistry;
+    private RoomService roomService;
     private ObjectMapper objectMapper;
-    private ClientInfo testClient;
+    private ConnectionSession testClient;
 
     @BeforeEach
     void setUp() {
         userService = new UserService();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule()); // Support Instant serialization
-        handler = new LoginRequestHandler(userService, objectMapper);
-        testClient = TestUtils.createClientInfo(1, "127.0.0.1");
+        sessionRegistry = new SessionRegistry();
+        roomService = new RoomService(mock(ChatServer.class));
+        handler = new LoginRequestHandler(userService, sessionRegistry, roomService, new WireCodecs(objectMapper));
+        testClient = sessionRegistry.open(1, "127.0.0.1");
     }
 
     @Test
@@ -44,8 +55,9 @@ class LoginRequestHandlerTest {
         assertTrue(result.getBroadcast().isPresent());
         assertEquals(MessageType.MSG_TYPE_USER_JOIN_NOTICE, 
                 result.getBroadcast().get().type());
-        assertTrue(userService.isLoggedIn(testClient.socketFd));
-        assertEquals("testuser", userService.getNickname(testClient.socketFd).orElse(null));
+        assertTrue(userService.isLoggedIn(testClient.getClientId()));
+        assertEquals("testuser", userService.getNickname(testClient.getClientId()).orElse(null));
+        assertEquals("testuser", testClient.getNickname());
     }
 
     @Test
@@ -93,13 +105,14 @@ class LoginRequestHandlerTest {
         handler.handle(testClient, payload1);
 
         // Try to login second user with same nickname
-        ClientInfo client2 = TestUtils.createClientInfo(2, "127.0.0.1");
+        ConnectionSession client2 = TestUtils.createSession(2, "127.0.0.1");
         HandlerResult result = handler.handle(client2, payload1);
 
         assertTrue(result.getDirectResponse().isPresent());
         assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, 
                 result.getDirectResponse().get().type());
-        assertFalse(userService.isLoggedIn(client2.socketFd));
+        assertFalse(userService.isLoggedIn(client2.getClientId()));
+        assertFalse(client2.isAuthenticated());
     }
 
     @Test
@@ -139,6 +152,45 @@ class LoginRequestHandlerTest {
         assertTrue(result.getDirectResponse().isPresent());
         assertEquals(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE, 
                 result.getDirectResponse().get().type());
-        assertEquals("testuser", userService.getNickname(testClient.socketFd).orElse(null));
+        assertEquals("testuser", userService.getNickname(testClient.getClientId()).orElse(null));
+    }
+
+    @Test
+    void testHandle_NegotiatesBinaryCodec() throws Exception {
+        byte[] payload = objectMapper.writeValueAsBytes(new UserLoginRequest("testuser", "binary"));
+
+        HandlerResult result = handler.handle(testClient, payload);
+
+        // 응답은 전환 전에 JSON으로 인코딩되어 있어야 하고, 세션은 그 뒤부터 바이너리를 씀
+        Object response = result.getDirectResponse().get().payload();
+        assertInstanceOf(byte[].class, response);
+        assertEquals("binary", objectMapper.readTree((byte[]) response).get("codec").asText());
+        assertEquals(WireFormat.BINARY, testClient.getWireFormat());
+        assertFalse(sessionRegistry.isAllJson());
+    }
+
+    @Test
+    void testHandle_UnknownCodecFallsBackToJson() throws Exception {
+        byte[] payload = objectMapper.writeValueAsBytes(new UserLoginRequest("testuser", "xml"));
+
+        HandlerResult result = handler.handle(testClient, payload);
+
+        assertEquals(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE, result.getDirectResponse().get().type());
+        assertEquals("json", objectMapper.readTree((byte[]) result.getDirectResponse().get().payload()).get("codec").asText());
+        assertEquals(WireFormat.JSON, testClient.getWireFormat());
+        assertTrue(sessionRegistry.isAllJson());
+    }
+
+    @Test
+    void testHandle_ReplaysLobbyHistoryAfterResponse() throws Exception {
+        assertTrue(handler.handle(testClient, objectMapper.writeValueAsBytes(new UserLoginRequest("first"))).getAdditionalMessages().isEmpty());
+        roomService.getLobbyHistory().append(ByteBuffer.wrap("{\"content\":\"hi\"}".getBytes(StandardCharsets.UTF_8)));
+
+        HandlerResult result = handler.handle(sessionRegistry.open(2, "127.0.0.1"), objectMapper.writeValueAsBytes(new UserLoginRequest("second")));
+
+        assertEquals(1, result.getAdditionalMessages().size());
+        HandlerResult.RoutedMessage replay = result.getAdditionalMessages().get(0);
+        assertEquals(HandlerResult.Target.REPLAY, replay.target());
+        assertEquals(-1, replay.clientId());
     }
 }
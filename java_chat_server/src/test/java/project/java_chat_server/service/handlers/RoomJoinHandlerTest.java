@@ -0,0 +1,102 @@
+package project.java_chat_server.service.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.domain.ChatRoom;
+import project.java_chat_server.domain.ConnectionSession;
+import project.java_chat_server.dto.room.RoomNoticeBroadcast;
+import project.java_chat_server.service.RoomService;
+import project.java_chat_server.service.UserService;
+import project.java_chat_server.service.codec.WireCodecs;
+import project.java_chat_server.service.model.HandlerResult;
+import project.java_chat_server.test_utils.TestUtils;
+import project.java_chat_server.wrapper_library.ChatServer;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomJoinHandlerTest {
+
+    private RoomJoinHandler joinHandler;
+    private RoomLeaveHandler leaveHandler;
+    private RoomService roomService;
+    private ConnectionSession testClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        WireCodecs codecs = new WireCodecs(new ObjectMapper());
+        ChatServer chatServer = mock(ChatServer.class);
+        when(chatServer.joinGroup(anyInt(), anyInt())).thenReturn(true);
+        roomService = new RoomService(chatServer);
+        joinHandler = new RoomJoinHandler(roomService, codecs);
+        leaveHandler = new RoomLeaveHandler(roomService, codecs);
+        testClient = TestUtils.createSession(1, "127.0.0.1");
+        new UserService().login(testClient, "testuser");
+    }
+
+    @Test
+    void testJoin_RespondsAndNotifiesRoom() {
+        HandlerResult result = joinHandler.handle(testClient, room("lobby"));
+
+        ChatRoom room = roomService.findRoom("lobby").orElseThrow();
+        assertEquals(MessageType.MSG_TYPE_ROOM_NOTICE, result.getDirectResponse().orElseThrow().type());
+        assertEquals(room.getGroupId(), result.getBroadcastGroupId());
+        RoomNoticeBroadcast notice = (RoomNoticeBroadcast) result.getBroadcast().orElseThrow().payload();
+        assertEquals("lobby", notice.room());
+        assertEquals("JOINED", notice.status());
+        assertTrue(result.getAdditionalMessages().isEmpty());
+    }
+
+    @Test
+    void testJoin_FromOtherRoom_AlsoNotifiesPreviousRoom() {
+        joinHandler.handle(testClient, room("lobby"));
+        int lobbyGroupId = roomService.findRoom("lobby").orElseThrow().getGroupId();
+
+        HandlerResult result = joinHandler.handle(testClient, room("games"));
+
+        List<HandlerResult.RoutedMessage> additional = result.getAdditionalMessages();
+        assertEquals(1, additional.size());
+        assertEquals(HandlerResult.Target.GROUP, additional.get(0).target());
+        assertEquals(lobbyGroupId, additional.get(0).clientId());
+        assertEquals("LEFT", ((RoomNoticeBroadcast) additional.get(0).message().payload()).status());
+    }
+
+    @Test
+    void testJoin_InvalidName_ReturnsError() {
+        HandlerResult result = joinHandler.handle(testClient, room("no spaces"));
+
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().orElseThrow().type());
+        assertNull(testClient.getRoom());
+    }
+
+    @Test
+    void testJoin_Unauthenticated_ReturnsError() {
+        HandlerResult result = joinHandler.handle(TestUtils.createSession(2, "127.0.0.1"), room("lobby"));
+
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, result.getDirectResponse().orElseThrow().type());
+        assertEquals(0, roomService.getRoomCount());
+    }
+
+    @Test
+    void testLeave_NotifiesRoomAndRemovesEmptyRoom() {
+        joinHandler.handle(testClient, room("lobby"));
+
+        HandlerResult result = leaveHandler.handle(testClient, new byte[0]);
+
+        assertEquals(MessageType.MSG_TYPE_ROOM_NOTICE, result.getDirectResponse().orElseThrow().type());
+        assertTrue(result.getBroadcastGroupId() >= 0);
+        assertEquals(0, roomService.getRoomCount());
+        assertEquals(MessageType.MSG_TYPE_ERROR_RESPONSE, leaveHandler.handle(testClient, new byte[0]).getDirectResponse().orElseThrow().type());
+    }
+
+    private static byte[] room(String name) {
+        return ("{\"room\":\"" + name + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,238 @@
+package project.java_chat_server.service.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatJournalTest {
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppend_ReadBackInOrder() throws IOException {
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            assertTrue(journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame("hello")));
+            assertTrue(journal.append(3, MessageType.MSG_TYPE_CHAT_TEXT, frame("room")));
+            awaitWritten(journal, 2);
+
+            List<JournalRecord> records = journal.read(0, 10);
+            assertEquals(2, records.size());
+            assertEquals(-1, records.get(0).groupId());
+            assertEquals("hello", text(records.get(0)));
+            assertEquals(3, records.get(1).groupId());
+            assertEquals(MessageType.MSG_TYPE_CHAT_TEXT, records.get(1).type());
+            assertTrue(records.get(0).timestamp() <= records.get(1).timestamp());
+        }
+    }
+
+    @Test
+    void testAppend_DoesNotConsumePayload() throws IOException {
+        ByteBuffer payload = frame("keep");
+
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, payload);
+        }
+        assertEquals(0, payload.position());
+        assertEquals(4, payload.remaining());
+    }
+
+    @Test
+    void testAppend_RollsSegmentsAndReadsAcrossThem() throws IOException {
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            for (int i = 0; i < 200; i++) {
+                journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame(message(i)));
+            }
+            awaitWritten(journal, 200);
+
+            assertTrue(journal.getSegmentCount() > 1, "4KiB 세그먼트에 다 들어가지 않으므로 여러 개로 나뉘어야 함");
+            List<JournalRecord> records = journal.read(0, Integer.MAX_VALUE);
+            assertEquals(200, records.size());
+
+            for (int i = 0; i < 200; i++) {
+                assertEquals(message(i), text(records.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void testRead_FromTimestampUsesSparseIndex() throws Exception {
+        try (ChatJournal journal = ChatJournal.open(new ChatJournal.Options(directory, 1024 * 1024, 64, Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            for (int i = 0; i < 300; i++) {
+                journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame(message(i)));
+
+                if (i % 50 == 0) {
+                    Thread.sleep(2);
+                }
+            }
+            awaitWritten(journal, 300);
+
+            List<JournalRecord> all = journal.read(0, Integer.MAX_VALUE);
+            long from = all.get(150).timestamp();
+            List<String> expected = all.stream().filter(r -> r.timestamp() >= from).map(ChatJournalTest::text).toList();
+
+            assertEquals(expected, journal.read(from, Integer.MAX_VALUE).stream().map(ChatJournalTest::text).toList());
+            assertTrue(journal.read(all.get(all.size() - 1).timestamp() + 1, 10).isEmpty());
+            // limit에서 멈춤
+            assertEquals(5, journal.read(from, 5).size());
+        }
+    }
+
+    @Test
+    void testOpen_RecoversRecordsAndContinuesWriting() throws IOException {
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame(message(i)));
+            }
+        }
+
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            assertEquals(100, journal.read(0, Integer.MAX_VALUE).size());
+
+            journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame("after restart"));
+            awaitWritten(journal, 1);
+
+            List<JournalRecord> records = journal.read(0, Integer.MAX_VALUE);
+            assertEquals(101, records.size());
+            assertEquals("after restart", text(records.get(100)));
+        }
+    }
+
+    @Test
+    void testOpen_DropsTornRecordAndOverwritesIt() throws IOException {
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame("msg-" + i));
+            }
+        }
+
+        // 마지막 레코드의 payload 한 바이트를 바꿔 CRC가 맞지 않게 만듦 (쓰다가 죽은 상황)
+        Path segment = segmentFiles().get(0);
+        int recordLength = JournalSegment.RECORD_HEADER_SIZE + "msg-0".length();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), JournalSegment.HEADER_SIZE + 2L * recordLength + JournalSegment.RECORD_HEADER_SIZE);
+        }
+
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            assertEquals(List.of("msg-0", "msg-1"), journal.read(0, 10).stream().map(ChatJournalTest::text).toList());
+
+            journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame("msg-2b"));
+            awaitWritten(journal, 1);
+            assertEquals(List.of("msg-0", "msg-1", "msg-2b"), journal.read(0, 10).stream().map(ChatJournalTest::text).toList());
+        }
+    }
+
+    @Test
+    void testOpen_SkipsForeignFiles() throws IOException {
+        Files.write(directory.resolve("00000000000000000000" + JournalSegment.FILE_SUFFIX), new byte[64]);
+
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame("new"));
+            awaitWritten(journal, 1);
+
+            assertEquals(List.of("new"), journal.read(0, 10).stream().map(ChatJournalTest::text).toList());
+        }
+    }
+
+    @Test
+    void testRetention_DeletesOldestSegmentsOverSizeLimit() throws IOException {
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), 3L * SEGMENT_BYTES, 1024))) {
+            for (int i = 0; i < 500; i++) {
+                journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame(message(i)));
+            }
+            awaitWritten(journal, 500);
+
+            assertTrue(journal.getSegmentCount() <= 3);
+            assertEquals(journal.getSegmentCount(), segmentFiles().size());
+
+            // 남은 것은 가장 최근 레코드들
+            List<JournalRecord> records = journal.read(0, Integer.MAX_VALUE);
+            assertEquals(message(499), text(records.get(records.size() - 1)));
+        }
+    }
+
+    @Test
+    void testRetention_DeletesExpiredSegmentsButKeepsActive() throws Exception {
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 1024))) {
+            for (int i = 0; i < 200; i++) {
+                journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame(message(i)));
+            }
+        }
+        assertTrue(segmentFiles().size() > 1);
+        Thread.sleep(5);
+
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ZERO, Long.MAX_VALUE, 1024))) {
+            assertEquals(1, journal.getSegmentCount());
+            assertEquals(1, segmentFiles().size());
+        }
+    }
+
+    @Test
+    void testAppend_DropsInsteadOfBlocking() throws IOException {
+        try (ChatJournal journal = ChatJournal.open(options(Duration.ofDays(1), Long.MAX_VALUE, 4))) {
+            // 세그먼트보다 큰 레코드는 쓸 수 없으므로 큐에 넣지 않음
+            assertFalse(journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, ByteBuffer.allocate(SEGMENT_BYTES)));
+            assertEquals(1, journal.getDroppedRecords());
+
+            int accepted = 0;
+            for (int i = 0; i < 10_000; i++) {
+                if (journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame(message(i)))) {
+                    accepted++;
+                }
+            }
+            awaitWritten(journal, accepted);
+            assertEquals(10_001, journal.getWrittenRecords() + journal.getDroppedRecords());
+            assertTrue(journal.getQueuedRecords() <= 4);
+
+            journal.close();
+            assertFalse(journal.append(-1, MessageType.MSG_TYPE_CHAT_TEXT, frame("closed")));
+        }
+    }
+
+    private ChatJournal.Options options(Duration retention, long maxTotalBytes, int queueCapacity) {
+        return new ChatJournal.Options(directory, SEGMENT_BYTES, 256, retention, maxTotalBytes, queueCapacity);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(JournalSegment.FILE_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static void awaitWritten(ChatJournal journal, long records) {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (journal.getWrittenRecords() < records || journal.getQueuedRecords() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("저널 쓰기 쓰레드가 5초 안에 레코드를 쓰지 않음");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static String message(int i) {
+        return "{\"username\":\"user\",\"message\":\"message-" + i + "\"}";
+    }
+
+    private static ByteBuffer frame(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(JournalRecord record) {
+        return new String(record.payload(), StandardCharsets.UTF_8);
+    }
+}
@@ -3,6 +3,8 @@ package project.java_chat_server.service.model;
 import org.junit.jupiter.api.Test;
 import project.java_chat_server.wrapper_library.enums.MessageType;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HandlerResultTest {
@@ -73,6 +75,94 @@ class HandlerResultTest {
         assertEquals(payload3, result2.getBroadcast().get().payload());
     }
 
+    @Test
+    void testGetMessages_OrderAndTargets() {
+        Object response = new Object();
+        Object broadcast = new Object();
+        Object direct = new Object();
+        Object extraBroadcast = new Object();
+
+        HandlerResult result = HandlerResult.response(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE, response)
+                .andBroadcast(MessageType.MSG_TYPE_USER_JOIN_NOTICE, broadcast)
+                .andSendTo(7, MessageType.MSG_TYPE_SERVER_NOTICE, direct)
+                .andAlsoBroadcast(MessageType.MSG_TYPE_SERVER_NOTICE, extraBroadcast);
+
+        List<HandlerResult.RoutedMessage> messages = result.getMessages();
+        assertEquals(4, messages.size());
+        assertEquals(HandlerResult.Target.SENDER, messages.get(0).target());
+        assertEquals(response, messages.get(0).message().payload());
+        assertEquals(HandlerResult.Target.BROADCAST, messages.get(1).target());
+        assertEquals(broadcast, messages.get(1).message().payload());
+        assertEquals(HandlerResult.Target.CLIENT, messages.get(2).target());
+        assertEquals(7, messages.get(2).clientId());
+        assertEquals(HandlerResult.Target.BROADCAST, messages.get(3).target());
+        assertEquals(extraBroadcast, messages.get(3).message().payload());
+
+        // 덧붙인 메시지가 있어도 기존 조회 방식은 그대로
+        assertEquals(response, result.getDirectResponse().get().payload());
+        assertEquals(broadcast, result.getBroadcast().get().payload());
+    }
+
+    @Test
+    void testGetMessages_Empty() {
+        assertTrue(HandlerResult.empty().getMessages().isEmpty());
+    }
+
+    @Test
+    void testEmpty_SharedInstance() {
+        assertSame(HandlerResult.empty(), HandlerResult.empty());
+        assertTrue(HandlerResult.empty().isEmpty());
+        assertNull(HandlerResult.empty().directResponseOrNull());
+        assertNull(HandlerResult.empty().broadcastOrNull());
+    }
+
+    @Test
+    void testNullableAccessors() {
+        Object response = new Object();
+        Object extra = new Object();
+
+        HandlerResult result = HandlerResult.response(MessageType.MSG_TYPE_SERVER_NOTICE, response)
+                .andSendTo(3, MessageType.MSG_TYPE_SERVER_NOTICE, extra);
+
+        assertFalse(result.isEmpty());
+        assertEquals(response, result.directResponseOrNull().payload());
+        assertNull(result.broadcastOrNull());
+        assertEquals(1, result.getAdditionalMessages().size());
+        assertEquals(3, result.getAdditionalMessages().get(0).clientId());
+        assertFalse(HandlerResult.empty().andAlsoBroadcast(MessageType.MSG_TYPE_SERVER_NOTICE, extra).isEmpty());
+    }
+
+    @Test
+    void testGroupBroadcast_RoutesToGroup() {
+        Object notice = new Object();
+        Object left = new Object();
+
+        HandlerResult result = HandlerResult.response(MessageType.MSG_TYPE_ROOM_NOTICE, notice)
+                .andBroadcastToGroup(5, MessageType.MSG_TYPE_ROOM_NOTICE, notice)
+                .andAlsoBroadcastToGroup(2, MessageType.MSG_TYPE_ROOM_NOTICE, left);
+
+        assertEquals(5, result.getBroadcastGroupId());
+        List<HandlerResult.RoutedMessage> messages = result.getMessages();
+        assertEquals(3, messages.size());
+        assertEquals(HandlerResult.Target.GROUP, messages.get(1).target());
+        assertEquals(HandlerResult.Target.GROUP, messages.get(2).target());
+        assertEquals(2, messages.get(2).clientId());
+        assertEquals(-1, HandlerResult.broadcast(MessageType.MSG_TYPE_CHAT_TEXT, notice).getBroadcastGroupId());
+        assertThrows(IllegalArgumentException.class, () -> HandlerResult.broadcastToGroup(-1, MessageType.MSG_TYPE_CHAT_TEXT, notice));
+    }
+
+    @Test
+    void testReplay_RoutesHistoryOfGroupToSender() {
+        HandlerResult result = HandlerResult.response(MessageType.MSG_TYPE_ROOM_NOTICE, new Object()).andReplay(4);
+
+        List<HandlerResult.RoutedMessage> messages = result.getMessages();
+        assertEquals(2, messages.size());
+        assertEquals(HandlerResult.Target.REPLAY, messages.get(1).target());
+        assertEquals(4, messages.get(1).clientId());
+        assertEquals(MessageType.MSG_TYPE_CHAT_TEXT, messages.get(1).message().type());
+        assertEquals(-1, HandlerResult.empty().andReplay(-1).getAdditionalMessages().get(0).clientId());
+    }
+
     @Test
     void testAllMessageTypes() {
         for (MessageType type : MessageType.values()) {
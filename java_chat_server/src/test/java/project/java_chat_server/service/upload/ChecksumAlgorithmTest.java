@@ -0,0 +1,54 @@
+package project.java_chat_server.service.upload;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChecksumAlgorithmTest {
+
+    @Test
+    void testFinish_KnownVectors() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", checksum(ChecksumAlgorithm.SHA256, "abc"));
+        assertEquals("e3069283", checksum(ChecksumAlgorithm.CRC32C, "123456789"));
+        // 값이 작아도 8자리로 채움
+        assertEquals("00000000", checksum(ChecksumAlgorithm.CRC32C, ""));
+    }
+
+    @Test
+    void testUpdate_ChunkedEqualsWholeAndKeepsPosition() {
+        byte[] content = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+
+        for (ChecksumAlgorithm algorithm : ChecksumAlgorithm.values()) {
+            UploadChecksum chunked = algorithm.newChecksum();
+            ByteBuffer direct = ByteBuffer.allocateDirect(content.length).put(content).flip();
+
+            for (int offset = 0; offset < content.length; offset += 5) {
+                ByteBuffer chunk = direct.duplicate().position(offset).limit(Math.min(offset + 5, content.length));
+                chunked.update(chunk);
+                assertEquals(offset, chunk.position());
+            }
+
+            UploadChecksum whole = algorithm.newChecksum();
+            whole.update(ByteBuffer.wrap(content));
+            assertEquals(whole.finish(), chunked.finish(), algorithm.getName());
+        }
+    }
+
+    @Test
+    void testFromName() {
+        assertEquals(ChecksumAlgorithm.SHA256, ChecksumAlgorithm.fromName(null));
+        assertEquals(ChecksumAlgorithm.SHA256, ChecksumAlgorithm.fromName(" "));
+        assertEquals(ChecksumAlgorithm.CRC32C, ChecksumAlgorithm.fromName("CRC32C"));
+        assertEquals(ChecksumAlgorithm.CRC32C, ChecksumAlgorithm.fromName(" crc32c "));
+        assertNull(ChecksumAlgorithm.fromName("md5"));
+    }
+
+    private static String checksum(ChecksumAlgorithm algorithm, String text) {
+        UploadChecksum checksum = algorithm.newChecksum();
+        checksum.update(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        return checksum.finish();
+    }
+}
@@ -0,0 +1,63 @@
+package project.java_chat_server.service.upload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static project.java_chat_server.service.upload.ReceivedBlocks.BLOCK_BYTES;
+
+class ReceivedBlocksTest {
+
+    @Test
+    void testMark_CountsOnlyNewBlocksAndShortLastBlock() {
+        ReceivedBlocks blocks = new ReceivedBlocks(BLOCK_BYTES * 2L + 10);
+        assertEquals(3, blocks.getBlockCount());
+
+        assertEquals(BLOCK_BYTES + 10, blocks.mark(1, 3));
+        // 이미 받은 블록은 다시 세지 않음
+        assertEquals(0, blocks.mark(1, 3));
+        assertEquals(BLOCK_BYTES + 10, blocks.coveredBytes());
+        assertFalse(blocks.isComplete());
+
+        assertEquals(BLOCK_BYTES, blocks.mark(0, 1));
+        assertTrue(blocks.isComplete());
+        assertEquals(BLOCK_BYTES * 2L + 10, blocks.coveredBytes());
+    }
+
+    @Test
+    void testNextMissing_AcrossWords() {
+        ReceivedBlocks blocks = new ReceivedBlocks(BLOCK_BYTES * 200L);
+        blocks.mark(0, 130);
+
+        assertEquals(130, blocks.nextMissing(0));
+        assertEquals(130, blocks.nextMissing(64));
+        blocks.mark(130, 200);
+        assertEquals(200, blocks.nextMissing(0));
+        assertEquals(200, blocks.nextMissing(200));
+    }
+
+    @Test
+    void testMissingRanges_ClipsToFileSizeAndLimit() {
+        ReceivedBlocks blocks = new ReceivedBlocks(BLOCK_BYTES * 5L + 1);
+        blocks.mark(1, 2);
+        blocks.mark(3, 4);
+
+        List<long[]> ranges = blocks.missingRanges(10);
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new long[]{0, BLOCK_BYTES}, ranges.get(0));
+        assertArrayEquals(new long[]{2L * BLOCK_BYTES, 3L * BLOCK_BYTES}, ranges.get(1));
+        assertArrayEquals(new long[]{4L * BLOCK_BYTES, 5L * BLOCK_BYTES + 1}, ranges.get(2));
+
+        assertEquals(1, blocks.missingRanges(1).size());
+    }
+
+    @Test
+    void testEmptyFileIsComplete() {
+        ReceivedBlocks blocks = new ReceivedBlocks(0);
+
+        assertTrue(blocks.isComplete());
+        assertEquals(0, blocks.coveredBytes());
+        assertTrue(blocks.missingRanges(10).isEmpty());
+    }
+}
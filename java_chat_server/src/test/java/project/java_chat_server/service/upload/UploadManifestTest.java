@@ -0,0 +1,76 @@
+package project.java_chat_server.service.upload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadManifestTest {
+
+    private static final String DIGEST_A = "a".repeat(64);
+    private static final String DIGEST_B = "0123456789abcdef".repeat(4);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAppend_ReloadsAfterReopen() throws IOException {
+        Path path = tempDir.resolve("manifest.idx");
+
+        try (UploadManifest manifest = UploadManifest.open(path)) {
+            manifest.append(new ManifestEntry("alice", "a.txt", 1000, DIGEST_A));
+            manifest.append(new ManifestEntry("alice", "파일.txt", 2000, DIGEST_B));
+            manifest.append(new ManifestEntry("bob", "a.txt", 3000, DIGEST_B));
+        }
+
+        try (UploadManifest manifest = UploadManifest.open(path)) {
+            assertEquals(3, manifest.size());
+            assertEquals(2, manifest.findByUploader("alice").size());
+            assertEquals(new ManifestEntry("alice", "파일.txt", 2000, DIGEST_B), manifest.findLatest("alice", "파일.txt").orElseThrow());
+            assertEquals(DIGEST_A, manifest.findLatest("alice", "a.txt").orElseThrow().digest());
+            assertTrue(manifest.findLatest("carol", "a.txt").isEmpty());
+        }
+    }
+
+    @Test
+    void testFindLatest_ReturnsNewestOfSameName() throws IOException {
+        try (UploadManifest manifest = UploadManifest.open(tempDir.resolve("manifest.idx"))) {
+            manifest.append(new ManifestEntry("alice", "a.txt", 1000, DIGEST_A));
+            manifest.append(new ManifestEntry("alice", "a.txt", 2000, DIGEST_B));
+
+            assertEquals(DIGEST_B, manifest.findLatest("alice", "a.txt").orElseThrow().digest());
+        }
+    }
+
+    @Test
+    void testOpen_TruncatesPartialTailRecord() throws IOException {
+        Path path = tempDir.resolve("manifest.idx");
+
+        try (UploadManifest manifest = UploadManifest.open(path)) {
+            manifest.append(new ManifestEntry("alice", "a.txt", 1000, DIGEST_A));
+        }
+        long intact = Files.size(path);
+
+        // 쓰다 만 레코드: 길이만 있고 내용이 모자람
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(java.nio.ByteBuffer.allocate(10).putInt(0, 100));
+        }
+
+        try (UploadManifest manifest = UploadManifest.open(path)) {
+            assertEquals(1, manifest.size());
+            assertEquals(intact, Files.size(path));
+
+            manifest.append(new ManifestEntry("bob", "b.txt", 2000, DIGEST_B));
+        }
+
+        try (UploadManifest manifest = UploadManifest.open(path)) {
+            assertEquals(2, manifest.size());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package project.java_chat_server.service.upload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import project.java_chat_server.domain.FileTransferSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadWriterTest {
+
+    private static final int BUFFER_BYTES = 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSubmit_AfterCloseWritesInline() throws IOException {
+        Path path = tempDir.resolve("after-close.bin");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            FileTransferSession session = new FileTransferSession("after-close.bin", BUFFER_BYTES, path, channel, ChecksumAlgorithm.SHA256);
+            UploadWriter writer = new UploadWriter(BUFFER_BYTES, 4);
+            writer.close();
+
+            writer.submit(session, filled(writer, (byte) 7), 0);
+
+            session.awaitWrites();
+            assertEquals(1, writer.getInlineWrites());
+            assertArrayEquals(new byte[]{7, 7, 7, 7, 7, 7, 7, 7}, Files.readAllBytes(path));
+        }
+    }
+
+    /**
+     * close()와 겹쳐 넘긴 버퍼도 빠짐없이 써져야 합니다. STOP 뒤에 들어간 버퍼가 있으면 awaitWrites()가 끝나지 않습니다.
+     */
+    @Test
+    @Timeout(30)
+    void testSubmit_RacingCloseNeverLosesWrites() throws Exception {
+        final int tasks = 200;
+
+        for (int round = 0; round < 50; round++) {
+            Path path = tempDir.resolve("race" + round + ".bin");
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                FileTransferSession session = new FileTransferSession(path.getFileName().toString(), (long) tasks * BUFFER_BYTES, path, channel, ChecksumAlgorithm.SHA256);
+                UploadWriter writer = new UploadWriter(BUFFER_BYTES, 4);
+                CountDownLatch started = new CountDownLatch(1);
+
+                Thread submitter = new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < tasks; i++) {
+                        writer.submit(session, filled(writer, (byte) i), (long) i * BUFFER_BYTES);
+                    }
+                });
+                submitter.start();
+                started.await();
+                writer.close();
+                submitter.join();
+
+                session.awaitWrites();
+                byte[] written = Files.readAllBytes(path);
+                assertEquals(tasks * BUFFER_BYTES, written.length);
+                for (int i = 0; i < tasks; i++) {
+                    assertEquals((byte) i, written[i * BUFFER_BYTES + BUFFER_BYTES - 1]);
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer filled(UploadWriter writer, byte value) {
+        ByteBuffer buffer = writer.acquire();
+        while (buffer.hasRemaining()) {
+            buffer.put(value);
+        }
+        return buffer.flip();
+    }
+}
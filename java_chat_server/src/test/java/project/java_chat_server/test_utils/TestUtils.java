@@ -1,5 +1,6 @@
 package project.java_chat_server.test_utils;
 
+import project.java_chat_server.domain.ConnectionSession;
 import project.java_chat_server.wrapper_library.structure.ClientInfo;
 
 import java.nio.charset.StandardCharsets;
@@ -13,4 +14,8 @@ public class TestUtils {
         client.write();
         return client;
     }
+
+    public static ConnectionSession createSession(int clientId, String ipAddr) {
+        return new ConnectionSession(clientId, ipAddr);
+    }
 }
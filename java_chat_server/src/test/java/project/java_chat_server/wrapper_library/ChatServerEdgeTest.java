@@ -3,7 +3,9 @@ package project.java_chat_server.wrapper_library;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
+import project.java_chat_server.wrapper_library.enums.IoBackend;
 import project.java_chat_server.wrapper_library.enums.MessageType;
+import project.java_chat_server.wrapper_library.enums.SlowConsumerPolicy;
 
 import java.io.IOException;
 
@@ -47,6 +49,68 @@ class ChatServerEdgeTest {
         });
     }
 
+    @Test
+    void testConstructor_PollBackend() {
+        ChatServer server = new ChatServer(8095, 10, IoBackend.POLL);
+        try {
+            assertEquals(IoBackend.POLL, server.getIoBackend());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    void testConstructor_AutoBackendResolved() {
+        ChatServer server = new ChatServer(8096, 10, IoBackend.AUTO);
+        try {
+            // AUTO는 네이티브에서 실제 백엔드(poll 또는 epoll)로 해석되어야 함
+            assertNotEquals(IoBackend.AUTO, server.getIoBackend());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    @EnabledOnOs(OS.MAC)
+    void testConstructor_EpollUnavailableOnMac() {
+        assertThrows(RuntimeException.class, () -> new ChatServer(8097, 10, IoBackend.EPOLL));
+    }
+
+    @Test
+    void testConstructor_MultipleIoThreads() {
+        ChatServer server = new ChatServer(8098, 10, IoBackend.AUTO, 4);
+        try {
+            assertEquals(4, server.getIoThreads());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    void testConstructor_IoThreads_Zero() {
+        // C library requires 1 <= io_threads <= SERVER_MAX_IO_THREADS
+        assertThrows(RuntimeException.class, () -> new ChatServer(8099, 10, IoBackend.AUTO, 0));
+    }
+
+    @Test
+    void testConstructor_SlowConsumerPolicy() {
+        ChatServer server = new ChatServer(8100, 10, IoBackend.AUTO, 1, SlowConsumerPolicy.DROP_OLDEST, 64 * 1024);
+        try {
+            assertEquals(SlowConsumerPolicy.DROP_OLDEST, server.getSlowConsumerPolicy());
+            assertEquals(64 * 1024, server.getMaxOutboundBytes());
+            assertEquals(0, server.getOutboundBacklog(1));
+            assertEquals(0, server.getDroppedFrameCount());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    void testConstructor_MaxOutboundBytes_Zero() {
+        // C library rejects max_outbound_bytes == 0
+        assertThrows(RuntimeException.class, () -> new ChatServer(8101, 10, IoBackend.AUTO, 1, SlowConsumerPolicy.DISCONNECT, 0));
+    }
+
     @Test
     void testSendToClient_NullType() {
         ChatServer server = new ChatServer(8083, 10);
@@ -0,0 +1,157 @@
+package project.java_chat_server.wrapper_library;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InboundRingTest {
+    private static final int CAPACITY = 4096;
+
+    private ByteBuffer memory;
+    private long tail;
+    private final List<String> events = new ArrayList<>();
+
+    private final InboundRecordListener recorder = new InboundRecordListener() {
+        @Override
+        public void onConnect(int clientId, String ipAddr) {
+            events.add("connect:" + clientId + ":" + ipAddr);
+        }
+
+        @Override
+        public void onMessage(int clientId, int msgType, ByteBuffer payload) {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            events.add("message:" + clientId + ":" + msgType + ":" + new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void onDisconnect(int clientId) {
+            events.add("disconnect:" + clientId);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        // inbound_ring.h와 같은 배치로 링을 흉내냅니다.
+        memory = ByteBuffer.allocateDirect(InboundRing.HEADER_SIZE + CAPACITY).order(ByteOrder.nativeOrder());
+        memory.putLong(InboundRing.CAPACITY_OFFSET, CAPACITY);
+        tail = 0;
+        events.clear();
+    }
+
+    private void write(int kind, int clientId, int msgType, byte[] payload) {
+        int slot = InboundRing.HEADER_SIZE + (int) (tail & (CAPACITY - 1));
+        memory.putInt(slot, payload.length);
+        memory.putInt(slot + 4, kind);
+        memory.putInt(slot + 8, clientId);
+        memory.putInt(slot + 12, msgType);
+        memory.put(slot + InboundRing.RECORD_HEADER_SIZE, payload);
+        tail += (InboundRing.RECORD_HEADER_SIZE + payload.length + 15) & ~15L;
+        memory.putLong(InboundRing.TAIL_OFFSET, tail);
+    }
+
+    private void writePadding(int skip) {
+        int slot = InboundRing.HEADER_SIZE + (int) (tail & (CAPACITY - 1));
+        memory.putInt(slot, skip);
+        memory.putInt(slot + 4, InboundRing.KIND_PADDING);
+        tail += InboundRing.RECORD_HEADER_SIZE + skip;
+        memory.putLong(InboundRing.TAIL_OFFSET, tail);
+    }
+
+    @Test
+    void testDrain_DeliversRecordsInOrderAndPublishesHead() {
+        // given
+        InboundRing ring = new InboundRing(memory, pointer -> fail("외부 버퍼가 없어야 함"));
+        write(InboundRing.KIND_CONNECT, 7, 0, "127.0.0.1".getBytes(StandardCharsets.US_ASCII));
+        write(InboundRing.KIND_MESSAGE, 7, 1, "hello".getBytes(StandardCharsets.UTF_8));
+        write(InboundRing.KIND_DISCONNECT, 7, 0, new byte[0]);
+
+        // when
+        int consumed = ring.drain(recorder, 16);
+
+        // then
+        assertEquals(3, consumed);
+        assertEquals(List.of("connect:7:127.0.0.1", "message:7:1:hello", "disconnect:7"), events);
+        assertEquals(tail, memory.getLong(InboundRing.HEAD_OFFSET));
+        assertEquals(0, ring.drain(recorder, 16));
+    }
+
+    @Test
+    void testDrain_StopsAtMaxRecords() {
+        // given
+        InboundRing ring = new InboundRing(memory, pointer -> { });
+        for (int i = 0; i < 5; i++) {
+            write(InboundRing.KIND_MESSAGE, 1, 1, ("m" + i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        // when & then
+        assertEquals(2, ring.drain(recorder, 2));
+        assertEquals(List.of("message:1:1:m0", "message:1:1:m1"), events);
+        assertEquals(3, ring.drain(recorder, 10));
+        assertEquals("message:1:1:m4", events.get(4));
+    }
+
+    @Test
+    void testDrain_SkipsPaddingAtRingEnd() {
+        // given: 링 끝 근처까지 소비된 상태에서 PADDING 뒤에 처음부터 레코드가 이어짐
+        InboundRing ring = new InboundRing(memory, pointer -> { });
+        tail = CAPACITY - 64;
+        memory.putLong(InboundRing.HEAD_OFFSET, tail);
+        writePadding(64 - InboundRing.RECORD_HEADER_SIZE);
+        write(InboundRing.KIND_MESSAGE, 2, 1, "wrapped".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        int consumed = ring.drain(recorder, 16);
+
+        // then
+        assertEquals(1, consumed);
+        assertEquals(List.of("message:2:1:wrapped"), events);
+        assertEquals(tail, memory.getLong(InboundRing.HEAD_OFFSET));
+    }
+
+    @Test
+    void testDrain_ListenerExceptionDoesNotStopRing() {
+        // given
+        InboundRing ring = new InboundRing(memory, pointer -> { });
+        write(InboundRing.KIND_MESSAGE, 3, 1, "boom".getBytes(StandardCharsets.UTF_8));
+        write(InboundRing.KIND_MESSAGE, 3, 1, "ok".getBytes(StandardCharsets.UTF_8));
+        List<String> received = new ArrayList<>();
+
+        // when
+        int consumed = ring.drain(new InboundRecordListener() {
+            @Override
+            public void onConnect(int clientId, String ipAddr) {
+            }
+
+            @Override
+            public void onMessage(int clientId, int msgType, ByteBuffer payload) {
+                if (payload.remaining() == 4) {
+                    throw new IllegalStateException("boom");
+                }
+                received.add("ok");
+            }
+
+            @Override
+            public void onDisconnect(int clientId) {
+            }
+        }, 16);
+
+        // then
+        assertEquals(2, consumed);
+        assertEquals(List.of("ok"), received);
+        assertEquals(tail, memory.getLong(InboundRing.HEAD_OFFSET));
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidCapacity() {
+        memory.putLong(InboundRing.CAPACITY_OFFSET, 3000);
+        assertThrows(IllegalArgumentException.class, () -> new InboundRing(memory, pointer -> { }));
+    }
+}
@@ -0,0 +1,35 @@
+package project.java_chat_server.wrapper_library;
+
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.wrapper_library.enums.IoBackend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IoBackendTest {
+
+    @Test
+    void testFromName_CaseInsensitive() {
+        assertEquals(IoBackend.EPOLL, IoBackend.fromName("epoll"));
+        assertEquals(IoBackend.POLL, IoBackend.fromName(" Poll "));
+        assertEquals(IoBackend.AUTO, IoBackend.fromName("AUTO"));
+    }
+
+    @Test
+    void testFromName_BlankDefaultsToAuto() {
+        assertEquals(IoBackend.AUTO, IoBackend.fromName(null));
+        assertEquals(IoBackend.AUTO, IoBackend.fromName(""));
+    }
+
+    @Test
+    void testFromName_Unknown() {
+        assertThrows(IllegalArgumentException.class, () -> IoBackend.fromName("kqueue"));
+    }
+
+    @Test
+    void testFromValue_MatchesNativeEnum() {
+        assertEquals(IoBackend.AUTO, IoBackend.fromValue(0));
+        assertEquals(IoBackend.POLL, IoBackend.fromValue(1));
+        assertEquals(IoBackend.EPOLL, IoBackend.fromValue(2));
+        assertEquals(IoBackend.AUTO, IoBackend.fromValue(42));
+    }
+}
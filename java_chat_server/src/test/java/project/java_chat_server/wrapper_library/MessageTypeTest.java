@@ -12,6 +12,8 @@ class MessageTypeTest {
         assertEquals(MessageType.MSG_TYPE_CHAT_TEXT, MessageType.fromValue(1));
         assertEquals(MessageType.MSG_TYPE_FILE_INFO, MessageType.fromValue(10));
         assertEquals(MessageType.MSG_TYPE_FILE_CHUNK, MessageType.fromValue(11));
+        assertEquals(MessageType.MSG_TYPE_ROOM_JOIN_REQUEST, MessageType.fromValue(20));
+        assertEquals(MessageType.MSG_TYPE_ROOM_NOTICE, MessageType.fromValue(22));
         assertEquals(MessageType.MSG_TYPE_USER_LOGIN_REQUEST, MessageType.fromValue(100));
         assertEquals(MessageType.MSG_TYPE_USER_LOGIN_RESPONSE, MessageType.fromValue(101));
         assertEquals(MessageType.MSG_TYPE_USER_JOIN_NOTICE, MessageType.fromValue(200));
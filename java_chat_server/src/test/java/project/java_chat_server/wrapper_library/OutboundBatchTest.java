@@ -0,0 +1,159 @@
+package project.java_chat_server.wrapper_library;
+
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.wrapper_library.enums.MessageType;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundBatchTest {
+
+    @Test
+    void testEntries_LayoutMatchesNativeHeader() {
+        OutboundBatch batch = new OutboundBatch();
+        byte[] hello = "hello".getBytes(StandardCharsets.UTF_8);
+
+        batch.addSend(3, MessageType.MSG_TYPE_CHAT_TEXT, hello)
+                .addBroadcast(MessageType.MSG_TYPE_SERVER_NOTICE, new byte[0], -1);
+
+        assertEquals(2, batch.getSize());
+        assertEquals(OutboundBatch.ENTRY_HEADER_SIZE * 2 + hello.length, batch.length());
+
+        // server_batch_entry_header_t: kind, fd, msg_type, payload_len, group_id (호스트 바이트 순서)
+        ByteBuffer raw = batch.buffer().duplicate().order(ByteOrder.nativeOrder());
+        assertEquals(0, raw.getInt(0));
+        assertEquals(3, raw.getInt(4));
+        assertEquals(MessageType.MSG_TYPE_CHAT_TEXT.getValue(), raw.getInt(8));
+        assertEquals(hello.length, raw.getInt(12));
+        assertEquals(-1, raw.getInt(16));
+        assertEquals('h', raw.get(OutboundBatch.ENTRY_HEADER_SIZE));
+
+        List<OutboundBatch.Entry> entries = batch.entries();
+        assertEquals(new OutboundBatch.Entry(false, 3, MessageType.MSG_TYPE_CHAT_TEXT, 5), entries.get(0));
+        assertEquals(new OutboundBatch.Entry(true, -1, MessageType.MSG_TYPE_SERVER_NOTICE, 0), entries.get(1));
+    }
+
+    @Test
+    void testGroupBroadcast_CarriesGroupId() throws Exception {
+        OutboundBatch batch = new OutboundBatch();
+        batch.addGroupBroadcast(7, MessageType.MSG_TYPE_CHAT_TEXT, "hi".getBytes(StandardCharsets.UTF_8), 3);
+        batch.beginGroupBroadcast(8, MessageType.MSG_TYPE_ROOM_NOTICE, -1).write('{');
+        batch.endEntry();
+
+        ByteBuffer raw = batch.buffer().duplicate().order(ByteOrder.nativeOrder());
+        assertEquals(2, raw.getInt(0));
+        assertEquals(3, raw.getInt(4));
+        assertEquals(7, raw.getInt(16));
+
+        assertEquals(new OutboundBatch.Entry(true, 3, MessageType.MSG_TYPE_CHAT_TEXT, 2, 7), batch.entries().get(0));
+        assertEquals(new OutboundBatch.Entry(true, -1, MessageType.MSG_TYPE_ROOM_NOTICE, 1, 8), batch.entries().get(1));
+        assertEquals("hi", new String(batch.payloads().get(0), StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> batch.addGroupBroadcast(-1, MessageType.MSG_TYPE_CHAT_TEXT, new byte[]{1}, -1));
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        OutboundBatch batch = new OutboundBatch(32);
+        byte[] payload = new byte[1000];
+
+        for (int i = 0; i < 10; i++) {
+            batch.addSend(i, MessageType.MSG_TYPE_CHAT_TEXT, payload);
+        }
+
+        assertEquals(10, batch.getSize());
+        assertEquals(10 * (OutboundBatch.ENTRY_HEADER_SIZE + payload.length), batch.length());
+        assertEquals(9, batch.entries().get(9).clientId());
+        assertTrue(batch.capacity() >= batch.length());
+        batch.clear();
+        assertTrue(batch.capacity() >= 10 * payload.length);
+    }
+
+    @Test
+    void testClear_AllowsReuse() {
+        OutboundBatch batch = new OutboundBatch();
+        batch.addSend(1, MessageType.MSG_TYPE_CHAT_TEXT, new byte[]{1});
+        batch.clear();
+
+        assertTrue(batch.isEmpty());
+        assertEquals(0, batch.length());
+        assertTrue(batch.entries().isEmpty());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        OutboundBatch batch = new OutboundBatch();
+
+        assertThrows(IllegalArgumentException.class, () -> batch.addSend(-1, MessageType.MSG_TYPE_CHAT_TEXT, new byte[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> batch.addBroadcast(null, new byte[]{1}, -1));
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    void testBeginSend_WritesPayloadInPlace() throws Exception {
+        OutboundBatch batch = new OutboundBatch(32);
+
+        OutputStream out = batch.beginSend(4, MessageType.MSG_TYPE_CHAT_TEXT);
+        out.write('{');
+        out.write(new byte[100], 0, 100);
+        batch.endEntry();
+        batch.beginBroadcast(MessageType.MSG_TYPE_USER_JOIN_NOTICE, 4).write("hi".getBytes(StandardCharsets.UTF_8));
+        batch.endEntry();
+
+        assertEquals(2, batch.getSize());
+        assertEquals(new OutboundBatch.Entry(false, 4, MessageType.MSG_TYPE_CHAT_TEXT, 101), batch.entries().get(0));
+        assertEquals(new OutboundBatch.Entry(true, 4, MessageType.MSG_TYPE_USER_JOIN_NOTICE, 2), batch.entries().get(1));
+        assertEquals('{', batch.payloads().get(0)[0]);
+        assertEquals("hi", new String(batch.payloads().get(1), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLastPayload_ViewsLastClosedEntry() throws Exception {
+        OutboundBatch batch = new OutboundBatch(32);
+        assertThrows(IllegalStateException.class, batch::lastPayload);
+
+        batch.addSend(1, MessageType.MSG_TYPE_CHAT_TEXT, "first".getBytes(StandardCharsets.UTF_8));
+        batch.beginBroadcast(MessageType.MSG_TYPE_CHAT_TEXT, -1).write(new byte[100]);
+        batch.endEntry();
+        batch.beginSend(2, MessageType.MSG_TYPE_CHAT_TEXT).write(new byte[]{1, 2});
+        batch.abortEntry();
+
+        // 버퍼가 커진 뒤에도, 지워진 항목을 건너뛰고 마지막으로 닫힌 항목을 가리킴
+        ByteBuffer last = batch.lastPayload();
+        assertEquals(100, last.remaining());
+        assertTrue(last.isReadOnly());
+
+        batch.clear();
+        assertThrows(IllegalStateException.class, batch::lastPayload);
+    }
+
+    @Test
+    void testAbortEntry_RemovesPartialEntry() throws Exception {
+        OutboundBatch batch = new OutboundBatch();
+        batch.addSend(1, MessageType.MSG_TYPE_CHAT_TEXT, new byte[]{1});
+        int length = batch.length();
+
+        batch.beginSend(2, MessageType.MSG_TYPE_CHAT_TEXT).write(new byte[]{1, 2, 3});
+        batch.abortEntry();
+
+        assertEquals(1, batch.getSize());
+        assertEquals(length, batch.length());
+        assertEquals(1, batch.entries().size());
+    }
+
+    @Test
+    void testOpenEntry_BlocksOtherEntries() {
+        OutboundBatch batch = new OutboundBatch();
+        batch.beginSend(1, MessageType.MSG_TYPE_CHAT_TEXT);
+
+        assertThrows(IllegalStateException.class, () -> batch.addSend(2, MessageType.MSG_TYPE_CHAT_TEXT, new byte[]{1}));
+        assertThrows(IllegalStateException.class, () -> batch.beginBroadcast(MessageType.MSG_TYPE_CHAT_TEXT, -1));
+        batch.endEntry();
+        assertThrows(IllegalStateException.class, batch::endEntry);
+        assertThrows(IllegalArgumentException.class, () -> batch.beginSend(-1, MessageType.MSG_TYPE_CHAT_TEXT));
+    }
+}
@@ -0,0 +1,47 @@
+package project.java_chat_server.wrapper_library;
+
+import org.junit.jupiter.api.Test;
+import project.java_chat_server.wrapper_library.enums.SendResult;
+import project.java_chat_server.wrapper_library.enums.SlowConsumerPolicy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowConsumerPolicyTest {
+
+    @Test
+    void testFromName_AcceptsPropertyStyle() {
+        assertEquals(SlowConsumerPolicy.DROP_NEW, SlowConsumerPolicy.fromName("drop-new"));
+        assertEquals(SlowConsumerPolicy.DROP_OLDEST, SlowConsumerPolicy.fromName(" DROP_OLDEST "));
+        assertEquals(SlowConsumerPolicy.DISCONNECT, SlowConsumerPolicy.fromName("Disconnect"));
+    }
+
+    @Test
+    void testFromName_BlankDefaultsToDisconnect() {
+        assertEquals(SlowConsumerPolicy.DISCONNECT, SlowConsumerPolicy.fromName(null));
+        assertEquals(SlowConsumerPolicy.DISCONNECT, SlowConsumerPolicy.fromName(""));
+    }
+
+    @Test
+    void testFromName_Unknown() {
+        assertThrows(IllegalArgumentException.class, () -> SlowConsumerPolicy.fromName("block"));
+    }
+
+    @Test
+    void testSendResult_FromValue_MatchesNativeEnum() {
+        assertEquals(SendResult.FAILED, SendResult.fromValue(-1));
+        assertEquals(SendResult.OK, SendResult.fromValue(0));
+        assertEquals(SendResult.DROPPED, SendResult.fromValue(1));
+        assertEquals(SendResult.DROPPED_OLDEST, SendResult.fromValue(2));
+        assertEquals(SendResult.DISCONNECTING, SendResult.fromValue(3));
+        assertEquals(SendResult.PARTIAL, SendResult.fromValue(4));
+        assertEquals(SendResult.FAILED, SendResult.fromValue(-22));
+    }
+
+    @Test
+    void testSendResult_IsDelivered() {
+        assertTrue(SendResult.OK.isDelivered());
+        assertTrue(SendResult.DROPPED_OLDEST.isDelivered());
+        assertFalse(SendResult.DROPPED.isDelivered());
+        assertFalse(SendResult.DISCONNECTING.isDelivered());
+    }
+}
@@ -6,6 +6,10 @@ class MessageType(IntEnum):
     MSG_TYPE_FILE_CHUNK = 11
     MSG_TYPE_FILE_END = 12
     MSG_TYPE_FILE_REQUEST = 13
+    MSG_TYPE_FILE_CHUNK_AT = 14
+    MSG_TYPE_ROOM_JOIN_REQUEST = 20
+    MSG_TYPE_ROOM_LEAVE_REQUEST = 21
+    MSG_TYPE_ROOM_NOTICE = 22
     MSG_TYPE_USER_LOGIN_REQUEST = 100
     MSG_TYPE_USER_LOGIN_RESPONSE = 101
     MSG_TYPE_USER_JOIN_NOTICE = 200